@@ -9,6 +9,10 @@
  */
 package io.pravega.client.netty.impl;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.client.stream.AppendBatchingListener;
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.common.ExponentialMovingAverage;
 import io.pravega.common.MathHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
@@ -19,31 +23,67 @@ import java.util.function.Supplier;
 /**
  * See {@link AppendBatchSizeTracker}.
  * 
- * This implementation tracks three things:
+ * This implementation tracks four things:
  * 1. The time between appends
  * 2. The size of each append
  * 3. The number of unackedAppends there are outstanding
+ * 4. The time it takes for an append to be acked
  * 
- * If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and synchronus writers.
- * Otherwise the batch size is set to the amount of data that will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+ * How these are turned into a block size depends on the {@link AppendBatchingPolicy}:
+ * - ADAPTIVE: If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and
+ * synchronus writers. Otherwise the batch size is set to the amount of data that will be written in the next
+ * {@link #TARGET_BATCH_TIME_MILLIS}.
+ * - LATENCY: Like ADAPTIVE, but the batch size is set to the amount of data that will be written while waiting for an
+ * ack (never longer than the policy's max batch delay). Holding events back for that long adds little to the latency
+ * that a writer would observe anyway.
+ * - THROUGHPUT: Batching is always enabled and the batch size is set to the amount of data that will be written in the
+ * larger of the policy's max batch delay and the ack latency, up to the policy's max block size.
+ *
+ * The batch timeout is always the policy's max batch delay.
  */
 class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
-    private static final int MAX_BATCH_TIME_MILLIS = 100;
     private static final int TARGET_BATCH_TIME_MILLIS = 10;
-    private static final int MAX_BATCH_SIZE = 32 * 1024;
+    private static final long NO_PENDING_ACK = -1;
 
+    private final AppendBatchingPolicy policy;
     private final Supplier<Long> clock;
     private final AtomicLong lastAppendNumber;
     private final AtomicLong lastAppendTime;
     private final AtomicLong lastAckNumber;
     private final ExponentialMovingAverage eventSize = new ExponentialMovingAverage(1024, 0.1, true);
     private final ExponentialMovingAverage millisBetweenAppends = new ExponentialMovingAverage(10, 0.1, false);
+    private final ExponentialMovingAverage ackLatencyMillis = new ExponentialMovingAverage(TARGET_BATCH_TIME_MILLIS, 0.1, false);
+    /**
+     * A single append is timed at any given moment: once it is acked a new one is picked. This gives one ack latency
+     * sample per round trip, which is plenty, without needing to keep track of the time of every append.
+     */
+    private final AtomicLong timedAppendNumber;
+    private final AtomicLong timedAppendTime;
+    private final AppendBatchStats stats;
 
     AppendBatchSizeTrackerImpl() {
-        clock = System::currentTimeMillis;
+        this(AppendBatchingPolicy.adaptive(), null, System::currentTimeMillis);
+    }
+
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy, AppendBatchingListener listener) {
+        this(policy, listener, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy, Supplier<Long> clock) {
+        this(policy, null, clock);
+    }
+
+    @VisibleForTesting
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy, AppendBatchingListener listener, Supplier<Long> clock) {
+        this.policy = Preconditions.checkNotNull(policy, "policy");
+        this.clock = Preconditions.checkNotNull(clock, "clock");
         lastAppendTime = new AtomicLong(clock.get());
         lastAckNumber = new AtomicLong(0);
         lastAppendNumber = new AtomicLong(0);
+        timedAppendNumber = new AtomicLong(NO_PENDING_ACK);
+        timedAppendTime = new AtomicLong(0);
+        stats = new AppendBatchStats(listener);
     }
 
     @Override
@@ -53,28 +93,83 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         lastAppendNumber.set(eventNumber);
         millisBetweenAppends.addNewSample(now - last);
         eventSize.addNewSample(size);
+        if (timedAppendNumber.get() == NO_PENDING_ACK) {
+            timedAppendTime.set(now);
+            timedAppendNumber.compareAndSet(NO_PENDING_ACK, eventNumber);
+        }
     }
 
     @Override
     public void recordAck(long eventNumber) {
         lastAckNumber.getAndSet(eventNumber);
+        long timed = timedAppendNumber.get();
+        if (timed != NO_PENDING_ACK && timed <= eventNumber) {
+            long sentAt = timedAppendTime.get();
+            if (timedAppendNumber.compareAndSet(timed, NO_PENDING_ACK)) {
+                ackLatencyMillis.addNewSample(Math.max(0, clock.get() - sentAt));
+            }
+        }
     }
 
     /**
-     * Returns a block size that in an estimate of how much data will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+     * Returns a block size that in an estimate of how much data will be written in the batching window determined by
+     * the {@link AppendBatchingPolicy}.
      */
     @Override
     public int getAppendBlockSize() {
         long numInflight = lastAppendNumber.get() - lastAckNumber.get();
-        if (numInflight <= 1) {
-            return 0;
+        double batchTimeMillis;
+        switch (policy.getBatchingType()) {
+        case LATENCY:
+            if (numInflight <= 1) {
+                return 0;
+            }
+            batchTimeMillis = Math.min(ackLatencyMillis.getCurrentValue(), policy.getMaxBatchDelayMillis());
+            break;
+        case THROUGHPUT:
+            batchTimeMillis = Math.max(ackLatencyMillis.getCurrentValue(), policy.getMaxBatchDelayMillis());
+            break;
+        default:
+            if (numInflight <= 1) {
+                return 0;
+            }
+            batchTimeMillis = TARGET_BATCH_TIME_MILLIS;
+            break;
         }
-        return (int) MathHelpers.minMax((long) (TARGET_BATCH_TIME_MILLIS / millisBetweenAppends.getCurrentValue()
-                * eventSize.getCurrentValue()), 0, MAX_BATCH_SIZE);
+        return (int) MathHelpers.minMax((long) (batchTimeMillis / millisBetweenAppends.getCurrentValue()
+                * eventSize.getCurrentValue()), 0, policy.getMaxBlockSizeBytes());
     }
 
     @Override
     public int getBatchTimeout() {
-        return MAX_BATCH_TIME_MILLIS;
+        return policy.getMaxBatchDelayMillis();
+    }
+
+    @Override
+    public void recordBlockClosed(int bytesInBlock, BlockCloseReason reason) {
+        stats.record(bytesInBlock, reason);
+    }
+
+    /**
+     * Gets the statistics about the append blocks that have been sent using this tracker.
+     *
+     * @return The statistics.
+     */
+    AppendBatchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the current estimate of the time it takes for an append to be acked, in milliseconds.
+     *
+     * @return The estimate.
+     */
+    double getAckLatencyMillis() {
+        return ackLatencyMillis.getCurrentValue();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Policy = %s, AckLatencyMillis = %.1f, %s", policy.getBatchingType(), getAckLatencyMillis(), stats);
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.client.stream.AppendBatchingListener;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker.BlockCloseReason;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the append blocks sent over a single connection (and hence for a single writer and segment), along with the
+ * number of event bytes they contained and the reasons they were closed. Every block is also reported to the writer's
+ * AppendBatchingListener, if it has one.
+ */
+class AppendBatchStats {
+    private final LongAdder totalBlocks = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder[] blocksByReason;
+    private final AppendBatchingListener listener;
+
+    /**
+     * Creates a new instance of the AppendBatchStats class.
+     *
+     * @param listener (Optional) The writer's AppendBatchingListener.
+     */
+    AppendBatchStats(AppendBatchingListener listener) {
+        this.listener = listener;
+        this.blocksByReason = new LongAdder[BlockCloseReason.values().length];
+        for (int i = 0; i < this.blocksByReason.length; i++) {
+            this.blocksByReason[i] = new LongAdder();
+        }
+    }
+
+    void record(int bytesInBlock, BlockCloseReason reason) {
+        this.totalBlocks.increment();
+        this.totalBytes.add(bytesInBlock);
+        this.blocksByReason[reason.ordinal()].increment();
+        if (this.listener != null) {
+            this.listener.blockSent(bytesInBlock, toListenerReason(reason));
+        }
+    }
+
+    /**
+     * Gets the number of blocks that have been sent.
+     *
+     * @return The number of blocks.
+     */
+    long getBlockCount() {
+        return this.totalBlocks.sum();
+    }
+
+    /**
+     * Gets the number of blocks that were closed for the given reason.
+     *
+     * @param reason The reason.
+     * @return The number of blocks.
+     */
+    long getBlockCount(BlockCloseReason reason) {
+        return this.blocksByReason[reason.ordinal()].sum();
+    }
+
+    /**
+     * Gets the average number of event bytes in a block.
+     *
+     * @return The average block size, or 0 if no blocks have been sent.
+     */
+    double getAverageBlockSize() {
+        long blocks = this.totalBlocks.sum();
+        return blocks == 0 ? 0 : (double) this.totalBytes.sum() / blocks;
+    }
+
+    private static AppendBatchingListener.BlockCloseReason toListenerReason(BlockCloseReason reason) {
+        switch (reason) {
+            case FULL:
+                return AppendBatchingListener.BlockCloseReason.FULL;
+            case TIMEOUT:
+                return AppendBatchingListener.BlockCloseReason.TIMEOUT;
+            case INTERRUPTED:
+                return AppendBatchingListener.BlockCloseReason.INTERRUPTED;
+            default:
+                throw new IllegalArgumentException("Unknown BlockCloseReason: " + reason);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Blocks = %d, AvgBlockSize = %.1f, Full = %d, Timeout = %d, Interrupted = %d",
+                getBlockCount(), getAverageBlockSize(), getBlockCount(BlockCloseReason.FULL),
+                getBlockCount(BlockCloseReason.TIMEOUT), getBlockCount(BlockCloseReason.INTERRUPTED));
+    }
+}
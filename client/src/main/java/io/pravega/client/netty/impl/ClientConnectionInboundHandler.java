@@ -83,6 +83,7 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
             future.cancel(false);
         }
         channel.set(null);
+        log.debug("Connection {} dropped. Append batching: {}", connectionName, batchSizeTracker);
         processor.connectionDropped();
         super.channelUnregistered(ctx);
     }
@@ -12,6 +12,8 @@ package io.pravega.client.netty.impl;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
+import io.pravega.client.stream.AppendBatchingListener;
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 
@@ -30,6 +32,22 @@ public interface ConnectionFactory extends AutoCloseable {
      */
     CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp);
 
+    /**
+     * Establishes a connection between server and client with given parameters. Appends sent over this connection
+     * are batched according to the given policy.
+     *
+     * @param endpoint         The Pravega Node URI.
+     * @param rp               Reply Processor instance.
+     * @param batchingPolicy   The policy used to batch appends sent over the connection.
+     * @param batchingListener (Optional) A listener to report the append blocks sent over the connection to.
+     * @return An instance of client connection.
+     */
+    default CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp,
+                                                                    AppendBatchingPolicy batchingPolicy,
+                                                                    AppendBatchingListener batchingListener) {
+        return establishConnection(endpoint, rp);
+    }
+
     /**
      * Get the internal executor which is used by the client.
      * @return A ScheduledExecutorService.
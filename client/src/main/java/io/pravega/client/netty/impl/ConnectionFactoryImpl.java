@@ -35,6 +35,8 @@ import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.util.FingerprintTrustManagerFactory;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import io.pravega.client.ClientConfig;
+import io.pravega.client.stream.AppendBatchingListener;
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
@@ -99,7 +101,15 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
     
     @Override
     public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp) {
+        return establishConnection(location, rp, AppendBatchingPolicy.adaptive(), null);
+    }
+
+    @Override
+    public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp,
+                                                                   AppendBatchingPolicy batchingPolicy,
+                                                                   AppendBatchingListener batchingListener) {
         Preconditions.checkNotNull(location);
+        Preconditions.checkNotNull(batchingPolicy);
         Exceptions.checkNotClosed(closed.get(), this);
         final SslContext sslCtx;
         if (clientConfig.isEnableTls()) {
@@ -119,7 +129,7 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
         } else {
             sslCtx = null;
         }
-        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl();
+        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl(batchingPolicy, batchingListener);
         ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler(location.getEndpoint(), rp, batchSizeTracker);
         Bootstrap b = new Bootstrap();
         b.group(group)
@@ -10,6 +10,7 @@
 package io.pravega.client.segment.impl;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.Unpooled;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.impl.ConnectionClosedException;
@@ -25,7 +26,6 @@ import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsTruncated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -92,16 +92,22 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
                         segmentIsSealed.getRequestId(),
                         true,
                         true,
-                        ByteBuffer.allocate(0)));
+                        Unpooled.EMPTY_BUFFER));
             }
         }
 
         @Override
         public void segmentRead(WireCommands.SegmentRead segmentRead) {
             log.trace("Received read result {}", segmentRead);
-            CompletableFuture<SegmentRead> future = grabFuture(segmentRead.getSegment(), segmentRead.getOffset());
-            if (future != null) {
-                future.complete(segmentRead);
+            boolean handedOff = false;
+            try {
+                CompletableFuture<SegmentRead> future = grabFuture(segmentRead.getSegment(), segmentRead.getOffset());
+                handedOff = future != null && future.complete(segmentRead);
+            } finally {
+                if (!handedOff) {
+                    // Nobody is waiting for this data anymore (or it was not meant for us).
+                    segmentRead.release();
+                }
             }
         }
 
@@ -10,6 +10,7 @@
 package io.pravega.client.segment.impl;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.CircularBuffer;
@@ -87,7 +88,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             buffer.clear();
             receivedEndOfSegment = false;
             receivedTruncated = false;
-            outstandingRequest = null;        
+            discardOutstandingRequest();
         }
     }
 
@@ -113,7 +114,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             return result;
         } finally {
             if (!success) {
-                outstandingRequest = null;
+                discardOutstandingRequest();
                 offset = originalOffset;
                 buffer.clear();
             }
@@ -174,20 +175,32 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             throw e;
         }
         verifyIsAtCorrectOffset(segmentRead);
-        if (segmentRead.getData().hasRemaining()) {
-            buffer.fill(segmentRead.getData());
+        ByteBuf data = segmentRead.getData();
+        if (data.isReadable()) {
+            data.skipBytes(buffer.fill(data.nioBuffer()));
         }
         if (segmentRead.isEndOfSegment()) {
             receivedEndOfSegment = true;
         }
-        if (!segmentRead.getData().hasRemaining()) {
+        if (!data.isReadable()) {
+            segmentRead.release();
             outstandingRequest = null;
             issueRequestIfNeeded();
         }
     }
 
+    /**
+     * Abandons the outstanding request (if any), making sure the data it holds (or will hold) is released.
+     */
+    private void discardOutstandingRequest() {
+        if (outstandingRequest != null) {
+            outstandingRequest.thenAccept(SegmentRead::release);
+            outstandingRequest = null;
+        }
+    }
+
     private void verifyIsAtCorrectOffset(WireCommands.SegmentRead segmentRead) {
-        long offsetRead = segmentRead.getOffset() + segmentRead.getData().position();
+        long offsetRead = segmentRead.getOffset() + segmentRead.getData().readerIndex();
         long expectedOffset = offset + buffer.dataAvailable();
         checkState(offsetRead == expectedOffset, "ReadSegment returned data for the wrong offset %s vs %s", offsetRead,
                    expectedOffset);
@@ -208,6 +221,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         log.trace("Closing {}", this);
         if (outstandingRequest != null) {
             log.trace("Cancel outstanding read request for segment {}", asyncInput.getSegmentId());
+            outstandingRequest.thenAccept(SegmentRead::release);
             outstandingRequest.cancel(true);
         }
         asyncInput.close();
@@ -232,7 +246,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
     @Synchronized
     public boolean canReadWithoutBlocking() {
         boolean result = buffer.dataAvailable() > 0 || (outstandingRequest != null && Futures.isSuccessful(outstandingRequest)
-                && outstandingRequest.join().getData().hasRemaining());
+                && outstandingRequest.join().getData().isReadable());
         log.trace("canReadWithoutBlocking {}", result);
         return result;
     }
@@ -34,13 +34,15 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
     public SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId, Consumer<Segment> segmentSealedCallback,
                                                                 EventWriterConfig config, String delegationToken) {
         return new SegmentOutputStreamImpl(StreamSegmentNameUtils.getTransactionNameFromId(segment.getScopedName(), txId), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken);
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken,
+                config.getAppendBatchingPolicy(), config.getAppendBatchingListener());
     }
 
     @Override
     public SegmentOutputStream createOutputStreamForSegment(Segment segment, Consumer<Segment> segmentSealedCallback, EventWriterConfig config, String delegationToken) {
         SegmentOutputStreamImpl result = new SegmentOutputStreamImpl(segment.getScopedName(), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken);
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken,
+                config.getAppendBatchingPolicy(), config.getAppendBatchingListener());
         try {
             result.getConnection();
         } catch (RetriesExhaustedException | SegmentSealedException e) {
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Receives statistics about the append blocks sent by a writer, as grouped by its {@link AppendBatchingPolicy}. This
+ * can be used to verify that a policy achieves the expected block sizes for a given workload.
+ * <p>
+ * A listener is set for a writer through {@link EventWriterConfig}. It is invoked on the threads that send the writer's
+ * appends (for all of the Segments the writer writes to), so implementations must be thread safe and must not block.
+ */
+@Beta
+@FunctionalInterface
+public interface AppendBatchingListener {
+
+    /**
+     * The reasons for which an append block is sent.
+     */
+    enum BlockCloseReason {
+        /**
+         * The block was filled up to the size requested by the batching policy.
+         */
+        FULL,
+
+        /**
+         * The policy's max batch delay elapsed before the block was filled.
+         */
+        TIMEOUT,
+
+        /**
+         * Another request (for instance a conditional append) had to be sent before the block was filled.
+         */
+        INTERRUPTED
+    }
+
+    /**
+     * Invoked every time the writer sends an append block.
+     *
+     * @param blockSizeBytes The number of event bytes in the block.
+     * @param reason         The reason why the block was sent.
+     */
+    void blockSent(int blockSizeBytes, BlockCloseReason reason);
+}
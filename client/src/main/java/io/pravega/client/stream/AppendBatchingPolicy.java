@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream;
+
+import com.google.common.base.Preconditions;
+import java.io.Serializable;
+import java.time.Duration;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Determines how a writer groups events into append blocks before sending them over the wire. Batching trades added
+ * latency for fewer, larger writes: low rate writers usually want the former kept to a minimum, while bulk writers
+ * want blocks to be as full as possible.
+ */
+@Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class AppendBatchingPolicy implements Serializable {
+    /**
+     * The largest block size that can be requested. Blocks are sent as single wire commands so this must stay well
+     * below the maximum size of a wire command.
+     */
+    public static final int MAX_BLOCK_SIZE_BYTES = 1024 * 1024;
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_MAX_BATCH_DELAY_MILLIS = 100;
+    private static final int DEFAULT_MAX_BLOCK_SIZE_BYTES = 32 * 1024;
+
+    public enum BatchingType {
+        /**
+         * Batches only while there are unacknowledged appends, sizing blocks to the data expected within a fixed
+         * window of time.
+         */
+        ADAPTIVE,
+
+        /**
+         * Batches only while there are unacknowledged appends, sizing blocks to the data expected within the time it
+         * takes the server to acknowledge an append. No event is held back for longer than the maximum batch delay.
+         */
+        LATENCY,
+
+        /**
+         * Always batches, sizing blocks to the data expected within the larger of the maximum batch delay and the time
+         * it takes the server to acknowledge an append, up to the maximum block size.
+         */
+        THROUGHPUT
+    }
+
+    private final BatchingType batchingType;
+
+    /**
+     * The maximum amount of time, in milliseconds, that an event may be held back in a partially filled block.
+     */
+    private final int maxBatchDelayMillis;
+
+    /**
+     * The maximum size of an append block, in bytes.
+     */
+    private final int maxBlockSizeBytes;
+
+    /**
+     * Creates the default batching policy, which adapts the block size to the rate at which events are written.
+     *
+     * @return Batching policy object.
+     */
+    public static AppendBatchingPolicy adaptive() {
+        return new AppendBatchingPolicy(BatchingType.ADAPTIVE, DEFAULT_MAX_BATCH_DELAY_MILLIS, DEFAULT_MAX_BLOCK_SIZE_BYTES);
+    }
+
+    /**
+     * Creates a batching policy that bounds the delay added to each event.
+     *
+     * @param maxBatchDelay The maximum amount of time an event may be held back waiting for a block to fill up.
+     * @return Batching policy object.
+     */
+    public static AppendBatchingPolicy byLatency(Duration maxBatchDelay) {
+        return new AppendBatchingPolicy(BatchingType.LATENCY, toMillis(maxBatchDelay), DEFAULT_MAX_BLOCK_SIZE_BYTES);
+    }
+
+    /**
+     * Creates a batching policy that fills blocks of up to the given size.
+     *
+     * @param maxBlockSizeBytes The maximum size of an append block, in bytes. Must be at most {@link #MAX_BLOCK_SIZE_BYTES}.
+     * @param maxBatchDelay     The maximum amount of time an event may be held back waiting for a block to fill up.
+     * @return Batching policy object.
+     */
+    public static AppendBatchingPolicy byThroughput(int maxBlockSizeBytes, Duration maxBatchDelay) {
+        Preconditions.checkArgument(maxBlockSizeBytes > 0 && maxBlockSizeBytes <= MAX_BLOCK_SIZE_BYTES,
+                "maxBlockSizeBytes must be a positive number no larger than %s.", MAX_BLOCK_SIZE_BYTES);
+        return new AppendBatchingPolicy(BatchingType.THROUGHPUT, toMillis(maxBatchDelay), maxBlockSizeBytes);
+    }
+
+    private static int toMillis(Duration maxBatchDelay) {
+        Preconditions.checkNotNull(maxBatchDelay, "maxBatchDelay");
+        long millis = maxBatchDelay.toMillis();
+        Preconditions.checkArgument(millis > 0 && millis <= Integer.MAX_VALUE, "maxBatchDelay must be a positive number of milliseconds.");
+        return (int) millis;
+    }
+}
@@ -31,6 +31,15 @@ public class EventWriterConfig implements Serializable {
      * The maximum amount of time, in milliseconds after a scale operation has been initiated before a transaction is timed out. 
      */
     private final long transactionTimeoutScaleGracePeriod;
+    /**
+     * The policy used to group events into append blocks. See {@link AppendBatchingPolicy}.
+     */
+    private final AppendBatchingPolicy appendBatchingPolicy;
+    /**
+     * (Optional) A listener that receives statistics about the append blocks sent by the writer. See
+     * {@link AppendBatchingListener}. This is not serialized along with the rest of the config.
+     */
+    private final transient AppendBatchingListener appendBatchingListener;
     
     public static final class EventWriterConfigBuilder {
         private int initalBackoffMillis = 1;
@@ -39,6 +48,7 @@ public class EventWriterConfig implements Serializable {
         private int backoffMultiple = 10;
         private long transactionTimeoutTime = 60 * 60 * 1000;
         private long transactionTimeoutScaleGracePeriod = -1;
+        private AppendBatchingPolicy appendBatchingPolicy = AppendBatchingPolicy.adaptive();
     }
     
     
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.client.stream.AppendBatchingListener;
+import io.pravega.client.stream.AppendBatchingPolicy;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker.BlockCloseReason;
+import io.pravega.test.common.AssertExtensions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AppendBatchSizeTrackerImplTest {
+    private static final int EVENT_SIZE = 100;
+    private static final int ACK_LATENCY_MILLIS = 5;
+
+    @Test
+    public void testAdaptive() {
+        AtomicLong clock = new AtomicLong();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.adaptive(), clock::get);
+        assertEquals(100, tracker.getBatchTimeout());
+        tracker.recordAppend(1, EVENT_SIZE);
+        assertEquals("Synchronous writers should not batch.", 0, tracker.getAppendBlockSize());
+
+        writeSteadily(tracker, clock, EVENT_SIZE);
+        // About 10ms worth of data.
+        assertInRange(10 * EVENT_SIZE, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testLatency() {
+        AtomicLong clock = new AtomicLong();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.byLatency(Duration.ofMillis(50)), clock::get);
+        assertEquals(50, tracker.getBatchTimeout());
+        tracker.recordAppend(1, EVENT_SIZE);
+        assertEquals("Synchronous writers should not batch.", 0, tracker.getAppendBlockSize());
+
+        writeSteadily(tracker, clock, EVENT_SIZE);
+        assertEquals(ACK_LATENCY_MILLIS, tracker.getAckLatencyMillis(), 0.5);
+        // As much data as is written while waiting for an ack.
+        assertInRange(ACK_LATENCY_MILLIS * EVENT_SIZE, tracker.getAppendBlockSize());
+
+        // The max batch delay caps the window, even if acks are slower.
+        tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.byLatency(Duration.ofMillis(2)), clock::get);
+        writeSteadily(tracker, clock, EVENT_SIZE);
+        assertInRange(2 * EVENT_SIZE, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testThroughput() {
+        AtomicLong clock = new AtomicLong();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(
+                AppendBatchingPolicy.byThroughput(64 * 1024, Duration.ofMillis(20)), clock::get);
+        assertEquals(20, tracker.getBatchTimeout());
+        writeSteadily(tracker, clock, EVENT_SIZE);
+        assertInRange(20 * EVENT_SIZE, tracker.getAppendBlockSize());
+
+        // Batching continues even when everything has been acked.
+        tracker.recordAck(clock.get());
+        assertInRange(20 * EVENT_SIZE, tracker.getAppendBlockSize());
+
+        // Large events fill up the block.
+        tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.byThroughput(64 * 1024, Duration.ofMillis(20)), clock::get);
+        writeSteadily(tracker, clock, 10000);
+        assertEquals(64 * 1024, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testStats() {
+        List<String> listened = Collections.synchronizedList(new ArrayList<>());
+        AppendBatchingListener listener = (blockSizeBytes, reason) -> listened.add(blockSizeBytes + ":" + reason);
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.adaptive(), listener);
+        tracker.recordBlockClosed(100, BlockCloseReason.FULL);
+        tracker.recordBlockClosed(50, BlockCloseReason.TIMEOUT);
+        tracker.recordBlockClosed(30, BlockCloseReason.TIMEOUT);
+        AppendBatchStats stats = tracker.getStats();
+        assertEquals(3, stats.getBlockCount());
+        assertEquals(1, stats.getBlockCount(BlockCloseReason.FULL));
+        assertEquals(2, stats.getBlockCount(BlockCloseReason.TIMEOUT));
+        assertEquals(0, stats.getBlockCount(BlockCloseReason.INTERRUPTED));
+        assertEquals(60, stats.getAverageBlockSize(), 0.01);
+
+        // The same blocks must have been reported to the writer's listener.
+        assertEquals(Arrays.asList("100:FULL", "50:TIMEOUT", "30:TIMEOUT"), listened);
+
+        // Every reason must be translated to the listener's.
+        tracker.recordBlockClosed(10, BlockCloseReason.INTERRUPTED);
+        assertEquals("10:INTERRUPTED", listened.get(3));
+    }
+
+    @Test
+    public void testPolicyValidation() {
+        AssertExtensions.assertThrows("Zero block size.",
+                () -> AppendBatchingPolicy.byThroughput(0, Duration.ofMillis(1)),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows("Block size too large.",
+                () -> AppendBatchingPolicy.byThroughput(AppendBatchingPolicy.MAX_BLOCK_SIZE_BYTES + 1, Duration.ofMillis(1)),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows("Zero delay.",
+                () -> AppendBatchingPolicy.byLatency(Duration.ZERO),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Writes one event per millisecond, with each event being acked {@link #ACK_LATENCY_MILLIS} after it was written.
+     */
+    private void writeSteadily(AppendBatchSizeTrackerImpl tracker, AtomicLong clock, int eventSize) {
+        long start = clock.get();
+        for (long eventNumber = start + 1; eventNumber <= start + 500; eventNumber++) {
+            clock.set(eventNumber);
+            tracker.recordAppend(eventNumber, eventSize);
+            if (eventNumber - ACK_LATENCY_MILLIS > start) {
+                tracker.recordAck(eventNumber - ACK_LATENCY_MILLIS);
+            }
+        }
+    }
+
+    private void assertInRange(int expected, int actual) {
+        assertTrue("Expected about " + expected + " but was " + actual, actual >= expected * 0.8 && actual <= expected * 1.2);
+    }
+}
@@ -9,6 +9,8 @@
  */
 package io.pravega.client.segment.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.stream.impl.ConnectionClosedException;
 import io.pravega.client.stream.mock.MockConnectionFactoryImpl;
@@ -22,7 +24,6 @@ import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.Async;
-import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import lombok.Cleanup;
@@ -54,7 +55,7 @@ public class AsyncSegmentInputStreamTest {
         InOrder inOrder = Mockito.inOrder(c);
         connectionFactory.provideConnection(endpoint, c);
         
-        WireCommands.SegmentRead segmentRead = new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, ByteBuffer.allocate(0));
+        WireCommands.SegmentRead segmentRead = new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, Unpooled.EMPTY_BUFFER);
         Mockito.doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) throws Throwable {
@@ -116,7 +117,7 @@ public class AsyncSegmentInputStreamTest {
         ClientConnection c = mock(ClientConnection.class);
         connectionFactory.provideConnection(endpoint, c);
         
-        WireCommands.SegmentRead segmentRead = new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, ByteBuffer.allocate(0));
+        WireCommands.SegmentRead segmentRead = new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, Unpooled.EMPTY_BUFFER);
         CompletableFuture<SegmentRead> readFuture = in.read(1234, 5678);
         Async.testBlocking(() -> readFuture.get(), () -> {
             ReplyProcessor processor = connectionFactory.getProcessor(endpoint);
@@ -141,14 +142,21 @@ public class AsyncSegmentInputStreamTest {
         ClientConnection c = mock(ClientConnection.class);
         connectionFactory.provideConnection(endpoint, c);
         CompletableFuture<SegmentRead> readFuture = in.read(1234, 5678);
+        ByteBuf badData = Unpooled.wrappedBuffer(bad);
+        ByteBuf wrongSegmentData = Unpooled.wrappedBuffer(bad);
         Async.testBlocking(() -> readFuture.get(), () -> {
             ReplyProcessor processor = connectionFactory.getProcessor(endpoint);
-            processor.segmentRead(new WireCommands.SegmentRead(segment.getScopedName(), 1235, false, false, ByteBuffer.wrap(bad)));            
-            processor.segmentRead(new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, ByteBuffer.wrap(good)));         
+            processor.segmentRead(new WireCommands.SegmentRead(segment.getScopedName(), 1235, false, false, badData));
+            AssertExtensions.assertThrows("Expected a failure for a read of the wrong segment.",
+                    () -> processor.segmentRead(new WireCommands.SegmentRead("scope/other/0", 1234, false, false, wrongSegmentData)),
+                    ex -> ex instanceof IllegalStateException);
+            processor.segmentRead(new WireCommands.SegmentRead(segment.getScopedName(), 1234, false, false, Unpooled.wrappedBuffer(good)));         
         });
         verify(c).sendAsync(new WireCommands.ReadSegment(segment.getScopedName(), 1234,  5678, ""));
         assertTrue(Futures.isSuccessful(readFuture));
-        assertEquals(ByteBuffer.wrap(good), readFuture.join().getData());
+        assertEquals(Unpooled.wrappedBuffer(good), readFuture.join().getData());
+        assertEquals("Data nobody was waiting for was not released.", 0, badData.refCnt());
+        assertEquals("Data for the wrong segment was not released.", 0, wrongSegmentData.refCnt());
         verifyNoMoreInteractions(c);
     }
 
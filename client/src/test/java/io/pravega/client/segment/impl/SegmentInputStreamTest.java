@@ -9,6 +9,7 @@
  */
 package io.pravega.client.segment.impl;
 
+import io.netty.buffer.Unpooled;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.util.ByteBufferUtils;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
@@ -89,10 +90,10 @@ public class SegmentInputStreamTest {
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
         ByteBuffer read = testBlocking(() -> stream.read(),
-                () -> fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData.slice())));
+                () -> fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(wireData))));
         assertEquals(ByteBuffer.wrap(data), read);
         read = testBlocking(() -> stream
-                .read(), () -> fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, wireData.slice())));
+                .read(), () -> fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, Unpooled.wrappedBuffer(wireData))));
         assertEquals(ByteBuffer.wrap(data), read);
     }
 
@@ -103,10 +104,10 @@ public class SegmentInputStreamTest {
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 5);
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
-        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, ByteBufferUtils.slice(wireData, 2, 7)));
-        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, ByteBufferUtils.slice(wireData, 9, 2)));
-        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 2))));
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 2, 7))));
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 9, 2))));
+        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11))));
         ByteBuffer read = stream.read();
         assertEquals(ByteBuffer.wrap(data), read);
     }
@@ -124,14 +125,14 @@ public class SegmentInputStreamTest {
         }
         wireData.flip();
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 3);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData.slice()));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(wireData)));
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
         for (int i = 0; i < numEntries; i++) {
             assertEquals(ByteBuffer.wrap(data), stream.read());
         }
         ByteBuffer read = testBlocking(() -> stream.read(), () -> {
-            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, createEventFromData(data)));
+            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, Unpooled.wrappedBuffer(createEventFromData(data))));
         });
         assertEquals(ByteBuffer.wrap(data), read);
     }
@@ -145,7 +146,7 @@ public class SegmentInputStreamTest {
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
 
         testBlocking(() -> stream.read(),
-                     () -> fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData.slice())));
+                     () -> fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(wireData))));
         ByteBuffer read = stream.read(10);
         assertNull(read);
         fakeNetwork.completeExceptionally(1, new ConnectionFailedException());
@@ -164,12 +165,12 @@ public class SegmentInputStreamTest {
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 7);
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 2))));
         fakeNetwork.completeExceptionally(1, new ConnectionFailedException());
-        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
-        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, ByteBufferUtils.slice(wireData, 2, 7)));
-        fakeNetwork.complete(4, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, ByteBufferUtils.slice(wireData, 9, 2)));
-        fakeNetwork.complete(5, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11)));
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 2))));
+        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 2, 7))));
+        fakeNetwork.complete(4, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 9, 2))));
+        fakeNetwork.complete(5, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11))));
         AssertExtensions.assertThrows(ConnectionFailedException.class, () -> stream.read());
         ByteBuffer read = stream.read();
         assertEquals(ByteBuffer.wrap(data), read);
@@ -182,11 +183,11 @@ public class SegmentInputStreamTest {
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 6);
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 2))));
         fakeNetwork.completeExceptionally(1, new SegmentTruncatedException());
-        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, ByteBufferUtils.slice(wireData, 2, 7)));
-        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, ByteBufferUtils.slice(wireData, 9, 2)));
-        fakeNetwork.complete(4, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11)));
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 2, 7))));
+        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), 9, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 9, 2))));
+        fakeNetwork.complete(4, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11))));
         AssertExtensions.assertThrows(SegmentTruncatedException.class, () -> stream.read());
         AssertExtensions.assertThrows(SegmentTruncatedException.class, () -> stream.read());
     }
@@ -207,14 +208,14 @@ public class SegmentInputStreamTest {
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
         assertFalse(stream.canReadWithoutBlocking());
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, true, false, wireData.slice()));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, true, false, Unpooled.wrappedBuffer(wireData)));
         for (int i = 0; i < numEntries; i++) {
             assertTrue(stream.canReadWithoutBlocking());
             assertEquals(ByteBuffer.wrap(data), stream.read());
         }
         assertFalse(stream.canReadWithoutBlocking());
         testBlocking(() -> stream.read(), () -> {
-            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, createEventFromData(data)));
+            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.capacity(), false, false, Unpooled.wrappedBuffer(createEventFromData(data))));
         });
         assertFalse(stream.canReadWithoutBlocking());
     }
@@ -227,38 +228,38 @@ public class SegmentInputStreamTest {
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 1);
         @Cleanup
         SegmentInputStreamImpl stream1 = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, ByteBufferUtils.slice(wireData, 0, 0)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 0))));
         AssertExtensions.assertThrows(EndOfSegmentException.class, () -> stream1.read());
         
         fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
         @Cleanup
         SegmentInputStreamImpl stream2 = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, wireData.slice()));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, Unpooled.wrappedBuffer(wireData)));
         assertEquals(ByteBuffer.wrap(data), stream2.read());
         AssertExtensions.assertThrows(EndOfSegmentException.class, () -> stream2.read());
         
         fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
         @Cleanup
         SegmentInputStreamImpl stream3 = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData.slice()));
-        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.remaining(), false, true, ByteBufferUtils.slice(wireData, 0, 0)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(wireData)));
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), wireData.remaining(), false, true, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 0))));
         assertEquals(ByteBuffer.wrap(data), stream3.read());
         AssertExtensions.assertThrows(EndOfSegmentException.class, () -> stream3.read());
         
         fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
         @Cleanup
         SegmentInputStreamImpl stream4 = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 0)));
-        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, wireData.slice()));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 0))));
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, Unpooled.wrappedBuffer(wireData)));
         assertEquals(ByteBuffer.wrap(data), stream4.read());
         AssertExtensions.assertThrows(EndOfSegmentException.class, () -> stream4.read());
         
         fakeNetwork = new TestAsyncSegmentInputStream(segment, 3);
         @Cleanup
         SegmentInputStreamImpl stream5 = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
-        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, ByteBufferUtils.slice(wireData, 2, 2)));
-        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 4, false, true, ByteBufferUtils.slice(wireData, 4,  wireData.capacity() - 4)));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 2))));
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 2, 2))));
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 4, false, true, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 4,  wireData.capacity() - 4))));
         assertEquals(ByteBuffer.wrap(data), stream5.read());
         AssertExtensions.assertThrows(EndOfSegmentException.class, () -> stream5.read());
     }
@@ -274,8 +275,8 @@ public class SegmentInputStreamTest {
         testBlocking(() -> {
             assertEquals(ByteBuffer.wrap(data), stream.read());
         }, () -> {
-            fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 0)));
-            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, wireData.slice()));
+            fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, 0))));
+            fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, true, Unpooled.wrappedBuffer(wireData)));
         });
     }
 
@@ -288,11 +289,11 @@ public class SegmentInputStreamTest {
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 5);
         @Cleanup
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData1, 0, wireData1.remaining())));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData1, 0, wireData1.remaining()))));
         ByteBuffer read = stream.read();
         assertEquals(ByteBuffer.wrap(data1), read);
-        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData1, 0, wireData1.remaining())));
-        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), wireData1.remaining(), false, false, ByteBufferUtils.slice(wireData2, 0, wireData2.remaining())));
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData1, 0, wireData1.remaining()))));
+        fakeNetwork.complete(3, new WireCommands.SegmentRead(segment.getScopedName(), wireData1.remaining(), false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData2, 0, wireData2.remaining()))));
         stream.setOffset(0);
         read = stream.read();
         assertEquals(ByteBuffer.wrap(data1), read);
@@ -305,7 +306,7 @@ public class SegmentInputStreamTest {
         byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
         ByteBuffer wireData = createEventFromData(data);
         TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
-        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, wireData.remaining())));
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, Unpooled.wrappedBuffer(ByteBufferUtils.slice(wireData, 0, wireData.remaining()))));
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
         stream.close();
         AssertExtensions.assertThrows(ObjectClosedException.class, () -> stream.read());
@@ -9,6 +9,7 @@
  */
 package io.pravega.common.io.serialization;
 
+import io.pravega.common.util.BufferView;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -223,6 +224,17 @@ public interface RevisionDataOutput extends DataOutput {
      */
     void writeArray(byte[] array, int offset, int length) throws IOException;
 
+    /**
+     * Serializes the given BufferView. The serialization format is identical to that of writeArray(byte[]), so the
+     * result can be read back using RevisionDataInput.readArray(). Unlike writeArray(byte[]), this does not require
+     * the BufferView's contents to be copied into a byte array beforehand.
+     *
+     * @param buffer The BufferView to serialize. Can be null (in which case an Empty array will be deserialized
+     *               by RevisionDataInput.readArray()).
+     * @throws IOException If an IO Exception occurred.
+     */
+    void writeBuffer(BufferView buffer) throws IOException;
+
     /**
      * Calculates the number of bytes required to serialize a Map.
      *
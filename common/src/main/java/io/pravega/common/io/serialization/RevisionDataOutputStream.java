@@ -11,6 +11,7 @@ package io.pravega.common.io.serialization;
 
 import io.pravega.common.io.SerializationException;
 import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.BufferView;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -234,6 +235,17 @@ abstract class RevisionDataOutputStream extends DataOutputStream implements Revi
         write(array, offset, length);
     }
 
+    @Override
+    public void writeBuffer(BufferView buffer) throws IOException {
+        if (buffer == null) {
+            writeCompactInt(0);
+            return;
+        }
+
+        writeCompactInt(buffer.getLength());
+        buffer.copyTo(this);
+    }
+
     @Override
     public int getMapLength(int elementCount, int keyLength, int valueLength) {
         return getCompactIntLength(elementCount) + elementCount * (keyLength + valueLength);
@@ -9,12 +9,14 @@
  */
 package io.pravega.common.util;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Defines a generic read-only view of an index-based, array-like structure.
  */
-public interface ArrayView {
+public interface ArrayView extends BufferView {
     /**
      * Gets the value at the specified index.
      *
@@ -29,6 +31,7 @@ public interface ArrayView {
      *
      * @return The length.
      */
+    @Override
     int getLength();
 
     /**
@@ -54,6 +57,7 @@ public interface ArrayView {
      *
      * @return The InputStream.
      */
+    @Override
     InputStream getReader();
 
     /**
@@ -81,5 +85,17 @@ public interface ArrayView {
      *
      * @return A byte array with the same length as this ArrayView, containing a copy of the data within it.
      */
+    @Override
     byte[] getCopy();
+
+    /**
+     * Copies the contents of this ArrayView to the given OutputStream.
+     *
+     * @param target The OutputStream to write to.
+     * @throws IOException If an exception occurred while writing to the target OutputStream.
+     */
+    @Override
+    default void copyTo(OutputStream target) throws IOException {
+        target.write(array(), arrayOffset(), getLength());
+    }
 }
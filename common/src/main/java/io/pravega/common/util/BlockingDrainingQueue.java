@@ -13,14 +13,19 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
 import java.util.ArrayDeque;
-import java.util.LinkedList;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Represents a thread-safe queue that dequeues all elements at once. Blocks the Dequeue if empty until new elements arrive.
+ * <p>
+ * This queue is designed for multiple producers (add()) and a single consumer (take()/poll()), and it does not use any
+ * locks. Adding an item does not contend with other producers or with the consumer beyond a few atomic operations.
  *
  * @param <T> The type of the items in the queue.
  */
@@ -28,12 +33,11 @@ import javax.annotation.concurrent.ThreadSafe;
 public class BlockingDrainingQueue<T> {
     //region Members
 
-    @GuardedBy("contents")
-    private final ArrayDeque<T> contents;
-    @GuardedBy("contents")
-    private CompletableFuture<Queue<T>> pendingTake;
-    @GuardedBy("contents")
-    private boolean closed;
+    private final ConcurrentLinkedQueue<T> contents;
+    private final AtomicInteger size;
+    private final AtomicReference<CompletableFuture<Queue<T>>> pendingTake;
+    private volatile int pendingTakeMaxCount;
+    private final AtomicBoolean closed;
 
     ///endregion
 
@@ -43,7 +47,10 @@ public class BlockingDrainingQueue<T> {
      * Creates a new instance of the BlockingDrainingQueue class.
      */
     public BlockingDrainingQueue() {
-        this.contents = new ArrayDeque<>();
+        this.contents = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.pendingTake = new AtomicReference<>();
+        this.closed = new AtomicBoolean();
     }
 
     //endregion
@@ -57,36 +64,20 @@ public class BlockingDrainingQueue<T> {
      * The items are guaranteed not to be returned both here and via take()/poll().
      */
     public Queue<T> close() {
-        CompletableFuture<Queue<T>> pending = null;
-        Queue<T> result = null;
-        synchronized (this.contents) {
-            if (!this.closed) {
-                this.closed = true;
-                pending = this.pendingTake;
-                this.pendingTake = null;
-                result = fetch(this.contents.size());
-            }
+        if (this.closed.getAndSet(true)) {
+            return new ArrayDeque<>();
         }
 
         // Cancel any pending poll request.
-        if (pending != null) {
-            pending.cancel(true);
-        }
-
-        return result != null ? result : new LinkedList<>();
+        cancelPendingTake();
+        return fetch(Integer.MAX_VALUE);
     }
 
     /**
      * Cancels any pending Future from a take() operation.
      */
     public void cancelPendingTake() {
-        CompletableFuture<Queue<T>> pending;
-        synchronized (this.contents) {
-            pending = this.pendingTake;
-            this.pendingTake = null;
-        }
-
-        // Cancel any pending poll request.
+        CompletableFuture<Queue<T>> pending = this.pendingTake.getAndSet(null);
         if (pending != null) {
             pending.cancel(true);
         }
@@ -99,20 +90,21 @@ public class BlockingDrainingQueue<T> {
      * @throws ObjectClosedException If the Queue is closed.
      */
     public void add(T item) {
-        CompletableFuture<Queue<T>> pending;
-        Queue<T> result = null;
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            this.contents.addLast(item);
-            pending = this.pendingTake;
-            this.pendingTake = null;
-            if (pending != null) {
-                result = fetch(this.contents.size());
-            }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        this.contents.add(item);
+        this.size.incrementAndGet();
+        if (this.closed.get() && this.contents.remove(item)) {
+            // We raced with close(), which did not pick up our item. Nobody else will, so we must reject it.
+            this.size.decrementAndGet();
+            throw new ObjectClosedException(this);
         }
 
+        // The item must be added before we check for a pending take(). See take() for why.
+        CompletableFuture<Queue<T>> pending = this.pendingTake.getAndSet(null);
         if (pending != null) {
-            pending.complete(result);
+            // We are the only ones who can complete this Future, and the consumer is waiting on it, so we can safely
+            // fetch on its behalf.
+            completePendingTake(pending, this.pendingTakeMaxCount);
         }
     }
 
@@ -124,18 +116,16 @@ public class BlockingDrainingQueue<T> {
      * @throws IllegalStateException If there is a pending take() operation which hasn't completed yet.
      */
     public Queue<T> poll(int maxCount) {
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            Preconditions.checkState(this.pendingTake == null, "Cannot call poll() when there is a pending take() request.");
-            return fetch(maxCount);
-        }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.pendingTake.get() == null, "Cannot call poll() when there is a pending take() request.");
+        return fetch(maxCount);
     }
 
     /**
      * Returns the next items from the queue. If the queue is empty, it blocks the call until at least one item is added.
      *
-     * @param maxCount The maximum number of items to return. This argument will be ignored if the queue is currently empty,
-     *                 but in that case the result will always be completed with exactly one element.
+     * @param maxCount The maximum number of items to return. If the queue is currently empty, the result will contain
+     *                 at least one item once completed.
      * @return A CompletableFuture that, when completed, will contain the requested result. If the queue is not currently
      * empty, this Future will already be completed, otherwise it will be completed the next time the add() method is called.
      * If the queue is closed and this Future is not yet completed, it will be cancelled.
@@ -143,36 +133,81 @@ public class BlockingDrainingQueue<T> {
      * @throws IllegalStateException If another call to take() is in progress.
      */
     public CompletableFuture<Queue<T>> take(int maxCount) {
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            Preconditions.checkState(this.pendingTake == null, "Cannot have more than one concurrent pending take() request.");
-            Queue<T> result = fetch(maxCount);
-            if (result.size() > 0) {
-                return CompletableFuture.completedFuture(result);
-            } else {
-                this.pendingTake = new CompletableFuture<>();
-                return this.pendingTake;
-            }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.pendingTake.get() == null, "Cannot have more than one concurrent pending take() request.");
+        Queue<T> result = fetch(maxCount);
+        if (result.size() > 0) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        CompletableFuture<Queue<T>> pending = new CompletableFuture<>();
+        this.pendingTakeMaxCount = maxCount;
+        this.pendingTake.set(pending);
+
+        // An item may have been added after we checked but before we registered the pending take(), in which case its
+        // producer did not see our Future. Check again; whoever manages to unregister the Future gets to complete it.
+        if (!this.contents.isEmpty() && this.pendingTake.compareAndSet(pending, null)) {
+            completePendingTake(pending, maxCount);
+        } else if (this.closed.get()) {
+            // We may have registered our Future after close() cancelled the previous one.
+            cancelPendingTake();
         }
+
+        return pending;
     }
 
     /**
-     * Gets a value indicating the size of this queue.
+     * Gets a value indicating the size of this queue. Since items may be added concurrently, this value may be stale.
      *
      * @return The size.
      */
     public int size() {
-        synchronized (this.contents) {
-            return this.contents.size();
+        return this.size.get();
+    }
+
+    /**
+     * Completes the given pending take() Future, which must have already been unregistered by the caller.
+     *
+     * @param pending  The Future to complete.
+     * @param maxCount The maximum number of items to complete it with.
+     */
+    private void completePendingTake(CompletableFuture<Queue<T>> pending, int maxCount) {
+        while (true) {
+            Queue<T> result = fetch(maxCount);
+            if (!result.isEmpty()) {
+                pending.complete(result);
+                return;
+            } else if (this.closed.get()) {
+                // close() took the items in the meantime.
+                pending.cancel(true);
+                return;
+            }
+
+            // The items we were notified about have already been picked up by a previous take() or poll() (the consumer
+            // may have drained them and registered a new take() before we got to check). The queue is still open, so
+            // re-register the Future; nobody else can have registered one since the consumer is waiting on this one.
+            boolean registered = this.pendingTake.compareAndSet(null, pending);
+            assert registered : "another take() was registered while one was pending";
+            if (this.closed.get()) {
+                // We may have re-registered our Future after close() looked for it.
+                cancelPendingTake();
+                return;
+            }
+
+            // Same as in take(): an item may have been added before we re-registered the Future, in which case its
+            // producer did not see it. Whoever manages to unregister the Future gets to complete it.
+            if (this.contents.isEmpty() || !this.pendingTake.compareAndSet(pending, null)) {
+                return;
+            }
         }
     }
 
-    @GuardedBy("contents")
     private Queue<T> fetch(int maxCount) {
-        int count = Math.min(maxCount, this.contents.size());
-        ArrayDeque<T> result = new ArrayDeque<>(count);
-        while (result.size() < count) {
-            result.addLast(this.contents.pollFirst());
+        ArrayDeque<T> result = new ArrayDeque<>(Math.max(0, Math.min(maxCount, this.size.get())));
+        T item;
+        while (result.size() < maxCount && (item = this.contents.poll()) != null) {
+            result.addLast(item);
+            this.size.decrementAndGet();
         }
 
         return result;
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Defines a generic read-only view of a sequence of bytes, which may or may not be backed by a single array. Unlike
+ * ArrayView, no access to a backing array is provided, which allows implementations to wrap composite or off-heap
+ * buffers without first copying them.
+ * <p>
+ * Some implementations may be reference-counted. Components that need to hold on to a BufferView beyond the scope of the
+ * call in which it was handed to them should invoke retain() and then release() when they are done with it.
+ */
+public interface BufferView {
+    /**
+     * Gets a value representing the length of this BufferView.
+     *
+     * @return The length.
+     */
+    int getLength();
+
+    /**
+     * Creates an InputStream that can be used to read the contents of this BufferView. The InputStream returned
+     * spans the entire BufferView.
+     *
+     * @return The InputStream.
+     */
+    InputStream getReader();
+
+    /**
+     * Returns a copy of the contents of this BufferView.
+     *
+     * @return A byte array with the same length as this BufferView, containing a copy of the data within it.
+     */
+    byte[] getCopy();
+
+    /**
+     * Copies the contents of this BufferView to the given OutputStream.
+     *
+     * @param target The OutputStream to write to.
+     * @throws IOException If an exception occurred while writing to the target OutputStream.
+     */
+    void copyTo(OutputStream target) throws IOException;
+
+    /**
+     * When implemented in a derived class, notifies any wrapped buffer that this BufferView has a reference to it. This
+     * must be paired with a call to release(). The default implementation does nothing.
+     */
+    default void retain() {
+        // Default implementation intentionally left blank. Any derived class may implement if needed.
+    }
+
+    /**
+     * When implemented in a derived class, notifies any wrapped buffer that this BufferView no longer has a reference to
+     * it. The default implementation does nothing.
+     */
+    default void release() {
+        // Default implementation intentionally left blank. Any derived class may implement if needed.
+    }
+}
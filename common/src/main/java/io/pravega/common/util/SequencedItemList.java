@@ -10,14 +10,19 @@
 package io.pravega.common.util;
 
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
-import lombok.RequiredArgsConstructor;
 
 /**
  * Represents a List that can append only on one end and can truncate from the other, which provides random reads.
+ * <p>
+ * Items are stored in fixed-size array chunks (rather than one node object per item), alongside a primitive array of
+ * their Sequence Numbers. Every item is assigned an ever-increasing position when added; since Sequence Numbers are
+ * strictly increasing too, read() can locate its starting item using a binary search over the Sequence Numbers instead of
+ * walking the list. Chunks are released as soon as all their items are truncated.
  *
  * @param <T> The type of the list items.
  */
@@ -25,10 +30,27 @@ import lombok.RequiredArgsConstructor;
 public class SequencedItemList<T extends SequencedItemList.Element> {
     //region Members
 
+    /**
+     * The number of items in each chunk.
+     */
+    private static final int CHUNK_SIZE = 1024;
+    @GuardedBy("lock")
+    private final ArrayList<Chunk> chunks;
+    /**
+     * The position of the first slot in the first chunk.
+     */
     @GuardedBy("lock")
-    private ListNode<T> head;
+    private long chunksStartPosition;
+    /**
+     * The position of the first item in the list (if any). Items before this one have been truncated.
+     */
     @GuardedBy("lock")
-    private ListNode<T> tail;
+    private long headPosition;
+    /**
+     * The position that the next added item will have.
+     */
+    @GuardedBy("lock")
+    private long tailPosition;
     private final Object lock = new Object();
 
     //endregion
@@ -36,11 +58,13 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
     //region Constructor
 
     /**
-     * Creates a new instance of the TruncateableList class.
+     * Creates a new instance of the SequencedItemList class.
      */
     public SequencedItemList() {
-        this.head = null;
-        this.tail = null;
+        this.chunks = new ArrayList<>();
+        this.chunksStartPosition = 0;
+        this.headPosition = 0;
+        this.tailPosition = 0;
     }
 
     //endregion
@@ -55,21 +79,23 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      * @return True if the item was added (meets sequencing criteria or list was empty), false otherwise.
      */
     public boolean add(T item) {
-        ListNode<T> node = new ListNode<>(item);
+        long sequenceNumber = item.getSequenceNumber();
         synchronized (this.lock) {
-            if (this.tail == null) {
-                // List is currently empty.
-                this.head = node;
-            } else {
-                if (item.getSequenceNumber() <= this.tail.item.getSequenceNumber()) {
-                    // Item to be added is not in order - reject it.
-                    return false;
-                }
+            if (this.tailPosition > this.headPosition && sequenceNumber <= getSequenceNumber(this.tailPosition - 1)) {
+                // Item to be added is not in order - reject it.
+                return false;
+            }
 
-                this.tail.next = node;
+            int chunkIndex = getChunkIndex(this.tailPosition);
+            if (chunkIndex == this.chunks.size()) {
+                this.chunks.add(new Chunk());
             }
 
-            this.tail = node;
+            int offset = getChunkOffset(this.tailPosition);
+            Chunk chunk = this.chunks.get(chunkIndex);
+            chunk.items[offset] = item;
+            chunk.sequenceNumbers[offset] = sequenceNumber;
+            this.tailPosition++;
         }
 
         return true;
@@ -82,22 +108,13 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      * @return The number of truncated items.
      */
     public int truncate(long upToSequenceNumber) {
-        int count = 0;
         synchronized (this.lock) {
-            // We truncate by finding the new head and simply pointing our head reference to it, as well as disconnecting
-            // its predecessor node from it. We also need to mark every truncated node as such - this will instruct ongoing
-            // reads to stop serving truncated data.
-            while (this.head != null && this.head.item.getSequenceNumber() <= upToSequenceNumber) {
-                this.head = trim(this.head);
-                count++;
-            }
-
-            if (this.head == null) {
-                this.tail = null;
-            }
+            // Advancing the head will instruct ongoing reads to stop serving truncated data.
+            long newHeadPosition = findFirstPositionAfter(upToSequenceNumber);
+            int count = (int) (newHeadPosition - this.headPosition);
+            trim(newHeadPosition);
+            return count;
         }
-
-        return count;
     }
 
     /**
@@ -105,12 +122,7 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      */
     public void clear() {
         synchronized (this.lock) {
-            // Mark every node as truncated.
-            while (this.head != null) {
-                this.head = trim(this.head);
-            }
-
-            this.tail = null;
+            trim(this.tailPosition);
         }
     }
 
@@ -121,7 +133,7 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      */
     public T getLast() {
         synchronized (this.lock) {
-            return this.tail == null ? null : this.tail.item;
+            return this.tailPosition == this.headPosition ? null : getItem(this.tailPosition - 1);
         }
     }
 
@@ -133,100 +145,143 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      * @return An Iterator with the resulting items. If no results are available for the given parameters, an empty iterator is returned.
      */
     public Iterator<T> read(long afterSequenceNumber, int count) {
-        ListNode<T> firstNode;
+        long firstPosition;
         synchronized (this.lock) {
-            firstNode = this.head;
+            firstPosition = findFirstPositionAfter(afterSequenceNumber);
+            if (firstPosition == this.tailPosition) {
+                // Nothing to read. Items added after this call are not to be returned by this read.
+                count = 0;
+            }
         }
 
-        // Find the first node that has a Sequence Number after the given one, but make sure we release and reacquire
-        // the lock with every iteration. This will prevent long-list scans from blocking adds.
-        while (firstNode != null && firstNode.item.getSequenceNumber() <= afterSequenceNumber) {
-            synchronized (this.lock) {
-                firstNode = firstNode.next;
+        return new ItemIterator(firstPosition, count);
+    }
+
+    /**
+     * Finds the position of the first item that has a Sequence Number higher than the given one.
+     *
+     * @param sequenceNumber The Sequence Number to search for.
+     * @return The position of the sought item, or the tail position if there is no such item.
+     */
+    @GuardedBy("lock")
+    private long findFirstPositionAfter(long sequenceNumber) {
+        long low = this.headPosition;
+        long high = this.tailPosition;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getSequenceNumber(mid) <= sequenceNumber) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
 
-        return new NodeIterator<>(firstNode, count, this.lock);
+        return low;
+    }
+
+    /**
+     * Moves the head of the list to the given position, releasing all the items before it (and any chunks that no longer
+     * contain any items).
+     *
+     * @param newHeadPosition The new head position.
+     */
+    @GuardedBy("lock")
+    private void trim(long newHeadPosition) {
+        for (long p = this.headPosition; p < newHeadPosition; p++) {
+            this.chunks.get(getChunkIndex(p)).items[getChunkOffset(p)] = null;
+        }
+
+        this.headPosition = newHeadPosition;
+        int unusedChunkCount = Math.min(getChunkIndex(newHeadPosition), this.chunks.size());
+        if (unusedChunkCount > 0) {
+            this.chunks.subList(0, unusedChunkCount).clear();
+            this.chunksStartPosition += (long) unusedChunkCount * CHUNK_SIZE;
+        }
     }
 
-    private ListNode<T> trim(ListNode<T> node) {
-        ListNode<T> next = node.next;
-        node.next = null;
-        node.truncated = true;
-        return next;
+    @GuardedBy("lock")
+    @SuppressWarnings("unchecked")
+    private T getItem(long position) {
+        return (T) this.chunks.get(getChunkIndex(position)).items[getChunkOffset(position)];
     }
 
-    //endregion
+    @GuardedBy("lock")
+    private long getSequenceNumber(long position) {
+        return this.chunks.get(getChunkIndex(position)).sequenceNumbers[getChunkOffset(position)];
+    }
 
-    //region ListNode
+    @GuardedBy("lock")
+    private int getChunkIndex(long position) {
+        return (int) ((position - this.chunksStartPosition) / CHUNK_SIZE);
+    }
 
-    @RequiredArgsConstructor
-    private static class ListNode<T> {
-        final T item;
-        ListNode<T> next;
-        boolean truncated;
+    private int getChunkOffset(long position) {
+        // Chunks always begin at positions that are multiples of CHUNK_SIZE.
+        return (int) (position % CHUNK_SIZE);
+    }
 
-        @Override
-        public String toString() {
-            return this.item.toString();
-        }
+    //endregion
+
+    //region Chunk
+
+    /**
+     * A fixed-size block of items, along with their Sequence Numbers.
+     */
+    private static class Chunk {
+        final Object[] items = new Object[CHUNK_SIZE];
+        final long[] sequenceNumbers = new long[CHUNK_SIZE];
     }
 
     //endregion
 
-    //region NodeIterator
+    //region ItemIterator
 
     /**
      * An Iterator of Items in the list.
-     *
-     * @param <T> The type of the items in the list.
      */
-    private static class NodeIterator<T> implements Iterator<T> {
-        private ListNode<T> currentNode;
+    private class ItemIterator implements Iterator<T> {
+        private long currentPosition;
         private final int maxCount;
         private int countSoFar;
-        private final Object lock;
 
-        NodeIterator(ListNode<T> firstNode, int maxCount, Object lock) {
+        ItemIterator(long firstPosition, int maxCount) {
             Preconditions.checkArgument(maxCount >= 0, "maxCount must be a positive integer");
-
-            this.currentNode = firstNode;
+            this.currentPosition = firstPosition;
             this.maxCount = maxCount;
-            this.lock = lock;
         }
 
         //region Iterator Implementation
 
         @Override
         public boolean hasNext() {
-            return this.countSoFar < this.maxCount && this.currentNode != null && !this.currentNode.truncated;
+            synchronized (lock) {
+                return hasNextInternal();
+            }
         }
 
         @Override
         public T next() {
-            if (!hasNext()) {
-                // There is a scenario where calling hasNext() returns true for the caller, but we end up in here.
-                // If the current element has been truncated out after the user's call to hasNext() but before the call
-                // to next(), we are forced to throw this exception because we cannot return a truncated element.
-                throw new NoSuchElementException("No more elements left to iterate on.");
-            }
+            synchronized (lock) {
+                if (!hasNextInternal()) {
+                    // There is a scenario where calling hasNext() returns true for the caller, but we end up in here.
+                    // If the current element has been truncated out after the user's call to hasNext() but before the call
+                    // to next(), we are forced to throw this exception because we cannot return a truncated element.
+                    throw new NoSuchElementException("No more elements left to iterate on.");
+                }
 
-            T result = this.currentNode.item;
-            fetchNext();
-            return result;
+                T result = getItem(this.currentPosition);
+                this.currentPosition++;
+                this.countSoFar++;
+                return result;
+            }
         }
 
-        private void fetchNext() {
-            synchronized (this.lock) {
-                if (hasNext()) {
-                    // We haven't exceeded our max count and we still have nodes to advance to.
-                    this.currentNode = this.currentNode.next;
-                    this.countSoFar++;
-                } else {
-                    // Either exceeded the max count or cannot advance anymore (truncated or end of list).
-                    this.currentNode = null;
-                }
-            }
+        @GuardedBy("lock")
+        private boolean hasNextInternal() {
+            // We stop if we exceeded the max count, reached the end of the list or if the current item has been truncated.
+            return this.countSoFar < this.maxCount
+                    && this.currentPosition >= headPosition
+                    && this.currentPosition < tailPosition;
         }
 
         //endregion
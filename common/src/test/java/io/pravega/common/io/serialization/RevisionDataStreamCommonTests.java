@@ -11,6 +11,8 @@ package io.pravega.common.io.serialization;
 
 import com.google.common.collect.ImmutableMap;
 import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.test.common.AssertExtensions;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
@@ -261,6 +263,31 @@ public class RevisionDataStreamCommonTests {
         }
     }
 
+    /**
+     * Tests the ability to encode a BufferView and decode it as a byte array.
+     */
+    @Test
+    public void testBuffers() throws Exception {
+        byte[] numbers = new byte[Byte.MAX_VALUE];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = (byte) (i % Byte.MAX_VALUE);
+        }
+
+        val toTest = Arrays.<BufferView>asList(
+                null,
+                new ByteArraySegment(new byte[0]),
+                new ByteArraySegment(numbers),
+                new ByteArraySegment(numbers, 10, numbers.length / 2));
+        for (BufferView value : toTest) {
+            testEncodeDecode(
+                    RevisionDataOutput::writeBuffer,
+                    is -> new ByteArraySegment(is.readArray()),
+                    (s, v) -> s.getCollectionLength(v == null ? 0 : v.getLength(), 1),
+                    value,
+                    (s, t) -> Arrays.equals(s == null ? new byte[0] : s.getCopy(), t.getCopy()));
+        }
+    }
+
     /**
      * Tests the ability to encode and decode a Collection.
      */
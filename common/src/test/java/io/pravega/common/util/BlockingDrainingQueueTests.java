@@ -11,6 +11,8 @@ package io.pravega.common.util;
 
 import io.pravega.common.concurrent.Futures;
 import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.CancellationException;
@@ -176,6 +178,108 @@ public class BlockingDrainingQueueTests {
                 (int) takeResult2.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).poll());
     }
 
+    /**
+     * Tests the ability of the queue to handle multiple concurrent producers and a single consumer (which alternates
+     * between take() and poll()), without losing items or changing the order in which each producer added them.
+     */
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final int producerCount = 8;
+        final int itemsPerProducer = 10000;
+        @Cleanup
+        BlockingDrainingQueue<Integer> queue = new BlockingDrainingQueue<>();
+        val producers = new ArrayList<Thread>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producerId = p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.add(producerId * itemsPerProducer + i);
+                }
+            }));
+        }
+
+        producers.forEach(Thread::start);
+
+        // Consume until we've seen everything. Each producer's items must be received in the order in which they were added.
+        val lastReceived = new int[producerCount];
+        Arrays.fill(lastReceived, -1);
+        int receivedCount = 0;
+        boolean useTake = true;
+        while (receivedCount < producerCount * itemsPerProducer) {
+            Queue<Integer> items = useTake
+                    ? queue.take(MAX_READ_COUNT).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                    : queue.poll(MAX_READ_COUNT);
+            AssertExtensions.assertLessThanOrEqual("Too many items returned.", MAX_READ_COUNT, items.size());
+            for (int item : items) {
+                int producerId = item / itemsPerProducer;
+                int index = item % itemsPerProducer;
+                Assert.assertEquals("Unexpected item order for producer " + producerId, lastReceived[producerId] + 1, index);
+                lastReceived[producerId] = index;
+                receivedCount++;
+            }
+
+            useTake = !useTake;
+        }
+
+        for (Thread t : producers) {
+            t.join(TIMEOUT_MILLIS);
+        }
+
+        Assert.assertEquals("Not expecting any more items.", 0, queue.poll(MAX_READ_COUNT).size());
+        Assert.assertEquals("Unexpected size.", 0, queue.size());
+    }
+
+    /**
+     * Tests that concurrent add() and take() calls never cancel a pending take() while the queue is open. A producer may
+     * find a take() Future registered by the consumer after it had already drained the producer's item; that Future
+     * must remain pending until the next item is added.
+     */
+    @Test
+    public void testConcurrentAddTake() throws Exception {
+        final int producerCount = 4;
+        final int itemsPerProducer = 50000;
+        @Cleanup
+        BlockingDrainingQueue<Integer> queue = new BlockingDrainingQueue<>();
+        val producers = new ArrayList<Thread>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producerId = p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.add(producerId * itemsPerProducer + i);
+                }
+            }));
+        }
+
+        producers.forEach(Thread::start);
+
+        // Only use take(), and take a single item at a time, to maximize the number of pending take() requests.
+        val lastReceived = new int[producerCount];
+        Arrays.fill(lastReceived, -1);
+        int receivedCount = 0;
+        while (receivedCount < producerCount * itemsPerProducer) {
+            CompletableFuture<Queue<Integer>> takeResult = queue.take(1);
+            Queue<Integer> items = takeResult.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertEquals("Unexpected number of items taken.", 1, items.size());
+            int item = items.poll();
+            int producerId = item / itemsPerProducer;
+            int index = item % itemsPerProducer;
+            Assert.assertEquals("Unexpected item order for producer " + producerId, lastReceived[producerId] + 1, index);
+            lastReceived[producerId] = index;
+            receivedCount++;
+        }
+
+        for (Thread t : producers) {
+            t.join(TIMEOUT_MILLIS);
+        }
+
+        // A take() issued on an open, empty queue must stay pending.
+        val finalTake = queue.take(1);
+        Assert.assertFalse("take() on an empty queue did not return a pending future.", finalTake.isDone());
+        queue.add(-1);
+        Assert.assertEquals("Unexpected item from final take().", -1, (int) finalTake.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).poll());
+        Assert.assertEquals("Unexpected size.", 0, queue.size());
+    }
+
     /**
      * Tests the ability of the queue to cancel a take() request if it is closed.
      */
@@ -137,6 +137,40 @@ public class SequencedItemListTests {
                 ex -> ex instanceof NoSuchElementException);
     }
 
+    /**
+     * Tests add(), read() and truncate() on a list that spans many internal chunks and has non-contiguous Sequence Numbers.
+     */
+    @Test
+    public void testLargeList() {
+        final int itemCount = 10000;
+        final int step = 3;
+        SequencedItemList<Item> list = new SequencedItemList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Assert.assertTrue("Unexpected value from add().", list.add(new Item(i * step)));
+        }
+
+        Assert.assertEquals("Unexpected value from getLast().", (itemCount - 1) * step, list.getLast().getSequenceNumber());
+        for (int i = 0; i < itemCount; i += 997) {
+            // Read starting both at an existing Sequence Number and in between two of them.
+            checkRange("Read after existing item", i + 1, Math.min(itemCount - 1, i + 100), list.read(i * step, 100), step);
+            checkRange("Read after missing item", i + 1, Math.min(itemCount - 1, i + 100), list.read(i * step + 1, 100), step);
+        }
+
+        // Truncate at various points, including in between Sequence Numbers.
+        int truncatedCount = 0;
+        for (int i = 500; i < itemCount; i += 1500) {
+            int count = list.truncate(i * step + 1);
+            Assert.assertEquals("Unexpected value from truncate().", i + 1 - truncatedCount, count);
+            truncatedCount = i + 1;
+            checkRange("Read after truncate", truncatedCount, itemCount - 1, list.read(START, itemCount), step);
+        }
+
+        list.truncate(END);
+        Assert.assertNull("Unexpected value from getLast() after truncating everything.", list.getLast());
+        Assert.assertTrue("Expected to be able to add after truncating everything.", list.add(new Item(0)));
+        checkRange("Read after re-adding", 0, 0, list.read(START, itemCount), 1);
+    }
+
     /**
      * Tests the functionality of the clear() method.
      */
@@ -153,10 +187,14 @@ public class SequencedItemListTests {
     }
 
     private void checkRange(String testDescription, int startElement, int endElement, Iterator<Item> readResult) {
+        checkRange(testDescription, startElement, endElement, readResult, 1);
+    }
+
+    private void checkRange(String testDescription, int startElement, int endElement, Iterator<Item> readResult, int step) {
         for (int i = startElement; i <= endElement; i++) {
             Assert.assertTrue(testDescription + ": Unexpected value from hasNext when more elements are expected.", readResult.hasNext());
             Item nextItem = readResult.next();
-            Assert.assertEquals(testDescription + ": Unexpected next value from next.", i, nextItem.getSequenceNumber());
+            Assert.assertEquals(testDescription + ": Unexpected next value from next.", (long) i * step, nextItem.getSequenceNumber());
         }
 
         Assert.assertFalse(testDescription + ": Unexpected value from hasNext when no more elements are expected.", readResult.hasNext());
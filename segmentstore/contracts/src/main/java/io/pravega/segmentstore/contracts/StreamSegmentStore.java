@@ -9,8 +9,11 @@
  */
 package io.pravega.segmentstore.contracts;
 
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -35,7 +38,32 @@ public interface StreamSegmentStore {
      *                                  check if the StreamSegment does not exist - that exception will be set in the
      *                                  returned CompletableFuture).
      */
-    CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
+    default CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, new ByteArraySegment(data), attributeUpdates, timeout);
+    }
+
+    /**
+     * Appends a range of bytes at the end of a StreamSegment and atomically updates the given attributes. The byte range
+     * will be appended as a contiguous block, however there is no guarantee of ordering between different calls to this
+     * method.
+     * <p>
+     * The contents of the given BufferView are not copied before being serialized to the log. The caller must not modify
+     * them, and must keep them valid (i.e., not release them) until the returned CompletableFuture completes. Should the
+     * StreamSegmentStore need the data for longer than that, it will retain() and release() it itself.
+     *
+     * @param streamSegmentName The name of the StreamSegment to append to.
+     * @param data              A BufferView representing the data to add.
+     * @param attributeUpdates  A Collection of Attribute-Values to set or update. Only the attributes contained here will
+     *                          be touched; all other attributes will be left intact. May be null (which indicates no updates).
+     * @param timeout           Timeout for the operation
+     * @return A CompletableFuture that, will completed normally, if the add was added. If the
+     * operation failed, the future will be failed with the causing exception.
+     * @throws NullPointerException     If any of the arguments are null, except attributeUpdates.
+     * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't
+     *                                  check if the StreamSegment does not exist - that exception will be set in the
+     *                                  returned CompletableFuture).
+     */
+    CompletableFuture<Void> append(String streamSegmentName, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
 
     /**
      * Appends a range of bytes at the end of a StreamSegment an atomically updates the given attributes, but only if the
@@ -55,7 +83,31 @@ public interface StreamSegmentStore {
      * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't check if the StreamSegment
      *                                  does not exist - that exception will be set in the returned CompletableFuture).
      */
-    CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
+    default CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, offset, new ByteArraySegment(data), attributeUpdates, timeout);
+    }
+
+    /**
+     * Appends a range of bytes at the end of a StreamSegment an atomically updates the given attributes, but only if the
+     * current length of the StreamSegment equals a certain value. The byte range will be appended as a contiguous block.
+     * This method guarantees ordering (among subsequent calls).
+     * <p>
+     * The same lifecycle rules as for append(String, BufferView, Collection, Duration) apply to the given BufferView.
+     *
+     * @param streamSegmentName The name of the StreamSegment to append to.
+     * @param offset            The offset at which to append. If the current length of the StreamSegment does not equal
+     *                          this value, the operation will fail with a BadOffsetException.
+     * @param data              A BufferView representing the data to add.
+     * @param attributeUpdates  A Collection of Attribute-Values to set or update. Only the attributes contained here will
+     *                          be touched; all other attributes will be left intact. May be null (which indicates no updates).
+     * @param timeout           Timeout for the operation
+     * @return A CompletableFuture that, when completed normally, will indicate the append completed successfully.
+     * If the operation failed, the future will be failed with the causing exception.
+     * @throws NullPointerException     If any of the arguments are null, except attributeUpdates.
+     * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't check if the StreamSegment
+     *                                  does not exist - that exception will be set in the returned CompletableFuture).
+     */
+    CompletableFuture<Void> append(String streamSegmentName, long offset, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
 
     /**
      * Performs an attribute update operation on the given Segment.
@@ -98,12 +150,31 @@ public interface StreamSegmentStore {
      *                          A side effect of setting this to true is that the operation may take longer to process
      *                          because it needs to wait for pending ops to complete.
      * @param timeout           Timeout for the operation.
-     * @return A CompletableFuture that, when completed normally, will contain the result. If the operation failed, the
-     * future will be failed with the causing exception.
+     * @return A CompletableFuture that, when completed normally, will contain the result. The Attributes in the result
+     * only include those that are currently loaded in memory; dynamic Attributes that have not been used for a while may
+     * be omitted (use getAttributes() to look those up). If the operation failed, the future will be failed with the
+     * causing exception.
      * @throws IllegalArgumentException If any of the arguments are invalid.
      */
     CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, boolean waitForPendingOps, Duration timeout);
 
+    /**
+     * Gets the values of the given Attributes for a StreamSegment. Unlike getStreamSegmentInfo(), this also looks up
+     * dynamic Attributes that are not currently loaded in memory.
+     *
+     * @param streamSegmentName The name of the StreamSegment.
+     * @param attributeIds      A Collection of Attribute Ids to get values for.
+     * @param waitForPendingOps If true, it waits for all operations that are currently pending to complete before returning
+     *                          the result (see getStreamSegmentInfo()).
+     * @param timeout           Timeout for the operation.
+     * @return A CompletableFuture that, when completed normally, will contain a Map of Attribute Ids to their values. Only
+     * those Attributes that have a value will be included. If the operation failed, the future will be failed with the
+     * causing exception.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If any of the arguments are invalid.
+     */
+    CompletableFuture<Map<UUID, Long>> getAttributes(String streamSegmentName, Collection<UUID> attributeIds, boolean waitForPendingOps, Duration timeout);
+
     /**
      * Creates a new StreamSegment.
      *
@@ -11,6 +11,7 @@ package io.pravega.segmentstore.server.host.admin.commands;
 
 import com.google.common.base.Strings;
 import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.logs.DataFrame;
 import io.pravega.segmentstore.server.logs.DataFrameRecord;
@@ -59,13 +60,14 @@ public class ContainerRecoverCommand extends ContainerCommand {
 
         @Cleanup
         val rp = DebugRecoveryProcessor.create(containerId, bkLog, context.containerConfig, readIndexConfig, getCommandArgs().getState().getExecutor(), callbacks);
+        val timer = new Timer();
         try {
             rp.performRecovery();
-            output("Recovery complete: %d DataFrame(s) containing %d Operation(s).",
-                    recoveryState.dataFrameCount, recoveryState.operationCount);
+            output("Recovery complete: %d DataFrame(s) containing %d Operation(s) (%d bytes) in %dms.",
+                    recoveryState.dataFrameCount, recoveryState.operationCount, rp.getRecoveredLength(), timer.getElapsedMillis());
         } catch (Exception ex) {
-            output("Recovery FAILED: %d DataFrame(s) containing %d Operation(s) were able to be recovered.",
-                    recoveryState.dataFrameCount, recoveryState.operationCount);
+            output("Recovery FAILED: %d DataFrame(s) containing %d Operation(s) (%d bytes) were able to be recovered in %dms.",
+                    recoveryState.dataFrameCount, recoveryState.operationCount, rp.getRecoveredLength(), timer.getElapsedMillis());
             ex.printStackTrace(getOut());
             Throwable cause = Exceptions.unwrap(ex);
             if (cause instanceof DataCorruptionException) {
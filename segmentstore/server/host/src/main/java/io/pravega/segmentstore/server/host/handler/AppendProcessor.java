@@ -52,7 +52,9 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -77,6 +79,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     //region Members
 
     static final Duration TIMEOUT = Duration.ofMinutes(1);
+    static final int DEFAULT_MAX_OUTSTANDING_BYTES = 4 * 1024 * 1024;
     private static final int HIGH_WATER_MARK = 128 * 1024;
     private static final int LOW_WATER_MARK = 64 * 1024;
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
@@ -89,13 +92,16 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final Object lock = new Object();
     private final SegmentStatsRecorder statsRecorder;
     private final DelegationTokenVerifier tokenVerifier;
+    private final int maxOutstandingBytes;
 
     @GuardedBy("lock")
     private final LinkedListMultimap<UUID, Append> waitingAppends = LinkedListMultimap.create(2);
     @GuardedBy("lock")
     private final HashMap<Pair<String, UUID>, Long> latestEventNumbers = new HashMap<>();
     @GuardedBy("lock")
-    private Append outstandingAppend = null;
+    private final HashMap<UUID, Append> outstandingAppends = new HashMap<>();
+    @GuardedBy("lock")
+    private long outstandingBytes = 0;
 
     //endregion
 
@@ -124,11 +130,30 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      * @param tokenVerifier Delegation token verifier.
      */
     AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier) {
+        this(store, connection, next, statsRecorder, tokenVerifier, DEFAULT_MAX_OUTSTANDING_BYTES);
+    }
+
+    /**
+     * Creates a new instance of the AppendProcessor class.
+     *
+     * @param store               The SegmentStore to send append requests to.
+     * @param connection          The ServerConnection to send responses to.
+     * @param next                The RequestProcessor to invoke next.
+     * @param statsRecorder       (Optional) A StatsRecorder to record Metrics.
+     * @param tokenVerifier       Delegation token verifier.
+     * @param maxOutstandingBytes The maximum number of bytes that may be in flight to the SegmentStore at any given time.
+     *                            Appends from different writers are sent concurrently until this limit is reached; if
+     *                            there is nothing in flight, the next append will be sent regardless of its size.
+     */
+    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder,
+                    DelegationTokenVerifier tokenVerifier, int maxOutstandingBytes) {
+        Preconditions.checkArgument(maxOutstandingBytes > 0, "maxOutstandingBytes must be a positive number.");
         this.store = Preconditions.checkNotNull(store, "store");
         this.connection = Preconditions.checkNotNull(connection, "connection");
         this.nextRequestProcessor = Preconditions.checkNotNull(next, "next");
         this.statsRecorder = statsRecorder;
         this.tokenVerifier = tokenVerifier;
+        this.maxOutstandingBytes = maxOutstandingBytes;
     }
 
     //endregion
@@ -164,13 +189,13 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             return;
         }
 
-        store.getStreamSegmentInfo(newSegment, true, TIMEOUT)
-                .whenComplete((info, u) -> {
+        store.getAttributes(newSegment, Collections.singleton(writer), true, TIMEOUT)
+                .whenComplete((attributes, u) -> {
                     try {
                         if (u != null) {
                             handleException(writer, setupAppend.getRequestId(), newSegment, "setting up append", u);
                         } else {
-                            long eventNumber = info.getAttributes().getOrDefault(writer, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+                            long eventNumber = attributes.getOrDefault(writer, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
                             synchronized (lock) {
                                 latestEventNumbers.putIfAbsent(Pair.of(newSegment, writer), eventNumber);
                             }
@@ -183,64 +208,87 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     }
 
     /**
-     * If there isn't already an append outstanding against the store, write a new one.
-     * Appends are opportunistically batched here. i.e. If many are waiting they are combined into a single append and
-     * that is written.
+     * Writes any appends that can be written to the store. Each writer may have at most one append outstanding against
+     * the store at any given time (which preserves ordering within that writer), but appends from different writers are
+     * written concurrently, as long as the total number of outstanding bytes is within the configured limit.
+     * Appends are opportunistically batched here. i.e. If many are waiting for a writer they are combined into a single
+     * append and that is written.
      */
     private void performNextWrite() {
-        Append append = getNextAppend();
-        if (append == null) {
-            return;
+        for (Append append : getNextAppends()) {
+            long traceId = LoggerHelpers.traceEnter(log, "storeAppend", append);
+            Timer timer = new Timer();
+            storeAppend(append)
+                    .whenComplete((v, e) -> {
+                        handleAppendResult(append, e);
+                        LoggerHelpers.traceLeave(log, "storeAppend", traceId, v, e);
+                        if (e == null) {
+                            WRITE_STREAM_SEGMENT.reportSuccessEvent(timer.getElapsed());
+                        } else {
+                            WRITE_STREAM_SEGMENT.reportFailEvent(timer.getElapsed());
+                        }
+                    })
+                    .whenComplete((v, e) -> append.getData().release());
         }
-        long traceId = LoggerHelpers.traceEnter(log, "storeAppend", append);
-        Timer timer = new Timer();
-        storeAppend(append)
-                .whenComplete((v, e) -> {
-                    handleAppendResult(append, e);
-                    LoggerHelpers.traceLeave(log, "storeAppend", traceId, v, e);
-                    if (e == null) {
-                        WRITE_STREAM_SEGMENT.reportSuccessEvent(timer.getElapsed());
-                    } else {
-                        WRITE_STREAM_SEGMENT.reportFailEvent(timer.getElapsed());
-                    }
-                })
-                .whenComplete((v, e) -> append.getData().release());
     }
 
-    private Append getNextAppend() {
+    /**
+     * Picks the appends that can be written to the store right now and registers them as outstanding.
+     *
+     * @return A List of Appends to write. May be empty.
+     */
+    private List<Append> getNextAppends() {
+        List<Append> result = new ArrayList<>();
         synchronized (lock) {
-            if (outstandingAppend != null || waitingAppends.isEmpty()) {
-                return null;
-            }
-            UUID writer = waitingAppends.keys().iterator().next();
-            List<Append> appends = waitingAppends.get(writer);
-            if (appends.get(0).isConditional()) {
-                outstandingAppend = appends.remove(0);
-            } else {
-                ByteBuf[] toAppend = new ByteBuf[appends.size()];
-                Append last = appends.get(0);
-                int eventCount = 0;
-
-                int i = -1;
-                for (Iterator<Append> iterator = appends.iterator(); iterator.hasNext(); ) {
-                    Append a = iterator.next();
-                    if (a.isConditional()) {
-                        break;
-                    }
-                    i++;
-                    toAppend[i] = a.getData();
-                    last = a;
-                    eventCount += a.getEventCount();
-                    iterator.remove();
+            for (UUID writer : new ArrayList<>(waitingAppends.keySet())) {
+                if (outstandingAppends.containsKey(writer)) {
+                    // Only one outstanding append per writer; this is what guarantees ordering for it.
+                    continue;
+                }
+
+                if (!outstandingAppends.isEmpty() && outstandingBytes >= maxOutstandingBytes) {
+                    // Too much data in flight. We will pick up from here when one of the outstanding appends completes.
+                    break;
                 }
-                ByteBuf data = Unpooled.wrappedBuffer(toAppend);
 
-                String segment = last.getSegment();
-                long eventNumber = last.getEventNumber();
-                outstandingAppend = new Append(segment, writer, eventNumber, eventCount, data, null);
+                Append append = getNextAppend(writer);
+                outstandingAppends.put(writer, append);
+                outstandingBytes += append.getDataLength();
+                result.add(append);
+            }
+        }
+
+        return result;
+    }
+
+    @GuardedBy("lock")
+    private Append getNextAppend(UUID writer) {
+        List<Append> appends = waitingAppends.get(writer);
+        if (appends.get(0).isConditional()) {
+            return appends.remove(0);
+        }
+
+        ByteBuf[] toAppend = new ByteBuf[appends.size()];
+        Append last = appends.get(0);
+        int eventCount = 0;
+
+        int i = -1;
+        for (Iterator<Append> iterator = appends.iterator(); iterator.hasNext(); ) {
+            Append a = iterator.next();
+            if (a.isConditional()) {
+                break;
             }
-            return outstandingAppend;
+            i++;
+            toAppend[i] = a.getData();
+            last = a;
+            eventCount += a.getEventCount();
+            iterator.remove();
         }
+        ByteBuf data = Unpooled.wrappedBuffer(toAppend);
+
+        String segment = last.getSegment();
+        long eventNumber = last.getEventNumber();
+        return new Append(segment, writer, eventNumber, eventCount, data, null);
     }
 
     private CompletableFuture<Void> storeAppend(Append append) {
@@ -252,13 +300,13 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         List<AttributeUpdate> attributes = Arrays.asList(
                 new AttributeUpdate(append.getWriterId(), AttributeUpdateType.ReplaceIfEquals, append.getEventNumber(), lastEventNumber),
                 new AttributeUpdate(EVENT_COUNT, AttributeUpdateType.Accumulate, append.getEventCount()));
-        ByteBuf buf = append.getData().asReadOnly();
-        byte[] bytes = new byte[buf.readableBytes()];
-        buf.readBytes(bytes);
+        // Hand the (possibly composite) buffer over to the store without copying it. The store will retain it for as long
+        // as it needs it; we release our own reference once the append completes (see performNextWrite()).
+        ByteBufWrapper data = new ByteBufWrapper(append.getData());
         if (append.isConditional()) {
-            return store.append(append.getSegment(), append.getExpectedLength(), bytes, attributes, TIMEOUT);
+            return store.append(append.getSegment(), append.getExpectedLength(), data, attributes, TIMEOUT);
         } else {
-            return store.append(append.getSegment(), bytes, attributes, TIMEOUT);
+            return store.append(append.getSegment(), data, attributes, TIMEOUT);
         }
     }
 
@@ -268,7 +316,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             long previousEventNumber;
             synchronized (lock) {
                 previousEventNumber = latestEventNumbers.get(Pair.of(append.getSegment(), append.getWriterId()));
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
             }
@@ -293,14 +341,15 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             }
 
             /* Reply (DataAppended in case of success, else an error Reply based on exception) has been sent. Next,
-             *   - clear outstandingAppend to handle the next Append message.
+             *   - clear this writer's outstanding append to handle its next Append message.
              *   - ensure latestEventNumbers and waitingAppends are updated.
              */
             synchronized (lock) {
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
-                outstandingAppend = null;
+                outstandingAppends.remove(append.getWriterId());
+                outstandingBytes -= append.getDataLength();
                 if (exception == null) {
                     latestEventNumbers.put(Pair.of(append.getSegment(), append.getWriterId()), append.getEventNumber());
                 } else {
@@ -386,8 +435,8 @@ public class AppendProcessor extends DelegatingRequestProcessor {
 
     /**
      * Append data to the store.
-     * Because ordering dictates that there only be one outstanding append from a given connection, this is implemented
-     * by adding the append to a queue.
+     * Because ordering dictates that there only be one outstanding append from a given writer, this is implemented
+     * by adding the append to a queue (per writer).
      */
     @Override
     public void append(Append append) {
@@ -57,6 +57,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
     private final DelegationTokenVerifier tokenVerifier;
     private final String certFile;
     private final String keyFile;
+    private final int maxOutstandingAppendBytes;
     private Channel serverChannel;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -91,6 +92,25 @@ public final class PravegaConnectionListener implements AutoCloseable {
      */
     public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
                                      SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile, String keyFile) {
+        this(ssl, host, port, streamSegmentStore, statsRecorder, tokenVerifier, certFile, keyFile, AppendProcessor.DEFAULT_MAX_OUTSTANDING_BYTES);
+    }
+
+    /**
+     * Creates a new instance of the PravegaConnectionListener class.
+     * @param ssl                       Whether to use SSL.
+     * @param host                      The name of the host to listen to.
+     * @param port                      The port to listen on.
+     * @param streamSegmentStore        The SegmentStore to delegate all requests to.
+     * @param statsRecorder             (Optional) A StatsRecorder for Metrics.
+     * @param tokenVerifier             The object to verify delegation token.
+     * @param certFile                  Path to the certificate file to be used for TLS.
+     * @param keyFile                   PAth to be key file to be used for TLS.
+     * @param maxOutstandingAppendBytes The maximum number of append bytes that may be in flight (per connection) at any time.
+     */
+    public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
+                                     SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile,
+                                     String keyFile, int maxOutstandingAppendBytes) {
+        Preconditions.checkArgument(maxOutstandingAppendBytes > 0, "maxOutstandingAppendBytes must be a positive number.");
         this.ssl = ssl;
         this.host = Exceptions.checkNotNullOrEmpty(host, "host");
         this.port = port;
@@ -98,6 +118,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
         this.statsRecorder = statsRecorder;
         this.certFile = certFile;
         this.keyFile = keyFile;
+        this.maxOutstandingAppendBytes = maxOutstandingAppendBytes;
         InternalLoggerFactory.setDefaultFactory(Slf4JLoggerFactory.INSTANCE);
         if (tokenVerifier != null) {
             this.tokenVerifier = tokenVerifier;
@@ -155,7 +176,8 @@ public final class PravegaConnectionListener implements AutoCloseable {
                          lsh,
                          new PravegaRequestProcessor(store, lsh, statsRecorder, tokenVerifier),
                          statsRecorder,
-                         tokenVerifier));
+                         tokenVerifier,
+                         maxOutstandingAppendBytes));
              }
          });
 
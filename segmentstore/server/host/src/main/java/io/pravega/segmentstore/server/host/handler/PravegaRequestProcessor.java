@@ -11,6 +11,8 @@ package io.pravega.segmentstore.server.host.handler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.auth.AuthHandler;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
@@ -76,14 +78,12 @@ import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -216,7 +216,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
         if (!cachedEntries.isEmpty() || endOfSegment) {
             // We managed to collect some data. Send it.
-            ByteBuffer data = copyData(cachedEntries);
+            ByteBuf data = copyData(cachedEntries);
             SegmentRead reply = new SegmentRead(segment, request.getOffset(), atTail, endOfSegment, data);
             connection.send(reply);
         } else if (truncated) {
@@ -231,7 +231,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
             nonCachedEntry.requestContent(TIMEOUT);
             nonCachedEntry.getContent()
                     .thenAccept(contents -> {
-                        ByteBuffer data = copyData(Collections.singletonList(contents));
+                        ByteBuf data = copyData(Collections.singletonList(contents));
                         connection.send(new SegmentRead(segment, nonCachedEntry.getStreamSegmentOffset(), false, endOfSegment, data));
                     })
                     .exceptionally(e -> {
@@ -271,19 +271,21 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     }
 
     /**
-     * Copy all of the contents provided into a byteBuffer and return it.
+     * Copy all of the contents provided into a ByteBuf and return it. This is the only copy made of the data on its way
+     * out: the CommandEncoder hands the returned buffer directly to the channel, which releases it once written.
      */
     @SneakyThrows(IOException.class)
-    private ByteBuffer copyData(List<ReadResultEntryContents> contents) {
+    private ByteBuf copyData(List<ReadResultEntryContents> contents) {
         int totalSize = contents.stream().mapToInt(ReadResultEntryContents::getLength).sum();
 
-        ByteBuffer data = ByteBuffer.allocate(totalSize);
+        ByteBuf data = Unpooled.buffer(totalSize, totalSize);
         int bytesCopied = 0;
         for (ReadResultEntryContents content : contents) {
-            int copied = StreamHelpers.readAll(content.getData(), data.array(), bytesCopied, totalSize - bytesCopied);
+            int copied = StreamHelpers.readAll(content.getData(), data.array(), data.arrayOffset() + bytesCopied, totalSize - bytesCopied);
             Preconditions.checkState(copied == content.getLength(), "Read fewer bytes than available.");
             bytesCopied += copied;
         }
+        data.writerIndex(bytesCopied);
         return data;
     }
 
@@ -331,19 +333,14 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         }
 
         long trace = LoggerHelpers.traceEnter(log, "getSegmentAttribute", getSegmentAttribute);
-        segmentStore.getStreamSegmentInfo(segmentName, false, TIMEOUT)
-                .thenAccept(properties -> {
-                    LoggerHelpers.traceLeave(log, "getSegmentAttribute", trace, properties);
-                    if (properties == null) {
-                        connection.send(new NoSuchSegment(requestId, segmentName));
-                    } else {
-                        Map<UUID, Long> attributes = properties.getAttributes();
-                        Long value = attributes.get(attributeId);
-                        if (value == null) {
-                            value = WireCommands.NULL_ATTRIBUTE_VALUE;
-                        }
-                        connection.send(new SegmentAttribute(requestId, value));
+        segmentStore.getAttributes(segmentName, Collections.singleton(attributeId), false, TIMEOUT)
+                .thenAccept(attributes -> {
+                    LoggerHelpers.traceLeave(log, "getSegmentAttribute", trace, attributes);
+                    Long value = attributes.get(attributeId);
+                    if (value == null) {
+                        value = WireCommands.NULL_ATTRIBUTE_VALUE;
                     }
+                    connection.send(new SegmentAttribute(requestId, value));
                 })
                 .exceptionally(e -> handleException(requestId, segmentName, "Get attribute", e));
     }
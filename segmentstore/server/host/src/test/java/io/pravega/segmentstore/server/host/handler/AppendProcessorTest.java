@@ -9,15 +9,15 @@
  */
 package io.pravega.segmentstore.server.host.handler;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ReusableLatch;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import io.pravega.segmentstore.contracts.BadOffsetException;
-import io.pravega.segmentstore.contracts.SegmentProperties;
-import io.pravega.segmentstore.contracts.StreamSegmentInformation;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.shared.protocol.netty.Append;
@@ -45,11 +45,13 @@ import static io.pravega.segmentstore.contracts.Attributes.EVENT_COUNT;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -66,18 +68,19 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetAttributes(streamSegmentName, clientId, store);
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName), dataEquals(data),
+                          eq(updateEventNumber(clientId, data.length)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result);
 
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
-        verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(streamSegmentName,
-                             data,
-                             updateEventNumber(clientId, data.length),
-                             AppendProcessor.TIMEOUT);
+        processor.append(new Append(streamSegmentName, clientId, data.length, wrap(data), null));
+        verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName),
+                             dataEquals(data),
+                             eq(updateEventNumber(clientId, data.length)),
+                             eq(AppendProcessor.TIMEOUT));
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new DataAppended(clientId, data.length, 0L));
@@ -96,31 +99,35 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName1, clientId, store);
+        setupGetAttributes(streamSegmentName1, clientId, store);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName1, ""));
-        verifier.verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verifier.verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
         
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName1, data, updateEventNumber(clientId, 10), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName1), dataEquals(data), eq(updateEventNumber(clientId, 10)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result);
-        processor.append(new Append(streamSegmentName1, clientId, 10, Unpooled.wrappedBuffer(data), null));
-        verifier.verify(store).append(streamSegmentName1, data, updateEventNumber(clientId, 10), AppendProcessor.TIMEOUT);
+        processor.append(new Append(streamSegmentName1, clientId, 10, wrap(data), null));
+        verifier.verify(store).append(eq(streamSegmentName1), dataEquals(data),
+                                      eq(updateEventNumber(clientId, 10)), eq(AppendProcessor.TIMEOUT));
 
-        setupGetStreamSegmentInfo(streamSegmentName2, clientId, store);
+        setupGetAttributes(streamSegmentName2, clientId, store);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName2, ""));
-        verifier.verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verifier.verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
         
         CompletableFuture<Void> result2 = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName2, data, updateEventNumber(clientId, 2000), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName2), dataEquals(data), eq(updateEventNumber(clientId, 2000)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result2);
-        processor.append(new Append(streamSegmentName2, clientId, 2000, Unpooled.wrappedBuffer(data), null));
-        verifier.verify(store).append(streamSegmentName2, data, updateEventNumber(clientId, 2000), AppendProcessor.TIMEOUT);
+        processor.append(new Append(streamSegmentName2, clientId, 2000, wrap(data), null));
+        verifier.verify(store).append(eq(streamSegmentName2), dataEquals(data),
+                                      eq(updateEventNumber(clientId, 2000)), eq(AppendProcessor.TIMEOUT));
         
         CompletableFuture<Void> result3 = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName1, data, updateEventNumber(clientId, 20, 10, 1), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName1), dataEquals(data),
+                          eq(updateEventNumber(clientId, 20, 10, 1)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result3);
-        processor.append(new Append(streamSegmentName1, clientId, 20, Unpooled.wrappedBuffer(data), null));
-        verifier.verify(store).append(streamSegmentName1, data, updateEventNumber(clientId, 20, 10, 1), AppendProcessor.TIMEOUT);
+        processor.append(new Append(streamSegmentName1, clientId, 20, wrap(data), null));
+        verifier.verify(store).append(eq(streamSegmentName1), dataEquals(data),
+                                      eq(updateEventNumber(clientId, 20, 10, 1)), eq(AppendProcessor.TIMEOUT));
         
         verifyNoMoreInteractions(store);
     }
@@ -134,22 +141,22 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetAttributes(streamSegmentName, clientId, store);
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 1),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 1)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        processor.append(new Append(streamSegmentName, clientId, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(streamSegmentName, clientId, 1, wrap(data), null));
 
         result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName, data.length, data, updateEventNumber(clientId, 2, 1, 1),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-
-        processor.append(new Append(streamSegmentName, clientId, 2, Unpooled.wrappedBuffer(data), (long) data.length));
-        verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 1), AppendProcessor.TIMEOUT);
-        verify(store).append(streamSegmentName, data.length, data, updateEventNumber(clientId, 2, 1, 1),
-                             AppendProcessor.TIMEOUT);
+        when(store.append(eq(streamSegmentName), eq((long) data.length), dataEquals(data), eq(updateEventNumber(clientId, 2, 1, 1)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+
+        processor.append(new Append(streamSegmentName, clientId, 2, wrap(data), (long) data.length));
+        verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 1)), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName), eq((long) data.length), dataEquals(data), eq(updateEventNumber(clientId, 2, 1, 1)),
+                             eq(AppendProcessor.TIMEOUT));
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new DataAppended(clientId, 1, 0));
@@ -167,21 +174,22 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetAttributes(streamSegmentName, clientId, store);
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 1),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 1)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        processor.append(new Append(streamSegmentName, clientId, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(streamSegmentName, clientId, 1, wrap(data), null));
 
         result = Futures.failedFuture(new BadOffsetException(streamSegmentName, data.length, 0));
-        when(store.append(streamSegmentName, 0, data, updateEventNumber(clientId, 2, 1, 1),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-
-        processor.append(new Append(streamSegmentName, clientId, 2, Unpooled.wrappedBuffer(data), 0L));
-        verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 1), AppendProcessor.TIMEOUT);
-        verify(store).append(streamSegmentName, 0L, data, updateEventNumber(clientId, 2, 1, 1), AppendProcessor.TIMEOUT);
+        when(store.append(eq(streamSegmentName), eq(0L), dataEquals(data), eq(updateEventNumber(clientId, 2, 1, 1)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+
+        processor.append(new Append(streamSegmentName, clientId, 2, wrap(data), 0L));
+        verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 1)), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName), eq(0L), dataEquals(data),
+                             eq(updateEventNumber(clientId, 2, 1, 1)), eq(AppendProcessor.TIMEOUT));
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new DataAppended(clientId, 1, 0));
@@ -199,15 +207,15 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, 100, store);
+        setupGetAttributes(streamSegmentName, clientId, 100, store);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
         try {
-            processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+            processor.append(new Append(streamSegmentName, clientId, data.length, wrap(data), null));
             fail();
         } catch (RuntimeException e) {
             //expected
         }
-        verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 100));
         verify(connection, atLeast(0)).resumeReading();
         verifyNoMoreInteractions(connection);
@@ -223,7 +231,7 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
         try {
-            processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+            processor.append(new Append(streamSegmentName, clientId, data.length, wrap(data), null));
             fail();
         } catch (RuntimeException e) {
             //expected
@@ -243,31 +251,31 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(segment1, clientId1, store);
+        setupGetAttributes(segment1, clientId1, store);
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(segment1, data, updateEventNumber(clientId1, data.length), AppendProcessor.TIMEOUT))
+        when(store.append(eq(segment1), dataEquals(data), eq(updateEventNumber(clientId1, data.length)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result);
 
-        setupGetStreamSegmentInfo(segment2, clientId2, store);
+        setupGetAttributes(segment2, clientId2, store);
         result = CompletableFuture.completedFuture(null);
-        when(store.append(segment2, data, updateEventNumber(clientId2, data.length), AppendProcessor.TIMEOUT))
+        when(store.append(eq(segment2), dataEquals(data), eq(updateEventNumber(clientId2, data.length)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result);
 
         processor.setupAppend(new SetupAppend(1, clientId1, segment1, ""));
-        processor.append(new Append(segment1, clientId1, data.length, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment1, clientId1, data.length, wrap(data), null));
         processor.setupAppend(new SetupAppend(2, clientId2, segment2, ""));
-        processor.append(new Append(segment2, clientId2, data.length, Unpooled.wrappedBuffer(data), null));
-
-        verify(store).getStreamSegmentInfo(eq(segment1), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(segment1,
-                             data,
-                             updateEventNumber(clientId1, data.length),
-                             AppendProcessor.TIMEOUT);
-        verify(store).getStreamSegmentInfo(eq(segment2), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(segment2,
-                             data,
-                             updateEventNumber(clientId2, data.length),
-                             AppendProcessor.TIMEOUT);
+        processor.append(new Append(segment2, clientId2, data.length, wrap(data), null));
+
+        verify(store).getAttributes(eq(segment1), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(segment1),
+                             dataEquals(data),
+                             eq(updateEventNumber(clientId1, data.length)),
+                             eq(AppendProcessor.TIMEOUT));
+        verify(store).getAttributes(eq(segment2), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(segment2),
+                             dataEquals(data),
+                             eq(updateEventNumber(clientId2, data.length)),
+                             eq(AppendProcessor.TIMEOUT));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new AppendSetup(1, segment1, clientId1, 0));
         verify(connection).send(new DataAppended(clientId1, data.length, 0));
@@ -277,6 +285,88 @@ public class AppendProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    /**
+     * Verifies that appends from different writers on the same connection are sent to the store concurrently, and that
+     * each of them is acknowledged independently of the other.
+     */
+    @Test
+    public void testConcurrentWriters() {
+        String segment1 = "segment1";
+        String segment2 = "segment2";
+        UUID clientId1 = UUID.randomUUID();
+        UUID clientId2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
+
+        setupGetAttributes(segment1, clientId1, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        when(store.append(eq(segment1), dataEquals(data), eq(updateEventNumber(clientId1, data.length)), eq(AppendProcessor.TIMEOUT)))
+            .thenReturn(result1);
+
+        setupGetAttributes(segment2, clientId2, store);
+        CompletableFuture<Void> result2 = new CompletableFuture<>();
+        when(store.append(eq(segment2), dataEquals(data), eq(updateEventNumber(clientId2, data.length)), eq(AppendProcessor.TIMEOUT)))
+            .thenReturn(result2);
+
+        processor.setupAppend(new SetupAppend(1, clientId1, segment1, ""));
+        processor.setupAppend(new SetupAppend(2, clientId2, segment2, ""));
+        processor.append(new Append(segment1, clientId1, data.length, wrap(data), null));
+        processor.append(new Append(segment2, clientId2, data.length, wrap(data), null));
+
+        // Both appends must be in flight, even though neither has completed yet.
+        verify(store).append(eq(segment1), dataEquals(data), eq(updateEventNumber(clientId1, data.length)), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(segment2), dataEquals(data), eq(updateEventNumber(clientId2, data.length)), eq(AppendProcessor.TIMEOUT));
+
+        // Complete them out of order; each writer is acknowledged as soon as its own append completes.
+        result2.complete(null);
+        verify(connection).send(new DataAppended(clientId2, data.length, 0));
+        verify(connection, never()).send(new DataAppended(clientId1, data.length, 0));
+        result1.complete(null);
+        verify(connection).send(new DataAppended(clientId1, data.length, 0));
+    }
+
+    /**
+     * Verifies that no more appends are sent to the store once the maximum number of outstanding bytes is reached, and
+     * that the waiting ones are picked up as soon as the outstanding ones complete.
+     */
+    @Test
+    public void testMaxOutstandingBytes() {
+        String segment1 = "segment1";
+        String segment2 = "segment2";
+        UUID clientId1 = UUID.randomUUID();
+        UUID clientId2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, null, data.length);
+
+        setupGetAttributes(segment1, clientId1, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        when(store.append(eq(segment1), dataEquals(data), eq(updateEventNumber(clientId1, data.length)), eq(AppendProcessor.TIMEOUT)))
+            .thenReturn(result1);
+
+        setupGetAttributes(segment2, clientId2, store);
+        CompletableFuture<Void> result2 = CompletableFuture.completedFuture(null);
+        when(store.append(eq(segment2), dataEquals(data), eq(updateEventNumber(clientId2, data.length)), eq(AppendProcessor.TIMEOUT)))
+            .thenReturn(result2);
+
+        processor.setupAppend(new SetupAppend(1, clientId1, segment1, ""));
+        processor.setupAppend(new SetupAppend(2, clientId2, segment2, ""));
+        processor.append(new Append(segment1, clientId1, data.length, wrap(data), null));
+        processor.append(new Append(segment2, clientId2, data.length, wrap(data), null));
+
+        // The first append used up all the allowance; the second one must wait.
+        verify(store).append(eq(segment1), dataEquals(data), eq(updateEventNumber(clientId1, data.length)), eq(AppendProcessor.TIMEOUT));
+        verify(store, never()).append(eq(segment2), any(BufferView.class), any(), any());
+
+        result1.complete(null);
+        verify(store).append(eq(segment2), dataEquals(data), eq(updateEventNumber(clientId2, data.length)), eq(AppendProcessor.TIMEOUT));
+        verify(connection).send(new DataAppended(clientId1, data.length, 0));
+        verify(connection).send(new DataAppended(clientId2, data.length, 0));
+    }
+
     @Test
     public void testAppendFails() {
         String streamSegmentName = "testAppendSegment";
@@ -286,16 +376,17 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetAttributes(streamSegmentName, clientId, store);
         CompletableFuture<Void> result = new CompletableFuture<>();
         result.completeExceptionally(new RuntimeException("Fake exception for testing"));
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName), dataEquals(data),
+                          eq(updateEventNumber(clientId, data.length)), eq(AppendProcessor.TIMEOUT)))
             .thenReturn(result);
 
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(streamSegmentName, clientId, data.length, wrap(data), null));
         try {
-            processor.append(new Append(streamSegmentName, clientId, data.length * 2, Unpooled.wrappedBuffer(data), null));
+            processor.append(new Append(streamSegmentName, clientId, data.length * 2, wrap(data), null));
             fail();
         } catch (IllegalStateException e) {
             // Expected
@@ -303,7 +394,7 @@ public class AppendProcessorTest {
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).close();
-        verify(store, atMost(1)).append(any(), any(), any(), any());
+        verify(store, atMost(1)).append(any(), any(BufferView.class), any(), any());
         verifyNoMoreInteractions(connection);
     }
 
@@ -316,32 +407,31 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        CompletableFuture<SegmentProperties> propsFuture = CompletableFuture.completedFuture(
-                StreamSegmentInformation.builder().name(streamSegmentName).build());
-        when(store.getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT)).thenReturn(propsFuture);
+        CompletableFuture<Map<UUID, Long>> attributesFuture = CompletableFuture.completedFuture(Collections.emptyMap());
+        when(store.getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT)).thenReturn(attributesFuture);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        verify(store).getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT);
+        verify(store).getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT);
         
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
         int eventCount = 100;
-        when(store.append(streamSegmentName, data,
-                          updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-        processor.append(new Append(streamSegmentName, clientId, 100, eventCount, Unpooled.wrappedBuffer(data), null));
-        verify(store).append(streamSegmentName, data,
-                             updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount),
-                             AppendProcessor.TIMEOUT);
+        when(store.append(eq(streamSegmentName), dataEquals(data),
+                          eq(updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+        processor.append(new Append(streamSegmentName, clientId, 100, eventCount, wrap(data), null));
+        verify(store).append(eq(streamSegmentName), dataEquals(data),
+                             eq(updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount)),
+                             eq(AppendProcessor.TIMEOUT));
 
         Map<UUID, Long> map = new HashMap<>();
         map.put(clientId, 100L);
         map.put(EVENT_COUNT, 100L);
-        propsFuture = CompletableFuture.completedFuture(StreamSegmentInformation.builder().name(streamSegmentName).attributes(map).build());
+        attributesFuture = CompletableFuture.completedFuture(map);
 
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, Unpooled.wrappedBuffer(data), null));
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                             AppendProcessor.TIMEOUT);
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, wrap(data), null));
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                             eq(AppendProcessor.TIMEOUT));
 
         verifyNoMoreInteractions(store);
     }
@@ -379,43 +469,40 @@ public class AppendProcessorTest {
 
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        CompletableFuture<SegmentProperties> propsFuture = CompletableFuture.completedFuture(
-                StreamSegmentInformation.builder().name(streamSegmentName).build());
-        when(store.getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT)).thenReturn(propsFuture);
+        CompletableFuture<Map<UUID, Long>> attributesFuture = CompletableFuture.completedFuture(Collections.emptyMap());
+        when(store.getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT)).thenReturn(attributesFuture);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        verify(store).getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT);
+        verify(store).getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT);
 
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
         int eventCount = 100;
-        when(store.append(streamSegmentName, data,
-                updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount),
-                AppendProcessor.TIMEOUT)).thenReturn(result);
+        when(store.append(eq(streamSegmentName), dataEquals(data),
+                eq(updateEventNumber(clientId, 100, SegmentMetadata.NULL_ATTRIBUTE_VALUE, eventCount)),
+                eq(AppendProcessor.TIMEOUT))).thenReturn(result);
 
         //Trigger the first append, here the sending of DataAppended ack will be delayed/hung.
-        nettyExecutor.submit(() -> processor.append(new Append(streamSegmentName, clientId, 100, eventCount, Unpooled
-                .wrappedBuffer(data), null)));
+        nettyExecutor.submit(() -> processor.append(new Append(streamSegmentName, clientId, 100, eventCount, wrap(data), null)));
         firstStoreAppendInvoked.await();
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 100, SegmentMetadata
-                .NULL_ATTRIBUTE_VALUE, eventCount), AppendProcessor.TIMEOUT);
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 100, SegmentMetadata
+                .NULL_ATTRIBUTE_VALUE, eventCount)), eq(AppendProcessor.TIMEOUT));
 
         /* Trigger the next append. This should be completed immediately and should not cause a store.append to be
         invoked as the previous DataAppended ack is still not sent. */
-        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, Unpooled
-                .wrappedBuffer(data),
+        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, wrap(data),
                 null));
 
         //Since the first Ack was never sent the next append should not be written to the store.
         verifyNoMoreInteractions(store);
 
         //Setup mock for check behaviour after the delayed/hung dataAppended completes.
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                AppendProcessor.TIMEOUT)).thenReturn(result);
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                eq(AppendProcessor.TIMEOUT))).thenReturn(result);
         completeFirstDataAppendedAck.release(); //Now ensure the dataAppended sent
         secondStoreAppendInvoked.await(); // wait until the next store append is invoked.
 
         //Verify that the next store append invoked.
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                AppendProcessor.TIMEOUT);
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                eq(AppendProcessor.TIMEOUT));
         //Verify two DataAppended acks are sent out.
         verify(connection, times(2)).send(any(DataAppended.class));
         verify(connection).send(new DataAppended(clientId, 100, Long.MIN_VALUE));
@@ -431,29 +518,26 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        CompletableFuture<SegmentProperties> propsFuture = CompletableFuture.completedFuture(
-                StreamSegmentInformation.builder()
-                        .name(streamSegmentName)
-                        .attributes(Collections.singletonMap(clientId, 100L))
-                        .build());
+        CompletableFuture<Map<UUID, Long>> attributesFuture = CompletableFuture.completedFuture(
+                Collections.singletonMap(clientId, 100L));
 
-        when(store.getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT)).thenReturn(propsFuture);
+        when(store.getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT)).thenReturn(attributesFuture);
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        verify(store).getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT);
+        verify(store).getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT);
 
         int eventCount = 10;
         CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, Unpooled.wrappedBuffer(data), null));
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
-                             AppendProcessor.TIMEOUT);
-
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 300, 200, eventCount),
-                          AppendProcessor.TIMEOUT)).thenReturn(result);
-        processor.append(new Append(streamSegmentName, clientId, 300, eventCount, Unpooled.wrappedBuffer(data), null));
-        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 300, 200, eventCount),
-                             AppendProcessor.TIMEOUT);
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+        processor.append(new Append(streamSegmentName, clientId, 200, eventCount, wrap(data), null));
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 200, 100, eventCount)),
+                             eq(AppendProcessor.TIMEOUT));
+
+        when(store.append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 300, 200, eventCount)),
+                          eq(AppendProcessor.TIMEOUT))).thenReturn(result);
+        processor.append(new Append(streamSegmentName, clientId, 300, eventCount, wrap(data), null));
+        verify(store).append(eq(streamSegmentName), dataEquals(data), eq(updateEventNumber(clientId, 300, 200, eventCount)),
+                             eq(AppendProcessor.TIMEOUT));
         
         verifyNoMoreInteractions(store);
     }
@@ -468,18 +552,19 @@ public class AppendProcessorTest {
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetAttributes(streamSegmentName, clientId, store);
         CompletableFuture<Void> result = Futures.failedFuture(new UnsupportedOperationException());
-        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+        when(store.append(eq(streamSegmentName), dataEquals(data),
+                          eq(updateEventNumber(clientId, data.length)), eq(AppendProcessor.TIMEOUT)))
                 .thenReturn(result);
 
         processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
-        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
-        verify(store).getStreamSegmentInfo(anyString(), eq(true), eq(AppendProcessor.TIMEOUT));
-        verify(store).append(streamSegmentName,
-                data,
-                updateEventNumber(clientId, data.length),
-                AppendProcessor.TIMEOUT);
+        processor.append(new Append(streamSegmentName, clientId, data.length, wrap(data), null));
+        verify(store).getAttributes(anyString(), any(), eq(true), eq(AppendProcessor.TIMEOUT));
+        verify(store).append(eq(streamSegmentName),
+                dataEquals(data),
+                eq(updateEventNumber(clientId, data.length)),
+                eq(AppendProcessor.TIMEOUT));
 
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
@@ -494,6 +579,18 @@ public class AppendProcessorTest {
         fail();
     }
 
+    /**
+     * Wraps the given array into a ByteBuf that ignores release() calls. The AppendProcessor releases the appended data
+     * as soon as the Store is done with it, but we still need to be able to inspect its contents when verifying calls.
+     */
+    private static ByteBuf wrap(byte[] data) {
+        return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(data));
+    }
+
+    private static BufferView dataEquals(byte[] expected) {
+        return argThat(data -> data != null && Arrays.equals(expected, data.getCopy()));
+    }
+
     private Collection<AttributeUpdate> updateEventNumber(UUID clientId, long eventNum) {
         return updateEventNumber(clientId, eventNum, 0, 1);
     }
@@ -504,17 +601,15 @@ public class AppendProcessorTest {
                              new AttributeUpdate(EVENT_COUNT, AttributeUpdateType.Accumulate, eventCount));
     }
 
-    private void setupGetStreamSegmentInfo(String streamSegmentName, UUID clientId, StreamSegmentStore store) {
-        setupGetStreamSegmentInfo(streamSegmentName, clientId, 0, store);
+    private void setupGetAttributes(String streamSegmentName, UUID clientId, StreamSegmentStore store) {
+        setupGetAttributes(streamSegmentName, clientId, 0, store);
     }
 
-    private void setupGetStreamSegmentInfo(String streamSegmentName, UUID clientId, long eventNumber, StreamSegmentStore store) {
-        CompletableFuture<SegmentProperties> propsFuture = CompletableFuture.completedFuture(StreamSegmentInformation.builder()
-                .name(streamSegmentName)
-                .attributes(Collections.singletonMap(clientId, eventNumber))
-                .build());
+    private void setupGetAttributes(String streamSegmentName, UUID clientId, long eventNumber, StreamSegmentStore store) {
+        CompletableFuture<Map<UUID, Long>> attributesFuture = CompletableFuture.completedFuture(
+                Collections.singletonMap(clientId, eventNumber));
 
-        when(store.getStreamSegmentInfo(streamSegmentName, true, AppendProcessor.TIMEOUT))
-                .thenReturn(propsFuture);
+        when(store.getAttributes(streamSegmentName, Collections.singleton(clientId), true, AppendProcessor.TIMEOUT))
+                .thenReturn(attributesFuture);
     }
 }
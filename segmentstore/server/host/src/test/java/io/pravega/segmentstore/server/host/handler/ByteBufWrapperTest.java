@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.pravega.common.io.StreamHelpers;
+import java.io.ByteArrayOutputStream;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ByteBufWrapper class.
+ */
+public class ByteBufWrapperTest {
+    private static final int LENGTH = 1024;
+    private static final int SKIP = 100;
+
+    /**
+     * Tests the ability to read the contents of a (composite) ByteBuf without modifying its reader or writer index.
+     */
+    @Test
+    public void testReadContents() throws Exception {
+        val data = new byte[LENGTH];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        val half = data.length / 2;
+        ByteBuf buf = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(data, 0, half), Unpooled.wrappedBuffer(data, half, data.length - half));
+        buf.readerIndex(SKIP);
+        val expected = new byte[data.length - SKIP];
+        System.arraycopy(data, SKIP, expected, 0, expected.length);
+
+        val wrapper = new ByteBufWrapper(buf);
+        Assert.assertEquals("Unexpected length.", expected.length, wrapper.getLength());
+        Assert.assertArrayEquals("Unexpected result from getCopy().", expected, wrapper.getCopy());
+        Assert.assertArrayEquals("Unexpected result from getReader().", expected, StreamHelpers.readAll(wrapper.getReader(), expected.length));
+
+        val os = new ByteArrayOutputStream();
+        wrapper.copyTo(os);
+        Assert.assertArrayEquals("Unexpected result from copyTo().", expected, os.toByteArray());
+
+        Assert.assertEquals("Reader index was modified.", SKIP, buf.readerIndex());
+        Assert.assertEquals("Writer index was modified.", data.length, buf.writerIndex());
+    }
+
+    /**
+     * Tests the retain() and release() methods.
+     */
+    @Test
+    public void testRetainRelease() {
+        ByteBuf buf = Unpooled.wrappedBuffer(new byte[LENGTH]);
+        val wrapper = new ByteBufWrapper(buf);
+        wrapper.retain();
+        Assert.assertEquals("Unexpected reference count after retain().", 2, buf.refCnt());
+        wrapper.release();
+        Assert.assertEquals("Unexpected reference count after release().", 1, buf.refCnt());
+        buf.release();
+        Assert.assertEquals("Unexpected reference count after final release.", 0, buf.refCnt());
+    }
+}
@@ -10,6 +10,8 @@
 package io.pravega.segmentstore.server;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Defines a ContainerMetadata that allows eviction of SegmentMetadatas.
@@ -35,4 +37,38 @@ public interface EvictableMetadata extends ContainerMetadata {
      * subset of cleanupCandidates.
      */
     Collection<SegmentMetadata> cleanup(Collection<SegmentMetadata> evictionCandidates, long sequenceNumberCutoff);
+
+    /**
+     * Gets a collection of SegmentMetadata referring to Segments that have more than the given number of dynamic
+     * Attributes in memory. These are candidates for Attribute eviction.
+     *
+     * @param maxAttributeCount The number of in-memory dynamic Attributes above which a Segment becomes a candidate.
+     * @param maxCount          The maximum number of candidates to return.
+     * @return The collection of SegmentMetadata, with the ones having the most dynamic Attributes first.
+     */
+    Collection<SegmentMetadata> getAttributeEvictionCandidates(int maxAttributeCount, int maxCount);
+
+    /**
+     * Gets the dynamic Attributes of the given Segment that are currently eligible for eviction, along with their values.
+     * These need to be persisted in the Segment's Attribute Index before they can be evicted.
+     *
+     * @param segmentId            The Id of the Segment.
+     * @param sequenceNumberCutoff A Sequence Number that indicates the cutoff threshold. An Attribute is eligible for
+     *                             eviction if it has a LastUsed value smaller than this threshold.
+     * @return A Map of Attribute Ids to values. Removed Attributes are mapped to SegmentMetadata.NULL_ATTRIBUTE_VALUE.
+     */
+    Map<UUID, Long> getEvictableAttributes(long segmentId, long sequenceNumberCutoff);
+
+    /**
+     * Evicts the given dynamic Attributes of the given Segment, but only if they are still eligible for eviction and
+     * their values have not changed.
+     *
+     * @param segmentId            The Id of the Segment.
+     * @param persistedAttributes  The Attributes (obtained by calling getEvictableAttributes) that have been persisted
+     *                             in the Segment's Attribute Index.
+     * @param sequenceNumberCutoff A Sequence Number that indicates the cutoff threshold. An Attribute is eligible for
+     *                             eviction if it has a LastUsed value smaller than this threshold.
+     * @return The number of Attributes that were evicted.
+     */
+    int cleanupAttributes(long segmentId, Map<UUID, Long> persistedAttributes, long sequenceNumberCutoff);
 }
@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server;
 
+import io.pravega.common.util.BufferView;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import java.io.InputStream;
@@ -26,12 +27,13 @@ public interface ReadIndex extends AutoCloseable, CacheUtilizationProvider {
      * @param streamSegmentId The Id of the StreamSegment to append to.
      * @param offset          The offset in the StreamSegment where to write this append. The offset must be at the end
      *                        of the StreamSegment as it exists in the ReadIndex.
-     * @param data            The data to append.
+     * @param data            The data to append. The ReadIndex does not hold on to this buffer after this method returns
+     *                        (its contents are transferred into the Cache).
      * @throws StreamSegmentNotExistsException If streamSegmentId is mapped to a Segment that is marked as Deleted.
      * @throws IllegalArgumentException If the offset does not match the expected value (end of StreamSegment in ReadIndex).
      * @throws IllegalArgumentException If the offset + data.length exceeds the metadata Length of the StreamSegment.
      */
-    void append(long streamSegmentId, long offset, byte[] data) throws StreamSegmentNotExistsException;
+    void append(long streamSegmentId, long offset, BufferView data) throws StreamSegmentNotExistsException;
 
     /**
      * Executes Step 1 of the 2-Step Merge Process.
@@ -12,14 +12,17 @@ package io.pravega.segmentstore.server;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentInformation;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Defines an immutable StreamSegment Metadata.
  */
 public interface SegmentMetadata extends SegmentProperties {
     /**
-     * The maximum number of attributes that a single Segment can have at any given time. Due to serialization constraints
-     * there needs to be a hard limit as to how many attributes each segment can have.
+     * The maximum number of attributes that a single Segment can have loaded in memory at any given time. Due to
+     * serialization constraints there needs to be a hard limit as to how many attributes each segment can have in its
+     * metadata; dynamic attributes that have been evicted to the Segment's Attribute Index do not count towards it.
      */
     int MAXIMUM_ATTRIBUTE_COUNT = 1024;
 
@@ -74,6 +77,15 @@ public interface SegmentMetadata extends SegmentProperties {
      */
     boolean isActive();
 
+    /**
+     * Gets a read-only Map of AttributeId-Values for this Segment which, in addition to what getAttributes() returns, also
+     * contains NULL_ATTRIBUTE_VALUE entries for those dynamic Attributes that have been removed but whose removal may not
+     * yet be reflected in the Segment's Attribute Index. This is what needs to be included in a Metadata Checkpoint.
+     *
+     * @return The map.
+     */
+    Map<UUID, Long> getAttributesWithRemovals();
+
     /**
      * Creates a new SegmentProperties instance with current information from this SegmentMetadata object.
      *
@@ -37,6 +37,11 @@ public final class SegmentStoreMetrics {
      */
     private static final OpStatsLogger GLOBAL_OPERATION_LATENCY = STATS_LOGGER.createStats(MetricsNames.OPERATION_LATENCY);
 
+    /**
+     * Amount of time a DurableLog recovery waits for its turn to execute (see RecoveryScheduler).
+     */
+    private static final OpStatsLogger RECOVERY_WAIT_TIME = STATS_LOGGER.createStats(MetricsNames.RECOVERY_WAIT_TIME);
+
     //region CacheManager
 
     /**
@@ -45,16 +50,43 @@ public final class SegmentStoreMetrics {
     public final static class CacheManager implements AutoCloseable {
         private final OpStatsLogger totalSize = STATS_LOGGER.createStats(MetricsNames.CACHE_TOTAL_SIZE_BYTES);
         private final OpStatsLogger generationSpread = STATS_LOGGER.createStats(MetricsNames.CACHE_GENERATION_SPREAD);
+        private final OpStatsLogger hitRatio;
+        private final String cacheHits;
+        private final String cacheMisses;
+
+        public CacheManager(String evictionPolicy) {
+            this.hitRatio = STATS_LOGGER.createStats(MetricsNames.nameFromCachePolicy(MetricsNames.CACHE_HIT_RATIO, evictionPolicy));
+            this.cacheHits = "segmentstore." + MetricsNames.nameFromCachePolicy(MetricsNames.CACHE_HITS, evictionPolicy);
+            this.cacheMisses = "segmentstore." + MetricsNames.nameFromCachePolicy(MetricsNames.CACHE_MISSES, evictionPolicy);
+        }
 
         public void report(long totalBytes, int generationSpread) {
             this.totalSize.reportSuccessValue(totalBytes);
             this.generationSpread.reportSuccessValue(generationSpread);
         }
 
+        /**
+         * Reports the number of cache hits and misses since the last call to this method.
+         *
+         * @param hits   The number of reads served from the cache.
+         * @param misses The number of reads that had to be fetched from Storage.
+         */
+        public void cacheAccesses(long hits, long misses) {
+            if (hits + misses == 0) {
+                return;
+            }
+
+            DYNAMIC_LOGGER.incCounterValue(this.cacheHits, hits);
+            DYNAMIC_LOGGER.incCounterValue(this.cacheMisses, misses);
+            // Reported as a percentage since stats only accept integral values.
+            this.hitRatio.reportSuccessValue(100 * hits / (hits + misses));
+        }
+
         @Override
         public void close()  {
             this.totalSize.close();
             this.generationSpread.close();
+            this.hitRatio.close();
         }
     }
 
@@ -96,6 +128,27 @@ public final class SegmentStoreMetrics {
 
     //endregion
 
+    //region RecoveryScheduler
+
+    /**
+     * DurableLog RecoveryScheduler metrics.
+     */
+    public final static class RecoveryScheduler {
+        private static final String PENDING_COUNT = "segmentstore." + MetricsNames.RECOVERY_PENDING_COUNT;
+        private static final String ACTIVE_COUNT = "segmentstore." + MetricsNames.RECOVERY_ACTIVE_COUNT;
+
+        public void currentState(int pendingCount, int activeCount) {
+            DYNAMIC_LOGGER.reportGaugeValue(PENDING_COUNT, pendingCount);
+            DYNAMIC_LOGGER.reportGaugeValue(ACTIVE_COUNT, activeCount);
+        }
+
+        public void recoveryStarted(Duration waitTime) {
+            RECOVERY_WAIT_TIME.reportSuccessEvent(waitTime);
+        }
+    }
+
+    //endregion
+
     //region OperationProcessor
 
     /**
@@ -123,6 +176,12 @@ public final class SegmentStoreMetrics {
          */
         private final OpStatsLogger operationProcessorDelay;
 
+        /**
+         * Total amount of time the OperationProcessor delayed processing operations, broken down by the throttler that
+         * caused the delay (i.e., cache utilization, commit backlog or batching).
+         */
+        private final String operationProcessorThrottlerDelay;
+
         /**
          * Amount of time spent committing an operation after being written to Tier1 (this includes in-memory structures
          * and Cache).
@@ -151,12 +210,21 @@ public final class SegmentStoreMetrics {
         private final OpStatsLogger processOperationsLatency;
         private final OpStatsLogger processOperationsBatchSize;
         private final String operationLogSize;
+        private final String recoveryReplayedBytes;
+
+        /**
+         * Size reduction (uncompressed size divided by compressed size, times 100) of compressed DataFrames, and the
+         * amount of time spent compressing them.
+         */
+        private final OpStatsLogger dataFrameCompressionRatio;
+        private final OpStatsLogger dataFrameCompressionLatency;
 
         public OperationProcessor(int containerId) {
             this.operationQueueSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_QUEUE_SIZE, containerId));
             this.operationsInFlight = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_IN_FLIGHT, containerId));
             this.operationQueueWaitTime = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_QUEUE_WAIT_TIME, containerId));
             this.operationProcessorDelay = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_DELAY_MILLIS, containerId));
+            this.operationProcessorThrottlerDelay = "segmentstore." + MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_THROTTLER_DELAY_MILLIS, containerId);
             this.operationCommitLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_COMMIT_LATENCY, containerId));
             this.operationLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_LATENCY, containerId));
             this.memoryCommitLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_COMMIT_MEMORY_LATENCY, containerId));
@@ -164,6 +232,9 @@ public final class SegmentStoreMetrics {
             this.processOperationsLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.PROCESS_OPERATIONS_LATENCY, containerId));
             this.processOperationsBatchSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.PROCESS_OPERATIONS_BATCH_SIZE, containerId));
             this.operationLogSize = "segmentstore." + MetricsNames.nameFromContainer(MetricsNames.OPERATION_LOG_SIZE, containerId);
+            this.recoveryReplayedBytes = "segmentstore." + MetricsNames.nameFromContainer(MetricsNames.RECOVERY_REPLAYED_BYTES, containerId);
+            this.dataFrameCompressionRatio = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.DATA_FRAME_COMPRESSION_RATIO, containerId));
+            this.dataFrameCompressionLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.DATA_FRAME_COMPRESSION_LATENCY, containerId));
         }
 
         @Override
@@ -178,6 +249,8 @@ public final class SegmentStoreMetrics {
             this.metadataCommitTxnCount.close();
             this.processOperationsLatency.close();
             this.processOperationsBatchSize.close();
+            this.dataFrameCompressionRatio.close();
+            this.dataFrameCompressionLatency.close();
         }
 
         public void currentState(int queueSize, int inFlightCount) {
@@ -189,6 +262,10 @@ public final class SegmentStoreMetrics {
             this.operationProcessorDelay.reportSuccessValue(millis);
         }
 
+        public void throttlerDelay(String throttlerName, int millis) {
+            DYNAMIC_LOGGER.incCounterValue(this.operationProcessorThrottlerDelay + "." + throttlerName, millis);
+        }
+
         public void operationQueueWaitTime(long queueWaitTimeMillis) {
             this.operationQueueWaitTime.reportSuccessValue(queueWaitTimeMillis);
         }
@@ -206,11 +283,20 @@ public final class SegmentStoreMetrics {
             DYNAMIC_LOGGER.updateCounterValue(this.operationLogSize, 0);
         }
 
+        public void recoveryProgress(long replayedBytes) {
+            DYNAMIC_LOGGER.reportGaugeValue(this.recoveryReplayedBytes, replayedBytes);
+        }
+
         public void processOperations(int batchSize, long millis) {
             this.processOperationsBatchSize.reportSuccessValue(batchSize);
             this.processOperationsLatency.reportSuccessValue(millis);
         }
 
+        public void dataFrameCompressed(int uncompressedLength, int compressedLength, Duration elapsed) {
+            this.dataFrameCompressionRatio.reportSuccessValue(100L * uncompressedLength / compressedLength);
+            this.dataFrameCompressionLatency.reportSuccessEvent(elapsed);
+        }
+
         public void operationsCompleted(int operationCount, Duration commitElapsed) {
             DYNAMIC_LOGGER.incCounterValue(this.operationLogSize, operationCount);
             this.operationCommitLatency.reportSuccessEvent(commitElapsed);
@@ -236,6 +322,71 @@ public final class SegmentStoreMetrics {
 
     //endregion
 
+    //region StorageWriter
+
+    /**
+     * StorageWriter metrics.
+     */
+    public final static class StorageWriter implements AutoCloseable {
+        /**
+         * Amount of time it takes to flush a single Segment to Storage.
+         */
+        private final OpStatsLogger flushLatency;
+
+        /**
+         * Number of Segment flushes in progress at any given time.
+         */
+        private final String flushesInFlight;
+
+        public StorageWriter(int containerId) {
+            this.flushLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.STORAGE_WRITER_FLUSH_LATENCY, containerId));
+            this.flushesInFlight = "segmentstore." + MetricsNames.nameFromContainer(MetricsNames.STORAGE_WRITER_FLUSHES_IN_FLIGHT, containerId);
+        }
+
+        @Override
+        public void close() {
+            this.flushLatency.close();
+            DYNAMIC_LOGGER.freezeGaugeValue(this.flushesInFlight);
+        }
+
+        public void flushesInFlight(int count) {
+            DYNAMIC_LOGGER.reportGaugeValue(this.flushesInFlight, count);
+        }
+
+        public void flushCompleted(Duration elapsed) {
+            this.flushLatency.reportSuccessEvent(elapsed);
+        }
+
+        public void flushFailed(Duration elapsed) {
+            this.flushLatency.reportFailEvent(elapsed);
+        }
+
+        /**
+         * Reports the number of bytes in the given Segment that have been accepted but not yet flushed to Storage.
+         *
+         * @param segmentName The name of the Segment.
+         * @param lagBytes    The number of unflushed bytes.
+         */
+        public void segmentFlushLag(String segmentName, long lagBytes) {
+            DYNAMIC_LOGGER.reportGaugeValue(getFlushLagName(segmentName), lagBytes);
+        }
+
+        /**
+         * Stops reporting flush lag for the given Segment (when it is no longer handled by the StorageWriter).
+         *
+         * @param segmentName The name of the Segment.
+         */
+        public void segmentRemoved(String segmentName) {
+            DYNAMIC_LOGGER.freezeGaugeValue(getFlushLagName(segmentName));
+        }
+
+        private String getFlushLagName(String segmentName) {
+            return "segmentstore." + MetricsNames.nameFromSegment(MetricsNames.STORAGE_WRITER_FLUSH_LAG_BYTES, segmentName);
+        }
+    }
+
+    //endregion
+
     //region Metadata
 
     /**
@@ -266,6 +417,7 @@ public final class SegmentStoreMetrics {
         private final String updateAttributesCount;
         private final String readCount;
         private final String getInfoCount;
+        private final String getAttributesCount;
         private final String createSegmentCount;
         private final String deleteSegmentCount;
         private final String createTxnCount;
@@ -279,6 +431,7 @@ public final class SegmentStoreMetrics {
             this.updateAttributesCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_UPDATE_ATTRIBUTES_COUNT, containerId);
             this.readCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_READ_COUNT, containerId);
             this.getInfoCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_GET_INFO_COUNT, containerId);
+            this.getAttributesCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_GET_ATTRIBUTES_COUNT, containerId);
             this.createSegmentCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_CREATE_SEGMENT_COUNT, containerId);
             this.deleteSegmentCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_DELETE_SEGMENT_COUNT, containerId);
             this.createTxnCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_CREATE_TXN_COUNT, containerId);
@@ -315,6 +468,10 @@ public final class SegmentStoreMetrics {
             DYNAMIC_LOGGER.recordMeterEvents(this.getInfoCount, 1);
         }
 
+        public void getAttributes() {
+            DYNAMIC_LOGGER.recordMeterEvents(this.getAttributesCount, 1);
+        }
+
         public void createTxn() {
             DYNAMIC_LOGGER.recordMeterEvents(this.createTxnCount, 1);
         }
@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.BitConverter;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import lombok.Data;
+
+/**
+ * An immutable page in a Segment's Attribute Index (see ContainerAttributeIndex). A page is either a Leaf Page, which
+ * maps Attribute Ids to their values, or an Index Page, which points to other pages (by the first Attribute Id they
+ * contain).
+ * <p>
+ * Serialization format:
+ * <ul>
+ * <li> Header: Version (1 byte), Flags (1 byte), Entry Count (4 bytes).
+ * <li> Leaf Page entries: Attribute Id (16 bytes), Value (8 bytes).
+ * <li> Index Page entries: First Attribute Id (16 bytes), Page Offset (8 bytes), Page Length (4 bytes).
+ * <li> Trailer: Magic (4 bytes), CRC32 of everything preceding the trailer (4 bytes).
+ * </ul>
+ * Entries are sorted by Attribute Id.
+ */
+class AttributeIndexPage {
+    //region Members
+
+    /**
+     * The maximum number of entries in a single page.
+     */
+    static final int MAX_ENTRY_COUNT = 256;
+    /**
+     * The length of the trailer (Magic and Checksum) appended by seal().
+     */
+    static final int TRAILER_LENGTH = 2 * Integer.BYTES;
+    private static final int MAGIC = 0x41545049; // "ATPI"
+    private static final byte CURRENT_VERSION = 1;
+    private static final byte FLAG_LEAF = 1;
+    private static final int HEADER_LENGTH = 2 + Integer.BYTES;
+    private static final int KEY_LENGTH = 2 * Long.BYTES;
+    private static final int LEAF_ENTRY_LENGTH = KEY_LENGTH + Long.BYTES;
+    private static final int INDEX_ENTRY_LENGTH = KEY_LENGTH + Long.BYTES + Integer.BYTES;
+
+    /**
+     * Entries of a Leaf Page (Attribute Id to Value). Null for Index Pages.
+     */
+    private final SortedMap<UUID, Long> entries;
+
+    /**
+     * Pointers to child pages, for an Index Page. Null for Leaf Pages.
+     */
+    private final List<PagePointer> children;
+
+    //endregion
+
+    //region Constructor
+
+    private AttributeIndexPage(SortedMap<UUID, Long> entries, List<PagePointer> children) {
+        this.entries = entries;
+        this.children = children;
+    }
+
+    /**
+     * Creates a new Leaf Page.
+     *
+     * @param entries The entries (Attribute Id to Value) in the page.
+     * @return The page.
+     */
+    static AttributeIndexPage leaf(Map<UUID, Long> entries) {
+        Preconditions.checkArgument(entries.size() <= MAX_ENTRY_COUNT, "Too many entries.");
+        return new AttributeIndexPage(Collections.unmodifiableSortedMap(new TreeMap<>(entries)), null);
+    }
+
+    /**
+     * Creates a new Index Page.
+     *
+     * @param children Pointers to the child pages, sorted by their keys.
+     * @return The page.
+     */
+    static AttributeIndexPage index(List<PagePointer> children) {
+        Preconditions.checkArgument(children.size() > 0 && children.size() <= MAX_ENTRY_COUNT, "Invalid number of children.");
+        return new AttributeIndexPage(null, Collections.unmodifiableList(new ArrayList<>(children)));
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets a value indicating whether this is a Leaf Page.
+     */
+    boolean isLeaf() {
+        return this.entries != null;
+    }
+
+    /**
+     * Gets a read-only view of the entries in this Leaf Page.
+     */
+    SortedMap<UUID, Long> getEntries() {
+        Preconditions.checkState(isLeaf(), "Not a leaf page.");
+        return this.entries;
+    }
+
+    /**
+     * Gets a read-only view of the child pointers in this Index Page.
+     */
+    List<PagePointer> getChildren() {
+        Preconditions.checkState(!isLeaf(), "Not an index page.");
+        return this.children;
+    }
+
+    /**
+     * Locates the child of this Index Page that may contain the given Attribute Id.
+     *
+     * @param attributeId The Attribute Id to search for.
+     * @return The index (in getChildren()) of the child page.
+     */
+    int getChildIndex(UUID attributeId) {
+        Preconditions.checkState(!isLeaf(), "Not an index page.");
+
+        // Find the last child whose key is less than or equal to the given one. Anything smaller than the first key
+        // belongs to the first child.
+        int low = 0;
+        int high = this.children.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.children.get(mid).getKey().compareTo(attributeId) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return isLeaf()
+                ? String.format("Leaf: Count = %d", this.entries.size())
+                : String.format("Index: Count = %d", this.children.size());
+    }
+
+    //endregion
+
+    //region Serialization
+
+    /**
+     * Serializes this page.
+     *
+     * @return A byte array containing the serialization.
+     */
+    byte[] serialize() {
+        boolean leaf = isLeaf();
+        int count = leaf ? this.entries.size() : this.children.size();
+        byte[] result = new byte[HEADER_LENGTH + count * (leaf ? LEAF_ENTRY_LENGTH : INDEX_ENTRY_LENGTH) + TRAILER_LENGTH];
+        result[0] = CURRENT_VERSION;
+        result[1] = leaf ? FLAG_LEAF : 0;
+        int offset = 2;
+        offset += BitConverter.writeInt(result, offset, count);
+        if (leaf) {
+            for (Map.Entry<UUID, Long> e : this.entries.entrySet()) {
+                offset += writeKey(result, offset, e.getKey());
+                offset += BitConverter.writeLong(result, offset, e.getValue());
+            }
+        } else {
+            for (PagePointer p : this.children) {
+                offset += writeKey(result, offset, p.getKey());
+                offset += BitConverter.writeLong(result, offset, p.getOffset());
+                offset += BitConverter.writeInt(result, offset, p.getLength());
+            }
+        }
+
+        offset += seal(result, offset);
+        assert offset == result.length : "serialization length mismatch";
+        return result;
+    }
+
+    /**
+     * Deserializes a page.
+     *
+     * @param serialization A byte array containing the serialization.
+     * @return The page.
+     * @throws DataCorruptionException If the serialization is invalid.
+     */
+    static AttributeIndexPage deserialize(byte[] serialization) throws DataCorruptionException {
+        if (serialization.length < HEADER_LENGTH + TRAILER_LENGTH) {
+            throw new DataCorruptionException("Invalid Attribute Index page header.");
+        }
+
+        checkSeal(serialization, serialization.length - TRAILER_LENGTH, "Attribute Index page");
+        if (serialization[0] != CURRENT_VERSION || (serialization[1] & ~FLAG_LEAF) != 0) {
+            throw new DataCorruptionException(String.format("Unsupported Attribute Index page version (%d) or flags (%d).",
+                    serialization[0], serialization[1]));
+        }
+
+        boolean leaf = (serialization[1] & FLAG_LEAF) == FLAG_LEAF;
+        int count = BitConverter.readInt(serialization, 2);
+        int expectedLength = HEADER_LENGTH + count * (leaf ? LEAF_ENTRY_LENGTH : INDEX_ENTRY_LENGTH) + TRAILER_LENGTH;
+        if (count < 0 || count > MAX_ENTRY_COUNT || serialization.length != expectedLength) {
+            throw new DataCorruptionException(String.format("Invalid Attribute Index page length. Expected %d, actual %d.",
+                    expectedLength, serialization.length));
+        }
+
+        int offset = HEADER_LENGTH;
+        if (leaf) {
+            TreeMap<UUID, Long> entries = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                entries.put(readKey(serialization, offset), BitConverter.readLong(serialization, offset + KEY_LENGTH));
+                offset += LEAF_ENTRY_LENGTH;
+            }
+
+            return new AttributeIndexPage(Collections.unmodifiableSortedMap(entries), null);
+        } else {
+            List<PagePointer> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                children.add(new PagePointer(readKey(serialization, offset),
+                        BitConverter.readLong(serialization, offset + KEY_LENGTH),
+                        BitConverter.readInt(serialization, offset + KEY_LENGTH + Long.BYTES)));
+                offset += INDEX_ENTRY_LENGTH;
+            }
+
+            return new AttributeIndexPage(null, Collections.unmodifiableList(children));
+        }
+    }
+
+    /**
+     * Writes a trailer (Magic and a CRC32 of target[0, offset)) at the given offset in the given array.
+     *
+     * @param target The array to write to. Must have at least TRAILER_LENGTH bytes after offset.
+     * @param offset The offset at which to write the trailer. Everything before it is included in the checksum.
+     * @return The number of bytes written.
+     */
+    static int seal(byte[] target, int offset) {
+        BitConverter.writeInt(target, offset, MAGIC);
+        BitConverter.writeInt(target, offset + Integer.BYTES, checksum(target, 0, offset));
+        return TRAILER_LENGTH;
+    }
+
+    /**
+     * Validates a trailer written by seal().
+     *
+     * @param source      The array to validate.
+     * @param offset      The offset of the trailer within the array.
+     * @param description A description of what is being validated, for the exception message.
+     * @throws DataCorruptionException If the Magic or the checksum do not match.
+     */
+    static void checkSeal(byte[] source, int offset, String description) throws DataCorruptionException {
+        int magic = BitConverter.readInt(source, offset);
+        if (magic != MAGIC) {
+            throw new DataCorruptionException(String.format("Invalid %s magic. Expected %d, actual %d.", description, MAGIC, magic));
+        }
+
+        int expectedChecksum = BitConverter.readInt(source, offset + Integer.BYTES);
+        int actualChecksum = checksum(source, 0, offset);
+        if (expectedChecksum != actualChecksum) {
+            throw new DataCorruptionException(String.format("Invalid %s checksum. Expected %d, actual %d.",
+                    description, expectedChecksum, actualChecksum));
+        }
+    }
+
+    /**
+     * Determines whether source[start, offset) is followed by a valid trailer (as written by seal()) at the given offset.
+     *
+     * @param source The array to validate.
+     * @param start  The offset within the array where the sealed data begins.
+     * @param offset The offset of the trailer within the array.
+     * @return True if the Magic and the checksum match, false otherwise.
+     */
+    static boolean isSealed(byte[] source, int start, int offset) {
+        return BitConverter.readInt(source, offset) == MAGIC
+                && BitConverter.readInt(source, offset + Integer.BYTES) == checksum(source, start, offset - start);
+    }
+
+    private static int checksum(byte[] source, int start, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(source, start, length);
+        return (int) crc.getValue();
+    }
+
+    private static int writeKey(byte[] target, int offset, UUID key) {
+        BitConverter.writeLong(target, offset, key.getMostSignificantBits());
+        BitConverter.writeLong(target, offset + Long.BYTES, key.getLeastSignificantBits());
+        return KEY_LENGTH;
+    }
+
+    private static UUID readKey(byte[] source, int offset) {
+        return new UUID(BitConverter.readLong(source, offset), BitConverter.readLong(source, offset + Long.BYTES));
+    }
+
+    //endregion
+
+    //region PagePointer
+
+    /**
+     * Points to a page in the Attribute Segment.
+     */
+    @Data
+    static class PagePointer {
+        /**
+         * The smallest Attribute Id in the page.
+         */
+        private final UUID key;
+        /**
+         * The offset of the page within the Attribute Segment.
+         */
+        private final long offset;
+        /**
+         * The length of the page's serialization.
+         */
+        private final int length;
+    }
+
+    //endregion
+}
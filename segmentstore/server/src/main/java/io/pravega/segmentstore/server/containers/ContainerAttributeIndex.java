@@ -0,0 +1,733 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.TimeoutTimer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.containers.AttributeIndexPage.PagePointer;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists Segment Attributes that are not kept in memory (in the Segment's metadata) in a per-Segment Attribute Index.
+ * <p>
+ * Each Segment's Attribute Index is stored in its own Attribute Segment (see StreamSegmentNameUtils.getAttributeSegmentName)
+ * as an append-only, copy-on-write B+Tree made of AttributeIndexPages. Every update appends the modified pages (and
+ * all their ancestors, up to the root), followed by a footer that points to the new root. Pages that are no longer
+ * referenced become garbage; when the Storage supports truncation, the index is periodically rewritten at the end of
+ * the Attribute Segment and everything before it is truncated away.
+ * <p>
+ * Footer format: Root Page Offset (8 bytes, -1 if the index is empty), Root Page Length (4 bytes), Live Bytes (8 bytes;
+ * the total length of all pages reachable from the root), Compaction Offset (8 bytes; the offset where the last full
+ * rewrite of the index began - there is no garbage before it, since it has been truncated away), followed by the same
+ * Magic and CRC32 trailer that is used for pages (see AttributeIndexPage). Both pages and footers are validated when read.
+ * An append that failed midway may leave a partial update after the last footer; such data is ignored (the index is loaded
+ * from the last valid footer) and subsequent updates are appended after it.
+ * <p>
+ * All operations for the same Segment are executed sequentially, in the order in which they were invoked. Operations
+ * for different Segments may execute concurrently.
+ */
+@Slf4j
+@ThreadSafe
+class ContainerAttributeIndex {
+    //region Members
+
+    private static final int FOOTER_DATA_LENGTH = Long.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+    private static final int FOOTER_LENGTH = FOOTER_DATA_LENGTH + AttributeIndexPage.TRAILER_LENGTH;
+    private static final int FOOTER_SCAN_READ_LENGTH = 64 * 1024;
+    private static final long NO_ROOT = -1;
+    private static final SegmentRollingPolicy ROLLING_POLICY = new SegmentRollingPolicy(4 * 1024 * 1024);
+    private static final long MIN_COMPACTION_LENGTH = 1024 * 1024;
+    private static final int COMPACTION_RATIO = 4;
+
+    private final String traceObjectId;
+    private final Storage storage;
+    private final Executor executor;
+    private final ConcurrentHashMap<String, SegmentIndex> segments;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ContainerAttributeIndex class.
+     *
+     * @param containerId The Id of the SegmentContainer this belongs to.
+     * @param storage     The Storage to use.
+     * @param executor    The Executor to use for asynchronous operations.
+     */
+    ContainerAttributeIndex(int containerId, Storage storage, Executor executor) {
+        this.traceObjectId = String.format("AttributeIndex[%d]", containerId);
+        this.storage = Preconditions.checkNotNull(storage, "storage");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.segments = new ConcurrentHashMap<>();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets the values of the given Attributes from the given Segment's Attribute Index.
+     *
+     * @param segmentName  The name of the Segment.
+     * @param attributeIds The Ids of the Attributes to fetch.
+     * @param timeout      Timeout for the operation.
+     * @return A CompletableFuture that, when completed, will contain a Map of Attribute Ids to their values. Only those
+     * Attributes that have a value in the index will be included.
+     */
+    CompletableFuture<Map<UUID, Long>> get(String segmentName, Collection<UUID> attributeIds, Duration timeout) {
+        if (attributeIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+
+        SortedSet<UUID> keys = new TreeSet<>(attributeIds);
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        SegmentIndex index = getSegmentIndex(segmentName);
+        return index.runSequentially(() -> index
+                .loadState(timer)
+                .thenCompose(state -> {
+                    if (state.root == null) {
+                        return CompletableFuture.completedFuture(Collections.emptyMap());
+                    }
+
+                    return index.loadPages(state.root, keys, timer)
+                                .thenApply(root -> {
+                                    Map<UUID, Long> result = new HashMap<>();
+                                    root.collectValues(result);
+                                    return result;
+                                });
+                }));
+    }
+
+    /**
+     * Updates the given Segment's Attribute Index with the given values.
+     *
+     * @param segmentName     The name of the Segment.
+     * @param attributeValues A Map of Attribute Ids to their new values. Attributes mapped to NULL_ATTRIBUTE_VALUE will
+     *                        be removed from the index.
+     * @param timeout         Timeout for the operation.
+     * @return A CompletableFuture that will be completed when the update has been durably persisted.
+     */
+    CompletableFuture<Void> put(String segmentName, Map<UUID, Long> attributeValues, Duration timeout) {
+        if (attributeValues.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        SortedMap<UUID, Long> updates = new TreeMap<>(attributeValues);
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        SegmentIndex index = getSegmentIndex(segmentName);
+        return index.runSequentially(() -> index
+                .loadState(timer)
+                .thenCompose(state -> {
+                    if (state.root == null) {
+                        return index.write(state, null, updates, timer);
+                    }
+
+                    return index.loadPages(state.root, new TreeSet<>(updates.keySet()), timer)
+                                .thenCompose(root -> index.write(state, root, updates, timer));
+                })
+                .thenCompose(v -> index.compactIfNecessary(timer)));
+    }
+
+    /**
+     * Deletes the given Segment's Attribute Index.
+     *
+     * @param segmentName The name of the Segment.
+     * @param timeout     Timeout for the operation.
+     * @return A CompletableFuture that will be completed when the operation is done.
+     */
+    CompletableFuture<Void> remove(String segmentName, Duration timeout) {
+        SegmentIndex index = getSegmentIndex(segmentName);
+        return index.runSequentially(() -> index.delete(timeout));
+    }
+
+    /**
+     * Discards any in-memory state for the given Segments, provided they have no operations in progress. This should be
+     * invoked after the given Segments have been evicted from the Container Metadata.
+     *
+     * @param segmentNames The names of the Segments.
+     */
+    void cleanup(Collection<String> segmentNames) {
+        segmentNames.forEach(name -> this.segments.computeIfPresent(name, (n, index) -> index.isIdle() ? null : index));
+    }
+
+    private SegmentIndex getSegmentIndex(String segmentName) {
+        return this.segments.computeIfAbsent(segmentName, SegmentIndex::new);
+    }
+
+    //endregion
+
+    //region SegmentIndex
+
+    /**
+     * The Attribute Index for a single Segment. Except for runSequentially() and isIdle(), all methods in this class are
+     * only invoked from within operations that have been sequenced via runSequentially().
+     */
+    private class SegmentIndex {
+        private final String attributeSegmentName;
+        /**
+         * Cached Index Pages, by their offset. Pages are never modified once written, so these remain valid until the
+         * Attribute Segment is truncated or deleted.
+         */
+        private final ConcurrentHashMap<Long, AttributeIndexPage> indexPageCache;
+        @GuardedBy("this")
+        private CompletableFuture<Void> lastOperation;
+        private volatile IndexState state;
+        private volatile SegmentHandle handle;
+
+        SegmentIndex(String segmentName) {
+            this.attributeSegmentName = StreamSegmentNameUtils.getAttributeSegmentName(segmentName);
+            this.indexPageCache = new ConcurrentHashMap<>();
+            this.lastOperation = CompletableFuture.completedFuture(null);
+        }
+
+        //region Sequencing
+
+        /**
+         * Executes the given task after all previously sequenced tasks have completed (successfully or not).
+         */
+        <T> CompletableFuture<T> runSequentially(Supplier<CompletableFuture<T>> toRun) {
+            CompletableFuture<T> result;
+            synchronized (this) {
+                result = this.lastOperation
+                        .thenComposeAsync(v -> toRun.get(), executor)
+                        .whenComplete((r, ex) -> {
+                            if (ex != null) {
+                                // We do not know what state the Attribute Segment is in. Reload everything next time.
+                                log.warn("{}: Operation failed for '{}'.", traceObjectId, this.attributeSegmentName, ex);
+                                invalidate();
+                            }
+                        });
+                this.lastOperation = result.handle((r, ex) -> null);
+            }
+
+            return result;
+        }
+
+        synchronized boolean isIdle() {
+            return this.lastOperation.isDone();
+        }
+
+        private void invalidate() {
+            this.state = null;
+            this.handle = null;
+            this.indexPageCache.clear();
+        }
+
+        //endregion
+
+        //region Reading
+
+        /**
+         * Loads the current IndexState from the last valid footer of the Attribute Segment, if not already loaded.
+         */
+        CompletableFuture<IndexState> loadState(TimeoutTimer timer) {
+            IndexState state = this.state;
+            if (state != null) {
+                return CompletableFuture.completedFuture(state);
+            }
+
+            return storage
+                    .getStreamSegmentInfo(this.attributeSegmentName, timer.getRemaining())
+                    .thenCompose(sp -> {
+                        if (sp.getLength() == 0) {
+                            // Created but nothing written yet.
+                            return CompletableFuture.completedFuture(new IndexState(true, 0, 0, null, 0));
+                        } else if (sp.getLength() < FOOTER_LENGTH) {
+                            throw new CompletionException(new DataCorruptionException(String.format(
+                                    "Attribute Segment '%s' is too short (Length = %d).", this.attributeSegmentName, sp.getLength())));
+                        }
+
+                        // The footer is normally at the very end; only scan further back if it is not.
+                        return findFooter(sp, sp.getLength(), FOOTER_LENGTH, timer);
+                    })
+                    .exceptionally(ex -> {
+                        if (Exceptions.unwrap(ex) instanceof StreamSegmentNotExistsException) {
+                            // No index for this Segment yet.
+                            return new IndexState(false, 0, 0, null, 0);
+                        }
+
+                        throw new CompletionException(Exceptions.unwrap(ex));
+                    })
+                    .thenApply(s -> {
+                        this.state = s;
+                        return s;
+                    });
+        }
+
+        /**
+         * Searches the Attribute Segment backwards, starting at searchEnd, for the last valid footer and creates an
+         * IndexState from it. Any data after that footer is the remainder of a failed append and will be ignored; the
+         * IndexState's length is the length of the Attribute Segment so that new updates are appended after it.
+         */
+        private CompletableFuture<IndexState> findFooter(SegmentProperties sp, long searchEnd, int readLength, TimeoutTimer timer) {
+            long segmentLength = sp.getLength();
+            long readOffset = Math.max(sp.getStartOffset(), searchEnd - readLength);
+            return read(readOffset, (int) (searchEnd - readOffset), timer)
+                    .thenCompose(data -> {
+                        for (int footerOffset = data.length - FOOTER_LENGTH; footerOffset >= 0; footerOffset--) {
+                            IndexState state = parseFooter(data, footerOffset, readOffset + footerOffset, segmentLength);
+                            if (state != null) {
+                                long garbage = segmentLength - readOffset - footerOffset - FOOTER_LENGTH;
+                                if (garbage > 0) {
+                                    log.warn("{}: Ignoring {} bytes after the last valid footer of '{}' (Length = {}).",
+                                            traceObjectId, garbage, this.attributeSegmentName, segmentLength);
+                                }
+
+                                return CompletableFuture.completedFuture(state);
+                            }
+                        }
+
+                        if (readOffset == sp.getStartOffset()) {
+                            throw new CompletionException(new DataCorruptionException(String.format(
+                                    "Attribute Segment '%s' does not contain a valid Attribute Index footer (Length = %d).",
+                                    this.attributeSegmentName, segmentLength)));
+                        }
+
+                        // The next read overlaps this one so that footers straddling the two are not missed.
+                        return findFooter(sp, readOffset + FOOTER_LENGTH - 1, FOOTER_SCAN_READ_LENGTH, timer);
+                    });
+        }
+
+        /**
+         * Creates an IndexState from the footer at the given position in data, or returns null if there is no valid
+         * footer there.
+         */
+        private IndexState parseFooter(byte[] data, int position, long footerOffset, long segmentLength) {
+            if (!AttributeIndexPage.isSealed(data, position, position + FOOTER_DATA_LENGTH)) {
+                return null;
+            }
+
+            long rootOffset = BitConverter.readLong(data, position);
+            int rootLength = BitConverter.readInt(data, position + Long.BYTES);
+            long liveBytes = BitConverter.readLong(data, position + Long.BYTES + Integer.BYTES);
+            long compactionOffset = BitConverter.readLong(data, position + 2 * Long.BYTES + Integer.BYTES);
+            boolean validRoot = rootOffset == NO_ROOT || (rootOffset >= 0 && rootLength > 0 && rootOffset + rootLength <= footerOffset);
+            if (!validRoot || liveBytes < 0 || compactionOffset < 0 || compactionOffset > footerOffset) {
+                return null;
+            }
+
+            PagePointer root = rootOffset == NO_ROOT ? null : new PagePointer(null, rootOffset, rootLength);
+            return new IndexState(true, compactionOffset, segmentLength, root, liveBytes);
+        }
+
+        /**
+         * Loads the pages that may contain the given keys, starting from the given page.
+         */
+        CompletableFuture<PageNode> loadPages(PagePointer pointer, SortedSet<UUID> keys, TimeoutTimer timer) {
+            return getPage(pointer, timer)
+                    .thenCompose(page -> {
+                        PageNode node = new PageNode(pointer, page, keys);
+                        if (page.isLeaf()) {
+                            return CompletableFuture.completedFuture(node);
+                        }
+
+                        // Group the keys by the child page that may contain them and load those pages in parallel.
+                        Map<Integer, SortedSet<UUID>> childKeys = new HashMap<>();
+                        keys.forEach(key -> childKeys.computeIfAbsent(page.getChildIndex(key), i -> new TreeSet<>()).add(key));
+                        Map<Integer, CompletableFuture<PageNode>> childFutures = new HashMap<>();
+                        childKeys.forEach((i, k) -> childFutures.put(i, loadPages(page.getChildren().get(i), k, timer)));
+                        return Futures.allOfWithResults(childFutures)
+                                      .thenApply(children -> {
+                                          node.children.putAll(children);
+                                          return node;
+                                      });
+                    });
+        }
+
+        private CompletableFuture<AttributeIndexPage> getPage(PagePointer pointer, TimeoutTimer timer) {
+            AttributeIndexPage page = this.indexPageCache.get(pointer.getOffset());
+            if (page != null) {
+                return CompletableFuture.completedFuture(page);
+            }
+
+            return read(pointer.getOffset(), pointer.getLength(), timer)
+                    .thenApply(data -> {
+                        AttributeIndexPage result;
+                        try {
+                            result = AttributeIndexPage.deserialize(data);
+                        } catch (DataCorruptionException ex) {
+                            throw new CompletionException(ex);
+                        }
+
+                        if (!result.isLeaf()) {
+                            // Index pages are few and frequently accessed; leaf pages are not worth keeping in memory.
+                            this.indexPageCache.put(pointer.getOffset(), result);
+                        }
+
+                        return result;
+                    });
+        }
+
+        private CompletableFuture<byte[]> read(long offset, int length, TimeoutTimer timer) {
+            byte[] buffer = new byte[length];
+            return getHandle()
+                    .thenComposeAsync(h -> storage.read(h, offset, buffer, 0, length, timer.getRemaining()), executor)
+                    .thenApply(bytesRead -> {
+                        if (bytesRead != length) {
+                            throw new CompletionException(new DataCorruptionException(String.format(
+                                    "Unable to read from Attribute Segment '%s' (Offset = %d). Expected %d bytes, read %d.",
+                                    this.attributeSegmentName, offset, length, bytesRead)));
+                        }
+
+                        return buffer;
+                    });
+        }
+
+        private CompletableFuture<SegmentHandle> getHandle() {
+            SegmentHandle handle = this.handle;
+            if (handle != null) {
+                return CompletableFuture.completedFuture(handle);
+            }
+
+            return storage.openWrite(this.attributeSegmentName)
+                          .thenApply(h -> {
+                              this.handle = h;
+                              return h;
+                          });
+        }
+
+        //endregion
+
+        //region Writing
+
+        /**
+         * Applies the given updates to the given (loaded) tree and writes the modified pages, followed by a new footer,
+         * to the Attribute Segment.
+         */
+        CompletableFuture<Void> write(IndexState state, PageNode root, SortedMap<UUID, Long> updates, TimeoutTimer timer) {
+            PageWriter writer = new PageWriter(state.length);
+            List<PagePointer> level;
+            if (root == null) {
+                TreeMap<UUID, Long> entries = new TreeMap<>();
+                updates.forEach((key, value) -> {
+                    if (value != SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                        entries.put(key, value);
+                    }
+                });
+
+                level = writer.writeLeafPages(entries);
+            } else {
+                level = root.update(updates, writer);
+                if (level.size() == 1 && level.get(0) == root.pointer) {
+                    // Nothing changed.
+                    return CompletableFuture.completedFuture(null);
+                }
+            }
+
+            if (level.isEmpty() && state.root == null) {
+                // Nothing was and nothing is to be stored.
+                return CompletableFuture.completedFuture(null);
+            }
+
+            while (level.size() > 1) {
+                level = writer.writeIndexPages(level);
+            }
+
+            PagePointer newRoot = level.isEmpty() ? null : level.get(0);
+            long liveBytes = state.liveBytes - writer.releasedBytes + writer.getWrittenBytes();
+            return append(state, writer, newRoot, liveBytes, state.compactionOffset, timer)
+                    .thenRun(() -> this.state = new IndexState(true, state.compactionOffset, writer.getEndOffset(), newRoot, liveBytes));
+        }
+
+        /**
+         * Rewrites the entire index at the end of the Attribute Segment and truncates everything before it, if the
+         * Attribute Segment contains significantly more garbage than live data.
+         */
+        CompletableFuture<Void> compactIfNecessary(TimeoutTimer timer) {
+            IndexState state = this.state;
+            long length = state.length - state.compactionOffset;
+            if (!storage.supportsTruncation() || length < MIN_COMPACTION_LENGTH || length < COMPACTION_RATIO * state.liveBytes) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            log.debug("{}: Compacting '{}' (Length = {}, LiveBytes = {}).", traceObjectId, this.attributeSegmentName, length, state.liveBytes);
+            TreeMap<UUID, Long> entries = new TreeMap<>();
+            return collectEntries(state.root, entries, timer)
+                    .thenCompose(v -> {
+                        PageWriter writer = new PageWriter(state.length);
+                        List<PagePointer> level = writer.writeLeafPages(entries);
+                        while (level.size() > 1) {
+                            level = writer.writeIndexPages(level);
+                        }
+
+                        PagePointer newRoot = level.isEmpty() ? null : level.get(0);
+                        return append(state, writer, newRoot, writer.getWrittenBytes(), state.length, timer)
+                                .thenCompose(v2 -> storage.truncate(this.handle, state.length, timer.getRemaining()))
+                                .thenRun(() -> {
+                                    // The old pages are gone.
+                                    this.indexPageCache.clear();
+                                    this.state = new IndexState(true, state.length, writer.getEndOffset(), newRoot, writer.getWrittenBytes());
+                                });
+                    });
+        }
+
+        private CompletableFuture<Void> collectEntries(PagePointer pointer, Map<UUID, Long> target, TimeoutTimer timer) {
+            if (pointer == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return getPage(pointer, timer)
+                    .thenCompose(page -> {
+                        if (page.isLeaf()) {
+                            synchronized (target) {
+                                target.putAll(page.getEntries());
+                            }
+
+                            return CompletableFuture.completedFuture(null);
+                        }
+
+                        List<CompletableFuture<Void>> futures = new ArrayList<>();
+                        page.getChildren().forEach(child -> futures.add(collectEntries(child, target, timer)));
+                        return Futures.allOf(futures);
+                    });
+        }
+
+        private CompletableFuture<Void> append(IndexState state, PageWriter writer, PagePointer newRoot, long liveBytes,
+                                               long compactionOffset, TimeoutTimer timer) {
+            ByteArraySegment data = writer.close(newRoot, liveBytes, compactionOffset);
+            CompletableFuture<Void> create = state.exists
+                    ? CompletableFuture.completedFuture(null)
+                    : Futures.toVoid(storage.create(this.attributeSegmentName, ROLLING_POLICY, timer.getRemaining()));
+            return create
+                    .thenComposeAsync(v -> getHandle(), executor)
+                    .thenComposeAsync(h -> storage.write(h, state.length, data.getReader(), data.getLength(), timer.getRemaining()), executor);
+        }
+
+        //endregion
+
+        /**
+         * Deletes the Attribute Segment, if it exists.
+         */
+        CompletableFuture<Void> delete(Duration timeout) {
+            invalidate();
+            return storage
+                    .openWrite(this.attributeSegmentName)
+                    .thenComposeAsync(h -> storage.delete(h, timeout), executor)
+                    .exceptionally(ex -> {
+                        if (Exceptions.unwrap(ex) instanceof StreamSegmentNotExistsException) {
+                            // It's OK if the Attribute Segment does not exist.
+                            return null;
+                        }
+
+                        throw new CompletionException(Exceptions.unwrap(ex));
+                    })
+                    .thenRun(() -> this.state = new IndexState(false, 0, 0, null, 0));
+        }
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * The state of a Segment's Attribute Index, as described by the last footer in the Attribute Segment.
+     */
+    @RequiredArgsConstructor
+    private static class IndexState {
+        private final boolean exists;
+        private final long compactionOffset;
+        private final long length;
+        private final PagePointer root;
+        private final long liveBytes;
+    }
+
+    /**
+     * An AttributeIndexPage that has been loaded in order to look up or update a set of keys, along with those of its
+     * children that may contain any of these keys.
+     */
+    @RequiredArgsConstructor
+    private static class PageNode {
+        private final PagePointer pointer;
+        private final AttributeIndexPage page;
+        private final SortedSet<UUID> keys;
+        private final Map<Integer, PageNode> children = new HashMap<>();
+
+        /**
+         * Collects the values for this node's keys that exist in the index.
+         */
+        void collectValues(Map<UUID, Long> target) {
+            if (this.page.isLeaf()) {
+                this.keys.forEach(key -> {
+                    Long value = this.page.getEntries().get(key);
+                    if (value != null) {
+                        target.put(key, value);
+                    }
+                });
+            } else {
+                this.children.values().forEach(child -> child.collectValues(target));
+            }
+        }
+
+        /**
+         * Applies the given updates to this page (and its loaded children) and writes out the modified pages.
+         *
+         * @return A List of PagePointers that replace this page in its parent. This is this node's pointer if nothing
+         * changed, empty if the page became empty, or contains multiple pointers if the page had to be split.
+         */
+        List<PagePointer> update(SortedMap<UUID, Long> updates, PageWriter writer) {
+            boolean changed = false;
+            if (this.page.isLeaf()) {
+                TreeMap<UUID, Long> entries = new TreeMap<>(this.page.getEntries());
+                for (UUID key : this.keys) {
+                    long value = updates.get(key);
+                    Long oldValue = value == SegmentMetadata.NULL_ATTRIBUTE_VALUE ? entries.remove(key) : entries.put(key, value);
+                    changed |= value == SegmentMetadata.NULL_ATTRIBUTE_VALUE ? oldValue != null : oldValue == null || oldValue != value;
+                }
+
+                if (!changed) {
+                    return Collections.singletonList(this.pointer);
+                }
+
+                writer.release(this.pointer);
+                return writer.writeLeafPages(entries);
+            } else {
+                List<PagePointer> children = new ArrayList<>();
+                for (int i = 0; i < this.page.getChildren().size(); i++) {
+                    PageNode child = this.children.get(i);
+                    if (child == null) {
+                        children.add(this.page.getChildren().get(i));
+                    } else {
+                        List<PagePointer> newChildren = child.update(updates, writer);
+                        changed |= newChildren.size() != 1 || newChildren.get(0) != child.pointer;
+                        children.addAll(newChildren);
+                    }
+                }
+
+                if (!changed) {
+                    return Collections.singletonList(this.pointer);
+                }
+
+                writer.release(this.pointer);
+                return writer.writeIndexPages(children);
+            }
+        }
+    }
+
+    /**
+     * Serializes pages (and the footer) into a single buffer that is to be appended to the Attribute Segment at a known
+     * offset.
+     */
+    private static class PageWriter {
+        private final long baseOffset;
+        private final EnhancedByteArrayOutputStream output;
+        private long releasedBytes;
+
+        PageWriter(long baseOffset) {
+            this.baseOffset = baseOffset;
+            this.output = new EnhancedByteArrayOutputStream();
+        }
+
+        long getWrittenBytes() {
+            return this.output.size();
+        }
+
+        long getEndOffset() {
+            return this.baseOffset + this.output.size();
+        }
+
+        /**
+         * Records that the given page is no longer reachable from the root.
+         */
+        void release(PagePointer pointer) {
+            this.releasedBytes += pointer.getLength();
+        }
+
+        List<PagePointer> writeLeafPages(SortedMap<UUID, Long> entries) {
+            List<PagePointer> result = new ArrayList<>();
+            List<Map.Entry<UUID, Long>> all = new ArrayList<>(entries.entrySet());
+            for (List<Map.Entry<UUID, Long>> chunk : split(all)) {
+                TreeMap<UUID, Long> pageEntries = new TreeMap<>();
+                chunk.forEach(e -> pageEntries.put(e.getKey(), e.getValue()));
+                result.add(write(AttributeIndexPage.leaf(pageEntries), pageEntries.firstKey()));
+            }
+
+            return result;
+        }
+
+        List<PagePointer> writeIndexPages(List<PagePointer> children) {
+            List<PagePointer> result = new ArrayList<>();
+            for (List<PagePointer> chunk : split(children)) {
+                result.add(write(AttributeIndexPage.index(chunk), chunk.get(0).getKey()));
+            }
+
+            return result;
+        }
+
+        ByteArraySegment close(PagePointer root, long liveBytes, long compactionOffset) {
+            byte[] footer = new byte[FOOTER_LENGTH];
+            BitConverter.writeLong(footer, 0, root == null ? NO_ROOT : root.getOffset());
+            BitConverter.writeInt(footer, Long.BYTES, root == null ? 0 : root.getLength());
+            BitConverter.writeLong(footer, Long.BYTES + Integer.BYTES, liveBytes);
+            BitConverter.writeLong(footer, 2 * Long.BYTES + Integer.BYTES, compactionOffset);
+            AttributeIndexPage.seal(footer, FOOTER_DATA_LENGTH);
+            this.output.write(footer);
+            return this.output.getData();
+        }
+
+        private PagePointer write(AttributeIndexPage page, UUID key) {
+            byte[] data = page.serialize();
+            PagePointer result = new PagePointer(key, getEndOffset(), data.length);
+            this.output.write(data);
+            return result;
+        }
+
+        /**
+         * Splits the given list into the smallest number of evenly sized chunks that do not exceed the maximum page size.
+         */
+        private static <T> List<List<T>> split(List<T> items) {
+            int chunkCount = (items.size() + AttributeIndexPage.MAX_ENTRY_COUNT - 1) / AttributeIndexPage.MAX_ENTRY_COUNT;
+            List<List<T>> result = new ArrayList<>(chunkCount);
+            int start = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                int end = start + (items.size() - start) / (chunkCount - i);
+                result.add(items.subList(start, end));
+                start = end;
+            }
+
+            return result;
+        }
+    }
+
+    //endregion
+}
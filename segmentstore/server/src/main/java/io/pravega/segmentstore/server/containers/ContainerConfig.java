@@ -13,6 +13,7 @@ import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
+import io.pravega.segmentstore.server.SegmentMetadata;
 import java.time.Duration;
 
 import lombok.Getter;
@@ -28,6 +29,7 @@ public class ContainerConfig {
             5 * MINIMUM_SEGMENT_METADATA_EXPIRATION_SECONDS);
     public static final Property<Integer> MAX_ACTIVE_SEGMENT_COUNT = Property.named("maxActiveSegmentCount", 10000);
     public static final Property<Integer> MAX_CONCURRENT_SEGMENT_EVICTION_COUNT = Property.named("maxConcurrentSegmentEvictionCount", 250);
+    public static final Property<Integer> MAX_ACTIVE_ATTRIBUTE_COUNT = Property.named("maxActiveAttributeCount", 256);
     private static final String COMPONENT_CODE = "containers";
 
     /**
@@ -48,6 +50,13 @@ public class ContainerConfig {
     @Getter
     private int maxConcurrentSegmentEvictionCount;
 
+    /**
+     * The number of dynamic Attributes that a Segment can have in memory before the least recently used ones are evicted
+     * to the Segment's Attribute Index.
+     */
+    @Getter
+    private int maxActiveAttributeCount;
+
     //endregion
 
     //region Constructor
@@ -74,6 +83,12 @@ public class ContainerConfig {
         if (this.maxConcurrentSegmentEvictionCount <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_CONCURRENT_SEGMENT_EVICTION_COUNT));
         }
+
+        this.maxActiveAttributeCount = properties.getInt(MAX_ACTIVE_ATTRIBUTE_COUNT);
+        if (this.maxActiveAttributeCount <= 0 || this.maxActiveAttributeCount >= SegmentMetadata.MAXIMUM_ATTRIBUTE_COUNT) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer less than %d.",
+                    MAX_ACTIVE_ATTRIBUTE_COUNT, SegmentMetadata.MAXIMUM_ATTRIBUTE_COUNT));
+        }
     }
 
     /**
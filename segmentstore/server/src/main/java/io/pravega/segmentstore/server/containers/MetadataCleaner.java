@@ -19,6 +19,9 @@ import io.pravega.segmentstore.server.SegmentMetadata;
 import com.google.common.base.Preconditions;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
@@ -41,6 +44,7 @@ class MetadataCleaner extends AbstractThreadPoolService {
     private final ContainerConfig config;
     private final EvictableMetadata metadata;
     private final AsyncMap<String, SegmentState> stateStore;
+    private final ContainerAttributeIndex attributeIndex;
     private final Consumer<Collection<SegmentMetadata>> cleanupCallback;
     private final AtomicLong lastIterationSequenceNumber;
     private final CancellationToken stopToken;
@@ -58,21 +62,25 @@ class MetadataCleaner extends AbstractThreadPoolService {
      * @param config          Container Configuration to use.
      * @param metadata        An EvictableMetadata to operate on.
      * @param stateStore      SegmentStateStore to serialize SegmentState in.
+     * @param attributeIndex  ContainerAttributeIndex to evict dynamic Segment Attributes to.
      * @param cleanupCallback A callback to invoke every time cleanup happened.
      * @param traceObjectId   An identifier to use for logging purposes. This will be included at the beginning of all
      *                        log calls initiated by this Service.
      * @param executor        The Executor to use for async callbacks and operations.
      */
     MetadataCleaner(ContainerConfig config, EvictableMetadata metadata, AsyncMap<String, SegmentState> stateStore,
-                    Consumer<Collection<SegmentMetadata>> cleanupCallback, ScheduledExecutorService executor, String traceObjectId) {
+                    ContainerAttributeIndex attributeIndex, Consumer<Collection<SegmentMetadata>> cleanupCallback,
+                    ScheduledExecutorService executor, String traceObjectId) {
         super(traceObjectId, executor);
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(stateStore, "stateStore");
+        Preconditions.checkNotNull(attributeIndex, "attributeIndex");
         Preconditions.checkNotNull(cleanupCallback, "cleanupCallback");
 
         this.config = config;
         this.metadata = metadata;
         this.stateStore = stateStore;
+        this.attributeIndex = attributeIndex;
         this.cleanupCallback = cleanupCallback;
         this.lastIterationSequenceNumber = new AtomicLong(metadata.getOperationSequenceNumber());
         this.stopToken = new CancellationToken();
@@ -142,10 +150,13 @@ class MetadataCleaner extends AbstractThreadPoolService {
         Collection<SegmentMetadata> cleanupCandidates = this.metadata.getEvictionCandidates(lastSeqNo, this.config.getMaxConcurrentSegmentEvictionCount());
 
         // Serialize only those segments that are still alive (not deleted or merged - those will get removed anyway).
+        // The SegmentState only contains Attributes that have values, so any removals that have not yet made it into
+        // the Segment's Attribute Index need to be persisted there first.
         val cleanupTasks = cleanupCandidates
                 .stream()
                 .filter(sm -> !sm.isDeleted() || !sm.isMerged())
-                .map(sm -> this.stateStore.put(sm.getName(), new SegmentState(sm.getId(), sm), this.config.getSegmentMetadataExpiration()))
+                .map(sm -> persistAttributeRemovals(sm, lastSeqNo)
+                        .thenCompose(v -> this.stateStore.put(sm.getName(), new SegmentState(sm.getId(), sm), this.config.getSegmentMetadataExpiration())))
                 .collect(Collectors.toList());
 
         return Futures
@@ -154,7 +165,57 @@ class MetadataCleaner extends AbstractThreadPoolService {
                     Collection<SegmentMetadata> evictedSegments = this.metadata.cleanup(cleanupCandidates, lastSeqNo);
                     this.cleanupCallback.accept(evictedSegments);
                     LoggerHelpers.traceLeave(log, this.traceObjectId, "metadataCleanup", traceId, evictedSegments.size());
-                }, this.executor);
+                }, this.executor)
+                .thenComposeAsync(v -> evictAttributes(lastSeqNo), this.executor);
+    }
+
+    private CompletableFuture<Void> persistAttributeRemovals(SegmentMetadata segmentMetadata, long lastSeqNo) {
+        Map<UUID, Long> removals = new HashMap<>();
+        this.metadata.getEvictableAttributes(segmentMetadata.getId(), lastSeqNo).forEach((attributeId, value) -> {
+            if (value == SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                removals.put(attributeId, value);
+            }
+        });
+
+        return this.attributeIndex.put(segmentMetadata.getName(), removals, this.config.getSegmentMetadataExpiration());
+    }
+
+    /**
+     * Evicts those dynamic Attributes that have not been used since the last iteration from those Segments that have
+     * too many of them in memory. Each such Segment's evicted Attributes are first persisted in its Attribute Index.
+     */
+    private CompletableFuture<Void> evictAttributes(long lastSeqNo) {
+        Collection<SegmentMetadata> candidates = this.metadata.getAttributeEvictionCandidates(
+                this.config.getMaxActiveAttributeCount(), this.config.getMaxConcurrentSegmentEvictionCount());
+        val evictionTasks = candidates
+                .stream()
+                .map(sm -> evictAttributes(sm, lastSeqNo))
+                .collect(Collectors.toList());
+
+        return Futures
+                .allOfWithResults(evictionTasks)
+                .thenAccept(counts -> {
+                    int total = counts.stream().mapToInt(Integer::intValue).sum();
+                    if (total > 0) {
+                        log.info("{}: EvictedAttributes Count = {}, Segments = {}.", this.traceObjectId, total, counts.size());
+                    }
+                });
+    }
+
+    private CompletableFuture<Integer> evictAttributes(SegmentMetadata segmentMetadata, long lastSeqNo) {
+        Map<UUID, Long> toEvict = this.metadata.getEvictableAttributes(segmentMetadata.getId(), lastSeqNo);
+        if (toEvict.isEmpty() || segmentMetadata.isDeleted() || segmentMetadata.isMerged()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        return this.attributeIndex
+                .put(segmentMetadata.getName(), toEvict, this.config.getSegmentMetadataExpiration())
+                .thenApply(v -> this.metadata.cleanupAttributes(segmentMetadata.getId(), toEvict, lastSeqNo))
+                .exceptionally(ex -> {
+                    // Not a big deal; these Attributes will stay in memory and we will try again next time.
+                    log.warn("{}: Unable to evict Attributes for Segment '{}'.", this.traceObjectId, segmentMetadata.getName(), ex);
+                    return 0;
+                });
     }
 
     private CompletableFuture<Void> delay() {
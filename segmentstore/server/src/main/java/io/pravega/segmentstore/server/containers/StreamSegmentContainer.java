@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.containers;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractService;
 import com.google.common.util.concurrent.Service;
@@ -19,7 +20,9 @@ import io.pravega.common.TimeoutTimer;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.concurrent.Services;
 import io.pravega.common.util.AsyncMap;
+import io.pravega.common.util.BufferView;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
+import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
@@ -45,6 +48,8 @@ import io.pravega.segmentstore.storage.StorageFactory;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -71,6 +76,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     private final Writer writer;
     private final Storage storage;
     private final AsyncMap<String, SegmentState> stateStore;
+    private final ContainerAttributeIndex attributeIndex;
     private final StreamSegmentMapper segmentMapper;
     private final ScheduledExecutorService executor;
     private final MetadataCleaner metadataCleaner;
@@ -102,7 +108,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("SegmentContainer[%d]", streamSegmentContainerId);
-        this.storage = storageFactory.createStorageAdapter();
+        this.storage = storageFactory.createStorageAdapter(streamSegmentContainerId);
         this.metadata = new StreamSegmentContainerMetadata(streamSegmentContainerId, config.getMaxActiveSegmentCount());
         this.readIndex = readIndexFactory.createReadIndex(this.metadata, this.storage);
         this.executor = executor;
@@ -111,8 +117,9 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         this.writer = writerFactory.createWriter(this.metadata, this.durableLog, this.readIndex, this.storage);
         shutdownWhenStopped(this.writer, "Writer");
         this.stateStore = new SegmentStateStore(this.storage, this.executor);
-        this.metadataCleaner = new MetadataCleaner(config, this.metadata, this.stateStore, this::notifyMetadataRemoved,
-                this.executor, this.traceObjectId);
+        this.attributeIndex = new ContainerAttributeIndex(streamSegmentContainerId, this.storage, this.executor);
+        this.metadataCleaner = new MetadataCleaner(config, this.metadata, this.stateStore, this.attributeIndex,
+                this::notifyMetadataRemoved, this.executor, this.traceObjectId);
         shutdownWhenStopped(this.metadataCleaner, "MetadataCleaner");
         this.segmentMapper = new StreamSegmentMapper(this.metadata, this.durableLog, this.stateStore, this.metadataCleaner::runOnce,
                 this.storage, this.executor);
@@ -274,31 +281,33 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     //region StreamSegmentStore Implementation
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+    public CompletableFuture<Void> append(String streamSegmentName, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         ensureRunning();
 
         TimeoutTimer timer = new TimeoutTimer(timeout);
-        logRequest("append", streamSegmentName, data.length);
+        logRequest("append", streamSegmentName, data.getLength());
         this.metrics.append();
         return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
-                streamSegmentId -> {
-                    StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, data, attributeUpdates);
-                    return this.durableLog.add(operation, timer.getRemaining());
-                });
+                streamSegmentId -> preloadAttributes(streamSegmentId, attributeUpdates, timer.getRemaining())
+                        .thenCompose(v -> {
+                            StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, data, attributeUpdates);
+                            return addAppendOperation(operation, data, timer.getRemaining());
+                        }));
     }
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         ensureRunning();
 
         TimeoutTimer timer = new TimeoutTimer(timeout);
-        logRequest("appendWithOffset", streamSegmentName, data.length);
+        logRequest("appendWithOffset", streamSegmentName, data.getLength());
         this.metrics.appendWithOffset();
         return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
-                streamSegmentId -> {
-                    StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, offset, data, attributeUpdates);
-                    return this.durableLog.add(operation, timer.getRemaining());
-                });
+                streamSegmentId -> preloadAttributes(streamSegmentId, attributeUpdates, timer.getRemaining())
+                        .thenCompose(v -> {
+                            StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, offset, data, attributeUpdates);
+                            return addAppendOperation(operation, data, timer.getRemaining());
+                        }));
     }
 
     @Override
@@ -309,10 +318,41 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         logRequest("updateAttributes", streamSegmentName, attributeUpdates);
         this.metrics.updateAttributes();
         return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
-                streamSegmentId -> {
-                    UpdateAttributesOperation operation = new UpdateAttributesOperation(streamSegmentId, attributeUpdates);
-                    return this.durableLog.add(operation, timer.getRemaining());
-                });
+                streamSegmentId -> preloadAttributes(streamSegmentId, attributeUpdates, timer.getRemaining())
+                        .thenCompose(v -> {
+                            UpdateAttributesOperation operation = new UpdateAttributesOperation(streamSegmentId, attributeUpdates);
+                            return this.durableLog.add(operation, timer.getRemaining());
+                        }));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Long>> getAttributes(String streamSegmentName, Collection<UUID> attributeIds, boolean waitForPendingOps, Duration timeout) {
+        ensureRunning();
+
+        logRequest("getAttributes", streamSegmentName, attributeIds);
+        this.metrics.getAttributes();
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        CompletableFuture<Void> barrier = waitForPendingOps
+                ? this.durableLog.operationProcessingBarrier(timer.getRemaining())
+                : CompletableFuture.completedFuture(null);
+        return barrier.thenComposeAsync(v -> this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
+                streamSegmentId -> loadAttributes(streamSegmentId, attributeIds, timer.getRemaining())
+                        .thenApply(v2 -> {
+                            SegmentMetadata sm = this.metadata.getStreamSegmentMetadata(streamSegmentId);
+                            if (sm == null) {
+                                throw new CompletionException(new StreamSegmentNotExistsException(streamSegmentName));
+                            }
+
+                            Map<UUID, Long> result = new HashMap<>();
+                            attributeIds.forEach(attributeId -> {
+                                Long value = sm.getAttributes().get(attributeId);
+                                if (value != null) {
+                                    result.put(attributeId, value);
+                                }
+                            });
+
+                            return result;
+                        })), this.executor);
     }
 
     @Override
@@ -390,6 +430,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                     .openWrite(toDelete.getName())
                     .thenComposeAsync(handle -> this.storage.delete(handle, timer.getRemaining()), this.executor)
                     .thenComposeAsync(v -> this.stateStore.remove(toDelete.getName(), timer.getRemaining()), this.executor)
+                    .thenComposeAsync(v -> this.attributeIndex.remove(toDelete.getName(), timer.getRemaining()), this.executor)
                     .exceptionally(ex -> {
                         ex = Exceptions.unwrap(ex);
                         if (ex instanceof StreamSegmentNotExistsException && toDelete.isTransaction()) {
@@ -439,7 +480,8 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                     Operation op = new MergeTransactionOperation(transactionMetadata.getParentId(), transactionMetadata.getId());
                     return this.durableLog.add(op, timer.getRemaining());
                 })
-                .thenComposeAsync(v -> this.stateStore.remove(transactionName, timer.getRemaining()), this.executor);
+                .thenComposeAsync(v -> this.stateStore.remove(transactionName, timer.getRemaining()), this.executor)
+                .thenComposeAsync(v -> this.attributeIndex.remove(transactionName, timer.getRemaining()), this.executor);
     }
 
     @Override
@@ -491,9 +533,82 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     protected void notifyMetadataRemoved(Collection<SegmentMetadata> segments) {
         if (segments.size() > 0) {
             this.readIndex.cleanup(segments.stream().map(SegmentMetadata::getId).iterator());
+            this.attributeIndex.cleanup(segments.stream().map(SegmentMetadata::getName).collect(Collectors.toList()));
         }
     }
 
+    /**
+     * Gets the number of dynamic Attributes of the given Segment that are currently held in memory.
+     *
+     * @param streamSegmentName The name of the Segment.
+     * @return The number of dynamic Attributes, or 0 if the Segment is not currently in the metadata.
+     */
+    @VisibleForTesting
+    int getInMemoryDynamicAttributeCount(String streamSegmentName) {
+        long segmentId = this.metadata.getStreamSegmentId(streamSegmentName, false);
+        SegmentMetadata sm = this.metadata.getStreamSegmentMetadata(segmentId);
+        return sm == null ? 0 : ((StreamSegmentMetadata) sm).getDynamicAttributeCount();
+    }
+
+    /**
+     * Ensures that those Attributes whose current values are needed in order to process the given AttributeUpdates are
+     * loaded in the Segment's metadata. Replace updates do not depend on the current value, so those are excluded.
+     */
+    private CompletableFuture<Void> preloadAttributes(long segmentId, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        if (attributeUpdates == null || attributeUpdates.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return loadAttributes(segmentId, attributeUpdates
+                .stream()
+                .filter(au -> au.getUpdateType() != AttributeUpdateType.Replace)
+                .map(AttributeUpdate::getAttributeId)
+                .collect(Collectors.toList()), timeout);
+    }
+
+    /**
+     * Ensures that the given Attributes are loaded in the Segment's metadata, fetching those that have been evicted from
+     * the Segment's Attribute Index.
+     */
+    private CompletableFuture<Void> loadAttributes(long segmentId, Collection<UUID> attributeIds, Duration timeout) {
+        Collection<UUID> toLoad = this.metadata.touchAttributes(segmentId, attributeIds);
+        if (toLoad.isEmpty()) {
+            // Everything is already in memory; this is by far the most common case.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        SegmentMetadata sm = this.metadata.getStreamSegmentMetadata(segmentId);
+        return this.attributeIndex
+                .get(sm.getName(), toLoad, timeout)
+                .thenAccept(values -> {
+                    Map<UUID, Long> loaded = new HashMap<>();
+                    toLoad.forEach(attributeId -> loaded.put(attributeId, values.getOrDefault(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE)));
+                    this.metadata.loadAttributes(segmentId, loaded);
+                });
+    }
+
+    /**
+     * Adds the given StreamSegmentAppendOperation to the DurableLog. The data buffer is retained for the duration of the
+     * operation (it is not copied until it is serialized to the DurableDataLog and added to the ReadIndex); it will be
+     * released by the MemoryStateUpdater once it has been added to the ReadIndex, or here if the operation failed.
+     */
+    private CompletableFuture<Void> addAppendOperation(StreamSegmentAppendOperation operation, BufferView data, Duration timeout) {
+        data.retain();
+        CompletableFuture<Void> result;
+        try {
+            result = this.durableLog.add(operation, timeout);
+        } catch (Throwable ex) {
+            data.release();
+            throw ex;
+        }
+
+        return result.whenComplete((r, ex) -> {
+            if (ex != null) {
+                data.release();
+            }
+        });
+    }
+
     private void ensureRunning() {
         Exceptions.checkNotClosed(this.closed.get(), this);
         if (state() != State.RUNNING) {
@@ -21,6 +21,7 @@ import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.storage.LogAddress;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -353,6 +355,56 @@ public class StreamSegmentContainerMetadata implements UpdateableContainerMetada
                 || metadata.isDeleted() && metadata.getLastUsed() <= this.lastTruncatedSequenceNumber.get();
     }
 
+    @Override
+    public Collection<SegmentMetadata> getAttributeEvictionCandidates(int maxAttributeCount, int maxCount) {
+        List<StreamSegmentMetadata> candidates;
+        synchronized (this.lock) {
+            candidates = this.metadataById
+                    .values().stream()
+                    .filter(m -> !m.isDeleted() && !m.isMerged() && m.getDynamicAttributeCount() > maxAttributeCount)
+                    .collect(Collectors.toList());
+        }
+
+        // If we have more candidates than were requested to return, then return the ones with the most attributes.
+        if (candidates.size() > maxCount) {
+            candidates.sort(Comparator.comparingInt(StreamSegmentMetadata::getDynamicAttributeCount).reversed());
+            candidates = candidates.subList(0, maxCount);
+        }
+
+        return new ArrayList<>(candidates);
+    }
+
+    @Override
+    public Map<UUID, Long> getEvictableAttributes(long segmentId, long sequenceNumberCutoff) {
+        StreamSegmentMetadata metadata = getAttributeOwner(segmentId);
+        if (metadata == null) {
+            return Collections.emptyMap();
+        }
+
+        return metadata.getEvictableAttributes(Math.min(sequenceNumberCutoff, this.lastTruncatedSequenceNumber.get()));
+    }
+
+    @Override
+    public int cleanupAttributes(long segmentId, Map<UUID, Long> persistedAttributes, long sequenceNumberCutoff) {
+        StreamSegmentMetadata metadata = getAttributeOwner(segmentId);
+        if (metadata == null) {
+            return 0;
+        }
+
+        // Same as with Segments, an Attribute cannot be evicted until its last update has been truncated out of the Log,
+        // otherwise recovering from an older checkpoint would bring back a stale value.
+        int count = metadata.evictAttributes(persistedAttributes, Math.min(sequenceNumberCutoff, this.lastTruncatedSequenceNumber.get()));
+        log.debug("{}: EvictedAttributes SegmentId = {}, Count = {}, Remaining = {}.",
+                this.traceObjectId, segmentId, count, metadata.getDynamicAttributeCount());
+        return count;
+    }
+
+    private StreamSegmentMetadata getAttributeOwner(long segmentId) {
+        synchronized (this.lock) {
+            return this.metadataById.getOrDefault(segmentId, null);
+        }
+    }
+
     private void updateValue(HashMap<Long, Integer> map, long key, int delta) {
         int newValue = map.getOrDefault(key, 0) + delta;
         if (newValue == 0) {
@@ -364,6 +416,37 @@ public class StreamSegmentContainerMetadata implements UpdateableContainerMetada
 
     //endregion
 
+    //region Attribute Management
+
+    /**
+     * Records that the given Attributes of the given Segment are about to be used.
+     *
+     * @param segmentId    The Id of the Segment.
+     * @param attributeIds The Ids of the Attributes.
+     * @return A Collection containing the Ids of those Attributes that need to be loaded from the Segment's Attribute
+     * Index before they can be used.
+     */
+    Collection<UUID> touchAttributes(long segmentId, Collection<UUID> attributeIds) {
+        StreamSegmentMetadata metadata = getAttributeOwner(segmentId);
+        return metadata == null ? Collections.emptyList() : metadata.touchAttributes(attributeIds, getOperationSequenceNumber());
+    }
+
+    /**
+     * Loads the given Attribute values, fetched from the Segment's Attribute Index, into the given Segment's metadata.
+     *
+     * @param segmentId       The Id of the Segment.
+     * @param attributeValues The Attribute values. Attributes with no value should be mapped to
+     *                        SegmentMetadata.NULL_ATTRIBUTE_VALUE.
+     */
+    void loadAttributes(long segmentId, Map<UUID, Long> attributeValues) {
+        StreamSegmentMetadata metadata = getAttributeOwner(segmentId);
+        if (metadata != null) {
+            metadata.loadAttributes(attributeValues, getOperationSequenceNumber());
+        }
+    }
+
+    //endregion
+
     //region RecoverableMetadata Implementation
 
     @Override
@@ -12,13 +12,18 @@ package io.pravega.segmentstore.server.containers;
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.util.ImmutableDate;
+import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.server.ContainerMetadata;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +43,13 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     private final int containerId;
     @GuardedBy("this")
     private final Map<UUID, Long> attributes;
+    /**
+     * Keeps track of when each dynamic Attribute was last used (loaded or updated). Dynamic Attributes that are tracked
+     * here but do not have an entry in attributes are known not to have a value, while those that are in neither may have
+     * a value in the Segment's Attribute Index.
+     */
+    @GuardedBy("this")
+    private final Map<UUID, Long> dynamicAttributesLastUsed;
     @GuardedBy("this")
     private long storageLength;
     @GuardedBy("this")
@@ -101,7 +113,9 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
         this.startOffset = 0;
         this.storageLength = -1;
         this.length = -1;
-        this.attributes = new HashMap<>();
+        // Attributes may be read (via getAttributes()) while being loaded or evicted on other threads.
+        this.attributes = new ConcurrentHashMap<>();
+        this.dynamicAttributesLastUsed = new HashMap<>();
         this.lastModified = new ImmutableDate();
         this.lastUsed = 0;
         this.active = true;
@@ -180,6 +194,17 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
         return Collections.unmodifiableMap(this.attributes);
     }
 
+    @Override
+    public synchronized Map<UUID, Long> getAttributesWithRemovals() {
+        if (this.dynamicAttributesLastUsed.size() == 0) {
+            return getAttributes();
+        }
+
+        Map<UUID, Long> result = new HashMap<>(this.attributes);
+        this.dynamicAttributesLastUsed.keySet().forEach(id -> result.putIfAbsent(id, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+        return Collections.unmodifiableMap(result);
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -235,6 +260,10 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     public synchronized void markSealed() {
         log.debug("{}: Sealed = true.", this.traceObjectId);
         this.sealed = true;
+
+        // Sealing clears all dynamic Attributes and we never look those up in the Attribute Index for a sealed Segment,
+        // so there is no need to remember which ones have been removed.
+        this.dynamicAttributesLastUsed.keySet().removeIf(id -> !this.attributes.containsKey(id));
     }
 
     @Override
@@ -267,11 +296,17 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     @Override
     public synchronized void updateAttributes(Map<UUID, Long> attributes) {
         for (Map.Entry<UUID, Long> av : attributes.entrySet()) {
+            UUID attributeId = av.getKey();
             long value = av.getValue();
             if (value == SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
-                this.attributes.remove(av.getKey());
+                this.attributes.remove(attributeId);
             } else {
-                this.attributes.put(av.getKey(), value);
+                this.attributes.put(attributeId, value);
+            }
+
+            if (Attributes.isDynamic(attributeId)) {
+                // Removed dynamic attributes are still tracked until their removal is persisted in the Attribute Index.
+                this.dynamicAttributesLastUsed.merge(attributeId, this.lastUsed, Math::max);
             }
         }
     }
@@ -289,7 +324,7 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
         // Update StartOffset after (potentially) updating the length, since he Start Offset must be less than or equal to Length.
         setStartOffset(base.getStartOffset());
         setLastModified(base.getLastModified());
-        updateAttributes(base.getAttributes());
+        updateAttributes(base.getAttributesWithRemovals());
 
         if (base.isSealed()) {
             markSealed();
@@ -329,4 +364,124 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     }
 
     //endregion
+
+    //region Dynamic Attribute Management
+
+    /**
+     * Gets the number of dynamic Attributes that are currently tracked in memory (including those that are known to have
+     * been removed).
+     *
+     * @return The number of tracked dynamic Attributes.
+     */
+    synchronized int getDynamicAttributeCount() {
+        return this.dynamicAttributesLastUsed.size();
+    }
+
+    /**
+     * Records that the given Attributes are about to be used and determines which of them need to be loaded from the
+     * Segment's Attribute Index before they can be used. This also updates the LastUsed value of the Segment itself, so
+     * that a Segment is never used more recently than any of its Attributes.
+     *
+     * @param attributeIds The Ids of the Attributes to touch.
+     * @param lastUsed     The value to set as LastUsed for those dynamic Attributes that are already tracked.
+     * @return A Collection of Attribute Ids that are not currently tracked in memory. Only dynamic Attributes may be
+     * included here, and this will always be empty for a sealed Segment (since its dynamic Attributes have been cleared).
+     */
+    synchronized Collection<UUID> touchAttributes(Collection<UUID> attributeIds, long lastUsed) {
+        setLastUsed(lastUsed);
+        if (this.sealed) {
+            return Collections.emptyList();
+        }
+
+        List<UUID> result = null;
+        for (UUID attributeId : attributeIds) {
+            if (!Attributes.isDynamic(attributeId)) {
+                // Core attributes are always in memory.
+                continue;
+            }
+
+            Long existing = this.dynamicAttributesLastUsed.get(attributeId);
+            if (existing == null) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+
+                result.add(attributeId);
+            } else if (existing < lastUsed) {
+                this.dynamicAttributesLastUsed.put(attributeId, lastUsed);
+            }
+        }
+
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    /**
+     * Loads the given dynamic Attribute values (as fetched from the Segment's Attribute Index) into memory. Attributes
+     * that have been loaded or updated in the meantime will not be touched, since their in-memory values are newer.
+     *
+     * @param attributeValues A Map of Attribute Ids to their values. Attributes with no value should be mapped to
+     *                        NULL_ATTRIBUTE_VALUE.
+     * @param lastUsed        The value to set as LastUsed for the loaded Attributes (and the Segment).
+     */
+    synchronized void loadAttributes(Map<UUID, Long> attributeValues, long lastUsed) {
+        setLastUsed(lastUsed);
+        if (this.sealed) {
+            return;
+        }
+
+        for (Map.Entry<UUID, Long> e : attributeValues.entrySet()) {
+            UUID attributeId = e.getKey();
+            Preconditions.checkArgument(Attributes.isDynamic(attributeId), "Only dynamic attributes can be loaded.");
+            if (this.dynamicAttributesLastUsed.putIfAbsent(attributeId, lastUsed) == null
+                    && e.getValue() != SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                this.attributes.put(attributeId, e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Gets those dynamic Attributes that have not been used since the given cutoff and are therefore eligible for
+     * eviction, along with their current values (NULL_ATTRIBUTE_VALUE for removed ones).
+     *
+     * @param sequenceNumberCutoff A Sequence Number that indicates the cutoff threshold. A dynamic Attribute is eligible
+     *                             for eviction if it has a LastUsed value smaller than this threshold.
+     * @return A Map of Attribute Ids to values.
+     */
+    synchronized Map<UUID, Long> getEvictableAttributes(long sequenceNumberCutoff) {
+        Map<UUID, Long> result = new HashMap<>();
+        this.dynamicAttributesLastUsed.forEach((attributeId, lastUsed) -> {
+            if (lastUsed < sequenceNumberCutoff) {
+                result.put(attributeId, this.attributes.getOrDefault(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Evicts the given dynamic Attributes from memory, but only if they are still eligible for eviction and their values
+     * have not changed since they were persisted.
+     *
+     * @param persistedValues      The Attribute values that have been persisted in the Segment's Attribute Index, as
+     *                             obtained from getEvictableAttributes().
+     * @param sequenceNumberCutoff A Sequence Number that indicates the cutoff threshold (see getEvictableAttributes()).
+     * @return The number of Attributes that were evicted.
+     */
+    synchronized int evictAttributes(Map<UUID, Long> persistedValues, long sequenceNumberCutoff) {
+        int count = 0;
+        for (Map.Entry<UUID, Long> e : persistedValues.entrySet()) {
+            UUID attributeId = e.getKey();
+            Long lastUsed = this.dynamicAttributesLastUsed.get(attributeId);
+            if (lastUsed != null && lastUsed < sequenceNumberCutoff
+                    && this.attributes.getOrDefault(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE) == (long) e.getValue()) {
+                this.dynamicAttributesLastUsed.remove(attributeId);
+                this.attributes.remove(attributeId);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    //endregion
 }
@@ -720,7 +720,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
             output.writeBoolean(sm.isDeleted());
             output.writeLong(sm.getLastModified().getTime());
             output.writeLong(sm.getStartOffset());
-            output.writeMap(sm.getAttributes(), RevisionDataOutput::writeUUID, RevisionDataOutput::writeLong);
+            output.writeMap(sm.getAttributesWithRemovals(), RevisionDataOutput::writeUUID, RevisionDataOutput::writeLong);
         }
 
         private UpdateableSegmentMetadata readSegmentMetadata00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
@@ -12,16 +12,23 @@ package io.pravega.segmentstore.server.logs;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
 import io.pravega.common.io.BoundedInputStream;
 import io.pravega.common.io.SerializationException;
+import io.pravega.common.io.StreamHelpers;
 import io.pravega.common.util.ArrayView;
 import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.storage.LogAddress;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -37,8 +44,16 @@ public class DataFrame {
     //region Members
 
     static final int MIN_ENTRY_LENGTH_NEEDED = EntryHeader.HEADER_SIZE + 1;
-    private static final byte CURRENT_VERSION = 0;
+    /**
+     * Version 1 introduced the Frame Header flags (COMPRESSED_MASK). Version 0 frames must have no flags set.
+     */
+    private static final byte CURRENT_VERSION = 1;
+    /**
+     * Frames with contents smaller than this are not worth compressing.
+     */
+    private static final int MIN_COMPRESSION_LENGTH = 1024;
     private final ByteArraySegment data;
+    private final Compressor compressor;
     private WriteFrameHeader header;
     private ByteArraySegment contents;
 
@@ -56,18 +71,38 @@ public class DataFrame {
     private int writePosition;
     private boolean sealed;
 
+    private int uncompressedContentLength;
+
+    /**
+     * The amount of time spent compressing this frame (Duration.ZERO if no compression was attempted).
+     */
+    @Getter
+    private Duration compressionElapsed = Duration.ZERO;
+
     //endregion
 
     //region Constructor
 
     /**
-     * Creates a new instance of a DataFrame.
+     * Creates a new instance of a DataFrame which will not be compressed.
      *
      * @param source The ByteArraySegment to wrap.
      */
     DataFrame(ByteArraySegment source) {
+        this(source, null);
+    }
+
+    /**
+     * Creates a new instance of a DataFrame.
+     *
+     * @param source     The ByteArraySegment to wrap.
+     * @param compressor (Optional) The Compressor to compress the frame's contents with when sealed. If null, the frame
+     *                   will not be compressed. The Compressor is not owned by this DataFrame and will not be closed by it.
+     */
+    DataFrame(ByteArraySegment source, Compressor compressor) {
         Preconditions.checkArgument(!source.isReadOnly(), "Cannot create a WriteFrame for a readonly source.");
         this.data = source;
+        this.compressor = compressor;
         this.writeEntryStartIndex = -1;
         this.sealed = source.isReadOnly();
         this.writePosition = this.sealed ? -1 : 0;
@@ -108,6 +143,14 @@ public class DataFrame {
         return this.header.getSerializationLength() + this.header.getContentLength();
     }
 
+    /**
+     * Gets a value indicating the length, in bytes, that this frame would have if it were not compressed. This is the
+     * same as getLength() if the frame is not compressed. This value is only meaningful for sealed frames in write mode.
+     */
+    int getUncompressedLength() {
+        return this.header.getSerializationLength() + this.uncompressedContentLength;
+    }
+
     /**
      * Returns an ArrayView representing the serialized form of this frame.
      */
@@ -246,6 +289,7 @@ public class DataFrame {
     /**
      * Seals the frame for writing. After this method returns, no more modifications are allowed on this DataFrame.
      * This method has no effect if the Frame is read-only if it is already sealed.
+     * If this frame was created with a Compressor, its contents are compressed as part of this call.
      *
      * @throws IllegalStateException If an open entry exists (entries must be closed prior to sealing).
      */
@@ -253,12 +297,36 @@ public class DataFrame {
         if (!this.sealed && !this.contents.isReadOnly()) {
             Preconditions.checkState(writeEntryStartIndex < 0, "An open entry exists. Any open entries must be closed prior to sealing.");
 
+            this.uncompressedContentLength = this.writePosition;
+            if (this.compressor != null && this.writePosition >= MIN_COMPRESSION_LENGTH) {
+                compress();
+            }
+
             this.header.setContentLength(writePosition);
             this.header.commit();
             this.sealed = true;
         }
     }
 
+    /**
+     * Compresses the contents of this frame, in place. The compressed contents are made up of the uncompressed length
+     * (int) followed by the Deflate-compressed data. The contents are left as they are if compressing them would not
+     * make them any smaller.
+     */
+    private void compress() {
+        Timer timer = new Timer();
+        try {
+            int compressedLength = this.compressor.compress(this.contents.array(), this.contents.arrayOffset(), this.writePosition);
+            if (compressedLength > 0) {
+                this.contents.copyFrom(new ByteArraySegment(this.compressor.getBuffer()), 0, compressedLength);
+                this.writePosition = compressedLength;
+                this.header.setCompressed(true);
+            }
+        } finally {
+            this.compressionElapsed = timer.getElapsed();
+        }
+    }
+
     /**
      * Calculates the number of bytes available in the frame for writing.
      */
@@ -294,9 +362,40 @@ public class DataFrame {
         }
 
         BoundedInputStream contents = new BoundedInputStream(source, header.getContentLength());
+        if (header.isCompressed()) {
+            contents = decompress(contents);
+        }
+
         return new DataFrameEntryIterator(contents, address, ReadFrameHeader.SERIALIZATION_LENGTH);
     }
 
+    /**
+     * Decompresses the given (compressed) DataFrame contents. See compress() for the layout of the compressed contents.
+     *
+     * @param contents A BoundedInputStream containing the compressed contents. This will be fully consumed.
+     * @return A BoundedInputStream containing the decompressed contents.
+     * @throws IOException If unable to decompress the contents.
+     */
+    private static BoundedInputStream decompress(BoundedInputStream contents) throws IOException {
+        int uncompressedLength = BitConverter.readInt(contents);
+        if (uncompressedLength <= 0) {
+            throw new SerializationException(String.format("Data Frame is corrupt. Invalid uncompressed length %d.", uncompressedLength));
+        }
+
+        byte[] result = new byte[uncompressedLength];
+        try (InflaterInputStream inflater = new InflaterInputStream(contents)) {
+            int count = StreamHelpers.readAll(inflater, result, 0, result.length);
+            if (count != uncompressedLength) {
+                throw new SerializationException(String.format("Data Frame is corrupt. Expected %d bytes after decompression, found %d.",
+                        uncompressedLength, count));
+            }
+        } catch (ZipException ex) {
+            throw new SerializationException(String.format("Data Frame is corrupt. Unable to decompress: %s.", ex.getMessage()));
+        }
+
+        return new BoundedInputStream(new ByteArrayInputStream(result), uncompressedLength);
+    }
+
     //endregion
 
     //region EntryHeader
@@ -377,6 +476,7 @@ public class DataFrame {
      */
     private static abstract class FrameHeader {
         static final int SERIALIZATION_LENGTH = Byte.BYTES + Integer.BYTES + Byte.BYTES;
+        static final byte COMPRESSED_MASK = 1;
         /**
          * The serialization Version for the frame.
          */
@@ -391,18 +491,33 @@ public class DataFrame {
         @Setter
         private int contentLength;
 
+        /**
+         * Whether the Frame's payload (contents) is compressed.
+         */
+        @Getter
+        @Setter
+        private boolean compressed;
+
         byte encodeFlags() {
-            // Placeholder method. Nothing to do yet.
-            return 0;
+            return isCompressed() ? COMPRESSED_MASK : 0;
         }
 
-        void decodeFlags(byte flags, byte version) {
-            // Placeholder method. Nothing to do yet.
+        void decodeFlags(byte flags, byte version) throws SerializationException {
+            if (version > CURRENT_VERSION) {
+                throw new SerializationException(String.format("Unsupported Data Frame version %d.", version));
+            }
+
+            byte knownFlags = version == 0 ? 0 : COMPRESSED_MASK;
+            if ((flags & ~knownFlags) != 0) {
+                throw new SerializationException(String.format("Data Frame (version %d) has unknown flags %d.", version, flags));
+            }
+
+            setCompressed((flags & COMPRESSED_MASK) == COMPRESSED_MASK);
         }
 
         @Override
         public String toString() {
-            return String.format("Version = %d, ContentLength = %d", getVersion(), getContentLength());
+            return String.format("Version = %d, ContentLength = %d, Compressed = %s", getVersion(), getContentLength(), isCompressed());
         }
     }
 
@@ -498,7 +613,8 @@ public class DataFrame {
         private final int length;
 
         /**
-         * The offset within the DataFrame where the contents begins.
+         * The offset within the DataFrame where the contents begins. For compressed DataFrames, this is the offset
+         * within the decompressed DataFrame.
          */
         @Getter
         private final int frameOffset;
@@ -600,4 +716,74 @@ public class DataFrame {
     }
 
     //endregion
+
+    //region Compressor
+
+    /**
+     * Compresses DataFrame contents. A single instance can (and should) be reused for all the DataFrames produced by a
+     * writer, since both the Deflater and its output buffer are expensive to allocate. Instances must be closed when no
+     * longer needed, in order to release the Deflater's native resources.
+     */
+    @NotThreadSafe
+    static class Compressor implements AutoCloseable {
+        private final Deflater deflater;
+        private byte[] buffer;
+
+        /**
+         * Creates a new instance of the Compressor class.
+         *
+         * @param compressionLevel The level (see Deflater) to compress with. Must not be Deflater.NO_COMPRESSION.
+         */
+        Compressor(int compressionLevel) {
+            Preconditions.checkArgument(compressionLevel > Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+                    "Invalid compressionLevel.");
+            this.deflater = new Deflater(compressionLevel);
+            this.buffer = new byte[0];
+        }
+
+        @Override
+        public void close() {
+            this.deflater.end();
+        }
+
+        /**
+         * Compresses the given data into this Compressor's buffer. The result is made up of the uncompressed length (int)
+         * followed by the Deflate-compressed data.
+         *
+         * @param source The array containing the data to compress.
+         * @param offset The offset within source where the data begins.
+         * @param length The length of the data.
+         * @return The number of bytes written to getBuffer(), or -1 if compressing would not make the data any smaller
+         * (in which case the contents of getBuffer() are undefined).
+         */
+        int compress(byte[] source, int offset, int length) {
+            if (this.buffer.length < length) {
+                this.buffer = new byte[length];
+            }
+
+            try {
+                this.deflater.setInput(source, offset, length);
+                this.deflater.finish();
+                int compressedLength = Integer.BYTES + this.deflater.deflate(this.buffer, Integer.BYTES, length - Integer.BYTES);
+                if (!this.deflater.finished() || compressedLength >= length) {
+                    return -1;
+                }
+
+                BitConverter.writeInt(this.buffer, 0, length);
+                return compressedLength;
+            } finally {
+                // Prepare for the next frame and drop the reference to the source array.
+                this.deflater.reset();
+            }
+        }
+
+        /**
+         * Gets the buffer containing the result of the last call to compress().
+         */
+        byte[] getBuffer() {
+            return this.buffer;
+        }
+    }
+
+    //endregion
 }
@@ -25,9 +25,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -68,7 +68,7 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         this.args = Preconditions.checkNotNull(args, "args");
         Preconditions.checkNotNull(args.commitSuccess, "args.commitSuccess");
         Preconditions.checkNotNull(args.commitFailure, "args.commitFailure");
-        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), this::handleDataFrameComplete);
+        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), args.compressionLevel, this::handleDataFrameComplete);
         this.lastSerializedSequenceNumber = -1;
         this.lastStartedSequenceNumber = -1;
         this.failureCause = new AtomicReference<>();
@@ -179,7 +179,8 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         Exceptions.checkArgument(dataFrame.isSealed(), "dataFrame", "Cannot publish a non-sealed DataFrame.");
 
         // Write DataFrame to DataFrameLog.
-        CommitArgs commitArgs = new CommitArgs(this.lastSerializedSequenceNumber, this.lastStartedSequenceNumber, dataFrame.getLength());
+        CommitArgs commitArgs = new CommitArgs(this.lastSerializedSequenceNumber, this.lastStartedSequenceNumber, dataFrame.getLength(),
+                dataFrame.getUncompressedLength(), dataFrame.getCompressionElapsed());
 
         try {
             this.args.beforeCommit.accept(commitArgs);
@@ -249,6 +250,18 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         @Getter
         private final int dataFrameLength;
 
+        /**
+         * The length the DataFrame that was just committed would have had if it were not compressed.
+         */
+        @Getter
+        private final int uncompressedDataFrameLength;
+
+        /**
+         * The amount of time spent compressing the DataFrame that was just committed.
+         */
+        @Getter
+        private final Duration compressionElapsed;
+
         @Getter
         @Setter
         private long metadataTransactionId;
@@ -263,14 +276,19 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
          * @param lastFullySerializedSequenceNumber The Sequence Number of the last LogItem that was fully serialized (and committed).
          * @param lastStartedSequenceNumber         The Sequence Number of the last LogItem that was started (but not necessarily committed).
          * @param dataFrameLength                   The length of the DataFrame that is to be committed.
+         * @param uncompressedDataFrameLength       The length of the DataFrame that is to be committed, before compression.
+         * @param compressionElapsed                The amount of time spent compressing the DataFrame.
          */
-        private CommitArgs(long lastFullySerializedSequenceNumber, long lastStartedSequenceNumber, int dataFrameLength) {
+        private CommitArgs(long lastFullySerializedSequenceNumber, long lastStartedSequenceNumber, int dataFrameLength,
+                           int uncompressedDataFrameLength, Duration compressionElapsed) {
             assert lastFullySerializedSequenceNumber <= lastStartedSequenceNumber : "lastFullySerializedSequenceNumber (" +
                     lastFullySerializedSequenceNumber + ") is greater than lastStartedSequenceNumber (" + lastStartedSequenceNumber + ")";
 
             this.lastFullySerializedSequenceNumber = lastFullySerializedSequenceNumber;
             this.lastStartedSequenceNumber = lastStartedSequenceNumber;
             this.dataFrameLength = dataFrameLength;
+            this.uncompressedDataFrameLength = uncompressedDataFrameLength;
+            this.compressionElapsed = compressionElapsed;
             this.logAddress = new AtomicReference<>();
         }
 
@@ -296,7 +314,6 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
 
     //region Args
 
-    @RequiredArgsConstructor
     static class Args {
         /**
          * A Callback that will be invoked synchronously upon a DataFrame's sealing, and right before it is about to be
@@ -320,7 +337,26 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
          */
         final BiConsumer<Throwable, CommitArgs> commitFailure;
         final Executor executor;
+
+        /**
+         * The level (see java.util.zip.Deflater) to compress DataFrames with. Deflater.NO_COMPRESSION disables compression.
+         */
+        final int compressionLevel;
         final Duration writeTimeout = Duration.ofSeconds(30); // TODO: actual timeout.
+
+        Args(Consumer<CommitArgs> beforeCommit, Consumer<CommitArgs> commitSuccess, BiConsumer<Throwable, CommitArgs> commitFailure,
+             Executor executor) {
+            this(beforeCommit, commitSuccess, commitFailure, executor, Deflater.NO_COMPRESSION);
+        }
+
+        Args(Consumer<CommitArgs> beforeCommit, Consumer<CommitArgs> commitSuccess, BiConsumer<Throwable, CommitArgs> commitFailure,
+             Executor executor, int compressionLevel) {
+            this.beforeCommit = beforeCommit;
+            this.commitSuccess = commitSuccess;
+            this.commitFailure = commitFailure;
+            this.executor = executor;
+            this.compressionLevel = compressionLevel;
+        }
     }
 
     //endregion
@@ -17,6 +17,7 @@ import io.pravega.common.util.ByteArraySegment;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,10 @@ class DataFrameOutputStream extends OutputStream {
     //region Members
 
     private final Consumer<DataFrame> dataFrameCompleteCallback;
+    /**
+     * Shared by all the DataFrames created by this instance (null if compression is disabled).
+     */
+    private final DataFrame.Compressor compressor;
     private DataFrame currentFrame;
     private boolean hasDataInCurrentFrame;
     @Getter
@@ -43,7 +48,7 @@ class DataFrameOutputStream extends OutputStream {
     //region Constructor
 
     /**
-     * Creates a new instance of the DataFrameOutputStream class.
+     * Creates a new instance of the DataFrameOutputStream class which does not compress Data Frames.
      *
      * @param maxDataFrameSize          The maximum size, in bytes, of a Data Frame.
      * @param dataFrameCompleteCallback A callback that will be invoked when a Data Frame is full.
@@ -51,11 +56,27 @@ class DataFrameOutputStream extends OutputStream {
      * @throws NullPointerException     If any of the arguments are null.
      */
     DataFrameOutputStream(int maxDataFrameSize, Consumer<DataFrame> dataFrameCompleteCallback) {
+        this(maxDataFrameSize, Deflater.NO_COMPRESSION, dataFrameCompleteCallback);
+    }
+
+    /**
+     * Creates a new instance of the DataFrameOutputStream class.
+     *
+     * @param maxDataFrameSize          The maximum size, in bytes, of a Data Frame.
+     * @param compressionLevel          The level (see java.util.zip.Deflater) to compress Data Frames with when sealed.
+     * @param dataFrameCompleteCallback A callback that will be invoked when a Data Frame is full.
+     * @throws IllegalArgumentException If maxDataFrameSize is not a positive integer.
+     * @throws NullPointerException     If any of the arguments are null.
+     */
+    DataFrameOutputStream(int maxDataFrameSize, int compressionLevel, Consumer<DataFrame> dataFrameCompleteCallback) {
         Exceptions.checkArgument(maxDataFrameSize > DataFrame.MIN_ENTRY_LENGTH_NEEDED, "maxDataFrameSize",
                 "Must be a at least %s.", DataFrame.MIN_ENTRY_LENGTH_NEEDED);
 
-        this.bufferFactory = new BufferFactory(maxDataFrameSize);
+        Preconditions.checkArgument(compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+                "Invalid compressionLevel.");
         this.dataFrameCompleteCallback = Preconditions.checkNotNull(dataFrameCompleteCallback, "dataFrameCompleteCallback");
+        this.bufferFactory = new BufferFactory(maxDataFrameSize);
+        this.compressor = compressionLevel == Deflater.NO_COMPRESSION ? null : new DataFrame.Compressor(compressionLevel);
     }
 
     //endregion
@@ -146,6 +167,9 @@ class DataFrameOutputStream extends OutputStream {
         if (!this.closed) {
             this.closed = true;
             this.currentFrame = null;
+            if (this.compressor != null) {
+                this.compressor.close();
+            }
         }
     }
 
@@ -218,7 +242,7 @@ class DataFrameOutputStream extends OutputStream {
     private void createNewFrame() {
         Preconditions.checkState(this.currentFrame == null || this.currentFrame.isSealed(), "Cannot create a new frame if we currently have a non-sealed frame.");
 
-        this.currentFrame = new DataFrame(this.bufferFactory.next());
+        this.currentFrame = new DataFrame(this.bufferFactory.next(), this.compressor);
         this.hasDataInCurrentFrame = false;
     }
 
@@ -15,6 +15,7 @@ import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.SequencedItemList;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.ReadIndexFactory;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.containers.ContainerConfig;
 import io.pravega.segmentstore.server.containers.StreamSegmentContainerMetadata;
@@ -43,23 +44,27 @@ public class DebugRecoveryProcessor extends RecoveryProcessor implements AutoClo
     private final OperationCallbacks callbacks;
     private final ReadIndexFactory readIndexFactory;
     private final Storage storage;
+    private final SegmentStoreMetrics.OperationProcessor metrics;
 
     //endregion
 
     //region Constructor
 
     private DebugRecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, ReadIndexFactory readIndexFactory,
-                                   Storage storage, OperationCallbacks callbacks) {
-        super(metadata, durableDataLog, new MemoryStateUpdater(new SequencedItemList<>(), readIndexFactory.createReadIndex(metadata, storage), null));
+                                   Storage storage, OperationCallbacks callbacks, SegmentStoreMetrics.OperationProcessor metrics) {
+        super(metadata, durableDataLog, new MemoryStateUpdater(new SequencedItemList<>(), readIndexFactory.createReadIndex(metadata, storage), null),
+                metrics);
         this.readIndexFactory = readIndexFactory;
         this.storage = storage;
         this.callbacks = callbacks;
+        this.metrics = metrics;
     }
 
     @Override
     public void close() {
         this.readIndexFactory.close();
         this.storage.close();
+        this.metrics.close();
     }
 
     /**
@@ -84,7 +89,8 @@ public class DebugRecoveryProcessor extends RecoveryProcessor implements AutoClo
         StreamSegmentContainerMetadata metadata = new StreamSegmentContainerMetadata(containerId, config.getMaxActiveSegmentCount());
         ContainerReadIndexFactory rf = new ContainerReadIndexFactory(readIndexConfig, new NoOpCacheFactory(), executor);
         Storage s = new InMemoryStorageFactory(executor).createStorageAdapter();
-        return new DebugRecoveryProcessor(metadata, durableDataLog, rf, s, callbacks);
+        SegmentStoreMetrics.OperationProcessor metrics = new SegmentStoreMetrics.OperationProcessor(containerId);
+        return new DebugRecoveryProcessor(metadata, durableDataLog, rf, s, callbacks, metrics);
     }
 
     //endregion
@@ -68,6 +68,8 @@ public class DurableLog extends AbstractService implements OperationLog {
     private final DurableDataLog durableDataLog;
     private final MemoryStateUpdater memoryStateUpdater;
     private final OperationProcessor operationProcessor;
+    private final MetadataCheckpointPolicy checkpointPolicy;
+    private final RecoveryScheduler recoveryScheduler;
     private final UpdateableContainerMetadata metadata;
     @GuardedBy("tailReads")
     private final Set<TailRead> tailReads;
@@ -92,10 +94,27 @@ public class DurableLog extends AbstractService implements OperationLog {
      * @throws NullPointerException If any of the arguments are null.
      */
     public DurableLog(DurableLogConfig config, UpdateableContainerMetadata metadata, DurableDataLogFactory dataFrameLogFactory, ReadIndex readIndex, ScheduledExecutorService executor) {
+        this(config, metadata, dataFrameLogFactory, readIndex, RecoveryScheduler.UNBOUNDED, executor);
+    }
+
+    /**
+     * Creates a new instance of the DurableLog class.
+     *
+     * @param config              Durable Log Configuration.
+     * @param metadata            The StreamSegment Container Metadata for the container which this Durable Log is part of.
+     * @param dataFrameLogFactory A DurableDataLogFactory which can be used to create instances of DataFrameLogs.
+     * @param readIndex           A ReadIndex which can be used to store newly processed appends.
+     * @param recoveryScheduler   A RecoveryScheduler (shared with other DurableLogs) to execute the recovery through.
+     * @param executor            The Executor to use for async operations.
+     * @throws NullPointerException If any of the arguments are null.
+     */
+    DurableLog(DurableLogConfig config, UpdateableContainerMetadata metadata, DurableDataLogFactory dataFrameLogFactory, ReadIndex readIndex,
+               RecoveryScheduler recoveryScheduler, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
         this.metadata = Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(dataFrameLogFactory, "dataFrameLogFactory");
         Preconditions.checkNotNull(readIndex, "readIndex");
+        this.recoveryScheduler = Preconditions.checkNotNull(recoveryScheduler, "recoveryScheduler");
         this.executor = Preconditions.checkNotNull(executor, "executor");
 
         this.durableDataLog = dataFrameLogFactory.createDurableDataLog(metadata.getContainerId());
@@ -104,8 +123,10 @@ public class DurableLog extends AbstractService implements OperationLog {
         this.traceObjectId = String.format("DurableLog[%s]", metadata.getContainerId());
         this.inMemoryOperationLog = createInMemoryLog();
         this.memoryStateUpdater = new MemoryStateUpdater(this.inMemoryOperationLog, readIndex, this::triggerTailReads);
-        MetadataCheckpointPolicy checkpointPolicy = new MetadataCheckpointPolicy(config, this::queueMetadataCheckpoint, this.executor);
-        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, executor);
+        this.checkpointPolicy = new MetadataCheckpointPolicy(config, recoveryScheduler.getRecoveryRate(), this::queueMetadataCheckpoint,
+                this.executor);
+        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, this.checkpointPolicy,
+                config, executor);
         Services.onStop(this.operationProcessor, this::queueStoppedHandler, this::queueFailedHandler, this.executor);
         this.tailReads = new HashSet<>();
         this.closed = new AtomicBoolean();
@@ -195,8 +216,8 @@ public class DurableLog extends AbstractService implements OperationLog {
     }
 
     private CompletableFuture<Void> tryStartOnce() {
-        return CompletableFuture
-                .supplyAsync(this::performRecovery, this.executor)
+        return this.recoveryScheduler
+                .schedule(() -> CompletableFuture.supplyAsync(this::performRecovery, this.executor), this.executor, this.traceObjectId)
                 .thenCompose(anyItemsRecovered ->
                         Services.startAsync(this.operationProcessor, this.executor)
                                 .thenComposeAsync(v -> anyItemsRecovered ? CompletableFuture.completedFuture(null) : queueMetadataCheckpoint(), this.executor));
@@ -214,10 +235,15 @@ public class DurableLog extends AbstractService implements OperationLog {
             this.durableDataLog.initialize(RECOVERY_TIMEOUT);
 
             // Initiate the recovery.
-            RecoveryProcessor p = new RecoveryProcessor(this.metadata, this.durableDataLog, this.memoryStateUpdater);
+            RecoveryProcessor p = new RecoveryProcessor(this.metadata, this.durableDataLog, this.memoryStateUpdater,
+                    this.operationProcessor.getMetrics());
             int recoveredItemCount = p.performRecovery();
             this.operationProcessor.getMetrics().operationsCompleted(recoveredItemCount, timer.getElapsed());
 
+            // Let the checkpoint policy know how fast we can replay the log, so it can keep future recoveries bounded.
+            // This is shared with the other DurableLogs, which will pick it up the next time they trigger a Checkpoint.
+            this.checkpointPolicy.recordRecovery(p.getRecoveredLength(), timer.getElapsed());
+
             // Verify that the Recovery Processor has left the metadata in a non-recovery mode.
             Preconditions.checkState(!this.metadata.isRecoveryMode(), "Recovery completed but Metadata is still in Recovery Mode.");
             return recoveredItemCount > 0;
@@ -15,6 +15,7 @@ import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import java.time.Duration;
+import java.util.zip.Deflater;
 import lombok.Getter;
 
 /**
@@ -25,6 +26,16 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_MIN_COMMIT_COUNT = Property.named("checkpointMinCommitCount", 300);
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpointCommitCountThreshold", 300);
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpointTotalCommitLengthThreshold", 256 * 1024 * 1024L);
+    public static final Property<Integer> CHECKPOINT_RECOVERY_TIME_TARGET_MILLIS = Property.named("checkpointRecoveryTimeTargetMillis", 0);
+    public static final Property<Integer> DATA_FRAME_COMPRESSION_LEVEL = Property.named("dataFrameCompressionLevel", 0);
+    public static final Property<Integer> THROTTLE_MAX_DELAY_MILLIS = Property.named("throttleMaxDelayMillis", 10000);
+    public static final Property<Integer> THROTTLE_MAX_BATCHING_DELAY_MILLIS = Property.named("throttleMaxBatchingDelayMillis", 50);
+    public static final Property<Integer> THROTTLE_CACHE_UTILIZATION_THRESHOLD = Property.named("throttleCacheUtilizationThresholdPercentage", 100);
+    public static final Property<Integer> THROTTLE_CACHE_UTILIZATION_MAX = Property.named("throttleCacheUtilizationMaxPercentage", 200);
+    public static final Property<Integer> THROTTLE_CACHE_UTILIZATION_RAMP_EXPONENT = Property.named("throttleCacheUtilizationRampExponent", 1);
+    public static final Property<Integer> THROTTLE_COMMIT_BACKLOG_THRESHOLD = Property.named("throttleCommitBacklogThreshold", 300);
+    public static final Property<Integer> THROTTLE_MILLIS_PER_COMMIT_OVER_THRESHOLD = Property.named("throttleMillisPerCommitOverThreshold", 4);
+    public static final Property<Integer> MAX_CONCURRENT_RECOVERIES = Property.named("maxConcurrentRecoveries", 4);
     public static final Property<Integer> START_RETRY_DELAY_MILLIS = Property.named("startRetryDelayMillis", 60 * 1000);
     private static final String COMPONENT_CODE = "durablelog";
 
@@ -50,6 +61,76 @@ public class DurableLogConfig {
     @Getter
     private final long checkpointTotalCommitLengthThreshold;
 
+    /**
+     * The maximum amount of time a recovery should take. If non-zero, Checkpoints are triggered more frequently than
+     * dictated by checkpointTotalCommitLengthThreshold if the data accumulated since the last Checkpoint is estimated
+     * (based on the observed recovery rate) to take longer than this to replay.
+     */
+    @Getter
+    private final Duration checkpointRecoveryTimeTarget;
+
+    /**
+     * The compression level (see java.util.zip.Deflater) to compress DataFrames with before writing them to the
+     * DurableDataLog. 0 (Deflater.NO_COMPRESSION) disables compression.
+     */
+    @Getter
+    private final int dataFrameCompressionLevel;
+
+    /**
+     * The maximum amount of time (millis) the OperationProcessor may delay processing operations in order to throttle
+     * incoming requests.
+     */
+    @Getter
+    private final int throttleMaxDelayMillis;
+
+    /**
+     * The maximum amount of time (millis) the OperationProcessor may delay processing operations in order to batch them
+     * into larger DurableDataLog writes.
+     */
+    @Getter
+    private final int throttleMaxBatchingDelayMillis;
+
+    /**
+     * The cache utilization (percentage of the maximum cache size) above which incoming operations are throttled.
+     */
+    @Getter
+    private final int throttleCacheUtilizationThresholdPercentage;
+
+    /**
+     * The cache utilization (percentage of the maximum cache size) at which incoming operations are throttled by
+     * throttleMaxDelayMillis. The delay increases between throttleCacheUtilizationThresholdPercentage and this value as
+     * defined by throttleCacheUtilizationRampExponent.
+     */
+    @Getter
+    private final int throttleCacheUtilizationMaxPercentage;
+
+    /**
+     * The power to which the (normalized) cache utilization overrun is raised to calculate the throttling delay. A value
+     * of 1 results in a linear increase, while larger values result in shorter delays for small overruns.
+     */
+    @Getter
+    private final int throttleCacheUtilizationRampExponent;
+
+    /**
+     * The number of items in the Commit Backlog above which incoming operations are throttled.
+     */
+    @Getter
+    private final int throttleCommitBacklogThreshold;
+
+    /**
+     * The amount of time (millis) to increase throttling by for each item in the Commit Backlog above
+     * throttleCommitBacklogThreshold.
+     */
+    @Getter
+    private final int throttleMillisPerCommitOverThreshold;
+
+    /**
+     * The maximum number of DurableLogs (created by the same DurableLogFactory) that may execute their recoveries at
+     * the same time.
+     */
+    @Getter
+    private final int maxConcurrentRecoveries;
+
     /**
      * The amount of time to wait between consecutive start attempts in case of retryable startup failure (i.e., offline).
      */
@@ -75,6 +156,67 @@ public class DurableLogConfig {
         }
 
         this.checkpointTotalCommitLengthThreshold = properties.getLong(CHECKPOINT_TOTAL_COMMIT_LENGTH);
+        int recoveryTimeTargetMillis = properties.getInt(CHECKPOINT_RECOVERY_TIME_TARGET_MILLIS);
+        if (recoveryTimeTargetMillis < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative integer.",
+                    CHECKPOINT_RECOVERY_TIME_TARGET_MILLIS, recoveryTimeTargetMillis));
+        }
+        this.checkpointRecoveryTimeTarget = Duration.ofMillis(recoveryTimeTargetMillis);
+        this.dataFrameCompressionLevel = properties.getInt(DATA_FRAME_COMPRESSION_LEVEL);
+        if (this.dataFrameCompressionLevel < Deflater.NO_COMPRESSION || this.dataFrameCompressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a value between %d and %d.",
+                    DATA_FRAME_COMPRESSION_LEVEL, this.dataFrameCompressionLevel, Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION));
+        }
+
+        this.throttleMaxDelayMillis = properties.getInt(THROTTLE_MAX_DELAY_MILLIS);
+        if (this.throttleMaxDelayMillis <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    THROTTLE_MAX_DELAY_MILLIS, this.throttleMaxDelayMillis));
+        }
+
+        this.throttleMaxBatchingDelayMillis = properties.getInt(THROTTLE_MAX_BATCHING_DELAY_MILLIS);
+        if (this.throttleMaxBatchingDelayMillis < 0 || this.throttleMaxBatchingDelayMillis > this.throttleMaxDelayMillis) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a value between 0 and %d.",
+                    THROTTLE_MAX_BATCHING_DELAY_MILLIS, this.throttleMaxBatchingDelayMillis, this.throttleMaxDelayMillis));
+        }
+
+        this.throttleCacheUtilizationThresholdPercentage = properties.getInt(THROTTLE_CACHE_UTILIZATION_THRESHOLD);
+        if (this.throttleCacheUtilizationThresholdPercentage <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    THROTTLE_CACHE_UTILIZATION_THRESHOLD, this.throttleCacheUtilizationThresholdPercentage));
+        }
+
+        this.throttleCacheUtilizationMaxPercentage = properties.getInt(THROTTLE_CACHE_UTILIZATION_MAX);
+        if (this.throttleCacheUtilizationMaxPercentage <= this.throttleCacheUtilizationThresholdPercentage) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be larger than Property '%s' (%d).",
+                    THROTTLE_CACHE_UTILIZATION_MAX, this.throttleCacheUtilizationMaxPercentage,
+                    THROTTLE_CACHE_UTILIZATION_THRESHOLD, this.throttleCacheUtilizationThresholdPercentage));
+        }
+
+        this.throttleCacheUtilizationRampExponent = properties.getInt(THROTTLE_CACHE_UTILIZATION_RAMP_EXPONENT);
+        if (this.throttleCacheUtilizationRampExponent <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    THROTTLE_CACHE_UTILIZATION_RAMP_EXPONENT, this.throttleCacheUtilizationRampExponent));
+        }
+
+        this.throttleCommitBacklogThreshold = properties.getInt(THROTTLE_COMMIT_BACKLOG_THRESHOLD);
+        if (this.throttleCommitBacklogThreshold < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative integer.",
+                    THROTTLE_COMMIT_BACKLOG_THRESHOLD, this.throttleCommitBacklogThreshold));
+        }
+
+        this.throttleMillisPerCommitOverThreshold = properties.getInt(THROTTLE_MILLIS_PER_COMMIT_OVER_THRESHOLD);
+        if (this.throttleMillisPerCommitOverThreshold <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    THROTTLE_MILLIS_PER_COMMIT_OVER_THRESHOLD, this.throttleMillisPerCommitOverThreshold));
+        }
+
+        this.maxConcurrentRecoveries = properties.getInt(MAX_CONCURRENT_RECOVERIES);
+        if (this.maxConcurrentRecoveries <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    MAX_CONCURRENT_RECOVERIES, this.maxConcurrentRecoveries));
+        }
+
         int startRetryDelayMillis = properties.getInt(START_RETRY_DELAY_MILLIS);
         if (startRetryDelayMillis <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", START_RETRY_DELAY_MILLIS));
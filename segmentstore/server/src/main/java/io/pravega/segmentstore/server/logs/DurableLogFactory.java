@@ -25,6 +25,7 @@ public class DurableLogFactory implements OperationLogFactory {
     private final DurableDataLogFactory dataLogFactory;
     private final ScheduledExecutorService executor;
     private final DurableLogConfig config;
+    private final RecoveryScheduler recoveryScheduler;
 
     /**
      * Creates a new instance of the DurableLogFactory class.
@@ -40,10 +41,11 @@ public class DurableLogFactory implements OperationLogFactory {
         this.dataLogFactory = dataLogFactory;
         this.executor = executor;
         this.config = config;
+        this.recoveryScheduler = new RecoveryScheduler(config.getMaxConcurrentRecoveries());
     }
 
     @Override
     public OperationLog createDurableLog(UpdateableContainerMetadata containerMetadata, ReadIndex readIndex) {
-        return new DurableLog(config, containerMetadata, this.dataLogFactory, readIndex, this.executor);
+        return new DurableLog(config, containerMetadata, this.dataLogFactory, readIndex, this.recoveryScheduler, this.executor);
     }
 }
@@ -174,9 +174,15 @@ class MemoryStateUpdater implements CacheUtilizationProvider {
                 // log a warning indicating so. This means we do not optimize memory properly, and we end up storing data
                 // in two different places.
                 StreamSegmentAppendOperation appendOperation = (StreamSegmentAppendOperation) operation;
-                this.readIndex.append(appendOperation.getStreamSegmentId(),
-                        appendOperation.getStreamSegmentOffset(),
-                        appendOperation.getData());
+                try {
+                    this.readIndex.append(appendOperation.getStreamSegmentId(),
+                            appendOperation.getStreamSegmentOffset(),
+                            appendOperation.getData());
+                } finally {
+                    // The ReadIndex has made its own copy of the data; we can now release the buffer (the caller retained
+                    // it when the operation was created). This is a no-op for buffers that are not reference-counted.
+                    appendOperation.getData().release();
+                }
             } else if (operation instanceof MergeTransactionOperation) {
                 // Record a MergeTransactionOperation. We call beginMerge here, and the StorageWriter will call completeMerge.
                 MergeTransactionOperation mergeOperation = (MergeTransactionOperation) operation;
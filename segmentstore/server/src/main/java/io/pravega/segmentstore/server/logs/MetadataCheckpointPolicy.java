@@ -9,7 +9,9 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.time.Duration;
 import java.util.concurrent.Executor;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -24,18 +26,38 @@ import javax.annotation.concurrent.ThreadSafe;
  * <li> CheckpointCommitCountThreshold and CheckpointTotalCommitLengthThreshold: If neither of them is met (count or total
  * size), then no checkpointing is done.
  * </ul>
+ * If a CheckpointRecoveryTimeTarget is configured, the total size threshold is further capped to the amount of data that
+ * can be replayed within that time, based on the recovery rate estimated by a RecoveryRateEstimator:
+ * <ul>
+ * <li> The estimate is a moving average of the rates observed by all the recoveries reported to the RecoveryRateEstimator
+ * (which is shared by all the DurableLogs in this process), so no single slow (or fast) recovery determines it.
+ * <li> The threshold is re-evaluated whenever a Checkpoint is triggered (which is when the DurableDataLog may next be
+ * truncated) and whenever a recovery is recorded, so it follows the estimate in both directions.
+ * <li> The threshold never exceeds CheckpointTotalCommitLengthThreshold and never drops below 1/MAX_THRESHOLD_REDUCTION
+ * of it, since every Checkpoint serializes the entire Container Metadata and checkpointing too often would slow down
+ * every write.
+ * </ul>
  */
 @ThreadSafe
 public class MetadataCheckpointPolicy {
     // region Members
 
+    /**
+     * The maximum factor by which the recovery time target may reduce CheckpointTotalCommitLengthThreshold.
+     */
+    @VisibleForTesting
+    static final int MAX_THRESHOLD_REDUCTION = 16;
+
     private final DurableLogConfig config;
+    private final RecoveryRateEstimator recoveryRate;
     private final Runnable createCheckpointCallback;
     private final Executor executor;
     @GuardedBy("this")
     private int commitCount;
     @GuardedBy("this")
     private long accumulatedLength;
+    @GuardedBy("this")
+    private long lengthThreshold;
 
     //endregion
 
@@ -49,15 +71,31 @@ public class MetadataCheckpointPolicy {
      * @param executor                 An Executor to use to invoke the createCheckpointCallback.
      */
     public MetadataCheckpointPolicy(DurableLogConfig config, Runnable createCheckpointCallback, Executor executor) {
+        this(config, new RecoveryRateEstimator(), createCheckpointCallback, executor);
+    }
+
+    /**
+     * Creates a new instance of the MetadataCheckpointPolicy class.
+     *
+     * @param config                   The DurableLogConfig to use.
+     * @param recoveryRate             A RecoveryRateEstimator (possibly shared with other MetadataCheckpointPolicies) to
+     *                                 record recoveries to and estimate the recovery rate from.
+     * @param createCheckpointCallback A callback to invoke when a checkpoint needs to be created.
+     * @param executor                 An Executor to use to invoke the createCheckpointCallback.
+     */
+    MetadataCheckpointPolicy(DurableLogConfig config, RecoveryRateEstimator recoveryRate, Runnable createCheckpointCallback, Executor executor) {
         Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(recoveryRate, "recoveryRate");
         Preconditions.checkNotNull(createCheckpointCallback, "createCheckpointCallback");
         Preconditions.checkNotNull(executor, "executor");
 
         this.config = config;
+        this.recoveryRate = recoveryRate;
         this.createCheckpointCallback = createCheckpointCallback;
         this.executor = executor;
         this.commitCount = 0;
         this.accumulatedLength = 0;
+        this.lengthThreshold = calculateLengthThreshold();
     }
 
     //endregion
@@ -78,21 +116,59 @@ public class MetadataCheckpointPolicy {
 
         int minCount = this.config.getCheckpointMinCommitCount();
         int countThreshold = this.config.getCheckpointCommitCountThreshold();
-        long lengthThreshold = this.config.getCheckpointTotalCommitLengthThreshold();
-        if (this.commitCount >= minCount && (this.commitCount >= countThreshold || this.accumulatedLength >= lengthThreshold)) {
-            // Reset counters.
+        if (this.commitCount >= minCount && (this.commitCount >= countThreshold || this.accumulatedLength >= this.lengthThreshold)) {
+            // Reset counters and pick up any change in the estimated recovery rate.
             this.commitCount = 0;
             this.accumulatedLength = 0;
+            this.lengthThreshold = calculateLengthThreshold();
 
             // Invoke callback.
             this.executor.execute(this.createCheckpointCallback);
         }
     }
 
+    /**
+     * Records the outcome of a recovery. If a CheckpointRecoveryTimeTarget is configured, this is used to adjust the
+     * total length threshold so that replaying the data accumulated between two Checkpoints takes no longer than the
+     * target (see class-level Javadoc for limits).
+     *
+     * @param recoveredLength The total length of the data that was replayed during recovery.
+     * @param elapsed         The amount of time the recovery took.
+     */
+    public synchronized void recordRecovery(long recoveredLength, Duration elapsed) {
+        if (this.recoveryRate.record(recoveredLength, elapsed)) {
+            this.lengthThreshold = calculateLengthThreshold();
+        }
+    }
+
+    /**
+     * Gets the current total length threshold (in bytes) that would trigger a Checkpoint.
+     *
+     * @return The threshold.
+     */
+    public synchronized long getLengthThreshold() {
+        return this.lengthThreshold;
+    }
+
+    @GuardedBy("this")
+    private long calculateLengthThreshold() {
+        long configuredThreshold = this.config.getCheckpointTotalCommitLengthThreshold();
+        long targetMillis = this.config.getCheckpointRecoveryTimeTarget().toMillis();
+        double bytesPerMillisecond = this.recoveryRate.getBytesPerMillisecond();
+        if (targetMillis <= 0 || bytesPerMillisecond <= 0) {
+            // Either not enabled or no estimate yet.
+            return configuredThreshold;
+        }
+
+        long targetLength = (long) Math.min(bytesPerMillisecond * targetMillis, Long.MAX_VALUE);
+        long minThreshold = Math.max(1, configuredThreshold / MAX_THRESHOLD_REDUCTION);
+        return Math.max(minThreshold, Math.min(configuredThreshold, targetLength));
+    }
+
     @Override
     public String toString() {
         synchronized (this) {
-            return String.format("Count = %d/%d, Length = %d/%d", this.commitCount, this.config.getCheckpointCommitCountThreshold(), this.accumulatedLength, this.config.getCheckpointTotalCommitLengthThreshold());
+            return String.format("Count = %d/%d, Length = %d/%d", this.commitCount, this.config.getCheckpointCommitCountThreshold(), this.accumulatedLength, this.lengthThreshold);
         }
     }
 
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.logs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.Timer;
@@ -24,6 +25,7 @@ import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.CompletableOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationSerializer;
+import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
 import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import java.time.Duration;
@@ -31,12 +33,14 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -77,7 +81,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     //region Constructor
 
     /**
-     * Creates a new instance of the OperationProcessor class.
+     * Creates a new instance of the OperationProcessor class which does not compress DataFrames.
      *
      * @param metadata         The ContainerMetadata for the Container to process operations for.
      * @param stateUpdater     A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
@@ -87,18 +91,36 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
      * @throws NullPointerException If any of the arguments are null.
      */
     OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy, ScheduledExecutorService executor) {
+        this(metadata, stateUpdater, durableDataLog, checkpointPolicy, DurableLogConfig.builder().build(), executor);
+    }
+
+    /**
+     * Creates a new instance of the OperationProcessor class.
+     *
+     * @param metadata         The ContainerMetadata for the Container to process operations for.
+     * @param stateUpdater     A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
+     * @param durableDataLog   The DataFrameLog to write DataFrames to.
+     * @param checkpointPolicy The Checkpoint Policy for Metadata.
+     * @param config           The DurableLogConfig to use (for DataFrame compression and throttling settings).
+     * @param executor         An Executor to use for async operations.
+     * @throws NullPointerException If any of the arguments are null.
+     */
+    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog,
+                       MetadataCheckpointPolicy checkpointPolicy, DurableLogConfig config, ScheduledExecutorService executor) {
         super(String.format("OperationProcessor[%d]", metadata.getContainerId()), executor);
         Preconditions.checkNotNull(durableDataLog, "durableDataLog");
+        Preconditions.checkNotNull(config, "config");
         this.metadata = metadata;
         this.stateUpdater = Preconditions.checkNotNull(stateUpdater, "stateUpdater");
         this.metadataUpdater = new OperationMetadataUpdater(this.metadata);
         this.operationQueue = new BlockingDrainingQueue<>();
         this.commitQueue = new BlockingDrainingQueue<>();
         this.state = new QueueProcessingState(checkpointPolicy);
-        val args = new DataFrameBuilder.Args(this.state::frameSealed, this.state::commit, this.state::fail, this.executor);
+        val args = new DataFrameBuilder.Args(this.state::frameSealed, this.state::commit, this.state::fail, this.executor, config.getDataFrameCompressionLevel());
         this.dataFrameBuilder = new DataFrameBuilder<>(durableDataLog, OperationSerializer.DEFAULT, args);
         this.metrics = new SegmentStoreMetrics.OperationProcessor(this.metadata.getContainerId());
         this.throttlerCalculator = ThrottlerCalculator.builder()
+                                                      .config(config)
                                                       .cacheThrottler(stateUpdater::getCacheUtilization)
                                                       .commitBacklogThrottler(this.commitQueue::size)
                                                       .batchingThrottler(durableDataLog::getQueueStatistics)
@@ -136,8 +158,9 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                         this.executor)
                 .whenComplete((r, ex) -> {
                     // The CommitProcessor is done. Safe to close its queue now, regardless of whether it failed or
-                    // shut down normally.
-                    this.commitQueue.close();
+                    // shut down normally. Anything still in it has been acknowledged but will never make it into the
+                    // in-memory state, so we must release the buffers it holds.
+                    this.commitQueue.close().forEach(OperationProcessor::releaseBuffers);
                     if (ex != null) {
                         throw new CompletionException(ex);
                     }
@@ -234,22 +257,27 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         val delay = new AtomicReference<ThrottlerCalculator.DelayResult>(this.throttlerCalculator.getThrottlingDelay());
         if (!delay.get().isMaximum()) {
             // We are not delaying the maximum amount. We only need to do this once.
-            return throttleOnce(delay.get().getDurationMillis(), delay.get().isMaximum());
+            return throttleOnce(delay.get());
         } else {
             // The initial delay calculation indicated that we need to throttle to the maximum, which means there's
             // significant pressure. In order to protect downstream components, we need to run in a loop and delay as much
             // as needed until the pressure is relieved.
             return Futures.loop(
                     () -> !delay.get().isMaximum(),
-                    () -> throttleOnce(delay.get().getDurationMillis(), delay.get().isMaximum())
+                    () -> throttleOnce(delay.get())
                             .thenRun(() -> delay.set(this.throttlerCalculator.getThrottlingDelay())),
                     this.executor);
         }
     }
 
-    private CompletableFuture<Void> throttleOnce(int millis, boolean max) {
+    private CompletableFuture<Void> throttleOnce(ThrottlerCalculator.DelayResult delay) {
+        int millis = delay.getDurationMillis();
         this.metrics.processingDelay(millis);
-        log.debug("{}: Processing delay = {}ms (max={}).", this.traceObjectId, millis, max);
+        if (delay.getThrottlerName() != null) {
+            this.metrics.throttlerDelay(delay.getThrottlerName().toString(), millis);
+        }
+
+        log.debug("{}: Processing delay = {}ms (max={}, throttler={}).", this.traceObjectId, millis, delay.isMaximum(), delay.getThrottlerName());
         return Futures.delayedFuture(Duration.ofMillis(millis), this.executor);
     }
 
@@ -281,7 +309,6 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                     this.metrics.operationQueueWaitTime(o.getTimer().getElapsedMillis());
                     try {
                         processOperation(o);
-                        this.state.addPending(o);
                         count++;
                     } catch (Throwable ex) {
                         ex = Exceptions.unwrap(ex);
@@ -355,6 +382,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         Operation entry = operation.getOperation();
         if (!entry.canSerialize()) {
             // This operation cannot be serialized, so don't bother doing anything with it.
+            this.state.addPending(operation);
             return;
         }
 
@@ -367,6 +395,9 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
             entry.setSequenceNumber(this.metadataUpdater.nextOperationSequenceNumber());
             this.dataFrameBuilder.append(entry);
             this.metadataUpdater.acceptOperation(entry);
+
+            // Register it as pending while we still hold the lock (rather than re-acquiring it for this purpose).
+            this.state.addPending(operation);
         }
 
         log.trace("{}: DataFrameBuilder.Append {}.", this.traceObjectId, entry);
@@ -418,9 +449,11 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     }
 
     private void processCommits(Collection<List<CompletableOperation>> items) {
+        Iterator<CompletableOperation> toProcess = null;
         try {
             do {
-                this.stateUpdater.process(items.stream().flatMap(List::stream).map(CompletableOperation::getOperation).iterator());
+                toProcess = items.stream().flatMap(List::stream).iterator();
+                this.stateUpdater.process(Iterators.transform(toProcess, CompletableOperation::getOperation));
                 items = this.commitQueue.poll(MAX_COMMIT_QUEUE_SIZE);
             } while (!items.isEmpty());
         } catch (Throwable ex) {
@@ -428,6 +461,11 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
             // throws something else (i.e. NullPtr), we still need to handle it.
             log.error("{}: MemoryStateUpdater.process failure.", traceObjectId, ex);
 
+            // Whatever the MemoryStateUpdater did not get to is dropped; release any buffers those operations hold.
+            if (toProcess != null) {
+                toProcess.forEachRemaining(OperationProcessor::releaseBuffer);
+            }
+
             // Then fail the remaining operations (which also handles fatal errors) and bail out.
             if (isFatalException(ex)) {
                 Callbacks.invokeSafely(OperationProcessor.this::errorHandler, ex, null);
@@ -435,6 +473,20 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         }
     }
 
+    /**
+     * Releases the data buffers held by the given operations, which have been acknowledged (so their callers will not
+     * release them) but which will never be added to the in-memory state (which would otherwise have released them).
+     */
+    private static void releaseBuffers(List<CompletableOperation> operations) {
+        operations.forEach(OperationProcessor::releaseBuffer);
+    }
+
+    private static void releaseBuffer(CompletableOperation operation) {
+        if (operation.getOperation() instanceof StreamSegmentAppendOperation) {
+            ((StreamSegmentAppendOperation) operation.getOperation()).getData().release();
+        }
+    }
+
     //endregion
 
     //region QueueProcessingState
@@ -448,8 +500,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     private class QueueProcessingState {
         @GuardedBy("stateLock")
         private ArrayList<CompletableOperation> nextFrameOperations;
-        @GuardedBy("stateLock")
-        private int pendingOperationCount;
+        private final AtomicInteger pendingOperationCount;
         private final MetadataCheckpointPolicy checkpointPolicy;
         @GuardedBy("stateLock")
         private final ArrayDeque<DataFrameBuilder.CommitArgs> metadataTransactions;
@@ -461,7 +512,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
             this.nextFrameOperations = new ArrayList<>();
             this.metadataTransactions = new ArrayDeque<>();
             this.highestCommittedDataFrame = -1;
-            this.pendingOperationCount = 0;
+            this.pendingOperationCount = new AtomicInteger();
         }
 
         /**
@@ -476,7 +527,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                     autoComplete = true;
                 } else {
                     this.nextFrameOperations.add(operation);
-                    this.pendingOperationCount++;
+                    this.pendingOperationCount.incrementAndGet();
                 }
             }
 
@@ -491,9 +542,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
          * @return The count.
          */
         int getPendingCount() {
-            synchronized (stateLock) {
-                return this.pendingOperationCount;
-            }
+            return this.pendingOperationCount.get();
         }
 
         /**
@@ -511,6 +560,12 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                 this.nextFrameOperations = new ArrayList<>();
                 this.metadataTransactions.addLast(commitArgs);
             }
+
+            if (!commitArgs.getCompressionElapsed().isZero()) {
+                // We attempted to compress this DataFrame.
+                OperationProcessor.this.metrics.dataFrameCompressed(commitArgs.getUncompressedDataFrameLength(),
+                        commitArgs.getDataFrameLength(), commitArgs.getCompressionElapsed());
+            }
         }
 
         /**
@@ -557,7 +612,16 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                     int updateTxnCommitCount = OperationProcessor.this.metadataUpdater.commit(commitArgs.getMetadataTransactionId());
 
                     // Commit operations to memory. Note that this will block synchronously if the Commit Queue is full (until it clears up).
-                    toAck.forEach(OperationProcessor.this.commitQueue::add);
+                    // These operations will be completed successfully regardless, so if the Commit Queue has been closed
+                    // in the meantime, we are the last ones holding their buffers and need to release them.
+                    for (int i = 0; i < toAck.size(); i++) {
+                        try {
+                            OperationProcessor.this.commitQueue.add(toAck.get(i));
+                        } catch (Throwable ex) {
+                            toAck.subList(i, toAck.size()).forEach(OperationProcessor::releaseBuffers);
+                            throw ex;
+                        }
+                    }
 
                     this.highestCommittedDataFrame = addressSequence;
                     metrics.memoryCommit(updateTxnCommitCount, memoryCommitTimer.getElapsed());
@@ -589,7 +653,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
             try {
                 synchronized (stateLock) {
                     toFail = collectFailureCandidates(commitArgs);
-                    this.pendingOperationCount -= toFail.size();
+                    this.pendingOperationCount.addAndGet(-toFail.size());
                 }
             } finally {
                 if (toFail != null) {
@@ -613,11 +677,9 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
          *                     the general stopException is set, in which case that takes precedence.
          */
         void failOperation(CompletableOperation operation, Throwable failureCause) {
-            synchronized (stateLock) {
-                Throwable stopException = OperationProcessor.this.getStopException();
-                if (stopException != null) {
-                    failureCause = stopException;
-                }
+            Throwable stopException = OperationProcessor.this.getStopException();
+            if (stopException != null) {
+                failureCause = stopException;
             }
 
             operation.fail(failureCause);
@@ -641,7 +703,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                 checkpointExists |= t.getMetadataTransactionId() == transactionId;
                 if (t.getOperations().size() > 0) {
                     toAck.add(t.getOperations());
-                    this.pendingOperationCount -= t.getOperations().size();
+                    this.pendingOperationCount.addAndGet(-t.getOperations().size());
                 }
             }
 
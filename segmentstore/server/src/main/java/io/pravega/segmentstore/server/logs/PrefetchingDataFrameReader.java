@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.SequencedItemList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps a DataFrameRecord iterator (such as a DataFrameReader) and reads from it in the background, ahead of the consumer.
+ * This allows the consumer to process DataFrameRecords while subsequent ones are being read from the DurableDataLog and
+ * deserialized. At most a fixed number of DataFrameRecords are buffered at any given time.
+ * <p>
+ * The wrapped iterator is only read from the background task, and it is closed when that task completes or when this
+ * reader is closed (whichever comes first); closing it also fails any read the background task may be blocked on. This
+ * task runs on its own (daemon) thread: it blocks while the buffer is full and the wrapped reader itself may block on
+ * I/O, so running it on a shared executor could starve (or deadlock) recovery if the consumer happens to run on that
+ * executor too. close() waits for this thread to finish, so nothing touches the wrapped reader once it returns.
+ *
+ * @param <T> Type of the items in the DataFrameRecords.
+ */
+@Slf4j
+@ThreadSafe
+class PrefetchingDataFrameReader<T extends SequencedItemList.Element> implements CloseableIterator<DataFrameRecord<T>, Exception> {
+    //region Members
+
+    private static final ThreadFactory THREAD_FACTORY = ExecutorServiceHelpers.getThreadFactory("recovery-prefetch");
+    private final CloseableIterator<DataFrameRecord<T>, Exception> reader;
+    private final BlockingQueue<Item<T>> items;
+    private final AtomicBoolean closed;
+    private final AtomicBoolean readerClosed;
+    private final String traceObjectId;
+    private final Thread readThread;
+    private boolean reachedEnd;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the PrefetchingDataFrameReader class and begins reading in the background.
+     *
+     * @param reader        The iterator to read DataFrameRecords from.
+     * @param capacity      The maximum number of DataFrameRecords to read ahead.
+     * @param traceObjectId An identifier to use for logging.
+     */
+    PrefetchingDataFrameReader(CloseableIterator<DataFrameRecord<T>, Exception> reader, int capacity, String traceObjectId) {
+        Preconditions.checkNotNull(reader, "reader");
+        Preconditions.checkArgument(capacity > 0, "capacity must be a positive integer.");
+        this.reader = reader;
+        this.items = new ArrayBlockingQueue<>(capacity);
+        this.closed = new AtomicBoolean();
+        this.readerClosed = new AtomicBoolean();
+        this.traceObjectId = traceObjectId;
+        this.readThread = THREAD_FACTORY.newThread(this::readAll);
+        this.readThread.start();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            // Closing the wrapped reader fails any read that the background task may be blocked on, while interrupting
+            // it (and making room in the queue) unblocks it if it is waiting to queue an item.
+            closeReader();
+            this.readThread.interrupt();
+            this.items.clear();
+            boolean interrupted = false;
+            while (this.readThread.isAlive()) {
+                try {
+                    this.readThread.join();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Unblock any concurrent getNext() call; it will find that we are closed.
+            this.items.clear();
+            this.items.offer(new Item<>(null, null));
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    /**
+     * Returns the next DataFrameRecord, waiting for it to be read if necessary.
+     *
+     * @return The next DataFrameRecord, or null if the end has been reached.
+     * @throws Exception If the wrapped reader failed; this exception is rethrown here, after which this reader is closed.
+     */
+    @Override
+    public DataFrameRecord<T> getNext() throws Exception {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (this.reachedEnd) {
+            return null;
+        }
+
+        // The background task always queues a final Item (the end or a failure) unless we are closed, in which case
+        // close() queues one for us.
+        Item<T> item = this.items.take();
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (item.failure != null) {
+            close();
+            if (item.failure instanceof Exception) {
+                throw (Exception) item.failure;
+            }
+
+            throw (Error) item.failure;
+        }
+
+        this.reachedEnd = item.record == null;
+        return item.record;
+    }
+
+    //endregion
+
+    //region Background Reading
+
+    private void readAll() {
+        try {
+            DataFrameRecord<T> record;
+            do {
+                record = this.reader.getNext();
+            } while (put(new Item<>(record, null)) && record != null);
+        } catch (Throwable ex) {
+            log.debug("{}: Background read failed.", this.traceObjectId, ex);
+            put(new Item<>(null, ex));
+        } finally {
+            closeReader();
+        }
+    }
+
+    private void closeReader() {
+        if (!this.readerClosed.getAndSet(true)) {
+            this.reader.close();
+        }
+    }
+
+    /**
+     * Queues the given Item, waiting for space to become available, unless this reader is closed.
+     *
+     * @param item The Item to queue.
+     * @return True if the Item was queued, false otherwise.
+     */
+    private boolean put(Item<T> item) {
+        if (this.closed.get()) {
+            return false;
+        }
+
+        try {
+            // close() interrupts us if we are blocked here.
+            this.items.put(item);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    //endregion
+
+    //region Item
+
+    /**
+     * Either a DataFrameRecord (null indicating the end) or a failure.
+     */
+    private static class Item<T extends SequencedItemList.Element> {
+        private final DataFrameRecord<T> record;
+        private final Throwable failure;
+
+        Item(DataFrameRecord<T> record, Throwable failure) {
+            this.record = record;
+            this.failure = failure;
+        }
+    }
+
+    //endregion
+}
@@ -15,6 +15,7 @@ import io.pravega.common.Timer;
 import io.pravega.segmentstore.contracts.ContainerException;
 import io.pravega.segmentstore.contracts.StreamSegmentException;
 import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
@@ -25,15 +26,29 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Helper class (for the DurableLog) that is used to execute the recovery process.
+ * <p>
+ * Reading from the DurableDataLog and deserializing DataFrameRecords happens in the background (see
+ * PrefetchingDataFrameReader), while the recovered Operations are applied (sequentially) to the metadata and other
+ * in-memory structures.
  */
 @Slf4j
 class RecoveryProcessor {
     //region Members
 
+    /**
+     * The maximum number of DataFrameRecords to read ahead of the one being recovered.
+     */
+    private static final int READ_AHEAD_RECORD_COUNT = 128;
+    /**
+     * Recovery progress is reported every time this many bytes have been replayed.
+     */
+    private static final long PROGRESS_REPORT_LENGTH = 32 * 1024 * 1024;
     private final UpdateableContainerMetadata metadata;
     private final DurableDataLog durableDataLog;
     private final MemoryStateUpdater stateUpdater;
+    private final SegmentStoreMetrics.OperationProcessor metrics;
     private final String traceObjectId;
+    private long recoveredLength;
 
     //endregion
 
@@ -45,11 +60,14 @@ class RecoveryProcessor {
      * @param metadata         The UpdateableContainerMetadata to use for recovery.
      * @param durableDataLog   The (uninitialized) DurableDataLog to read data from for recovery.
      * @param stateUpdater     A MemoryStateUpdater that can be used to apply the recovered operations.
+     * @param metrics          The metrics to report the recovery progress to.
      */
-    RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater) {
+    RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater,
+                      SegmentStoreMetrics.OperationProcessor metrics) {
         this.metadata = Preconditions.checkNotNull(metadata, "metadata");
         this.durableDataLog = Preconditions.checkNotNull(durableDataLog, "durableDataLog");
         this.stateUpdater = Preconditions.checkNotNull(stateUpdater, "stateUpdater");
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
         this.traceObjectId = String.format("RecoveryProcessor[%s]", this.metadata.getContainerId());
     }
 
@@ -57,6 +75,16 @@ class RecoveryProcessor {
 
     //region Operations
 
+    /**
+     * Gets a value indicating the total length of the DataFrame entries (serialized Operations) that were replayed during
+     * the last call to performRecovery().
+     *
+     * @return The recovered length, in bytes.
+     */
+    public long getRecoveredLength() {
+        return this.recoveredLength;
+    }
+
     /**
      * Executes a DurableLog recovery using data from DurableDataLog. During this process, the following will happen:
      * 1. Metadata will be reset and put into recovery mode.
@@ -120,10 +148,13 @@ class RecoveryProcessor {
         int skippedOperationCount = 0;
         int skippedDataFramesCount = 0;
         int recoveredItemCount = 0;
+        this.recoveredLength = 0;
 
         // Read all entries from the DataFrameLog and append them to the InMemoryOperationLog.
-        // Also update metadata along the way.
-        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT, this.metadata.getContainerId())) {
+        // Also update metadata along the way. Reading and deserialization happen in the background, ahead of this loop.
+        DataFrameReader<Operation> dataFrameReader = new DataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT, this.metadata.getContainerId());
+        try (PrefetchingDataFrameReader<Operation> reader = new PrefetchingDataFrameReader<>(dataFrameReader, READ_AHEAD_RECORD_COUNT,
+                this.traceObjectId)) {
             DataFrameRecord<Operation> dataFrameRecord;
 
             // We can only recover starting from a MetadataCheckpointOperation; find the first one.
@@ -150,14 +181,24 @@ class RecoveryProcessor {
             }
 
             // Now continue with the recovery from here.
+            Timer timer = new Timer();
+            long nextProgressReport = PROGRESS_REPORT_LENGTH;
+            this.metrics.recoveryProgress(0);
             while (dataFrameRecord != null) {
                 recordTruncationMarker(dataFrameRecord);
                 recoverOperation(dataFrameRecord, metadataUpdater);
                 recoveredItemCount++;
+                this.recoveredLength += dataFrameRecord.getFrameEntries().stream().mapToInt(DataFrameRecord.EntryInfo::getLength).sum();
+                if (this.recoveredLength >= nextProgressReport) {
+                    reportProgress(recoveredItemCount, timer);
+                    nextProgressReport = this.recoveredLength + PROGRESS_REPORT_LENGTH;
+                }
 
                 // Fetch the next operation.
                 dataFrameRecord = reader.getNext();
             }
+
+            this.metrics.recoveryProgress(this.recoveredLength);
         }
 
         // Commit whatever changes we have in the metadata updater to the Container Metadata.
@@ -167,6 +208,12 @@ class RecoveryProcessor {
         return recoveredItemCount;
     }
 
+    private void reportProgress(int recoveredItemCount, Timer timer) {
+        this.metrics.recoveryProgress(this.recoveredLength);
+        log.info("{}: Recovered {} Operations ({} bytes) in {}ms.", this.traceObjectId, recoveredItemCount, this.recoveredLength,
+                timer.getElapsedMillis());
+    }
+
     protected void recoverOperation(DataFrameRecord<Operation> dataFrameRecord, OperationMetadataUpdater metadataUpdater) throws DataCorruptionException {
         // Update Metadata Sequence Number.
         Operation operation = dataFrameRecord.getItem();
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.ExponentialMovingAverage;
+import java.time.Duration;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Keeps a moving average of the rate at which DurableLog recoveries replay their DurableDataLogs. A single instance is
+ * shared by all the DurableLogs created by the same DurableLogFactory (through their RecoveryScheduler), so every
+ * recovery executed by this process contributes a sample, and no single (possibly unrepresentative) recovery determines
+ * the estimate on its own.
+ */
+@ThreadSafe
+class RecoveryRateEstimator {
+    //region Members
+
+    /**
+     * Recoveries that replayed less than this much data are dominated by fixed costs and not used to estimate the
+     * recovery rate.
+     */
+    static final long MIN_SAMPLE_LENGTH = 1024 * 1024;
+    private static final double NEW_SAMPLE_WEIGHT = 0.3;
+    @GuardedBy("this")
+    private ExponentialMovingAverage bytesPerMillisecond;
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records the outcome of a recovery.
+     *
+     * @param recoveredLength The total length of the data that was replayed during recovery.
+     * @param elapsed         The amount of time the recovery took.
+     * @return True if the recovery was used as a sample, false if it was too small to make a meaningful estimate.
+     */
+    synchronized boolean record(long recoveredLength, Duration elapsed) {
+        if (recoveredLength < MIN_SAMPLE_LENGTH || elapsed.toMillis() <= 0) {
+            return false;
+        }
+
+        double sample = (double) recoveredLength / elapsed.toMillis();
+        if (this.bytesPerMillisecond == null) {
+            this.bytesPerMillisecond = new ExponentialMovingAverage(sample, NEW_SAMPLE_WEIGHT, false);
+        } else {
+            this.bytesPerMillisecond.addNewSample(sample);
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the current estimate of the recovery rate.
+     *
+     * @return The number of bytes that can be replayed per millisecond, or 0 if no recovery has been recorded yet.
+     */
+    synchronized double getBytesPerMillisecond() {
+        return this.bytesPerMillisecond == null ? 0 : this.bytesPerMillisecond.getCurrentValue();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BytesPerMillisecond = %.1f", getBytesPerMillisecond());
+    }
+
+    //endregion
+}
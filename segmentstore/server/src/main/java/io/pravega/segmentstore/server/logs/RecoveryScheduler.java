@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Timer;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits the number of DurableLog recoveries that may execute concurrently.
+ * <p>
+ * Each recovery reads its entire DurableDataLog (from the last Checkpoint onwards) and applies the recovered Operations,
+ * keeping two threads busy for its whole duration. When a Segment Store instance restarts, all its Containers begin their
+ * recoveries at about the same time; if all of them were allowed to run at once, they would compete for the same
+ * DurableDataLog read bandwidth and threads, and every one of them would take longer than if they ran in sequence.
+ * Recoveries that exceed the limit are queued and executed in the order in which they were requested.
+ * <p>
+ * Since it is shared by all the DurableLogs of a Segment Store instance, it also holds the RecoveryRateEstimator they
+ * report their recoveries to.
+ */
+@Slf4j
+@ThreadSafe
+class RecoveryScheduler {
+    //region Members
+
+    /**
+     * A RecoveryScheduler that does not limit the number of concurrent recoveries.
+     */
+    static final RecoveryScheduler UNBOUNDED = new RecoveryScheduler(Integer.MAX_VALUE);
+    private final int maxConcurrentRecoveries;
+    @GuardedBy("this")
+    private final Queue<CompletableFuture<Void>> pendingRecoveries;
+    @GuardedBy("this")
+    private int activeCount;
+    private final SegmentStoreMetrics.RecoveryScheduler metrics;
+    /**
+     * The estimated rate at which recoveries replay their DurableDataLogs.
+     */
+    @Getter
+    private final RecoveryRateEstimator recoveryRate;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the RecoveryScheduler class.
+     *
+     * @param maxConcurrentRecoveries The maximum number of recoveries that may execute at the same time.
+     */
+    RecoveryScheduler(int maxConcurrentRecoveries) {
+        Preconditions.checkArgument(maxConcurrentRecoveries > 0, "maxConcurrentRecoveries must be a positive integer.");
+        this.maxConcurrentRecoveries = maxConcurrentRecoveries;
+        this.pendingRecoveries = new ArrayDeque<>();
+        this.metrics = new SegmentStoreMetrics.RecoveryScheduler();
+        this.recoveryRate = new RecoveryRateEstimator();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Executes the given recovery once there are fewer than MaxConcurrentRecoveries recoveries executing.
+     *
+     * @param recovery      A Supplier that, when invoked, begins the recovery and returns a CompletableFuture that will be
+     *                      completed when the recovery is done.
+     * @param executor      An Executor to begin the recovery on.
+     * @param traceObjectId An identifier to use for logging.
+     * @param <T>           Return type of the recovery.
+     * @return A CompletableFuture that will be completed with the result of the recovery.
+     */
+    <T> CompletableFuture<T> schedule(Supplier<CompletableFuture<T>> recovery, Executor executor, String traceObjectId) {
+        Timer timer = new Timer();
+        CompletableFuture<Void> turn = acquire();
+        if (!turn.isDone()) {
+            log.info("{}: Recovery queued; {} recoveries already in progress.", traceObjectId, this.maxConcurrentRecoveries);
+        }
+
+        CompletableFuture<T> result = turn.thenComposeAsync(v -> {
+            this.metrics.recoveryStarted(timer.getElapsed());
+            return recovery.get();
+        }, executor);
+        result.whenComplete((r, ex) -> release());
+        return result;
+    }
+
+    /**
+     * Gets the number of recoveries that are currently executing.
+     *
+     * @return The number of active recoveries.
+     */
+    synchronized int getActiveCount() {
+        return this.activeCount;
+    }
+
+    /**
+     * Gets the number of recoveries that are waiting for their turn to execute.
+     *
+     * @return The number of pending recoveries.
+     */
+    synchronized int getPendingCount() {
+        return this.pendingRecoveries.size();
+    }
+
+    private CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> result;
+        synchronized (this) {
+            if (this.activeCount < this.maxConcurrentRecoveries) {
+                this.activeCount++;
+                result = CompletableFuture.completedFuture(null);
+            } else {
+                result = new CompletableFuture<>();
+                this.pendingRecoveries.add(result);
+            }
+
+            this.metrics.currentState(this.pendingRecoveries.size(), this.activeCount);
+        }
+
+        return result;
+    }
+
+    private void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            // If there is a pending recovery, it takes over the slot we just released. Otherwise there is one fewer
+            // recovery executing.
+            next = this.pendingRecoveries.poll();
+            if (next == null) {
+                this.activeCount--;
+            }
+
+            this.metrics.currentState(this.pendingRecoveries.size(), this.activeCount);
+        }
+
+        if (next != null) {
+            // Complete outside of the lock; the recovery is begun on its own executor.
+            next.complete(null);
+        }
+    }
+
+    //endregion
+}
@@ -29,10 +29,13 @@ import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperati
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentSealOperation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentTruncateOperation;
 import io.pravega.segmentstore.server.logs.operations.UpdateAttributesOperation;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
@@ -45,7 +48,23 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
     //region Members
 
     private final boolean recoveryMode;
+    /**
+     * The SegmentMetadata that holds the values of all Attributes that have not been accessed in this transaction. Its
+     * in-memory Attributes may be loaded or evicted concurrently, which does not change their (logical) values.
+     */
+    private final SegmentMetadata attributeBase;
+    /**
+     * The values of the Attributes that have been accessed in this transaction, as they were in attributeBase at the
+     * time (NULL_ATTRIBUTE_VALUE for those that had no value). These do not change for the lifetime of the transaction,
+     * even if attributeBase does. We only keep track of these, instead of a full copy of the base Attributes, since a
+     * Segment may have a large number of Attributes.
+     */
+    private final Map<UUID, Long> baseAttributeValues;
+    /**
+     * Attributes that have been changed in this transaction (NULL_ATTRIBUTE_VALUE for removed ones).
+     */
     private final Map<UUID, Long> attributeValues;
+    private final Map<UUID, Long> attributesView;
     @Getter
     private final long id;
     @Getter
@@ -96,7 +115,20 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         this.sealedInStorage = baseMetadata.isSealedInStorage();
         this.merged = baseMetadata.isMerged();
         this.deleted = baseMetadata.isDeleted();
-        this.attributeValues = new HashMap<>(baseMetadata.getAttributes());
+        if (baseMetadata instanceof SegmentMetadataUpdateTransaction) {
+            // Do not chain transactions; take over the changes of the base transaction and use its base for everything
+            // else. Otherwise we would have to traverse an ever-growing chain for every Attribute lookup.
+            SegmentMetadataUpdateTransaction baseTransaction = (SegmentMetadataUpdateTransaction) baseMetadata;
+            this.attributeBase = baseTransaction.attributeBase;
+            this.baseAttributeValues = new HashMap<>(baseTransaction.baseAttributeValues);
+            this.attributeValues = new HashMap<>(baseTransaction.attributeValues);
+        } else {
+            this.attributeBase = baseMetadata;
+            this.baseAttributeValues = new HashMap<>();
+            this.attributeValues = new HashMap<>();
+        }
+
+        this.attributesView = new AttributesView();
         this.lastUsed = baseMetadata.getLastUsed();
     }
 
@@ -126,7 +158,20 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
 
     @Override
     public Map<UUID, Long> getAttributes() {
-        return Collections.unmodifiableMap(this.attributeValues);
+        return this.attributesView;
+    }
+
+    @Override
+    public Map<UUID, Long> getAttributesWithRemovals() {
+        Map<UUID, Long> result = new HashMap<>(this.attributeBase.getAttributesWithRemovals());
+        this.baseAttributeValues.forEach((attributeId, value) -> {
+            if (value != SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                result.put(attributeId, value);
+            }
+        });
+
+        result.putAll(this.attributeValues);
+        return Collections.unmodifiableMap(result);
     }
 
     //endregion
@@ -178,8 +223,14 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
 
     @Override
     public void updateAttributes(Map<UUID, Long> attributeValues) {
-        this.attributeValues.clear();
-        this.attributeValues.putAll(attributeValues);
+        // This replaces all the Attributes, so any existing ones that are not in the given map need to be removed.
+        for (UUID attributeId : new ArrayList<>(this.attributesView.keySet())) {
+            if (!attributeValues.containsKey(attributeId)) {
+                setAttributeValue(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+            }
+        }
+
+        attributeValues.forEach(this::setAttributeValue);
         this.isChanged = true;
     }
 
@@ -412,10 +463,11 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
             return;
         }
 
-        int newAttributeCount = this.attributeValues.size();
+        int attributeCount = getAttributeCount();
+        int newAttributeCount = attributeCount;
         for (AttributeUpdate u : attributeUpdates) {
             AttributeUpdateType updateType = u.getUpdateType();
-            long previousValue = this.attributeValues.getOrDefault(u.getAttributeId(), SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+            long previousValue = getAttributeValue(u.getAttributeId());
 
             // Perform validation, and set the AttributeUpdate.value to the updated value, if necessary.
             switch (updateType) {
@@ -466,7 +518,7 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
             }
         }
 
-        if (newAttributeCount > SegmentMetadata.MAXIMUM_ATTRIBUTE_COUNT && newAttributeCount > this.attributeValues.size()) {
+        if (newAttributeCount > SegmentMetadata.MAXIMUM_ATTRIBUTE_COUNT && newAttributeCount > attributeCount) {
             // We only want to prevent exceeding the max attribute count if the number of attributes increased. Should
             // we ever want to decrease this limit in the future, we need to make sure that we can still remove/replace
             // attributes of existing segments, but not increase their count.
@@ -493,7 +545,7 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
                             this.length, operation.getStreamSegmentOffset()));
         }
 
-        this.length += operation.getData().length;
+        this.length += operation.getData().getLength();
         acceptAttributes(operation.getAttributeUpdates());
         this.isChanged = true;
     }
@@ -527,11 +579,11 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         this.sealed = true;
 
         // Clear all dynamic attributes.
-        this.attributeValues.entrySet().forEach(e -> {
-            if (Attributes.isDynamic(e.getKey())) {
-                e.setValue(SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+        for (UUID attributeId : new ArrayList<>(this.attributesView.keySet())) {
+            if (Attributes.isDynamic(attributeId)) {
+                setAttributeValue(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
             }
-        });
+        }
 
         this.isChanged = true;
     }
@@ -600,8 +652,59 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         }
 
         for (AttributeUpdate au : attributeUpdates) {
-            this.attributeValues.put(au.getAttributeId(), au.getValue());
+            setAttributeValue(au.getAttributeId(), au.getValue());
+        }
+    }
+
+    /**
+     * Gets the current value of the given Attribute, as seen by this transaction.
+     *
+     * @param attributeId The Id of the Attribute.
+     * @return The value, or NULL_ATTRIBUTE_VALUE if the Attribute does not have a value.
+     */
+    private long getAttributeValue(UUID attributeId) {
+        Long value = this.attributeValues.get(attributeId);
+        return value == null ? getBaseAttributeValue(attributeId) : value;
+    }
+
+    /**
+     * Gets the value of the given Attribute in attributeBase, as of the first time it was accessed in this transaction.
+     */
+    private long getBaseAttributeValue(UUID attributeId) {
+        return this.baseAttributeValues.computeIfAbsent(attributeId,
+                id -> this.attributeBase.getAttributes().getOrDefault(id, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+    }
+
+    /**
+     * Records a change to the given Attribute.
+     *
+     * @param attributeId The Id of the Attribute.
+     * @param value       The new value, or NULL_ATTRIBUTE_VALUE if the Attribute is to be removed.
+     */
+    private void setAttributeValue(UUID attributeId, long value) {
+        getBaseAttributeValue(attributeId);
+        this.attributeValues.put(attributeId, value);
+    }
+
+    /**
+     * Gets the number of Attributes, as seen by this transaction: those currently in attributeBase, adjusted for the
+     * ones that have been accessed in this transaction. This is consistent with AttributesView.entrySet(), and it only
+     * iterates over the accessed Attributes.
+     */
+    private int getAttributeCount() {
+        Map<UUID, Long> base = this.attributeBase.getAttributes();
+        int count = base.size();
+        for (UUID attributeId : this.baseAttributeValues.keySet()) {
+            if (base.containsKey(attributeId)) {
+                count--;
+            }
+
+            if (getAttributeValue(attributeId) != SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                count++;
+            }
         }
+
+        return count;
     }
 
     //endregion
@@ -674,4 +777,49 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
     }
 
     //endregion
+
+    //region AttributesView
+
+    /**
+     * Read-only view of the Attributes of this transaction (base Attributes overlaid with the changes). Lookups are
+     * cheap; enumerating the entries requires a merge and should be done sparingly.
+     */
+    private class AttributesView extends AbstractMap<UUID, Long> {
+        @Override
+        public Long get(Object key) {
+            if (!(key instanceof UUID)) {
+                return null;
+            }
+
+            long value = getAttributeValue((UUID) key);
+            return value == SegmentMetadata.NULL_ATTRIBUTE_VALUE ? null : value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return getAttributeCount();
+        }
+
+        @Override
+        public Set<Entry<UUID, Long>> entrySet() {
+            Map<UUID, Long> result = new HashMap<>(attributeBase.getAttributes());
+            baseAttributeValues.keySet().forEach(attributeId -> {
+                long value = getAttributeValue(attributeId);
+                if (value == SegmentMetadata.NULL_ATTRIBUTE_VALUE) {
+                    result.remove(attributeId);
+                } else {
+                    result.put(attributeId, value);
+                }
+            });
+
+            return Collections.unmodifiableMap(result).entrySet();
+        }
+    }
+
+    //endregion
 }
@@ -9,15 +9,16 @@
  */
 package io.pravega.segmentstore.server.logs;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.pravega.common.MathHelpers;
 import io.pravega.segmentstore.storage.QueueStats;
 import java.util.List;
 import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Singular;
 
@@ -30,34 +31,8 @@ import lombok.Singular;
 class ThrottlerCalculator {
     //region Members
 
-    /**
-     * Maximum delay (millis) we are willing to introduce in order to perform batching.
-     */
-    @VisibleForTesting
-    static final int MAX_BATCHING_DELAY_MILLIS = 50;
-    /**
-     * Maximum delay (millis) we are willing to introduce in order to throttle the incoming operations.
-     */
-    @VisibleForTesting
-    static final int MAX_DELAY_MILLIS = 10000;
-    /**
-     * Amount of time (millis) to increase throttling by for each percentage point increase in the cache utilization (above 100%).
-     */
-    @VisibleForTesting
-    static final int THROTTLING_MILLIS_PER_PERCENT_OVER_LIMIT = 100;
-
-    /**
-     * Number of items in the Commit Backlog above which throttling will apply.
-     */
-    @VisibleForTesting
-    static final int COMMIT_BACKLOG_COUNT_THRESHOLD = 300;
-
-    /**
-     * Amount of time (millis) to increase throttling by for each incremental increase of the Commit Queue, over the threshold.
-     */
-    @VisibleForTesting
-    static final int THROTTLING_MILLIS_PER_COMMIT_OVER_LIMIT = 4;
-
+    @NonNull
+    private final DurableLogConfig config;
     @Singular
     private final List<Throttler> throttlers;
 
@@ -72,7 +47,7 @@ class ThrottlerCalculator {
      */
     boolean isThrottlingRequired() {
         for (Throttler t : this.throttlers) {
-            if (t.isThrottlingRequired()) {
+            if (t.isThrottlingRequired(this.config)) {
                 return true;
             }
         }
@@ -92,20 +67,25 @@ class ThrottlerCalculator {
         // These delays are not additive. There's no benefit to adding a batching delay on top of a throttling delay, since
         // a throttling delay will have increased batching as a side effect.
         int maxDelay = 0;
+        ThrottlerName maxDelayName = null;
         boolean maximum = false;
         for (Throttler t : this.throttlers) {
-            int delay = t.getDelayMillis();
-            if (delay >= MAX_DELAY_MILLIS) {
+            int delay = t.getDelayMillis(this.config);
+            if (delay >= this.config.getThrottleMaxDelayMillis()) {
                 // This throttler introduced the maximum delay. No need to search more.
-                maxDelay = MAX_DELAY_MILLIS;
+                maxDelay = this.config.getThrottleMaxDelayMillis();
+                maxDelayName = t.getName();
                 maximum = true;
                 break;
             }
 
-            maxDelay = Math.max(maxDelay, delay);
+            if (delay > maxDelay) {
+                maxDelay = delay;
+                maxDelayName = t.getName();
+            }
         }
 
-        return new DelayResult(maxDelay, maximum);
+        return new DelayResult(maxDelayName, maxDelay, maximum);
     }
 
     //endregion
@@ -119,12 +99,17 @@ class ThrottlerCalculator {
         /**
          * Determines whether throttling based on this calculator is absolutely required at this moment.
          */
-        abstract boolean isThrottlingRequired();
+        abstract boolean isThrottlingRequired(DurableLogConfig config);
 
         /**
          * Calculates a throttling delay based on information available at the moment.
          */
-        abstract int getDelayMillis();
+        abstract int getDelayMillis(DurableLogConfig config);
+
+        /**
+         * Gets a value identifying this Throttler.
+         */
+        abstract ThrottlerName getName();
     }
 
     /**
@@ -136,15 +121,30 @@ class ThrottlerCalculator {
         private final Supplier<Double> getCacheUtilization;
 
         @Override
-        boolean isThrottlingRequired() {
-            return this.getCacheUtilization.get() > 1;
+        boolean isThrottlingRequired(DurableLogConfig config) {
+            return this.getCacheUtilization.get() * 100 > config.getThrottleCacheUtilizationThresholdPercentage();
+        }
+
+        @Override
+        int getDelayMillis(DurableLogConfig config) {
+            // We only throttle if we exceed the threshold. We increase the throttling amount proportionally to the overrun
+            // raised to ThrottleCacheUtilizationRampExponent, reaching the maximum delay at ThrottleCacheUtilizationMaxPercentage.
+            // A linear increase (the default) introduces significant delays for even small overruns; under bursty load
+            // a larger exponent helps prevent throughput from oscillating.
+            double threshold = config.getThrottleCacheUtilizationThresholdPercentage();
+            double overLimit = (this.getCacheUtilization.get() * 100 - threshold)
+                    / (config.getThrottleCacheUtilizationMaxPercentage() - threshold);
+            if (overLimit <= 0) {
+                return 0;
+            }
+
+            double ramp = Math.pow(overLimit, config.getThrottleCacheUtilizationRampExponent());
+            return (int) Math.min(ramp * config.getThrottleMaxDelayMillis(), config.getThrottleMaxDelayMillis());
         }
 
         @Override
-        int getDelayMillis() {
-            // We only throttle if we exceed the cache capacity. We increase the throttling amount in a linear fashion.
-            double cacheUtilization = this.getCacheUtilization.get();
-            return (int) Math.max((cacheUtilization - 1.0) * 100 * THROTTLING_MILLIS_PER_PERCENT_OVER_LIMIT, 0);
+        ThrottlerName getName() {
+            return ThrottlerName.Cache;
         }
     }
 
@@ -156,48 +156,103 @@ class ThrottlerCalculator {
     private static class CommitBacklogThrottler extends Throttler {
         private final Supplier<Integer> getCommitBacklogCount;
 
-
         @Override
-        boolean isThrottlingRequired() {
-            return this.getCommitBacklogCount.get() > COMMIT_BACKLOG_COUNT_THRESHOLD;
+        boolean isThrottlingRequired(DurableLogConfig config) {
+            return this.getCommitBacklogCount.get() > config.getThrottleCommitBacklogThreshold();
         }
 
         @Override
-        int getDelayMillis() {
+        int getDelayMillis(DurableLogConfig config) {
             // We only throttle if we exceed the threshold. We increase the throttling amount in a linear fashion.
             long count = this.getCommitBacklogCount.get();
-            return (int) MathHelpers.minMax((count - COMMIT_BACKLOG_COUNT_THRESHOLD) * THROTTLING_MILLIS_PER_COMMIT_OVER_LIMIT, 0, Integer.MAX_VALUE);
+            return (int) MathHelpers.minMax((count - config.getThrottleCommitBacklogThreshold()) * config.getThrottleMillisPerCommitOverThreshold(),
+                    0, Integer.MAX_VALUE);
+        }
+
+        @Override
+        ThrottlerName getName() {
+            return ThrottlerName.CommitBacklog;
         }
     }
 
     /**
      * Calculates the amount of time to wait before processing more operations from the queue in order to aggregate them
-     * into larger writes. This is based on statistics from the DurableDataLog.
+     * into larger writes (group commit). This is based on statistics from the DurableDataLog, mainly the number of writes
+     * in flight and the observed write latency.
      */
     @RequiredArgsConstructor
     private static class BatchingThrottler extends Throttler {
+        /**
+         * Weight of the most recent latency sample when updating the smoothed latency.
+         */
+        private static final double LATENCY_SMOOTHING_FACTOR = 0.25;
         private final Supplier<QueueStats> getQueueStats;
+        @GuardedBy("this")
+        private double smoothedLatencyMillis = -1;
 
         @Override
-        boolean isThrottlingRequired() {
+        boolean isThrottlingRequired(DurableLogConfig config) {
             // Regardless of what value we get from getDelay(), there is never an immediate need for throttling due to this reason.
             return false;
         }
 
         @Override
-        int getDelayMillis() {
+        int getDelayMillis(DurableLogConfig config) {
             QueueStats stats = this.getQueueStats.get();
+            double latencyMillis = updateLatency(stats.getExpectedProcessingTimeMillis());
+            if (stats.getSize() == 0) {
+                // There are no writes in flight, so there is nothing to group this write with; any data accumulated by
+                // waiting would only add to its latency.
+                return 0;
+            }
 
-            // The higher the average fill rate, the more efficient use we make of the available capacity. As such, for high
-            // fill ratios we don't want to wait too long.
+            // A write issued now is acknowledged only after the ones already in flight (which take about one write latency
+            // to complete), so we can wait up to that long to accumulate more data into it. The higher the average fill
+            // rate, the more efficient use we make of the available capacity. As such, for high fill ratios we don't
+            // want to wait too long.
             double fillRatioAdj = MathHelpers.minMax(1 - stats.getAverageItemFillRatio(), 0, 1);
+            int delayMillis = (int) Math.round(latencyMillis * fillRatioAdj);
+            return Math.min(delayMillis, config.getThrottleMaxBatchingDelayMillis());
+        }
 
-            // Finally, we use the the ExpectedProcessingTime to give us a baseline as to how long items usually take to process.
-            int delayMillis = (int) Math.round(stats.getExpectedProcessingTimeMillis() * fillRatioAdj);
-            return Math.min(delayMillis, MAX_BATCHING_DELAY_MILLIS);
+        /**
+         * Includes the given latency sample into the smoothed (exponentially weighted moving average) write latency, so
+         * that a single outlier does not cause the batching delay to fluctuate.
+         */
+        private synchronized double updateLatency(int latencyMillis) {
+            if (this.smoothedLatencyMillis < 0) {
+                this.smoothedLatencyMillis = latencyMillis;
+            } else {
+                this.smoothedLatencyMillis += LATENCY_SMOOTHING_FACTOR * (latencyMillis - this.smoothedLatencyMillis);
+            }
+
+            return this.smoothedLatencyMillis;
+        }
+
+        @Override
+        ThrottlerName getName() {
+            return ThrottlerName.Batching;
         }
     }
 
+    /**
+     * Identifies a Throttler. Used to attribute throttling delays to their causes.
+     */
+    enum ThrottlerName {
+        /**
+         * Throttling due to excessive cache utilization.
+         */
+        Cache,
+        /**
+         * Throttling due to a large number of operations waiting to be committed to memory.
+         */
+        CommitBacklog,
+        /**
+         * Delays introduced in order to aggregate operations into larger DurableDataLog writes.
+         */
+        Batching
+    }
+
     //endregion
 
     //region Builder
@@ -250,6 +305,11 @@ class ThrottlerCalculator {
      */
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     static class DelayResult {
+        /**
+         * The Throttler that suggested the delay, or null if no delay is suggested.
+         */
+        @Getter
+        private final ThrottlerName throttlerName;
         /**
          * The suggested delay, in millis.
          */
@@ -12,6 +12,8 @@ package io.pravega.segmentstore.server.logs.operations;
 import com.google.common.base.Preconditions;
 import io.pravega.common.io.serialization.RevisionDataInput;
 import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import java.io.IOException;
@@ -26,7 +28,7 @@ public class StreamSegmentAppendOperation extends StorageOperation {
 
     private static final long NO_OFFSET = -1;
     private long streamSegmentOffset;
-    private byte[] data;
+    private BufferView data;
     private Collection<AttributeUpdate> attributeUpdates;
 
     //endregion
@@ -41,6 +43,18 @@ public class StreamSegmentAppendOperation extends StorageOperation {
      * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
      */
     public StreamSegmentAppendOperation(long streamSegmentId, byte[] data, Collection<AttributeUpdate> attributeUpdates) {
+        this(streamSegmentId, NO_OFFSET, new ByteArraySegment(data), attributeUpdates);
+    }
+
+    /**
+     * Creates a new instance of the StreamSegmentAppendOperation class.
+     *
+     * @param streamSegmentId  The Id of the StreamSegment to append to.
+     * @param data             A BufferView representing the payload to append. This buffer is not copied; it must remain
+     *                         unchanged (and valid) for as long as this operation is in use.
+     * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
+     */
+    public StreamSegmentAppendOperation(long streamSegmentId, BufferView data, Collection<AttributeUpdate> attributeUpdates) {
         this(streamSegmentId, NO_OFFSET, data, attributeUpdates);
     }
 
@@ -53,6 +67,19 @@ public class StreamSegmentAppendOperation extends StorageOperation {
      * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
      */
     public StreamSegmentAppendOperation(long streamSegmentId, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates) {
+        this(streamSegmentId, offset, new ByteArraySegment(Preconditions.checkNotNull(data, "data")), attributeUpdates);
+    }
+
+    /**
+     * Creates a new instance of the StreamSegmentAppendOperation class.
+     *
+     * @param streamSegmentId  The Id of the StreamSegment to append to.
+     * @param offset           The offset to append at.
+     * @param data             A BufferView representing the payload to append. This buffer is not copied; it must remain
+     *                         unchanged (and valid) for as long as this operation is in use.
+     * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
+     */
+    public StreamSegmentAppendOperation(long streamSegmentId, long offset, BufferView data, Collection<AttributeUpdate> attributeUpdates) {
         super(streamSegmentId);
         Preconditions.checkNotNull(data, "data");
 
@@ -86,7 +113,7 @@ public class StreamSegmentAppendOperation extends StorageOperation {
      *
      * @return The data buffer.
      */
-    public byte[] getData() {
+    public BufferView getData() {
         return this.data;
     }
 
@@ -110,7 +137,7 @@ public class StreamSegmentAppendOperation extends StorageOperation {
 
     @Override
     public long getLength() {
-        return this.data.length;
+        return this.data.getLength();
     }
 
     @Override
@@ -119,7 +146,7 @@ public class StreamSegmentAppendOperation extends StorageOperation {
                 "%s, Offset = %s, Length = %d, Attributes = %d",
                 super.toString(),
                 toString(this.streamSegmentOffset, -1),
-                this.data.length,
+                this.data.getLength(),
                 this.attributeUpdates == null ? 0 : this.attributeUpdates.size());
     }
 
@@ -152,11 +179,11 @@ public class StreamSegmentAppendOperation extends StorageOperation {
 
         private void write00(StreamSegmentAppendOperation o, RevisionDataOutput target) throws IOException {
             int attributesLength = o.attributeUpdates == null ? target.getCompactIntLength(0) : target.getCollectionLength(o.attributeUpdates.size(), ATTRIBUTE_UPDATE_LENGTH);
-            target.length(STATIC_LENGTH + target.getCompactIntLength(o.data.length) + o.data.length + attributesLength);
+            target.length(STATIC_LENGTH + target.getCompactIntLength(o.data.getLength()) + o.data.getLength() + attributesLength);
             target.writeLong(o.getSequenceNumber());
             target.writeLong(o.getStreamSegmentId());
             target.writeLong(o.streamSegmentOffset);
-            target.writeArray(o.data);
+            target.writeBuffer(o.data);
             target.writeCollection(o.attributeUpdates, this::writeAttributeUpdate00);
         }
 
@@ -164,7 +191,7 @@ public class StreamSegmentAppendOperation extends StorageOperation {
             b.instance.setSequenceNumber(source.readLong());
             b.instance.setStreamSegmentId(source.readLong());
             b.instance.streamSegmentOffset = source.readLong();
-            b.instance.data = source.readArray();
+            b.instance.data = new ByteArraySegment(source.readArray());
             b.instance.attributeUpdates = source.readCollection(this::readAttributeUpdate00);
         }
 
@@ -10,12 +10,14 @@
 package io.pravega.segmentstore.server.mocks;
 
 import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.BufferView;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -31,7 +33,7 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
     private final StreamSegmentStore impl;
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates,
+    public CompletableFuture<Void> append(String streamSegmentName, BufferView data, Collection<AttributeUpdate> attributeUpdates,
                                           Duration timeout) {
         CompletableFuture<Void> result = impl.append(streamSegmentName, data, attributeUpdates, timeout);
         Futures.await(result);
@@ -39,7 +41,7 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
     }
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data,
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, BufferView data,
                                           Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         CompletableFuture<Void> result = impl.append(streamSegmentName, offset, data, attributeUpdates, timeout);
         Futures.await(result);
@@ -67,6 +69,14 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
         return result;
     }
 
+    @Override
+    public CompletableFuture<Map<UUID, Long>> getAttributes(String streamSegmentName, Collection<UUID> attributeIds,
+                                                            boolean waitForPendingOps, Duration timeout) {
+        CompletableFuture<Map<UUID, Long>> result = impl.getAttributes(streamSegmentName, attributeIds, waitForPendingOps, timeout);
+        Futures.await(result);
+        return result;
+    }
+
     @Override
     public CompletableFuture<Void> createStreamSegment(String streamSegmentName, Collection<AttributeUpdate> attributes,
                                                        Duration timeout) {
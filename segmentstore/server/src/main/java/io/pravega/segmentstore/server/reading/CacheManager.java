@@ -25,6 +25,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +41,9 @@ import lombok.extern.slf4j.Slf4j;
  * (in the clients) that is generated or updated gets assigned the current generation. As the CacheManager determines that
  * there are too many Cache Entries or that the maximum size has been exceeded, it will increment the oldest generation.
  * The CacheManager Clients can use this information to evict those Cache Entries that have a generation below the oldest generation number.
+ *
+ * How a Cache Entry's generation is compared against the oldest generation is decided by the CachePolicy's EvictionPolicy
+ * (see {@link CachePolicy#getEvictionGeneration}), which may factor in how frequently that entry has been accessed.
  */
 @Slf4j
 @ThreadSafe
@@ -53,8 +57,11 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     private final AtomicInteger currentGeneration;
     private final AtomicInteger oldestGeneration;
     private final AtomicLong cacheSize;
+    private final AtomicLong readAheadSize;
     private final CachePolicy policy;
     private final AtomicBoolean closed;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
     private final SegmentStoreMetrics.CacheManager metrics;
 
     //endregion
@@ -76,9 +83,12 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         this.oldestGeneration = new AtomicInteger();
         this.currentGeneration = new AtomicInteger();
         this.cacheSize = new AtomicLong();
+        this.readAheadSize = new AtomicLong();
         this.executorService = executorService;
         this.closed = new AtomicBoolean();
-        this.metrics = new SegmentStoreMetrics.CacheManager();
+        this.cacheHits = new LongAdder();
+        this.cacheMisses = new LongAdder();
+        this.metrics = new SegmentStoreMetrics.CacheManager(policy.getEvictionPolicy().name().toLowerCase());
     }
 
     //endregion
@@ -142,7 +152,8 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
     @Override
     public double getCacheUtilization() {
-        return (double) this.cacheSize.get() / this.policy.getMaxSize();
+        // Read-ahead is not stored in the cache, but it takes up memory nonetheless.
+        return (double) (this.cacheSize.get() + this.readAheadSize.get()) / this.policy.getMaxSize();
     }
 
     //endregion
@@ -188,9 +199,77 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
     //endregion
 
+    //region Cache Hits
+
+    /**
+     * Records that a read has been served from the cache.
+     */
+    void recordHit() {
+        this.cacheHits.increment();
+    }
+
+    /**
+     * Records that a read could not be served from the cache and had to be fetched from Storage.
+     */
+    void recordMiss() {
+        this.cacheMisses.increment();
+    }
+
+    /**
+     * Gets the CachePolicy used by this CacheManager.
+     */
+    CachePolicy getPolicy() {
+        return this.policy;
+    }
+
+    //endregion
+
+    //region Read-Ahead
+
+    /**
+     * Attempts to reserve memory for read-ahead data that is held outside of the cache. The total amount of such data is
+     * capped by CachePolicy.getMaxReadAheadSize() and it counts towards the cache utilization.
+     *
+     * @param length The number of bytes to reserve.
+     * @return True if the reservation was made (in which case it must be released using releaseReadAhead), false if it
+     * would exceed the limit.
+     */
+    boolean tryReserveReadAhead(int length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        long maxSize = this.policy.getMaxReadAheadSize();
+        long current;
+        do {
+            current = this.readAheadSize.get();
+            if (current + length > maxSize) {
+                return false;
+            }
+        } while (!this.readAheadSize.compareAndSet(current, current + length));
+        return true;
+    }
+
+    /**
+     * Releases memory previously reserved using tryReserveReadAhead.
+     *
+     * @param length The number of bytes to release.
+     */
+    void releaseReadAhead(int length) {
+        this.readAheadSize.addAndGet(-length);
+    }
+
+    /**
+     * Gets the number of bytes currently reserved for read-ahead data.
+     */
+    long getReadAheadSize() {
+        return this.readAheadSize.get();
+    }
+
+    //endregion
+
     //region Helpers
 
     protected void applyCachePolicy() {
+        this.metrics.cacheAccesses(this.cacheHits.sumThenReset(), this.cacheMisses.sumThenReset());
+
         // Run through all the active clients and gather status.
         CacheStatus currentStatus = collectStatus();
         if (currentStatus == null || currentStatus.getSize() == 0) {
@@ -199,6 +278,9 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             return;
         }
 
+        // Clients consult the Cache utilization while evicting, so it must reflect this iteration's status.
+        this.cacheSize.set(currentStatus.getSize());
+
         // Increment current generation (if needed).
         boolean currentChanged = adjustCurrentGeneration(currentStatus);
 
@@ -217,11 +299,11 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             sizeReduction = updateClients();
             if (sizeReduction > 0) {
                 currentStatus = currentStatus.withUpdatedSize(-sizeReduction);
+                this.cacheSize.set(currentStatus.getSize());
                 logCurrentStatus(currentStatus);
                 oldestChanged = adjustOldestGeneration(currentStatus);
             }
         } while (sizeReduction > 0 && oldestChanged);
-        this.cacheSize.set(currentStatus.getSize());
         this.metrics.report(currentStatus.getSize(), currentStatus.getNewestGeneration() - currentStatus.getOldestGeneration());
     }
 
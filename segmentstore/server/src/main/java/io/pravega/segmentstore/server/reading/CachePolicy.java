@@ -19,9 +19,16 @@ import java.time.Duration;
 public class CachePolicy {
     //region Members
 
+    /**
+     * The Cache utilization (ratio of used Cache to the maximum size) above which the FREQUENCY EvictionPolicy evicts
+     * entries on probation ahead of all others. Below it, entries on probation age out like any other entry.
+     */
+    static final double TARGET_UTILIZATION = 0.9;
     private final long maxSize;
     private final int maxGenerations;
     private final Duration generationDuration;
+    private final EvictionPolicy evictionPolicy;
+    private final long maxReadAheadSize;
 
     //endregion
 
@@ -35,10 +42,38 @@ public class CachePolicy {
      * @param generationDuration The amount of time one Cache generation spans.
      */
     public CachePolicy(long maxSize, Duration maxTime, Duration generationDuration) {
+        this(maxSize, maxTime, generationDuration, EvictionPolicy.GENERATIONAL);
+    }
+
+    /**
+     * Creates a new instance of the CachePolicy class.
+     *
+     * @param maxSize            The maximum size of the cache.
+     * @param maxTime            The maximum amount of time a cache entry can live in the cache.
+     * @param generationDuration The amount of time one Cache generation spans.
+     * @param evictionPolicy     The EvictionPolicy that determines the order in which entries are evicted.
+     */
+    public CachePolicy(long maxSize, Duration maxTime, Duration generationDuration, EvictionPolicy evictionPolicy) {
+        this(maxSize, maxTime, generationDuration, evictionPolicy, 0);
+    }
+
+    /**
+     * Creates a new instance of the CachePolicy class.
+     *
+     * @param maxSize            The maximum size of the cache.
+     * @param maxTime            The maximum amount of time a cache entry can live in the cache.
+     * @param generationDuration The amount of time one Cache generation spans.
+     * @param evictionPolicy     The EvictionPolicy that determines the order in which entries are evicted.
+     * @param maxReadAheadSize   The maximum number of bytes that may be held as read-ahead outside of the cache.
+     */
+    public CachePolicy(long maxSize, Duration maxTime, Duration generationDuration, EvictionPolicy evictionPolicy, long maxReadAheadSize) {
         Preconditions.checkArgument(maxSize > 0, "maxSize must be a positive integer");
+        Preconditions.checkArgument(maxReadAheadSize >= 0, "maxReadAheadSize must be a non-negative integer");
         this.maxSize = maxSize;
         this.generationDuration = generationDuration;
         this.maxGenerations = Math.max(1, (int) ((double) maxTime.toMillis() / generationDuration.toMillis()));
+        this.evictionPolicy = Preconditions.checkNotNull(evictionPolicy, "evictionPolicy");
+        this.maxReadAheadSize = maxReadAheadSize;
     }
 
     //endregion
@@ -73,9 +108,81 @@ public class CachePolicy {
         return this.generationDuration;
     }
 
+    /**
+     * Gets the EvictionPolicy that determines the order in which entries are evicted.
+     *
+     * @return The value.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return this.evictionPolicy;
+    }
+
+    /**
+     * Gets a value indicating the maximum number of bytes that may be held (across all Segments) as read-ahead for reads
+     * that bypass the cache. See {@link SequentialScanTracker}.
+     *
+     * @return The value.
+     */
+    public long getMaxReadAheadSize() {
+        return this.maxReadAheadSize;
+    }
+
     @Override
     public String toString() {
-        return String.format("MaxSize = %d, MaxGen = %d, Generation = %s", this.maxSize, this.maxGenerations, this.generationDuration);
+        return String.format("MaxSize = %d, MaxGen = %d, Generation = %s, Eviction = %s, MaxReadAhead = %d", this.maxSize,
+                this.maxGenerations, this.generationDuration, this.evictionPolicy, this.maxReadAheadSize);
+    }
+
+    //endregion
+
+    //region Eviction
+
+    /**
+     * Determines the generation to compare against the CacheManager's oldest generation when deciding whether an entry
+     * may be evicted (an entry is eligible for eviction if this value is smaller than the oldest generation).
+     *
+     * @param generation        The generation in which the entry was last accessed.
+     * @param frequency         The access frequency of the entry. See {@link ReadIndexEntry#getFrequency()}.
+     * @param currentGeneration The current generation.
+     * @param cacheUtilization  The current Cache utilization. See {@link CacheManager#getCacheUtilization()}.
+     * @return The generation to use for eviction.
+     */
+    int getEvictionGeneration(int generation, int frequency, int currentGeneration, double cacheUtilization) {
+        if (this.evictionPolicy == EvictionPolicy.GENERATIONAL) {
+            return generation;
+        }
+
+        if (frequency == 0) {
+            // Entries on probation are considered older than any other entry in the cache, so they are the first ones to
+            // go when the cache is under pressure. Otherwise there is no reason to evict them early.
+            return cacheUtilization > TARGET_UTILIZATION ? generation - this.maxGenerations : generation;
+        }
+
+        // Frequently accessed entries are given a bonus of up to log2(MAX_FREQUENCY) generations. The bonus never takes
+        // an entry past the previous generation, so that the CacheManager can always evict it by advancing the oldest
+        // generation up to the current one.
+        int bonus = 31 - Integer.numberOfLeadingZeros(frequency);
+        return Math.max(generation, Math.min(generation + bonus, currentGeneration - 1));
+    }
+
+    /**
+     * Defines the order in which Cache Entries are evicted.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Entries are evicted strictly based on the last generation in which they were accessed (LRU at generation
+         * granularity).
+         */
+        GENERATIONAL,
+
+        /**
+         * Entries are evicted based on both the last generation in which they were accessed and how frequently they
+         * have been accessed (in the spirit of ARC and TinyLFU). Data brought into the cache because of a cache miss
+         * is admitted on probation and is evicted before anything else unless it is accessed again in a later
+         * generation. Entries that are accessed in many consecutive generations are retained for longer than those
+         * that are not. This prevents large scans of historical data from evicting the data that tail readers use.
+         */
+        FREQUENCY
     }
 
     //endregion
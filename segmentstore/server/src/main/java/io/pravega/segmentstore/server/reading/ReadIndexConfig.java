@@ -23,11 +23,16 @@ import lombok.Getter;
 public class ReadIndexConfig {
     //region Config Names
     public static final Property<Integer> STORAGE_READ_ALIGNMENT = Property.named("storageReadAlignment", 1024 * 1024);
+    public static final Property<Integer> STORAGE_READ_BYPASS_THRESHOLD = Property.named("storageReadBypassThreshold", 32 * 1024 * 1024);
+    public static final Property<Integer> STORAGE_READ_AHEAD_MAX_LENGTH = Property.named("storageReadAheadMaxLength", 8 * 1024 * 1024);
+    public static final Property<Integer> STORAGE_PREFETCH_MAX_BLOCK_COUNT = Property.named("storagePrefetchMaxBlockCount", 4);
     public static final Property<Integer> MEMORY_READ_MIN_LENGTH = Property.named("memoryReadMinLength", 4 * 1024);
     public static final Property<Integer> STORAGE_READ_DEFAULT_TIMEOUT = Property.named("storageReadDefaultTimeoutMillis", 30 * 1000);
     public static final Property<Long> CACHE_POLICY_MAX_SIZE = Property.named("cacheMaxSize", 16L * 1024 * 1024 * 1024);
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cacheMaxTimeMillis", 30 * 60 * 1000);
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cacheGenerationTimeMillis", 5 * 1000);
+    public static final Property<Long> CACHE_POLICY_MAX_READ_AHEAD_SIZE = Property.named("cacheMaxReadAheadSize", 256 * 1024 * 1024L);
+    public static final Property<CachePolicy.EvictionPolicy> CACHE_POLICY_EVICTION = Property.named("cacheEvictionPolicy", CachePolicy.EvictionPolicy.GENERATIONAL);
     private static final String COMPONENT_CODE = "readindex";
 
     //endregion
@@ -41,6 +46,32 @@ public class ReadIndexConfig {
     @Getter
     private final int storageReadAlignment;
 
+    /**
+     * The minimum number of bytes that must be read sequentially from Storage (by the same reader), at a minimum of this
+     * many bytes behind the tail of the Segment, before further reads for that reader bypass the Cache. Such reads are
+     * served directly from Storage, so that large historical scans do not evict data needed by tail readers.
+     * <p>
+     * Setting this to 0 will effectively disable this feature.
+     */
+    @Getter
+    private final int storageReadBypassThreshold;
+
+    /**
+     * The maximum number of bytes to read ahead from Storage for reads that bypass the Cache. The read-ahead length starts
+     * at StorageReadAlignment and grows up to this value as long as the reader keeps consuming it.
+     */
+    @Getter
+    private final int storageReadAheadMaxLength;
+
+    /**
+     * The maximum number of StorageReadAlignment-sized blocks to prefetch (into the Cache) ahead of a sequential reader.
+     * The actual number of blocks adapts to how fast the reader consumes them and to how full the Cache is.
+     * <p>
+     * Setting this to 0 will effectively disable this feature.
+     */
+    @Getter
+    private final int storagePrefetchMaxBlockCount;
+
     /**
      * The minimum number of bytes to serve from memory during reads. The ReadIndex will try to coalesce data from multiple
      * contiguous index entries, as long as they are all referring to cached data, when serving individual ReadResultEntries
@@ -78,12 +109,29 @@ public class ReadIndexConfig {
      */
     private ReadIndexConfig(TypedProperties properties) throws ConfigurationException {
         this.storageReadAlignment = properties.getInt(STORAGE_READ_ALIGNMENT);
+        this.storageReadBypassThreshold = properties.getInt(STORAGE_READ_BYPASS_THRESHOLD);
+        if (this.storageReadBypassThreshold < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", STORAGE_READ_BYPASS_THRESHOLD));
+        }
+
+        this.storageReadAheadMaxLength = properties.getInt(STORAGE_READ_AHEAD_MAX_LENGTH);
+        this.storagePrefetchMaxBlockCount = properties.getInt(STORAGE_PREFETCH_MAX_BLOCK_COUNT);
+        if (this.storagePrefetchMaxBlockCount < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", STORAGE_PREFETCH_MAX_BLOCK_COUNT));
+        }
         this.memoryReadMinLength = properties.getInt(MEMORY_READ_MIN_LENGTH);
         this.storageReadDefaultTimeout = Duration.ofMillis(properties.getInt(STORAGE_READ_DEFAULT_TIMEOUT));
         long cachePolicyMaxSize = properties.getLong(CACHE_POLICY_MAX_SIZE);
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
-        this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofMillis(cachePolicyMaxTime), Duration.ofMillis(cachePolicyGenerationTime));
+        long cachePolicyMaxReadAheadSize = properties.getLong(CACHE_POLICY_MAX_READ_AHEAD_SIZE);
+        if (cachePolicyMaxReadAheadSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", CACHE_POLICY_MAX_READ_AHEAD_SIZE));
+        }
+
+        CachePolicy.EvictionPolicy evictionPolicy = properties.getEnum(CACHE_POLICY_EVICTION, CachePolicy.EvictionPolicy.class);
+        this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofMillis(cachePolicyMaxTime), Duration.ofMillis(cachePolicyGenerationTime),
+                evictionPolicy, cachePolicyMaxReadAheadSize);
     }
 
     /**
@@ -20,9 +20,15 @@ import javax.annotation.concurrent.GuardedBy;
 abstract class ReadIndexEntry implements SortedIndex.IndexEntry {
     //region Members
 
+    /**
+     * The maximum value for an entry's access frequency.
+     */
+    static final int MAX_FREQUENCY = 15;
     private final long streamSegmentOffset;
     @GuardedBy("this")
     private int generation;
+    @GuardedBy("this")
+    private int frequency;
 
     //endregion
 
@@ -63,6 +69,43 @@ abstract class ReadIndexEntry implements SortedIndex.IndexEntry {
         this.generation = generation;
     }
 
+    /**
+     * Gets the access frequency of this ReadIndexEntry. This is an approximation of the number of consecutive
+     * generations in which this entry has been accessed, capped at {@link #MAX_FREQUENCY}. A value of 0 means that
+     * the entry has not been accessed since it was brought into the cache because of a cache miss.
+     *
+     * @return The entry's access frequency.
+     */
+    synchronized int getFrequency() {
+        return this.frequency;
+    }
+
+    /**
+     * Sets the access frequency of this ReadIndexEntry.
+     *
+     * @param frequency The access frequency.
+     */
+    synchronized void setFrequency(int frequency) {
+        this.frequency = Math.min(frequency, MAX_FREQUENCY);
+    }
+
+    /**
+     * Records that this ReadIndexEntry has been accessed, and sets its generation to the given value. Multiple accesses
+     * within the same generation are only counted once, and the frequency is halved for every generation in which the
+     * entry has not been accessed.
+     *
+     * @param generation The current generation.
+     */
+    synchronized void recordAccess(int generation) {
+        if (generation > this.generation) {
+            int idleGenerations = generation - this.generation - 1;
+            int agedFrequency = idleGenerations >= Integer.SIZE ? 0 : this.frequency >> idleGenerations;
+            this.frequency = Math.min(agedFrequency + 1, MAX_FREQUENCY);
+        }
+
+        this.generation = generation;
+    }
+
     /**
      * Gets a value indicating the StreamSegment offset for this entry.
      */
@@ -89,7 +132,7 @@ abstract class ReadIndexEntry implements SortedIndex.IndexEntry {
 
     @Override
     public synchronized String toString() {
-        return String.format("Offset = %d, Length = %d, Gen = %d", this.streamSegmentOffset, getLength(), this.generation);
+        return String.format("Offset = %d, Length = %d, Gen = %d, Freq = %d", this.streamSegmentOffset, getLength(), this.generation, this.frequency);
     }
 
     @Override
@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.ByteArraySegment;
+import java.util.ArrayList;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Detects large sequential reads from Storage (i.e., historical catch-up reads that are far behind the tail of a Segment)
+ * and helps serve them directly from Storage, without inserting their data into the Cache.
+ * <p>
+ * Every read from Storage is recorded against a Scan, which is identified by the offset at which it expects its next read.
+ * A read also continues a Scan if it begins at most MaxGap bytes after that offset, since the bytes in between may have
+ * been served from the Cache (i.e., if they were prefetched). Once a Scan has covered at least BypassThreshold bytes
+ * (and it is at least as far behind the tail of the Segment), its subsequent reads bypass the Cache: each of them fetches a read-ahead block from Storage and the part of
+ * it that has not been returned yet is copied and held by the Scan (outside of the Cache) to serve its next reads. The read-ahead
+ * length of a Scan starts at the Storage read alignment and doubles (up to a maximum) with every read-ahead block that
+ * is fetched; since a new block is only fetched after the previous one has been fully consumed, the read-ahead only
+ * grows for readers that keep up with it.
+ * <p>
+ * Read-ahead data is accounted for by the CacheManager, which caps its total size across all Segments. If a read-ahead
+ * block cannot be accommodated, it is discarded and the Scan's read-ahead length is reset. Read-ahead data that has not
+ * been used between two consecutive calls to {@link #releaseIdleReadAhead()} is discarded as well.
+ * <p>
+ * Scans are not explicitly tied to readers; a limited number of them is tracked for each Segment, with the least recently
+ * used being discarded when a new one needs to be created.
+ */
+@ThreadSafe
+class SequentialScanTracker {
+    //region Members
+
+    /**
+     * The maximum number of Scans to track at any given time.
+     */
+    static final int MAX_SCANS = 4;
+    private final int bypassThreshold;
+    private final int minReadAheadLength;
+    private final int maxReadAheadLength;
+    private final long maxGap;
+    private final CacheManager cacheManager;
+    @GuardedBy("scans")
+    private final ArrayList<Scan> scans;
+    @GuardedBy("scans")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SequentialScanTracker class.
+     *
+     * @param bypassThreshold    The minimum number of bytes a Scan must sequentially read from Storage (and its minimum
+     *                           distance from the tail of the Segment) before its reads bypass the Cache. If 0, no read
+     *                           will ever bypass the Cache.
+     * @param minReadAheadLength The initial read-ahead length for a Scan.
+     * @param maxReadAheadLength The maximum read-ahead length for a Scan.
+     * @param maxGap             The maximum number of bytes a read may skip and still be considered part of a Scan.
+     * @param cacheManager       The CacheManager to account read-ahead data with.
+     */
+    SequentialScanTracker(int bypassThreshold, int minReadAheadLength, int maxReadAheadLength, long maxGap, CacheManager cacheManager) {
+        Preconditions.checkArgument(bypassThreshold >= 0, "bypassThreshold must be a non-negative number.");
+        Preconditions.checkArgument(minReadAheadLength > 0, "minReadAheadLength must be a positive number.");
+        Preconditions.checkArgument(maxReadAheadLength >= minReadAheadLength, "maxReadAheadLength must be at least minReadAheadLength.");
+        Preconditions.checkArgument(maxGap >= 0, "maxGap must be a non-negative number.");
+        this.bypassThreshold = bypassThreshold;
+        this.minReadAheadLength = minReadAheadLength;
+        this.maxReadAheadLength = maxReadAheadLength;
+        this.maxGap = maxGap;
+        this.cacheManager = Preconditions.checkNotNull(cacheManager, "cacheManager");
+        this.scans = new ArrayList<>();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records the fact that a range of bytes has been read from Storage and has been inserted into the Cache.
+     *
+     * @param offset The offset of the read.
+     * @param length The number of bytes read.
+     */
+    void recordStorageRead(long offset, int length) {
+        if (isDisabled()) {
+            return;
+        }
+
+        synchronized (this.scans) {
+            getOrCreateScan(offset).advance(offset, length);
+        }
+    }
+
+    /**
+     * Determines whether a Storage read at the given offset should bypass the Cache.
+     *
+     * @param offset       The offset of the read.
+     * @param tailDistance The number of bytes between the offset and the end of the Segment.
+     * @return The number of bytes to read from Storage (and not insert into the Cache), or 0 if the read should not
+     * bypass the Cache.
+     */
+    int getBypassReadLength(long offset, long tailDistance) {
+        if (isDisabled() || tailDistance < this.bypassThreshold) {
+            return 0;
+        }
+
+        synchronized (this.scans) {
+            Scan scan = findScan(offset, this.maxGap);
+            return scan != null && scan.getLength() >= this.bypassThreshold ? scan.readAheadLength : 0;
+        }
+    }
+
+    /**
+     * Records the fact that a range of bytes has been read from Storage bypassing the Cache. The bytes that have not
+     * been returned to the reader are retained as the Scan's read-ahead (if the CacheManager can accommodate them), and
+     * the Scan's read-ahead length is increased.
+     *
+     * @param offset         The offset of the read.
+     * @param data           The data that has been read.
+     * @param returnedLength The number of bytes (from the beginning of data) that have been returned to the reader.
+     */
+    void recordBypassRead(long offset, ByteArraySegment data, int returnedLength) {
+        Preconditions.checkArgument(returnedLength <= data.getLength(), "returnedLength must not exceed the data length.");
+        synchronized (this.scans) {
+            Scan scan = getOrCreateScan(offset);
+            scan.advance(offset, returnedLength);
+            releaseReadAhead(scan);
+            int readAheadLength = data.getLength() - returnedLength;
+            if (this.closed) {
+                // Nobody would ever release this read-ahead.
+                return;
+            } else if (readAheadLength == 0) {
+                scan.readAheadLength = (int) Math.min((long) scan.readAheadLength * 2, this.maxReadAheadLength);
+            } else if (this.cacheManager.tryReserveReadAhead(readAheadLength)) {
+                scan.readAhead = detach(data.subSegment(returnedLength, readAheadLength));
+                scan.idle = false;
+                scan.readAheadLength = (int) Math.min((long) scan.readAheadLength * 2, this.maxReadAheadLength);
+            } else {
+                // Too much read-ahead data is being held. Discard this one and do not read as much next time.
+                scan.readAheadLength = this.minReadAheadLength;
+            }
+        }
+    }
+
+    /**
+     * Attempts to serve a read from the read-ahead of a Scan.
+     *
+     * @param offset    The offset of the read.
+     * @param maxLength The maximum number of bytes to return.
+     * @return A ByteArraySegment containing at most maxLength bytes starting at the given offset, or null if no Scan has
+     * such data in its read-ahead.
+     */
+    ByteArraySegment read(long offset, int maxLength) {
+        if (isDisabled() || maxLength <= 0) {
+            return null;
+        }
+
+        synchronized (this.scans) {
+            Scan scan = findScan(offset, 0);
+            if (scan == null || scan.readAhead == null) {
+                return null;
+            }
+
+            ByteArraySegment readAhead = scan.readAhead;
+            int length = Math.min(maxLength, readAhead.getLength());
+            scan.advance(offset, length);
+            scan.readAhead = length < readAhead.getLength() ? readAhead.subSegment(length, readAhead.getLength() - length) : null;
+            scan.idle = false;
+            this.cacheManager.releaseReadAhead(length);
+
+            return readAhead.subSegment(0, length);
+        }
+    }
+
+    /**
+     * Discards the read-ahead data of those Scans that have not used it since the previous invocation of this method.
+     *
+     * @return The number of bytes discarded.
+     */
+    int releaseIdleReadAhead() {
+        int released = 0;
+        synchronized (this.scans) {
+            for (Scan scan : this.scans) {
+                if (scan.idle) {
+                    released += releaseReadAhead(scan);
+                } else {
+                    scan.idle = true;
+                }
+            }
+        }
+
+        return released;
+    }
+
+    /**
+     * Discards all Scans and their read-ahead data.
+     */
+    void close() {
+        synchronized (this.scans) {
+            this.scans.forEach(this::releaseReadAhead);
+            this.scans.clear();
+            this.closed = true;
+        }
+    }
+
+    /**
+     * Gets the number of Scans currently tracked.
+     */
+    int getScanCount() {
+        synchronized (this.scans) {
+            return this.scans.size();
+        }
+    }
+
+    /**
+     * Gets the number of bytes held as read-ahead by all Scans.
+     */
+    int getReadAheadSize() {
+        synchronized (this.scans) {
+            return this.scans.stream().mapToInt(s -> s.readAhead == null ? 0 : s.readAhead.getLength()).sum();
+        }
+    }
+
+    private boolean isDisabled() {
+        return this.bypassThreshold <= 0;
+    }
+
+    @GuardedBy("scans")
+    private Scan findScan(long offset, long maxGap) {
+        for (int i = this.scans.size() - 1; i >= 0; i--) {
+            Scan scan = this.scans.get(i);
+            if (offset >= scan.nextOffset && offset - scan.nextOffset <= maxGap) {
+                // Keep the list ordered by recency of use.
+                this.scans.remove(i);
+                this.scans.add(scan);
+                return scan;
+            }
+        }
+
+        return null;
+    }
+
+    @GuardedBy("scans")
+    private Scan getOrCreateScan(long offset) {
+        Scan scan = findScan(offset, this.maxGap);
+        if (scan == null) {
+            if (this.scans.size() >= MAX_SCANS) {
+                releaseReadAhead(this.scans.remove(0));
+            }
+
+            scan = new Scan(offset, this.minReadAheadLength);
+            this.scans.add(scan);
+        }
+
+        return scan;
+    }
+
+    /**
+     * Copies the given read-ahead into its own array, unless it already spans its entire backing array. Holding on to a
+     * slice of a larger Storage read buffer would keep that whole buffer alive, while only the slice is accounted for.
+     */
+    private ByteArraySegment detach(ByteArraySegment readAhead) {
+        if (readAhead.getLength() == readAhead.array().length) {
+            return readAhead;
+        }
+
+        return new ByteArraySegment(readAhead.getCopy());
+    }
+
+    @GuardedBy("scans")
+    private int releaseReadAhead(Scan scan) {
+        int length = 0;
+        if (scan.readAhead != null) {
+            length = scan.readAhead.getLength();
+            scan.readAhead = null;
+            this.cacheManager.releaseReadAhead(length);
+        }
+
+        return length;
+    }
+
+    //endregion
+
+    //region Scan
+
+    /**
+     * A sequence of contiguous reads.
+     */
+    private static class Scan {
+        private final long startOffset;
+        private long nextOffset;
+        private int readAheadLength;
+        private ByteArraySegment readAhead;
+        private boolean idle;
+
+        Scan(long startOffset, int readAheadLength) {
+            this.startOffset = startOffset;
+            this.nextOffset = startOffset;
+            this.readAheadLength = readAheadLength;
+        }
+
+        void advance(long offset, int length) {
+            this.nextOffset = offset + length;
+        }
+
+        long getLength() {
+            return this.nextOffset - this.startOffset;
+        }
+    }
+
+    //endregion
+}
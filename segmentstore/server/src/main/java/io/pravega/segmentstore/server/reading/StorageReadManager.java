@@ -13,11 +13,14 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.server.CacheUtilizationProvider;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import io.pravega.segmentstore.storage.SegmentHandle;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
@@ -31,19 +34,38 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Facilitates and Organizes the reads from Storage.
+ * <p>
+ * If a PrefetchTarget is provided, this class also detects sequential reads and prefetches the blocks following them
+ * (asynchronously) into that target, so that sequential readers need not wait for a Storage round-trip at every block
+ * boundary. The number of blocks to prefetch grows while the reader keeps up with the prefetched data and shrinks if
+ * prefetched data is evicted before it is read or if the Cache is under pressure.
  */
 @Slf4j
 @ThreadSafe
 public class StorageReadManager implements AutoCloseable {
     //region Members
 
+    /**
+     * No data is prefetched while the Cache utilization is at or above this value.
+     */
+    private static final double CACHE_UTILIZATION_PREFETCH_THRESHOLD = 0.9;
     private final String traceObjectId;
     private final ReadOnlyStorage storage;
     private final Executor executor;
     private final String segmentName;
+    private final int prefetchBlockLength;
+    private final int maxPrefetchBlockCount;
+    private final CacheUtilizationProvider cacheUtilizationProvider;
+    private final PrefetchTarget prefetchTarget;
     @GuardedBy("lock")
     private final TreeMap<Long, Request> pendingRequests;
     @GuardedBy("lock")
+    private long lastReadEndOffset;
+    @GuardedBy("lock")
+    private long prefetchEndOffset;
+    @GuardedBy("lock")
+    private int prefetchBlockCount;
+    @GuardedBy("lock")
     private CompletableFuture<SegmentHandle> handle;
     private final Object lock = new Object();
     @GuardedBy("lock")
@@ -54,21 +76,50 @@ public class StorageReadManager implements AutoCloseable {
     //region Constructor
 
     /**
-     * Creates a new instance of the StorageReadManager class.
+     * Creates a new instance of the StorageReadManager class which does not prefetch any data.
      *
      * @param segmentMetadata A SegmentMetadata to create the StorageReadManager for.
      * @param storage         A ReadOnlyStorage to use for data fetching.
      * @param executor        An Executor to use for running asynchronous tasks.
      */
     StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, Executor executor) {
+        this(segmentMetadata, storage, 1, 0, null, null, executor);
+    }
+
+    /**
+     * Creates a new instance of the StorageReadManager class.
+     *
+     * @param segmentMetadata          A SegmentMetadata to create the StorageReadManager for.
+     * @param storage                  A ReadOnlyStorage to use for data fetching.
+     * @param prefetchBlockLength      The length of a prefetched block. Prefetched blocks are aligned to this value.
+     * @param maxPrefetchBlockCount    The maximum number of blocks to prefetch ahead of a sequential read. If 0, no
+     *                                 data will be prefetched.
+     * @param cacheUtilizationProvider A CacheUtilizationProvider to determine whether the Cache is under pressure.
+     * @param prefetchTarget           A PrefetchTarget to deliver prefetched data to.
+     * @param executor                 An Executor to use for running asynchronous tasks.
+     */
+    StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, int prefetchBlockLength, int maxPrefetchBlockCount,
+                       CacheUtilizationProvider cacheUtilizationProvider, PrefetchTarget prefetchTarget, Executor executor) {
         Preconditions.checkNotNull(storage, "storage");
         Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkArgument(prefetchBlockLength > 0, "prefetchBlockLength must be a positive integer.");
+        Preconditions.checkArgument(maxPrefetchBlockCount >= 0, "maxPrefetchBlockCount must be a non-negative integer.");
+        if (maxPrefetchBlockCount > 0) {
+            Preconditions.checkNotNull(cacheUtilizationProvider, "cacheUtilizationProvider");
+            Preconditions.checkNotNull(prefetchTarget, "prefetchTarget");
+        }
 
         this.traceObjectId = String.format("StorageReader[%d-%d]", segmentMetadata.getContainerId(), segmentMetadata.getId());
         this.segmentName = segmentMetadata.getName();
         this.storage = storage;
         this.executor = executor;
+        this.prefetchBlockLength = prefetchBlockLength;
+        this.maxPrefetchBlockCount = maxPrefetchBlockCount;
+        this.cacheUtilizationProvider = cacheUtilizationProvider;
+        this.prefetchTarget = prefetchTarget;
         this.pendingRequests = new TreeMap<>();
+        this.lastReadEndOffset = -1;
+        this.prefetchEndOffset = -1;
     }
 
     //endregion
@@ -103,25 +154,51 @@ public class StorageReadManager implements AutoCloseable {
      * @param request The request to queue.
      */
     void execute(Request request) {
+        execute(request, false);
+    }
+
+    /**
+     * Queues the given request, same as execute(Request), and optionally prefetches the data following it if this is
+     * part of a sequential read.
+     *
+     * @param request       The request to queue.
+     * @param allowPrefetch If true, this request is considered for sequential read detection and may trigger prefetching.
+     *                      This has no effect if this StorageReadManager has no PrefetchTarget.
+     */
+    void execute(Request request, boolean allowPrefetch) {
         log.debug("{}: StorageRead.Execute {}", this.traceObjectId, request);
+        boolean isDependent = false;
+        List<Request> prefetchRequests = Collections.emptyList();
         synchronized (this.lock) {
             Exceptions.checkNotClosed(this.closed, this);
             Request existingRequest = findOverlappingRequest(request);
             if (existingRequest != null) {
-                // We found an overlapping request. Adjust the current request length.
-                int newLength = (int) (existingRequest.getOffset() + existingRequest.getLength() - request.getOffset());
-                if (newLength > 0 && newLength < request.getLength()) {
+                // We found an overlapping request. If the current request extends beyond it, trim it so that it ends where
+                // the existing one does (the caller will issue another read for the rest); if it is fully contained in
+                // it (including when both end at the same offset), it is left as is. Either way, it becomes a dependent.
+                int newLength = (int) Math.min(request.getLength(), existingRequest.getEndOffset() - request.getOffset());
+                if (newLength > 0) {
                     request.adjustLength(newLength);
                     existingRequest.addDependent(request);
-                    return;
+                    isDependent = true;
                 }
             }
 
-            this.pendingRequests.put(request.getOffset(), request);
+            if (!isDependent) {
+                this.pendingRequests.put(request.getOffset(), request);
+            }
+
+            if (allowPrefetch && isPrefetchEnabled()) {
+                prefetchRequests = getPrefetchRequests(request, isDependent && existingRequest.isPrefetch());
+            }
         }
 
         // Initiate the Storage Read.
-        executeStorageRead(request);
+        if (!isDependent) {
+            executeStorageRead(request);
+        }
+
+        prefetchRequests.forEach(this::executePrefetch);
     }
 
     /**
@@ -191,6 +268,88 @@ public class StorageReadManager implements AutoCloseable {
         return null;
     }
 
+    private boolean isPrefetchEnabled() {
+        return this.maxPrefetchBlockCount > 0;
+    }
+
+    /**
+     * Determines whether the given request is part of a sequential read, adjusts the number of blocks to prefetch
+     * accordingly and creates the prefetch Requests (which are not yet registered).
+     *
+     * @param request            The request to evaluate.
+     * @param waitingForPrefetch True if the request is waiting on a pending prefetch Request.
+     * @return A List of prefetch Requests to execute.
+     */
+    @GuardedBy("lock")
+    private List<Request> getPrefetchRequests(Request request, boolean waitingForPrefetch) {
+        long offset = request.getOffset();
+        boolean sequential = this.lastReadEndOffset >= 0
+                && offset >= this.lastReadEndOffset
+                && offset <= Math.max(this.lastReadEndOffset, this.prefetchEndOffset);
+        if (!sequential) {
+            // Random read; stop prefetching until we detect a sequential read again.
+            this.prefetchBlockCount = 0;
+            this.prefetchEndOffset = -1;
+        } else if (waitingForPrefetch || (this.prefetchEndOffset > this.lastReadEndOffset && offset == this.prefetchEndOffset)) {
+            // The reader consumed all prefetched data (or is waiting for it). Prefetch more next time.
+            this.prefetchBlockCount = Math.min(Math.max(1, 2 * this.prefetchBlockCount), this.maxPrefetchBlockCount);
+        } else if (offset < this.prefetchEndOffset) {
+            // Prefetched data has been evicted before the reader got to it. Prefetch less.
+            this.prefetchBlockCount /= 2;
+        } else {
+            // Sequential read, but we have not prefetched anything yet.
+            this.prefetchBlockCount = Math.max(1, this.prefetchBlockCount);
+        }
+
+        if (this.cacheUtilizationProvider.getCacheUtilization() >= CACHE_UTILIZATION_PREFETCH_THRESHOLD) {
+            // The Cache is under pressure; anything we prefetch now would likely be evicted before being read.
+            this.prefetchBlockCount /= 2;
+            this.lastReadEndOffset = request.getEndOffset();
+            return Collections.emptyList();
+        }
+
+        this.lastReadEndOffset = request.getEndOffset();
+        long nextOffset = Math.max(this.lastReadEndOffset, this.prefetchEndOffset);
+        long endOffset = this.lastReadEndOffset + (long) this.prefetchBlockCount * this.prefetchBlockLength;
+        ArrayList<Request> result = new ArrayList<>();
+        while (nextOffset < endOffset) {
+            int length = (int) Math.min(this.prefetchBlockLength - nextOffset % this.prefetchBlockLength, endOffset - nextOffset);
+            final long prefetchOffset = nextOffset;
+            result.add(new Request(prefetchOffset, length, r -> this.prefetchTarget.acceptPrefetched(prefetchOffset, r.getData()),
+                    ex -> log.debug("{}: Prefetch failed (Offset = {}).", this.traceObjectId, prefetchOffset, ex), request.getTimeout(), true));
+            nextOffset += length;
+        }
+
+        this.prefetchEndOffset = Math.max(this.prefetchEndOffset, nextOffset);
+        return result;
+    }
+
+    /**
+     * Executes the given prefetch Request, unless the PrefetchTarget already has (some of) its data or there is already
+     * a pending Request for it.
+     *
+     * @param request The prefetch Request.
+     */
+    private void executePrefetch(Request request) {
+        // This must not be invoked while holding the lock, since the PrefetchTarget may acquire its own locks.
+        int length = this.prefetchTarget.getPrefetchLength(request.getOffset(), request.getLength());
+        if (length <= 0) {
+            return;
+        }
+
+        request.adjustLength(length);
+        synchronized (this.lock) {
+            if (this.closed || findOverlappingRequest(request) != null) {
+                return;
+            }
+
+            this.pendingRequests.put(request.getOffset(), request);
+        }
+
+        log.debug("{}: StorageRead.Prefetch {}", this.traceObjectId, request);
+        executeStorageRead(request);
+    }
+
     private CompletableFuture<SegmentHandle> getHandle() {
         synchronized (this.lock) {
             if (this.handle == null) {
@@ -203,6 +362,33 @@ public class StorageReadManager implements AutoCloseable {
 
     //endregion
 
+    //region PrefetchTarget
+
+    /**
+     * Defines a target for data that is prefetched by a StorageReadManager.
+     */
+    interface PrefetchTarget {
+        /**
+         * Determines how many bytes may be prefetched at the given offset.
+         *
+         * @param offset    The offset to prefetch at.
+         * @param maxLength The maximum number of bytes to prefetch.
+         * @return The number of bytes (at most maxLength) that may be prefetched at the given offset, or 0 if nothing
+         * should be prefetched at this offset (i.e., the data is already available or it is not in Storage).
+         */
+        int getPrefetchLength(long offset, int maxLength);
+
+        /**
+         * Accepts data that has been prefetched.
+         *
+         * @param offset The offset of the data.
+         * @param data   The data.
+         */
+        void acceptPrefetched(long offset, ByteArraySegment data);
+    }
+
+    //endregion
+
     //region Result
 
     /**
@@ -251,6 +437,7 @@ public class StorageReadManager implements AutoCloseable {
         private int length;
         private final CompletableFuture<Result> resultFuture;
         private final Duration timeout;
+        private final boolean prefetch;
 
         //endregion
 
@@ -266,12 +453,17 @@ public class StorageReadManager implements AutoCloseable {
          * @param timeout         Timeout for the request.
          */
         Request(long offset, int length, Consumer<Result> successCallback, Consumer<Throwable> failureCallback, Duration timeout) {
+            this(offset, length, successCallback, failureCallback, timeout, false);
+        }
+
+        private Request(long offset, int length, Consumer<Result> successCallback, Consumer<Throwable> failureCallback, Duration timeout, boolean prefetch) {
             Preconditions.checkArgument(offset >= 0, "offset must be a non-negative number.");
             Preconditions.checkArgument(length > 0, "length must be a positive integer.");
 
             this.offset = offset;
             this.length = length;
             this.timeout = timeout;
+            this.prefetch = prefetch;
             this.resultFuture = new CompletableFuture<>();
             this.resultFuture.thenAccept(successCallback);
             Futures.exceptionListener(this.resultFuture, failureCallback);
@@ -316,6 +508,13 @@ public class StorageReadManager implements AutoCloseable {
             return this.timeout;
         }
 
+        /**
+         * Gets a value indicating whether this Request was issued by the StorageReadManager to prefetch data.
+         */
+        boolean isPrefetch() {
+            return this.prefetch;
+        }
+
         /**
          * Registers the given request as a dependent of this request. If this Request succeeds, the given Request will
          * be completed as well (with the appropriate result). If this Request fails, the given Request will fail as well.
@@ -341,7 +540,7 @@ public class StorageReadManager implements AutoCloseable {
 
         @Override
         public String toString() {
-            return String.format("Offset = %d, Length = %d", this.offset, this.length);
+            return String.format("Offset = %d, Length = %d, Prefetch = %s", this.offset, this.length, this.prefetch);
         }
 
         //endregion
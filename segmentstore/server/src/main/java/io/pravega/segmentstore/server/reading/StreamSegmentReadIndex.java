@@ -15,6 +15,7 @@ import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.AvlTreeIndex;
+import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.SortedIndex;
 import io.pravega.segmentstore.contracts.ReadResult;
@@ -48,14 +49,15 @@ import lombok.val;
  * <ol>
  * <li> The tail-end part of the StreamSegment (the part that is in DurableLog, but not yet in Storage).
  * <li> The part of the StreamSegment that is in Storage, but not in DurableLog. This data will be brought into memory
- * for fast read-ahead access.
+ * for fast read-ahead access, except for large sequential reads far behind the tail of the StreamSegment, which are served
+ * directly from Storage (see SequentialScanTracker).
  * <li> Future appends. If a read operation requests data from an offset in the future, the read operation will block until
  * data becomes available or until it gets canceled.
  * </ol>
  */
 @Slf4j
 @ThreadSafe
-class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
+class StreamSegmentReadIndex implements CacheManager.Client, StorageReadManager.PrefetchTarget, AutoCloseable {
     //region Members
 
     private final String traceObjectId;
@@ -68,7 +70,9 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     @GuardedBy("lock")
     private final HashMap<Long, Long> mergeOffsets; //Key = StreamSegmentId (Merged), Value = Merge offset.
     private final StorageReadManager storageReadManager;
+    private final SequentialScanTracker scanTracker;
     private final ReadIndexSummary summary;
+    private final CacheManager cacheManager;
     private final ScheduledExecutorService executor;
     private SegmentMetadata metadata;
     @GuardedBy("lock")
@@ -89,27 +93,35 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param metadata     The StreamSegmentMetadata to use.
      * @param cache        The Cache to use to store, read and manage data entries.
      * @param storage      A ReadOnlyStorage to fetch data if not in Cache.
+     * @param cacheManager The CacheManager to report cache hits and misses to.
      * @param executor     An executor to run async operations.
      * @param recoveryMode Whether we are in recovery mode at the time of creation (this can change later on).
      * @throws NullPointerException If any of the arguments are null.
      */
-    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage, ScheduledExecutorService executor, boolean recoveryMode) {
+    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage, CacheManager cacheManager,
+                           ScheduledExecutorService executor, boolean recoveryMode) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(cache, "cache");
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(cacheManager, "cacheManager");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("ReadIndex[%d-%d]", metadata.getContainerId(), metadata.getId());
         this.config = config;
         this.metadata = metadata;
         this.cache = cache;
+        this.cacheManager = cacheManager;
         this.recoveryMode = recoveryMode;
         this.indexEntries = new AvlTreeIndex<>();
         this.futureReads = new FutureReadResultEntryCollection();
         this.mergeOffsets = new HashMap<>();
         this.lastAppendedOffset = -1;
-        this.storageReadManager = new StorageReadManager(metadata, storage, executor);
+        this.storageReadManager = new StorageReadManager(metadata, storage, config.getStorageReadAlignment(),
+                config.getStoragePrefetchMaxBlockCount(), cacheManager, this, executor);
+        this.scanTracker = new SequentialScanTracker(config.getStorageReadBypassThreshold(), config.getStorageReadAlignment(),
+                Math.max(config.getStorageReadAlignment(), config.getStorageReadAheadMaxLength()),
+                (long) config.getStoragePrefetchMaxBlockCount() * config.getStorageReadAlignment(), cacheManager);
         this.executor = executor;
         this.summary = new ReadIndexSummary();
     }
@@ -138,6 +150,9 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // Close storage reader (and thus cancel those reads).
             this.storageReadManager.close();
 
+            // Release any read-ahead data.
+            this.scanTracker.close();
+
             // Cancel future reads.
             this.futureReads.close();
             if (cleanCache) {
@@ -192,20 +207,28 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Update the current generation with the provided info.
         this.summary.setCurrentGeneration(currentGeneration);
 
+        // Discard any read-ahead data that has not been used since the last time we were called. This data is not stored
+        // in the cache, so it is not included in the size reduction.
+        this.scanTracker.releaseIdleReadAhead();
+
         // Identify & collect those entries that can be removed, then remove them from the index.
         AtomicLong sizeRemoved = new AtomicLong();
         ArrayList<ReadIndexEntry> toRemove = new ArrayList<>();
+        CachePolicy cachePolicy = this.cacheManager.getPolicy();
+        double cacheUtilization = this.cacheManager.getCacheUtilization();
         synchronized (this.lock) {
             this.indexEntries.forEach(entry -> {
                 // We can only evict if both these conditions are met:
                 // 1. The entry is a Cache Entry (Redirect entries cannot be removed).
                 // 2. Every single byte in the entry has to exist in Storage.
                 // In addition, we are free to evict (regardless of Generation, but still subject to the above rules) if
-                // every single byte in the entry has been truncated out.
+                // every single byte in the entry has been truncated out. The CachePolicy decides which Generation to
+                // compare against (which may factor in how frequently the entry has been accessed).
                 long lastOffset = entry.getLastStreamSegmentOffset();
                 boolean canRemove = entry.isDataEntry()
                         && lastOffset <= this.metadata.getStorageLength()
-                        && (entry.getGeneration() < oldestGeneration || lastOffset < this.metadata.getStartOffset());
+                        && (cachePolicy.getEvictionGeneration(entry.getGeneration(), entry.getFrequency(), currentGeneration, cacheUtilization) < oldestGeneration
+                        || lastOffset < this.metadata.getStartOffset());
                 if (canRemove) {
                     toRemove.add(entry);
                 }
@@ -220,7 +243,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
         // Update the summary (no need for holding the lock here; we are not modifying the index).
         toRemove.forEach(e -> {
-            long entryLength = e.getLength();
+            long entryLength = getStoredLength(e);
             this.summary.remove(entryLength, e.getGeneration());
             sizeRemoved.addAndGet(entryLength);
         });
@@ -230,6 +253,53 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
     //endregion
 
+    //region StorageReadManager.PrefetchTarget Implementation
+
+    @Override
+    public int getPrefetchLength(long offset, int maxLength) {
+        if (this.closed || this.merged || this.recoveryMode) {
+            return 0;
+        }
+
+        long storageLength = this.metadata.getStorageLength();
+        if (offset >= storageLength) {
+            return 0;
+        }
+
+        synchronized (this.lock) {
+            ReadIndexEntry indexEntry = this.indexEntries.getFloor(offset);
+            if (indexEntry != null && offset <= indexEntry.getLastStreamSegmentOffset()) {
+                // We already have this offset in the index.
+                return 0;
+            }
+
+            maxLength = getLengthUntilNextEntry(offset, maxLength);
+        }
+
+        return (int) Math.min(maxLength, storageLength - offset);
+    }
+
+    @Override
+    public void acceptPrefetched(long offset, ByteArraySegment data) {
+        if (this.closed || this.merged) {
+            // Nothing to do; the data is no longer needed.
+            return;
+        }
+
+        try {
+            insert(offset, data);
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw ex;
+            }
+
+            // Prefetching is only an optimization; a failure to insert this data must not affect anything else.
+            log.warn("{}: Unable to insert prefetched data (Offset = {}, Length = {}).", this.traceObjectId, offset, data.getLength(), ex);
+        }
+    }
+
+    //endregion
+
     //region Properties
 
     @Override
@@ -313,11 +383,11 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @throws IllegalArgumentException If the operation would cause writing beyond the StreamSegment's Length.
      * @throws IllegalArgumentException If the offset is invalid (does not match the previous append offset).
      */
-    void append(long offset, byte[] data) {
+    void append(long offset, BufferView data) {
         Exceptions.checkNotClosed(this.closed, this);
         Preconditions.checkState(!isMerged(), "StreamSegment has been merged into a different one. Cannot append more ReadIndex entries.");
 
-        if (data.length == 0) {
+        if (data.getLength() == 0) {
             // Nothing to do. Adding empty read entries will only make our system slower and harder to debug.
             return;
         }
@@ -326,13 +396,38 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Adding at the end means that we always need to "catch-up" with Length. Check to see if adding
         // this entry will make us catch up to it or not.
         long length = this.metadata.getLength();
-        long endOffset = offset + data.length;
+        long endOffset = offset + data.getLength();
         Exceptions.checkArgument(endOffset <= length, "offset", "The given range of bytes (%d-%d) is beyond the StreamSegment Length (%d).", offset, endOffset, length);
 
         // Then append an entry for it in the ReadIndex. It's ok to insert into the cache outside of the lock here,
         // since there is no chance of competing with another write request for the same offset at the same time.
-        this.cache.insert(new CacheKey(this.metadata.getId(), offset), data);
-        appendEntry(new CacheIndexEntry(offset, data.length));
+        insertInCache(new CacheKey(this.metadata.getId(), offset), data);
+        CacheIndexEntry entry = new CacheIndexEntry(offset, data.getLength());
+
+        // Appended data is what tail readers are about to read, so it does not need to go through probation.
+        entry.setFrequency(1);
+        appendEntry(entry);
+    }
+
+    /**
+     * Inserts the given data into the Cache. If the data is already backed by a byte array, it is handed over as-is (the
+     * Cache implementation decides whether it needs to make a copy); otherwise a copy of it is made, since the original
+     * buffer may be released as soon as this method returns.
+     *
+     * @param key  The CacheKey to insert at.
+     * @param data The data to insert.
+     */
+    private void insertInCache(CacheKey key, BufferView data) {
+        if (data instanceof ByteArraySegment) {
+            ByteArraySegment segment = (ByteArraySegment) data;
+            if (segment.arrayOffset() == 0 && segment.getLength() == segment.array().length) {
+                this.cache.insert(key, segment.array());
+            } else {
+                this.cache.insert(key, segment);
+            }
+        } else {
+            this.cache.insert(key, data.getCopy());
+        }
     }
 
     /**
@@ -481,22 +576,29 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         if (entry.isDataEntry()) {
             if (entry instanceof MergedIndexEntry) {
                 // This entry has already existed in the cache for a while; do not change its generation.
-                this.summary.add(entry.getLength(), entry.getGeneration());
+                this.summary.add(getStoredLength(entry), entry.getGeneration());
             } else {
                 // Update the Stats with the entry's length, and set the entry's generation as well.
-                int generation = this.summary.add(entry.getLength());
+                int generation = this.summary.add(getStoredLength(entry));
                 entry.setGeneration(generation);
             }
         }
 
         if (oldEntry != null && oldEntry.isDataEntry()) {
             // Need to eject the old entry's data from the Cache Stats.
-            this.summary.remove(oldEntry.getLength(), oldEntry.getGeneration());
+            this.summary.remove(getStoredLength(oldEntry), oldEntry.getGeneration());
         }
 
         return oldEntry;
     }
 
+    /**
+     * Gets the number of bytes the given entry actually occupies in the Cache, which is what we report to the CacheManager.
+     */
+    private long getStoredLength(ReadIndexEntry entry) {
+        return this.cache.getStoredLength((int) entry.getLength());
+    }
+
     //endregion
 
     //region Reading
@@ -856,6 +958,13 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 actualReadLength = maxLength;
             }
 
+            // If this is a continuation of a sequential scan that bypasses the cache, we may already have the data.
+            ByteArraySegment readAhead = this.scanTracker.read(streamSegmentOffset, (int) actualReadLength);
+            if (readAhead != null) {
+                return new CacheReadResultEntry(streamSegmentOffset, readAhead.array(), readAhead.arrayOffset(), readAhead.getLength());
+            }
+
+            this.cacheManager.recordMiss();
             return createStorageRead(streamSegmentOffset, (int) actualReadLength);
         } else {
             // Note that Future Reads are not necessarily tail reads. They mean that we cannot return a result given
@@ -887,9 +996,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         assert data != null : String.format("No Cache Entry could be retrieved for entry %s", entry);
 
         if (updateStats) {
-            // Update its generation before returning it.
+            // Update its generation and access frequency before returning it.
             int generation = this.summary.touchOne(entry.getGeneration());
-            entry.setGeneration(generation);
+            entry.recordAccess(generation);
+            this.cacheManager.recordHit();
         }
 
         return new CacheReadResultEntry(entry.getStreamSegmentOffset(), data, entryOffset, length);
@@ -906,9 +1016,16 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     }
 
     private void queueStorageRead(long offset, int length, Consumer<ReadResultEntryContents> successCallback, Consumer<Throwable> failureCallback, Duration timeout) {
+        int bypassReadLength = this.scanTracker.getBypassReadLength(offset, this.metadata.getLength() - offset);
+        if (bypassReadLength > 0) {
+            queueBypassStorageRead(offset, length, bypassReadLength, successCallback, failureCallback, timeout);
+            return;
+        }
+
         // Create a callback that inserts into the ReadIndex (and cache) and invokes the success callback.
         Consumer<StorageReadManager.Result> doneCallback = result -> {
             ByteArraySegment data = result.getData();
+            this.scanTracker.recordStorageRead(offset, data.getLength());
 
             // Make sure we invoke our callback first, before any chance of exceptions from insert() may block it.
             successCallback.accept(new ReadResultEntryContents(data.getReader(), data.getLength()));
@@ -921,7 +1038,33 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
         // Queue the request for async processing.
         length = getReadAlignedLength(offset, length);
-        this.storageReadManager.execute(new StorageReadManager.Request(offset, length, doneCallback, failureCallback, timeout));
+        this.storageReadManager.execute(new StorageReadManager.Request(offset, length, doneCallback, failureCallback, timeout), true);
+    }
+
+    /**
+     * Queues a Storage read for a sequential scan that bypasses the cache. The data is not inserted into the ReadIndex;
+     * anything read beyond the requested length is retained by the SequentialScanTracker as read-ahead for the next read.
+     *
+     * @param offset           The read offset.
+     * @param length           The requested read length. At most one aligned block will be returned.
+     * @param bypassReadLength The number of bytes to read from Storage (including read-ahead).
+     */
+    private void queueBypassStorageRead(long offset, int length, int bypassReadLength, Consumer<ReadResultEntryContents> successCallback,
+                                        Consumer<Throwable> failureCallback, Duration timeout) {
+        int alignedLength = getReadAlignedLength(offset, length);
+        Consumer<StorageReadManager.Result> doneCallback = result -> {
+            ByteArraySegment data = result.getData();
+            int returnedLength = Math.min(alignedLength, data.getLength());
+
+            // Register the read-ahead before invoking the callback, so that it is available for the next read.
+            this.scanTracker.recordBypassRead(offset, data, returnedLength);
+            successCallback.accept(new ReadResultEntryContents(data.getReader(0, returnedLength), returnedLength));
+        };
+
+        int readLength = (int) Math.max(alignedLength, Math.min(bypassReadLength, this.metadata.getStorageLength() - offset));
+        log.debug("{}: Bypassing cache for sequential Storage read (Offset = {}, Length = {}, ReadLength = {}).",
+                this.traceObjectId, offset, length, readLength);
+        this.storageReadManager.execute(new StorageReadManager.Request(offset, readLength, doneCallback, failureCallback, timeout));
     }
 
     /**
@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.store;
 import com.google.common.base.Strings;
 import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import java.net.Inet4Address;
@@ -39,10 +40,12 @@ public class ServiceConfig {
     public static final Property<String> CLUSTER_NAME = Property.named("clusterName", "pravega-cluster");
     public static final Property<DataLogType> DATALOG_IMPLEMENTATION = Property.named("dataLogImplementation", DataLogType.INMEMORY);
     public static final Property<StorageType> STORAGE_IMPLEMENTATION = Property.named("storageImplementation", StorageType.INMEMORY);
+    public static final Property<CacheType> CACHE_IMPLEMENTATION = Property.named("cacheImplementation", CacheType.ROCKSDB);
     public static final Property<Boolean> READONLY_SEGMENT_STORE = Property.named("readOnlySegmentStore", false);
     public static final Property<Boolean> ENABLE_TLS = Property.named("enableTls", false);
     public static final Property<String> CERT_FILE = Property.named("certFile", "");
     public static final Property<String> KEY_FILE = Property.named("keyFile", "");
+    public static final Property<Integer> MAX_OUTSTANDING_APPEND_BYTES = Property.named("maxOutstandingAppendBytes", 4 * 1024 * 1024);
 
     public static final String COMPONENT_CODE = "pravegaservice";
 
@@ -84,6 +87,23 @@ public class ServiceConfig {
         INMEMORY
     }
 
+    public enum CacheType {
+        /**
+         * Cache is implemented by a RocksDB database on the local file system.
+         */
+        ROCKSDB,
+
+        /**
+         * Cache is implemented by slabs of direct (off-heap) memory.
+         */
+        DIRECTMEMORY,
+
+        /**
+         * InMemory (on-heap) Cache. Not recommended for production use.
+         */
+        INMEMORY
+    }
+
     //endregion
 
     //region Members
@@ -179,6 +199,12 @@ public class ServiceConfig {
     @Getter
     private final StorageType storageImplementation;
 
+    /**
+     * The Type of Cache Implementation to use.
+     */
+    @Getter
+    private final CacheType cacheImplementation;
+
     /**
      * Whether this SegmentStore instance is Read-Only (i.e., it can only process reads from Storage and nothing else).
      * Note that if this is set to 'true', then many other settings will not apply. The most important other one to set
@@ -204,6 +230,13 @@ public class ServiceConfig {
      */
     @Getter
     private final String keyFile;
+
+    /**
+     * The maximum number of bytes (per client connection) that can be in flight to the Segment Store at any given time.
+     * Appends from different writers on the same connection are processed concurrently until this limit is reached.
+     */
+    @Getter
+    private final int maxOutstandingAppendBytes;
     //endregion
 
     //region Constructor
@@ -247,10 +280,16 @@ public class ServiceConfig {
         this.clusterName = properties.get(CLUSTER_NAME);
         this.dataLogTypeImplementation = properties.getEnum(DATALOG_IMPLEMENTATION, DataLogType.class);
         this.storageImplementation = properties.getEnum(STORAGE_IMPLEMENTATION, StorageType.class);
+        this.cacheImplementation = properties.getEnum(CACHE_IMPLEMENTATION, CacheType.class);
         this.readOnlySegmentStore = properties.getBoolean(READONLY_SEGMENT_STORE);
         this.enableTls = properties.getBoolean(ENABLE_TLS);
         this.keyFile = properties.get(KEY_FILE);
         this.certFile = properties.get(CERT_FILE);
+        this.maxOutstandingAppendBytes = properties.getInt(MAX_OUTSTANDING_APPEND_BYTES);
+        if (this.maxOutstandingAppendBytes <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    MAX_OUTSTANDING_APPEND_BYTES, this.maxOutstandingAppendBytes));
+        }
     }
 
     /**
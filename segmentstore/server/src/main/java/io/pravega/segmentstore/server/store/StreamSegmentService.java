@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.store;
 import com.google.common.base.Preconditions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.BufferView;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.ContainerNotFoundException;
 import io.pravega.segmentstore.contracts.ReadResult;
@@ -22,6 +23,7 @@ import io.pravega.segmentstore.server.SegmentContainerRegistry;
 import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -57,19 +59,19 @@ public class StreamSegmentService implements StreamSegmentStore {
     //region StreamSegmentStore Implementation
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+    public CompletableFuture<Void> append(String streamSegmentName, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         return invoke(
                 streamSegmentName,
                 container -> container.append(streamSegmentName, data, attributeUpdates, timeout),
-                "append", streamSegmentName, data.length, attributeUpdates);
+                "append", streamSegmentName, data.getLength(), attributeUpdates);
     }
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         return invoke(
                 streamSegmentName,
                 container -> container.append(streamSegmentName, offset, data, attributeUpdates, timeout),
-                "appendWithOffset", streamSegmentName, offset, data.length, attributeUpdates);
+                "appendWithOffset", streamSegmentName, offset, data.getLength(), attributeUpdates);
     }
 
     @Override
@@ -96,6 +98,15 @@ public class StreamSegmentService implements StreamSegmentStore {
                 "getStreamSegmentInfo", streamSegmentName, waitForPendingOps);
     }
 
+    @Override
+    public CompletableFuture<Map<UUID, Long>> getAttributes(String streamSegmentName, Collection<UUID> attributeIds,
+                                                            boolean waitForPendingOps, Duration timeout) {
+        return invoke(
+                streamSegmentName,
+                container -> container.getAttributes(streamSegmentName, attributeIds, waitForPendingOps, timeout),
+                "getAttributes", streamSegmentName, attributeIds, waitForPendingOps);
+    }
+
     @Override
     public CompletableFuture<Void> createStreamSegment(String streamSegmentName, Collection<AttributeUpdate> attributes, Duration timeout) {
         return invoke(
@@ -18,6 +18,8 @@ import io.pravega.common.Timer;
 import io.pravega.common.concurrent.AbstractThreadPoolService;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
 import io.pravega.segmentstore.server.Writer;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
@@ -26,8 +28,13 @@ import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.StorageOperation;
 import io.pravega.segmentstore.storage.Storage;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -51,6 +58,18 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
     private final WriterState state;
     private final Timer timer;
     private final AckCalculator ackCalculator;
+    /**
+     * Flushes that are currently in progress, indexed by Segment Id. Only modified from within the iteration stages, which
+     * execute sequentially; close() only inspects it.
+     */
+    private final ConcurrentHashMap<Long, CompletableFuture<FlushResult>> pendingFlushes;
+    /**
+     * StorageOperations for Segments with a flush in progress, indexed by Segment Id. These are held back until the flush
+     * completes, since a SegmentAggregator must not be modified while it is flushing. Only accessed from within the
+     * iteration stages.
+     */
+    private final HashMap<Long, ArrayDeque<StorageOperation>> deferredOperations;
+    private final SegmentStoreMetrics.StorageWriter metrics;
 
     //endregion
 
@@ -78,6 +97,28 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         this.state = new WriterState();
         this.timer = new Timer();
         this.ackCalculator = new AckCalculator(this.state);
+        this.pendingFlushes = new ConcurrentHashMap<>();
+        this.deferredOperations = new HashMap<>();
+        this.metrics = new SegmentStoreMetrics.StorageWriter(dataSource.getId());
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        super.close();
+
+        // Flushes may still be running in the background; wait for them so that nothing touches Storage after we're closed.
+        val pending = new ArrayList<CompletableFuture<FlushResult>>(this.pendingFlushes.values());
+        if (!pending.isEmpty() && !Futures.await(Futures.allOf(pending), getShutdownTimeout().toMillis())) {
+            log.warn("{}: {} flush(es) did not complete successfully while closing.", this.traceObjectId, pending.size());
+        }
+
+        // Do not leave behind per-Segment gauges for Segments that we are no longer handling.
+        this.aggregators.values().forEach(a -> this.metrics.segmentRemoved(a.getMetadata().getName()));
+        this.metrics.close();
     }
 
     //endregion
@@ -95,7 +136,7 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         // 1. Delay (if necessary).
         // 2. Read data.
         // 3. Load data into SegmentAggregators.
-        // 4. Flush eligible SegmentAggregators.
+        // 4. Flush eligible SegmentAggregators (slow flushes may continue in the background, past the end of this iteration).
         // 5. Acknowledge (truncate).
         return Futures.loop(
                 this::canRun,
@@ -254,6 +295,14 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
     }
 
     private CompletableFuture<Void> processStorageOperation(StorageOperation op) {
+        long segmentId = op.getStreamSegmentId();
+        if (this.pendingFlushes.containsKey(segmentId) || this.deferredOperations.containsKey(segmentId)) {
+            // The Segment's Aggregator is being flushed. Adding to it now would race with that flush, so hold the
+            // operation (and any that come after it for this Segment) until the flush completes.
+            this.deferredOperations.computeIfAbsent(segmentId, id -> new ArrayDeque<>()).add(op);
+            return CompletableFuture.completedFuture(null);
+        }
+
         // Add the operation to the appropriate Aggregator.
         return getSegmentAggregator(op.getStreamSegmentId())
                 .thenAccept(aggregator -> {
@@ -271,41 +320,146 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
 
     /**
      * Flushes eligible operations to Storage, if necessary. Does not perform any mergers.
+     *
+     * At most WriterConfig.MaxConcurrentFlushes SegmentAggregators are flushed at any given time; if more are eligible,
+     * those with the oldest unflushed operations (which hold back the truncation of the OperationLog) are flushed first.
+     * This stage waits at most WriterConfig.MaxFlushWait for the flushes to complete; any flush that takes longer continues
+     * in the background and its outcome is collected by a subsequent iteration. A SegmentAggregator with a flush in progress
+     * keeps its operations until that flush completes, so the Ack Stage will not acknowledge past them.
      */
     private CompletableFuture<Void> flush(Void ignored) {
         checkRunning();
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "flush");
 
-        // Flush everything we can flush.
-        val flushFutures = this.aggregators.values().stream()
-                                           .filter(SegmentAggregator::mustFlush)
-                                           .map(a -> a.flush(this.config.getFlushTimeout()))
-                                           .collect(Collectors.toList());
-
-        return Futures
-                .allOfWithResults(flushFutures)
-                .thenAcceptAsync(flushResults -> {
-                    FlushStageResult result = new FlushStageResult();
-                    flushResults.forEach(result::withFlushResult);
-                    if (result.getFlushedBytes() + result.getMergedBytes() + result.count > 0) {
-                        logStageEvent("Flush", result);
+        // Collect the outcome of background flushes from previous iterations. If any of those failed, fail this stage.
+        FlushStageResult result = new FlushStageResult();
+        collectCompletedFlushes(result);
+
+        // Flush everything we can flush, oldest first.
+        this.aggregators.values().stream()
+                        .filter(a -> !this.pendingFlushes.containsKey(a.getMetadata().getId()) && a.mustFlush())
+                        .sorted(Comparator.comparingLong(StorageWriter::getFlushPriority))
+                        .limit(Math.max(0, this.config.getMaxConcurrentFlushes() - this.pendingFlushes.size()))
+                        .forEach(this::startFlush);
+        this.metrics.flushesInFlight(this.pendingFlushes.size());
+        this.aggregators.values().forEach(a -> this.metrics.segmentFlushLag(a.getMetadata().getName(), getFlushLag(a)));
+
+        return waitForPendingFlushes()
+                .thenRunAsync(() -> {
+                    collectCompletedFlushes(result);
+                    if (result.getFlushedBytes() + result.getMergedBytes() + result.count > 0 || !this.pendingFlushes.isEmpty()) {
+                        logStageEvent("Flush", result + ", Pending=" + this.pendingFlushes.size());
                     }
 
                     LoggerHelpers.traceLeave(log, this.traceObjectId, "flush", traceId);
                 }, this.executor);
     }
 
+    /**
+     * Begins flushing the given SegmentAggregator and registers the flush as pending.
+     *
+     * @param aggregator The SegmentAggregator to flush.
+     */
+    private void startFlush(SegmentAggregator aggregator) {
+        Timer flushTimer = new Timer();
+        CompletableFuture<FlushResult> flushFuture = aggregator.flush(this.config.getFlushTimeout());
+        flushFuture.whenComplete((r, ex) -> {
+            if (ex == null) {
+                this.metrics.flushCompleted(flushTimer.getElapsed());
+            } else {
+                this.metrics.flushFailed(flushTimer.getElapsed());
+            }
+        });
+
+        this.pendingFlushes.put(aggregator.getMetadata().getId(), flushFuture);
+    }
+
+    /**
+     * Returns a CompletableFuture that will be completed either when all pending flushes have completed or when
+     * WriterConfig.MaxFlushWait has elapsed, whichever comes first. The returned future never completes exceptionally;
+     * flush failures are handled by collectCompletedFlushes().
+     */
+    private CompletableFuture<Void> waitForPendingFlushes() {
+        if (this.pendingFlushes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> result = Futures.delayedFuture(this.config.getMaxFlushWait(), this.executor);
+        Futures.allOf(this.pendingFlushes.values()).whenComplete((r, ex) -> result.complete(null));
+        return result;
+    }
+
+    /**
+     * Removes all completed flushes from the pending flushes and includes their results into the given FlushStageResult.
+     * Any StorageOperations that were held back while those flushes were in progress are added to their SegmentAggregators.
+     *
+     * @param result The FlushStageResult to update.
+     * @throws CompletionException If at least one of the completed flushes failed. All completed flushes are removed
+     *                             from the pending list regardless.
+     */
+    private void collectCompletedFlushes(FlushStageResult result) {
+        Throwable failure = null;
+        val iterator = this.pendingFlushes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, CompletableFuture<FlushResult>> e = iterator.next();
+            CompletableFuture<FlushResult> flushFuture = e.getValue();
+            if (!flushFuture.isDone()) {
+                continue;
+            }
+
+            iterator.remove();
+            addDeferredOperations(e.getKey());
+            if (Futures.isSuccessful(flushFuture)) {
+                result.withFlushResult(flushFuture.join());
+            } else if (failure == null) {
+                failure = Futures.getException(flushFuture);
+            }
+        }
+
+        if (failure != null) {
+            throw new CompletionException(Exceptions.unwrap(failure));
+        }
+    }
+
+    /**
+     * Adds all the StorageOperations that were held back for the given Segment to its SegmentAggregator.
+     *
+     * @param segmentId The Id of the Segment.
+     * @throws CompletionException If the SegmentAggregator rejected an operation.
+     */
+    private void addDeferredOperations(long segmentId) {
+        val operations = this.deferredOperations.remove(segmentId);
+        if (operations == null) {
+            return;
+        }
+
+        // Aggregators with pending flushes are never cleaned up, so this one must still be registered.
+        SegmentAggregator aggregator = this.aggregators.get(segmentId);
+        assert aggregator != null : "no SegmentAggregator for Segment with deferred operations " + segmentId;
+        try {
+            for (StorageOperation op : operations) {
+                aggregator.add(op);
+            }
+        } catch (DataCorruptionException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
     /**
      * Cleans up all SegmentAggregators that are currently closed.
      */
     private void cleanup() {
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "cleanup");
         val toRemove = this.aggregators.values().stream()
+                                       .filter(a -> !this.pendingFlushes.containsKey(a.getMetadata().getId()))
                                        .map(this::closeIfNecessary)
                                        .filter(SegmentAggregator::isClosed)
-                                       .map(a -> a.getMetadata().getId())
+                                       .map(SegmentAggregator::getMetadata)
                                        .collect(Collectors.toList());
-        toRemove.forEach(this.aggregators::remove);
+        toRemove.forEach(sm -> {
+            this.aggregators.remove(sm.getId());
+            this.metrics.segmentRemoved(sm.getName());
+        });
         LoggerHelpers.traceLeave(log, this.traceObjectId, "cleanup", traceId, toRemove.size());
     }
 
@@ -331,6 +485,11 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "acknowledge");
 
         long highestCommittedSeqNo = this.ackCalculator.getHighestCommittedSequenceNumber(this.aggregators.values());
+        for (val operations : this.deferredOperations.values()) {
+            // Deferred operations have not been added to any SegmentAggregator yet, so they are not accounted for above.
+            highestCommittedSeqNo = Math.min(highestCommittedSeqNo, operations.peekFirst().getSequenceNumber() - 1);
+        }
+
         long ackSequenceNumber = this.dataSource.getClosestValidTruncationPoint(highestCommittedSeqNo);
         if (ackSequenceNumber > this.state.getLastTruncatedSequenceNumber()) {
             // Issue the truncation and update the state (when done).
@@ -392,6 +551,23 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         }
     }
 
+    /**
+     * Gets a value that determines the order in which SegmentAggregators are flushed (lower values go first). This is the
+     * Sequence Number of the oldest unflushed operation, which is what prevents the OperationLog from being truncated.
+     */
+    private static long getFlushPriority(SegmentAggregator aggregator) {
+        long seqNo = aggregator.getLowestUncommittedSequenceNumber();
+        return seqNo == Operation.NO_SEQUENCE_NUMBER ? Long.MAX_VALUE : seqNo;
+    }
+
+    /**
+     * Gets the number of bytes in the given SegmentAggregator's Segment that have not yet been flushed to Storage.
+     */
+    private static long getFlushLag(SegmentAggregator aggregator) {
+        SegmentMetadata sm = aggregator.getMetadata();
+        return Math.max(0, sm.getLength() - sm.getStorageLength());
+    }
+
     private boolean isCriticalError(Throwable ex) {
         return Exceptions.mustRethrow(ex)
                 || Exceptions.unwrap(ex) instanceof DataCorruptionException;
@@ -405,7 +581,8 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
     /**
      * Calculates the amount of time that should be used as a timeout for WriterDataSource reads. The following rules
      * are taken into consideration:
-     * * If at least one SegmentAggregator needs to flush right away, the timeout returned is 0.
+     * * If at least one SegmentAggregator needs to flush right away, the timeout returned is 0. SegmentAggregators that
+     * are already being flushed are not considered (they cannot be flushed again until the current flush completes).
      * * The returned timeout is the amount of time until the first SegmentAggregator is due to flush.
      * * The returned timeout (except in the first case) is bounded by WriterConfig.MinReadTimeout and WriterConfig.MaxReadTimeout.
      */
@@ -415,6 +592,10 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         long minTimeMillis = this.config.getMinReadTimeout().toMillis();
         long timeMillis = maxTimeMillis;
         for (SegmentAggregator a : this.aggregators.values()) {
+            if (this.pendingFlushes.containsKey(a.getMetadata().getId())) {
+                continue;
+            }
+
             if (a.mustFlush()) {
                 // We found a SegmentAggregator that needs to flush right away. No need to search anymore.
                 timeMillis = 0;
@@ -33,6 +33,8 @@ public class WriterConfig {
     public static final Property<Long> FLUSH_TIMEOUT_MILLIS = Property.named("flushTimeoutMillis", 60 * 1000L);
     public static final Property<Long> ACK_TIMEOUT_MILLIS = Property.named("ackTimeoutMillis", 15 * 1000L);
     public static final Property<Long> SHUTDOWN_TIMEOUT_MILLIS = Property.named("shutdownTimeoutMillis", 10 * 1000L);
+    public static final Property<Integer> MAX_CONCURRENT_FLUSHES = Property.named("maxConcurrentFlushes", 64);
+    public static final Property<Long> MAX_FLUSH_WAIT_MILLIS = Property.named("maxFlushWaitMillis", 5 * 1000L);
     private static final String COMPONENT_CODE = "writer";
 
     //endregion
@@ -99,6 +101,19 @@ public class WriterConfig {
     @Getter
     private final Duration shutdownTimeout;
 
+    /**
+     * The maximum number of SegmentAggregators that can be flushed to Storage at the same time.
+     */
+    @Getter
+    private final int maxConcurrentFlushes;
+
+    /**
+     * The maximum amount of time an iteration waits for in-progress flushes to complete before moving on to the Ack
+     * Stage. Flushes that take longer than this continue in the background and are picked up by subsequent iterations.
+     */
+    @Getter
+    private final Duration maxFlushWait;
+
     //endregion
 
     //region Constructor
@@ -137,6 +152,17 @@ public class WriterConfig {
         this.flushTimeout = Duration.ofMillis(properties.getLong(FLUSH_TIMEOUT_MILLIS));
         this.ackTimeout = Duration.ofMillis(properties.getLong(ACK_TIMEOUT_MILLIS));
         this.shutdownTimeout = Duration.ofMillis(properties.getLong(SHUTDOWN_TIMEOUT_MILLIS));
+        this.maxConcurrentFlushes = properties.getInt(MAX_CONCURRENT_FLUSHES);
+        if (this.maxConcurrentFlushes <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_CONCURRENT_FLUSHES));
+        }
+
+        long maxFlushWaitMillis = properties.getLong(MAX_FLUSH_WAIT_MILLIS);
+        if (maxFlushWaitMillis < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", MAX_FLUSH_WAIT_MILLIS));
+        }
+
+        this.maxFlushWait = Duration.ofMillis(maxFlushWaitMillis);
     }
 
     /**
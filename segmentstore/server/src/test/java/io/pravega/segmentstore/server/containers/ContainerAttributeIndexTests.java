@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.storage.AsyncStorageWrapper;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.segmentstore.storage.rolling.RollingStorage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the ContainerAttributeIndex and AttributeIndexPage classes.
+ */
+public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int CONTAINER_ID = 1;
+    private static final String SEGMENT_NAME = "Segment";
+    private static final int ATTRIBUTE_COUNT = 2000;
+    private static final int BATCH_SIZE = 100;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds() * 2);
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests serialization and lookups for AttributeIndexPage.
+     */
+    @Test
+    public void testPageSerialization() throws Exception {
+        val rnd = new Random(0);
+        val entries = new HashMap<UUID, Long>();
+        for (int i = 0; i < AttributeIndexPage.MAX_ENTRY_COUNT; i++) {
+            entries.put(new UUID(rnd.nextLong(), rnd.nextLong()), rnd.nextLong());
+        }
+
+        val leaf = AttributeIndexPage.deserialize(AttributeIndexPage.leaf(entries).serialize());
+        Assert.assertTrue("Expected a leaf page.", leaf.isLeaf());
+        AssertExtensions.assertMapEquals("Unexpected leaf page entries.", entries, leaf.getEntries());
+
+        val children = new ArrayList<AttributeIndexPage.PagePointer>();
+        int offset = 0;
+        for (UUID key : leaf.getEntries().keySet()) {
+            children.add(new AttributeIndexPage.PagePointer(key, offset, offset + 1));
+            offset += 10;
+        }
+
+        val index = AttributeIndexPage.deserialize(AttributeIndexPage.index(children).serialize());
+        Assert.assertFalse("Expected an index page.", index.isLeaf());
+        Assert.assertEquals("Unexpected index page children.", children, index.getChildren());
+        for (int i = 0; i < children.size(); i++) {
+            Assert.assertEquals("Unexpected child index for exact key.", i, index.getChildIndex(children.get(i).getKey()));
+        }
+
+        UUID smallest = children.get(0).getKey();
+        Assert.assertEquals("Unexpected child index for a key smaller than all keys.", 0,
+                index.getChildIndex(new UUID(smallest.getMostSignificantBits(), smallest.getLeastSignificantBits() - 1)));
+
+        AssertExtensions.assertThrows(
+                "deserialize() accepted a truncated serialization.",
+                () -> {
+                    AttributeIndexPage.deserialize(new byte[3]);
+                },
+                ex -> ex instanceof DataCorruptionException);
+
+        // Flipping any single bit must be caught by the trailer (Magic or Checksum).
+        byte[] serialization = AttributeIndexPage.leaf(entries).serialize();
+        for (int i = 0; i < serialization.length; i += 7) {
+            byte[] corrupted = serialization.clone();
+            corrupted[i] ^= 1 << (i % 8);
+            AssertExtensions.assertThrows(
+                    "deserialize() accepted a corrupted serialization (index " + i + ").",
+                    () -> {
+                        AttributeIndexPage.deserialize(corrupted);
+                    },
+                    ex -> ex instanceof DataCorruptionException);
+        }
+    }
+
+    /**
+     * Tests put() (inserts, updates and removals) and get(), including after reloading the index from Storage.
+     */
+    @Test
+    public void testPutGet() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        val rnd = new Random(0);
+        val expected = new HashMap<UUID, Long>();
+
+        // Nothing there yet.
+        val nonExisting = Collections.singletonList(UUID.randomUUID());
+        Assert.assertEquals("Not expecting any values in an empty index.", 0, index.get(SEGMENT_NAME, nonExisting, TIMEOUT).join().size());
+
+        // Removals only, on an empty index.
+        index.put(SEGMENT_NAME, Collections.singletonMap(nonExisting.get(0), SegmentMetadata.NULL_ATTRIBUTE_VALUE), TIMEOUT).join();
+        Assert.assertFalse("Not expecting an Attribute Segment to be created for removals only.",
+                storage.exists(StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME), TIMEOUT).join());
+
+        // Inserts.
+        val attributeIds = new ArrayList<UUID>();
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            attributeIds.add(new UUID(rnd.nextLong(), rnd.nextLong()));
+        }
+
+        for (int i = 0; i < attributeIds.size(); i += BATCH_SIZE) {
+            val batch = new HashMap<UUID, Long>();
+            attributeIds.subList(i, i + BATCH_SIZE).forEach(id -> batch.put(id, rnd.nextLong()));
+            index.put(SEGMENT_NAME, batch, TIMEOUT).join();
+            expected.putAll(batch);
+        }
+
+        checkIndex(index, attributeIds, expected);
+
+        // Updates and removals.
+        val batch = new HashMap<UUID, Long>();
+        for (int i = 0; i < attributeIds.size(); i++) {
+            UUID attributeId = attributeIds.get(i);
+            if (i % 4 == 0) {
+                batch.put(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+                expected.remove(attributeId);
+            } else if (i % 4 == 1) {
+                long value = rnd.nextLong();
+                batch.put(attributeId, value);
+                expected.put(attributeId, value);
+            }
+        }
+
+        index.put(SEGMENT_NAME, batch, TIMEOUT).join();
+        checkIndex(index, attributeIds, expected);
+
+        // Reload from Storage.
+        val index2 = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        checkIndex(index2, attributeIds, expected);
+
+        // Remove everything.
+        val removeAll = new HashMap<UUID, Long>();
+        attributeIds.forEach(id -> removeAll.put(id, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+        index2.put(SEGMENT_NAME, removeAll, TIMEOUT).join();
+        checkIndex(index2, attributeIds, Collections.emptyMap());
+        checkIndex(new ContainerAttributeIndex(CONTAINER_ID, storage, executorService()), attributeIds, Collections.emptyMap());
+    }
+
+    /**
+     * Tests the remove() and cleanup() methods.
+     */
+    @Test
+    public void testRemove() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        val attributeId = UUID.randomUUID();
+        index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 1L), TIMEOUT).join();
+        Assert.assertTrue("Expected the Attribute Segment to be created.",
+                storage.exists(StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME), TIMEOUT).join());
+
+        index.remove(SEGMENT_NAME, TIMEOUT).join();
+        Assert.assertFalse("Expected the Attribute Segment to be deleted.",
+                storage.exists(StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME), TIMEOUT).join());
+        Assert.assertEquals("Not expecting any values after remove().", 0,
+                index.get(SEGMENT_NAME, Collections.singleton(attributeId), TIMEOUT).join().size());
+
+        // Removing a non-existent index should not fail.
+        index.remove(SEGMENT_NAME, TIMEOUT).join();
+
+        // The index must still work after its cached state has been cleaned up.
+        index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 2L), TIMEOUT).join();
+        index.cleanup(Collections.singleton(SEGMENT_NAME));
+        AssertExtensions.assertMapEquals("Unexpected value after cleanup().", Collections.singletonMap(attributeId, 2L),
+                index.get(SEGMENT_NAME, Collections.singleton(attributeId), TIMEOUT).join());
+    }
+
+    /**
+     * Tests the ability to detect a corrupted Attribute Segment.
+     */
+    @Test
+    public void testCorruptedIndex() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val attributeSegment = StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME);
+        storage.create(attributeSegment, TIMEOUT)
+               .thenCompose(si -> storage.openWrite(attributeSegment))
+               .thenCompose(handle -> storage.write(handle, 0, new ByteArrayInputStream(new byte[3]), 3, TIMEOUT))
+               .join();
+
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        AssertExtensions.assertThrows(
+                "Unexpected behavior when reading a corrupted Attribute Segment.",
+                index.get(SEGMENT_NAME, Collections.singleton(UUID.randomUUID()), TIMEOUT),
+                ex -> ex instanceof DataCorruptionException);
+    }
+
+    /**
+     * Tests the ability to detect corrupted pages or footers in an otherwise well-formed Attribute Segment.
+     */
+    @Test
+    public void testCorruptedPageOrFooter() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        val attributeId = UUID.randomUUID();
+        index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 1L), TIMEOUT).join();
+
+        val attributeSegment = StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME);
+        int length = (int) storage.getStreamSegmentInfo(attributeSegment, TIMEOUT).join().getLength();
+        byte[] contents = new byte[length];
+        storage.openRead(attributeSegment)
+               .thenCompose(handle -> storage.read(handle, 0, contents, 0, length, TIMEOUT))
+               .join();
+
+        // The index consists of a single leaf page followed by the footer; corrupt the first byte of the page's entries
+        // and, separately, the first byte of the footer. Copy each corrupted version into its own Attribute Segment.
+        val corruptedOffsets = new int[]{10, length - 1};
+        for (int i = 0; i < corruptedOffsets.length; i++) {
+            byte[] corrupted = contents.clone();
+            corrupted[corruptedOffsets[i]] ^= 0xFF;
+            val segmentName = SEGMENT_NAME + i;
+            val corruptedSegment = StreamSegmentNameUtils.getAttributeSegmentName(segmentName);
+            storage.create(corruptedSegment, TIMEOUT)
+                   .thenCompose(si -> storage.openWrite(corruptedSegment))
+                   .thenCompose(handle -> storage.write(handle, 0, new ByteArrayInputStream(corrupted), corrupted.length, TIMEOUT))
+                   .join();
+
+            AssertExtensions.assertThrows(
+                    "Unexpected behavior when reading a corrupted Attribute Segment (offset " + corruptedOffsets[i] + ").",
+                    index.get(segmentName, Collections.singleton(attributeId), TIMEOUT),
+                    ex -> ex instanceof DataCorruptionException);
+        }
+
+        // The original index must still be readable.
+        AssertExtensions.assertMapEquals("Unexpected value in the uncorrupted index.", Collections.singletonMap(attributeId, 1L),
+                index.get(SEGMENT_NAME, Collections.singleton(attributeId), TIMEOUT).join());
+    }
+
+    /**
+     * Tests that data after the last valid footer (i.e., from an append that failed midway) is ignored when loading the
+     * index and that subsequent updates can still be applied.
+     */
+    @Test
+    public void testGarbageAfterFooter() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        val attributeId = UUID.randomUUID();
+        index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 1L), TIMEOUT).join();
+        index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 2L), TIMEOUT).join();
+
+        // Append more garbage than the footer length and the read length of the first footer scan.
+        val attributeSegment = StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME);
+        byte[] garbage = new byte[100 * 1024];
+        new Random(0).nextBytes(garbage);
+        long length = storage.getStreamSegmentInfo(attributeSegment, TIMEOUT).join().getLength();
+        storage.openWrite(attributeSegment)
+               .thenCompose(handle -> storage.write(handle, length, new ByteArrayInputStream(garbage), garbage.length, TIMEOUT))
+               .join();
+
+        val index2 = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        AssertExtensions.assertMapEquals("Unexpected value when loading an index with garbage after the footer.",
+                Collections.singletonMap(attributeId, 2L), index2.get(SEGMENT_NAME, Collections.singleton(attributeId), TIMEOUT).join());
+
+        index2.put(SEGMENT_NAME, Collections.singletonMap(attributeId, 3L), TIMEOUT).join();
+        AssertExtensions.assertMapEquals("Unexpected value after updating an index with garbage after the footer.",
+                Collections.singletonMap(attributeId, 3L),
+                new ContainerAttributeIndex(CONTAINER_ID, storage, executorService()).get(SEGMENT_NAME, Collections.singleton(attributeId), TIMEOUT).join());
+    }
+
+    /**
+     * Tests that the index is correctly compacted (rewritten and truncated) when it accumulates too much garbage.
+     */
+    @Test
+    public void testCompaction() {
+        @Cleanup
+        Storage storage = new AsyncStorageWrapper(new RollingStorage(new InMemoryStorage()), executorService());
+        storage.initialize(1);
+        val index = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        val rnd = new Random(0);
+        val expected = new HashMap<UUID, Long>();
+        val attributeIds = new ArrayList<UUID>();
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            attributeIds.add(new UUID(rnd.nextLong(), rnd.nextLong()));
+            expected.put(attributeIds.get(i), (long) i);
+        }
+
+        index.put(SEGMENT_NAME, expected, TIMEOUT).join();
+
+        // Each of these updates rewrites a leaf page and the root, so this will generate several MB of garbage.
+        for (int i = 0; i < 500; i++) {
+            UUID attributeId = attributeIds.get(rnd.nextInt(attributeIds.size()));
+            long value = rnd.nextLong();
+            index.put(SEGMENT_NAME, Collections.singletonMap(attributeId, value), TIMEOUT).join();
+            expected.put(attributeId, value);
+        }
+
+        checkIndex(index, attributeIds, expected);
+        long length = storage.getStreamSegmentInfo(StreamSegmentNameUtils.getAttributeSegmentName(SEGMENT_NAME), TIMEOUT).join().getLength();
+        checkIndex(new ContainerAttributeIndex(CONTAINER_ID, storage, executorService()), attributeIds, expected);
+        Assert.assertTrue("Expected the index to have been rewritten at least once.", length > 1024 * 1024);
+    }
+
+    private void checkIndex(ContainerAttributeIndex index, List<UUID> attributeIds, Map<UUID, Long> expected) {
+        val actual = index.get(SEGMENT_NAME, attributeIds, TIMEOUT).join();
+        AssertExtensions.assertMapEquals("Unexpected values in the index.", expected, actual);
+    }
+}
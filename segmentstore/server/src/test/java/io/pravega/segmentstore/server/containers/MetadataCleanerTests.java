@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the MetadataCleaner class.
+ */
+public class MetadataCleanerTests extends ThreadPooledTestSuite {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int CONTAINER_ID = 1;
+    private static final String SEGMENT_NAME = "Segment";
+    private static final long SEGMENT_ID = 123;
+    private static final int MAX_ACTIVE_ATTRIBUTE_COUNT = 10;
+    private static final int ATTRIBUTE_COUNT = 3 * MAX_ACTIVE_ATTRIBUTE_COUNT;
+    private static final ContainerConfig CONFIG = ContainerConfig
+            .builder()
+            .with(ContainerConfig.MAX_ACTIVE_ATTRIBUTE_COUNT, MAX_ACTIVE_ATTRIBUTE_COUNT)
+            .build();
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests the eviction of dynamic Attributes to the Segment's Attribute Index, followed by reloading them, updating
+     * (and removing) some of them, evicting them again and finally recovering them into a new metadata and index.
+     */
+    @Test
+    public void testAttributeEviction() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val metadata = new StreamSegmentContainerMetadata(CONTAINER_ID, 1000);
+        val segmentMetadata = (StreamSegmentMetadata) metadata.mapStreamSegmentId(SEGMENT_NAME, SEGMENT_ID);
+        val attributeIndex = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        @Cleanup
+        val cleaner = new MetadataCleaner(CONFIG, metadata, new InMemoryStateStore(), attributeIndex, evicted -> { },
+                executorService(), "Test");
+
+        // Add more dynamic Attributes than are allowed to stay in memory.
+        val attributeIds = new ArrayList<UUID>();
+        val expected = new HashMap<UUID, Long>();
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            attributeIds.add(UUID.randomUUID());
+            expected.put(attributeIds.get(i), (long) i);
+        }
+
+        segmentMetadata.updateAttributes(expected);
+        Assert.assertEquals("Unexpected number of attributes in memory.", ATTRIBUTE_COUNT, segmentMetadata.getDynamicAttributeCount());
+
+        // Eviction: the Attributes should be persisted in the index and removed from memory, but the Segment must stay.
+        runCleaner(cleaner, metadata, segmentMetadata);
+        Assert.assertEquals("Not expecting any attributes in memory after eviction.", 0, segmentMetadata.getDynamicAttributeCount());
+        Assert.assertTrue("Not expecting any attribute values in memory after eviction.", segmentMetadata.getAttributes().isEmpty());
+        Assert.assertNotNull("Not expecting the Segment to be evicted.", metadata.getStreamSegmentMetadata(SEGMENT_ID));
+        checkIndex(attributeIndex, attributeIds, expected);
+
+        // Reload: this is what the StreamSegmentContainer does before it needs the values of evicted Attributes.
+        loadAttributes(metadata, attributeIndex, attributeIds);
+        AssertExtensions.assertMapEquals("Unexpected attributes after reloading.", expected, segmentMetadata.getAttributes());
+
+        // Update half of the Attributes and remove a few others.
+        val updates = new HashMap<UUID, Long>();
+        for (int i = 0; i < attributeIds.size(); i++) {
+            UUID attributeId = attributeIds.get(i);
+            if (i % 4 == 0) {
+                updates.put(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+                expected.remove(attributeId);
+            } else if (i % 2 == 1) {
+                updates.put(attributeId, (long) i + ATTRIBUTE_COUNT);
+                expected.put(attributeId, (long) i + ATTRIBUTE_COUNT);
+            }
+        }
+
+        segmentMetadata.updateAttributes(updates);
+        AssertExtensions.assertMapEquals("Unexpected attributes after update.", expected, segmentMetadata.getAttributes());
+
+        // Evict again; the updates and removals must make it into the index.
+        runCleaner(cleaner, metadata, segmentMetadata);
+        Assert.assertEquals("Not expecting any attributes in memory after second eviction.", 0, segmentMetadata.getDynamicAttributeCount());
+        checkIndex(attributeIndex, attributeIds, expected);
+
+        // Recovery: a new metadata and index (on the same Storage) must see the same values.
+        val newMetadata = new StreamSegmentContainerMetadata(CONTAINER_ID, 1000);
+        val newSegmentMetadata = newMetadata.mapStreamSegmentId(SEGMENT_NAME, SEGMENT_ID);
+        val newAttributeIndex = new ContainerAttributeIndex(CONTAINER_ID, storage, executorService());
+        checkIndex(newAttributeIndex, attributeIds, expected);
+        loadAttributes(newMetadata, newAttributeIndex, attributeIds);
+        AssertExtensions.assertMapEquals("Unexpected attributes after recovery.", expected, newSegmentMetadata.getAttributes());
+    }
+
+    /**
+     * Advances the metadata's Sequence Number (and truncates everything up to it) while keeping the Segment active, then
+     * runs the cleaner twice, so that the second run uses a cutoff past every Attribute update made before this call.
+     */
+    private void runCleaner(MetadataCleaner cleaner, StreamSegmentContainerMetadata metadata, StreamSegmentMetadata segmentMetadata) {
+        for (int i = 0; i < 2; i++) {
+            long seqNo = metadata.nextOperationSequenceNumber();
+            metadata.removeTruncationMarkers(seqNo);
+            segmentMetadata.setLastUsed(seqNo);
+            cleaner.runOnce().join();
+        }
+    }
+
+    private void loadAttributes(StreamSegmentContainerMetadata metadata, ContainerAttributeIndex attributeIndex, List<UUID> attributeIds) {
+        val toLoad = metadata.touchAttributes(SEGMENT_ID, attributeIds);
+        AssertExtensions.assertContainsSameElements("Expected all attributes to require loading.", attributeIds, toLoad);
+        val values = attributeIndex.get(SEGMENT_NAME, toLoad, TIMEOUT).join();
+        val loaded = new HashMap<UUID, Long>();
+        toLoad.forEach(attributeId -> loaded.put(attributeId, values.getOrDefault(attributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE)));
+        metadata.loadAttributes(SEGMENT_ID, loaded);
+    }
+
+    private void checkIndex(ContainerAttributeIndex attributeIndex, List<UUID> attributeIds, Map<UUID, Long> expected) {
+        val actual = attributeIndex.get(SEGMENT_NAME, attributeIds, TIMEOUT).join();
+        AssertExtensions.assertMapEquals("Unexpected values in the Attribute Index.", expected, actual);
+    }
+}
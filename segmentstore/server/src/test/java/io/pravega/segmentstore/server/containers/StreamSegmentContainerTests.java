@@ -994,6 +994,88 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         container2.stopAsync().awaitTerminated();
     }
 
+    /**
+     * Tests the eviction of dynamic Attributes to the Segment's Attribute Index:
+     * 1. A Segment is created with more dynamic Attributes than are allowed to stay in memory.
+     * 2. The Attributes are evicted (while the Segment itself stays active), then read back (which reloads them).
+     * 3. Some Attributes are updated and some are removed, after which they are evicted again.
+     * 4. The Container is restarted (recovered) and the Attributes are read back once more.
+     */
+    @Test
+    public void testAttributeEviction() throws Exception {
+        final String segmentName = "segment";
+        final int maxActiveAttributeCount = 10;
+        final int attributeCount = 3 * maxActiveAttributeCount;
+        final byte[] appendData = "hello".getBytes();
+
+        // We need a special DL config so that we can force truncations after every operation - Attributes are not
+        // eligible for eviction until their last update has been truncated out of the DurableLog.
+        final DurableLogConfig durableLogConfig = DurableLogConfig
+                .builder()
+                .with(DurableLogConfig.CHECKPOINT_MIN_COMMIT_COUNT, 1)
+                .with(DurableLogConfig.CHECKPOINT_COMMIT_COUNT, 5)
+                .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, 10 * 1024 * 1024L)
+                .build();
+        final TestContainerConfig containerConfig = new TestContainerConfig();
+        containerConfig.setSegmentMetadataExpiration(Duration.ofMillis(250));
+        containerConfig.setMaxActiveAttributeCount(maxActiveAttributeCount);
+
+        @Cleanup
+        TestContext context = new TestContext(containerConfig);
+        val localDurableLogFactory = new DurableLogFactory(durableLogConfig, context.dataLogFactory, executorService());
+        val attributeIds = new ArrayList<UUID>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributeIds.add(UUID.randomUUID());
+        }
+
+        val expectedAttributes = new HashMap<UUID, Long>();
+        try (val container1 = new MetadataCleanupContainer(CONTAINER_ID, containerConfig, localDurableLogFactory,
+                context.readIndexFactory, context.writerFactory, context.storageFactory, executorService())) {
+            container1.startAsync().awaitRunning();
+
+            // Create the segment and set all the attributes.
+            val initialAttributes = createAttributeUpdates(attributeIds.toArray(new UUID[0]));
+            applyAttributes(initialAttributes, expectedAttributes);
+            container1.createStreamSegment(segmentName, null, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            container1.append(segmentName, appendData, initialAttributes, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertEquals("Unexpected number of attributes in memory after the first append.",
+                    attributeCount, container1.getInMemoryDynamicAttributeCount(segmentName));
+
+            // Evict, then read them back (this reloads them from the Attribute Index).
+            container1.triggerAttributeEviction(segmentName).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertTrue("Expected the Attribute Segment to be created.",
+                    context.storage.exists(StreamSegmentNameUtils.getAttributeSegmentName(segmentName), TIMEOUT).join());
+            checkAttributes("Unexpected attributes after eviction.", container1, segmentName, attributeIds, expectedAttributes);
+
+            // Update some of the attributes, remove some others, then evict again.
+            val updates = new ArrayList<AttributeUpdate>();
+            for (int i = 0; i < attributeIds.size(); i++) {
+                if (i % 4 == 0) {
+                    updates.add(new AttributeUpdate(attributeIds.get(i), AttributeUpdateType.Replace, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+                } else if (i % 2 == 1) {
+                    updates.add(new AttributeUpdate(attributeIds.get(i), AttributeUpdateType.Replace, System.nanoTime()));
+                }
+            }
+
+            applyAttributes(updates, expectedAttributes);
+            expectedAttributes.values().removeIf(v -> v == SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+            container1.append(segmentName, appendData, updates, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            checkAttributes("Unexpected attributes after update.", container1, segmentName, attributeIds, expectedAttributes);
+
+            container1.triggerAttributeEviction(segmentName).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            checkAttributes("Unexpected attributes after second eviction.", container1, segmentName, attributeIds, expectedAttributes);
+            container1.stopAsync().awaitTerminated();
+        }
+
+        // Restart the container and verify the attributes have been recovered correctly.
+        @Cleanup
+        val container2 = new MetadataCleanupContainer(CONTAINER_ID, containerConfig, localDurableLogFactory,
+                context.readIndexFactory, context.writerFactory, context.storageFactory, executorService());
+        container2.startAsync().awaitRunning();
+        checkAttributes("Unexpected attributes after recovery.", container2, segmentName, attributeIds, expectedAttributes);
+        container2.stopAsync().awaitTerminated();
+    }
+
     /**
      * Tests the case when the ContainerMetadata has filled up to capacity (with segments and we cannot map anymore segments).
      */
@@ -1524,6 +1606,12 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         updates.forEach(au -> target.put(au.getAttributeId(), au.getValue()));
     }
 
+    private void checkAttributes(String message, SegmentContainer container, String segmentName, Collection<UUID> attributeIds,
+                                 Map<UUID, Long> expected) throws Exception {
+        val actual = container.getAttributes(segmentName, attributeIds, true, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        AssertExtensions.assertMapEquals(message, expected, actual);
+    }
+
     /**
      * Ensures that all Segments defined in the given collection are loaded up into the Container's metadata.
      * This is used to simplify a few tests that do not expect interference from StreamSegmentMapper's assignment logic
@@ -1658,6 +1746,25 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
             return cleanupTask;
         }
 
+        /**
+         * Appends (without attributes) to the given segment, keeping it active, until all of its dynamic attributes have
+         * been evicted from memory.
+         *
+         * @param segmentName The segment whose attributes we are expecting to evict.
+         */
+        CompletableFuture<Void> triggerAttributeEviction(String segmentName) {
+            CompletableFuture<Void> evictionTask = Futures.futureWithTimeout(TIMEOUT, this.executor);
+            CompletableFuture<Void> af = appendRandomly(segmentName, false, () -> {
+                if (getInMemoryDynamicAttributeCount(segmentName) == 0) {
+                    evictionTask.complete(null);
+                }
+
+                return !evictionTask.isDone();
+            });
+            Futures.exceptionListener(af, evictionTask::completeExceptionally);
+            return evictionTask;
+        }
+
         /**
          * Appends continuously to a random new segment in the given container, as long as the given condition holds.
          */
@@ -1680,9 +1787,13 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         @Getter
         @Setter
         private Duration segmentMetadataExpiration;
+        @Getter
+        @Setter
+        private int maxActiveAttributeCount;
 
         TestContainerConfig() throws ConfigurationException {
             super(new TypedProperties(new Properties(), "ns"));
+            this.maxActiveAttributeCount = super.getMaxActiveAttributeCount();
         }
     }
 
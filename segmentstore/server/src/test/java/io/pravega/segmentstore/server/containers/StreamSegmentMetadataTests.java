@@ -10,10 +10,14 @@
 package io.pravega.segmentstore.server.containers;
 
 import io.pravega.common.util.ImmutableDate;
+import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.segmentstore.server.SegmentMetadataComparer;
 import io.pravega.test.common.AssertExtensions;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
@@ -77,6 +81,60 @@ public class StreamSegmentMetadataTests {
         SegmentMetadataComparer.assertSameAttributes("Unexpected attributes after removal.", expectedAttributes, metadata);
     }
 
+    /**
+     * Tests the ability to track, load and evict dynamic Attributes.
+     */
+    @Test
+    public void testDynamicAttributes() {
+        StreamSegmentMetadata metadata = new StreamSegmentMetadata(SEGMENT_NAME, SEGMENT_ID, CONTAINER_ID);
+        val updated = UUID.randomUUID();
+        val removed = UUID.randomUUID();
+        val loaded = UUID.randomUUID();
+        val missing = UUID.randomUUID();
+
+        // Updated and removed attributes are tracked (removals as tombstones).
+        metadata.setLastUsed(10);
+        metadata.updateAttributes(Collections.singletonMap(updated, 1L));
+        metadata.updateAttributes(Collections.singletonMap(removed, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+        Assert.assertEquals("Unexpected dynamic attribute count after update.", 2, metadata.getDynamicAttributeCount());
+        Assert.assertEquals("Unexpected value for tombstone in getAttributesWithRemovals().", SegmentMetadata.NULL_ATTRIBUTE_VALUE,
+                (long) metadata.getAttributesWithRemovals().get(removed));
+        Assert.assertFalse("Not expecting tombstone in getAttributes().", metadata.getAttributes().containsKey(removed));
+
+        // Touching returns only those attributes that are not tracked; core attributes are never returned.
+        val toLoad = metadata.touchAttributes(Arrays.asList(updated, removed, loaded, missing, Attributes.EVENT_COUNT), 20);
+        AssertExtensions.assertContainsSameElements("Unexpected result from touchAttributes().",
+                new HashSet<>(Arrays.asList(loaded, missing)), new HashSet<>(toLoad));
+        Assert.assertEquals("touchAttributes() did not update the Segment's LastUsed.", 20, metadata.getLastUsed());
+
+        // Loading must not overwrite newer in-memory values.
+        val loadedValues = new HashMap<UUID, Long>();
+        loadedValues.put(loaded, 2L);
+        loadedValues.put(missing, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+        loadedValues.put(updated, 100L);
+        metadata.loadAttributes(loadedValues, 30);
+        Assert.assertEquals("Unexpected dynamic attribute count after load.", 4, metadata.getDynamicAttributeCount());
+        Assert.assertEquals("Unexpected value for loaded attribute.", 2L, (long) metadata.getAttributes().get(loaded));
+        Assert.assertEquals("loadAttributes() overwrote a newer value.", 1L, (long) metadata.getAttributes().get(updated));
+        Assert.assertFalse("Not expecting a value for a missing attribute.", metadata.getAttributes().containsKey(missing));
+        Assert.assertEquals("loadAttributes() did not update the Segment's LastUsed.", 30, metadata.getLastUsed());
+        AssertExtensions.assertContainsSameElements("Not expecting anything to load after loadAttributes().",
+                Collections.emptySet(), new HashSet<>(metadata.touchAttributes(Arrays.asList(loaded, missing), 30)));
+
+        // Eviction: only attributes used before the cutoff are eligible, and only if their values have not changed.
+        val evictable = metadata.getEvictableAttributes(25);
+        AssertExtensions.assertContainsSameElements("Unexpected result from getEvictableAttributes().",
+                new HashSet<>(Arrays.asList(updated, removed)), evictable.keySet());
+        metadata.updateAttributes(Collections.singletonMap(updated, 3L));
+        int evictedCount = metadata.evictAttributes(evictable, 25);
+        Assert.assertEquals("Unexpected number of evicted attributes.", 1, evictedCount);
+        Assert.assertEquals("Unexpected dynamic attribute count after eviction.", 3, metadata.getDynamicAttributeCount());
+        Assert.assertFalse("Evicted tombstone still in getAttributesWithRemovals().", metadata.getAttributesWithRemovals().containsKey(removed));
+        Assert.assertEquals("Modified attribute was evicted.", 3L, (long) metadata.getAttributes().get(updated));
+        AssertExtensions.assertContainsSameElements("Expected evicted attribute to require loading.",
+                Collections.singleton(removed), new HashSet<>(metadata.touchAttributes(Collections.singleton(removed), 40)));
+    }
+
     /**
      * Tests the copyFrom() method.
      */
@@ -185,7 +185,7 @@ public class ContainerMetadataUpdateTransactionTests {
         txn.preProcessOperation(appendOp);
         txn.acceptOperation(appendOp);
         Assert.assertEquals("acceptOperation did not update the transaction.",
-                SEGMENT_LENGTH + appendOp.getData().length, txn.getStreamSegmentMetadata(SEGMENT_ID).getLength());
+                SEGMENT_LENGTH + appendOp.getData().getLength(), txn.getStreamSegmentMetadata(SEGMENT_ID).getLength());
         Assert.assertEquals("acceptOperation updated the metadata.",
                 SEGMENT_LENGTH, metadata.getStreamSegmentMetadata(SEGMENT_ID).getLength());
     }
@@ -357,6 +357,52 @@ public class ContainerMetadataUpdateTransactionTests {
         }
     }
 
+    /**
+     * Tests that the Attributes seen by a Segment's update transaction are not affected by Attributes being loaded into
+     * or evicted from the base Segment Metadata while the transaction is open.
+     */
+    @Test
+    public void testAttributesWithConcurrentBaseChanges() throws Exception {
+        val updatedId = UUID.randomUUID();
+        val readId = UUID.randomUUID();
+        val loadedId = UUID.randomUUID();
+        UpdateableContainerMetadata metadata = createMetadata();
+        val baseMetadata = metadata.getStreamSegmentMetadata(SEGMENT_ID);
+        val baseAttributes = new HashMap<UUID, Long>();
+        baseAttributes.put(updatedId, 1L);
+        baseAttributes.put(readId, 2L);
+        baseMetadata.updateAttributes(baseAttributes);
+
+        val txn = createUpdateTransaction(metadata);
+        val op = new UpdateAttributesOperation(SEGMENT_ID, Collections.singleton(new AttributeUpdate(updatedId, AttributeUpdateType.Accumulate, 10)));
+        txn.preProcessOperation(op);
+        txn.acceptOperation(op);
+        val segmentTxn = txn.getStreamSegmentMetadata(SEGMENT_ID);
+        Assert.assertEquals("Unexpected value for a read Attribute.", 2L, (long) segmentTxn.getAttributes().get(readId));
+
+        // Evict both Attributes from the base (without changing their values) and load a new one into it.
+        val baseChanges = new HashMap<UUID, Long>();
+        baseChanges.put(updatedId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+        baseChanges.put(readId, SegmentMetadata.NULL_ATTRIBUTE_VALUE);
+        baseChanges.put(loadedId, 3L);
+        baseMetadata.updateAttributes(baseChanges);
+
+        val expected = new HashMap<UUID, Long>();
+        expected.put(updatedId, 11L);
+        expected.put(readId, 2L);
+        expected.put(loadedId, 3L);
+        val actual = segmentTxn.getAttributes();
+        AssertExtensions.assertMapEquals("Unexpected Attributes after changing the base.", expected, actual);
+        Assert.assertEquals("Attribute count does not match the entries.", actual.entrySet().size(), actual.size());
+
+        // Updates must be validated against the values seen by the transaction.
+        val op2 = new UpdateAttributesOperation(SEGMENT_ID, Collections.singleton(
+                new AttributeUpdate(readId, AttributeUpdateType.ReplaceIfEquals, 4L, 2L)));
+        txn.preProcessOperation(op2);
+        txn.acceptOperation(op2);
+        Assert.assertEquals("Unexpected value after a conditional update.", 4L, (long) segmentTxn.getAttributes().get(readId));
+    }
+
     private void testWithAttributes(Function<Collection<AttributeUpdate>, Operation> createOperation) throws Exception {
         final UUID attributeNoUpdate = UUID.randomUUID();
         final UUID attributeAccumulate = UUID.randomUUID();
@@ -1188,6 +1234,39 @@ public class ContainerMetadataUpdateTransactionTests {
         Assert.assertNotNull("Checkpoint seems to have not been applied.", metadata.getStreamSegmentMetadata(SEGMENT_ID));
     }
 
+    /**
+     * Tests that removals of dynamic Attributes that have not yet been persisted to the Attribute Index (as reported by
+     * getAttributesWithRemovals()) survive a MetadataCheckpoint serialization round-trip.
+     */
+    @Test
+    public void testProcessMetadataCheckpointWithAttributeRemovals() throws Exception {
+        AtomicLong seqNo = new AtomicLong();
+        UpdateableContainerMetadata metadata = createMetadata();
+        val segmentMetadata = metadata.getStreamSegmentMetadata(SEGMENT_ID);
+        val removedAttributeId = UUID.randomUUID();
+        val keptAttributeId = UUID.randomUUID();
+        Assert.assertTrue("Expected dynamic attributes.", Attributes.isDynamic(removedAttributeId) && Attributes.isDynamic(keptAttributeId));
+        val attributes = new HashMap<UUID, Long>();
+        attributes.put(removedAttributeId, 1L);
+        attributes.put(keptAttributeId, 2L);
+        segmentMetadata.updateAttributes(attributes);
+        segmentMetadata.updateAttributes(Collections.singletonMap(removedAttributeId, SegmentMetadata.NULL_ATTRIBUTE_VALUE));
+        Assert.assertEquals("Expected a tombstone for the removed attribute before checkpointing.",
+                SegmentMetadata.NULL_ATTRIBUTE_VALUE, (long) segmentMetadata.getAttributesWithRemovals().get(removedAttributeId));
+
+        val txn = createUpdateTransaction(metadata);
+        MetadataCheckpointOperation checkpoint = createMetadataCheckpoint();
+        processOperation(checkpoint, txn, seqNo::incrementAndGet);
+        val recoveredMetadata = getCheckpointedMetadata(checkpoint).getStreamSegmentMetadata(SEGMENT_ID);
+
+        val recoveredAttributes = recoveredMetadata.getAttributesWithRemovals();
+        Assert.assertEquals("Expected the tombstone to survive the checkpoint.",
+                SegmentMetadata.NULL_ATTRIBUTE_VALUE, (long) recoveredAttributes.get(removedAttributeId));
+        Assert.assertEquals("Unexpected value for the kept attribute.", 2L, (long) recoveredAttributes.get(keptAttributeId));
+        Assert.assertFalse("Not expecting the removed attribute to have a value.",
+                recoveredMetadata.getAttributes().containsKey(removedAttributeId));
+    }
+
     //endregion
 
     //region Other tests
@@ -9,10 +9,14 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import io.pravega.common.io.SerializationException;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.storage.LogAddress;
 import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.zip.Deflater;
 import lombok.val;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -53,6 +57,95 @@ public class DataFrameTests {
         DataFrameTestHelpers.checkReadRecords(contents, allRecords, b -> b);
     }
 
+    /**
+     * Tests the ability to compress a DataFrame upon sealing it, and to decompress it transparently when reading it.
+     */
+    @Test
+    public void testCompression() throws Exception {
+        int maxFrameSize = 1024 * 1024;
+        List<ByteArraySegment> randomRecords = DataFrameTestHelpers.generateRecords(1000, 0, 1024, ByteArraySegment::new);
+        List<ByteArraySegment> compressibleRecords = DataFrameTestHelpers.generateRecords(1000, 0, 1024, ByteArraySegment::new);
+        for (ByteArraySegment record : compressibleRecords) {
+            for (int i = 0; i < record.getLength(); i++) {
+                record.set(i, (byte) ('a' + i % 8));
+            }
+        }
+
+        try (val compressor = new DataFrame.Compressor(Deflater.BEST_SPEED)) {
+            // Compressible records: the serialized frame should be smaller than its uncompressed version.
+            DataFrame writeFrame = new DataFrame(new ByteArraySegment(new byte[maxFrameSize]), compressor);
+            appendRecords(compressibleRecords, writeFrame);
+            writeFrame.seal();
+            AssertExtensions.assertLessThan("Expected frame to be compressed.", writeFrame.getUncompressedLength(), writeFrame.getLength());
+            Assert.assertNotEquals("Expected compression time to be recorded.", Duration.ZERO, writeFrame.getCompressionElapsed());
+            val compressedData = writeFrame.getData();
+            Assert.assertEquals("Unexpected length from getData().", writeFrame.getLength(), compressedData.getLength());
+            val compressedContents = DataFrame.read(compressedData.getReader(), compressedData.getLength(), writeFrame.getAddress());
+            DataFrameTestHelpers.checkReadRecords(compressedContents, compressibleRecords, b -> b);
+
+            // Random records: compression would not help, so the frame should be written as-is. This also verifies
+            // that the Compressor can be reused across frames.
+            writeFrame = new DataFrame(new ByteArraySegment(new byte[maxFrameSize]), compressor);
+            appendRecords(randomRecords, writeFrame);
+            writeFrame.seal();
+            Assert.assertEquals("Not expecting incompressible frame to be compressed.", writeFrame.getUncompressedLength(), writeFrame.getLength());
+            val uncompressedData = writeFrame.getData();
+            val uncompressedContents = DataFrame.read(uncompressedData.getReader(), uncompressedData.getLength(), writeFrame.getAddress());
+            DataFrameTestHelpers.checkReadRecords(uncompressedContents, randomRecords, b -> b);
+
+            // Compressible records again, with a reused Compressor.
+            writeFrame = new DataFrame(new ByteArraySegment(new byte[maxFrameSize]), compressor);
+            appendRecords(compressibleRecords, writeFrame);
+            writeFrame.seal();
+            AssertExtensions.assertLessThan("Expected frame to be compressed.", writeFrame.getUncompressedLength(), writeFrame.getLength());
+            val recompressedData = writeFrame.getData();
+            val recompressedContents = DataFrame.read(recompressedData.getReader(), recompressedData.getLength(), writeFrame.getAddress());
+            DataFrameTestHelpers.checkReadRecords(recompressedContents, compressibleRecords, b -> b);
+        }
+    }
+
+    /**
+     * Tests that DataFrames with an unsupported version or with unknown flags are rejected when read.
+     */
+    @Test
+    public void testUnknownVersionOrFlags() throws Exception {
+        final int versionOffset = 0;
+        final int flagsOffset = Byte.BYTES + Integer.BYTES;
+        List<ByteArraySegment> records = DataFrameTestHelpers.generateRecords(10, 0, 100, ByteArraySegment::new);
+        DataFrame writeFrame = DataFrame.ofSize(1024 * 1024);
+        appendRecords(records, writeFrame);
+        writeFrame.seal();
+        byte[] serialization = writeFrame.getData().getCopy();
+
+        // Sanity check: the original serialization can be read.
+        DataFrameTestHelpers.checkReadRecords(DataFrame.read(new ByteArrayInputStream(serialization), serialization.length, writeFrame.getAddress()),
+                records, b -> b);
+
+        // Version 0 frames predate flags.
+        byte[] version0 = serialization.clone();
+        version0[versionOffset] = 0;
+        DataFrame.read(new ByteArrayInputStream(version0), version0.length, writeFrame.getAddress());
+        version0[flagsOffset] = 1; // DataFrame.FrameHeader.COMPRESSED_MASK
+        assertReadFails("Version 0 frame with flags", version0, writeFrame.getAddress());
+
+        // Unknown flags.
+        byte[] unknownFlags = serialization.clone();
+        unknownFlags[flagsOffset] = 2;
+        assertReadFails("Unknown flags", unknownFlags, writeFrame.getAddress());
+
+        // Unknown version.
+        byte[] unknownVersion = serialization.clone();
+        unknownVersion[versionOffset]++;
+        assertReadFails("Unknown version", unknownVersion, writeFrame.getAddress());
+    }
+
+    private void assertReadFails(String message, byte[] serialization, LogAddress address) {
+        AssertExtensions.assertThrows(
+                message,
+                () -> DataFrame.read(new ByteArrayInputStream(serialization), serialization.length, address),
+                ex -> ex instanceof SerializationException);
+    }
+
     /**
      * Tests the ability to Start/End/Discard an entry.
      */
@@ -9,7 +9,9 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -78,4 +80,95 @@ public class MetadataCheckpointPolicyTests extends ThreadPooledTestSuite {
         expectedCallCount = (int) (recordCount * recordLength / config.getCheckpointTotalCommitLengthThreshold());
         Assert.assertEquals("Unexpected number of calls when MinCount > CommitCount.", expectedCallCount, callbackCount.get());
     }
+
+    /**
+     * Tests the ability to adjust the length threshold based on the observed recovery rate and the recovery time target.
+     */
+    @Test
+    public void testRecoveryTimeTarget() {
+        final int recordCount = 1000;
+        final int recordLength = 100 * 1024;
+        final long recoveredLength = 10 * 1024 * 1024;
+        final long lengthThreshold = 64 * 1024 * 1024L;
+        final int targetMillis = 10000;
+        DurableLogConfig config = DurableLogConfig.builder()
+                                                  .with(DurableLogConfig.CHECKPOINT_MIN_COMMIT_COUNT, 1)
+                                                  .with(DurableLogConfig.CHECKPOINT_COMMIT_COUNT, Integer.MAX_VALUE)
+                                                  .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, lengthThreshold)
+                                                  .with(DurableLogConfig.CHECKPOINT_RECOVERY_TIME_TARGET_MILLIS, targetMillis)
+                                                  .build();
+        AtomicInteger callbackCount = new AtomicInteger();
+        MetadataCheckpointPolicy p = new MetadataCheckpointPolicy(config, callbackCount::incrementAndGet, executorService());
+
+        // Recoveries that are too small should not be used to make estimates.
+        p.recordRecovery(1024, Duration.ofMillis(1000));
+        Assert.assertEquals("Length threshold changed after a small recovery.", lengthThreshold, p.getLengthThreshold());
+
+        // Replaying 10MB in 10.24 seconds means 1KB/ms; with a target of 10s we expect a checkpoint every 10000KB.
+        p.recordRecovery(recoveredLength, Duration.ofMillis(recoveredLength / 1024));
+        Assert.assertEquals("Unexpected length threshold.", 1024L * targetMillis, p.getLengthThreshold());
+        for (int i = 0; i < recordCount; i++) {
+            p.recordCommit(recordLength);
+        }
+
+        int commitsPerCheckpoint = (int) Math.ceil((double) p.getLengthThreshold() / recordLength);
+        Assert.assertEquals("Unexpected number of calls.", recordCount / commitsPerCheckpoint, callbackCount.get());
+
+        // A single slower recovery should move the estimate, but not replace it.
+        p.recordRecovery(recoveredLength, Duration.ofMillis(recoveredLength / 512));
+        AssertExtensions.assertGreaterThan("Length threshold should be a moving average.", 512L * targetMillis, p.getLengthThreshold());
+        AssertExtensions.assertLessThan("Length threshold should follow a slower recovery.", 1024L * targetMillis, p.getLengthThreshold());
+
+        // No matter how slow recoveries are, the threshold should not go below the floor.
+        for (int i = 0; i < 100; i++) {
+            p.recordRecovery(recoveredLength, Duration.ofHours(1));
+        }
+
+        Assert.assertEquals("Length threshold below the minimum.",
+                lengthThreshold / MetadataCheckpointPolicy.MAX_THRESHOLD_REDUCTION, p.getLengthThreshold());
+
+        // Very fast recoveries should not raise the threshold above the configured one.
+        for (int i = 0; i < 100; i++) {
+            p.recordRecovery(recoveredLength, Duration.ofMillis(1));
+        }
+
+        Assert.assertEquals("Length threshold exceeds configured value.", lengthThreshold, p.getLengthThreshold());
+
+        // Disabled.
+        config = DurableLogConfig.builder()
+                                 .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, lengthThreshold)
+                                 .build();
+        p = new MetadataCheckpointPolicy(config, callbackCount::incrementAndGet, executorService());
+        p.recordRecovery(recoveredLength, Duration.ofMillis(recoveredLength / 1024));
+        Assert.assertEquals("Length threshold changed when recovery time target is disabled.", lengthThreshold, p.getLengthThreshold());
+    }
+
+    /**
+     * Tests that MetadataCheckpointPolicies sharing a RecoveryRateEstimator pick up each other's recoveries when they
+     * trigger their next Checkpoint.
+     */
+    @Test
+    public void testSharedRecoveryRate() {
+        final long recoveredLength = 10 * 1024 * 1024;
+        final long lengthThreshold = 64 * 1024 * 1024L;
+        final int targetMillis = 10000;
+        DurableLogConfig config = DurableLogConfig.builder()
+                                                  .with(DurableLogConfig.CHECKPOINT_MIN_COMMIT_COUNT, 1)
+                                                  .with(DurableLogConfig.CHECKPOINT_COMMIT_COUNT, Integer.MAX_VALUE)
+                                                  .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, lengthThreshold)
+                                                  .with(DurableLogConfig.CHECKPOINT_RECOVERY_TIME_TARGET_MILLIS, targetMillis)
+                                                  .build();
+        RecoveryRateEstimator recoveryRate = new RecoveryRateEstimator();
+        AtomicInteger callbackCount = new AtomicInteger();
+        MetadataCheckpointPolicy p1 = new MetadataCheckpointPolicy(config, recoveryRate, callbackCount::incrementAndGet, executorService());
+        MetadataCheckpointPolicy p2 = new MetadataCheckpointPolicy(config, recoveryRate, callbackCount::incrementAndGet, executorService());
+
+        p1.recordRecovery(recoveredLength, Duration.ofMillis(recoveredLength / 1024));
+        Assert.assertEquals("Unexpected length threshold for the recovered policy.", 1024L * targetMillis, p1.getLengthThreshold());
+        Assert.assertEquals("Length threshold changed before a Checkpoint.", lengthThreshold, p2.getLengthThreshold());
+
+        p2.recordCommit((int) lengthThreshold);
+        Assert.assertEquals("Expected a Checkpoint.", 1, callbackCount.get());
+        Assert.assertEquals("Length threshold not updated after a Checkpoint.", 1024L * targetMillis, p2.getLengthThreshold());
+    }
 }
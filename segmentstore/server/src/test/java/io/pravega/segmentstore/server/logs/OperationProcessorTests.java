@@ -13,6 +13,7 @@ import com.google.common.util.concurrent.Runnables;
 import com.google.common.util.concurrent.Service;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.common.util.SequencedItemList;
 import io.pravega.segmentstore.contracts.StreamSegmentException;
@@ -60,6 +61,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -448,6 +450,69 @@ public class OperationProcessorTests extends OperationLogTestBase {
         // state of the Container) is in an undefined state.
     }
 
+    /**
+     * Tests that the OperationProcessor releases the buffers of Append Operations that it has acknowledged but which it
+     * will never add to the in-memory state (due to a DataCorruptionException or it shutting down). Failed operations
+     * must be left untouched, since it is up to the caller to release those.
+     */
+    @Test
+    public void testAppendBufferReleaseWithFailures() throws Exception {
+        int streamSegmentCount = 10;
+        int appendsPerStreamSegment = 80;
+        int failAtOperationIndex = 123;
+
+        @Cleanup
+        TestContext context = new TestContext();
+        CorruptedMemoryOperationLog corruptedMemoryLog = new CorruptedMemoryOperationLog(failAtOperationIndex);
+        MemoryStateUpdater stateUpdater = new MemoryStateUpdater(corruptedMemoryLog, context.readIndex, Runnables.doNothing());
+
+        // Replace the data of each append with a buffer that tracks its reference count. The initial reference is the
+        // one that StreamSegmentContainer would have retained before handing the operation to us.
+        HashSet<Long> streamSegmentIds = createStreamSegmentsInMetadata(streamSegmentCount, context.metadata);
+        List<Operation> operations = generateOperations(streamSegmentIds, new HashMap<>(), appendsPerStreamSegment,
+                METADATA_CHECKPOINT_EVERY, false, false)
+                .stream()
+                .map(op -> {
+                    if (op instanceof StreamSegmentAppendOperation) {
+                        val a = (StreamSegmentAppendOperation) op;
+                        return new StreamSegmentAppendOperation(a.getStreamSegmentId(), new RefCountedBuffer(a.getData().getCopy()), a.getAttributeUpdates());
+                    }
+                    return op;
+                })
+                .collect(Collectors.toList());
+
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, MAX_DATA_LOG_APPEND_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        @Cleanup
+        OperationProcessor operationProcessor = new OperationProcessor(context.metadata, stateUpdater,
+                dataLog, getNoOpCheckpointPolicy(), executorService());
+        operationProcessor.startAsync().awaitRunning();
+        List<OperationWithCompletion> completionFutures = processOperations(operations, operationProcessor);
+        AssertExtensions.assertThrows(
+                "Operation Processor did not shut down with failure.",
+                () -> ServiceListeners.awaitShutdown(operationProcessor, true),
+                ex -> ex instanceof IllegalStateException);
+
+        int releasedCount = 0;
+        for (OperationWithCompletion oc : completionFutures) {
+            if (!(oc.operation instanceof StreamSegmentAppendOperation)) {
+                continue;
+            }
+
+            val buffer = (RefCountedBuffer) ((StreamSegmentAppendOperation) oc.operation).getData();
+            Assert.assertTrue("Operation not completed: " + oc.operation, oc.completion.isDone());
+            if (oc.completion.isCompletedExceptionally()) {
+                Assert.assertEquals("Buffer of failed operation was released: " + oc.operation, 1, buffer.refCnt());
+            } else {
+                Assert.assertEquals("Buffer of acknowledged operation was not released: " + oc.operation, 0, buffer.refCnt());
+                releasedCount++;
+            }
+        }
+
+        AssertExtensions.assertGreaterThan("No operation succeeded.", 0, releasedCount);
+    }
+
     /**
      * Tests the ability of the OperationProcessor to handle a single ProbeOperation (this is because it's a non-serializable
      * operation, so there is no commit to DurableDataLog - we need to verify the operation is properly completed in this
@@ -638,6 +703,35 @@ public class OperationProcessorTests extends OperationLogTestBase {
     }
 
 
+    //region RefCountedBuffer
+
+    /**
+     * A BufferView that keeps track of how many times it has been retained and released, similarly to a pooled ByteBuf.
+     */
+    private static class RefCountedBuffer extends ByteArraySegment {
+        private final AtomicInteger refCnt = new AtomicInteger(1);
+
+        RefCountedBuffer(byte[] data) {
+            super(data);
+        }
+
+        int refCnt() {
+            return this.refCnt.get();
+        }
+
+        @Override
+        public void retain() {
+            this.refCnt.incrementAndGet();
+        }
+
+        @Override
+        public void release() {
+            Assert.assertTrue("Buffer released more times than it was retained.", this.refCnt.decrementAndGet() >= 0);
+        }
+    }
+
+    //endregion
+
     //region ManualAppendOnlyDurableDataLog
 
     @RequiredArgsConstructor
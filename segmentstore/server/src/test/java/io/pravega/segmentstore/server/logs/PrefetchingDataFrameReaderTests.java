@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the PrefetchingDataFrameReader class.
+ */
+public class PrefetchingDataFrameReaderTests extends ThreadPooledTestSuite {
+    private static final int TIMEOUT_MILLIS = 10000;
+    private static final int CAPACITY = 4;
+
+    @Rule
+    public Timeout globalTimeout = Timeout.millis(TIMEOUT_MILLIS);
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 1;
+    }
+
+    /**
+     * Tests the ability to read all DataFrameRecords, in order, from the wrapped reader.
+     */
+    @Test
+    public void testReadAll() throws Exception {
+        val source = new TestReader(100, -1);
+        try (val reader = new PrefetchingDataFrameReader<TestLogItem>(source, CAPACITY, "Test")) {
+            for (int i = 0; i < source.count; i++) {
+                val record = reader.getNext();
+                Assert.assertNotNull("Unexpected end of reader.", record);
+                Assert.assertEquals("Unexpected record.", i, record.getItem().getSequenceNumber());
+            }
+
+            Assert.assertNull("Expected end of reader.", reader.getNext());
+            Assert.assertNull("Expected end of reader on subsequent calls.", reader.getNext());
+        }
+
+        source.closed.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tests that the reader does not depend on the caller's executor for reading ahead, by consuming it from the only
+     * thread of a single-threaded executor.
+     */
+    @Test
+    public void testReadFromSingleThreadedExecutor() throws Exception {
+        val source = new TestReader(100, -1);
+        CompletableFuture<Integer> readCount = CompletableFuture.supplyAsync(() -> {
+            int count = 0;
+            try (val reader = new PrefetchingDataFrameReader<TestLogItem>(source, CAPACITY, "Test")) {
+                while (reader.getNext() != null) {
+                    count++;
+                }
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+
+            return count;
+        }, executorService());
+
+        Assert.assertEquals("Unexpected number of records read.", source.count, (int) readCount.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        source.closed.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tests that failures from the wrapped reader are passed on to the caller, after all records preceding them.
+     */
+    @Test
+    public void testReadFailure() throws Exception {
+        val source = new TestReader(100, 50);
+        val reader = new PrefetchingDataFrameReader<TestLogItem>(source, CAPACITY, "Test");
+        for (int i = 0; i < source.failAt; i++) {
+            Assert.assertEquals("Unexpected record.", i, reader.getNext().getItem().getSequenceNumber());
+        }
+
+        AssertExtensions.assertThrows(
+                "Failure was not passed on.",
+                reader::getNext,
+                ex -> ex instanceof DataCorruptionException);
+        AssertExtensions.assertThrows(
+                "Reader was not closed after failure.",
+                reader::getNext,
+                ex -> ex instanceof ObjectClosedException);
+        source.closed.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tests that closing the reader stops the background reading and closes the wrapped reader.
+     */
+    @Test
+    public void testClose() throws Exception {
+        val source = new TestReader(Integer.MAX_VALUE, -1);
+        val reader = new PrefetchingDataFrameReader<TestLogItem>(source, CAPACITY, "Test");
+        Assert.assertEquals("Unexpected record.", 0, reader.getNext().getItem().getSequenceNumber());
+        reader.close();
+        Assert.assertTrue("Wrapped reader was not closed by close().", source.closed.isDone());
+        AssertExtensions.assertLessThanOrEqual("Reader did not stop reading ahead when closed.",
+                CAPACITY + 2, source.readCount.get());
+        AssertExtensions.assertThrows(
+                "getNext() worked after close.",
+                reader::getNext,
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    /**
+     * Tests that closing the reader fails a read that the wrapped reader is blocked on, waits for the background task to
+     * complete, and unblocks a concurrent getNext() call.
+     */
+    @Test
+    public void testCloseWhileBlocked() throws Exception {
+        val source = new TestReader(1, -1, true);
+        val reader = new PrefetchingDataFrameReader<TestLogItem>(source, CAPACITY, "Test");
+        Assert.assertEquals("Unexpected record.", 0, reader.getNext().getItem().getSequenceNumber());
+        val blockedRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.getNext();
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executorService());
+
+        reader.close();
+        Assert.assertTrue("Wrapped reader was not closed by close().", source.closed.isDone());
+        Assert.assertEquals("Background task still reading after close() returned.", 0, source.activeReads.get());
+        AssertExtensions.assertThrows(
+                "Pending getNext() was not failed by close().",
+                () -> blockedRead.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS),
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    private static class TestReader implements CloseableIterator<DataFrameRecord<TestLogItem>, Exception> {
+        private final int count;
+        private final int failAt;
+        private final boolean blockAtEnd;
+        private final AtomicInteger readCount = new AtomicInteger();
+        private final AtomicInteger activeReads = new AtomicInteger();
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+        TestReader(int count, int failAt) {
+            this(count, failAt, false);
+        }
+
+        TestReader(int count, int failAt, boolean blockAtEnd) {
+            this.count = count;
+            this.failAt = failAt;
+            this.blockAtEnd = blockAtEnd;
+        }
+
+        @Override
+        public DataFrameRecord<TestLogItem> getNext() throws Exception {
+            this.activeReads.incrementAndGet();
+            try {
+                int seqNo = this.readCount.getAndIncrement();
+                if (seqNo == this.failAt) {
+                    throw new DataCorruptionException("intentional");
+                } else if (seqNo >= this.count) {
+                    if (this.blockAtEnd) {
+                        // Simulate a read that is blocked on I/O until the reader is closed.
+                        this.closed.join();
+                        throw new ObjectClosedException(this);
+                    }
+
+                    return null;
+                }
+
+                return new DataFrameRecord<>(new TestLogItem(seqNo, new byte[0]), null);
+            } finally {
+                this.activeReads.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void close() {
+            this.closed.complete(null);
+        }
+    }
+}
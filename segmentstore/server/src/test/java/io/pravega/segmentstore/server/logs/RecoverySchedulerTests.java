@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.IntentionalException;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the RecoveryScheduler class.
+ */
+public class RecoverySchedulerTests extends ThreadPooledTestSuite {
+    private static final int MAX_CONCURRENT_RECOVERIES = 2;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    /**
+     * Tests that no more than MaxConcurrentRecoveries recoveries execute at the same time, that the other ones execute
+     * in order, and that failed recoveries release their slots.
+     */
+    @Test
+    public void testSchedule() {
+        final int recoveryCount = 5;
+        val scheduler = new RecoveryScheduler(MAX_CONCURRENT_RECOVERIES);
+        val startOrder = new ArrayList<Integer>();
+        val recoveries = new ArrayList<CompletableFuture<Integer>>();
+        val results = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < recoveryCount; i++) {
+            final int id = i;
+            val recovery = new CompletableFuture<Integer>();
+            recoveries.add(recovery);
+            results.add(scheduler.schedule(() -> {
+                synchronized (startOrder) {
+                    startOrder.add(id);
+                }
+                return recovery;
+            }, executorService(), "Test"));
+        }
+
+        checkState(scheduler, startOrder, MAX_CONCURRENT_RECOVERIES, recoveryCount - MAX_CONCURRENT_RECOVERIES);
+
+        // Complete one recovery normally and fail the other one. Both should make room for the next ones.
+        recoveries.get(0).complete(0);
+        Assert.assertEquals("Unexpected result.", 0, (int) results.get(0).join());
+        recoveries.get(1).completeExceptionally(new IntentionalException());
+        AssertExtensions.assertThrows(
+                "Expected the recovery failure to be propagated.",
+                results.get(1),
+                ex -> ex instanceof IntentionalException);
+        checkState(scheduler, startOrder, 4, 1);
+
+        for (int i = 2; i < recoveryCount; i++) {
+            recoveries.get(i).complete(i);
+            Assert.assertEquals("Unexpected result.", i, (int) results.get(i).join());
+        }
+
+        Assert.assertEquals("Unexpected number of active recoveries at the end.", 0, scheduler.getActiveCount());
+        Assert.assertEquals("Unexpected number of pending recoveries at the end.", 0, scheduler.getPendingCount());
+        for (int i = 0; i < recoveryCount; i++) {
+            Assert.assertEquals("Unexpected recovery start order.", i, (int) startOrder.get(i));
+        }
+    }
+
+    /**
+     * Tests that a recovery which fails to begin (i.e., throws synchronously) releases its slot.
+     */
+    @Test
+    public void testScheduleSynchronousFailure() {
+        val scheduler = new RecoveryScheduler(1);
+        val invocations = new AtomicInteger();
+        AssertExtensions.assertThrows(
+                "Expected the synchronous failure to be propagated.",
+                () -> scheduler.schedule(() -> {
+                    invocations.incrementAndGet();
+                    throw new IntentionalException();
+                }, executorService(), "Test"),
+                ex -> ex instanceof IntentionalException);
+        val result = scheduler.schedule(() -> CompletableFuture.completedFuture(invocations.incrementAndGet()), executorService(), "Test");
+        Assert.assertEquals("Expected the second recovery to execute.", 2, (int) result.join());
+        Assert.assertEquals("Unexpected number of active recoveries at the end.", 0, scheduler.getActiveCount());
+    }
+
+    private void checkState(RecoveryScheduler scheduler, List<Integer> startOrder, int expectedStarted, int expectedPending) {
+        synchronized (startOrder) {
+            Assert.assertEquals("Unexpected number of started recoveries.", expectedStarted, startOrder.size());
+        }
+
+        Assert.assertEquals("Unexpected number of active recoveries.", Math.min(expectedStarted, MAX_CONCURRENT_RECOVERIES), scheduler.getActiveCount());
+        Assert.assertEquals("Unexpected number of pending recoveries.", expectedPending, scheduler.getPendingCount());
+    }
+}
@@ -9,10 +9,12 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.segmentstore.storage.QueueStats;
 import io.pravega.test.common.AssertExtensions;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.val;
@@ -23,33 +25,99 @@ import org.junit.Test;
  * Unit tests for the ThrottlerCalculator class.
  */
 public class ThrottlerCalculatorTests {
+    private static final DurableLogConfig CONFIG = DurableLogConfig.builder().build();
+    private static final int MAX_DELAY_MILLIS = CONFIG.getThrottleMaxDelayMillis();
+    private static final int MAX_BATCHING_DELAY_MILLIS = CONFIG.getThrottleMaxBatchingDelayMillis();
 
     /**
      * Tests the ability to properly calculate throttling delays caused by cache overflows.
      */
     @Test
     public void testCacheThrottling() {
-        val maxU = 1.0 + ThrottlerCalculator.MAX_DELAY_MILLIS / ThrottlerCalculator.THROTTLING_MILLIS_PER_PERCENT_OVER_LIMIT / 100.0;
+        val minU = CONFIG.getThrottleCacheUtilizationThresholdPercentage() / 100.0;
+        val maxU = CONFIG.getThrottleCacheUtilizationMaxPercentage() / 100.0;
         val cacheUtilization = new AtomicReference<Double>(0.0);
-        val tc = ThrottlerCalculator.builder().cacheThrottler(cacheUtilization::get).build();
-        testThrottling(tc, cacheUtilization,
-                new Double[]{-1.0, 0.0, 0.5, 1.0},
-                new Double[]{1.01, 1.05, 1.1, maxU},
+        val tc = ThrottlerCalculator.builder().config(CONFIG).cacheThrottler(cacheUtilization::get).build();
+        testThrottling(tc, cacheUtilization, ThrottlerCalculator.ThrottlerName.Cache,
+                new Double[]{-1.0, 0.0, minU / 2, minU},
+                new Double[]{minU + 0.01, minU + 0.05, minU + 0.1, (minU + maxU) / 2, maxU},
                 new Double[]{maxU, maxU + 0.01, maxU * 2, Double.MAX_VALUE});
     }
 
+    /**
+     * Verifies that the default configuration throttles cache overflows by 100ms for each percentage point above 100%
+     * utilization, up to the maximum delay.
+     */
+    @Test
+    public void testCacheThrottlingDefaults() {
+        val cacheUtilization = new AtomicReference<Double>(0.0);
+        val tc = ThrottlerCalculator.builder().config(CONFIG).cacheThrottler(cacheUtilization::get).build();
+        val expectedDelays = new LinkedHashMap<Double, Integer>();
+        expectedDelays.put(1.0, 0);
+        expectedDelays.put(1.01, 100);
+        expectedDelays.put(1.05, 500);
+        expectedDelays.put(1.1, 1000);
+        expectedDelays.put(1.5, 5000);
+        expectedDelays.put(2.0, 10000);
+        expectedDelays.put(3.0, 10000);
+        expectedDelays.forEach((utilization, expectedDelay) -> {
+            cacheUtilization.set(utilization);
+            Assert.assertEquals("Unexpected delay for utilization " + utilization, (int) expectedDelay, tc.getThrottlingDelay().getDurationMillis());
+        });
+    }
+
+    /**
+     * Tests the ability to configure the thresholds for cache throttling.
+     */
+    @Test
+    public void testCacheThrottlingConfig() {
+        val config = DurableLogConfig.builder()
+                                     .with(DurableLogConfig.THROTTLE_MAX_DELAY_MILLIS, 1000)
+                                     .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_THRESHOLD, 80)
+                                     .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_MAX, 120)
+                                     .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_RAMP_EXPONENT, 2)
+                                     .build();
+        val cacheUtilization = new AtomicReference<Double>(0.0);
+        val tc = ThrottlerCalculator.builder().config(config).cacheThrottler(cacheUtilization::get).build();
+
+        cacheUtilization.set(0.8);
+        Assert.assertFalse("Not expecting throttling at the threshold.", tc.isThrottlingRequired());
+        cacheUtilization.set(1.0);
+        Assert.assertTrue("Expecting throttling above the threshold.", tc.isThrottlingRequired());
+        Assert.assertEquals("Unexpected delay (quadratic ramp).", 250, tc.getThrottlingDelay().getDurationMillis());
+        cacheUtilization.set(1.2);
+        val r = tc.getThrottlingDelay();
+        Assert.assertEquals("Unexpected delay at the maximum utilization.", 1000, r.getDurationMillis());
+        Assert.assertTrue("Expected maximum delay at the maximum utilization.", r.isMaximum());
+
+        AssertExtensions.assertThrows(
+                "Expected the maximum utilization to be validated against the threshold.",
+                () -> DurableLogConfig.builder()
+                                      .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_THRESHOLD, 120)
+                                      .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_MAX, 120)
+                                      .build(),
+                ex -> ex instanceof InvalidPropertyValueException);
+        AssertExtensions.assertThrows(
+                "Expected the ramp exponent to be validated.",
+                () -> DurableLogConfig.builder()
+                                      .with(DurableLogConfig.THROTTLE_CACHE_UTILIZATION_RAMP_EXPONENT, 0)
+                                      .build(),
+                ex -> ex instanceof InvalidPropertyValueException);
+    }
+
 
     /**
      * Tests the ability to properly calculate throttling delays caused by commit log queue overflows.
      */
     @Test
     public void testCommitBacklogThrottling() {
-        val maxU = ThrottlerCalculator.COMMIT_BACKLOG_COUNT_THRESHOLD + ThrottlerCalculator.MAX_DELAY_MILLIS / ThrottlerCalculator.THROTTLING_MILLIS_PER_COMMIT_OVER_LIMIT;
+        val threshold = CONFIG.getThrottleCommitBacklogThreshold();
+        val maxU = threshold + MAX_DELAY_MILLIS / CONFIG.getThrottleMillisPerCommitOverThreshold();
         val commitLogCount = new AtomicReference<Integer>(0);
-        val tc = ThrottlerCalculator.builder().commitBacklogThrottler(commitLogCount::get).build();
-        testThrottling(tc, commitLogCount,
-                new Integer[]{-1, 0, ThrottlerCalculator.COMMIT_BACKLOG_COUNT_THRESHOLD / 2, ThrottlerCalculator.COMMIT_BACKLOG_COUNT_THRESHOLD},
-                new Integer[]{ThrottlerCalculator.COMMIT_BACKLOG_COUNT_THRESHOLD + 1, ThrottlerCalculator.COMMIT_BACKLOG_COUNT_THRESHOLD + 10, maxU},
+        val tc = ThrottlerCalculator.builder().config(CONFIG).commitBacklogThrottler(commitLogCount::get).build();
+        testThrottling(tc, commitLogCount, ThrottlerCalculator.ThrottlerName.CommitBacklog,
+                new Integer[]{-1, 0, threshold / 2, threshold},
+                new Integer[]{threshold + 1, threshold + 10, maxU},
                 new Integer[]{maxU, maxU + 1, maxU * 2, Integer.MAX_VALUE});
     }
 
@@ -60,14 +128,16 @@ public class ThrottlerCalculatorTests {
     public void testBatching() {
         val increment = 0.1;
         val queueStats = new AtomicReference<QueueStats>(null);
-        val tc = ThrottlerCalculator.builder().batchingThrottler(queueStats::get).build();
+        val tc = ThrottlerCalculator.builder().config(CONFIG).batchingThrottler(queueStats::get).build();
 
         // Test variance based on Fill Ratio (uncapped).
         // Set the initial lastValue to the max, so we verify that we won't exceed this value.
-        AtomicInteger lastValue = new AtomicInteger(ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS);
+        AtomicInteger lastValue = new AtomicInteger(MAX_BATCHING_DELAY_MILLIS);
         for (double fillRatio = 0.0; fillRatio <= 1.0; fillRatio += increment) {
-            queueStats.set(new QueueStats(100, fillRatio, ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS));
-            val value = tc.getThrottlingDelay().getDurationMillis();
+            queueStats.set(new QueueStats(100, fillRatio, MAX_BATCHING_DELAY_MILLIS));
+            val r = tc.getThrottlingDelay();
+            val value = r.getDurationMillis();
+            Assert.assertEquals("Unexpected throttler.", value == 0 ? null : ThrottlerCalculator.ThrottlerName.Batching, r.getThrottlerName());
             if (fillRatio < increment / 2) {
                 // This is essentially 0.0, but it's hard to compare precisely against double.
                 Assert.assertEquals("Expected maximum batching when fill ratio is 0.", lastValue.get(), value);
@@ -85,17 +155,46 @@ public class ThrottlerCalculatorTests {
 
         // Test capping at max.
         Arrays.stream(new QueueStats[]{
-                new QueueStats(100, 0.0, ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS + 1),
-                new QueueStats(100, 0.5, ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS * 10),
-                new QueueStats(100, 0.9, ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS * 100)})
+                new QueueStats(100, 0.0, MAX_BATCHING_DELAY_MILLIS * 10),
+                new QueueStats(100, 0.5, MAX_BATCHING_DELAY_MILLIS * 100),
+                new QueueStats(100, 0.9, MAX_BATCHING_DELAY_MILLIS * 1000)})
               .forEach(qs -> {
                   queueStats.set(qs);
-                  Assert.assertEquals("Expected batching to be capped.", ThrottlerCalculator.MAX_BATCHING_DELAY_MILLIS, tc.getThrottlingDelay().getDurationMillis());
+                  Assert.assertEquals("Expected batching to be capped.", MAX_BATCHING_DELAY_MILLIS, tc.getThrottlingDelay().getDurationMillis());
               });
+
+        // Test that there is no batching if there are no writes in flight.
+        queueStats.set(new QueueStats(0, 0.0, MAX_BATCHING_DELAY_MILLIS * 1000));
+        Assert.assertEquals("Not expecting batching if no writes in flight.", 0, tc.getThrottlingDelay().getDurationMillis());
+    }
+
+    /**
+     * Tests that the batching delay is derived from a smoothed write latency, so that it does not fluctuate with outliers.
+     */
+    @Test
+    public void testBatchingLatencySmoothing() {
+        val latency = MAX_BATCHING_DELAY_MILLIS / 5;
+        val queueStats = new AtomicReference<QueueStats>(new QueueStats(1, 0.0, latency));
+        val tc = ThrottlerCalculator.builder().config(CONFIG).batchingThrottler(queueStats::get).build();
+        Assert.assertEquals("Unexpected initial batching delay.", latency, tc.getThrottlingDelay().getDurationMillis());
+
+        // A single outlier should only partially affect the delay.
+        queueStats.set(new QueueStats(1, 0.0, latency * 3));
+        val outlierDelay = tc.getThrottlingDelay().getDurationMillis();
+        AssertExtensions.assertGreaterThan("Expected the delay to increase with the latency.", latency, outlierDelay);
+        AssertExtensions.assertLessThan("Expected the outlier to be smoothed out.", latency * 3, outlierDelay);
+
+        // A sustained change in latency should eventually be fully reflected.
+        for (int i = 0; i < 100; i++) {
+            tc.getThrottlingDelay();
+        }
+
+        Assert.assertEquals("Expected the delay to converge to the new latency.", latency * 3, tc.getThrottlingDelay().getDurationMillis());
     }
 
 
-    private <T extends Comparable<T>> void testThrottling(ThrottlerCalculator tc, AtomicReference<T> inputValue, T[] noThrottleValues, T[] gradualThrottleValues, T[] maxThrottleValues) {
+    private <T extends Comparable<T>> void testThrottling(ThrottlerCalculator tc, AtomicReference<T> inputValue, ThrottlerCalculator.ThrottlerName expectedName,
+                                                         T[] noThrottleValues, T[] gradualThrottleValues, T[] maxThrottleValues) {
         // Test for values where we don't expect throttling.
         Arrays.stream(noThrottleValues)
                 .forEach(v -> {
@@ -105,6 +204,7 @@ public class ThrottlerCalculatorTests {
                     ThrottlerCalculator.DelayResult r = tc.getThrottlingDelay();
                     Assert.assertEquals("Unexpected value from getDurationMillis() when no throttling expected " + v, 0, r.getDurationMillis());
                     Assert.assertFalse("Unexpected value from isMaximum() when no throttling expected " + v, r.isMaximum());
+                    Assert.assertNull("Unexpected value from getThrottlerName() when no throttling expected " + v, r.getThrottlerName());
                 });
 
         // Test for values where we expect gradual throttling, up to max.
@@ -120,8 +220,9 @@ public class ThrottlerCalculatorTests {
                     AssertExtensions.assertGreaterThan("Expected throttling value to increase when test value increases: " + v,
                             lastValue.get(), r.getDurationMillis());
                     AssertExtensions.assertLessThanOrEqual("Expected throttling value to be capped: " + v,
-                            ThrottlerCalculator.MAX_DELAY_MILLIS, r.getDurationMillis());
-                    Assert.assertEquals("Unexpected value from isMaximum() " + v, r.getDurationMillis() >= ThrottlerCalculator.MAX_DELAY_MILLIS, r.isMaximum());
+                            MAX_DELAY_MILLIS, r.getDurationMillis());
+                    Assert.assertEquals("Unexpected value from isMaximum() " + v, r.getDurationMillis() >= MAX_DELAY_MILLIS, r.isMaximum());
+                    Assert.assertEquals("Unexpected value from getThrottlerName() " + v, expectedName, r.getThrottlerName());
                     lastValue.set(r.getDurationMillis());
                 });
 
@@ -133,8 +234,9 @@ public class ThrottlerCalculatorTests {
                             tc.isThrottlingRequired());
                     ThrottlerCalculator.DelayResult r = tc.getThrottlingDelay();
                     Assert.assertEquals("Unexpected value from getDurationMillis() when max throttling is expected " + v,
-                            ThrottlerCalculator.MAX_DELAY_MILLIS, r.getDurationMillis());
+                            MAX_DELAY_MILLIS, r.getDurationMillis());
                     Assert.assertTrue("Unexpected value from isMaximum() when maximum throttling expected " + v, r.isMaximum());
+                    Assert.assertEquals("Unexpected value from getThrottlerName() when maximum throttling expected " + v, expectedName, r.getThrottlerName());
                 });
     }
 }
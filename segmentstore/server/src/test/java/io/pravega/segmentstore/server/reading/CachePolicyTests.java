@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the CachePolicy class and the access frequency tracking in ReadIndexEntry.
+ */
+public class CachePolicyTests {
+    private static final int MAX_GENERATIONS = 100;
+    private static final double PRESSURE = 1.0;
+    private static final double NO_PRESSURE = 0.5;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    /**
+     * Tests getEvictionGeneration() with the GENERATIONAL policy, which should ignore frequency.
+     */
+    @Test
+    public void testGenerationalEviction() {
+        CachePolicy policy = createPolicy(CachePolicy.EvictionPolicy.GENERATIONAL);
+        for (int frequency = 0; frequency <= ReadIndexEntry.MAX_FREQUENCY; frequency++) {
+            Assert.assertEquals("Unexpected eviction generation for frequency " + frequency, 10, policy.getEvictionGeneration(10, frequency, 20, PRESSURE));
+        }
+    }
+
+    /**
+     * Tests getEvictionGeneration() with the FREQUENCY policy.
+     */
+    @Test
+    public void testFrequencyEviction() {
+        CachePolicy policy = createPolicy(CachePolicy.EvictionPolicy.FREQUENCY);
+
+        // Entries on probation are older than any other entry, but only when the cache is under pressure.
+        Assert.assertEquals(20 - MAX_GENERATIONS, policy.getEvictionGeneration(20, 0, 20, PRESSURE));
+        Assert.assertEquals(20, policy.getEvictionGeneration(20, 0, 20, NO_PRESSURE));
+        Assert.assertEquals(20, policy.getEvictionGeneration(20, 0, 20, CachePolicy.TARGET_UTILIZATION));
+
+        // Frequently accessed entries get a logarithmic bonus.
+        Assert.assertEquals(10, policy.getEvictionGeneration(10, 1, 20, PRESSURE));
+        Assert.assertEquals(11, policy.getEvictionGeneration(10, 3, 20, PRESSURE));
+        Assert.assertEquals(12, policy.getEvictionGeneration(10, 4, 20, PRESSURE));
+        Assert.assertEquals(13, policy.getEvictionGeneration(10, ReadIndexEntry.MAX_FREQUENCY, 20, PRESSURE));
+
+        // ... but never beyond the previous generation ...
+        Assert.assertEquals(19, policy.getEvictionGeneration(18, ReadIndexEntry.MAX_FREQUENCY, 20, PRESSURE));
+
+        // ... and never below the entry's own generation.
+        Assert.assertEquals(20, policy.getEvictionGeneration(20, ReadIndexEntry.MAX_FREQUENCY, 20, PRESSURE));
+    }
+
+    /**
+     * Tests the way ReadIndexEntry.recordAccess() updates the access frequency.
+     */
+    @Test
+    public void testRecordAccess() {
+        ReadIndexEntry entry = new CacheIndexEntry(0, 1);
+        Assert.assertEquals("New entries should be on probation.", 0, entry.getFrequency());
+
+        // Multiple accesses within the same generation count only once.
+        entry.recordAccess(0);
+        entry.recordAccess(0);
+        Assert.assertEquals(0, entry.getFrequency());
+        for (int generation = 1; generation <= ReadIndexEntry.MAX_FREQUENCY + 5; generation++) {
+            entry.recordAccess(generation);
+            entry.recordAccess(generation);
+            Assert.assertEquals(Math.min(generation, ReadIndexEntry.MAX_FREQUENCY), entry.getFrequency());
+            Assert.assertEquals(generation, entry.getGeneration());
+        }
+
+        // Every idle generation halves the frequency.
+        int generation = entry.getGeneration();
+        entry.recordAccess(generation + 3);
+        Assert.assertEquals(ReadIndexEntry.MAX_FREQUENCY / 4 + 1, entry.getFrequency());
+
+        // A long time without accesses resets it.
+        entry.recordAccess(generation + 1000);
+        Assert.assertEquals(1, entry.getFrequency());
+    }
+
+    private CachePolicy createPolicy(CachePolicy.EvictionPolicy evictionPolicy) {
+        return new CachePolicy(1024, Duration.ofSeconds(MAX_GENERATIONS), Duration.ofSeconds(1), evictionPolicy);
+    }
+}
@@ -11,6 +11,7 @@ package io.pravega.segmentstore.server.reading;
 
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.io.StreamHelpers;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
 import io.pravega.segmentstore.contracts.ReadResultEntryContents;
@@ -73,6 +74,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
     private static final ReadIndexConfig DEFAULT_CONFIG = ConfigHelpers
             .withInfiniteCachePolicy(ReadIndexConfig.builder()
                                                     .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0) // Default: Off (we have a special test for this).
+                                                    .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 0) // Default: Off (we have a special test for this).
                                                     .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024))
             .build();
     private static final Duration TIMEOUT = Duration.ofSeconds(10);
@@ -122,7 +124,9 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         rnd.nextBytes(segmentData);
 
         final ReadIndexConfig config = ConfigHelpers
-                .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, minReadLength))
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, minReadLength)
+                                                        .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 0))
                 .build();
 
         @Cleanup
@@ -300,6 +304,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         val config = ReadIndexConfig.builder()
                                     .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, DEFAULT_CONFIG.getMemoryReadMinLength())
                                     .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, DEFAULT_CONFIG.getStorageReadAlignment())
+                                    .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, DEFAULT_CONFIG.getStoragePrefetchMaxBlockCount())
                                     .with(ReadIndexConfig.CACHE_POLICY_MAX_SIZE, Long.MAX_VALUE)
                                     .with(ReadIndexConfig.CACHE_POLICY_MAX_TIME, 1000000)
                                     .with(ReadIndexConfig.CACHE_POLICY_GENERATION_TIME, 10000)
@@ -472,7 +477,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
                 // Make sure we increase the Length prior to appending; the ReadIndex checks for this.
                 long offset = segmentMetadata.getLength();
                 segmentMetadata.setLength(offset + data.length);
-                context.readIndex.append(segmentId, offset, data);
+                context.readIndex.append(segmentId, offset, new ByteArraySegment(data));
                 recordAppend(segmentId, data, segmentContents);
                 triggerFutureReadsCallback.run();
             }
@@ -540,28 +545,28 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         UpdateableSegmentMetadata segmentMetadata = context.metadata.getStreamSegmentMetadata(segmentId);
         long segmentOffset = segmentMetadata.getLength();
         segmentMetadata.setLength(segmentOffset + appendData.length);
-        context.readIndex.append(segmentId, segmentOffset, appendData);
+        context.readIndex.append(segmentId, segmentOffset, new ByteArraySegment(appendData));
 
         UpdateableSegmentMetadata transactionMetadata = context.metadata.getStreamSegmentMetadata(transactionId);
         long transactionOffset = transactionMetadata.getLength();
         transactionMetadata.setLength(transactionOffset + appendData.length);
-        context.readIndex.append(transactionId, transactionOffset, appendData);
+        context.readIndex.append(transactionId, transactionOffset, new ByteArraySegment(appendData));
 
         // 1. Appends at wrong offsets.
         AssertExtensions.assertThrows(
                 "append did not throw the correct exception when provided with an offset beyond the Segment's DurableLogOffset.",
-                () -> context.readIndex.append(segmentId, Integer.MAX_VALUE, "foo".getBytes()),
+                () -> context.readIndex.append(segmentId, Integer.MAX_VALUE, new ByteArraySegment("foo".getBytes())),
                 ex -> ex instanceof IllegalArgumentException);
 
         AssertExtensions.assertThrows(
                 "append did not throw the correct exception when provided with invalid offset.",
-                () -> context.readIndex.append(segmentId, 0, "foo".getBytes()),
+                () -> context.readIndex.append(segmentId, 0, new ByteArraySegment("foo".getBytes())),
                 ex -> ex instanceof IllegalArgumentException);
 
         // 2. Appends or reads with wrong SegmentIds
         AssertExtensions.assertThrows(
                 "append did not throw the correct exception when provided with invalid SegmentId.",
-                () -> context.readIndex.append(transactionId + 1, 0, "foo".getBytes()),
+                () -> context.readIndex.append(transactionId + 1, 0, new ByteArraySegment("foo".getBytes())),
                 ex -> ex instanceof IllegalArgumentException);
 
         AssertExtensions.assertThrows(
@@ -602,7 +607,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         context.readIndex.beginMerge(segmentId, mergeOffset, transactionId);
         AssertExtensions.assertThrows(
                 "append did not throw the correct exception when called on a Transaction that was already sealed.",
-                () -> context.readIndex.append(transactionId, transactionMetadata.getLength(), "foo".getBytes()),
+                () -> context.readIndex.append(transactionId, transactionMetadata.getLength(), new ByteArraySegment("foo".getBytes())),
                 ex -> ex instanceof IllegalArgumentException);
     }
 
@@ -758,7 +763,9 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
 
         // To properly test this, we want predictable storage reads.
         ReadIndexConfig config = ConfigHelpers
-                .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize))
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                                                        .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 0))
                 .build();
 
         ArrayList<CacheKey> removedKeys = new ArrayList<>();
@@ -787,7 +794,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
             long offset = sm.getLength();
             sm.setLength(offset + data.length);
             try {
-                context.readIndex.append(segmentId, offset, data);
+                context.readIndex.append(segmentId, offset, new ByteArraySegment(data));
             } catch (StreamSegmentNotExistsException ex) {
                 throw new CompletionException(ex);
             }
@@ -896,6 +903,251 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the CachePolicy.EvictionPolicy.FREQUENCY eviction policy: a segment is appended to and its data is read in
+     * multiple generations, after which a different segment is scanned from Storage until the cache is full. With the
+     * GENERATIONAL policy the (older) appended data is evicted first, while with the FREQUENCY policy the scanned data
+     * (which was never read again) goes first.
+     */
+    @Test
+    public void testFrequencyCacheEviction() throws Exception {
+        final int appendSize = 100;
+        final int entryCount = 10;
+        List<CacheKey> removedKeys = scanWithHotSegment(CachePolicy.EvictionPolicy.GENERATIONAL, appendSize, entryCount);
+        Assert.assertEquals("Expected all the hot entries to be evicted first with the GENERATIONAL policy.",
+                entryCount, removedKeys.stream().filter(key -> key.getStreamSegmentId() == 0).count());
+
+        removedKeys = scanWithHotSegment(CachePolicy.EvictionPolicy.FREQUENCY, appendSize, entryCount);
+        Assert.assertFalse("Expected some scanned entries to be evicted with the FREQUENCY policy.", removedKeys.isEmpty());
+        Assert.assertTrue("Not expecting any hot entries to be evicted with the FREQUENCY policy.",
+                removedKeys.stream().allMatch(key -> key.getStreamSegmentId() == 1));
+    }
+
+    /**
+     * Tests that, with the CachePolicy.EvictionPolicy.FREQUENCY eviction policy, data that was read from Storage (and is
+     * thus on probation) is not evicted while the cache is below its target utilization.
+     */
+    @Test
+    public void testFrequencyCacheEvictionNoPressure() throws Exception {
+        final int readSize = 100;
+        CachePolicy cachePolicy = new CachePolicy(100 * readSize, Duration.ofMillis(1000 * 1000), Duration.ofMillis(1000),
+                CachePolicy.EvictionPolicy.FREQUENCY);
+        ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, readSize))
+                .build();
+
+        ArrayList<CacheKey> removedKeys = new ArrayList<>();
+        @Cleanup
+        TestContext context = new TestContext(config, cachePolicy);
+        context.cacheFactory.cache.removeCallback = removedKeys::add;
+        long segmentId = createSegment(0, context);
+        createSegmentsInStorage(context);
+        UpdateableSegmentMetadata metadata = context.metadata.getStreamSegmentMetadata(segmentId);
+        byte[] data = new byte[readSize];
+        val handle = context.storage.openWrite(metadata.getName()).join();
+        context.storage.write(handle, 0, new ByteArrayInputStream(data), data.length, TIMEOUT).join();
+        metadata.setStorageLength(data.length);
+        metadata.setLength(data.length);
+
+        // Bring the data into the cache. This entry is on probation since it has never been read from the cache.
+        @Cleanup
+        ReadResult storageResult = context.readIndex.read(segmentId, 0, readSize, TIMEOUT);
+        ReadResultEntry storageEntry = storageResult.next();
+        Assert.assertEquals("Expected data to come from Storage.", ReadResultEntryType.Storage, storageEntry.getType());
+        storageEntry.requestContent(TIMEOUT);
+        storageEntry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Advance a few generations. The cache is nowhere near full, so nothing should be evicted.
+        for (int i = 0; i < 3; i++) {
+            context.cacheManager.applyCachePolicy();
+            Assert.assertTrue("Not expecting any evictions without cache pressure.", removedKeys.isEmpty());
+        }
+
+        @Cleanup
+        ReadResult cacheResult = context.readIndex.read(segmentId, 0, readSize, TIMEOUT);
+        Assert.assertEquals("Expected data to still be cached.", ReadResultEntryType.Cache, cacheResult.next().getType());
+    }
+
+    private List<CacheKey> scanWithHotSegment(CachePolicy.EvictionPolicy evictionPolicy, int appendSize, int entryCount) throws Exception {
+        // The cache can hold twice the amount of hot data, and we never age anything out.
+        CachePolicy cachePolicy = new CachePolicy(2 * entryCount * appendSize, Duration.ofMillis(1000 * 1000), Duration.ofMillis(1000), evictionPolicy);
+        ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                                                        .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 0))
+                .build();
+
+        ArrayList<CacheKey> removedKeys = new ArrayList<>();
+        @Cleanup
+        TestContext context = new TestContext(config, cachePolicy);
+        context.cacheFactory.cache.removeCallback = removedKeys::add;
+        long hotSegmentId = createSegment(0, context);
+        long scanSegmentId = createSegment(1, context);
+        createSegmentsInStorage(context);
+
+        // The hot segment's data is appended (and then flushed to Storage, so that it may be evicted).
+        UpdateableSegmentMetadata hotMetadata = context.metadata.getStreamSegmentMetadata(hotSegmentId);
+        for (int i = 0; i < entryCount; i++) {
+            long offset = hotMetadata.getLength();
+            hotMetadata.setLength(offset + appendSize);
+            context.readIndex.append(hotSegmentId, offset, new ByteArraySegment(new byte[appendSize]));
+        }
+
+        hotMetadata.setStorageLength(hotMetadata.getLength());
+        context.cacheManager.applyCachePolicy();
+
+        // ... and read in a few generations.
+        for (int generation = 0; generation < 3; generation++) {
+            for (int i = 0; i < entryCount; i++) {
+                @Cleanup
+                ReadResult result = context.readIndex.read(hotSegmentId, i * appendSize, appendSize, TIMEOUT);
+                Assert.assertEquals("Expected hot data to be cached.", ReadResultEntryType.Cache, result.next().getType());
+            }
+
+            context.cacheManager.applyCachePolicy();
+        }
+
+        // The scanned segment's data is only in Storage; it is read once, one entry per generation, until the cache is full.
+        UpdateableSegmentMetadata scanMetadata = context.metadata.getStreamSegmentMetadata(scanSegmentId);
+        byte[] scanData = new byte[2 * entryCount * appendSize];
+        val handle = context.storage.openWrite(scanMetadata.getName()).join();
+        context.storage.write(handle, 0, new ByteArrayInputStream(scanData), scanData.length, TIMEOUT).join();
+        scanMetadata.setStorageLength(scanData.length);
+        scanMetadata.setLength(scanData.length);
+        for (int i = 0; i <= entryCount && removedKeys.isEmpty(); i++) {
+            @Cleanup
+            ReadResult result = context.readIndex.read(scanSegmentId, i * appendSize, appendSize, TIMEOUT);
+            ReadResultEntry resultEntry = result.next();
+            Assert.assertEquals("Expected scanned data to come from Storage.", ReadResultEntryType.Storage, resultEntry.getType());
+            resultEntry.requestContent(TIMEOUT);
+            resultEntry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            context.cacheManager.applyCachePolicy();
+        }
+
+        return removedKeys;
+    }
+
+    /**
+     * Tests the ability to serve large sequential Storage reads that are far behind the tail of a Segment without inserting
+     * their data into the Cache.
+     */
+    @Test
+    public void testStorageReadBypass() throws Exception {
+        final int alignment = 1024;
+        final int bypassThreshold = 8 * alignment;
+        final int maxReadAhead = 4 * alignment;
+        final int segmentLength = 64 * alignment;
+        ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, alignment)
+                                                        .with(ReadIndexConfig.STORAGE_READ_BYPASS_THRESHOLD, bypassThreshold)
+                                                        .with(ReadIndexConfig.STORAGE_READ_AHEAD_MAX_LENGTH, maxReadAhead)
+                                                        .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 0))
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config, config.getCachePolicy());
+        long segmentId = createSegment(0, context);
+        createSegmentsInStorage(context);
+        UpdateableSegmentMetadata metadata = context.metadata.getStreamSegmentMetadata(segmentId);
+        byte[] segmentData = new byte[segmentLength];
+        new Random(0).nextBytes(segmentData);
+        val handle = context.storage.openWrite(metadata.getName()).join();
+        context.storage.write(handle, 0, new ByteArrayInputStream(segmentData), segmentData.length, TIMEOUT).join();
+        metadata.setStorageLength(segmentLength);
+        metadata.setLength(segmentLength);
+
+        // Read the whole segment sequentially.
+        ByteArrayOutputStream readData = new ByteArrayOutputStream();
+        @Cleanup
+        ReadResult readResult = context.readIndex.read(segmentId, 0, segmentLength, TIMEOUT);
+        while (readResult.hasNext()) {
+            ReadResultEntry entry = readResult.next();
+            Assert.assertEquals("Unexpected offset for ReadResultEntry.", readData.size(), entry.getStreamSegmentOffset());
+            entry.requestContent(TIMEOUT);
+            ReadResultEntryContents contents = entry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            AssertExtensions.assertLessThanOrEqual("Unexpected ReadResultEntry length.", alignment, contents.getLength());
+            byte[] entryData = new byte[contents.getLength()];
+            StreamHelpers.readAll(contents.getData(), entryData, 0, entryData.length);
+            readData.write(entryData);
+        }
+
+        Assert.assertArrayEquals("Unexpected data read.", segmentData, readData.toByteArray());
+
+        // Only the beginning of the scan (until it was detected) and the data near the tail of the segment should be cached.
+        for (int offset = 0; offset < segmentLength; offset += alignment) {
+            boolean isCached = context.cacheFactory.cache.get(new CacheKey(segmentId, offset)) != null;
+            if (offset < bypassThreshold) {
+                Assert.assertTrue("Expected the beginning of the scan to be cached at offset " + offset, isCached);
+            } else if (offset < segmentLength - bypassThreshold - maxReadAhead) {
+                Assert.assertFalse("Not expecting data far behind the tail to be cached at offset " + offset, isCached);
+            }
+        }
+
+        Assert.assertNotNull("Expected the data near the tail to be cached.",
+                context.cacheFactory.cache.get(new CacheKey(segmentId, segmentLength - alignment)));
+    }
+
+    /**
+     * Tests the ability to prefetch data into the cache for sequential Storage reads.
+     */
+    @Test
+    public void testStoragePrefetch() throws Exception {
+        final int alignment = 1024;
+        final int segmentLength = 16 * alignment;
+        ReadIndexConfig config = ConfigHelpers
+                .withInfiniteCachePolicy(ReadIndexConfig.builder()
+                                                        .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, alignment)
+                                                        .with(ReadIndexConfig.STORAGE_PREFETCH_MAX_BLOCK_COUNT, 4))
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config, config.getCachePolicy());
+        long segmentId = createSegment(0, context);
+        createSegmentsInStorage(context);
+        UpdateableSegmentMetadata metadata = context.metadata.getStreamSegmentMetadata(segmentId);
+        byte[] segmentData = new byte[segmentLength];
+        new Random(0).nextBytes(segmentData);
+        val handle = context.storage.openWrite(metadata.getName()).join();
+        context.storage.write(handle, 0, new ByteArrayInputStream(segmentData), segmentData.length, TIMEOUT).join();
+        metadata.setStorageLength(segmentLength);
+        metadata.setLength(segmentLength);
+
+        // The first two reads come from Storage; the second one is sequential, so the next block should be prefetched.
+        readBlock(segmentId, 0, alignment, ReadResultEntryType.Storage, segmentData, context);
+        readBlock(segmentId, 1, alignment, ReadResultEntryType.Storage, segmentData, context);
+        awaitCached(segmentId, 2, alignment, context);
+        readBlock(segmentId, 2, alignment, ReadResultEntryType.Cache, segmentData, context);
+
+        // The reader consumed the prefetched block, so the next read should prefetch more.
+        readBlock(segmentId, 3, alignment, ReadResultEntryType.Storage, segmentData, context);
+        awaitCached(segmentId, 4, alignment, context);
+        awaitCached(segmentId, 5, alignment, context);
+        readBlock(segmentId, 4, alignment, ReadResultEntryType.Cache, segmentData, context);
+        readBlock(segmentId, 5, alignment, ReadResultEntryType.Cache, segmentData, context);
+    }
+
+    private void readBlock(long segmentId, int blockIndex, int blockLength, ReadResultEntryType expectedType, byte[] segmentData,
+                           TestContext context) throws Exception {
+        @Cleanup
+        ReadResult result = context.readIndex.read(segmentId, blockIndex * blockLength, blockLength, TIMEOUT);
+        ReadResultEntry entry = result.next();
+        Assert.assertEquals("Unexpected ReadResultEntryType for block " + blockIndex, expectedType, entry.getType());
+        entry.requestContent(TIMEOUT);
+        ReadResultEntryContents contents = entry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected length for block " + blockIndex, blockLength, contents.getLength());
+        AssertExtensions.assertStreamEquals("Unexpected data for block " + blockIndex,
+                new ByteArrayInputStream(segmentData, blockIndex * blockLength, blockLength), contents.getData(), blockLength);
+    }
+
+    private void awaitCached(long segmentId, int blockIndex, int blockLength, TestContext context) throws Exception {
+        // Prefetching is asynchronous; the global timeout will fail the test if this never happens.
+        CacheKey key = new CacheKey(segmentId, (long) blockIndex * blockLength);
+        while (context.cacheFactory.cache.get(key) == null) {
+            Thread.sleep(10);
+        }
+    }
+
     // region Scenario-based tests
 
     /**
@@ -1091,7 +1343,7 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         // Make sure we increase the Length prior to appending; the ReadIndex checks for this.
         long offset = segmentMetadata.getLength();
         segmentMetadata.setLength(offset + data.length);
-        context.readIndex.append(segmentId, offset, data);
+        context.readIndex.append(segmentId, offset, new ByteArraySegment(data));
     }
 
     private void appendDataInStorage(TestContext context, HashMap<Long, ByteArrayOutputStream> segmentContents) {
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import lombok.Cleanup;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the SequentialScanTracker class.
+ */
+public class SequentialScanTrackerTests extends ThreadPooledTestSuite {
+    private static final int THRESHOLD = 1000;
+    private static final int MIN_READ_AHEAD = 100;
+    private static final int MAX_READ_AHEAD = 400;
+    private static final long FAR_FROM_TAIL = Long.MAX_VALUE;
+    private static final long MAX_TOTAL_READ_AHEAD = Integer.MAX_VALUE;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    /**
+     * Tests the detection of sequential scans and their minimum distance from the tail.
+     */
+    @Test
+    public void testDetection() {
+        SequentialScanTracker tracker = createTracker(THRESHOLD, 0);
+        long offset = 0;
+        while (offset < THRESHOLD) {
+            Assert.assertEquals("Not expecting a bypass before reaching the threshold at offset " + offset, 0, tracker.getBypassReadLength(offset, FAR_FROM_TAIL));
+            tracker.recordStorageRead(offset, MIN_READ_AHEAD);
+            offset += MIN_READ_AHEAD;
+        }
+
+        Assert.assertEquals("Expected a bypass after reaching the threshold.", MIN_READ_AHEAD, tracker.getBypassReadLength(offset, FAR_FROM_TAIL));
+        Assert.assertEquals("Not expecting a bypass close to the tail.", 0, tracker.getBypassReadLength(offset, THRESHOLD - 1));
+        Assert.assertEquals("Not expecting a bypass for a non-sequential read.", 0, tracker.getBypassReadLength(offset + 1, FAR_FROM_TAIL));
+        Assert.assertEquals("Not expecting a bypass for a read that was already done.", 0, tracker.getBypassReadLength(0, FAR_FROM_TAIL));
+
+        SequentialScanTracker disabled = createTracker(0, 0);
+        disabled.recordStorageRead(0, Integer.MAX_VALUE);
+        Assert.assertEquals("Not expecting a bypass when disabled.", 0, disabled.getBypassReadLength(Integer.MAX_VALUE, FAR_FROM_TAIL));
+        Assert.assertEquals("Not expecting any scans to be tracked when disabled.", 0, disabled.getScanCount());
+    }
+
+    /**
+     * Tests the read-ahead for scans that bypass the cache, including its growth.
+     */
+    @Test
+    public void testReadAhead() {
+        SequentialScanTracker tracker = createTracker(THRESHOLD, 0);
+        tracker.recordStorageRead(0, THRESHOLD);
+        long offset = THRESHOLD;
+        int expectedReadAheadLength = MIN_READ_AHEAD;
+        for (int i = 0; i < 5; i++) {
+            int readLength = tracker.getBypassReadLength(offset, FAR_FROM_TAIL);
+            Assert.assertEquals("Unexpected read-ahead length at iteration " + i, expectedReadAheadLength, readLength);
+            Assert.assertNull("Not expecting any read-ahead data before the bypass read.", tracker.read(offset, readLength));
+
+            // Each bypass read returns MIN_READ_AHEAD bytes to the reader; the rest is read-ahead.
+            byte[] buffer = new byte[readLength];
+            for (int j = 0; j < buffer.length; j++) {
+                buffer[j] = (byte) (offset + j);
+            }
+
+            tracker.recordBypassRead(offset, new ByteArraySegment(buffer), MIN_READ_AHEAD);
+            offset += MIN_READ_AHEAD;
+            int remaining = readLength - MIN_READ_AHEAD;
+            while (remaining > 0) {
+                Assert.assertNull("Not expecting read-ahead data for a different offset.", tracker.read(offset + 1, 1));
+                ByteArraySegment data = tracker.read(offset, MIN_READ_AHEAD / 2);
+                Assert.assertNotNull("Expected read-ahead data at offset " + offset, data);
+                Assert.assertEquals("Unexpected read-ahead data length.", Math.min(remaining, MIN_READ_AHEAD / 2), data.getLength());
+                Assert.assertNotSame("Read-ahead data should not reference the Storage read buffer.", buffer, data.array());
+                for (int j = 0; j < data.getLength(); j++) {
+                    Assert.assertEquals("Unexpected read-ahead data at offset " + (offset + j), (byte) (offset + j), data.get(j));
+                }
+
+                offset += data.getLength();
+                remaining -= data.getLength();
+            }
+
+            expectedReadAheadLength = Math.min(2 * expectedReadAheadLength, MAX_READ_AHEAD);
+        }
+    }
+
+    /**
+     * Tests the ability to continue a scan after skipping over data that was served from the cache.
+     */
+    @Test
+    public void testGaps() {
+        final int maxGap = 2 * MIN_READ_AHEAD;
+        SequentialScanTracker tracker = createTracker(THRESHOLD, maxGap);
+        long offset = 0;
+        while (offset < THRESHOLD) {
+            tracker.recordStorageRead(offset, MIN_READ_AHEAD);
+            offset += MIN_READ_AHEAD + maxGap;
+        }
+
+        Assert.assertEquals("Unexpected number of scans.", 1, tracker.getScanCount());
+        Assert.assertEquals("Expected a bypass after a gap.", MIN_READ_AHEAD, tracker.getBypassReadLength(offset, FAR_FROM_TAIL));
+        Assert.assertEquals("Not expecting a bypass after a gap that is too large.", 0, tracker.getBypassReadLength(offset + 1, FAR_FROM_TAIL));
+    }
+
+    /**
+     * Tests the ability to track multiple concurrent scans and to evict the least recently used one.
+     */
+    @Test
+    public void testMultipleScans() {
+        SequentialScanTracker tracker = createTracker(THRESHOLD, 0);
+        final long scanDistance = 100 * THRESHOLD;
+        for (int i = 0; i < SequentialScanTracker.MAX_SCANS; i++) {
+            tracker.recordStorageRead(i * scanDistance, THRESHOLD);
+        }
+
+        Assert.assertEquals("Unexpected number of scans.", SequentialScanTracker.MAX_SCANS, tracker.getScanCount());
+        for (int i = 0; i < SequentialScanTracker.MAX_SCANS; i++) {
+            Assert.assertEquals("Expected a bypass for scan " + i, MIN_READ_AHEAD, tracker.getBypassReadLength(i * scanDistance + THRESHOLD, FAR_FROM_TAIL));
+        }
+
+        // A new scan should evict the least recently used one (the first one).
+        tracker.recordStorageRead(SequentialScanTracker.MAX_SCANS * scanDistance, MIN_READ_AHEAD);
+        Assert.assertEquals("Unexpected number of scans after eviction.", SequentialScanTracker.MAX_SCANS, tracker.getScanCount());
+        Assert.assertEquals("Not expecting the least recently used scan to be tracked anymore.", 0, tracker.getBypassReadLength(THRESHOLD, FAR_FROM_TAIL));
+        for (int i = 1; i < SequentialScanTracker.MAX_SCANS; i++) {
+            Assert.assertEquals("Expected a bypass for scan " + i, MIN_READ_AHEAD, tracker.getBypassReadLength(i * scanDistance + THRESHOLD, FAR_FROM_TAIL));
+        }
+    }
+
+    /**
+     * Tests that read-ahead data is accounted for by the CacheManager and that it is discarded if it would exceed the
+     * CacheManager's limit.
+     */
+    @Test
+    public void testReadAheadLimit() {
+        final int maxTotalReadAhead = 2 * MIN_READ_AHEAD;
+        @Cleanup
+        CacheManager cacheManager = createCacheManager(maxTotalReadAhead);
+        SequentialScanTracker tracker = new SequentialScanTracker(THRESHOLD, MIN_READ_AHEAD, MAX_READ_AHEAD, 0, cacheManager);
+        tracker.recordStorageRead(0, THRESHOLD);
+
+        // This read-ahead fits.
+        long offset = THRESHOLD;
+        tracker.recordBypassRead(offset, new ByteArraySegment(new byte[MIN_READ_AHEAD + maxTotalReadAhead]), MIN_READ_AHEAD);
+        offset += MIN_READ_AHEAD;
+        Assert.assertEquals("Unexpected read-ahead size.", maxTotalReadAhead, cacheManager.getReadAheadSize());
+        Assert.assertEquals("Unexpected read-ahead length after a successful read-ahead.", 2 * MIN_READ_AHEAD, tracker.getBypassReadLength(offset, FAR_FROM_TAIL));
+        Assert.assertEquals("Expected the read-ahead to count towards the cache utilization.",
+                (double) maxTotalReadAhead / Integer.MAX_VALUE, cacheManager.getCacheUtilization(), 0.0);
+
+        // Consuming it releases it.
+        ByteArraySegment data = tracker.read(offset, MIN_READ_AHEAD);
+        offset += data.getLength();
+        Assert.assertEquals("Unexpected read-ahead size after a partial read.", maxTotalReadAhead - MIN_READ_AHEAD, cacheManager.getReadAheadSize());
+        data = tracker.read(offset, MIN_READ_AHEAD);
+        offset += data.getLength();
+        Assert.assertEquals("Unexpected read-ahead size after a full read.", 0, cacheManager.getReadAheadSize());
+
+        // This one does not fit. It should be discarded and the read-ahead length should be reset.
+        tracker.recordBypassRead(offset, new ByteArraySegment(new byte[MIN_READ_AHEAD + maxTotalReadAhead + 1]), MIN_READ_AHEAD);
+        offset += MIN_READ_AHEAD;
+        Assert.assertEquals("Not expecting any read-ahead to be held.", 0, cacheManager.getReadAheadSize());
+        Assert.assertNull("Not expecting any read-ahead data.", tracker.read(offset, MIN_READ_AHEAD));
+        Assert.assertEquals("Expected the read-ahead length to be reset.", MIN_READ_AHEAD, tracker.getBypassReadLength(offset, FAR_FROM_TAIL));
+    }
+
+    /**
+     * Tests that read-ahead data is released if it is not used, when a Scan is evicted, and when the tracker is closed.
+     */
+    @Test
+    public void testReleaseReadAhead() {
+        @Cleanup
+        CacheManager cacheManager = createCacheManager(MAX_TOTAL_READ_AHEAD);
+        SequentialScanTracker tracker = new SequentialScanTracker(THRESHOLD, MIN_READ_AHEAD, MAX_READ_AHEAD, 0, cacheManager);
+        final long scanDistance = 100 * THRESHOLD;
+        for (int i = 0; i < SequentialScanTracker.MAX_SCANS; i++) {
+            tracker.recordStorageRead(i * scanDistance, THRESHOLD);
+            tracker.recordBypassRead(i * scanDistance + THRESHOLD, new ByteArraySegment(new byte[2 * MIN_READ_AHEAD]), MIN_READ_AHEAD);
+        }
+
+        Assert.assertEquals("Unexpected read-ahead size.", SequentialScanTracker.MAX_SCANS * MIN_READ_AHEAD, cacheManager.getReadAheadSize());
+        Assert.assertEquals("Unexpected read-ahead size in the tracker.", cacheManager.getReadAheadSize(), tracker.getReadAheadSize());
+
+        // Only idle Scans should lose their read-ahead, and only on the second call.
+        Assert.assertEquals("Not expecting any read-ahead to be released on the first call.", 0, tracker.releaseIdleReadAhead());
+        final long activeOffset = THRESHOLD + MIN_READ_AHEAD;
+        Assert.assertNotNull("Expected read-ahead data.", tracker.read(activeOffset, MIN_READ_AHEAD / 2));
+        Assert.assertEquals("Unexpected number of bytes released for idle Scans.",
+                (SequentialScanTracker.MAX_SCANS - 1) * MIN_READ_AHEAD, tracker.releaseIdleReadAhead());
+        Assert.assertEquals("Unexpected read-ahead size after releasing idle Scans.", MIN_READ_AHEAD / 2, cacheManager.getReadAheadSize());
+        Assert.assertNull("Not expecting read-ahead data for an idle Scan.", tracker.read(scanDistance + activeOffset, 1));
+
+        // Evicting a Scan releases its read-ahead.
+        for (int i = 1; i <= SequentialScanTracker.MAX_SCANS; i++) {
+            tracker.recordStorageRead((SequentialScanTracker.MAX_SCANS + i) * scanDistance, MIN_READ_AHEAD);
+        }
+
+        Assert.assertEquals("Expected read-ahead to be released when evicting Scans.", 0, cacheManager.getReadAheadSize());
+
+        // Closing releases everything and no more read-ahead can be held afterwards.
+        tracker.recordStorageRead(0, THRESHOLD);
+        tracker.recordBypassRead(THRESHOLD, new ByteArraySegment(new byte[2 * MIN_READ_AHEAD]), MIN_READ_AHEAD);
+        Assert.assertEquals("Unexpected read-ahead size.", MIN_READ_AHEAD, cacheManager.getReadAheadSize());
+        tracker.close();
+        Assert.assertEquals("Expected read-ahead to be released when closing.", 0, cacheManager.getReadAheadSize());
+        tracker.recordBypassRead(THRESHOLD, new ByteArraySegment(new byte[2 * MIN_READ_AHEAD]), MIN_READ_AHEAD);
+        Assert.assertEquals("Not expecting read-ahead to be held after closing.", 0, cacheManager.getReadAheadSize());
+    }
+
+    private SequentialScanTracker createTracker(int bypassThreshold, long maxGap) {
+        return new SequentialScanTracker(bypassThreshold, MIN_READ_AHEAD, MAX_READ_AHEAD, maxGap, createCacheManager(MAX_TOTAL_READ_AHEAD));
+    }
+
+    private CacheManager createCacheManager(long maxReadAheadSize) {
+        CachePolicy policy = new CachePolicy(Integer.MAX_VALUE, Duration.ofHours(1), Duration.ofHours(1),
+                CachePolicy.EvictionPolicy.GENERATIONAL, maxReadAheadSize);
+        return new CacheManager(policy, executorService());
+    }
+}
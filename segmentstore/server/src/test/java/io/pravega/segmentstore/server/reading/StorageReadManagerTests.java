@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.reading;
 
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.server.SegmentMetadata;
@@ -23,12 +24,17 @@ import io.pravega.test.common.IntentionalException;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.io.ByteArrayInputStream;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import lombok.Cleanup;
 import lombok.val;
@@ -141,6 +147,8 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
 
     /**
      * Tests the ability to queue dependent reads (subsequent reads that only want to read a part of a previous read).
+     * This includes reads that overlap the end of the previous read, reads that are fully contained in it and reads that
+     * end at the same offset as it.
      * Test this both with successful and failed reads.
      */
     @Test
@@ -162,10 +170,26 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         // Create some reads.
         CompletableFuture<StorageReadManager.Result> c1 = new CompletableFuture<>();
         CompletableFuture<StorageReadManager.Result> c2 = new CompletableFuture<>();
+        CompletableFuture<StorageReadManager.Result> c3 = new CompletableFuture<>();
+        CompletableFuture<StorageReadManager.Result> c4 = new CompletableFuture<>();
         reader.execute(new StorageReadManager.Request(0, 100, c1::complete, c1::completeExceptionally, TIMEOUT));
-        reader.execute(new StorageReadManager.Request(50, 100, c2::complete, c2::completeExceptionally, TIMEOUT));
 
-        Assert.assertFalse("One or more of the reads has completed prematurely.", c1.isDone() || c2.isDone());
+        // Overlaps the end of the first read: trimmed to end where the first read ends.
+        val r2 = new StorageReadManager.Request(50, 100, c2::complete, c2::completeExceptionally, TIMEOUT);
+        reader.execute(r2);
+        Assert.assertEquals("Unexpected length for overlapping dependent read.", 50, r2.getLength());
+
+        // Ends at the same offset as the first read (boundary case): fully contained, so its length is unchanged.
+        val r3 = new StorageReadManager.Request(10, 90, c3::complete, c3::completeExceptionally, TIMEOUT);
+        reader.execute(r3);
+        Assert.assertEquals("Unexpected length for dependent read with the same end offset.", 90, r3.getLength());
+
+        // Fully contained in the first read.
+        val r4 = new StorageReadManager.Request(20, 30, c4::complete, c4::completeExceptionally, TIMEOUT);
+        reader.execute(r4);
+        Assert.assertEquals("Unexpected length for fully contained dependent read.", 30, r4.getLength());
+
+        Assert.assertFalse("One or more of the reads has completed prematurely.", c1.isDone() || c2.isDone() || c3.isDone() || c4.isDone());
 
         signal.completeExceptionally(new IntentionalException());
         AssertExtensions.assertThrows(
@@ -177,6 +201,16 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
                 "The second read was not failed with the correct exception.",
                 () -> c2.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS),
                 ex -> ex instanceof IntentionalException);
+
+        AssertExtensions.assertThrows(
+                "The third read was not failed with the correct exception.",
+                () -> c3.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS),
+                ex -> ex instanceof IntentionalException);
+
+        AssertExtensions.assertThrows(
+                "The fourth read was not failed with the correct exception.",
+                () -> c4.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS),
+                ex -> ex instanceof IntentionalException);
     }
 
     /**
@@ -216,6 +250,79 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the ability to prefetch data for sequential reads and to adapt the number of prefetched blocks based on
+     * how the reader consumes them and on the Cache utilization.
+     */
+    @Test
+    public void testPrefetch() throws Exception {
+        final int blockLength = 100;
+        final int maxBlockCount = 4;
+        final int segmentLength = 20 * blockLength;
+        @Cleanup
+        Storage storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        byte[] segmentData = new byte[segmentLength];
+        new Random(0).nextBytes(segmentData);
+        storage.create(SEGMENT_METADATA.getName(), TIMEOUT).join();
+        val writeHandle = storage.openWrite(SEGMENT_METADATA.getName()).join();
+        storage.write(writeHandle, 0, new ByteArrayInputStream(segmentData), segmentData.length, TIMEOUT).join();
+
+        AtomicReference<Double> cacheUtilization = new AtomicReference<>(0.0);
+        TestPrefetchTarget target = new TestPrefetchTarget(segmentLength);
+        @Cleanup
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, blockLength, maxBlockCount,
+                cacheUtilization::get, target, executorService());
+
+        // The first read is not sequential; nothing should be prefetched.
+        sendRequest(reader, 0, blockLength, true).join();
+        Assert.assertTrue("Not expecting any prefetch for the first read.", target.getRequested().isEmpty());
+
+        // The second read is sequential; we should prefetch one block.
+        sendRequest(reader, blockLength, blockLength, true).join();
+        checkPrefetch(target, 2, 1, blockLength);
+        ByteArraySegment data = target.getPrefetched(2 * blockLength).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        AssertExtensions.assertStreamEquals("Unexpected prefetched data.", new ByteArrayInputStream(segmentData, 2 * blockLength, blockLength),
+                data.getReader(), blockLength);
+
+        // The reader consumed the prefetched block (from the cache): the number of prefetched blocks should double each
+        // time, up to the maximum.
+        sendRequest(reader, 3 * blockLength, blockLength, true).join();
+        checkPrefetch(target, 4, 2, blockLength);
+        sendRequest(reader, 6 * blockLength, blockLength, true).join();
+        checkPrefetch(target, 7, 4, blockLength);
+        sendRequest(reader, 11 * blockLength, blockLength, true).join();
+        checkPrefetch(target, 12, 4, blockLength);
+
+        // Cache is under pressure: nothing should be prefetched.
+        cacheUtilization.set(1.0);
+        sendRequest(reader, 16 * blockLength, blockLength, true).join();
+        Assert.assertTrue("Not expecting any prefetch when the cache is full.", target.getRequested().isEmpty());
+
+        // Random reads and reads that do not allow prefetching should not prefetch anything.
+        cacheUtilization.set(0.0);
+        sendRequest(reader, 0, blockLength, true).join();
+        sendRequest(reader, 18 * blockLength, blockLength, true).join();
+        sendRequest(reader, 19 * blockLength, blockLength, false).join();
+        Assert.assertTrue("Not expecting any prefetch for random reads.", target.getRequested().isEmpty());
+    }
+
+    private void checkPrefetch(TestPrefetchTarget target, int firstBlock, int blockCount, int blockLength) {
+        HashSet<Long> expected = new HashSet<>();
+        for (int i = 0; i < blockCount; i++) {
+            expected.add((long) (firstBlock + i) * blockLength);
+        }
+
+        Assert.assertEquals("Unexpected blocks prefetched.", expected, target.getRequested());
+        target.getRequested().clear();
+    }
+
+    private CompletableFuture<StorageReadManager.Result> sendRequest(StorageReadManager reader, long offset, int length, boolean allowPrefetch) {
+        CompletableFuture<StorageReadManager.Result> requestCompletion = new CompletableFuture<>();
+        reader.execute(new StorageReadManager.Request(offset, length, requestCompletion::complete, requestCompletion::completeExceptionally, TIMEOUT), allowPrefetch);
+        return requestCompletion;
+    }
+
     private byte[] populateSegment(Storage storage) {
         Random random = new Random();
         int length = MIN_SEGMENT_LENGTH + random.nextInt(MAX_SEGMENT_LENGTH - MIN_SEGMENT_LENGTH);
@@ -227,6 +334,39 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         return segmentData;
     }
 
+    private static class TestPrefetchTarget implements StorageReadManager.PrefetchTarget {
+        private final long length;
+        private final Set<Long> requested = Collections.synchronizedSet(new HashSet<>());
+        private final ConcurrentHashMap<Long, CompletableFuture<ByteArraySegment>> prefetched = new ConcurrentHashMap<>();
+
+        TestPrefetchTarget(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public int getPrefetchLength(long offset, int maxLength) {
+            if (offset >= this.length || this.prefetched.containsKey(offset)) {
+                return 0;
+            }
+
+            this.requested.add(offset);
+            return (int) Math.min(maxLength, this.length - offset);
+        }
+
+        @Override
+        public void acceptPrefetched(long offset, ByteArraySegment data) {
+            getPrefetched(offset).complete(data);
+        }
+
+        Set<Long> getRequested() {
+            return this.requested;
+        }
+
+        CompletableFuture<ByteArraySegment> getPrefetched(long offset) {
+            return this.prefetched.computeIfAbsent(offset, o -> new CompletableFuture<>());
+        }
+    }
+
     private static class TestStorage implements ReadOnlyStorage {
         Supplier<CompletableFuture<Integer>> readImplementation;
 
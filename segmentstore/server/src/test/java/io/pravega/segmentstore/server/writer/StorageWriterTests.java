@@ -41,10 +41,12 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -205,6 +207,131 @@ public class StorageWriterTests extends ThreadPooledTestSuite {
         testWriter(context);
     }
 
+    /**
+     * Tests the StorageWriter when it can only flush one Segment at a time and it does not wait for any flush to complete
+     * before moving on to the next iteration.
+     * See testWriter() for more details about testing flow.
+     */
+    @Test
+    public void testWithConcurrentFlushLimit() throws Exception {
+        final WriterConfig config = WriterConfig.builder()
+                                                .with(WriterConfig.FLUSH_THRESHOLD_BYTES, 1000)
+                                                .with(WriterConfig.FLUSH_THRESHOLD_MILLIS, 1000L)
+                                                .with(WriterConfig.MIN_READ_TIMEOUT_MILLIS, 10L)
+                                                .with(WriterConfig.MAX_READ_TIMEOUT_MILLIS, 250L)
+                                                .with(WriterConfig.MAX_ITEMS_TO_READ_AT_ONCE, 100)
+                                                .with(WriterConfig.ERROR_SLEEP_MILLIS, 0L)
+                                                .with(WriterConfig.MAX_CONCURRENT_FLUSHES, 1) // This differs from DEFAULT_CONFIG.
+                                                .with(WriterConfig.MAX_FLUSH_WAIT_MILLIS, 0L) // This differs from DEFAULT_CONFIG.
+                                                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config);
+        testWriter(context);
+    }
+
+    /**
+     * Tests the StorageWriter in a Scenario where flushing one Segment to Storage is blocked. Verifies that the other
+     * Segments are still flushed, that nothing is acknowledged past the blocked Segment's data and that, once unblocked,
+     * everything makes it to Storage.
+     */
+    @Test
+    public void testSlowFlush() throws Exception {
+        final WriterConfig config = WriterConfig.builder()
+                                                .with(WriterConfig.FLUSH_THRESHOLD_BYTES, 1) // This differs from DEFAULT_CONFIG.
+                                                .with(WriterConfig.FLUSH_THRESHOLD_MILLIS, 1000L)
+                                                .with(WriterConfig.MIN_READ_TIMEOUT_MILLIS, 10L)
+                                                .with(WriterConfig.MAX_READ_TIMEOUT_MILLIS, 250L)
+                                                .with(WriterConfig.MAX_ITEMS_TO_READ_AT_ONCE, 100)
+                                                .with(WriterConfig.ERROR_SLEEP_MILLIS, 0L)
+                                                .with(WriterConfig.MAX_FLUSH_WAIT_MILLIS, 10L) // This differs from DEFAULT_CONFIG.
+                                                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config);
+        ArrayList<Long> segmentIds = createSegments(context);
+        UpdateableSegmentMetadata blockedSegment = context.metadata.getStreamSegmentMetadata(segmentIds.get(0));
+        CompletableFuture<Void> unblock = new CompletableFuture<>();
+        context.storage.setWriteInterceptor((segmentName, offset, data, length, storage) ->
+                segmentName.equals(blockedSegment.getName()) ? unblock : null);
+        context.writer.startAsync();
+
+        // Append data and wait for all but the blocked segment to be flushed.
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        appendDataBreadthFirst(segmentIds, segmentContents, context);
+        metadataCheckpoint(context);
+        while (!segmentIds.stream()
+                          .map(context.metadata::getStreamSegmentMetadata)
+                          .filter(sm -> sm.getId() != blockedSegment.getId())
+                          .allMatch(sm -> sm.getStorageLength() == sm.getLength())) {
+            Exceptions.handleInterrupted(() -> Thread.sleep(10));
+        }
+
+        Assert.assertEquals("Not expecting anything to be flushed for the blocked segment.", 0, blockedSegment.getStorageLength());
+        Assert.assertFalse("Not expecting the blocked segment's data to be acknowledged.", context.dataSource.waitFullyAcked().isDone());
+
+        // Unblock and verify everything has been written.
+        unblock.complete(null);
+        context.dataSource.waitFullyAcked().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        verifyFinalOutput(segmentContents, Collections.emptyList(), context);
+    }
+
+    /**
+     * Tests the StorageWriter in a Scenario where new operations arrive for a Segment while a flush for that Segment is
+     * still in progress (in the background). Verifies that these operations are held back until the flush completes and
+     * that the data ends up in Storage exactly once and in the right order.
+     */
+    @Test
+    public void testAppendDuringSlowFlush() throws Exception {
+        final WriterConfig config = WriterConfig.builder()
+                                                .with(WriterConfig.FLUSH_THRESHOLD_BYTES, 1) // This differs from DEFAULT_CONFIG.
+                                                .with(WriterConfig.FLUSH_THRESHOLD_MILLIS, 1000L)
+                                                .with(WriterConfig.MIN_READ_TIMEOUT_MILLIS, 10L)
+                                                .with(WriterConfig.MAX_READ_TIMEOUT_MILLIS, 250L)
+                                                .with(WriterConfig.MAX_ITEMS_TO_READ_AT_ONCE, 100)
+                                                .with(WriterConfig.ERROR_SLEEP_MILLIS, 0L)
+                                                .with(WriterConfig.MAX_FLUSH_WAIT_MILLIS, 10L) // This differs from DEFAULT_CONFIG.
+                                                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config);
+        ArrayList<Long> segmentIds = createSegments(context);
+        UpdateableSegmentMetadata blockedSegment = context.metadata.getStreamSegmentMetadata(segmentIds.get(0));
+        CompletableFuture<Void> writeStarted = new CompletableFuture<>();
+        CompletableFuture<Void> unblock = new CompletableFuture<>();
+        context.storage.setWriteInterceptor((segmentName, offset, data, length, storage) -> {
+            if (segmentName.equals(blockedSegment.getName())) {
+                writeStarted.complete(null);
+                return unblock;
+            }
+
+            return null;
+        });
+        context.writer.startAsync();
+
+        // Append some data and wait for the blocked segment's flush to begin.
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        appendDataBreadthFirst(segmentIds, segmentContents, context);
+        writeStarted.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Append more data while that flush is in progress, and wait for the Writer to have processed all of it.
+        appendDataBreadthFirst(segmentIds, segmentContents, context);
+        metadataCheckpoint(context);
+        while (!segmentIds.stream()
+                          .map(context.metadata::getStreamSegmentMetadata)
+                          .filter(sm -> sm.getId() != blockedSegment.getId())
+                          .allMatch(sm -> sm.getStorageLength() == sm.getLength())) {
+            Exceptions.handleInterrupted(() -> Thread.sleep(10));
+        }
+
+        Assert.assertFalse("Not expecting the blocked segment's data to be acknowledged.", context.dataSource.waitFullyAcked().isDone());
+
+        // Unblock and verify everything has been written, exactly once.
+        unblock.complete(null);
+        context.dataSource.waitFullyAcked().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        verifyFinalOutput(segmentContents, Collections.emptyList(), context);
+    }
+
     /**
      * Tests the StorageWriter in a Scenario where the Storage component throws data corruption exceptions (i.e., badOffset,
      * and after reconciliation, the data is still corrupt).
@@ -36,7 +36,11 @@ public class BookKeeperConfig {
     public static final Property<Integer> BK_WRITE_QUORUM_SIZE = Property.named("bkWriteQuorumSize", 3);
     public static final Property<Integer> BK_WRITE_TIMEOUT = Property.named("bkWriteTimeoutMillis", 5000);
     public static final Property<Integer> BK_READ_TIMEOUT = Property.named("readTimeoutMillis", 5000);
+    public static final Property<Integer> BK_READ_BATCH_SIZE = Property.named("bkReadBatchSize", 8);
+    public static final Property<Integer> BK_READ_AHEAD_BATCH_COUNT = Property.named("bkReadAheadBatchCount", 4);
+    public static final Property<Integer> BK_LOG_STRIPE_COUNT = Property.named("bkLogStripeCount", 1);
     public static final Property<Integer> BK_LEDGER_MAX_SIZE = Property.named("bkLedgerMaxSize", 1024 * 1024 * 1024);
+    public static final Property<Integer> BK_LEDGER_STANDBY_FILL_PERCENTAGE = Property.named("bkLedgerStandbyFillPercentage", 80);
     public static final Property<String> BK_PASSWORD = Property.named("bkPass", "");
     public static final Property<String> BK_LEDGER_PATH = Property.named("bkLedgerPath", "");
     public static final Property<Boolean> BK_TLS_ENABLED = Property.named("tlsEnabled", false);
@@ -125,6 +129,26 @@ public class BookKeeperConfig {
     @Getter
     private final int bkReadTimeoutMillis;
 
+    /**
+     * The maximum number of Entries to read from BookKeeper with a single (asynchronous) read request.
+     */
+    @Getter
+    private final int bkReadBatchSize;
+
+    /**
+     * The maximum number of read requests (each of at most BkReadBatchSize entries) that may be in flight ahead of the
+     * data being consumed while reading a Log (i.e., during recovery).
+     */
+    @Getter
+    private final int bkReadAheadBatchCount;
+
+    /**
+     * The number of BookKeeper logs (each with its own Ledgers) to spread the writes of each DurableDataLog across. If
+     * 1, each DurableDataLog maps to exactly one BookKeeper log.
+     */
+    @Getter
+    private final int bkLogStripeCount;
+
     /**
      * The Maximum size of a ledger, in bytes. On or around this value the current ledger is closed and a new one
      * is created. By design, this property cannot be larger than Int.MAX_VALUE, since we want Ledger Entry Ids to be
@@ -132,6 +156,14 @@ public class BookKeeperConfig {
      */
     @Getter
     private final int bkLedgerMaxSize;
+
+    /**
+     * The size of the current ledger, in bytes, after which a standby ledger is created (and registered in the log
+     * metadata) in the background, so that the subsequent rollover needs not wait on BookKeeper or ZooKeeper. If equal
+     * to bkLedgerMaxSize, no standby ledgers are created.
+     */
+    @Getter
+    private final int bkLedgerStandbyThreshold;
     private final byte[] bkPassword;
 
     @Getter
@@ -172,7 +204,32 @@ public class BookKeeperConfig {
 
         this.bkWriteTimeoutMillis = properties.getInt(BK_WRITE_TIMEOUT);
         this.bkReadTimeoutMillis = properties.getInt(BK_READ_TIMEOUT);
+        this.bkReadBatchSize = properties.getInt(BK_READ_BATCH_SIZE);
+        if (this.bkReadBatchSize <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BK_READ_BATCH_SIZE, this.bkReadBatchSize));
+        }
+
+        this.bkReadAheadBatchCount = properties.getInt(BK_READ_AHEAD_BATCH_COUNT);
+        if (this.bkReadAheadBatchCount <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BK_READ_AHEAD_BATCH_COUNT, this.bkReadAheadBatchCount));
+        }
+
+        this.bkLogStripeCount = properties.getInt(BK_LOG_STRIPE_COUNT);
+        if (this.bkLogStripeCount <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BK_LOG_STRIPE_COUNT, this.bkLogStripeCount));
+        }
+
         this.bkLedgerMaxSize = properties.getInt(BK_LEDGER_MAX_SIZE);
+        int standbyFillPercentage = properties.getInt(BK_LEDGER_STANDBY_FILL_PERCENTAGE);
+        if (standbyFillPercentage <= 0 || standbyFillPercentage > 100) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a value in the interval (0, 100].",
+                    BK_LEDGER_STANDBY_FILL_PERCENTAGE, standbyFillPercentage));
+        }
+
+        this.bkLedgerStandbyThreshold = (int) ((long) this.bkLedgerMaxSize * standbyFillPercentage / 100);
         this.bkPassword = properties.get(BK_PASSWORD).getBytes(Charset.forName("UTF-8"));
         this.isTLSEnabled = properties.getBoolean(BK_TLS_ENABLED);
         tlsTrustStore = properties.get(TLS_TRUST_STORE_PATH);
@@ -83,6 +83,7 @@ class BookKeeperLog implements DurableDataLog {
 
     private static final long REPORT_INTERVAL = 1000;
     private final String logNodePath;
+    private final String conflictingNodePath;
     private final CuratorFramework zkClient;
     private final BookKeeper bookKeeper;
     private final BookKeeperConfig config;
@@ -93,6 +94,10 @@ class BookKeeperLog implements DurableDataLog {
     @GuardedBy("lock")
     private WriteLedger writeLedger;
     @GuardedBy("lock")
+    private WriteLedger standbyLedger;
+    @GuardedBy("lock")
+    private boolean standbyLedgerFailed;
+    @GuardedBy("lock")
     private LogMetadata logMetadata;
     private final WriteQueue writes;
     private final SequentialAsyncProcessor writeProcessor;
@@ -114,22 +119,64 @@ class BookKeeperLog implements DurableDataLog {
      * @param executorService An Executor to use for async operations.
      */
     BookKeeperLog(int containerId, CuratorFramework zkClient, BookKeeper bookKeeper, BookKeeperConfig config, ScheduledExecutorService executorService) {
-        Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative integer.");
+        this(containerId, null, zkClient, bookKeeper, config, executorService);
+    }
+
+    /**
+     * Creates a new instance of the BookKeeper log class.
+     *
+     * @param containerId         The Id of the Container whose BookKeeperLog to open.
+     * @param conflictingNodePath (Optional) The path of a ZooKeeper node which, if it exists, indicates that this log
+     *                            has been written using a different layout. See the other constructor for details.
+     * @param zkClient            A reference to the CuratorFramework client to use.
+     * @param bookKeeper          A reference to the BookKeeper client to use.
+     * @param config              Configuration to use.
+     * @param executorService     An Executor to use for async operations.
+     */
+    BookKeeperLog(int containerId, String conflictingNodePath, CuratorFramework zkClient, BookKeeper bookKeeper, BookKeeperConfig config,
+                  ScheduledExecutorService executorService) {
+        this(HierarchyUtils.getPath(checkContainerId(containerId), config.getZkHierarchyDepth()), conflictingNodePath,
+                Integer.toString(containerId), zkClient, bookKeeper, config, executorService);
+    }
+
+    /**
+     * Creates a new instance of the BookKeeper log class which stores its metadata at the given path. This is used for
+     * logs that do not map one-to-one to Containers (i.e., the stripes of a StripedDurableDataLog).
+     *
+     * @param logNodePath         The path of the ZooKeeper node holding the Log Metadata.
+     * @param conflictingNodePath (Optional) The path of a ZooKeeper node which, if it exists, indicates that this log
+     *                            has been written using a different layout (i.e., striped vs. non-striped). If set,
+     *                            initialize() will refuse to create a new log at logNodePath if this node exists,
+     *                            since doing so would silently ignore the contents of the existing log.
+     * @param logName             The name of the log, to use for logging and metrics.
+     * @param zkClient            A reference to the CuratorFramework client to use.
+     * @param bookKeeper          A reference to the BookKeeper client to use.
+     * @param config              Configuration to use.
+     * @param executorService     An Executor to use for async operations.
+     */
+    BookKeeperLog(String logNodePath, String conflictingNodePath, String logName, CuratorFramework zkClient, BookKeeper bookKeeper,
+                  BookKeeperConfig config, ScheduledExecutorService executorService) {
         this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient");
         this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
         this.config = Preconditions.checkNotNull(config, "config");
         this.executorService = Preconditions.checkNotNull(executorService, "executorService");
         this.closed = new AtomicBoolean();
-        this.logNodePath = HierarchyUtils.getPath(containerId, this.config.getZkHierarchyDepth());
-        this.traceObjectId = String.format("Log[%d]", containerId);
+        this.logNodePath = Preconditions.checkNotNull(logNodePath, "logNodePath");
+        this.conflictingNodePath = conflictingNodePath;
+        this.traceObjectId = String.format("Log[%s]", logName);
         this.writes = new WriteQueue();
         val retry = createRetryPolicy(this.config.getMaxWriteAttempts(), this.config.getBkWriteTimeoutMillis());
         this.writeProcessor = new SequentialAsyncProcessor(this::processWritesSync, retry, this::handleWriteProcessorFailures, this.executorService);
         this.rolloverProcessor = new SequentialAsyncProcessor(this::rollover, retry, this::handleRolloverFailure, this.executorService);
-        this.metrics = new BookKeeperMetrics.BookKeeperLog(containerId);
+        this.metrics = new BookKeeperMetrics.BookKeeperLog(logName);
         this.metricReporter = this.executorService.scheduleWithFixedDelay(this::reportMetrics, REPORT_INTERVAL, REPORT_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
+    private static int checkContainerId(int containerId) {
+        Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative integer.");
+        return containerId;
+    }
+
     private Retry.RetryAndThrowBase<Exception> createRetryPolicy(int maxWriteAttempts, int writeTimeout) {
         int initialDelay = writeTimeout / maxWriteAttempts;
         int maxDelay = writeTimeout * maxWriteAttempts;
@@ -160,29 +207,38 @@ class BookKeeperLog implements DurableDataLog {
             this.rolloverProcessor.close();
             this.writeProcessor.close();
 
-            // Close active ledger.
+            // Close active and standby ledgers.
             WriteLedger writeLedger;
+            WriteLedger standbyLedger;
             synchronized (this.lock) {
                 writeLedger = this.writeLedger;
+                standbyLedger = this.standbyLedger;
                 this.writeLedger = null;
+                this.standbyLedger = null;
                 this.logMetadata = null;
             }
 
             // Close the write queue and cancel the pending writes.
             this.writes.close().forEach(w -> w.fail(new CancellationException("BookKeeperLog has been closed."), true));
 
-            if (writeLedger != null) {
-                try {
-                    Ledgers.close(writeLedger.ledger);
-                } catch (DurableDataLogException bkEx) {
-                    log.error("{}: Unable to close LedgerHandle for Ledger {}.", this.traceObjectId, writeLedger.ledger.getId(), bkEx);
-                }
-            }
+            // The standby ledger (if any) is empty and will be cleaned up upon the next initialization.
+            closeLedger(writeLedger);
+            closeLedger(standbyLedger);
 
             log.info("{}: Closed.", this.traceObjectId);
         }
     }
 
+    private void closeLedger(WriteLedger writeLedger) {
+        if (writeLedger != null) {
+            try {
+                Ledgers.close(writeLedger.ledger);
+            } catch (DurableDataLogException bkEx) {
+                log.error("{}: Unable to close LedgerHandle for Ledger {}.", this.traceObjectId, writeLedger.ledger.getId(), bkEx);
+            }
+        }
+    }
+
     //endregion
 
     //region DurableDataLog Implementation
@@ -225,6 +281,9 @@ class BookKeeperLog implements DurableDataLog {
 
                 // Update Metadata to reflect those newly found empty ledgers.
                 oldMetadata = oldMetadata.updateLedgerStatus(emptyLedgerIds);
+            } else {
+                // This is a new log. Make sure it has not been written to using a different layout before.
+                checkNoConflictingLog();
             }
 
             // Create new ledger.
@@ -693,6 +752,32 @@ class BookKeeperLog implements DurableDataLog {
         }
     }
 
+    /**
+     * Verifies that the conflicting ZooKeeper node (if any) does not exist.
+     *
+     * @throws DataLogInitializationException If the conflicting node exists, or if unable to determine that.
+     */
+    private void checkNoConflictingLog() throws DataLogInitializationException {
+        if (this.conflictingNodePath == null) {
+            return;
+        }
+
+        boolean exists;
+        try {
+            exists = this.zkClient.checkExists().forPath(this.conflictingNodePath) != null;
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to check ZNode for path '%s%s'.",
+                    this.zkClient.getNamespace(), this.conflictingNodePath), ex);
+        }
+
+        if (exists) {
+            throw new DataLogInitializationException(String.format(
+                    "%s: No ZNode found for path '%s%s', but the log has been written using a different layout (found '%s%s'). "
+                            + "Verify that the log stripe count has not changed.",
+                    this.traceObjectId, this.zkClient.getNamespace(), this.logNodePath, this.zkClient.getNamespace(), this.conflictingNodePath));
+        }
+    }
+
     /**
      * Updates the metadata and persists it as a result of adding a new Ledger.
      *
@@ -793,6 +878,11 @@ class BookKeeperLog implements DurableDataLog {
      * 5. Close the previous ledger (and implicitly seal it).
      * 5.1 If closing fails, there is nothing we can do. We've already opened a new ledger and new writes are going to it.
      *
+     * Steps 1-3 are executed ahead of time (see prepareStandbyLedger()) once the current Write Ledger exceeds the
+     * configured standby threshold. In that case the rollover only needs to execute steps 4 and 5, which do not require
+     * any interaction with BookKeeper or ZooKeeper before new writes can be accepted. If the standby ledger could not be
+     * prepared, steps 1-3 are executed as part of the rollover itself.
+     *
      * NOTE: this method is not thread safe and is not meant to be executed concurrently. It should only be invoked as
      * part of the Rollover Processor.
      */
@@ -806,26 +896,35 @@ class BookKeeperLog implements DurableDataLog {
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "rollover");
         val l = getWriteLedger().ledger;
         if (!l.isClosed() && l.getLength() < this.config.getBkLedgerMaxSize()) {
-            // Nothing to do. Trigger the write processor just in case this rollover was invoked because the write
-            // processor got a pointer to a LedgerHandle that was just closed by a previous run of the rollover processor.
-            this.writeProcessor.runAsync();
-            LoggerHelpers.traceLeave(log, this.traceObjectId, "rollover", traceId, false);
+            try {
+                // Not time to rollover yet, but we may need to get ready for it.
+                if (l.getLength() >= this.config.getBkLedgerStandbyThreshold()) {
+                    prepareStandbyLedger();
+                }
+            } finally {
+                // Trigger the write processor just in case this rollover was invoked because the write processor got a
+                // pointer to a LedgerHandle that was just closed by a previous run of the rollover processor.
+                this.writeProcessor.runAsync();
+                LoggerHelpers.traceLeave(log, this.traceObjectId, "rollover", traceId, false);
+            }
+
             return;
         }
 
+        Timer timer = new Timer();
         try {
-            // Create new ledger.
-            LedgerHandle newLedger = Ledgers.create(this.bookKeeper, this.config);
-            log.debug("{}: Rollover: created new ledger {}.", this.traceObjectId, newLedger.getId());
+            // Use the standby ledger, if we have one ready, or create a new ledger otherwise.
+            WriteLedger newWriteLedger;
+            synchronized (this.lock) {
+                newWriteLedger = this.standbyLedger;
+                this.standbyLedger = null;
+            }
 
-            // Update the metadata.
-            LogMetadata metadata = getLogMetadata();
-            metadata = updateMetadata(metadata, newLedger, false);
-            LedgerMetadata ledgerMetadata = metadata.getLedger(newLedger.getId());
-            assert ledgerMetadata != null : "cannot find newly added ledger metadata";
-            log.debug("{}: Rollover: updated metadata '{}.", this.traceObjectId, metadata);
+            if (newWriteLedger == null) {
+                newWriteLedger = createNextLedger();
+            }
 
-            // Update pointers to the new ledger and metadata.
+            // Update pointers to the new ledger.
             LedgerHandle oldLedger;
             synchronized (this.lock) {
                 oldLedger = this.writeLedger.ledger;
@@ -835,15 +934,20 @@ class BookKeeperLog implements DurableDataLog {
                     this.writeLedger.setRolledOver(true);
                 }
 
-                this.writeLedger = new WriteLedger(newLedger, ledgerMetadata);
-                this.logMetadata = metadata;
+                this.writeLedger = newWriteLedger;
+                this.standbyLedgerFailed = false;
             }
 
+            // New writes can be accepted from this point on; there is no need to wait for the old ledger to be closed.
+            this.writeProcessor.runAsync();
+            this.metrics.writeStalled(timer.getElapsed());
+
             // Close the old ledger. This must be done outside of the lock, otherwise the pending writes (and their callbacks)
             // will be invoked within the lock, thus likely candidates for deadlocks.
             Ledgers.close(oldLedger);
+            this.metrics.rolloverCompleted(timer.getElapsed());
             log.info("{}: Rollover: swapped ledger and metadata pointers (Old = {}, New = {}) and closed old ledger.",
-                    this.traceObjectId, oldLedger.getId(), newLedger.getId());
+                    this.traceObjectId, oldLedger.getId(), newWriteLedger.ledger.getId());
         } finally {
             // It's possible that we have writes in the queue that didn't get picked up because they exceeded the predicted
             // ledger length. Invoke the Write Processor to execute them.
@@ -852,6 +956,78 @@ class BookKeeperLog implements DurableDataLog {
         }
     }
 
+    /**
+     * Creates a standby ledger and registers it in the Log Metadata, if one does not already exist. The standby ledger
+     * will become the active Write Ledger upon the next rollover.
+     *
+     * An empty standby ledger is no different from a ledger that was created by a rollover right before this instance
+     * stopped: if this BookKeeperLog is closed before it gets to use it, it will be identified as empty (and removed
+     * from the metadata) when the log is initialized again.
+     *
+     * The standby ledger is only an optimization, so failing to create it does not fail the rollover (which would
+     * eventually close this BookKeeperLog). Such failures are logged and no further attempts are made for the current
+     * Write Ledger; the next rollover will create the new ledger synchronously instead.
+     *
+     * NOTE: this method is not thread safe and is not meant to be executed concurrently. It should only be invoked as
+     * part of the Rollover Processor.
+     *
+     * @throws DataLogWriterNotPrimaryException If we have been fenced out while updating the Log Metadata.
+     */
+    private void prepareStandbyLedger() throws DataLogWriterNotPrimaryException {
+        synchronized (this.lock) {
+            if (this.standbyLedger != null || this.standbyLedgerFailed) {
+                // Nothing to do.
+                return;
+            }
+        }
+
+        WriteLedger standby;
+        try {
+            standby = createNextLedger();
+        } catch (DataLogWriterNotPrimaryException ex) {
+            // We are no longer the owner of this log; there is no point in continuing.
+            throw ex;
+        } catch (Exception ex) {
+            log.warn("{}: Rollover: unable to prepare standby ledger; the next rollover will create it instead.", this.traceObjectId, ex);
+            synchronized (this.lock) {
+                this.standbyLedgerFailed = true;
+            }
+
+            return;
+        }
+
+        synchronized (this.lock) {
+            this.standbyLedger = standby;
+        }
+
+        log.info("{}: Rollover: prepared standby ledger {}.", this.traceObjectId, standby.ledger.getId());
+    }
+
+    /**
+     * Creates a new ledger, adds it to the Log Metadata and persists the Log Metadata.
+     *
+     * @return A WriteLedger for the new ledger.
+     * @throws DurableDataLogException If an Exception occurred.
+     */
+    private WriteLedger createNextLedger() throws DurableDataLogException {
+        // Create new ledger.
+        LedgerHandle newLedger = Ledgers.create(this.bookKeeper, this.config);
+        log.debug("{}: Rollover: created new ledger {}.", this.traceObjectId, newLedger.getId());
+
+        // Update the metadata.
+        LogMetadata metadata = getLogMetadata();
+        metadata = updateMetadata(metadata, newLedger, false);
+        LedgerMetadata ledgerMetadata = metadata.getLedger(newLedger.getId());
+        assert ledgerMetadata != null : "cannot find newly added ledger metadata";
+        log.debug("{}: Rollover: updated metadata '{}.", this.traceObjectId, metadata);
+
+        synchronized (this.lock) {
+            this.logMetadata = metadata;
+        }
+
+        return new WriteLedger(newLedger, ledgerMetadata);
+    }
+
     /**
      * Determines which Ledger Ids are safe to delete from BookKeeper.
      *
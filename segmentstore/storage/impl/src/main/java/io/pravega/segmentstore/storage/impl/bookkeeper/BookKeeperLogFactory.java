@@ -16,6 +16,8 @@ import io.pravega.segmentstore.storage.DataLogNotAvailableException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
 import io.pravega.segmentstore.storage.DurableDataLogFactory;
+import io.pravega.segmentstore.storage.striped.StripedDurableDataLog;
+import java.util.ArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,7 @@ import org.apache.curator.framework.CuratorFramework;
 public class BookKeeperLogFactory implements DurableDataLogFactory {
     //region Members
 
+    private static final String METADATA_STRIPE_NAME = "metadata";
     private final String namespace;
     private final CuratorFramework zkClient;
     private final AtomicReference<BookKeeper> bookKeeper;
@@ -100,7 +103,32 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
     @Override
     public DurableDataLog createDurableDataLog(int logId) {
         Preconditions.checkState(this.bookKeeper.get() != null, "BookKeeperLogFactory is not initialized.");
-        return new BookKeeperLog(logId, this.zkClient, this.bookKeeper.get(), this.config, this.executor);
+        // The number of stripes is persisted in the metadata of a StripedDurableDataLog, which will refuse to initialize
+        // with fewer stripes than it has been written with. Switching between a striped and a non-striped log is detected
+        // by each of them checking that the other one does not exist when they are first created.
+        String basePath = HierarchyUtils.getPath(logId, this.config.getZkHierarchyDepth());
+        if (this.config.getBkLogStripeCount() == 1) {
+            return new BookKeeperLog(logId, getStripePath(basePath, METADATA_STRIPE_NAME), this.zkClient, this.bookKeeper.get(),
+                    this.config, this.executor);
+        }
+
+        // Each stripe (and the metadata log) is a BookKeeperLog of its own, with its metadata stored in a sibling of the
+        // node that would have been used by a non-striped log.
+        val stripes = new ArrayList<BookKeeperLog>();
+        for (int i = 0; i < this.config.getBkLogStripeCount(); i++) {
+            stripes.add(createStripeLog(basePath, logId, Integer.toString(i), null));
+        }
+
+        return new StripedDurableDataLog(logId, createStripeLog(basePath, logId, METADATA_STRIPE_NAME, basePath), stripes);
+    }
+
+    private BookKeeperLog createStripeLog(String basePath, int logId, String stripeName, String conflictingNodePath) {
+        return new BookKeeperLog(getStripePath(basePath, stripeName), conflictingNodePath, String.format("%d.stripe-%s", logId, stripeName),
+                this.zkClient, this.bookKeeper.get(), this.config, this.executor);
+    }
+
+    private String getStripePath(String basePath, String stripeName) {
+        return String.format("%s.stripe-%s", basePath, stripeName);
     }
 
     /**
@@ -34,14 +34,25 @@ final class BookKeeperMetrics {
         private final OpStatsLogger writeLatency;
         private final OpStatsLogger totalWriteLatency;
         private final OpStatsLogger writeBytes;
+        private final OpStatsLogger rolloverLatency;
+        private final OpStatsLogger writeStallLatency;
 
-        BookKeeperLog(int containerId) {
-            this.ledgerCount = MetricsNames.nameFromContainer(MetricsNames.BK_LEDGER_COUNT, containerId);
-            this.writeQueueSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.BK_WRITE_QUEUE_SIZE, containerId));
-            this.writeQueueFillRate = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.BK_WRITE_QUEUE_FILL_RATE, containerId));
-            this.writeLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.BK_WRITE_LATENCY, containerId));
-            this.totalWriteLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.BK_TOTAL_WRITE_LATENCY, containerId));
-            this.writeBytes = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.BK_WRITE_BYTES, containerId));
+        BookKeeperLog(String logName) {
+            this.ledgerCount = nameFromLog(MetricsNames.BK_LEDGER_COUNT, logName);
+            this.writeQueueSize = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_WRITE_QUEUE_SIZE, logName));
+            this.writeQueueFillRate = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_WRITE_QUEUE_FILL_RATE, logName));
+            this.writeLatency = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_WRITE_LATENCY, logName));
+            this.totalWriteLatency = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_TOTAL_WRITE_LATENCY, logName));
+            this.writeBytes = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_WRITE_BYTES, logName));
+            this.rolloverLatency = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_ROLLOVER_LATENCY, logName));
+            this.writeStallLatency = STATS_LOGGER.createStats(nameFromLog(MetricsNames.BK_WRITE_STALL_LATENCY, logName));
+        }
+
+        /**
+         * Same as MetricsNames.nameFromContainer(), but for logs which do not map one-to-one to containers (i.e., stripes).
+         */
+        private static String nameFromLog(String metric, String logName) {
+            return metric + "." + logName;
         }
 
         @Override
@@ -51,6 +62,8 @@ final class BookKeeperMetrics {
             this.writeLatency.close();
             this.totalWriteLatency.close();
             this.writeBytes.close();
+            this.rolloverLatency.close();
+            this.writeStallLatency.close();
         }
 
         void ledgerCount(int count) {
@@ -70,5 +83,13 @@ final class BookKeeperMetrics {
             this.writeLatency.reportSuccessEvent(elapsed);
             this.writeBytes.reportSuccessValue(length);
         }
+
+        void rolloverCompleted(Duration elapsed) {
+            this.rolloverLatency.reportSuccessEvent(elapsed);
+        }
+
+        void writeStalled(Duration elapsed) {
+            this.writeStallLatency.reportSuccessEvent(elapsed);
+        }
     }
 }
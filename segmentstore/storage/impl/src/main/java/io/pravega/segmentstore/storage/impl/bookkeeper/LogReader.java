@@ -16,7 +16,10 @@ import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
@@ -24,12 +27,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.bookkeeper.client.AsyncCallback;
+import org.apache.bookkeeper.client.BKException;
 import org.apache.bookkeeper.client.BookKeeper;
 import org.apache.bookkeeper.client.LedgerEntry;
 import org.apache.bookkeeper.client.LedgerHandle;
 
 /**
  * Performs read from BookKeeper Logs.
+ * <p>
+ * Entries are read asynchronously, in batches of at most BookKeeperConfig.getBkReadBatchSize() entries. Up to
+ * BookKeeperConfig.getBkReadAheadBatchCount() batches (possibly spanning multiple Ledgers) are kept in flight ahead of
+ * the one being consumed, so that the caller rarely has to wait for BookKeeper.
  */
 @Slf4j
 @NotThreadSafe
@@ -40,7 +49,10 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     private final LogMetadata metadata;
     private final AtomicBoolean closed;
     private final BookKeeperConfig config;
-    private ReadLedger currentLedger;
+    private final ArrayDeque<ReadBatch> pendingBatches;
+    private ReadBatch currentBatch;
+    private ReadLedger lastOpenedLedger;
+    private boolean reachedEnd;
 
     //endregion
 
@@ -58,6 +70,7 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
         this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
         this.config = Preconditions.checkNotNull(config, "config");
         this.closed = new AtomicBoolean();
+        this.pendingBatches = new ArrayDeque<>();
     }
 
     //endregion
@@ -67,15 +80,21 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
-            if (this.currentLedger != null) {
-                try {
-                    Ledgers.close(this.currentLedger.handle);
-                } catch (DurableDataLogException bkEx) {
-                    log.error("Unable to close LedgerHandle for Ledger {}.", this.currentLedger.handle.getId(), bkEx);
-                }
+            // Close every LedgerHandle we still hold. This will also cancel any reads that are still in flight.
+            val ledgers = new LinkedHashSet<ReadLedger>();
+            if (this.currentBatch != null) {
+                ledgers.add(this.currentBatch.ledger);
+            }
 
-                this.currentLedger = null;
+            this.pendingBatches.forEach(b -> ledgers.add(b.ledger));
+            if (this.lastOpenedLedger != null) {
+                ledgers.add(this.lastOpenedLedger);
             }
+
+            ledgers.forEach(ReadLedger::close);
+            this.pendingBatches.clear();
+            this.currentBatch = null;
+            this.lastOpenedLedger = null;
         }
     }
 
@@ -87,32 +106,100 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     public DurableDataLog.ReadItem getNext() throws DurableDataLogException {
         Exceptions.checkNotClosed(this.closed.get(), this);
 
-        if (this.currentLedger == null) {
-            // First time we call this. Locate the first ledger based on the metadata truncation address. We don't know
-            // how many entries are in that first ledger, so open it anyway so we can figure out.
-            openNextLedger(this.metadata.getNextAddress(this.metadata.getTruncationAddress(), Long.MAX_VALUE));
+        while (this.currentBatch == null || !this.currentBatch.hasMoreElements()) {
+            if (this.currentBatch != null) {
+                // We are done with this batch. If it was the last one in its Ledger, we no longer need that Ledger.
+                if (this.currentBatch.lastInLedger) {
+                    this.currentBatch.ledger.close();
+                }
+
+                this.currentBatch = null;
+            }
+
+            // Keep the pipeline full, then wait for the oldest batch.
+            issueReads();
+            ReadBatch nextBatch = this.pendingBatches.poll();
+            if (nextBatch == null) {
+                // We have reached the end.
+                close();
+                return null;
+            }
+
+            try {
+                nextBatch.entries = Exceptions.handleInterrupted(nextBatch.result::get);
+            } catch (Exception ex) {
+                close();
+                throw new DurableDataLogException("Error while reading from BookKeeper.", Exceptions.unwrap(ex));
+            }
+
+            this.currentBatch = nextBatch;
+            issueReads();
         }
 
-        while (this.currentLedger != null && (!this.currentLedger.canRead())) {
-            // We have reached the end of the current ledger. Find next one, and skip over empty ledgers).
-            val lastAddress = new LedgerAddress(this.currentLedger.metadata, this.currentLedger.handle.getLastAddConfirmed());
-            Ledgers.close(this.currentLedger.handle);
-            openNextLedger(this.metadata.getNextAddress(lastAddress, this.currentLedger.handle.getLastAddConfirmed()));
+        return new LogReader.ReadItem(this.currentBatch.entries.nextElement(), this.currentBatch.ledger.metadata);
+    }
+
+    /**
+     * Issues asynchronous reads until there are BookKeeperConfig.getBkReadAheadBatchCount() batches in flight or the
+     * end of the Log has been reached. Opens subsequent Ledgers as needed.
+     */
+    private void issueReads() throws DurableDataLogException {
+        while (this.pendingBatches.size() < this.config.getBkReadAheadBatchCount()) {
+            ReadLedger ledger = this.lastOpenedLedger;
+            if (ledger == null || ledger.nextEntryId > ledger.lastEntryId) {
+                // We have issued all reads for this Ledger (or we have not opened one yet). Move on to the next one.
+                if (!openNextLedger()) {
+                    return;
+                }
+
+                continue;
+            }
+
+            long firstEntryId = ledger.nextEntryId;
+            long lastEntryId = Math.min(firstEntryId + this.config.getBkReadBatchSize() - 1, ledger.lastEntryId);
+            ledger.nextEntryId = lastEntryId + 1;
+            ledger.batchCount++;
+            ReadBatch batch = new ReadBatch(ledger, lastEntryId == ledger.lastEntryId);
+            try {
+                ledger.handle.asyncReadEntries(firstEntryId, lastEntryId, batch, null);
+            } catch (Exception ex) {
+                batch.result.completeExceptionally(ex);
+            }
+
+            this.pendingBatches.add(batch);
         }
+    }
 
-        // Try to read from the current reader.
-        if (this.currentLedger == null || this.currentLedger.reader == null) {
-            return null;
+    /**
+     * Opens the next Ledger in the Log (after the last opened one).
+     *
+     * @return True if a Ledger was opened, false if the end of the Log has been reached.
+     */
+    private boolean openNextLedger() throws DurableDataLogException {
+        if (this.reachedEnd) {
+            return false;
         }
 
-        return new LogReader.ReadItem(this.currentLedger.reader.nextElement(), this.currentLedger.metadata);
-    }
+        LedgerAddress address;
+        ReadLedger previousLedger = this.lastOpenedLedger;
+        if (previousLedger == null) {
+            // First time we call this. Locate the first ledger based on the metadata truncation address. We don't know
+            // how many entries are in that first ledger, so open it anyway so we can figure out.
+            address = this.metadata.getNextAddress(this.metadata.getTruncationAddress(), Long.MAX_VALUE);
+        } else {
+            // Find the next one (the LogMetadata will skip over empty ledgers).
+            val lastAddress = new LedgerAddress(previousLedger.metadata, previousLedger.lastEntryId);
+            address = this.metadata.getNextAddress(lastAddress, previousLedger.lastEntryId);
+            if (previousLedger.batchCount == 0) {
+                // Empty ledger; no batch will close its handle.
+                previousLedger.close();
+            }
+        }
 
-    private void openNextLedger(LedgerAddress address) throws DurableDataLogException {
+        this.lastOpenedLedger = null;
         if (address == null) {
-            // We have reached the end.
-            close();
-            return;
+            this.reachedEnd = true;
+            return false;
         }
 
         LedgerMetadata metadata = this.metadata.getLedger(address.getLedgerId());
@@ -131,28 +218,8 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             ledger = Ledgers.openFence(metadata.getLedgerId(), this.bookKeeper, this.config);
         }
 
-        long lastEntryId = ledger.getLastAddConfirmed();
-        if (lastEntryId < address.getEntryId()) {
-            // This ledger is empty.
-            Ledgers.close(ledger);
-            this.currentLedger = new ReadLedger(metadata, ledger, null);
-            return;
-        }
-
-        ReadLedger previousLedger;
-        try {
-            val reader = Exceptions.handleInterrupted(() -> ledger.readEntries(address.getEntryId(), lastEntryId));
-            previousLedger = this.currentLedger;
-            this.currentLedger = new ReadLedger(metadata, ledger, reader);
-            if (previousLedger != null) {
-                // Close previous ledger handle.
-                Ledgers.close(previousLedger.handle);
-            }
-        } catch (Exception ex) {
-            Ledgers.close(ledger);
-            close();
-            throw new DurableDataLogException("Error while reading from BookKeeper.", ex);
-        }
+        this.lastOpenedLedger = new ReadLedger(metadata, ledger, address.getEntryId(), ledger.getLastAddConfirmed());
+        return true;
     }
 
     //endregion
@@ -184,17 +251,60 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
 
     //region ReadLedger
 
-    @RequiredArgsConstructor
     private static class ReadLedger {
         final LedgerMetadata metadata;
         final LedgerHandle handle;
-        final Enumeration<LedgerEntry> reader;
+        final long lastEntryId;
+        long nextEntryId;
+        int batchCount;
+        private boolean closed;
+
+        ReadLedger(LedgerMetadata metadata, LedgerHandle handle, long firstEntryId, long lastEntryId) {
+            this.metadata = metadata;
+            this.handle = handle;
+            this.nextEntryId = firstEntryId;
+            this.lastEntryId = lastEntryId;
+        }
+
+        void close() {
+            if (!this.closed) {
+                this.closed = true;
+                try {
+                    Ledgers.close(this.handle);
+                } catch (DurableDataLogException bkEx) {
+                    log.error("Unable to close LedgerHandle for Ledger {}.", this.handle.getId(), bkEx);
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region ReadBatch
 
-        boolean canRead() {
-            return this.reader != null && this.reader.hasMoreElements();
+    /**
+     * A contiguous range of Entries from a Ledger, read asynchronously.
+     */
+    @RequiredArgsConstructor
+    private static class ReadBatch implements AsyncCallback.ReadCallback {
+        final ReadLedger ledger;
+        final boolean lastInLedger;
+        final CompletableFuture<Enumeration<LedgerEntry>> result = new CompletableFuture<>();
+        Enumeration<LedgerEntry> entries;
+
+        @Override
+        public void readComplete(int rc, LedgerHandle handle, Enumeration<LedgerEntry> entries, Object ctx) {
+            if (rc == BKException.Code.OK) {
+                this.result.complete(entries);
+            } else {
+                this.result.completeExceptionally(BKException.create(rc));
+            }
+        }
+
+        boolean hasMoreElements() {
+            return this.entries != null && this.entries.hasMoreElements();
         }
     }
 
     //endregion
 }
-
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.function.Callbacks;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.Cache;
+import io.pravega.segmentstore.storage.CacheException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache backed by direct (off-heap) memory.
+ * <p>
+ * Memory is obtained from a SlabAllocator in fixed-size Slabs, each of which is divided into fixed-size Blocks. Every
+ * Cache Entry is stored in a chain of one or more Blocks, and it is located using an EntryIndex, which is keyed by the
+ * (segmentId, offset) pair that makes up the Key serialization. This Cache does not evict anything on its own: entries
+ * are removed only when requested (which the ReadIndex does based on CacheManager generations).
+ * <p>
+ * Slabs that become empty are returned to the SlabAllocator (so that other Caches sharing it may use them), as long as
+ * this Cache still has at least one Slab's worth of free Blocks left afterwards; this prevents Slabs from bouncing back
+ * and forth when usage hovers around a Slab boundary.
+ * <p>
+ * This Cache only accepts Keys whose serialization is exactly 16 bytes long (two longs), which is what the ReadIndex uses.
+ */
+@Slf4j
+@ThreadSafe
+class DirectMemoryCache implements Cache {
+    //region Members
+
+    private static final int KEY_LENGTH = Long.BYTES + Long.BYTES;
+    private static final int NO_BLOCK = EntryIndex.NO_ADDRESS;
+    @Getter
+    private final String id;
+    private final String logId;
+    private final SlabAllocator allocator;
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final Consumer<String> closeCallback;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final EntryIndex index;
+    @GuardedBy("lock")
+    private final ArrayList<ByteBuffer> slabs;
+    @GuardedBy("lock")
+    private int[] slabUsedBlocks;
+    @GuardedBy("lock")
+    private int[] nextBlock;
+    @GuardedBy("lock")
+    private int[] freeBlocks;
+    @GuardedBy("lock")
+    private int freeBlockCount;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCache class.
+     *
+     * @param id            The Cache Id.
+     * @param blockSize     The size of a Block. Must divide the SlabAllocator's Slab Size.
+     * @param allocator     The SlabAllocator to obtain memory from.
+     * @param closeCallback A callback to invoke when the cache is closed.
+     */
+    DirectMemoryCache(String id, int blockSize, SlabAllocator allocator, Consumer<String> closeCallback) {
+        Exceptions.checkNotNullOrEmpty(id, "id");
+        Preconditions.checkNotNull(allocator, "allocator");
+        Preconditions.checkArgument(blockSize > 0 && allocator.getSlabSize() % blockSize == 0,
+                "blockSize must be a positive divisor of the allocator's slab size.");
+
+        this.id = id;
+        this.logId = String.format("DirectMemoryCache[%s]", id);
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+        this.blocksPerSlab = allocator.getSlabSize() / blockSize;
+        this.closeCallback = closeCallback;
+        this.index = new EntryIndex();
+        this.slabs = new ArrayList<>();
+        this.slabUsedBlocks = new int[0];
+        this.nextBlock = new int[0];
+        this.freeBlocks = new int[0];
+        this.freeBlockCount = 0;
+        log.info("{}: Initialized.", this.logId);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        ArrayList<ByteBuffer> toRelease = new ArrayList<>();
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.index.clear();
+            this.slabs.stream().filter(Objects::nonNull).forEach(toRelease::add);
+            this.slabs.clear();
+            this.slabUsedBlocks = new int[0];
+            this.nextBlock = new int[0];
+            this.freeBlocks = new int[0];
+            this.freeBlockCount = 0;
+        }
+
+        toRelease.forEach(this.allocator::release);
+        log.info("{}: Closed.", this.logId);
+
+        Consumer<String> callback = this.closeCallback;
+        if (callback != null) {
+            Callbacks.invokeSafely(callback, this.id, null);
+        }
+    }
+
+    //endregion
+
+    //region Cache Implementation
+
+    @Override
+    public void insert(Key key, byte[] data) {
+        insert(key, data, 0, data.length);
+    }
+
+    @Override
+    public void insert(Key key, ByteArraySegment data) {
+        // No need to make a copy of the data; we copy directly from the underlying array into direct memory.
+        insert(key, data.array(), data.arrayOffset(), data.getLength());
+    }
+
+    @Override
+    public byte[] get(Key key) {
+        byte[] serializedKey = serializeKey(key);
+        long segmentId = BitConverter.readLong(serializedKey, 0);
+        long offset = BitConverter.readLong(serializedKey, Long.BYTES);
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            int slot = this.index.find(segmentId, offset);
+            if (slot < 0) {
+                return null;
+            }
+
+            byte[] result = new byte[this.index.getLength(slot)];
+            int block = this.index.getAddress(slot);
+            int resultOffset = 0;
+            while (resultOffset < result.length) {
+                int length = Math.min(this.blockSize, result.length - resultOffset);
+                ByteBuffer slab = getSlab(block);
+                slab.position(getBlockPosition(block));
+                slab.get(result, resultOffset, length);
+                resultOffset += length;
+                block = this.nextBlock[block];
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public void remove(Key key) {
+        byte[] serializedKey = serializeKey(key);
+        long segmentId = BitConverter.readLong(serializedKey, 0);
+        long offset = BitConverter.readLong(serializedKey, Long.BYTES);
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            freeChain(this.index.remove(segmentId, offset));
+        }
+    }
+
+    @Override
+    public long getStoredLength(int length) {
+        return (long) getBlockCount(length) * this.blockSize;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void insert(Key key, byte[] array, int arrayOffset, int length) {
+        byte[] serializedKey = serializeKey(key);
+        long segmentId = BitConverter.readLong(serializedKey, 0);
+        long offset = BitConverter.readLong(serializedKey, Long.BYTES);
+        int blockCount = getBlockCount(length);
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            ensureFreeBlocks(blockCount);
+
+            // Allocate the chain back-to-front, so that we can link each block to its successor as we go.
+            int firstBlock = NO_BLOCK;
+            for (int i = 0; i < blockCount; i++) {
+                int block = this.freeBlocks[--this.freeBlockCount];
+                this.slabUsedBlocks[block / this.blocksPerSlab]++;
+                this.nextBlock[block] = firstBlock;
+                firstBlock = block;
+            }
+
+            int block = firstBlock;
+            int copied = 0;
+            while (copied < length) {
+                int blockLength = Math.min(this.blockSize, length - copied);
+                ByteBuffer slab = getSlab(block);
+                slab.position(getBlockPosition(block));
+                slab.put(array, arrayOffset + copied, blockLength);
+                copied += blockLength;
+                block = this.nextBlock[block];
+            }
+
+            freeChain(this.index.put(segmentId, offset, firstBlock, length));
+        }
+    }
+
+    @GuardedBy("lock")
+    private void ensureFreeBlocks(int blockCount) {
+        while (this.freeBlockCount < blockCount) {
+            ByteBuffer slab = this.allocator.allocate();
+            if (slab == null) {
+                throw new CacheException(String.format("Unable to allocate %d blocks; maximum capacity reached (CacheId=%s).",
+                        blockCount, this.id));
+            }
+
+            // Reuse the slot of a previously released Slab, if any, so that Block addresses remain compact.
+            int slabId = this.slabs.indexOf(null);
+            if (slabId < 0) {
+                slabId = this.slabs.size();
+                this.slabs.add(slab);
+                int totalBlocks = this.slabs.size() * this.blocksPerSlab;
+                this.nextBlock = Arrays.copyOf(this.nextBlock, totalBlocks);
+                this.freeBlocks = Arrays.copyOf(this.freeBlocks, totalBlocks);
+                this.slabUsedBlocks = Arrays.copyOf(this.slabUsedBlocks, this.slabs.size());
+            } else {
+                this.slabs.set(slabId, slab);
+            }
+
+            // Push the new blocks in reverse order, so that they get handed out in address order.
+            int firstBlock = slabId * this.blocksPerSlab;
+            for (int block = firstBlock + this.blocksPerSlab - 1; block >= firstBlock; block--) {
+                this.freeBlocks[this.freeBlockCount++] = block;
+            }
+
+            log.debug("{}: Allocated Slab {}.", this.logId, slabId);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void freeChain(int block) {
+        int emptySlabId = -1;
+        while (block != NO_BLOCK) {
+            this.freeBlocks[this.freeBlockCount++] = block;
+            int slabId = block / this.blocksPerSlab;
+            if (--this.slabUsedBlocks[slabId] == 0) {
+                // A chain spans at most a few Slabs; checking the last one that got emptied is enough to keep the
+                // number of empty Slabs in check.
+                emptySlabId = slabId;
+            }
+
+            block = this.nextBlock[block];
+        }
+
+        if (emptySlabId >= 0 && this.freeBlockCount >= 2 * this.blocksPerSlab) {
+            releaseSlab(emptySlabId);
+        }
+    }
+
+    /**
+     * Returns an empty Slab to the SlabAllocator.
+     *
+     * @param slabId The Id of the Slab to release. None of its Blocks may be in use.
+     */
+    @GuardedBy("lock")
+    private void releaseSlab(int slabId) {
+        assert this.slabUsedBlocks[slabId] == 0 : "releaseSlab invoked on Slab with Blocks in use.";
+
+        // Remove the Slab's Blocks from the free list, preserving the order of the remaining ones.
+        int newFreeBlockCount = 0;
+        for (int i = 0; i < this.freeBlockCount; i++) {
+            int block = this.freeBlocks[i];
+            if (block / this.blocksPerSlab != slabId) {
+                this.freeBlocks[newFreeBlockCount++] = block;
+            }
+        }
+
+        this.freeBlockCount = newFreeBlockCount;
+        this.allocator.release(this.slabs.set(slabId, null));
+        log.debug("{}: Released Slab {}.", this.logId, slabId);
+    }
+
+    private int getBlockCount(int length) {
+        return Math.max(1, (length + this.blockSize - 1) / this.blockSize);
+    }
+
+    @GuardedBy("lock")
+    private ByteBuffer getSlab(int block) {
+        return this.slabs.get(block / this.blocksPerSlab);
+    }
+
+    private int getBlockPosition(int block) {
+        return (block % this.blocksPerSlab) * this.blockSize;
+    }
+
+    private byte[] serializeKey(Key key) {
+        byte[] result = key.serialize();
+        Preconditions.checkArgument(result.length == KEY_LENGTH, "Unsupported key serialization length: %s.", result.length);
+        return result;
+    }
+
+    //endregion
+}
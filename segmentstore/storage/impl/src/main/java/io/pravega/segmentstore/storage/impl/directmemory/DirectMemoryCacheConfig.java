@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the Direct Memory (off-heap) Cache.
+ */
+public class DirectMemoryCacheConfig {
+    //region Config Names
+
+    public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 1024);
+    public static final Property<Integer> SLAB_SIZE = Property.named("slabSize", 16 * 1024 * 1024);
+    public static final Property<Long> MAX_SIZE = Property.named("maxSize", 16L * 1024 * 1024 * 1024);
+    private static final String COMPONENT_CODE = "directmemory";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The size (in bytes) of a single Cache Block. Each Cache Entry occupies an integral number of Blocks, so this
+     * is the granularity at which memory is allocated.
+     */
+    @Getter
+    private final int blockSize;
+
+    /**
+     * The size (in bytes) of a single Slab. Slabs are direct ByteBuffers that are allocated on demand and which are
+     * then divided into Blocks. This must be a multiple of the Block Size.
+     */
+    @Getter
+    private final int slabSize;
+
+    /**
+     * The maximum amount of direct memory (in bytes) that can be allocated for Slabs, across all Caches created by
+     * the same Factory. This should be larger than the ReadIndex Cache Policy's maximum size, since eviction is driven
+     * by the CacheManager and not by the Cache itself.
+     */
+    @Getter
+    private final long maxSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCacheConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private DirectMemoryCacheConfig(TypedProperties properties) throws ConfigurationException {
+        this.blockSize = properties.getInt(BLOCK_SIZE);
+        if (this.blockSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", BLOCK_SIZE));
+        }
+
+        this.slabSize = properties.getInt(SLAB_SIZE);
+        if (this.slabSize <= 0 || this.slabSize % this.blockSize != 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive multiple of Property '%s' (%d).",
+                    SLAB_SIZE, this.slabSize, BLOCK_SIZE, this.blockSize));
+        }
+
+        this.maxSize = properties.getLong(MAX_SIZE);
+        if (this.maxSize < this.slabSize) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be at least Property '%s' (%d).",
+                    MAX_SIZE, this.maxSize, SLAB_SIZE, this.slabSize));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<DirectMemoryCacheConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, DirectMemoryCacheConfig::new);
+    }
+
+    //endregion
+}
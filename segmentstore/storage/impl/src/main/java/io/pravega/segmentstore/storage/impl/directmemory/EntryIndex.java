@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Open-addressing (linear probing) hash table that maps (segmentId, offset) pairs to Cache Entry locations. All data is
+ * stored in primitive arrays, so no objects are allocated per entry.
+ */
+@NotThreadSafe
+class EntryIndex {
+    //region Members
+
+    /**
+     * Value stored in the address array for empty slots.
+     */
+    static final int NO_ADDRESS = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private long[] keys;
+    private int[] addresses;
+    private int[] lengths;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the EntryIndex class.
+     */
+    EntryIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a value indicating the number of entries in this index.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Locates the slot where the given key is stored.
+     *
+     * @param segmentId The Segment Id.
+     * @param offset    The Offset.
+     * @return The slot where the key is stored, or -1 if no such key exists. This value can be used with getAddress()
+     * and getLength() until the next modification to this index.
+     */
+    int find(long segmentId, long offset) {
+        int slot = home(segmentId, offset);
+        while (this.addresses[slot] != NO_ADDRESS) {
+            if (this.keys[2 * slot] == segmentId && this.keys[2 * slot + 1] == offset) {
+                return slot;
+            }
+
+            slot = (slot + 1) & this.mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the address of the first Block of the entry stored in the given slot.
+     *
+     * @param slot The slot, as returned by find().
+     * @return The address.
+     */
+    int getAddress(int slot) {
+        return this.addresses[slot];
+    }
+
+    /**
+     * Gets the length of the entry stored in the given slot.
+     *
+     * @param slot The slot, as returned by find().
+     * @return The length.
+     */
+    int getLength(int slot) {
+        return this.lengths[slot];
+    }
+
+    /**
+     * Associates the given key with the given entry location.
+     *
+     * @param segmentId The Segment Id.
+     * @param offset    The Offset.
+     * @param address   The address of the first Block of the entry.
+     * @param length    The length of the entry.
+     * @return The address previously associated with this key, or NO_ADDRESS if none.
+     */
+    int put(long segmentId, long offset, int address, int length) {
+        Preconditions.checkArgument(address >= 0, "address must be a non-negative integer.");
+        int slot = home(segmentId, offset);
+        while (this.addresses[slot] != NO_ADDRESS) {
+            if (this.keys[2 * slot] == segmentId && this.keys[2 * slot + 1] == offset) {
+                int previous = this.addresses[slot];
+                this.addresses[slot] = address;
+                this.lengths[slot] = length;
+                return previous;
+            }
+
+            slot = (slot + 1) & this.mask;
+        }
+
+        set(slot, segmentId, offset, address, length);
+        this.size++;
+        if (this.size > this.resizeThreshold) {
+            resize(this.addresses.length * 2);
+        }
+
+        return NO_ADDRESS;
+    }
+
+    /**
+     * Removes the given key from the index.
+     *
+     * @param segmentId The Segment Id.
+     * @param offset    The Offset.
+     * @return The address that was associated with this key, or NO_ADDRESS if none.
+     */
+    int remove(long segmentId, long offset) {
+        int slot = find(segmentId, offset);
+        if (slot < 0) {
+            return NO_ADDRESS;
+        }
+
+        int result = this.addresses[slot];
+
+        // Backward-shift deletion: move any subsequent entries in the same probe run into the gap, so that we never
+        // need tombstones.
+        int gap = slot;
+        int next = gap;
+        while (true) {
+            next = (next + 1) & this.mask;
+            if (this.addresses[next] == NO_ADDRESS) {
+                break;
+            }
+
+            int nextHome = home(this.keys[2 * next], this.keys[2 * next + 1]);
+            boolean canStay = gap <= next
+                    ? gap < nextHome && nextHome <= next
+                    : gap < nextHome || nextHome <= next;
+            if (!canStay) {
+                set(gap, this.keys[2 * next], this.keys[2 * next + 1], this.addresses[next], this.lengths[next]);
+                gap = next;
+            }
+        }
+
+        this.addresses[gap] = NO_ADDRESS;
+        this.size--;
+        return result;
+    }
+
+    /**
+     * Removes all entries from this index and releases the memory held by it.
+     */
+    void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void set(int slot, long segmentId, long offset, int address, int length) {
+        this.keys[2 * slot] = segmentId;
+        this.keys[2 * slot + 1] = offset;
+        this.addresses[slot] = address;
+        this.lengths[slot] = length;
+    }
+
+    private int home(long segmentId, long offset) {
+        // Mix both values (MurmurHash3 finalizer), since offsets are usually multiples of large powers of two.
+        long h = segmentId * 0x9E3779B97F4A7C15L + offset;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & this.mask;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[2 * capacity];
+        this.addresses = new int[capacity];
+        this.lengths = new int[capacity];
+        Arrays.fill(this.addresses, NO_ADDRESS);
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        this.size = 0;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = this.keys;
+        int[] oldAddresses = this.addresses;
+        int[] oldLengths = this.lengths;
+        allocate(newCapacity);
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != NO_ADDRESS) {
+                int slot = home(oldKeys[2 * i], oldKeys[2 * i + 1]);
+                while (this.addresses[slot] != NO_ADDRESS) {
+                    slot = (slot + 1) & this.mask;
+                }
+
+                set(slot, oldKeys[2 * i], oldKeys[2 * i + 1], oldAddresses[i], oldLengths[i]);
+                this.size++;
+            }
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * Allocates fixed-size direct ByteBuffers (Slabs), up to a maximum total capacity. Released Slabs are kept around and
+ * handed out again on subsequent allocations, since direct memory cannot be explicitly freed and allocating it is expensive.
+ */
+@ThreadSafe
+class SlabAllocator {
+    //region Members
+
+    @Getter
+    private final int slabSize;
+    private final int maxSlabCount;
+    @GuardedBy("freeSlabs")
+    private final ArrayDeque<ByteBuffer> freeSlabs;
+    @GuardedBy("freeSlabs")
+    private int allocatedSlabCount;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SlabAllocator class.
+     *
+     * @param slabSize The size of each Slab.
+     * @param maxSize  The maximum number of bytes that can be allocated. This will be rounded down to a multiple of slabSize.
+     */
+    SlabAllocator(int slabSize, long maxSize) {
+        Preconditions.checkArgument(slabSize > 0, "slabSize must be a positive integer.");
+        Preconditions.checkArgument(maxSize >= slabSize, "maxSize must be at least slabSize.");
+        this.slabSize = slabSize;
+        this.maxSlabCount = (int) Math.min(Integer.MAX_VALUE, maxSize / slabSize);
+        this.freeSlabs = new ArrayDeque<>();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Allocates a new Slab, either by reusing a previously released one or by allocating new direct memory.
+     *
+     * @return A cleared, direct ByteBuffer of length getSlabSize(), or null if the maximum capacity has been reached.
+     */
+    ByteBuffer allocate() {
+        synchronized (this.freeSlabs) {
+            ByteBuffer result = this.freeSlabs.pollFirst();
+            if (result != null) {
+                result.clear();
+                return result;
+            }
+
+            if (this.allocatedSlabCount >= this.maxSlabCount) {
+                return null;
+            }
+
+            this.allocatedSlabCount++;
+        }
+
+        // Allocating direct memory is expensive; do it outside of the lock.
+        return ByteBuffer.allocateDirect(this.slabSize);
+    }
+
+    /**
+     * Returns the given Slab to this allocator, making it available for future allocations.
+     *
+     * @param slab The Slab to release. Must have been obtained via allocate().
+     */
+    void release(ByteBuffer slab) {
+        Preconditions.checkArgument(slab.capacity() == this.slabSize, "Given slab was not allocated by this SlabAllocator.");
+        synchronized (this.freeSlabs) {
+            this.freeSlabs.addLast(slab);
+        }
+    }
+
+    /**
+     * Gets a value indicating the number of bytes currently allocated (whether in use or not).
+     */
+    long getAllocatedBytes() {
+        synchronized (this.freeSlabs) {
+            return (long) this.allocatedSlabCount * this.slabSize;
+        }
+    }
+
+    //endregion
+}
@@ -10,13 +10,21 @@
 package io.pravega.segmentstore.storage.impl.extendeds3;
 
 import io.pravega.segmentstore.storage.SegmentHandle;
-import lombok.AllArgsConstructor;
 
-@AllArgsConstructor
 public class ExtendedS3SegmentHandle implements SegmentHandle {
+    /**
+     * Value for the cached length indicating that the length is not known.
+     */
+    static final long UNKNOWN_LENGTH = -1;
     private final String segmentName;
     private final boolean isReadOnly;
+    private volatile long cachedLength;
 
+    public ExtendedS3SegmentHandle(String segmentName, boolean isReadOnly) {
+        this.segmentName = segmentName;
+        this.isReadOnly = isReadOnly;
+        this.cachedLength = UNKNOWN_LENGTH;
+    }
 
     @Override
     public String getSegmentName() {
@@ -28,6 +36,25 @@ public class ExtendedS3SegmentHandle implements SegmentHandle {
         return isReadOnly;
     }
 
+    /**
+     * Gets the length of the Object, as of the last operation that was made using this handle. This may not reflect
+     * changes that were made by other hosts or using other handles.
+     *
+     * @return The cached length, or UNKNOWN_LENGTH if it is not known.
+     */
+    long getCachedLength() {
+        return this.cachedLength;
+    }
+
+    /**
+     * Sets the cached length of the Object.
+     *
+     * @param length The length to set, or UNKNOWN_LENGTH if it is not known anymore.
+     */
+    void setCachedLength(long length) {
+        this.cachedLength = length;
+    }
+
     public static ExtendedS3SegmentHandle getReadHandle(String streamSegmentName) {
         return new ExtendedS3SegmentHandle(streamSegmentName, true);
     }
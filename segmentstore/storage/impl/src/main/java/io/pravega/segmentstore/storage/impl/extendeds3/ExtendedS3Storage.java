@@ -13,15 +13,20 @@ import com.emc.object.Range;
 import com.emc.object.s3.S3Client;
 import com.emc.object.s3.S3Exception;
 import com.emc.object.s3.S3ObjectMetadata;
+import com.emc.object.s3.bean.AbstractDeleteResult;
 import com.emc.object.s3.bean.AccessControlList;
 import com.emc.object.s3.bean.CanonicalUser;
 import com.emc.object.s3.bean.CopyPartResult;
+import com.emc.object.s3.bean.DeleteError;
 import com.emc.object.s3.bean.Grant;
 import com.emc.object.s3.bean.ListObjectsResult;
 import com.emc.object.s3.bean.MultipartPartETag;
+import com.emc.object.s3.bean.ObjectKey;
 import com.emc.object.s3.bean.Permission;
+import com.emc.object.s3.request.AbortMultipartUploadRequest;
 import com.emc.object.s3.request.CompleteMultipartUploadRequest;
 import com.emc.object.s3.request.CopyPartRequest;
+import com.emc.object.s3.request.DeleteObjectsRequest;
 import com.emc.object.s3.request.PutObjectRequest;
 import com.emc.object.s3.request.SetObjectAclRequest;
 import com.google.common.base.Preconditions;
@@ -40,13 +45,23 @@ import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.storage.SegmentHandle;
 import io.pravega.segmentstore.storage.SyncStorage;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import lombok.Lombok;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 /**
  * Storage adapter for extended S3 based storage.
@@ -74,6 +89,8 @@ import lombok.extern.slf4j.Slf4j;
  * Multi part copy calls are idempotent too. Copying the same object at the same offset multiple times from different
  * hosts does not cause any form of inconsistency.
  *
+ * Write handles cache the length of their Objects, so that writes need not fetch the Object's metadata beforehand. Large
+ * reads and concats are split into parts (see ExtendedS3StorageConfig.getPartSize()) which are executed in parallel.
  */
 
 @Slf4j
@@ -82,20 +99,29 @@ public class ExtendedS3Storage implements SyncStorage {
     //region members
     private static final Permission READ_ONLY_PERMISSION = Permission.READ;
     private static final Permission READ_WRITE_PERMISSION = Permission.FULL_CONTROL;
+    private static final int MAX_DELETE_OBJECTS_KEYS = 1000; // S3 limit for multi-object delete requests.
 
     private final ExtendedS3StorageConfig config;
     private final S3Client client;
+    private final Executor executor;
     private final AtomicBoolean closed;
 
     //endregion
 
     //region constructor
 
-    public ExtendedS3Storage(S3Client client, ExtendedS3StorageConfig config) {
+    /**
+     * Creates a new instance of the ExtendedS3Storage class.
+     *
+     * @param client   The S3Client to use.
+     * @param config   The configuration to use.
+     * @param executor An Executor to use for executing parts of large reads or concats in parallel.
+     */
+    public ExtendedS3Storage(S3Client client, ExtendedS3StorageConfig config, Executor executor) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.client = Preconditions.checkNotNull(client, "client");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
         this.closed = new AtomicBoolean(false);
-
     }
 
     //endregion
@@ -168,6 +194,13 @@ public class ExtendedS3Storage implements SyncStorage {
         execute(handle.getSegmentName(), () -> doDelete(handle));
     }
 
+    @Override
+    public void deleteAll(Collection<String> streamSegmentNames) throws StreamSegmentException {
+        if (!streamSegmentNames.isEmpty()) {
+            execute(streamSegmentNames.iterator().next(), () -> doDeleteAll(streamSegmentNames));
+        }
+    }
+
     @Override
     public void truncate(SegmentHandle handle, long offset) {
         throw new UnsupportedOperationException(getClass().getName() + " does not support Segment truncation.");
@@ -199,6 +232,7 @@ public class ExtendedS3Storage implements SyncStorage {
             retHandle = ExtendedS3SegmentHandle.getReadHandle(streamSegmentName);
         } else {
             retHandle = ExtendedS3SegmentHandle.getWriteHandle(streamSegmentName);
+            retHandle.setCachedLength(info.getLength());
         }
 
         LoggerHelpers.traceLeave(log, "openWrite", traceId);
@@ -208,12 +242,40 @@ public class ExtendedS3Storage implements SyncStorage {
     private int doRead(SegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length) throws Exception {
         long traceId = LoggerHelpers.traceEnter(log, "read", handle.getSegmentName(), offset, bufferOffset, length);
 
-        if (offset < 0 || bufferOffset < 0 || length < 0) {
+        if (offset < 0 || bufferOffset < 0 || length < 0 || bufferOffset + length > buffer.length) {
             throw new ArrayIndexOutOfBoundsException();
         }
 
+        int bytesRead;
+        int partCount = getPartCount(length);
+        if (partCount == 1) {
+            bytesRead = readRange(handle.getSegmentName(), offset, buffer, bufferOffset, length);
+        } else {
+            // Issue parallel ranged reads, each filling in its own section of the buffer.
+            long partSize = this.config.getPartSize();
+            List<Integer> partsRead = executeParallel(partCount, part -> {
+                long partOffset = part * partSize;
+                int partLength = (int) Math.min(partSize, length - partOffset);
+                return readRange(handle.getSegmentName(), offset + partOffset, buffer, bufferOffset + (int) partOffset, partLength);
+            });
+
+            // Only count the contiguous data at the beginning (a part may be short if the read goes past the end).
+            bytesRead = 0;
+            for (int partRead : partsRead) {
+                bytesRead += partRead;
+                if (partRead < partSize) {
+                    break;
+                }
+            }
+        }
+
+        LoggerHelpers.traceLeave(log, "read", traceId, bytesRead);
+        return bytesRead;
+    }
+
+    private int readRange(String segmentName, long offset, byte[] buffer, int bufferOffset, int length) throws Exception {
         try (InputStream reader = client.readObjectStream(config.getBucket(),
-                config.getRoot() + handle.getSegmentName(), Range.fromOffsetLength(offset, length))) {
+                config.getRoot() + segmentName, Range.fromOffsetLength(offset, length))) {
             /*
              * TODO: This implementation assumes that if S3Client.readObjectStream returns null, then
              * the object does not exist and we throw StreamNotExistsException. The javadoc, however,
@@ -223,13 +285,10 @@ public class ExtendedS3Storage implements SyncStorage {
              * See https://github.com/pravega/pravega/issues/1549
              */
             if (reader == null) {
-                throw new StreamSegmentNotExistsException(handle.getSegmentName());
+                throw new StreamSegmentNotExistsException(segmentName);
             }
 
-            int bytesRead = StreamHelpers.readAll(reader, buffer, bufferOffset, length);
-
-            LoggerHelpers.traceLeave(log, "read", traceId, bytesRead);
-            return bytesRead;
+            return StreamHelpers.readAll(reader, buffer, bufferOffset, length);
         }
     }
 
@@ -319,18 +378,29 @@ public class ExtendedS3Storage implements SyncStorage {
 
         long traceId = LoggerHelpers.traceEnter(log, "write", handle.getSegmentName(), offset, length);
 
-        SegmentProperties si = doGetStreamSegmentInfo(handle.getSegmentName());
+        if (getCachedLength(handle) != offset) {
+            // We either do not know the length of the Object, or someone else may have modified it since we last did.
+            SegmentProperties si = doGetStreamSegmentInfo(handle.getSegmentName());
+            setCachedLength(handle, si.getLength());
+            if (si.isSealed()) {
+                throw new StreamSegmentSealedException(handle.getSegmentName());
+            }
 
-        if (si.isSealed()) {
-            throw new StreamSegmentSealedException(handle.getSegmentName());
+            if (si.getLength() != offset) {
+                throw new BadOffsetException(handle.getSegmentName(), si.getLength(), offset);
+            }
         }
 
-        if (si.getLength() != offset) {
-            throw new BadOffsetException(handle.getSegmentName(), si.getLength(), offset);
+        try {
+            client.putObject(this.config.getBucket(), this.config.getRoot() + handle.getSegmentName(),
+                    Range.fromOffsetLength(offset, length), data);
+            setCachedLength(handle, offset + length);
+        } catch (Exception ex) {
+            // We do not know how much (if anything) has been written.
+            setCachedLength(handle, ExtendedS3SegmentHandle.UNKNOWN_LENGTH);
+            throw ex;
         }
 
-        client.putObject(this.config.getBucket(), this.config.getRoot() + handle.getSegmentName(),
-                Range.fromOffsetLength(offset, length), data);
         LoggerHelpers.traceLeave(log, "write", traceId);
         return null;
     }
@@ -339,6 +409,7 @@ public class ExtendedS3Storage implements SyncStorage {
         Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be read-only.");
         long traceId = LoggerHelpers.traceEnter(log, "seal", handle.getSegmentName());
         setPermission(handle, READ_ONLY_PERMISSION);
+        setCachedLength(handle, ExtendedS3SegmentHandle.UNKNOWN_LENGTH);
         LoggerHelpers.traceLeave(log, "seal", traceId);
         return null;
     }
@@ -346,6 +417,7 @@ public class ExtendedS3Storage implements SyncStorage {
     private Void doUnseal(SegmentHandle handle) {
         long traceId = LoggerHelpers.traceEnter(log, "unseal", handle.getSegmentName());
         setPermission(handle, READ_WRITE_PERMISSION);
+        setCachedLength(handle, ExtendedS3SegmentHandle.UNKNOWN_LENGTH);
         LoggerHelpers.traceLeave(log, "unseal", traceId);
         return null;
     }
@@ -364,18 +436,15 @@ public class ExtendedS3Storage implements SyncStorage {
      * more detail on multipart copy:
      * http://docs.aws.amazon.com/AmazonS3/latest/dev/CopyingObjctsUsingLLJavaMPUapi.html
      *
-     * The multipart copy is an atomic operation. We schedule two parts and commit them atomically using
+     * The multipart copy is an atomic operation. We schedule the parts and commit them atomically using
      * completeMultiPartUpload call. Specifically, to concatenate, we are copying the target segment T and the
-     * source segment S to T, so essentially we are doing T <- T + S.
+     * source segment S to T, so essentially we are doing T <- T + S. Both T and S may be split into multiple parts
+     * (if larger than the configured part size), and the parts are copied in parallel.
      */
-    private Void doConcat(SegmentHandle targetHandle, long offset, String sourceSegment) throws StreamSegmentNotExistsException {
+    private Void doConcat(SegmentHandle targetHandle, long offset, String sourceSegment) throws Exception {
         Preconditions.checkArgument(!targetHandle.isReadOnly(), "target handle must not be read-only.");
         long traceId = LoggerHelpers.traceEnter(log, "concat", targetHandle.getSegmentName(), offset, sourceSegment);
 
-        SortedSet<MultipartPartETag> partEtags = new TreeSet<>();
-        String targetPath = config.getRoot() + targetHandle.getSegmentName();
-        String uploadId = client.initiateMultipartUpload(config.getBucket(), targetPath);
-
         // check whether the target exists
         if (!doExists(targetHandle.getSegmentName())) {
             throw new StreamSegmentNotExistsException(targetHandle.getSegmentName());
@@ -385,47 +454,158 @@ public class ExtendedS3Storage implements SyncStorage {
         Preconditions.checkState(si.isSealed(), "Cannot concat segment '%s' into '%s' because it is not sealed.",
                 sourceSegment, targetHandle.getSegmentName());
 
-        //Copy the first part
-        CopyPartRequest copyRequest = new CopyPartRequest(config.getBucket(),
-                targetPath,
-                config.getBucket(),
-                targetPath,
-                uploadId,
-                1).withSourceRange(Range.fromOffsetLength(0, offset));
-        CopyPartResult copyResult = client.copyPart(copyRequest);
-
-        partEtags.add(new MultipartPartETag(copyResult.getPartNumber(), copyResult.getETag()));
-
-        //Copy the second part
-        S3ObjectMetadata metadataResult = client.getObjectMetadata(config.getBucket(),
-                config.getRoot() + sourceSegment);
-        long objectSize = metadataResult.getContentLength(); // in bytes
-
-        copyRequest = new CopyPartRequest(config.getBucket(),
-                config.getRoot() + sourceSegment,
-                config.getBucket(),
-                targetPath,
-                uploadId,
-                2).withSourceRange(Range.fromOffsetLength(0, objectSize));
-
-        copyResult = client.copyPart(copyRequest);
-        partEtags.add(new MultipartPartETag(copyResult.getPartNumber(), copyResult.getETag()));
-
-        //Close the upload
-        client.completeMultipartUpload(new CompleteMultipartUploadRequest(config.getBucket(),
-                targetPath, uploadId).withParts(partEtags));
+        String targetPath = config.getRoot() + targetHandle.getSegmentName();
+        String uploadId = client.initiateMultipartUpload(config.getBucket(), targetPath);
+        setCachedLength(targetHandle, ExtendedS3SegmentHandle.UNKNOWN_LENGTH);
+        try {
+            // The first parts copy the target onto itself, and the remaining ones append the source.
+            List<CopyPartRequest> copyRequests = new ArrayList<>();
+            addCopyPartRequests(targetPath, offset, targetPath, uploadId, copyRequests);
+            addCopyPartRequests(config.getRoot() + sourceSegment, si.getLength(), targetPath, uploadId, copyRequests);
+            List<CopyPartResult> copyResults = executeParallel(copyRequests.size(), part -> client.copyPart(copyRequests.get(part)));
+
+            SortedSet<MultipartPartETag> partEtags = new TreeSet<>();
+            copyResults.forEach(copyResult -> partEtags.add(new MultipartPartETag(copyResult.getPartNumber(), copyResult.getETag())));
+
+            //Close the upload
+            client.completeMultipartUpload(new CompleteMultipartUploadRequest(config.getBucket(),
+                    targetPath, uploadId).withParts(partEtags));
+        } catch (Exception ex) {
+            abortMultipartUpload(targetPath, uploadId);
+            throw ex;
+        }
 
+        setCachedLength(targetHandle, offset + si.getLength());
         client.deleteObject(config.getBucket(), config.getRoot() + sourceSegment);
         LoggerHelpers.traceLeave(log, "concat", traceId);
 
         return null;
     }
 
+    private void addCopyPartRequests(String sourcePath, long sourceLength, String targetPath, String uploadId,
+                                     List<CopyPartRequest> requests) {
+        long partSize = this.config.getPartSize();
+        long partOffset = 0;
+        do {
+            long partLength = Math.min(partSize, sourceLength - partOffset);
+            requests.add(new CopyPartRequest(config.getBucket(),
+                    sourcePath,
+                    config.getBucket(),
+                    targetPath,
+                    uploadId,
+                    requests.size() + 1).withSourceRange(Range.fromOffsetLength(partOffset, partLength)));
+            partOffset += partLength;
+        } while (partOffset < sourceLength);
+    }
+
+    private void abortMultipartUpload(String targetPath, String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(config.getBucket(), targetPath, uploadId));
+        } catch (Exception ex) {
+            log.warn("Unable to abort multipart upload '{}' for '{}'.", uploadId, targetPath, ex);
+        }
+    }
+
     private Void doDelete(SegmentHandle handle) {
         client.deleteObject(config.getBucket(), config.getRoot() + handle.getSegmentName());
+        setCachedLength(handle, ExtendedS3SegmentHandle.UNKNOWN_LENGTH);
+        return null;
+    }
+
+    private Void doDeleteAll(Collection<String> streamSegmentNames) {
+        long traceId = LoggerHelpers.traceEnter(log, "deleteAll", streamSegmentNames.size());
+        List<ObjectKey> keys = streamSegmentNames.stream()
+                                                 .map(name -> new ObjectKey(config.getRoot() + name))
+                                                 .collect(Collectors.toList());
+
+        // A single multi-object delete request may contain a limited number of keys. Keys that do not exist are reported
+        // as successfully deleted.
+        for (int i = 0; i < keys.size(); i += MAX_DELETE_OBJECTS_KEYS) {
+            val request = new DeleteObjectsRequest(config.getBucket())
+                    .withKeys(keys.subList(i, Math.min(keys.size(), i + MAX_DELETE_OBJECTS_KEYS)));
+            for (AbstractDeleteResult result : client.deleteObjects(request).getResults()) {
+                if (result instanceof DeleteError) {
+                    DeleteError error = (DeleteError) result;
+                    throw new S3Exception(String.format("Unable to delete '%s': %s.", error.getKey(), error.getMessage()),
+                            HttpURLConnection.HTTP_INTERNAL_ERROR, error.getCode(), null);
+                }
+            }
+        }
+
+        LoggerHelpers.traceLeave(log, "deleteAll", traceId, streamSegmentNames.size());
         return null;
     }
 
+    private long getCachedLength(SegmentHandle handle) {
+        return handle instanceof ExtendedS3SegmentHandle
+                ? ((ExtendedS3SegmentHandle) handle).getCachedLength()
+                : ExtendedS3SegmentHandle.UNKNOWN_LENGTH;
+    }
+
+    private void setCachedLength(SegmentHandle handle, long length) {
+        if (handle instanceof ExtendedS3SegmentHandle) {
+            ((ExtendedS3SegmentHandle) handle).setCachedLength(length);
+        }
+    }
+
+    private int getPartCount(long length) {
+        if (this.config.getMaxParallelRequests() <= 1 || length <= this.config.getPartSize()) {
+            return 1;
+        }
+
+        return (int) ((length + this.config.getPartSize() - 1) / this.config.getPartSize());
+    }
+
+    /**
+     * Executes the given number of parts, using the current thread and up to (maxParallelRequests - 1) threads from the
+     * Executor. Parts are claimed by whichever thread is available, so we never wait on a part that is not already
+     * executing on some thread; this means we cannot deadlock if the Executor is saturated (i.e., by other calls to
+     * this method).
+     *
+     * @param partCount The number of parts.
+     * @param part      A function that executes a part, given its index.
+     * @param <T>       Type of the result of each part.
+     * @return A List containing the result of each part, in order.
+     * @throws Exception If any of the parts failed. If so, any parts that have not yet started will not be executed.
+     */
+    private <T> List<T> executeParallel(int partCount, PartFunction<T> part) throws Exception {
+        List<CompletableFuture<T>> results = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger nextPart = new AtomicInteger();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int index;
+            while ((index = nextPart.getAndIncrement()) < partCount) {
+                T result = null;
+                if (failure.get() == null) {
+                    try {
+                        result = part.apply(index);
+                    } catch (Exception ex) {
+                        failure.compareAndSet(null, ex);
+                    }
+                }
+
+                results.get(index).complete(result);
+            }
+        };
+
+        for (int i = 1; i < Math.min(partCount, this.config.getMaxParallelRequests()); i++) {
+            this.executor.execute(worker);
+        }
+
+        worker.run();
+        List<T> result = new ArrayList<>(partCount);
+        results.forEach(r -> result.add(r.join()));
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        return result;
+    }
+
     private <T> T throwException(String segmentName, Exception e) throws StreamSegmentException {
         if (e instanceof S3Exception && !Strings.isNullOrEmpty(((S3Exception) e).getErrorCode())) {
             String errorCode = ((S3Exception) e).getErrorCode();
@@ -474,6 +654,11 @@ public class ExtendedS3Storage implements SyncStorage {
         }
     }
 
+    @FunctionalInterface
+    private interface PartFunction<T> {
+        T apply(int partIndex) throws Exception;
+    }
+
     //endregion
 
     //region AutoClosable
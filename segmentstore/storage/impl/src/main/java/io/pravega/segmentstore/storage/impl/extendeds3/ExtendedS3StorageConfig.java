@@ -31,6 +31,13 @@ public class ExtendedS3StorageConfig {
     public static final Property<String> BUCKET = Property.named("bucket", "");
     public static final Property<String> NAMESPACE = Property.named("namespace", ""); // use default namespace
     public static final Property<Boolean> USENONEMATCH = Property.named("useNoneMatch", false);
+    public static final Property<Integer> PART_SIZE = Property.named("partSize", 16 * 1024 * 1024);
+    public static final Property<Integer> MAX_PARALLEL_REQUESTS = Property.named("maxParallelRequests", 4);
+
+    /**
+     * The minimum size of a part in an S3 multipart upload (except the last one).
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
 
     private static final String COMPONENT_CODE = "extendeds3";
 
@@ -81,6 +88,18 @@ public class ExtendedS3StorageConfig {
     @Getter
     private final boolean useNoneMatch;
 
+    /**
+     * The size of each part when splitting large reads (into ranged reads) or concats (into multipart copies).
+     */
+    @Getter
+    private final int partSize;
+
+    /**
+     * The maximum number of concurrent requests to issue for a single read or concat.
+     */
+    @Getter
+    private final int maxParallelRequests;
+
     //endregion
 
     //region Constructor
@@ -98,6 +117,15 @@ public class ExtendedS3StorageConfig {
         this.bucket = properties.get(BUCKET);
         this.namespace = properties.get(NAMESPACE);
         this.useNoneMatch = properties.getBoolean(USENONEMATCH);
+        this.partSize = properties.getInt(PART_SIZE);
+        if (this.partSize < MIN_PART_SIZE) {
+            throw new ConfigurationException(String.format("Property '%s' must be at least %d.", PART_SIZE, MIN_PART_SIZE));
+        }
+
+        this.maxParallelRequests = properties.getInt(MAX_PARALLEL_REQUESTS);
+        if (this.maxParallelRequests <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_PARALLEL_REQUESTS));
+        }
     }
 
     /**
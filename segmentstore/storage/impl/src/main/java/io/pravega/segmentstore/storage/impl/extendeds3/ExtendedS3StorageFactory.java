@@ -13,40 +13,58 @@ import com.emc.object.s3.S3Config;
 import com.emc.object.s3.jersey.S3JerseyClient;
 import com.google.common.base.Preconditions;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollector;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollectorConfig;
 import io.pravega.segmentstore.storage.rolling.RollingStorage;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Factory for ExtendedS3 Storage adapters.
  */
 public class ExtendedS3StorageFactory implements StorageFactory {
     private final ExtendedS3StorageConfig config;
-    private final ExecutorService executor;
+    private final ChunkGarbageCollectorConfig gcConfig;
+    private final ScheduledExecutorService executor;
 
     /**
      * Creates a new instance of the NFSStorageFactory class.
      *
      * @param config   The Configuration to use.
+     * @param gcConfig The ChunkGarbageCollectorConfig to use for Storage adapters created for Segment Containers.
      * @param executor An executor to use for background operations.
      */
-    public ExtendedS3StorageFactory(ExtendedS3StorageConfig config, ExecutorService executor) {
+    public ExtendedS3StorageFactory(ExtendedS3StorageConfig config, ChunkGarbageCollectorConfig gcConfig, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(gcConfig, "gcConfig");
         Preconditions.checkNotNull(executor, "executor");
         this.config = config;
+        this.gcConfig = gcConfig;
         this.executor = executor;
     }
 
     @Override
     public Storage createStorageAdapter() {
+        ExtendedS3Storage s = createS3Storage();
+        return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
+    }
+
+    @Override
+    public Storage createStorageAdapter(int containerId) {
+        ExtendedS3Storage s = createS3Storage();
+        ChunkGarbageCollector gc = new ChunkGarbageCollector(containerId, s, this.gcConfig, this.executor);
+        return new AsyncStorageWrapper(new RollingStorage(s, SegmentRollingPolicy.NO_ROLLING, gc), this.executor);
+    }
+
+    private ExtendedS3Storage createS3Storage() {
         S3Config s3Config = new S3Config(config.getUrl())
                 .withIdentity(config.getAccessKey())
                 .withSecretKey(config.getSecretKey())
                 .withNamespace(config.getNamespace());
 
         S3JerseyClient client = new S3JerseyClient(s3Config);
-        ExtendedS3Storage s = new ExtendedS3Storage(client, this.config);
-        return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
+        return new ExtendedS3Storage(client, this.config, this.executor);
     }
 }
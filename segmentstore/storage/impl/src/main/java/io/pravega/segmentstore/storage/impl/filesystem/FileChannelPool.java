@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.netty.util.internal.PlatformDependent;
+import io.pravega.common.Exceptions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded pool of open FileChannels for Segment Files, which evicts the least recently used ones when full. Along with
+ * each FileChannel, the pool caches the length and sealed state of its file, which means that reads and writes need not
+ * query the file's metadata every time (which is expensive on remote file systems, such as NFS).
+ * <p>
+ * The cached state is kept up to date with reads and writes made through the pooled FileChannels, but any other change to
+ * a file (seal, unseal, concat, delete) must be followed by a call to invalidate().
+ * <p>
+ * If configured to map sealed files, every pooled sealed file that has been read from holds a memory-mapped region of
+ * the whole file, so up to maxSize files may be mapped at any given time. These regions are unmapped as soon as their
+ * FileChannels are closed (after being evicted or invalidated), rather than whenever they get garbage collected.
+ */
+@Slf4j
+@ThreadSafe
+class FileChannelPool implements AutoCloseable {
+    //region Members
+
+    private final String root;
+    private final int maxSize;
+    private final boolean mapSealedFiles;
+    @GuardedBy("channels")
+    private final LinkedHashMap<String, PooledChannel> channels;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileChannelPool class.
+     *
+     * @param root           The root path of all Segment Files.
+     * @param maxSize        The maximum number of FileChannels to keep open. If 0, every FileChannel will be closed as
+     *                       soon as it is released.
+     * @param mapSealedFiles If true, reads from pooled FileChannels of sealed files will be served from memory-mapped
+     *                       regions of those files.
+     */
+    FileChannelPool(String root, int maxSize, boolean mapSealedFiles) {
+        Preconditions.checkArgument(maxSize >= 0, "maxSize must be a non-negative number.");
+        this.root = Preconditions.checkNotNull(root, "root");
+        this.maxSize = maxSize;
+        this.mapSealedFiles = mapSealedFiles;
+        this.channels = new LinkedHashMap<>(16, 0.75f, true); // Access-order: the first entry is the least recently used.
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            List<PooledChannel> toClose = new ArrayList<>();
+            synchronized (this.channels) {
+                this.channels.values().forEach(c -> evict(c, toClose));
+                this.channels.clear();
+            }
+
+            toClose.forEach(PooledChannel::closeChannel);
+        }
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a PooledChannel for the given Segment, opening its file if necessary. The result must be closed (preferably
+     * using try-with-resources) when no longer needed, which releases it back into the pool.
+     *
+     * @param segmentName The name of the Segment.
+     * @return The PooledChannel.
+     * @throws IOException If the file could not be opened (i.e., NoSuchFileException if it does not exist).
+     */
+    PooledChannel acquire(String segmentName) throws IOException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.channels) {
+            PooledChannel existing = this.channels.get(segmentName);
+            if (existing != null) {
+                existing.refCount++;
+                return existing;
+            }
+        }
+
+        // Open the file outside of the lock, since that may take a while.
+        PooledChannel newChannel = open(segmentName);
+        PooledChannel result;
+        List<PooledChannel> toClose = new ArrayList<>();
+        synchronized (this.channels) {
+            result = this.channels.get(segmentName);
+            if (result == null) {
+                result = newChannel;
+                if (this.maxSize > 0 && !this.closed.get()) {
+                    this.channels.put(segmentName, result);
+                    Iterator<PooledChannel> lru = this.channels.values().iterator();
+                    while (this.channels.size() > this.maxSize) {
+                        evict(lru.next(), toClose);
+                        lru.remove();
+                    }
+                } else {
+                    result.evicted = true;
+                }
+            } else {
+                // Someone else opened it concurrently; use theirs.
+                toClose.add(newChannel);
+            }
+
+            result.refCount++;
+        }
+
+        toClose.forEach(PooledChannel::closeChannel);
+        return result;
+    }
+
+    /**
+     * Removes the PooledChannel for the given Segment (if any) from the pool. Its FileChannel will be closed as soon as
+     * it is no longer in use, and subsequent calls to acquire() will reopen the file.
+     *
+     * @param segmentName The name of the Segment.
+     */
+    void invalidate(String segmentName) {
+        List<PooledChannel> toClose = new ArrayList<>(1);
+        synchronized (this.channels) {
+            PooledChannel existing = this.channels.remove(segmentName);
+            if (existing != null) {
+                evict(existing, toClose);
+            }
+        }
+
+        toClose.forEach(PooledChannel::closeChannel);
+    }
+
+    private void release(PooledChannel channel) {
+        boolean close;
+        synchronized (this.channels) {
+            assert channel.refCount > 0 : "PooledChannel released more times than it was acquired.";
+            channel.refCount--;
+            close = channel.refCount == 0 && channel.evicted;
+        }
+
+        if (close) {
+            channel.closeChannel();
+        }
+    }
+
+    @GuardedBy("channels")
+    private void evict(PooledChannel channel, List<PooledChannel> toClose) {
+        channel.evicted = true;
+        if (channel.refCount == 0) {
+            toClose.add(channel);
+        }
+    }
+
+    private PooledChannel open(String segmentName) throws IOException {
+        Path path = Paths.get(this.root, segmentName);
+        PosixFileAttributes attrs = Files.readAttributes(path, PosixFileAttributes.class);
+        boolean sealed = !attrs.permissions().contains(PosixFilePermission.OWNER_WRITE);
+        FileChannel channel;
+        if (sealed) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } else {
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (AccessDeniedException ex) {
+                // We may not be able to write to this file, but we can still read from it. Any write attempts will fail.
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+        }
+
+        return new PooledChannel(segmentName, channel, attrs.size(), sealed);
+    }
+
+    //endregion
+
+    //region PooledChannel
+
+    /**
+     * An open FileChannel for a Segment File, along with cached information about that file.
+     */
+    class PooledChannel implements AutoCloseable {
+        @Getter
+        private final String segmentName;
+        @Getter
+        private final FileChannel channel;
+        /**
+         * Whether the file was sealed when it was opened. If so, the FileChannel is read-only.
+         */
+        @Getter
+        private final boolean sealed;
+        private final AtomicLong length;
+        @GuardedBy("channels")
+        private int refCount;
+        @GuardedBy("channels")
+        private boolean evicted;
+        @GuardedBy("this")
+        private MappedByteBuffer mappedFile;
+
+        private PooledChannel(String segmentName, FileChannel channel, long length, boolean sealed) {
+            this.segmentName = segmentName;
+            this.channel = channel;
+            this.length = new AtomicLong(length);
+            this.sealed = sealed;
+        }
+
+        /**
+         * Releases this PooledChannel back into the pool.
+         */
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        /**
+         * Gets the cached length of the file. This may be smaller than the actual length if the file has been modified
+         * other than through this PooledChannel (i.e., by another process); use refreshLength() if necessary.
+         *
+         * @return The cached length.
+         */
+        long getLength() {
+            return this.length.get();
+        }
+
+        /**
+         * Updates the cached length of the file using the actual length of the file.
+         *
+         * @return The new cached length.
+         * @throws IOException If the length could not be determined.
+         */
+        long refreshLength() throws IOException {
+            return updateLength(this.channel.size());
+        }
+
+        /**
+         * Records that the file is at least as long as the given value (i.e., after a write ending at that offset).
+         *
+         * @param minLength The minimum length of the file.
+         * @return The new cached length.
+         */
+        long updateLength(long minLength) {
+            return this.length.accumulateAndGet(minLength, Math::max);
+        }
+
+        /**
+         * Gets a read-only view of the entire file, backed by a memory-mapped region of it. This is only available for
+         * sealed files (since they do not change) and only if the pool has been configured to do so. The result must
+         * not be used after this PooledChannel is released, since the region is unmapped when the FileChannel is closed.
+         *
+         * @return A new ByteBuffer with an independent position, or null if a memory-mapped view is not available.
+         * @throws IOException If the file could not be mapped.
+         */
+        ByteBuffer getMappedView() throws IOException {
+            if (!mapSealedFiles || !this.sealed || this.length.get() > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            synchronized (this) {
+                if (this.mappedFile == null) {
+                    this.mappedFile = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.length.get());
+                }
+
+                return this.mappedFile.duplicate();
+            }
+        }
+
+        private void closeChannel() {
+            MappedByteBuffer mapped;
+            synchronized (this) {
+                mapped = this.mappedFile;
+                this.mappedFile = null;
+            }
+
+            if (mapped != null) {
+                // Do not wait for the GC to unmap this region; we only get here once nobody is using this PooledChannel.
+                PlatformDependent.freeDirectBuffer(mapped);
+            }
+
+            try {
+                this.channel.close();
+            } catch (IOException ex) {
+                log.warn("Unable to close FileChannel for '{}'.", this.segmentName, ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (Length = %d, Sealed = %s)", this.segmentName, this.length.get(), this.sealed);
+        }
+    }
+
+    //endregion
+}
@@ -30,7 +30,6 @@ import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
-import java.nio.channels.FileChannel;
 import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.AccessDeniedException;
@@ -39,7 +38,6 @@ import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
@@ -90,6 +88,7 @@ public class FileSystemStorage implements SyncStorage {
             PosixFilePermission.OTHERS_READ);
 
     private final FileSystemStorageConfig config;
+    private final FileChannelPool channels;
     private final AtomicBoolean closed;
 
     //endregion
@@ -103,8 +102,8 @@ public class FileSystemStorage implements SyncStorage {
      */
     public FileSystemStorage(FileSystemStorageConfig config) {
         this.config = Preconditions.checkNotNull(config, "config");
+        this.channels = new FileChannelPool(config.getRoot(), config.getChannelPoolSize(), config.isMapSealedSegments());
         this.closed = new AtomicBoolean(false);
-
     }
 
     //endregion
@@ -193,7 +192,9 @@ public class FileSystemStorage implements SyncStorage {
 
     @Override
     public void close() {
-        this.closed.set(true);
+        if (!this.closed.getAndSet(true)) {
+            this.channels.close();
+        }
     }
 
     //endregion
@@ -230,24 +231,39 @@ public class FileSystemStorage implements SyncStorage {
         long traceId = LoggerHelpers.traceEnter(log, "read", handle.getSegmentName(), offset, bufferOffset, length);
         Timer timer = new Timer();
 
-        Path path = Paths.get(config.getRoot(), handle.getSegmentName());
+        try (FileChannelPool.PooledChannel channel = this.channels.acquire(handle.getSegmentName())) {
+            long fileSize = channel.getLength();
+            if (fileSize < offset + length) {
+                // The file may have been extended by someone else since we cached its length.
+                fileSize = channel.refreshLength();
+            }
 
-        long fileSize = Files.size(path);
-        if (fileSize < offset) {
-            throw new IllegalArgumentException(String.format("Reading at offset (%d) which is beyond the " +
-                    "current size of segment (%d).", offset, fileSize));
-        }
+            if (fileSize < offset) {
+                throw new IllegalArgumentException(String.format("Reading at offset (%d) which is beyond the " +
+                        "current size of segment (%d).", offset, fileSize));
+            }
 
-        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
             int totalBytesRead = 0;
+            ByteBuffer mappedView = channel.getMappedView();
+            if (mappedView != null && offset >= 0 && offset + length <= mappedView.limit()) {
+                mappedView.position((int) offset);
+                mappedView.get(buffer, bufferOffset, length);
+                totalBytesRead = length;
+            } else {
+                do {
+                    ByteBuffer readBuffer = ByteBuffer.wrap(buffer, bufferOffset, length);
+                    int bytesRead = channel.getChannel().read(readBuffer, offset + totalBytesRead);
+                    if (bytesRead < 0) {
+                        throw new IllegalArgumentException(String.format("Reading beyond the current size of segment (%d).",
+                                channel.refreshLength()));
+                    }
+
+                    bufferOffset += bytesRead;
+                    totalBytesRead += bytesRead;
+                    length -= bytesRead;
+                } while (length != 0);
+            }
 
-            do {
-                ByteBuffer readBuffer = ByteBuffer.wrap(buffer, bufferOffset, length);
-                int bytesRead = channel.read(readBuffer, offset);
-                bufferOffset += bytesRead;
-                totalBytesRead += bytesRead;
-                length -= bytesRead;
-            } while (length != 0);
             FileSystemMetrics.READ_LATENCY.reportSuccessEvent(timer.getElapsed());
             FileSystemMetrics.READ_BYTES.add(totalBytesRead);
             LoggerHelpers.traceLeave(log, "read", traceId, totalBytesRead);
@@ -281,6 +297,9 @@ public class FileSystemStorage implements SyncStorage {
         Path path = Paths.get(config.getRoot(), streamSegmentName);
         Files.createDirectories(path.getParent());
         Files.createFile(path, fileAttributes);
+
+        // Discard any state we may have about a file that previously had this name.
+        this.channels.invalidate(streamSegmentName);
         LoggerHelpers.traceLeave(log, "create", traceId);
         return this.doGetStreamSegmentInfo(streamSegmentName);
     }
@@ -293,31 +312,41 @@ public class FileSystemStorage implements SyncStorage {
             throw new IllegalArgumentException("Write called on a readonly handle of segment " + handle.getSegmentName());
         }
 
-        Path path = Paths.get(config.getRoot(), handle.getSegmentName());
-
         // Fix for the case where Pravega runs with super user privileges.
         // This means that writes to readonly files also succeed. We need to explicitly check permissions in this case.
+        // This must check the file itself (and not the pooled state), since the file may have been sealed by another
+        // FileSystemStorage instance (i.e., on another host) since it was pooled.
+        Path path = Paths.get(config.getRoot(), handle.getSegmentName());
         if (!isWritableFile(path)) {
+            this.channels.invalidate(handle.getSegmentName());
             throw new StreamSegmentSealedException(handle.getSegmentName());
         }
 
-        long fileSize = path.toFile().length();
-        if (fileSize < offset) {
-            throw new BadOffsetException(handle.getSegmentName(), fileSize, offset);
-        } else {
+        try (FileChannelPool.PooledChannel channel = acquireWritable(handle.getSegmentName())) {
+            long fileSize = channel.getLength();
+            if (fileSize < offset) {
+                // The file may have been extended by someone else since we cached its length.
+                fileSize = channel.refreshLength();
+            }
+
+            if (fileSize < offset) {
+                throw new BadOffsetException(handle.getSegmentName(), fileSize, offset);
+            }
+
             long totalBytesWritten = 0;
-            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
-                // Wrap the input data into a ReadableByteChannel, but do not close it. Doing so will result in closing
-                // the underlying InputStream, which is not desirable if it is to be reused.
-                ReadableByteChannel sourceChannel = Channels.newChannel(data);
-                while (length != 0) {
-                    long bytesWritten = channel.transferFrom(sourceChannel, offset, length);
-                    assert bytesWritten > 0 : "Unable to make any progress transferring data.";
-                    offset += bytesWritten;
-                    totalBytesWritten += bytesWritten;
-                    length -= bytesWritten;
-                }
+
+            // Wrap the input data into a ReadableByteChannel, but do not close it. Doing so will result in closing
+            // the underlying InputStream, which is not desirable if it is to be reused.
+            ReadableByteChannel sourceChannel = Channels.newChannel(data);
+            while (length != 0) {
+                long bytesWritten = channel.getChannel().transferFrom(sourceChannel, offset, length);
+                assert bytesWritten > 0 : "Unable to make any progress transferring data.";
+                offset += bytesWritten;
+                totalBytesWritten += bytesWritten;
+                length -= bytesWritten;
             }
+
+            channel.updateLength(offset);
             FileSystemMetrics.WRITE_LATENCY.reportSuccessEvent(timer.getElapsed());
             FileSystemMetrics.WRITE_BYTES.add(totalBytesWritten);
             LoggerHelpers.traceLeave(log, "write", traceId);
@@ -325,6 +354,21 @@ public class FileSystemStorage implements SyncStorage {
         }
     }
 
+    /**
+     * Acquires a PooledChannel for writing to the given (unsealed) Segment. If the pooled FileChannel was opened while
+     * the file was sealed (and it has been unsealed since), it is replaced by a new one.
+     */
+    private FileChannelPool.PooledChannel acquireWritable(String segmentName) throws IOException {
+        FileChannelPool.PooledChannel channel = this.channels.acquire(segmentName);
+        if (channel.isSealed()) {
+            channel.close();
+            this.channels.invalidate(segmentName);
+            channel = this.channels.acquire(segmentName);
+        }
+
+        return channel;
+    }
+
     private boolean isWritableFile(Path path) throws IOException {
         PosixFileAttributes attrs = Files.readAttributes(path, PosixFileAttributes.class);
         return attrs.permissions().contains(OWNER_WRITE);
@@ -337,6 +381,7 @@ public class FileSystemStorage implements SyncStorage {
         }
 
         Files.setPosixFilePermissions(Paths.get(config.getRoot(), handle.getSegmentName()), READ_ONLY_PERMISSION);
+        this.channels.invalidate(handle.getSegmentName());
         LoggerHelpers.traceLeave(log, "seal", traceId);
         return null;
     }
@@ -344,6 +389,7 @@ public class FileSystemStorage implements SyncStorage {
     private Void doUnseal(SegmentHandle handle) throws IOException {
         long traceId = LoggerHelpers.traceEnter(log, "unseal", handle.getSegmentName());
         Files.setPosixFilePermissions(Paths.get(config.getRoot(), handle.getSegmentName()), READ_WRITE_PERMISSION);
+        this.channels.invalidate(handle.getSegmentName());
         LoggerHelpers.traceLeave(log, "unseal", traceId);
         return null;
     }
@@ -362,27 +408,33 @@ public class FileSystemStorage implements SyncStorage {
                 offset, sourceSegment);
 
         Path sourcePath = Paths.get(config.getRoot(), sourceSegment);
-        Path targetPath = Paths.get(config.getRoot(), targetHandle.getSegmentName());
 
         long length = Files.size(sourcePath);
-        try (FileChannel targetChannel = FileChannel.open(targetPath, StandardOpenOption.WRITE);
+        try (FileChannelPool.PooledChannel targetChannel = this.channels.acquire(targetHandle.getSegmentName());
              RandomAccessFile sourceFile = new RandomAccessFile(String.valueOf(sourcePath), "r")) {
             if (isWritableFile(sourcePath)) {
                 throw new IllegalStateException(String.format("Source segment (%s) is not sealed.", sourceSegment));
             }
             while (length > 0) {
-                long bytesTransferred = targetChannel.transferFrom(sourceFile.getChannel(), offset, length);
+                long bytesTransferred = targetChannel.getChannel().transferFrom(sourceFile.getChannel(), offset, length);
                 offset += bytesTransferred;
                 length -= bytesTransferred;
             }
+            targetChannel.updateLength(offset);
             Files.delete(sourcePath);
             LoggerHelpers.traceLeave(log, "concat", traceId);
             return null;
+        } finally {
+            this.channels.invalidate(sourceSegment);
         }
     }
 
     private Void doDelete(SegmentHandle handle) throws IOException {
-        Files.delete(Paths.get(config.getRoot(), handle.getSegmentName()));
+        try {
+            Files.delete(Paths.get(config.getRoot(), handle.getSegmentName()));
+        } finally {
+            this.channels.invalidate(handle.getSegmentName());
+        }
         return null;
     }
 
@@ -24,6 +24,8 @@ public class FileSystemStorageConfig {
     //region Config Names
 
     public static final Property<String> ROOT = Property.named("root", "/fs/");
+    public static final Property<Integer> CHANNEL_POOL_SIZE = Property.named("channelPoolSize", 128);
+    public static final Property<Boolean> MAP_SEALED_SEGMENTS = Property.named("mapSealedSegments", false);
     public static final String COMPONENT_CODE = "filesystem";
 
     //endregion
@@ -37,6 +39,19 @@ public class FileSystemStorageConfig {
     @Getter
     private final String root;
 
+    /**
+     * The maximum number of FileChannels to keep open (each Segment File uses at most one). If 0, FileChannels will be
+     * opened and closed for every operation.
+     */
+    @Getter
+    private final int channelPoolSize;
+
+    /**
+     * Whether to use memory-mapped reads for sealed Segment Files whose FileChannels are pooled.
+     */
+    @Getter
+    private final boolean mapSealedSegments;
+
     //endregion
 
     //region Constructor
@@ -48,6 +63,12 @@ public class FileSystemStorageConfig {
      */
     private FileSystemStorageConfig(TypedProperties properties) throws ConfigurationException {
         this.root = properties.get(ROOT);
+        this.channelPoolSize = properties.getInt(CHANNEL_POOL_SIZE);
+        if (this.channelPoolSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", CHANNEL_POOL_SIZE));
+        }
+
+        this.mapSealedSegments = properties.getBoolean(MAP_SEALED_SEGMENTS);
     }
 
     /**
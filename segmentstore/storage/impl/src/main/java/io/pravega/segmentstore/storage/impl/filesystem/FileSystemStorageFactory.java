@@ -11,28 +11,35 @@ package io.pravega.segmentstore.storage.impl.filesystem;
 
 import com.google.common.base.Preconditions;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollector;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollectorConfig;
 import io.pravega.segmentstore.storage.rolling.RollingStorage;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Factory for file system Storage adapters.
  */
 public class FileSystemStorageFactory implements StorageFactory {
     private final FileSystemStorageConfig config;
-    private final ExecutorService executor;
+    private final ChunkGarbageCollectorConfig gcConfig;
+    private final ScheduledExecutorService executor;
 
     /**
      * Creates a new instance of the FileSystemStorageFactory class.
      *
      * @param config   The Configuration to use.
+     * @param gcConfig The ChunkGarbageCollectorConfig to use for Storage adapters created for Segment Containers.
      * @param executor An executor to use for background operations.
      */
-    public FileSystemStorageFactory(FileSystemStorageConfig config, ExecutorService executor) {
+    public FileSystemStorageFactory(FileSystemStorageConfig config, ChunkGarbageCollectorConfig gcConfig, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(gcConfig, "gcConfig");
         Preconditions.checkNotNull(executor, "executor");
         this.config = config;
+        this.gcConfig = gcConfig;
         this.executor = executor;
     }
 
@@ -41,4 +48,11 @@ public class FileSystemStorageFactory implements StorageFactory {
         FileSystemStorage s = new FileSystemStorage(this.config);
         return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
     }
+
+    @Override
+    public Storage createStorageAdapter(int containerId) {
+        FileSystemStorage s = new FileSystemStorage(this.config);
+        ChunkGarbageCollector gc = new ChunkGarbageCollector(containerId, s, this.gcConfig, this.executor);
+        return new AsyncStorageWrapper(new RollingStorage(s, SegmentRollingPolicy.NO_ROLLING, gc), this.executor);
+    }
 }
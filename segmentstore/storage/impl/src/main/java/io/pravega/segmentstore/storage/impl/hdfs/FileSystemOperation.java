@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.storage.impl.hdfs;
 
 import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
 import io.pravega.segmentstore.storage.StorageNotPrimaryException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -20,7 +21,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -29,6 +29,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsAction;
 import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
 
 /**
  * Base for any Operation that accesses the FileSystem.
@@ -46,6 +47,8 @@ abstract class FileSystemOperation<T> {
     private static final FsPermission READONLY_PERMISSION = new FsPermission(FsAction.READ, FsAction.READ, FsAction.READ);
     private static final byte[] ATTRIBUTE_VALUE_TRUE = new byte[]{(byte) 255};
     private static final byte[] ATTRIBUTE_VALUE_FALSE = new byte[]{(byte) 0};
+    private static final int MAX_LEASE_RECOVERY_ATTEMPTS = 60;
+    private static final long LEASE_RECOVERY_RETRY_MILLIS = 1000;
 
     @Getter
     protected final T target;
@@ -169,6 +172,11 @@ abstract class FileSystemOperation<T> {
             return target;
         }
 
+        // HDFS does not allow concatenating files that are still open for writing, and any cached input streams for the
+        // target would not see the new data.
+        this.context.streams.invalidate(target.getPath());
+        sources.forEach(fd -> this.context.streams.invalidate(fd.getPath()));
+
         // Collect sources. Since HDFS does not allow concatenating empty source files, collect those separately.
         Path[] toConcat = sources.stream().filter(fd -> fd.getLength() > 0).map(FileDescriptor::getPath).toArray(Path[]::new);
         Path[] toDelete = sources.stream().filter(fd -> fd.getLength() == 0).map(FileDescriptor::getPath).toArray(Path[]::new);
@@ -261,7 +269,10 @@ abstract class FileSystemOperation<T> {
             throw new FileNameFormatException(fileName, "Could not extract offset or epoch.", nfe);
         }
 
-        return new FileDescriptor(fs.getPath(), offset, fs.getLen(), epoch, isReadOnly(fs));
+        // HDFS does not report the length of a file that is open for writing until that file is closed (or its length
+        // is explicitly updated), so if we are writing to this file, we know better.
+        long length = Math.max(fs.getLen(), this.context.streams.getWriterLength(fs.getPath()));
+        return new FileDescriptor(fs.getPath(), offset, length, epoch, isReadOnly(fs));
     }
 
     /**
@@ -301,6 +312,7 @@ abstract class FileSystemOperation<T> {
      * @throws IOException If an exception occurred.
      */
     void deleteFile(FileDescriptor file) throws IOException {
+        this.context.streams.invalidate(file.getPath());
         this.context.fileSystem.delete(file.getPath(), true);
         log.debug("Deleted '{}'.", file.getPath());
     }
@@ -357,6 +369,8 @@ abstract class FileSystemOperation<T> {
      * @throws IOException If an exception occurred.
      */
     boolean makeReadOnly(FileDescriptor file) throws IOException {
+        // Close our output stream for this file (if any), otherwise it would remain open for writing.
+        this.context.streams.invalidate(file.getPath());
         if (isReadOnly(this.context.fileSystem.getFileStatus(file.getPath()))) {
             return false;
         }
@@ -379,6 +393,40 @@ abstract class FileSystemOperation<T> {
         file.markReadWrite();
     }
 
+    /**
+     * Revokes the write lease that any other HDFS client (such as an older instance of the owning Container) may hold on
+     * the file represented by the given FileDescriptor and waits for the file to be closed. Any output stream that such
+     * a client still has open for this file will fail on its next use, which is how it finds out it has been fenced out.
+     * This is a no-op for FileSystems other than HDFS, which do not have leases.
+     *
+     * @param file The FileDescriptor of the file to recover the lease for.
+     * @return True if the file was already closed, false if its lease had to be recovered (in which case its length may
+     * have changed since it was last looked at).
+     * @throws IOException If an exception occurred or if the lease could not be recovered in a reasonable amount of time.
+     */
+    boolean recoverLease(FileDescriptor file) throws IOException {
+        if (!(this.context.fileSystem instanceof DistributedFileSystem)) {
+            return true;
+        }
+
+        DistributedFileSystem dfs = (DistributedFileSystem) this.context.fileSystem;
+        int attemptCount = 1;
+        while (!dfs.recoverLease(file.getPath())) {
+            if (attemptCount >= MAX_LEASE_RECOVERY_ATTEMPTS) {
+                throw new IOException(String.format("Unable to recover the lease for '%s' after %d attempts.", file.getPath(), attemptCount));
+            }
+
+            Exceptions.handleInterrupted(() -> Thread.sleep(LEASE_RECOVERY_RETRY_MILLIS));
+            attemptCount++;
+        }
+
+        if (attemptCount > 1) {
+            log.debug("RecoverLease '{}' ({} attempt(s)).", file.getPath(), attemptCount);
+        }
+
+        return attemptCount == 1;
+    }
+
     private void setBooleanAttributeValue(Path path, String attributeName, boolean value) throws IOException {
         this.context.fileSystem.setXAttr(path, attributeName, value ? ATTRIBUTE_VALUE_TRUE : ATTRIBUTE_VALUE_FALSE);
     }
@@ -408,13 +456,20 @@ abstract class FileSystemOperation<T> {
     /**
      * Context for each operation.
      */
-    @RequiredArgsConstructor
     static class OperationContext {
         final long epoch;
         final FileSystem fileSystem;
         final HDFSStorageConfig config;
+        final HDFSStreamCache streams;
         private final Set<Path> pendingFileCreations = Collections.synchronizedSet(new HashSet<>());
 
+        OperationContext(long epoch, FileSystem fileSystem, HDFSStorageConfig config) {
+            this.epoch = epoch;
+            this.fileSystem = fileSystem;
+            this.config = config;
+            this.streams = new HDFSStreamCache(fileSystem, config);
+        }
+
         /**
          * Records the fact that the given Path has begun the creation process.
          *
@@ -103,6 +103,7 @@ class HDFSStorage implements SyncStorage {
     public void close() {
         if (!this.closed.getAndSet(true)) {
             if (this.context != null) {
+                this.context.streams.close();
                 try {
                     this.context.fileSystem.close();
                     this.context = null;
@@ -28,10 +28,31 @@ public class HDFSStorageConfig {
     public static final Property<Integer> REPLICATION = Property.named("replication", 3);
     public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 1024 * 1024);
     public static final Property<Boolean> REPLACE_DATANODES_ON_FAILURE = Property.named("replaceDataNodesOnFailure", true);
+    public static final Property<Integer> WRITE_STREAM_CACHE_SIZE = Property.named("writeStreamCacheSize", 256);
+    public static final Property<Integer> READ_STREAM_CACHE_SIZE = Property.named("readStreamCacheSize", 256);
+    public static final Property<SyncMode> SYNC_MODE = Property.named("syncMode", SyncMode.HFLUSH);
     private static final String COMPONENT_CODE = "hdfs";
 
     //endregion
 
+    //region Sync Modes
+
+    public enum SyncMode {
+        /**
+         * Each write is flushed to all DataNodes in the pipeline, but not necessarily to their disks. This offers the same
+         * durability as closing the output stream after each write.
+         */
+        HFLUSH,
+
+        /**
+         * Each write is flushed to all DataNodes in the pipeline and to their disks, and the file length is updated in the
+         * NameNode.
+         */
+        HSYNC
+    }
+
+    //endregion
+
     //region Members
 
     /**
@@ -67,6 +88,26 @@ public class HDFSStorageConfig {
     @Getter
     private final boolean replaceDataNodesOnFailure;
 
+    /**
+     * The maximum number of HDFS output streams to keep open (for Segment files that are being written to). If 0, an
+     * output stream is opened and closed for every write.
+     */
+    @Getter
+    private final int writeStreamCacheSize;
+
+    /**
+     * The maximum number of HDFS input streams to keep open (for Segment files that are being read from). If 0, an input
+     * stream is opened and closed for every read.
+     */
+    @Getter
+    private final int readStreamCacheSize;
+
+    /**
+     * How to make each write durable before acknowledging it.
+     */
+    @Getter
+    private final SyncMode syncMode;
+
     //endregion
 
     //region Constructor
@@ -82,6 +123,17 @@ public class HDFSStorageConfig {
         this.replication = (short) properties.getInt(REPLICATION);
         this.blockSize = properties.getInt(BLOCK_SIZE);
         this.replaceDataNodesOnFailure = properties.getBoolean(REPLACE_DATANODES_ON_FAILURE);
+        this.writeStreamCacheSize = properties.getInt(WRITE_STREAM_CACHE_SIZE);
+        if (this.writeStreamCacheSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", WRITE_STREAM_CACHE_SIZE));
+        }
+
+        this.readStreamCacheSize = properties.getInt(READ_STREAM_CACHE_SIZE);
+        if (this.readStreamCacheSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", READ_STREAM_CACHE_SIZE));
+        }
+
+        this.syncMode = properties.getEnum(SYNC_MODE, SyncMode.class);
     }
 
     /**
@@ -10,29 +10,36 @@
 package io.pravega.segmentstore.storage.impl.hdfs;
 
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
 import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollector;
+import io.pravega.segmentstore.storage.rolling.ChunkGarbageCollectorConfig;
 import io.pravega.segmentstore.storage.rolling.RollingStorage;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Factory for HDFS Storage adapters.
  */
 public class HDFSStorageFactory implements StorageFactory {
     private final HDFSStorageConfig config;
-    private final Executor executor;
+    private final ChunkGarbageCollectorConfig gcConfig;
+    private final ScheduledExecutorService executor;
 
     /**
      * Creates a new instance of the HDFSStorageFactory class.
      *
      * @param config   The Configuration to use.
+     * @param gcConfig The ChunkGarbageCollectorConfig to use for Storage adapters created for Segment Containers.
      * @param executor An executor to use for background operations.
      */
-    public HDFSStorageFactory(HDFSStorageConfig config, Executor executor) {
+    public HDFSStorageFactory(HDFSStorageConfig config, ChunkGarbageCollectorConfig gcConfig, ScheduledExecutorService executor) {
         Preconditions.checkNotNull(config, "config");
+        Preconditions.checkNotNull(gcConfig, "gcConfig");
         Preconditions.checkNotNull(executor, "executor");
         this.config = config;
+        this.gcConfig = gcConfig;
         this.executor = executor;
     }
 
@@ -41,4 +48,11 @@ public class HDFSStorageFactory implements StorageFactory {
         HDFSStorage s = new HDFSStorage(this.config);
         return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
     }
+
+    @Override
+    public Storage createStorageAdapter(int containerId) {
+        HDFSStorage s = new HDFSStorage(this.config);
+        ChunkGarbageCollector gc = new ChunkGarbageCollector(containerId, s, this.gcConfig, this.executor);
+        return new AsyncStorageWrapper(new RollingStorage(s, SegmentRollingPolicy.NO_ROLLING, gc), this.executor);
+    }
 }
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.hdfs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hdfs.client.HdfsDataOutputStream;
+import org.apache.hadoop.io.IOUtils;
+
+/**
+ * Keeps HDFS output and input streams for Segment files open between operations, evicting the least recently used ones
+ * when full. Opening an output stream (append) requires acquiring the file's lease from the NameNode and closing it
+ * requires another round-trip to complete the file, so reusing the same output stream for consecutive writes greatly
+ * reduces the load on the NameNode. Input streams are only used for positioned reads, so they can be shared.
+ * <p>
+ * Fencing is unaffected by this: a cached output stream is always for a file with our epoch, and a newer instance of the
+ * owning Container revokes our lease on it when fencing us out (see FileSystemOperation.recoverLease), after which any
+ * attempt to write to that stream will fail. Any change to a file other than through its cached output stream (seal,
+ * concat, delete) must be preceded by a call to invalidate().
+ */
+@Slf4j
+@ThreadSafe
+class HDFSStreamCache implements AutoCloseable {
+    //region Members
+
+    private final FileSystem fileSystem;
+    private final HDFSStorageConfig.SyncMode syncMode;
+    private final Pool<Writer> writers;
+    private final Pool<Reader> readers;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the HDFSStreamCache class.
+     *
+     * @param fileSystem The FileSystem to open streams from.
+     * @param config     The HDFSStorageConfig to use.
+     */
+    HDFSStreamCache(FileSystem fileSystem, HDFSStorageConfig config) {
+        this.fileSystem = Preconditions.checkNotNull(fileSystem, "fileSystem");
+        this.syncMode = config.getSyncMode();
+        this.writers = new Pool<>(config.getWriteStreamCacheSize());
+        this.readers = new Pool<>(config.getReadStreamCacheSize());
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.writers.close();
+            this.readers.close();
+        }
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a Writer for the given file, opening it for append if necessary. The result must be closed (preferably using
+     * try-with-resources) when no longer needed, which releases it back into the cache.
+     *
+     * @param path The Path of the file.
+     * @return The Writer.
+     * @throws IOException If the file could not be opened (i.e., FileNotFoundException if it does not exist).
+     */
+    Writer acquireWriter(Path path) throws IOException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Writer result = this.writers.acquire(path);
+        if (result == null) {
+            // Open the file outside of any lock, since that may take a while.
+            result = this.writers.add(new Writer(path, this.fileSystem.append(path)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a Reader for the given file which can read at least up to the given offset, opening the file if necessary.
+     * The result must be closed (preferably using try-with-resources) when no longer needed, which releases it back into
+     * the cache.
+     *
+     * @param path      The Path of the file.
+     * @param minLength The minimum number of bytes the Reader must be able to read. A cached Reader that was opened while
+     *                  the file was shorter than this may not see the rest of the file, in which case it is replaced.
+     * @return The Reader.
+     * @throws IOException If the file could not be opened (i.e., FileNotFoundException if it does not exist).
+     */
+    Reader acquireReader(Path path, long minLength) throws IOException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Reader result = this.readers.acquire(path);
+        if (result != null) {
+            if (result.visibleLength >= minLength) {
+                return result;
+            }
+
+            // The file has grown since this Reader was opened.
+            result.close();
+            this.readers.invalidate(path);
+        }
+
+        return this.readers.add(new Reader(path, this.fileSystem.open(path), minLength));
+    }
+
+    /**
+     * Closes and removes any cached streams for the given file. Streams that are currently in use are closed as soon as
+     * they are released.
+     *
+     * @param path The Path of the file.
+     */
+    void invalidate(Path path) {
+        this.writers.invalidate(path);
+        this.readers.invalidate(path);
+    }
+
+    /**
+     * Gets the number of bytes in the given file, as known by its cached Writer.
+     *
+     * @param path The Path of the file.
+     * @return The length of the file, or -1 if the file has no cached Writer.
+     */
+    long getWriterLength(Path path) {
+        Writer w = this.writers.acquire(path);
+        if (w == null) {
+            return -1;
+        }
+
+        try {
+            return w.getLength();
+        } finally {
+            w.close();
+        }
+    }
+
+    //endregion
+
+    //region Pool
+
+    /**
+     * A ref-counted, bounded LRU collection of CachedStreams.
+     */
+    private static class Pool<T extends CachedStream> {
+        private final int maxSize;
+        @GuardedBy("this")
+        private final LinkedHashMap<Path, T> streams;
+        @GuardedBy("this")
+        private boolean closed;
+
+        Pool(int maxSize) {
+            Preconditions.checkArgument(maxSize >= 0, "maxSize must be a non-negative number.");
+            this.maxSize = maxSize;
+            this.streams = new LinkedHashMap<>(16, 0.75f, true); // Access-order: the first entry is the least recently used.
+        }
+
+        T acquire(Path path) {
+            synchronized (this) {
+                T result = this.streams.get(path);
+                if (result != null) {
+                    result.refCount++;
+                }
+
+                return result;
+            }
+        }
+
+        T add(T newStream) {
+            newStream.pool = this;
+            T result;
+            List<CachedStream> toClose = new ArrayList<>();
+            synchronized (this) {
+                result = this.streams.get(newStream.getPath());
+                if (result == null) {
+                    result = newStream;
+                    if (this.maxSize > 0 && !this.closed) {
+                        this.streams.put(result.getPath(), result);
+                        Iterator<T> lru = this.streams.values().iterator();
+                        while (this.streams.size() > this.maxSize) {
+                            evict(lru.next(), toClose);
+                            lru.remove();
+                        }
+                    } else {
+                        result.evicted = true;
+                    }
+                } else {
+                    // Someone else opened it concurrently; use theirs.
+                    toClose.add(newStream);
+                }
+
+                result.refCount++;
+            }
+
+            toClose.forEach(CachedStream::closeStream);
+            return result;
+        }
+
+        void invalidate(Path path) {
+            List<CachedStream> toClose = new ArrayList<>(1);
+            synchronized (this) {
+                T existing = this.streams.remove(path);
+                if (existing != null) {
+                    evict(existing, toClose);
+                }
+            }
+
+            toClose.forEach(CachedStream::closeStream);
+        }
+
+        void release(CachedStream stream) {
+            boolean close;
+            synchronized (this) {
+                assert stream.refCount > 0 : "CachedStream released more times than it was acquired.";
+                stream.refCount--;
+                close = stream.refCount == 0 && stream.evicted;
+            }
+
+            if (close) {
+                stream.closeStream();
+            }
+        }
+
+        void close() {
+            List<CachedStream> toClose = new ArrayList<>();
+            synchronized (this) {
+                this.closed = true;
+                this.streams.values().forEach(s -> evict(s, toClose));
+                this.streams.clear();
+            }
+
+            toClose.forEach(CachedStream::closeStream);
+        }
+
+        @GuardedBy("this")
+        private void evict(CachedStream stream, List<CachedStream> toClose) {
+            stream.evicted = true;
+            if (stream.refCount == 0) {
+                toClose.add(stream);
+            }
+        }
+    }
+
+    //endregion
+
+    //region CachedStream
+
+    /**
+     * An open HDFS stream for a Segment file.
+     */
+    private abstract static class CachedStream implements AutoCloseable {
+        @Getter
+        private final Path path;
+        // These are only accessed by the owning Pool, while holding its lock.
+        Pool<?> pool;
+        int refCount;
+        boolean evicted;
+
+        CachedStream(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Releases this stream back into the cache.
+         */
+        @Override
+        public void close() {
+            this.pool.release(this);
+        }
+
+        protected abstract Closeable getStream();
+
+        private void closeStream() {
+            try {
+                getStream().close();
+            } catch (IOException ex) {
+                log.warn("Unable to close HDFS stream for '{}'.", this.path, ex);
+            }
+        }
+    }
+
+    /**
+     * A cached output stream for a Segment file.
+     */
+    class Writer extends CachedStream {
+        @GuardedBy("this")
+        private final FSDataOutputStream stream;
+
+        private Writer(Path path, FSDataOutputStream stream) {
+            super(path);
+            this.stream = stream;
+        }
+
+        /**
+         * Gets the number of bytes in the file, including everything written through this Writer.
+         *
+         * @return The length of the file.
+         */
+        synchronized long getLength() {
+            return this.stream.getPos();
+        }
+
+        /**
+         * Writes the given data at the end of the file and makes it durable according to the configured SyncMode.
+         *
+         * @param data   An InputStream containing the data to write.
+         * @param length The number of bytes to write.
+         * @throws IOException If the write failed. In this case the file may have been partially written to, so this
+         *                     Writer must be invalidated.
+         */
+        synchronized void write(InputStream data, int length) throws IOException {
+            // We need to be very careful with IOUtils.copyBytes. There are many overloads with very similar signatures.
+            // There is a difference between (InputStream, OutputStream, int, boolean) and (InputStream, OutputStream, long, boolean),
+            // in that the one with "int" uses the third arg as a buffer size, and the one with "long" uses it as the number
+            // of bytes to copy.
+            IOUtils.copyBytes(data, this.stream, (long) length, false);
+            if (syncMode == HDFSStorageConfig.SyncMode.HSYNC) {
+                if (this.stream instanceof HdfsDataOutputStream) {
+                    ((HdfsDataOutputStream) this.stream).hsync(EnumSet.of(HdfsDataOutputStream.SyncFlag.UPDATE_LENGTH));
+                } else {
+                    this.stream.hsync();
+                }
+            } else {
+                this.stream.hflush();
+            }
+        }
+
+        @Override
+        protected Closeable getStream() {
+            return this.stream;
+        }
+    }
+
+    /**
+     * A cached input stream for a Segment file.
+     */
+    class Reader extends CachedStream {
+        private final FSDataInputStream stream;
+        /**
+         * The number of bytes in the file that were known to be readable when this Reader was opened.
+         */
+        private final long visibleLength;
+
+        private Reader(Path path, FSDataInputStream stream, long visibleLength) {
+            super(path);
+            this.stream = stream;
+            this.visibleLength = visibleLength;
+        }
+
+        /**
+         * Reads exactly the given number of bytes from the given position in the file. This does not change the position
+         * of the stream, so it can be invoked concurrently.
+         *
+         * @param position     The position in the file to read from.
+         * @param buffer       The buffer to read into.
+         * @param bufferOffset The offset in the buffer to start reading into.
+         * @param length       The number of bytes to read.
+         * @throws IOException If the read failed (i.e., EOFException if the file does not have enough bytes).
+         */
+        void readFully(long position, byte[] buffer, int bufferOffset, int length) throws IOException {
+            this.stream.readFully(position, buffer, bufferOffset, length);
+        }
+
+        @Override
+        protected Closeable getStream() {
+            return this.stream;
+        }
+    }
+
+    //endregion
+}
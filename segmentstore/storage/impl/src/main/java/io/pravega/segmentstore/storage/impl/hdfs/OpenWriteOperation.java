@@ -63,18 +63,25 @@ class OpenWriteOperation extends FileSystemOperation<String> implements Callable
                     // This means someone else must have just fenced us out.
                     throw new StorageNotPrimaryException(segmentName,
                             String.format("Last file has our epoch (%d) but it is read-only: %s.", this.context.epoch, lastFile.getPath()));
-                } else {
-                    // The last file is read-only and not sealed. This segment is fenced off and we can continue using it.
+                } else if (recoverLease(lastFile)) {
+                    // The last file is read-only, not sealed and closed. This segment is fenced off and we can continue
+                    // using it.
                     result = fenceOut(segmentName, lastFile.getLastOffset());
                 }
+
+                // Otherwise the last file was still open for writing (by its previous owner). Now that it's closed, we
+                // need to re-do the entire algorithm to pick up its final length.
             } else {
                 if (lastFile.getEpoch() == this.context.epoch) {
                     // The last file is not read-only and has the same epoch as us: We were the last owners of this segment;
                     // simply reuse the last file.
                     result = HDFSSegmentHandle.write(segmentName, allFiles);
                 } else {
-                    // The last file has a lower epoch than us. Mark it as read-only, which should fence it off.
+                    // The last file has a lower epoch than us. Mark it as read-only, which should fence it off. The previous
+                    // owner may still have it open for writing (see HDFSStreamCache), so also revoke its lease, which
+                    // prevents any further writes to it and ensures its length is final before we look at it again.
                     makeReadOnly(lastFile);
+                    recoverLease(lastFile);
 
                     // Since the state of the last segment may have changed (new writes), we need to re-do the entire
                     // algorithm to pick up any new changes. This will also reduce the chances of collision with other
@@ -19,7 +19,6 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.apache.hadoop.fs.FSDataInputStream;
 
 /**
  * FileSystemOperation that Reads from a Segment.
@@ -103,14 +102,20 @@ public class ReadOperation extends FileSystemOperation<HDFSSegmentHandle> implem
             int fileReadLength = (int) Math.min(this.length - totalBytesRead.get(), currentFile.getLength() - fileOffset);
             assert fileOffset >= 0 && fileReadLength >= 0 : "negative file read offset or length";
 
-            try (FSDataInputStream stream = this.context.fileSystem.open(currentFile.getPath())) {
-                stream.readFully(fileOffset, this.buffer, this.bufferOffset + totalBytesRead.get(), fileReadLength);
+            try (HDFSStreamCache.Reader reader = this.context.streams.acquireReader(currentFile.getPath(), fileOffset + fileReadLength)) {
+                reader.readFully(fileOffset, this.buffer, this.bufferOffset + totalBytesRead.get(), fileReadLength);
                 totalBytesRead.addAndGet(fileReadLength);
             } catch (EOFException ex) {
+                this.context.streams.invalidate(currentFile.getPath());
                 throw new IOException(
                         String.format("Internal error while reading segment file. Attempted to read file '%s' at offset %d, length %d.",
                                 currentFile, fileOffset, fileReadLength),
                         ex);
+            } catch (IOException ex) {
+                // The file may have changed in a way that a cached input stream cannot cope with; make sure that the next
+                // attempt uses a new one.
+                this.context.streams.invalidate(currentFile.getPath());
+                throw ex;
             }
 
             currentFileIndex++;
@@ -18,9 +18,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.hdfs.protocol.AclException;
-import org.apache.hadoop.io.IOUtils;
 
 /**
  * FileSystemOperation that appends to a Segment.
@@ -54,17 +52,26 @@ public class WriteOperation extends FileSystemOperation<HDFSSegmentHandle> imple
         FileDescriptor lastFile = handle.getLastFile();
 
         Timer timer = new Timer();
-        try (FSDataOutputStream stream = this.context.fileSystem.append(lastFile.getPath())) {
+        HDFSStreamCache.Writer writer;
+        try {
+            writer = this.context.streams.acquireWriter(lastFile.getPath());
+        } catch (FileNotFoundException | AclException ex) {
+            checkForFenceOut(handle.getSegmentName(), handle.getFiles().size(), handle.getLastFile());
+            throw ex; // If we were not fenced out, then this is a legitimate exception - rethrow it.
+        }
+
+        try {
             if (this.offset != lastFile.getLastOffset()) {
                 // Do the handle offset validation here, after we open the file. We want to throw FileNotFoundException
                 // before we throw BadOffsetException.
                 throw new BadOffsetException(handle.getSegmentName(), lastFile.getLastOffset(), this.offset);
-            } else if (stream.getPos() != lastFile.getLength()) {
+            } else if (writer.getLength() != lastFile.getLength()) {
                 // Looks like the filesystem changed from underneath us. This could be our bug, but it could be something else.
                 // Update our knowledge of the filesystem and throw a BadOffsetException - this should cause upstream code
                 // to try to reconcile; if it can't then the upstream code should shut down or take other appropriate measures.
-                log.warn("File changed detected for '{}'. Expected length = {}, actual length = {}.", lastFile, lastFile.getLength(), stream.getPos());
-                lastFile.setLength(stream.getPos());
+                log.warn("File changed detected for '{}'. Expected length = {}, actual length = {}.", lastFile, lastFile.getLength(), writer.getLength());
+                lastFile.setLength(writer.getLength());
+                this.context.streams.invalidate(lastFile.getPath());
                 throw new BadOffsetException(handle.getSegmentName(), lastFile.getLastOffset(), this.offset);
             }
 
@@ -75,17 +82,16 @@ public class WriteOperation extends FileSystemOperation<HDFSSegmentHandle> imple
                 return;
             }
 
-            // We need to be very careful with IOUtils.copyBytes. There are many overloads with very similar signatures.
-            // There is a difference between (InputStream, OutputStream, int, boolean) and (InputStream, OutputStream, long, boolean),
-            // in that the one with "int" uses the third arg as a buffer size, and the one with "long" uses it as the number
-            // of bytes to copy.
-            IOUtils.copyBytes(this.data, stream, (long) this.length, false);
-
-            stream.flush();
+            writer.write(this.data, this.length);
             lastFile.increaseLength(this.length);
-        } catch (FileNotFoundException | AclException ex) {
+        } catch (IOException ex) {
+            // We do not know how much of the data made it into the file, so we cannot use this stream anymore. The failure
+            // may also be due to our lease on the file having been revoked, which means we were fenced out.
+            this.context.streams.invalidate(lastFile.getPath());
             checkForFenceOut(handle.getSegmentName(), handle.getFiles().size(), handle.getLastFile());
             throw ex; // If we were not fenced out, then this is a legitimate exception - rethrow it.
+        } finally {
+            writer.close();
         }
 
         HDFSMetrics.WRITE_LATENCY.reportSuccessEvent(timer.getElapsed());
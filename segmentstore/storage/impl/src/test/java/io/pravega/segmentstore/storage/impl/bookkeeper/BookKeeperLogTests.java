@@ -12,7 +12,9 @@ package io.pravega.segmentstore.storage.impl.bookkeeper;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.RetriesExhaustedException;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
 import io.pravega.segmentstore.storage.DataLogNotAvailableException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
@@ -132,7 +134,16 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         this.zkClient.get().start();
 
         // Setup config to use the port and namespace.
-        this.config.set(BookKeeperConfig
+        this.config.set(createConfigBuilder(namespace).build());
+
+        // Create default factory.
+        val factory = new BookKeeperLogFactory(this.config.get(), this.zkClient.get(), executorService());
+        factory.initialize();
+        this.factory.set(factory);
+    }
+
+    private ConfigBuilder<BookKeeperConfig> createConfigBuilder(String namespace) {
+        return BookKeeperConfig
                 .builder()
                 .with(BookKeeperConfig.ZK_ADDRESS, "localhost:" + BK_PORT.get())
                 .with(BookKeeperConfig.MAX_WRITE_ATTEMPTS, MAX_WRITE_ATTEMPTS)
@@ -143,13 +154,7 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
                 .with(BookKeeperConfig.BK_WRITE_QUORUM_SIZE, BOOKIE_COUNT)
                 .with(BookKeeperConfig.BK_ACK_QUORUM_SIZE, BOOKIE_COUNT)
                 .with(BookKeeperConfig.BK_TLS_ENABLED, isSecure())
-                .with(BookKeeperConfig.BK_WRITE_TIMEOUT, 1000) // This is the minimum we can set anyway.
-                .build());
-
-        // Create default factory.
-        val factory = new BookKeeperLogFactory(this.config.get(), this.zkClient.get(), executorService());
-        factory.initialize();
-        this.factory.set(factory);
+                .with(BookKeeperConfig.BK_WRITE_TIMEOUT, 1000); // This is the minimum we can set anyway.
     }
 
     @After
@@ -363,6 +368,123 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         }
     }
 
+    /**
+     * Tests the ability of BookKeeperLog to pre-create a standby ledger and to switch to it upon rollover.
+     */
+    @Test
+    public void testStandbyLedger() throws Exception {
+        final int maxLedgerSize = WRITE_MAX_LENGTH * 10;
+        val bkConfig = createConfigBuilder(this.zkClient.get().getNamespace())
+                .with(BookKeeperConfig.BK_LEDGER_MAX_SIZE, maxLedgerSize)
+                .with(BookKeeperConfig.BK_LEDGER_STANDBY_FILL_PERCENTAGE, 1) // Prepare a standby after the first write.
+                .build();
+        @Cleanup
+        val factory = new BookKeeperLogFactory(bkConfig, this.zkClient.get(), executorService());
+        factory.initialize();
+
+        val writeData = new TreeMap<LogAddress, byte[]>(Comparator.comparingLong(LogAddress::getSequence));
+        try (BookKeeperLog log = (BookKeeperLog) factory.createDurableDataLog(CONTAINER_ID)) {
+            log.initialize(TIMEOUT);
+            val firstLedgerId = getLastLedgerId(log);
+
+            // Write something and wait for the standby ledger to be registered in the metadata.
+            byte[] data = getWriteData();
+            writeData.put(log.append(new ByteArraySegment(data), TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), data);
+            long standbyLedgerId = firstLedgerId;
+            for (int i = 0; i < 100 && standbyLedgerId == firstLedgerId; i++) {
+                Thread.sleep(10);
+                standbyLedgerId = getLastLedgerId(log);
+            }
+
+            Assert.assertNotEquals("Standby ledger was not created.", firstLedgerId, standbyLedgerId);
+
+            // Fill up the current ledger; subsequent writes must end up in the standby ledger.
+            boolean usedStandby = false;
+            for (int i = 0; i < maxLedgerSize / WRITE_MIN_LENGTH + 1 && !usedStandby; i++) {
+                data = getWriteData();
+                val address = (LedgerAddress) log.append(new ByteArraySegment(data), TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                writeData.put(address, data);
+                Assert.assertTrue("Write went to an unexpected ledger.",
+                        address.getLedgerId() == firstLedgerId || address.getLedgerId() == standbyLedgerId);
+                usedStandby = address.getLedgerId() == standbyLedgerId;
+            }
+
+            Assert.assertTrue("Rollover did not switch to the standby ledger.", usedStandby);
+        }
+
+        // Verify we can read back everything, and that any unused standby ledger does not get in the way.
+        try (DurableDataLog log = factory.createDurableDataLog(CONTAINER_ID)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    /**
+     * Tests that a log cannot be reopened using a different stripe count (i.e., switching between a non-striped and a
+     * striped log, or reducing the number of stripes), since that would ignore its existing contents.
+     */
+    @Test
+    public void testChangeStripeCount() throws Exception {
+        @Cleanup
+        val stripedFactory = new BookKeeperLogFactory(createConfigBuilder(this.zkClient.get().getNamespace())
+                .with(BookKeeperConfig.BK_LOG_STRIPE_COUNT, 2).build(), this.zkClient.get(), executorService());
+        stripedFactory.initialize();
+        @Cleanup
+        val moreStripesFactory = new BookKeeperLogFactory(createConfigBuilder(this.zkClient.get().getNamespace())
+                .with(BookKeeperConfig.BK_LOG_STRIPE_COUNT, 3).build(), this.zkClient.get(), executorService());
+        moreStripesFactory.initialize();
+
+        // Non-striped log reopened as striped.
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, 10);
+        }
+
+        try (DurableDataLog log = stripedFactory.createDurableDataLog(CONTAINER_ID)) {
+            AssertExtensions.assertThrows(
+                    "initialize() worked for a striped log when a non-striped one existed.",
+                    () -> log.initialize(TIMEOUT),
+                    ex -> ex instanceof DataLogInitializationException);
+        }
+
+        try (DurableDataLog log = createDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+
+        // Striped log reopened as non-striped or with fewer stripes.
+        final int stripedLogId = CONTAINER_ID + 1;
+        try (DurableDataLog log = moreStripesFactory.createDurableDataLog(stripedLogId)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, 10);
+        }
+
+        try (DurableDataLog log = this.factory.get().createDurableDataLog(stripedLogId)) {
+            AssertExtensions.assertThrows(
+                    "initialize() worked for a non-striped log when a striped one existed.",
+                    () -> log.initialize(TIMEOUT),
+                    ex -> ex instanceof DataLogInitializationException);
+        }
+
+        try (DurableDataLog log = stripedFactory.createDurableDataLog(stripedLogId)) {
+            AssertExtensions.assertThrows(
+                    "initialize() worked for a striped log with fewer stripes.",
+                    () -> log.initialize(TIMEOUT),
+                    ex -> ex instanceof DataLogInitializationException);
+        }
+
+        try (DurableDataLog log = moreStripesFactory.createDurableDataLog(stripedLogId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    private long getLastLedgerId(BookKeeperLog log) throws Exception {
+        val ledgers = log.loadMetadata().getLedgers();
+        return ledgers.get(ledgers.size() - 1).getLedgerId();
+    }
+
     @Override
     protected int getThreadPoolSize() {
         return THREAD_POOL_SIZE;
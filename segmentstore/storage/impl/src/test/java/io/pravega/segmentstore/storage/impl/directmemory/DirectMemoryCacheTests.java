@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.Cache;
+import io.pravega.segmentstore.storage.CacheException;
+import io.pravega.segmentstore.storage.CacheTestBase;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
+import lombok.RequiredArgsConstructor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for DirectMemoryCache.
+ */
+public class DirectMemoryCacheTests extends CacheTestBase {
+    private static final int BLOCK_SIZE = 8; // Small, so that keys (which are used as data in the base test) span multiple blocks.
+    private static final int SLAB_SIZE = 64 * 1024;
+    private static final int MAX_SIZE = 64 * SLAB_SIZE;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+    private final AtomicReference<DirectMemoryCacheFactory> factory = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        this.factory.set(new DirectMemoryCacheFactory(createConfig(MAX_SIZE)));
+    }
+
+    @After
+    public void tearDown() {
+        this.factory.getAndSet(null).close();
+    }
+
+    @Override
+    protected Cache createCache(String cacheId) {
+        return this.factory.get().getCache(cacheId);
+    }
+
+    /**
+     * Tests the ability to insert entries of various lengths (including empty ones), to overwrite them, and to insert
+     * from a ByteArraySegment that does not start at the beginning of its array.
+     */
+    @Test
+    public void testVariableLengths() {
+        @Cleanup
+        Cache cache = createCache("cache");
+        Random rnd = new Random(0);
+        final int count = 100;
+        for (int i = 0; i < count; i++) {
+            byte[] data = new byte[i * 3];
+            rnd.nextBytes(data);
+            cache.insert(new TestKey(i, i), data);
+            Assert.assertArrayEquals("Unexpected data after insert.", data, cache.get(new TestKey(i, i)));
+
+            // Overwrite with a ByteArraySegment.
+            byte[] array = new byte[data.length + 10];
+            rnd.nextBytes(array);
+            ByteArraySegment segment = new ByteArraySegment(array, 5, data.length);
+            cache.insert(new TestKey(i, i), segment);
+            Assert.assertArrayEquals("Unexpected data after overwrite.", segment.getCopy(), cache.get(new TestKey(i, i)));
+        }
+    }
+
+    /**
+     * Tests the behavior of the Cache when the maximum capacity is reached, and verifies that memory is reused after
+     * entries are removed.
+     */
+    @Test
+    public void testMaxCapacity() {
+        @Cleanup
+        DirectMemoryCacheFactory factory = new DirectMemoryCacheFactory(createConfig(SLAB_SIZE));
+        @Cleanup
+        Cache cache = factory.getCache("cache");
+        final int entryCount = SLAB_SIZE / BLOCK_SIZE;
+        byte[] data = new byte[BLOCK_SIZE];
+        for (int i = 0; i < entryCount; i++) {
+            cache.insert(new TestKey(0, i), data);
+        }
+
+        AssertExtensions.assertThrows(
+                "insert() succeeded when the cache was full.",
+                () -> cache.insert(new TestKey(1, 0), data),
+                ex -> ex instanceof CacheException);
+
+        cache.remove(new TestKey(0, 0));
+        cache.insert(new TestKey(1, 0), data);
+        Assert.assertArrayEquals("Unexpected data after reusing memory.", data, cache.get(new TestKey(1, 0)));
+
+        // Closing the cache must return its memory to the factory, which can then hand it to another cache.
+        cache.close();
+        @Cleanup
+        Cache cache2 = factory.getCache("cache2");
+        cache2.insert(new TestKey(0, 0), data);
+        Assert.assertArrayEquals("Unexpected data in second cache.", data, cache2.get(new TestKey(0, 0)));
+    }
+
+    /**
+     * Tests that Slabs which become empty are returned to the factory (so that other caches can use them), and that
+     * the cache reports the memory it actually uses for each entry.
+     */
+    @Test
+    public void testSlabRelease() {
+        @Cleanup
+        DirectMemoryCacheFactory factory = new DirectMemoryCacheFactory(createConfig(2 * SLAB_SIZE));
+        @Cleanup
+        Cache cache = factory.getCache("cache");
+        Assert.assertEquals("Unexpected stored length for empty entry.", BLOCK_SIZE, cache.getStoredLength(0));
+        Assert.assertEquals("Unexpected stored length for single-block entry.", BLOCK_SIZE, cache.getStoredLength(BLOCK_SIZE));
+        Assert.assertEquals("Unexpected stored length for multi-block entry.", 2 * BLOCK_SIZE, cache.getStoredLength(BLOCK_SIZE + 1));
+
+        // Fill up the entire factory capacity with one cache.
+        final int entryCount = 2 * SLAB_SIZE / BLOCK_SIZE;
+        byte[] data = new byte[BLOCK_SIZE];
+        for (int i = 0; i < entryCount; i++) {
+            cache.insert(new TestKey(0, i), data);
+        }
+
+        @Cleanup
+        Cache cache2 = factory.getCache("cache2");
+        AssertExtensions.assertThrows(
+                "insert() succeeded when the factory was full.",
+                () -> cache2.insert(new TestKey(0, 0), data),
+                ex -> ex instanceof CacheException);
+
+        // Remove everything from the first cache. It may hold on to one spare Slab, but it must release the other one.
+        for (int i = 0; i < entryCount; i++) {
+            cache.remove(new TestKey(0, i));
+        }
+
+        for (int i = 0; i < entryCount / 2; i++) {
+            cache2.insert(new TestKey(0, i), data);
+        }
+
+        Assert.assertArrayEquals("Unexpected data in second cache.", data, cache2.get(new TestKey(0, 0)));
+
+        // The first cache must still be able to use the Slab it kept.
+        cache.insert(new TestKey(1, 0), data);
+        Assert.assertArrayEquals("Unexpected data in first cache after Slab release.", data, cache.get(new TestKey(1, 0)));
+    }
+
+    private DirectMemoryCacheConfig createConfig(long maxSize) {
+        return DirectMemoryCacheConfig
+                .builder()
+                .with(DirectMemoryCacheConfig.BLOCK_SIZE, BLOCK_SIZE)
+                .with(DirectMemoryCacheConfig.SLAB_SIZE, SLAB_SIZE)
+                .with(DirectMemoryCacheConfig.MAX_SIZE, maxSize)
+                .build();
+    }
+
+    @RequiredArgsConstructor
+    private static class TestKey extends Cache.Key {
+        private final long segmentId;
+        private final long offset;
+
+        @Override
+        public byte[] serialize() {
+            ByteBuffer bb = ByteBuffer.allocate(Long.BYTES * 2);
+            bb.putLong(this.segmentId);
+            bb.putLong(this.offset);
+            return bb.array();
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.segmentId) * 31 + Long.hashCode(this.offset);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TestKey
+                    && ((TestKey) obj).segmentId == this.segmentId
+                    && ((TestKey) obj).offset == this.offset;
+        }
+    }
+}
@@ -19,15 +19,20 @@ import io.pravega.segmentstore.storage.AsyncStorageWrapper;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.impl.IdempotentStorageTestBase;
 import io.pravega.segmentstore.storage.rolling.RollingStorageTestBase;
+import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.TestUtils;
+import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -80,9 +85,73 @@ public class ExtendedS3StorageTest extends IdempotentStorageTestBase {
     }
     //endregion
 
+    /**
+     * Tests reads that are split into multiple parts, which are executed in parallel.
+     */
+    @Test
+    public void testParallelRead() {
+        final int partSize = 5 * 1024 * 1024;
+        final int writeSize = 1024 * 1024;
+        final int length = 2 * partSize + writeSize;
+        val adapterConfig = ExtendedS3StorageConfig.builder()
+                .with(ExtendedS3StorageConfig.BUCKET, setup.adapterConfig.getBucket())
+                .with(ExtendedS3StorageConfig.ACCESS_KEY_ID, "x")
+                .with(ExtendedS3StorageConfig.SECRET_KEY, "x")
+                .with(ExtendedS3StorageConfig.ROOT, "test")
+                .with(ExtendedS3StorageConfig.URI, setup.endpoint)
+                .with(ExtendedS3StorageConfig.PART_SIZE, partSize)
+                .with(ExtendedS3StorageConfig.MAX_PARALLEL_REQUESTS, 2)
+                .build();
+        String segmentName = "foo_parallel_read";
+        byte[] data = new byte[length];
+        new Random(0).nextBytes(data);
+        try (Storage s = createStorage(setup.client, adapterConfig, executorService())) {
+            s.initialize(DEFAULT_EPOCH);
+            s.create(segmentName, null).join();
+            val writeHandle = s.openWrite(segmentName).join();
+            for (int offset = 0; offset < length; offset += writeSize) {
+                s.write(writeHandle, offset, new ByteArrayInputStream(data, offset, writeSize), writeSize, TIMEOUT).join();
+            }
+
+            // Read everything.
+            byte[] readBuffer = new byte[length];
+            int bytesRead = s.read(writeHandle, 0, readBuffer, 0, length, TIMEOUT).join();
+            Assert.assertEquals("Unexpected number of bytes read.", length, bytesRead);
+            Assert.assertArrayEquals("Unexpected data read.", data, readBuffer);
+
+            // Read a range that does not align with the parts, into a buffer offset.
+            final int readOffset = writeSize / 2;
+            final int readLength = partSize + writeSize;
+            readBuffer = new byte[readLength + 1];
+            bytesRead = s.read(writeHandle, readOffset, readBuffer, 1, readLength, TIMEOUT).join();
+            Assert.assertEquals("Unexpected number of bytes read for partial read.", readLength, bytesRead);
+            AssertExtensions.assertArrayEquals("Unexpected data read for partial read.", data, readOffset, readBuffer, 1, readLength);
+        }
+    }
+
+    /**
+     * Tests the ability to delete multiple Segments using a single multi-object delete request.
+     */
+    @Test
+    public void testDeleteAll() throws Exception {
+        final int segmentCount = 10;
+        val segmentNames = IntStream.range(0, segmentCount).mapToObj(i -> "foo_delete_all_" + i).collect(Collectors.toList());
+        try (ExtendedS3Storage s = new ExtendedS3Storage(setup.client, setup.adapterConfig, executorService())) {
+            s.initialize(DEFAULT_EPOCH);
+            for (String segmentName : segmentNames) {
+                s.create(segmentName);
+            }
+
+            s.deleteAll(segmentNames.subList(0, segmentCount / 2));
+            for (int i = 0; i < segmentCount; i++) {
+                Assert.assertEquals("Unexpected existence for " + segmentNames.get(i), i >= segmentCount / 2, s.exists(segmentNames.get(i)));
+            }
+        }
+    }
+
     private static Storage createStorage(S3Client client, ExtendedS3StorageConfig adapterConfig, Executor executor) {
         // We can't use the factory here because we're setting our own (mock) client.
-        ExtendedS3Storage storage = new ExtendedS3Storage(client, adapterConfig);
+        ExtendedS3Storage storage = new ExtendedS3Storage(client, adapterConfig, executor);
         return new AsyncStorageWrapper(storage, executor);
     }
 
@@ -113,7 +182,7 @@ public class ExtendedS3StorageTest extends IdempotentStorageTestBase {
 
         @Override
         protected Storage createStorage() {
-            ExtendedS3Storage storage = new ExtendedS3Storage(setup.client, setup.adapterConfig);
+            ExtendedS3Storage storage = new ExtendedS3Storage(setup.client, setup.adapterConfig, executorService());
             return wrap(storage);
         }
     }
@@ -244,6 +244,7 @@ public class S3FileSystemImpl extends S3ImplBase {
                     Path targetPath = Paths.get(this.baseDir, copyPart.getBucketName(), copyPart.getKey());
                     try (FileChannel sourceChannel = FileChannel.open(sourcePath, StandardOpenOption.READ);
                          FileChannel targetChannel = FileChannel.open(targetPath, StandardOpenOption.WRITE)) {
+                        sourceChannel.position(copyPart.getSourceRange().getFirst());
                         targetChannel.transferFrom(sourceChannel, Files.size(targetPath),
                                 copyPart.getSourceRange().getLast() + 1 - copyPart.getSourceRange().getFirst());
                         targetChannel.close();
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import io.pravega.common.io.FileHelpers;
+import io.pravega.test.common.AssertExtensions;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Collections;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the FileChannelPool class.
+ */
+public class FileChannelPoolTest {
+    private static final int MAX_SIZE = 2;
+    private static final byte[] DATA = "FileChannelPoolTest".getBytes();
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+    private File baseDir = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.baseDir = Files.createTempDirectory("test_channel_pool").toFile().getAbsoluteFile();
+    }
+
+    @After
+    public void tearDown() {
+        FileHelpers.deleteFileOrDirectory(this.baseDir);
+        this.baseDir = null;
+    }
+
+    /**
+     * Tests the acquire() and release methods, including LRU eviction.
+     */
+    @Test
+    public void testAcquireRelease() throws Exception {
+        @Cleanup
+        val pool = new FileChannelPool(this.baseDir.getAbsolutePath(), MAX_SIZE, false);
+        createFile("a");
+        createFile("b");
+        createFile("c");
+
+        val a = pool.acquire("a");
+        a.close();
+        val b = pool.acquire("b");
+        b.close();
+        Assert.assertSame("Expected a pooled channel to be reused.", a, pool.acquire("a"));
+        a.close();
+
+        // "b" is now the least recently used, so it should be evicted and closed.
+        val c = pool.acquire("c");
+        Assert.assertFalse("Expected evicted channel to be closed.", b.getChannel().isOpen());
+        Assert.assertTrue("Not expecting an in-use channel to be closed.", c.getChannel().isOpen());
+        Assert.assertTrue("Not expecting a recently used channel to be closed.", a.getChannel().isOpen());
+
+        // Evict "c" while it is in use; it should only be closed when released.
+        pool.acquire("b").close();
+        pool.acquire("a").close();
+        Assert.assertTrue("Not expecting an in-use channel to be closed upon eviction.", c.getChannel().isOpen());
+        c.close();
+        Assert.assertFalse("Expected evicted channel to be closed upon release.", c.getChannel().isOpen());
+
+        AssertExtensions.assertThrows(
+                "acquire() did not throw for a non-existent file.",
+                () -> pool.acquire("d"),
+                ex -> ex instanceof NoSuchFileException);
+
+        pool.close();
+        Assert.assertFalse("Expected pooled channels to be closed when the pool is closed.", a.getChannel().isOpen());
+    }
+
+    /**
+     * Tests the invalidate() method.
+     */
+    @Test
+    public void testInvalidate() throws Exception {
+        @Cleanup
+        val pool = new FileChannelPool(this.baseDir.getAbsolutePath(), MAX_SIZE, false);
+        Path path = createFile("a");
+        val a1 = pool.acquire("a");
+        Assert.assertFalse("Unexpected sealed state.", a1.isSealed());
+        Assert.assertEquals("Unexpected cached length.", DATA.length, a1.getLength());
+
+        // Modify the file and invalidate the channel while it is in use.
+        Files.write(path, DATA, StandardOpenOption.APPEND);
+        Files.setPosixFilePermissions(path, Collections.singleton(PosixFilePermission.OWNER_READ));
+        pool.invalidate("a");
+        Assert.assertTrue("Not expecting an in-use channel to be closed upon invalidation.", a1.getChannel().isOpen());
+        Assert.assertEquals("Unexpected cached length before refresh.", DATA.length, a1.getLength());
+        Assert.assertEquals("Unexpected cached length after refresh.", 2 * DATA.length, a1.refreshLength());
+        a1.close();
+        Assert.assertFalse("Expected invalidated channel to be closed upon release.", a1.getChannel().isOpen());
+
+        @Cleanup
+        val a2 = pool.acquire("a");
+        Assert.assertNotSame("Expected a new channel after invalidation.", a1, a2);
+        Assert.assertTrue("Unexpected sealed state after invalidation.", a2.isSealed());
+        Assert.assertEquals("Unexpected cached length after invalidation.", 2 * DATA.length, a2.getLength());
+        Assert.assertNull("Not expecting a mapped view if not enabled.", a2.getMappedView());
+    }
+
+    /**
+     * Tests memory-mapped views and the case when pooling is disabled.
+     */
+    @Test
+    public void testMappedViewNoPooling() throws Exception {
+        @Cleanup
+        val pool = new FileChannelPool(this.baseDir.getAbsolutePath(), 0, true);
+        Path path = createFile("a");
+        val a1 = pool.acquire("a");
+        Assert.assertNull("Not expecting a mapped view for a non-sealed file.", a1.getMappedView());
+        a1.close();
+        Assert.assertFalse("Expected channel to be closed upon release if pooling is disabled.", a1.getChannel().isOpen());
+
+        Files.setPosixFilePermissions(path, Collections.singleton(PosixFilePermission.OWNER_READ));
+        @Cleanup
+        val a2 = pool.acquire("a");
+        ByteBuffer view = a2.getMappedView();
+        Assert.assertNotNull("Expected a mapped view for a sealed file.", view);
+        byte[] contents = new byte[view.remaining()];
+        view.get(contents);
+        Assert.assertArrayEquals("Unexpected mapped view contents.", DATA, contents);
+        Assert.assertEquals("Expected mapped views to have independent positions.", 0, a2.getMappedView().position());
+    }
+
+    private Path createFile(String name) throws Exception {
+        Path path = this.baseDir.toPath().resolve(name);
+        Files.write(path, DATA);
+        return path;
+    }
+}
@@ -12,6 +12,7 @@ package io.pravega.segmentstore.storage.impl.filesystem;
 import io.pravega.common.io.FileHelpers;
 import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.impl.IdempotentStorageTestBase;
@@ -130,6 +131,40 @@ public class FileSystemStorageTest extends IdempotentStorageTestBase {
         }
     }
 
+    /**
+     * Tests write() when the Segment is sealed or unsealed by another FileSystemStorage instance (i.e., on another host),
+     * while this instance still has the Segment's file in its FileChannelPool.
+     *
+     * @throws Exception if an unexpected error occurred.
+     */
+    @Test(timeout = 30000)
+    public void testWriteAfterSealByOtherInstance() throws Exception {
+        String segmentName = "foo_seal_other";
+        byte[] writeData = "hello".getBytes();
+        try (Storage s = createStorage();
+             FileSystemStorage other = new FileSystemStorage(this.adapterConfig)) {
+            s.initialize(DEFAULT_EPOCH);
+            other.initialize(DEFAULT_EPOCH);
+            s.create(segmentName, TIMEOUT).join();
+            val writeHandle = s.openWrite(segmentName).join();
+            s.write(writeHandle, 0, new ByteArrayInputStream(writeData), writeData.length, TIMEOUT).join();
+
+            // Seal through the other instance; this one still has a writable FileChannel pooled for the Segment.
+            other.seal(other.openWrite(segmentName));
+            assertThrows("write() did not throw for a Segment sealed by another instance.",
+                    () -> s.write(writeHandle, writeData.length, new ByteArrayInputStream(writeData), writeData.length, TIMEOUT),
+                    ex -> ex instanceof StreamSegmentSealedException);
+
+            // Read from the sealed Segment, which pools a read-only FileChannel, then unseal through the other instance.
+            byte[] readBuffer = new byte[writeData.length];
+            s.read(s.openRead(segmentName).join(), 0, readBuffer, 0, readBuffer.length, TIMEOUT).join();
+            other.unseal(other.openWrite(segmentName));
+            s.write(writeHandle, writeData.length, new ByteArrayInputStream(writeData), writeData.length, TIMEOUT).join();
+            Assert.assertEquals("Unexpected length after writing to an unsealed Segment.",
+                    2 * writeData.length, s.getStreamSegmentInfo(segmentName, TIMEOUT).join().getLength());
+        }
+    }
+
     //endregion
 
     @Override
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.hdfs;
+
+import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import lombok.Cleanup;
+import lombok.val;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the HDFSStreamCache class.
+ */
+public class HDFSStreamCacheTests {
+    private static final int TIMEOUT_SECONDS = 30;
+    private static final int CACHE_SIZE = 2;
+    private static final int WRITE_SIZE = 100;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT_SECONDS);
+
+    /**
+     * Tests that consecutive writes to the same file reuse the same Writer and that the Writer's length is tracked.
+     */
+    @Test
+    public void testWriterReuse() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        @Cleanup
+        val cache = newCache(fs);
+        val path = createFile(fs, "file");
+        Assert.assertEquals("Unexpected writer length when no Writer is cached.", -1, cache.getWriterLength(path));
+
+        HDFSStreamCache.Writer firstWriter;
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            firstWriter = w;
+            w.write(new ByteArrayInputStream(new byte[WRITE_SIZE]), WRITE_SIZE);
+        }
+
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            Assert.assertSame("Expected the same Writer to be reused.", firstWriter, w);
+            w.write(new ByteArrayInputStream(new byte[WRITE_SIZE]), WRITE_SIZE);
+        }
+
+        Assert.assertEquals("Unexpected writer length.", 2 * WRITE_SIZE, cache.getWriterLength(path));
+        Assert.assertEquals("Unexpected file length.", 2 * WRITE_SIZE, fs.getFileStatus(path).getLen());
+
+        cache.invalidate(path);
+        Assert.assertEquals("Unexpected writer length after invalidation.", -1, cache.getWriterLength(path));
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            Assert.assertNotSame("Expected a new Writer after invalidation.", firstWriter, w);
+            Assert.assertEquals("Unexpected length for new Writer.", 2 * WRITE_SIZE, w.getLength());
+        }
+    }
+
+    /**
+     * Tests that the least recently used streams are evicted when the cache is full and that non-existent files cannot
+     * be opened.
+     */
+    @Test
+    public void testEviction() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        @Cleanup
+        val cache = newCache(fs);
+        val paths = new Path[CACHE_SIZE + 1];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = createFile(fs, "file" + i);
+            cache.acquireWriter(paths[i]).close();
+        }
+
+        Assert.assertEquals("LRU Writer was not evicted.", -1, cache.getWriterLength(paths[0]));
+        for (int i = 1; i < paths.length; i++) {
+            Assert.assertEquals("Writer was unexpectedly evicted.", 0, cache.getWriterLength(paths[i]));
+        }
+
+        AssertExtensions.assertThrows(
+                "acquireWriter worked for a non-existent file.",
+                () -> cache.acquireWriter(new Path("/missing")),
+                ex -> ex instanceof FileNotFoundException);
+    }
+
+    /**
+     * Tests that a cached Writer cannot be used anymore after the file has been made read-only (fenced out) or deleted.
+     */
+    @Test
+    public void testWriterLeaseRevoked() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        @Cleanup
+        val cache = newCache(fs);
+        val path = createFile(fs, "file");
+        cache.acquireWriter(path).close();
+
+        val context = FileSystemOperationTestBase.newContext(0, fs);
+        context.makeReadOnly(new FileDescriptor(path, 0, 0, 0, false));
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            AssertExtensions.assertThrows(
+                    "Write succeeded on a read-only file.",
+                    () -> w.write(new ByteArrayInputStream(new byte[WRITE_SIZE]), WRITE_SIZE),
+                    ex -> ex instanceof IOException);
+        }
+
+        Assert.assertEquals("Unexpected file length.", 0, fs.getFileStatus(path).getLen());
+    }
+
+    /**
+     * Tests that Readers are reused as long as they can serve the requested range, and replaced otherwise.
+     */
+    @Test
+    public void testReaderReuse() throws Exception {
+        @Cleanup
+        val fs = new MockFileSystem();
+        @Cleanup
+        val cache = newCache(fs);
+        val path = createFile(fs, "file");
+        byte[] data = new byte[2 * WRITE_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            w.write(new ByteArrayInputStream(data, 0, WRITE_SIZE), WRITE_SIZE);
+        }
+
+        HDFSStreamCache.Reader firstReader;
+        byte[] readBuffer = new byte[data.length];
+        try (HDFSStreamCache.Reader r = cache.acquireReader(path, WRITE_SIZE)) {
+            firstReader = r;
+            r.readFully(0, readBuffer, 0, WRITE_SIZE);
+        }
+
+        try (HDFSStreamCache.Reader r = cache.acquireReader(path, WRITE_SIZE / 2)) {
+            Assert.assertSame("Expected the same Reader to be reused.", firstReader, r);
+        }
+
+        // Grow the file; the existing Reader may not see the new data.
+        try (HDFSStreamCache.Writer w = cache.acquireWriter(path)) {
+            w.write(new ByteArrayInputStream(data, WRITE_SIZE, WRITE_SIZE), WRITE_SIZE);
+        }
+
+        try (HDFSStreamCache.Reader r = cache.acquireReader(path, data.length)) {
+            Assert.assertNotSame("Expected a new Reader after the file grew.", firstReader, r);
+            r.readFully(WRITE_SIZE, readBuffer, WRITE_SIZE, WRITE_SIZE);
+        }
+
+        Assert.assertArrayEquals("Unexpected data read.", data, readBuffer);
+    }
+
+    private HDFSStreamCache newCache(MockFileSystem fs) {
+        return new HDFSStreamCache(fs, HDFSStorageConfig
+                .builder()
+                .with(HDFSStorageConfig.WRITE_STREAM_CACHE_SIZE, CACHE_SIZE)
+                .with(HDFSStorageConfig.READ_STREAM_CACHE_SIZE, CACHE_SIZE)
+                .build());
+    }
+
+    private Path createFile(MockFileSystem fs, String name) throws IOException {
+        val path = new Path("/" + name);
+        fs.create(path).close();
+        return path;
+    }
+}
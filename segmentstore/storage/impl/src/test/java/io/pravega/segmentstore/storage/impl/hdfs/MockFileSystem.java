@@ -13,6 +13,7 @@ import com.google.common.base.Preconditions;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -69,7 +70,7 @@ class MockFileSystem extends FileSystem {
 
     @Override
     public FSDataOutputStream create(Path f, FsPermission permission, boolean overwrite, int bufferSize, short replication, long blockSize, Progressable progress) throws IOException {
-        FSDataOutputStream result = new FSDataOutputStream(createInternal(f).contents, null);
+        FSDataOutputStream result = new FSDataOutputStream(new LeasedOutputStream(createInternal(f)), null);
         invokeCustomAction(this.onCreate, f);
         return result;
     }
@@ -86,7 +87,7 @@ class MockFileSystem extends FileSystem {
             throw HDFSExceptionHelpers.segmentSealedException(f.getName());
         }
 
-        return new FSDataOutputStream(data.contents, null, data.contents.size());
+        return new FSDataOutputStream(new LeasedOutputStream(data), null, data.contents.size());
     }
 
     @Override
@@ -362,6 +363,46 @@ class MockFileSystem extends FileSystem {
 
     //endregion
 
+    //region LeasedOutputStream
+
+    /**
+     * OutputStream that writes into a file's contents for as long as the file exists and is not read-only. This mimics
+     * HDFS revoking the lease of an open writer once the file is made read-only (fenced out) or deleted.
+     */
+    @RequiredArgsConstructor
+    private class LeasedOutputStream extends OutputStream {
+        private final FileData data;
+
+        @Override
+        public void write(int b) throws IOException {
+            checkLease();
+            this.data.contents.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkLease();
+            this.data.contents.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkLease();
+        }
+
+        private void checkLease() throws IOException {
+            synchronized (files) {
+                if (files.get(this.data.path) != this.data) {
+                    throw HDFSExceptionHelpers.segmentNotExistsException(this.data.path.getName());
+                } else if (this.data.getStatus().getPermission().getUserAction() == FsAction.READ) {
+                    throw HDFSExceptionHelpers.segmentSealedException(this.data.path.getName());
+                }
+            }
+        }
+    }
+
+    //endregion
+
     //region SeekableInputStream
 
     /**
@@ -51,6 +51,17 @@ public interface Cache extends AutoCloseable {
      */
     void remove(Key key);
 
+    /**
+     * Gets the number of bytes that this Cache uses to store an entry of the given length. Cache implementations that
+     * allocate memory in fixed-size units should override this, so that users can account for their actual usage.
+     *
+     * @param length The length of the entry.
+     * @return The number of bytes used to store it. By default, this is the length itself.
+     */
+    default long getStoredLength(int length) {
+        return length;
+    }
+
     /**
      * Closes this cache and releases all resources owned by it.
      */
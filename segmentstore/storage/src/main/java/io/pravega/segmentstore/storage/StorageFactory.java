@@ -17,4 +17,14 @@ public interface StorageFactory {
      * Creates a new instance of a Storage adapter.
      */
     Storage createStorageAdapter();
+
+    /**
+     * Creates a new instance of a Storage adapter for use by a particular Segment Container. Implementations may use the
+     * Container Id to keep Container-specific state (such as background tasks) apart.
+     *
+     * @param containerId The Id of the Segment Container that will use the Storage adapter.
+     */
+    default Storage createStorageAdapter(int containerId) {
+        return createStorageAdapter();
+    }
 }
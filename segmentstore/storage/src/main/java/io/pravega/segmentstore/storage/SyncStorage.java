@@ -15,6 +15,7 @@ import io.pravega.segmentstore.contracts.StreamSegmentException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import java.io.InputStream;
+import java.util.Collection;
 
 /**
  * Defines an abstraction for Permanent Storage.
@@ -124,6 +125,24 @@ public interface SyncStorage extends AutoCloseable {
      */
     void delete(SegmentHandle handle) throws StreamSegmentException;
 
+    /**
+     * Deletes the given StreamSegments, ignoring those that do not exist. Implementations that can delete multiple
+     * Segments using a single request should override this; by default each Segment is opened and deleted in turn.
+     *
+     * @param streamSegmentNames The names of the StreamSegments to delete.
+     * @throws StorageNotPrimaryException When this Storage instance is no longer primary for one of the Segments (it was
+     *                                    fenced out).
+     */
+    default void deleteAll(Collection<String> streamSegmentNames) throws StreamSegmentException {
+        for (String streamSegmentName : streamSegmentNames) {
+            try {
+                delete(openWrite(streamSegmentName));
+            } catch (StreamSegmentNotExistsException ex) {
+                // Nothing to do; it's already gone.
+            }
+        }
+    }
+
     /**
      * Writes the given data to the StreamSegment.
      *
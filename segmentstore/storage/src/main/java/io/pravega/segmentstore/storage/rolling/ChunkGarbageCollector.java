@@ -0,0 +1,678 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.rolling;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.StorageNotPrimaryException;
+import io.pravega.segmentstore.storage.SyncStorage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Deletes SegmentChunks in the background, on behalf of a RollingStorage.
+ * <p>
+ * SegmentChunks that are no longer needed (after a Segment is truncated or deleted) are first recorded in a journal in
+ * the base Storage, and then deleted in batches, at a limited rate. Since a Segment may be re-created with the same name
+ * (and thus reuse SegmentChunk names), every completed deletion is also recorded in the journal. The journal is replayed
+ * upon initialization, so no deletions are lost if the process crashes.
+ * <p>
+ * The journal is made up of two Segments which are used alternately. Each begins with a sequence number and a snapshot of
+ * all SegmentChunks that were pending deletion when it was created, followed by a checkpoint record; a journal Segment
+ * without that checkpoint record is incomplete and is ignored. The journal is compacted (by switching over to the other
+ * Segment) whenever it gets too large, as well as upon initialization.
+ * <p>
+ * The background task claims a whole batch of SegmentChunks at once and deletes it using a single SyncStorage.deleteAll()
+ * call (which some implementations, such as Extended S3, turn into a single request); deleteIfPending() claims and deletes
+ * one SegmentChunk. No locks are held while deleting.
+ * <p>
+ * A new owner of the Container takes over the journal upon initialization, which removes the previous journal Segment.
+ * Not all base Storage implementations fence out deletions made by a previous owner, so the journal doubles as the
+ * ownership marker: every deletion is immediately preceded by a check that our journal is still in place, and this
+ * instance stops for good (as does everything else in this class) once it detects that it has been fenced out this way
+ * or by the base Storage itself. A previous owner can therefore only delete a SegmentChunk that the new owner has since
+ * re-created if the takeover happens while that very deleteAll() call is in flight.
+ */
+@Slf4j
+@ThreadSafe
+public class ChunkGarbageCollector implements AutoCloseable {
+    //region Members
+
+    private static final int JOURNAL_SLOT_COUNT = 2;
+    private static final byte RECORD_CHECKPOINT = 0;
+    private static final byte RECORD_DELETE = 1;
+    private static final byte RECORD_DELETED = 2;
+    private static final Duration FAILURE_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final String traceObjectId;
+    private final String journalName;
+    private final SyncStorage baseStorage;
+    private final ChunkGarbageCollectorConfig config;
+    private final ScheduledExecutorService executor;
+    private final ChunkGarbageCollectorMetrics metrics;
+    private final Object journalLock = new Object();
+    @GuardedBy("journalLock")
+    private Journal journal;
+    @GuardedBy("pending")
+    private final LinkedHashSet<String> pending;
+    @GuardedBy("pending")
+    private final HashMap<String, CompletableFuture<Void>> inProgress;
+    @GuardedBy("pending")
+    private CompletableFuture<Void> workAvailable;
+    private final AtomicBoolean closed;
+    private final AtomicBoolean fenced;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ChunkGarbageCollector class.
+     *
+     * @param containerId The Id of the Container that owns the RollingStorage. Each Container has its own journal.
+     * @param baseStorage The SyncStorage to delete SegmentChunks from and store the journal in. This must be the same
+     *                    SyncStorage that is used by the RollingStorage.
+     * @param config      The ChunkGarbageCollectorConfig to use.
+     * @param executor    An Executor to run the deletions on.
+     */
+    public ChunkGarbageCollector(int containerId, SyncStorage baseStorage, ChunkGarbageCollectorConfig config, ScheduledExecutorService executor) {
+        this.baseStorage = Preconditions.checkNotNull(baseStorage, "baseStorage");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.traceObjectId = String.format("ChunkGarbageCollector[%d]", containerId);
+        this.journalName = StreamSegmentNameUtils.getChunkDeletionJournalName(containerId);
+        this.metrics = new ChunkGarbageCollectorMetrics(containerId);
+        this.pending = new LinkedHashSet<>();
+        this.inProgress = new HashMap<>();
+        this.closed = new AtomicBoolean();
+        this.fenced = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            CompletableFuture<Void> toComplete;
+            synchronized (this.pending) {
+                toComplete = this.workAvailable;
+                this.workAvailable = null;
+            }
+
+            if (toComplete != null) {
+                // Unblock the background task so that it can notice we are closed.
+                toComplete.complete(null);
+            }
+
+            this.metrics.close();
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Recovers all pending SegmentChunk deletions from the journal and begins deleting them in the background. This must
+     * be invoked after the base Storage has been initialized.
+     */
+    @SneakyThrows(StreamSegmentException.class)
+    void initialize() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        int pendingCount;
+        synchronized (this.journalLock) {
+            Preconditions.checkState(this.journal == null, "ChunkGarbageCollector is already initialized.");
+            JournalContents latest = null;
+            for (int slot = 0; slot < JOURNAL_SLOT_COUNT; slot++) {
+                JournalContents contents = readJournal(getJournalName(slot));
+                if (contents != null && contents.complete && (latest == null || contents.sequence > latest.sequence)) {
+                    latest = contents;
+                }
+            }
+
+            synchronized (this.pending) {
+                if (latest != null) {
+                    this.pending.addAll(latest.chunkNames);
+                }
+
+                pendingCount = this.pending.size();
+            }
+
+            // We may have crashed while writing to the journal, so we cannot append to it anymore. Start a new one.
+            rollover(latest == null ? 0 : latest.sequence + 1, latest == null ? null : latest.name);
+        }
+
+        log.info("{}: Initialized. Pending SegmentChunk deletions: {}.", this.traceObjectId, pendingCount);
+        this.metrics.queueSize(pendingCount);
+        Futures.loop(
+                () -> !this.closed.get() && !this.fenced.get(),
+                this::runOnce,
+                this.executor)
+               .exceptionally(ex -> {
+                   log.error("{}: Background deletion task failed. No more SegmentChunks will be deleted.", this.traceObjectId, ex);
+                   return null;
+               });
+    }
+
+    /**
+     * Records the given SegmentChunks in the journal and schedules them for deletion. When this method returns, the
+     * SegmentChunks are guaranteed to be eventually deleted.
+     *
+     * @param chunkNames The names of the SegmentChunks to delete.
+     * @throws StreamSegmentException If the journal could not be updated. In this case, none of the SegmentChunks are
+     *                                scheduled for deletion. If we have been fenced out, this will be a
+     *                                StorageNotPrimaryException.
+     */
+    void enqueue(Collection<String> chunkNames) throws StreamSegmentException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        checkNotFenced();
+        if (chunkNames.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<Void> toComplete;
+        int pendingCount;
+        synchronized (this.journalLock) {
+            Preconditions.checkState(this.journal != null, "ChunkGarbageCollector is not initialized.");
+            appendToJournal(RECORD_DELETE, chunkNames);
+
+            // This must be done while holding the journal lock, otherwise a concurrent rollover may not include them.
+            synchronized (this.pending) {
+                this.pending.addAll(chunkNames);
+                pendingCount = this.pending.size();
+                toComplete = this.workAvailable;
+                this.workAvailable = null;
+            }
+        }
+
+        log.debug("{}: Scheduled {} SegmentChunk(s) for deletion.", this.traceObjectId, chunkNames.size());
+        this.metrics.queueSize(pendingCount);
+        if (toComplete != null) {
+            toComplete.complete(null);
+        }
+    }
+
+    /**
+     * Gets a value indicating whether the given SegmentChunk is pending deletion.
+     *
+     * @param chunkName The name of the SegmentChunk.
+     * @return True if pending deletion, false otherwise.
+     */
+    boolean isPending(String chunkName) {
+        synchronized (this.pending) {
+            return this.pending.contains(chunkName) || this.inProgress.containsKey(chunkName);
+        }
+    }
+
+    /**
+     * Gets the number of SegmentChunks pending deletion.
+     *
+     * @return The number of SegmentChunks.
+     */
+    int getPendingCount() {
+        synchronized (this.pending) {
+            return this.pending.size() + this.inProgress.size();
+        }
+    }
+
+    /**
+     * Gets a value indicating whether this ChunkGarbageCollector has detected that it has been fenced out by a new owner.
+     */
+    @VisibleForTesting
+    boolean isFenced() {
+        return this.fenced.get();
+    }
+
+    /**
+     * If the given SegmentChunk is pending deletion, deletes it right away. This must be invoked before (re-)creating a
+     * SegmentChunk, otherwise the new SegmentChunk may be deleted instead of the old one.
+     * <p>
+     * The SegmentChunk is taken out of the pending set (so the background task will skip it) and deleted on the calling
+     * thread. The only time this waits for the background task is if it is already in the middle of deleting this very
+     * SegmentChunk; SegmentChunks are only claimed by a running background task, so that wait is always bounded.
+     *
+     * @param chunkName The name of the SegmentChunk.
+     * @throws StreamSegmentException If the SegmentChunk could not be deleted. In this case, it remains pending deletion.
+     */
+    void deleteIfPending(String chunkName) throws StreamSegmentException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        checkNotFenced();
+        while (!claim(chunkName)) {
+            CompletableFuture<Void> deletion;
+            synchronized (this.pending) {
+                deletion = this.inProgress.get(chunkName);
+            }
+
+            if (deletion == null) {
+                // Not pending deletion.
+                return;
+            }
+
+            deletion.join();
+        }
+
+        val chunkNames = Collections.singletonList(chunkName);
+        boolean deleted = false;
+        try {
+            synchronized (this.journalLock) {
+                checkOwnership();
+            }
+
+            this.baseStorage.deleteAll(chunkNames);
+            synchronized (this.journalLock) {
+                appendToJournal(RECORD_DELETED, chunkNames);
+            }
+
+            deleted = true;
+        } catch (StorageNotPrimaryException ex) {
+            fence(ex);
+            throw ex;
+        } finally {
+            release(chunkNames, deleted);
+        }
+
+        log.debug("{}: Deleted pending SegmentChunk '{}' ahead of schedule.", this.traceObjectId, chunkName);
+    }
+
+    //endregion
+
+    //region Background Deletion
+
+    private CompletableFuture<Void> runOnce() {
+        List<String> batch = takeBatch();
+        if (batch == null) {
+            return waitForWork();
+        }
+
+        return CompletableFuture
+                .supplyAsync(() -> deleteBatch(batch), this.executor)
+                .thenCompose(success -> Futures.delayedFuture(success ? getThrottleDelay(batch) : FAILURE_RETRY_DELAY, this.executor));
+    }
+
+    /**
+     * Picks the next SegmentChunks to delete. These are not claimed yet; deleteBatch() claims them.
+     */
+    private List<String> takeBatch() {
+        synchronized (this.pending) {
+            if (this.pending.isEmpty()) {
+                return null;
+            }
+
+            List<String> chunkNames = new ArrayList<>();
+            Iterator<String> iterator = this.pending.iterator();
+            while (iterator.hasNext() && chunkNames.size() < this.config.getMaxBatchSize()) {
+                chunkNames.add(iterator.next());
+            }
+
+            return chunkNames;
+        }
+    }
+
+    private CompletableFuture<Void> waitForWork() {
+        synchronized (this.pending) {
+            if (!this.pending.isEmpty() || this.closed.get()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            this.workAvailable = new CompletableFuture<>();
+            return this.workAvailable;
+        }
+    }
+
+    private boolean deleteBatch(List<String> candidates) {
+        Timer timer = new Timer();
+
+        // Claim the whole batch first. Any of these may have been deleted via deleteIfPending() in the meantime.
+        List<String> chunkNames = new ArrayList<>(candidates.size());
+        for (String chunkName : candidates) {
+            if (claim(chunkName)) {
+                chunkNames.add(chunkName);
+            }
+        }
+
+        if (chunkNames.isEmpty()) {
+            return true;
+        }
+
+        Exception failure = null;
+        try {
+            synchronized (this.journalLock) {
+                checkOwnership();
+            }
+
+            this.baseStorage.deleteAll(chunkNames);
+            synchronized (this.journalLock) {
+                appendToJournal(RECORD_DELETED, chunkNames);
+                if (this.journal.length >= this.config.getJournalRolloverSizeBytes()) {
+                    compactJournal();
+                }
+            }
+        } catch (Exception ex) {
+            // Some (or all) of these may be gone, but we could not record it. Keep them all pending; deleting them again
+            // is harmless.
+            failure = ex;
+        }
+
+        int pendingCount = release(chunkNames, failure == null);
+        if (failure == null) {
+            log.debug("{}: Deleted {} SegmentChunk(s); {} remaining.", this.traceObjectId, chunkNames.size(), pendingCount);
+            this.metrics.batchDeleted(chunkNames.size(), timer.getElapsed());
+            return true;
+        } else if (failure instanceof StorageNotPrimaryException) {
+            fence((StorageNotPrimaryException) failure);
+        } else {
+            // Nothing is lost: the SegmentChunks are still pending deletion, and we'll retry them.
+            log.warn("{}: Unable to delete {} SegmentChunk(s). Will retry.", this.traceObjectId, chunkNames.size(), failure);
+        }
+
+        this.metrics.batchFailed(timer.getElapsed());
+        return false;
+    }
+
+    /**
+     * Claims the given SegmentChunk for deletion by the caller, if it is pending deletion and not already claimed.
+     *
+     * @return True if claimed (in which case release() must be invoked when done), false otherwise.
+     */
+    private boolean claim(String chunkName) {
+        synchronized (this.pending) {
+            if (this.pending.remove(chunkName)) {
+                this.inProgress.put(chunkName, new CompletableFuture<>());
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Releases the given claimed SegmentChunks.
+     *
+     * @param chunkNames The SegmentChunks to release.
+     * @param deleted    If true, the SegmentChunks have been deleted (and recorded so in the journal). If false, they
+     *                   are put back in the pending set.
+     * @return The number of SegmentChunks pending deletion.
+     */
+    private int release(Collection<String> chunkNames, boolean deleted) {
+        List<CompletableFuture<Void>> toComplete = new ArrayList<>();
+        int pendingCount;
+        synchronized (this.pending) {
+            for (String chunkName : chunkNames) {
+                toComplete.add(this.inProgress.remove(chunkName));
+                if (!deleted) {
+                    this.pending.add(chunkName);
+                }
+            }
+
+            pendingCount = this.pending.size() + this.inProgress.size();
+        }
+
+        toComplete.forEach(f -> f.complete(null));
+        this.metrics.queueSize(pendingCount);
+        return pendingCount;
+    }
+
+    private Duration getThrottleDelay(List<String> batch) {
+        return Duration.ofMillis(batch.size() * 1000L / this.config.getMaxDeletesPerSecond());
+    }
+
+    //endregion
+
+    //region Fencing
+
+    /**
+     * Verifies that the journal we are using is still in place. A new owner of the Container will have removed it (or
+     * replaced it) when it took over.
+     *
+     * @throws StorageNotPrimaryException If we have been fenced out.
+     */
+    @GuardedBy("journalLock")
+    private void checkOwnership() throws StreamSegmentException {
+        checkNotFenced();
+        long length;
+        try {
+            length = this.baseStorage.getStreamSegmentInfo(this.journal.name).getLength();
+        } catch (StreamSegmentNotExistsException ex) {
+            length = -1;
+        }
+
+        // If a previous write failed, it may have left a partial record at the end of the journal, so we only know what
+        // its minimum length should be.
+        boolean owned = this.journal.broken ? length >= this.journal.length : length == this.journal.length;
+        if (!owned) {
+            StorageNotPrimaryException ex = new StorageNotPrimaryException(this.journal.name,
+                    String.format("Journal length is %d, expected %d.", length, this.journal.length));
+            fence(ex);
+            throw ex;
+        }
+    }
+
+    private void checkNotFenced() throws StorageNotPrimaryException {
+        if (this.fenced.get()) {
+            throw new StorageNotPrimaryException(this.journalName, "ChunkGarbageCollector has been fenced out.");
+        }
+    }
+
+    private void fence(StorageNotPrimaryException ex) {
+        if (!this.fenced.getAndSet(true)) {
+            log.warn("{}: Fenced out by a new owner; no more SegmentChunks will be deleted by this instance.", this.traceObjectId, ex);
+        }
+    }
+
+    //endregion
+
+    //region Journal
+
+    @GuardedBy("journalLock")
+    private void appendToJournal(byte recordType, Collection<String> chunkNames) throws StreamSegmentException {
+        checkNotFenced();
+        if (this.journal.broken) {
+            // A previous write failed and may have left a partial record at the end. Do not append after it.
+            compactJournal();
+        }
+
+        byte[] data = serialize(recordType, chunkNames, null);
+        try {
+            this.baseStorage.write(this.journal.handle, this.journal.length, new ByteArrayInputStream(data), data.length);
+            this.journal.length += data.length;
+        } catch (StorageNotPrimaryException | StreamSegmentNotExistsException ex) {
+            // Someone else has taken over the journal (either by fencing it out or by rolling it over).
+            StorageNotPrimaryException fenceEx = ex instanceof StorageNotPrimaryException
+                    ? (StorageNotPrimaryException) ex
+                    : new StorageNotPrimaryException(this.journal.name, ex);
+            fence(fenceEx);
+            throw fenceEx;
+        } catch (Exception ex) {
+            this.journal.broken = true;
+            throw ex;
+        }
+    }
+
+    @GuardedBy("journalLock")
+    private void compactJournal() {
+        try {
+            // Rolling over deletes the other journal Segment, which a new owner may be using. Make sure we are still in charge.
+            checkOwnership();
+
+            rollover(this.journal.sequence + 1, this.journal.name);
+        } catch (Exception ex) {
+            // We can keep going with the existing journal (if not broken); we'll try again later.
+            log.warn("{}: Unable to compact journal '{}'.", this.traceObjectId, this.journal.name, ex);
+        }
+    }
+
+    /**
+     * Creates a new journal Segment, writes a snapshot of all pending SegmentChunks to it, switches to it and then deletes
+     * the previous journal Segment.
+     */
+    @GuardedBy("journalLock")
+    private void rollover(long newSequence, String previousName) throws StreamSegmentException {
+        // SegmentChunks that are being deleted right now have not been recorded as deleted yet.
+        List<String> snapshot;
+        synchronized (this.pending) {
+            snapshot = new ArrayList<>(this.pending);
+            snapshot.addAll(this.inProgress.keySet());
+        }
+
+        String newName = getJournalName(newSequence);
+        Preconditions.checkState(!newName.equals(previousName), "New journal name collides with the previous one.");
+        this.baseStorage.deleteAll(Collections.singletonList(newName)); // Leftover from an earlier, incomplete, rollover.
+        this.baseStorage.create(newName);
+        SegmentHandle handle = this.baseStorage.openWrite(newName);
+        byte[] data = serialize(RECORD_DELETE, snapshot, newSequence);
+        this.baseStorage.write(handle, 0, new ByteArrayInputStream(data), data.length);
+        this.journal = new Journal(newName, newSequence, handle, data.length);
+        if (previousName != null) {
+            this.baseStorage.deleteAll(Collections.singletonList(previousName));
+        }
+
+        log.info("{}: Switched to journal '{}' with {} pending SegmentChunk(s).", this.traceObjectId, newName, snapshot.size());
+    }
+
+    private JournalContents readJournal(String name) throws StreamSegmentException {
+        SegmentProperties info;
+        try {
+            info = this.baseStorage.getStreamSegmentInfo(name);
+        } catch (StreamSegmentNotExistsException ex) {
+            return null;
+        }
+
+        byte[] data = new byte[(int) info.getLength()];
+        if (data.length > 0) {
+            SegmentHandle handle = this.baseStorage.openRead(name);
+            int offset = 0;
+            while (offset < data.length) {
+                offset += this.baseStorage.read(handle, offset, data, offset, data.length - offset);
+            }
+        }
+
+        JournalContents result = new JournalContents(name);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            result.sequence = input.readLong();
+            while (true) {
+                byte recordType = input.readByte();
+                if (recordType == RECORD_CHECKPOINT) {
+                    result.complete = true;
+                } else if (recordType == RECORD_DELETE) {
+                    result.chunkNames.add(input.readUTF());
+                } else if (recordType == RECORD_DELETED) {
+                    result.chunkNames.remove(input.readUTF());
+                } else {
+                    throw new IOException(String.format("Unknown record type %d.", recordType));
+                }
+            }
+        } catch (EOFException ex) {
+            // We reached the end, possibly in the middle of a record that was not completely written.
+        } catch (IOException ex) {
+            log.warn("{}: Journal '{}' is corrupted; ignoring everything after the first {} SegmentChunk(s).",
+                    this.traceObjectId, name, result.chunkNames.size(), ex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Serializes one record of the given type for each of the given SegmentChunk names. If a sequence number is provided,
+     * the result is the beginning of a new journal: the sequence number, followed by the records and by a checkpoint.
+     */
+    @SneakyThrows(IOException.class)
+    private static byte[] serialize(byte recordType, Collection<String> chunkNames, Long sequence) {
+        EnhancedByteArrayOutputStream os = new EnhancedByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(os);
+        if (sequence != null) {
+            output.writeLong(sequence);
+        }
+
+        for (String chunkName : chunkNames) {
+            output.writeByte(recordType);
+            output.writeUTF(chunkName);
+        }
+
+        if (sequence != null) {
+            output.writeByte(RECORD_CHECKPOINT);
+        }
+
+        output.flush();
+        return os.getData().getCopy();
+    }
+
+    private String getJournalName(long sequence) {
+        return this.journalName + "." + (sequence % JOURNAL_SLOT_COUNT);
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * The journal Segment that is currently being written to.
+     */
+    private static class Journal {
+        final String name;
+        final long sequence;
+        final SegmentHandle handle;
+        long length;
+        boolean broken;
+
+        Journal(String name, long sequence, SegmentHandle handle, long length) {
+            this.name = name;
+            this.sequence = sequence;
+            this.handle = handle;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The contents of a journal Segment, as read during initialization.
+     */
+    private static class JournalContents {
+        final String name;
+        final LinkedHashSet<String> chunkNames = new LinkedHashSet<>();
+        long sequence;
+        boolean complete;
+
+        JournalContents(String name) {
+            this.name = name;
+        }
+    }
+
+    //endregion
+}
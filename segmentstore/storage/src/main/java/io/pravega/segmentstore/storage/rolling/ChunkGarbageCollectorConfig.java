@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.rolling;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the ChunkGarbageCollector.
+ */
+public class ChunkGarbageCollectorConfig {
+    //region Config Names
+
+    public static final Property<Integer> MAX_DELETES_PER_SECOND = Property.named("maxDeletesPerSecond", 100);
+    public static final Property<Integer> MAX_BATCH_SIZE = Property.named("maxBatchSize", 100);
+    public static final Property<Integer> JOURNAL_ROLLOVER_SIZE_BYTES = Property.named("journalRolloverSizeBytes", 1024 * 1024);
+    private static final String COMPONENT_CODE = "chunkgc";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The maximum number of SegmentChunks to delete per second, across all Segments in a Container.
+     */
+    @Getter
+    private final int maxDeletesPerSecond;
+
+    /**
+     * The maximum number of SegmentChunks to delete in a single batch.
+     */
+    @Getter
+    private final int maxBatchSize;
+
+    /**
+     * The size of the deletion journal after which it is compacted into a new one (once all its entries are processed).
+     */
+    @Getter
+    private final int journalRolloverSizeBytes;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ChunkGarbageCollectorConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private ChunkGarbageCollectorConfig(TypedProperties properties) throws ConfigurationException {
+        this.maxDeletesPerSecond = properties.getInt(MAX_DELETES_PER_SECOND);
+        if (this.maxDeletesPerSecond <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_DELETES_PER_SECOND));
+        }
+
+        this.maxBatchSize = properties.getInt(MAX_BATCH_SIZE);
+        if (this.maxBatchSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_BATCH_SIZE));
+        }
+
+        this.journalRolloverSizeBytes = properties.getInt(JOURNAL_ROLLOVER_SIZE_BYTES);
+        if (this.journalRolloverSizeBytes <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", JOURNAL_ROLLOVER_SIZE_BYTES));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<ChunkGarbageCollectorConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, ChunkGarbageCollectorConfig::new);
+    }
+
+    //endregion
+}
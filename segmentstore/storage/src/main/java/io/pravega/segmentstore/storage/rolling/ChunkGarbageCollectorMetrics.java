@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.rolling;
+
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.DynamicLogger;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.OpStatsLogger;
+import io.pravega.shared.metrics.StatsLogger;
+import java.time.Duration;
+
+/**
+ * Defines all Metrics used by the ChunkGarbageCollector class.
+ */
+final class ChunkGarbageCollectorMetrics implements AutoCloseable {
+    private static final String PREFIX = "rollingstorage";
+    private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger(PREFIX);
+    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
+
+    /**
+     * Amount of time it takes to delete a batch of SegmentChunks.
+     */
+    private final OpStatsLogger deleteLatency;
+
+    /**
+     * Number of SegmentChunks pending deletion.
+     */
+    private final String queueSize;
+
+    /**
+     * Number of SegmentChunks deleted.
+     */
+    private final String deletedChunks;
+
+    ChunkGarbageCollectorMetrics(int containerId) {
+        this.deleteLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.STORAGE_GC_DELETE_LATENCY, containerId));
+        this.queueSize = PREFIX + "." + MetricsNames.nameFromContainer(MetricsNames.STORAGE_GC_QUEUE_SIZE, containerId);
+        this.deletedChunks = PREFIX + "." + MetricsNames.nameFromContainer(MetricsNames.STORAGE_GC_DELETED_CHUNKS, containerId);
+    }
+
+    @Override
+    public void close() {
+        this.deleteLatency.close();
+        DYNAMIC_LOGGER.freezeGaugeValue(this.queueSize);
+    }
+
+    void queueSize(int count) {
+        DYNAMIC_LOGGER.reportGaugeValue(this.queueSize, count);
+    }
+
+    void batchDeleted(int count, Duration elapsed) {
+        this.deleteLatency.reportSuccessEvent(elapsed);
+        DYNAMIC_LOGGER.incCounterValue(this.deletedChunks, count);
+    }
+
+    void batchFailed(Duration elapsed) {
+        this.deleteLatency.reportFailEvent(elapsed);
+    }
+}
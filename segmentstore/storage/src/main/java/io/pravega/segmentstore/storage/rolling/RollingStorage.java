@@ -62,6 +62,11 @@ import lombok.val;
  * ** The concat() method should be overridden (in a derived class) to not convert Segments without Header into Segments
  * with Header.
  * ** Existing Segments (made up of Header and multi-SegmentChunks) can still be accessed by means of this class.
+ *
+ * A note about deletions:
+ * * If a ChunkGarbageCollector is provided, SegmentChunks that are no longer needed (due to truncation or deletion) are
+ * deleted asynchronously by it. Such SegmentChunks are considered not to exist, even if they have not been deleted yet.
+ * Headers are always deleted synchronously.
  */
 @Slf4j
 public class RollingStorage implements SyncStorage {
@@ -69,6 +74,7 @@ public class RollingStorage implements SyncStorage {
 
     private final SyncStorage baseStorage;
     private final SegmentRollingPolicy defaultRollingPolicy;
+    private final ChunkGarbageCollector garbageCollector;
     private final AtomicBoolean closed;
 
     //endregion
@@ -92,8 +98,23 @@ public class RollingStorage implements SyncStorage {
      *                             defined.
      */
     public RollingStorage(SyncStorage baseStorage, SegmentRollingPolicy defaultRollingPolicy) {
+        this(baseStorage, defaultRollingPolicy, null);
+    }
+
+    /**
+     * Creates a new instance of the RollingStorage class.
+     *
+     * @param baseStorage          A SyncStorage that will be used to execute operations.
+     * @param defaultRollingPolicy A SegmentRollingPolicy to apply to every StreamSegment that does not have its own policy
+     *                             defined.
+     * @param garbageCollector     (Optional) A ChunkGarbageCollector to delete SegmentChunks with. This must be using the
+     *                             same SyncStorage as this instance, and its lifecycle will be managed by this instance.
+     *                             If null, SegmentChunks will be deleted synchronously.
+     */
+    public RollingStorage(SyncStorage baseStorage, SegmentRollingPolicy defaultRollingPolicy, ChunkGarbageCollector garbageCollector) {
         this.baseStorage = Preconditions.checkNotNull(baseStorage, "baseStorage");
         this.defaultRollingPolicy = Preconditions.checkNotNull(defaultRollingPolicy, "defaultRollingPolicy");
+        this.garbageCollector = garbageCollector;
         this.closed = new AtomicBoolean();
     }
 
@@ -104,6 +125,10 @@ public class RollingStorage implements SyncStorage {
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
+            if (this.garbageCollector != null) {
+                this.garbageCollector.close();
+            }
+
             this.baseStorage.close();
             log.info("Closed");
         }
@@ -116,6 +141,9 @@ public class RollingStorage implements SyncStorage {
     @Override
     public void initialize(long containerEpoch) {
         this.baseStorage.initialize(containerEpoch);
+        if (this.garbageCollector != null) {
+            this.garbageCollector.initialize();
+        }
     }
 
     @Override
@@ -164,6 +192,10 @@ public class RollingStorage implements SyncStorage {
             while (bytesRead < length && currentIndex < chunks.size()) {
                 // Verify if this is a known truncated SegmentChunk; if so, bail out quickly.
                 SegmentChunk current = chunks.get(currentIndex);
+                if (isPendingDeletion(current)) {
+                    current.markInexistent();
+                }
+
                 checkTruncatedSegment(null, h, current);
                 if (current.getLength() == 0) {
                     // Empty SegmentChunk; don't bother trying to read from it.
@@ -546,6 +578,12 @@ public class RollingStorage implements SyncStorage {
         // We ignore if the SegmentChunk exists and is empty - that's most likely due to a previous failed attempt.
         long segmentLength = handle.length();
         SegmentChunk newSegmentChunk = SegmentChunk.forSegment(handle.getSegmentName(), segmentLength);
+        if (this.garbageCollector != null) {
+            // A SegmentChunk with the same name (from a previous incarnation of this Segment) may be pending deletion.
+            // Get rid of it now, otherwise it will be deleted after we create the new one.
+            this.garbageCollector.deleteIfPending(newSegmentChunk.getName());
+        }
+
         try {
             this.baseStorage.create(newSegmentChunk.getName());
         } catch (StreamSegmentExistsException ex) {
@@ -559,21 +597,42 @@ public class RollingStorage implements SyncStorage {
     }
 
     private void deleteChunks(RollingSegmentHandle handle, Predicate<SegmentChunk> canDelete) throws StreamSegmentException {
-        for (SegmentChunk s : handle.chunks()) {
-            if (s.exists() && canDelete.test(s)) {
-                try {
-                    val subHandle = this.baseStorage.openWrite(s.getName());
-                    this.baseStorage.delete(subHandle);
-                    s.markInexistent();
-                    log.debug("Deleted SegmentChunk '{}' for '{}'.", s, handle);
-                } catch (StreamSegmentNotExistsException ex) {
-                    // Ignore; It's OK if it doesn't exist; just make sure the handle is updated.
-                    s.markInexistent();
+        List<SegmentChunk> toDelete = handle.chunks().stream()
+                .filter(s -> s.exists() && canDelete.test(s))
+                .collect(Collectors.toList());
+        if (this.garbageCollector != null && !toDelete.isEmpty()) {
+            try {
+                this.garbageCollector.enqueue(toDelete.stream().map(SegmentChunk::getName).collect(Collectors.toList()));
+                toDelete.forEach(SegmentChunk::markInexistent);
+                log.debug("Scheduled {} SegmentChunk(s) for deletion for '{}'.", toDelete.size(), handle);
+                return;
+            } catch (Exception ex) {
+                if (Exceptions.mustRethrow(ex) || ex instanceof StorageNotPrimaryException) {
+                    // We have been fenced out; we should not be deleting anything anymore.
+                    throw ex;
                 }
+
+                log.warn("Unable to schedule SegmentChunks for deletion for '{}'; deleting them now.", handle, ex);
+            }
+        }
+
+        for (SegmentChunk s : toDelete) {
+            try {
+                val subHandle = this.baseStorage.openWrite(s.getName());
+                this.baseStorage.delete(subHandle);
+                s.markInexistent();
+                log.debug("Deleted SegmentChunk '{}' for '{}'.", s, handle);
+            } catch (StreamSegmentNotExistsException ex) {
+                // Ignore; It's OK if it doesn't exist; just make sure the handle is updated.
+                s.markInexistent();
             }
         }
     }
 
+    private boolean isPendingDeletion(SegmentChunk segmentChunk) {
+        return this.garbageCollector != null && this.garbageCollector.isPending(segmentChunk.getName());
+    }
+
     private boolean canTruncate(SegmentChunk segmentChunk, long truncationOffset) {
         // We should only truncate those SegmentChunks that are entirely before the truncationOffset. An empty SegmentChunk
         // that starts exactly at the truncationOffset should be spared (this means we truncate the entire Segment), as
@@ -585,7 +644,7 @@ public class RollingStorage implements SyncStorage {
     private void refreshChunkExistence(RollingSegmentHandle handle) {
         // We check all SegmentChunks that we assume exist for actual existence (since once deleted, they can't come back).
         for (SegmentChunk s : handle.chunks()) {
-            if (s.exists() && !this.baseStorage.exists(s.getName())) {
+            if (s.exists() && (isPendingDeletion(s) || !this.baseStorage.exists(s.getName()))) {
                 s.markInexistent();
             }
         }
@@ -638,9 +697,14 @@ public class RollingStorage implements SyncStorage {
             handle = new RollingSegmentHandle(segmentHandle);
         }
 
-        // Update each SegmentChunk's Length (based on offset difference) and mark them as Sealed.
+        // Update each SegmentChunk's Length (based on offset difference) and mark them as Sealed. Those that are pending
+        // deletion are treated as already deleted.
         SegmentChunk last = null;
         for (SegmentChunk s : handle.chunks()) {
+            if (isPendingDeletion(s)) {
+                s.markInexistent();
+            }
+
             if (last != null) {
                 last.setLength(s.getStartOffset() - last.getStartOffset());
                 last.markSealed();
@@ -0,0 +1,392 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.striped;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.TimeoutTimer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.segmentstore.storage.WriteFailureException;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * DurableDataLog that spreads its entries across multiple other DurableDataLogs (stripes), which allows writes to be
+ * executed in parallel against all of them.
+ * <p>
+ * Writing:
+ * * Entries are written round-robin to the stripes. Each entry is prefixed by its Sequence (see StripedLogAddress), which
+ * is made up of the Epoch of this log and the index of the entry within that Epoch.
+ * * Entries are acknowledged in Sequence order: an append completes only after all the appends before it have completed.
+ * If any append fails, all subsequent ones will fail as well and this log will close.
+ * <p>
+ * Metadata:
+ * * A separate DurableDataLog (the metadata log) stores the number of stripes and the Sequence the log has been
+ * truncated to. Its Epoch is the Epoch of this log, so it is initialized before (and fences out other instances before)
+ * any of the stripes.
+ * * Stripes are truncated independently and at their own granularity, so some of them may still contain entries before
+ * the truncation point after a truncation. The reader uses the truncation point recorded in the metadata log to skip them.
+ * <p>
+ * Reading:
+ * * The reader merges the stripes back into Sequence order. See StripedLogReader for details.
+ */
+@Slf4j
+@ThreadSafe
+public class StripedDurableDataLog implements DurableDataLog {
+    //region Members
+
+    /**
+     * Length of the header (Sequence) that prefixes each entry in a stripe.
+     */
+    static final int ENTRY_HEADER_LENGTH = Long.BYTES;
+    private final DurableDataLog metadataLog;
+    private final List<DurableDataLog> stripes;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private long epoch;
+    @GuardedBy("lock")
+    private long nextIndex;
+    @GuardedBy("lock")
+    private CompletableFuture<LogAddress> lastAppend;
+    @GuardedBy("lock")
+    private LogAddress[] lastStripeAddresses;
+    @GuardedBy("lock")
+    private StripedLogMetadata metadata;
+    @GuardedBy("lock")
+    private LogAddress metadataAddress;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> lastTruncation;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the StripedDurableDataLog class.
+     *
+     * @param logId       The Id of the log (used for logging purposes).
+     * @param metadataLog A (non-initialized) DurableDataLog to store the metadata for this log.
+     * @param stripes     The (non-initialized) DurableDataLogs to use as stripes, in stripe order. The same stripes must
+     *                    be provided in the same order every time the log is opened. The number of stripes may only
+     *                    increase from one instance to the next.
+     */
+    public StripedDurableDataLog(int logId, DurableDataLog metadataLog, List<? extends DurableDataLog> stripes) {
+        this.metadataLog = Preconditions.checkNotNull(metadataLog, "metadataLog");
+        Preconditions.checkArgument(stripes.size() > 0, "At least one stripe is required.");
+        this.stripes = Collections.unmodifiableList(new ArrayList<>(stripes));
+        this.traceObjectId = String.format("StripedLog[%d]", logId);
+        this.closed = new AtomicBoolean();
+        this.epoch = -1;
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.stripes.forEach(DurableDataLog::close);
+            this.metadataLog.close();
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region DurableDataLog Implementation
+
+    /**
+     * Initializes this StripedDurableDataLog. Initializes the metadata log (which fences out any other instance) and
+     * loads the metadata from it, then initializes all the stripes.
+     *
+     * @param timeout Timeout for the operation.
+     * @throws DurableDataLogException If an exception occurred. In addition to the exceptions listed in
+     *                                 DurableDataLog.initialize(), a DataLogInitializationException will be thrown if
+     *                                 the log has been written using more stripes than are available to this instance.
+     */
+    @Override
+    public void initialize(Duration timeout) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(this.epoch < 0, "StripedDurableDataLog is already initialized.");
+        }
+
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        this.metadataLog.initialize(timer.getRemaining());
+        long newEpoch = this.metadataLog.getEpoch();
+        if (newEpoch > StripedLogAddress.MAX_EPOCH) {
+            throw new DataLogInitializationException(String.format("%s: Epoch %d exceeds the maximum supported value.", this.traceObjectId, newEpoch));
+        }
+
+        // Load the last metadata record, or create one if this is a new log or the number of stripes has increased.
+        StripedLogMetadata newMetadata = null;
+        LogAddress newMetadataAddress = null;
+        try (val reader = this.metadataLog.getReader()) {
+            DurableDataLog.ReadItem item;
+            while ((item = reader.getNext()) != null) {
+                newMetadata = StripedLogMetadata.SERIALIZER.deserialize(item.getPayload());
+                newMetadataAddress = item.getAddress();
+            }
+        } catch (IOException ex) {
+            throw new DataLogInitializationException(String.format("%s: Unable to read metadata.", this.traceObjectId), ex);
+        }
+
+        if (newMetadata == null || newMetadata.getStripeCount() < this.stripes.size()) {
+            newMetadata = StripedLogMetadata.builder()
+                                            .stripeCount(this.stripes.size())
+                                            .truncationSequence(newMetadata == null ? StripedLogMetadata.NO_TRUNCATION : newMetadata.getTruncationSequence())
+                                            .build();
+            try {
+                newMetadataAddress = this.metadataLog.append(serialize(newMetadata), timer.getRemaining())
+                                                     .get(timer.getRemaining().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception ex) {
+                throw new DataLogInitializationException(String.format("%s: Unable to persist metadata.", this.traceObjectId), Exceptions.unwrap(ex));
+            }
+        } else if (newMetadata.getStripeCount() > this.stripes.size()) {
+            throw new DataLogInitializationException(String.format("%s: Log has been written using %d stripes, but only %d are available.",
+                    this.traceObjectId, newMetadata.getStripeCount(), this.stripes.size()));
+        }
+
+        for (DurableDataLog stripe : this.stripes) {
+            stripe.initialize(timer.getRemaining());
+        }
+
+        synchronized (this.lock) {
+            this.epoch = newEpoch;
+            this.nextIndex = 0;
+            this.lastAppend = CompletableFuture.completedFuture(null);
+            this.lastStripeAddresses = new LogAddress[this.stripes.size()];
+            this.metadata = newMetadata;
+            this.metadataAddress = newMetadataAddress;
+            this.lastTruncation = CompletableFuture.completedFuture(null);
+        }
+
+        log.info("{}: Initialized (Epoch = {}, {}).", this.traceObjectId, newEpoch, newMetadata);
+    }
+
+    @Override
+    public void enable() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        this.metadataLog.enable();
+        log.info("{}: Enabled.", this.traceObjectId);
+    }
+
+    @Override
+    public void disable() throws DurableDataLogException {
+        ensurePreconditions();
+        this.metadataLog.disable();
+        log.info("{}: Disabled.", this.traceObjectId);
+        close();
+    }
+
+    @Override
+    public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
+        ensurePreconditions();
+        if (data.getLength() > getMaxAppendLength()) {
+            return Futures.failedFuture(new WriteTooLongException(data.getLength(), getMaxAppendLength()));
+        }
+
+        CompletableFuture<LogAddress> result;
+        synchronized (this.lock) {
+            final long epoch = this.epoch;
+            final long index = this.nextIndex;
+            if (index > StripedLogAddress.MAX_INDEX) {
+                return Futures.failedFuture(new WriteFailureException(String.format(
+                        "%s: Maximum number of entries for Epoch %d reached; the log must be re-initialized.", this.traceObjectId, epoch)));
+            }
+
+            // Only update our state if the stripe accepted the append; if it threw, then this append got rejected.
+            final int stripeId = (int) (index % this.stripes.size());
+            val entry = serializeEntry(StripedLogAddress.calculateSequence(epoch, index), data);
+            CompletableFuture<LogAddress> stripeAppend = this.stripes.get(stripeId).append(entry, timeout);
+            this.nextIndex++;
+
+            // Acknowledge in order: wait for the previous append to complete before completing this one.
+            result = stripeAppend.thenCombine(this.lastAppend, (stripeAddress, previous) -> acknowledge(epoch, index, stripeId, stripeAddress));
+            this.lastAppend = result;
+        }
+
+        result.exceptionally(ex -> {
+            if (!this.closed.get()) {
+                log.warn("{}: Append failed; closing.", this.traceObjectId, ex);
+                close();
+            }
+
+            return null;
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+        ensurePreconditions();
+        Preconditions.checkArgument(upToAddress instanceof StripedLogAddress, "upToAddress must be of type StripedLogAddress.");
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        CompletableFuture<Void> result;
+        synchronized (this.lock) {
+            // Execute truncations one at a time, in order.
+            result = this.lastTruncation.thenCompose(v -> truncateInternal((StripedLogAddress) upToAddress, timer));
+            this.lastTruncation = result.exceptionally(ex -> null);
+        }
+
+        return result;
+    }
+
+    @Override
+    public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
+        ensurePreconditions();
+        long truncationSequence;
+        synchronized (this.lock) {
+            truncationSequence = this.metadata.getTruncationSequence();
+        }
+
+        List<CloseableIterator<ReadItem, DurableDataLogException>> stripeReaders = new ArrayList<>();
+        try {
+            for (DurableDataLog stripe : this.stripes) {
+                stripeReaders.add(stripe.getReader());
+            }
+        } catch (Throwable ex) {
+            stripeReaders.forEach(CloseableIterator::close);
+            throw ex;
+        }
+
+        return new StripedLogReader(stripeReaders, truncationSequence, this.traceObjectId);
+    }
+
+    @Override
+    public int getMaxAppendLength() {
+        return this.stripes.stream().mapToInt(DurableDataLog::getMaxAppendLength).min().orElse(0) - ENTRY_HEADER_LENGTH;
+    }
+
+    @Override
+    public long getEpoch() {
+        ensurePreconditions();
+        synchronized (this.lock) {
+            return this.epoch;
+        }
+    }
+
+    @Override
+    public QueueStats getQueueStatistics() {
+        int size = 0;
+        double fillRatio = 0;
+        int processingTime = 0;
+        for (DurableDataLog stripe : this.stripes) {
+            QueueStats qs = stripe.getQueueStatistics();
+            size += qs.getSize();
+            fillRatio += qs.getAverageItemFillRatio() * qs.getSize();
+            processingTime = Math.max(processingTime, qs.getExpectedProcessingTimeMillis());
+        }
+
+        return new QueueStats(size, size == 0 ? 0 : fillRatio / size, processingTime);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void ensurePreconditions() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(this.epoch >= 0, "StripedDurableDataLog is not initialized.");
+        }
+    }
+
+    private LogAddress acknowledge(long epoch, long index, int stripeId, LogAddress stripeAddress) {
+        LogAddress[] stripeAddresses;
+        synchronized (this.lock) {
+            this.lastStripeAddresses[stripeId] = stripeAddress;
+            stripeAddresses = this.lastStripeAddresses.clone();
+        }
+
+        return new StripedLogAddress(epoch, index, stripeAddresses);
+    }
+
+    /**
+     * Persists the new truncation point in the metadata log, after which it truncates the metadata log (all but the new
+     * metadata record) and each of the stripes.
+     */
+    private CompletableFuture<Void> truncateInternal(StripedLogAddress upToAddress, TimeoutTimer timer) {
+        StripedLogMetadata newMetadata;
+        LogAddress previousMetadataAddress;
+        synchronized (this.lock) {
+            if (upToAddress.getSequence() <= this.metadata.getTruncationSequence()) {
+                // Already truncated to (or beyond) this point.
+                return CompletableFuture.completedFuture(null);
+            }
+
+            newMetadata = StripedLogMetadata.builder()
+                                            .stripeCount(this.metadata.getStripeCount())
+                                            .truncationSequence(upToAddress.getSequence())
+                                            .build();
+            previousMetadataAddress = this.metadataAddress;
+        }
+
+        return this.metadataLog
+                .append(serialize(newMetadata), timer.getRemaining())
+                .thenCompose(newMetadataAddress -> {
+                    synchronized (this.lock) {
+                        this.metadata = newMetadata;
+                        this.metadataAddress = newMetadataAddress;
+                    }
+
+                    log.debug("{}: Truncating to {}.", this.traceObjectId, upToAddress);
+                    val truncations = new ArrayList<CompletableFuture<Void>>();
+                    truncations.add(this.metadataLog.truncate(previousMetadataAddress, timer.getRemaining()));
+                    int stripeCount = Math.min(upToAddress.getStripeCount(), this.stripes.size());
+                    for (int stripeId = 0; stripeId < stripeCount; stripeId++) {
+                        LogAddress stripeAddress = upToAddress.getStripeAddress(stripeId);
+                        if (stripeAddress != null) {
+                            truncations.add(this.stripes.get(stripeId).truncate(stripeAddress, timer.getRemaining()));
+                        }
+                    }
+
+                    return Futures.allOf(truncations);
+                });
+    }
+
+    private ByteArraySegment serializeEntry(long sequence, ArrayView data) {
+        byte[] entry = new byte[ENTRY_HEADER_LENGTH + data.getLength()];
+        BitConverter.writeLong(entry, 0, sequence);
+        data.copyTo(entry, ENTRY_HEADER_LENGTH, data.getLength());
+        return new ByteArraySegment(entry);
+    }
+
+    @SneakyThrows(IOException.class)
+    private ByteArraySegment serialize(StripedLogMetadata metadata) {
+        return StripedLogMetadata.SERIALIZER.serialize(metadata);
+    }
+
+    //endregion
+}
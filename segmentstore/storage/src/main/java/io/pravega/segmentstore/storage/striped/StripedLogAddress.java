@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.striped;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.LogAddress;
+import java.util.Arrays;
+
+/**
+ * LogAddress for a StripedDurableDataLog.
+ * <p>
+ * The Sequence is made up of the Epoch of the StripedDurableDataLog that wrote the entry (high 32 bits) and the index
+ * of the entry within that Epoch (low 32 bits). Additionally, it records the LogAddress of the last entry at or before
+ * this one in each stripe; these are needed in order to truncate the stripes.
+ */
+class StripedLogAddress extends LogAddress {
+    //region Members
+
+    static final long MAX_EPOCH = Integer.MAX_VALUE;
+    static final long MAX_INDEX = 0xFFFFFFFFL;
+    private final LogAddress[] stripeAddresses;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the StripedLogAddress class.
+     *
+     * @param epoch           The Epoch of the StripedDurableDataLog that wrote the entry.
+     * @param index           The index of the entry within its Epoch.
+     * @param stripeAddresses The LogAddresses of the last entry at or before this one in each stripe (an element may be
+     *                        null if no such entry exists for that stripe).
+     */
+    StripedLogAddress(long epoch, long index, LogAddress[] stripeAddresses) {
+        this(calculateSequence(epoch, index), stripeAddresses);
+    }
+
+    /**
+     * Creates a new instance of the StripedLogAddress class.
+     *
+     * @param sequence        The Sequence of the address.
+     * @param stripeAddresses The LogAddresses of the last entry at or before this one in each stripe (an element may be
+     *                        null if no such entry exists for that stripe).
+     */
+    StripedLogAddress(long sequence, LogAddress[] stripeAddresses) {
+        super(sequence);
+        this.stripeAddresses = Preconditions.checkNotNull(stripeAddresses, "stripeAddresses");
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets the Epoch of the StripedDurableDataLog that wrote the entry.
+     */
+    long getEpoch() {
+        return getSequence() >>> 32;
+    }
+
+    /**
+     * Gets the index of the entry within its Epoch.
+     */
+    long getIndex() {
+        return getSequence() & MAX_INDEX;
+    }
+
+    /**
+     * Gets the number of stripes this address has information about.
+     */
+    int getStripeCount() {
+        return this.stripeAddresses.length;
+    }
+
+    /**
+     * Gets the LogAddress of the last entry at or before this one in the given stripe.
+     *
+     * @param stripeId The stripe to query.
+     * @return The LogAddress, or null if no such entry exists.
+     */
+    LogAddress getStripeAddress(int stripeId) {
+        return this.stripeAddresses[stripeId];
+    }
+
+    static long calculateSequence(long epoch, long index) {
+        Preconditions.checkArgument(epoch >= 0 && epoch <= MAX_EPOCH, "epoch must be a non-negative integer.");
+        Preconditions.checkArgument(index >= 0 && index <= MAX_INDEX, "index out of range.");
+        return (epoch << 32) + index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getSequence());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof StripedLogAddress) {
+            return getSequence() == ((StripedLogAddress) obj).getSequence();
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Epoch = %d, Index = %d, Stripes = %s", super.toString(), getEpoch(), getIndex(),
+                Arrays.toString(this.stripeAddresses));
+    }
+
+    //endregion
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.striped;
+
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import java.io.IOException;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Metadata for a StripedDurableDataLog. This is persisted in the StripedDurableDataLog's metadata log.
+ */
+@Builder
+@Getter
+class StripedLogMetadata {
+    static final VersionedSerializer.WithBuilder<StripedLogMetadata, StripedLogMetadataBuilder> SERIALIZER = new Serializer();
+
+    /**
+     * Sequence used to indicate that the log has never been truncated.
+     */
+    static final long NO_TRUNCATION = -1;
+
+    /**
+     * The number of stripes that the log has been written with.
+     */
+    private final int stripeCount;
+
+    /**
+     * The Sequence of the StripedLogAddress that the log has been truncated to (inclusive), or NO_TRUNCATION.
+     */
+    private final long truncationSequence;
+
+    @Override
+    public String toString() {
+        return String.format("StripeCount = %d, TruncationSequence = %d", this.stripeCount, this.truncationSequence);
+    }
+
+    static class StripedLogMetadataBuilder implements ObjectBuilder<StripedLogMetadata> {
+    }
+
+    private static class Serializer extends VersionedSerializer.WithBuilder<StripedLogMetadata, StripedLogMetadataBuilder> {
+        @Override
+        protected StripedLogMetadataBuilder newBuilder() {
+            return StripedLogMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(StripedLogMetadata m, RevisionDataOutput output) throws IOException {
+            output.writeCompactInt(m.stripeCount);
+            output.writeLong(m.truncationSequence);
+        }
+
+        private void read00(RevisionDataInput input, StripedLogMetadataBuilder builder) throws IOException {
+            builder.stripeCount(input.readCompactInt());
+            builder.truncationSequence(input.readLong());
+        }
+    }
+}
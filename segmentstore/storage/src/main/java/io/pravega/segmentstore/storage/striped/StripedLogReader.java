@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.striped;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the entries of a StripedDurableDataLog, merging the stripes back into log order.
+ * <p>
+ * Entries are returned in Sequence order, with the following exceptions:
+ * <ul>
+ * <li> Entries at or before the truncation point are skipped. Stripes are truncated independently of each other, so some
+ * of them may still contain entries before that point.
+ * <li> Within an Epoch, entries must have consecutive indices. An entry is only acknowledged after all the entries before
+ * it have been acknowledged, so if there is a gap, the entries after it were never acknowledged (they were in flight on
+ * other stripes when a write failed). Such entries are skipped until the next Epoch begins.
+ * </ul>
+ */
+@Slf4j
+@NotThreadSafe
+class StripedLogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> {
+    //region Members
+
+    private final List<CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException>> stripeReaders;
+    private final long truncationSequence;
+    private final String traceObjectId;
+    private final StripeEntry[] heads;
+    private final boolean[] stripeEnded;
+    private final LogAddress[] lastStripeAddresses;
+    private long currentEpoch;
+    private long nextIndex;
+    private boolean skipCurrentEpoch;
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the StripedLogReader class.
+     *
+     * @param stripeReaders      Readers for each of the stripes, in stripe order.
+     * @param truncationSequence The Sequence that the log has been truncated to, or StripedLogMetadata.NO_TRUNCATION.
+     * @param traceObjectId      An identifier to use for logging.
+     */
+    StripedLogReader(List<CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException>> stripeReaders, long truncationSequence,
+                     String traceObjectId) {
+        Preconditions.checkArgument(stripeReaders.size() > 0, "stripeReaders must not be empty.");
+        this.stripeReaders = stripeReaders;
+        this.truncationSequence = truncationSequence;
+        this.traceObjectId = traceObjectId;
+        this.heads = new StripeEntry[stripeReaders.size()];
+        this.stripeEnded = new boolean[stripeReaders.size()];
+        this.lastStripeAddresses = new LogAddress[stripeReaders.size()];
+        this.currentEpoch = -1;
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DurableDataLog.ReadItem getNext() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed, this);
+        while (true) {
+            StripeEntry entry = pollNextEntry();
+            if (entry == null) {
+                // All stripes have been read.
+                return null;
+            }
+
+            long sequence = entry.sequence;
+            if (sequence <= this.truncationSequence) {
+                // Leftover from a truncated portion of the log.
+                continue;
+            }
+
+            long epoch = sequence >>> 32;
+            long index = sequence & StripedLogAddress.MAX_INDEX;
+            if (epoch != this.currentEpoch) {
+                // New Epoch. Its entries start at index 0, unless the log has been truncated in the middle of it.
+                this.currentEpoch = epoch;
+                this.nextIndex = epoch == (this.truncationSequence >>> 32) && this.truncationSequence != StripedLogMetadata.NO_TRUNCATION
+                        ? (this.truncationSequence & StripedLogAddress.MAX_INDEX) + 1
+                        : 0;
+                this.skipCurrentEpoch = false;
+            }
+
+            if (this.skipCurrentEpoch) {
+                continue;
+            } else if (index != this.nextIndex) {
+                log.info("{}: Epoch {} is missing the entry with Index {} (found {}); skipping the remainder of this Epoch.",
+                        this.traceObjectId, epoch, this.nextIndex, index);
+                this.skipCurrentEpoch = true;
+                continue;
+            }
+
+            this.nextIndex++;
+            this.lastStripeAddresses[entry.stripeId] = entry.stripeAddress;
+            return new StripedReadItem(new StripedLogAddress(sequence, this.lastStripeAddresses.clone()), entry.payload, entry.length);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.stripeReaders.forEach(CloseableIterator::close);
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Returns the entry with the smallest Sequence among the next entries of each stripe.
+     */
+    private StripeEntry pollNextEntry() throws DurableDataLogException {
+        StripeEntry result = null;
+        for (int stripeId = 0; stripeId < this.heads.length; stripeId++) {
+            if (this.heads[stripeId] == null && !this.stripeEnded[stripeId]) {
+                this.heads[stripeId] = readEntry(stripeId);
+                this.stripeEnded[stripeId] = this.heads[stripeId] == null;
+            }
+
+            if (this.heads[stripeId] != null && (result == null || this.heads[stripeId].sequence < result.sequence)) {
+                result = this.heads[stripeId];
+            }
+        }
+
+        if (result != null) {
+            this.heads[result.stripeId] = null;
+        }
+
+        return result;
+    }
+
+    private StripeEntry readEntry(int stripeId) throws DurableDataLogException {
+        DurableDataLog.ReadItem item = this.stripeReaders.get(stripeId).getNext();
+        if (item == null) {
+            return null;
+        }
+
+        if (item.getLength() < StripedDurableDataLog.ENTRY_HEADER_LENGTH) {
+            throw new DurableDataLogException(String.format("%s: Entry at %s in stripe %d is too short (%d bytes).",
+                    this.traceObjectId, item.getAddress(), stripeId, item.getLength()));
+        }
+
+        InputStream payload = item.getPayload();
+        long sequence;
+        try {
+            sequence = new DataInputStream(payload).readLong();
+        } catch (IOException ex) {
+            throw new DurableDataLogException(String.format("%s: Unable to read entry header at %s in stripe %d.",
+                    this.traceObjectId, item.getAddress(), stripeId), ex);
+        }
+
+        return new StripeEntry(stripeId, sequence, item.getAddress(), payload, item.getLength() - StripedDurableDataLog.ENTRY_HEADER_LENGTH);
+    }
+
+    //endregion
+
+    //region StripeEntry and StripedReadItem
+
+    @RequiredArgsConstructor
+    private static class StripeEntry {
+        final int stripeId;
+        final long sequence;
+        final LogAddress stripeAddress;
+        final InputStream payload;
+        final int length;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class StripedReadItem implements DurableDataLog.ReadItem {
+        private final LogAddress address;
+        private final InputStream payload;
+        private final int length;
+
+        @Override
+        public String toString() {
+            return String.format("%s, Length = %d", this.address, this.length);
+        }
+    }
+
+    //endregion
+}
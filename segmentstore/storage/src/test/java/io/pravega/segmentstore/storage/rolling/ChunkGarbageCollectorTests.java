@@ -0,0 +1,376 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.rolling;
+
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.storage.StorageNotPrimaryException;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.IntentionalException;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the ChunkGarbageCollector class.
+ */
+public class ChunkGarbageCollectorTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 1;
+    private static final int CHUNK_COUNT = 50;
+    private static final long TIMEOUT_MILLIS = 10000;
+    private static final ChunkGarbageCollectorConfig CONFIG = ChunkGarbageCollectorConfig
+            .builder()
+            .with(ChunkGarbageCollectorConfig.MAX_DELETES_PER_SECOND, 10000)
+            .with(ChunkGarbageCollectorConfig.MAX_BATCH_SIZE, 7)
+            .build();
+    @Rule
+    public Timeout globalTimeout = Timeout.millis(TIMEOUT_MILLIS * 3);
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests the ability to delete SegmentChunks in the background.
+     */
+    @Test
+    public void testDelete() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+
+        @Cleanup
+        val gc = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc.initialize();
+        gc.enqueue(chunkNames.subList(0, CHUNK_COUNT / 2));
+        gc.enqueue(chunkNames.subList(CHUNK_COUNT / 2, CHUNK_COUNT));
+        awaitDeletions(gc);
+        for (String chunkName : chunkNames) {
+            Assert.assertFalse("SegmentChunk was not deleted: " + chunkName, baseStorage.exists(chunkName));
+            Assert.assertFalse("SegmentChunk is still pending deletion: " + chunkName, gc.isPending(chunkName));
+        }
+    }
+
+    /**
+     * Tests the ability to recover pending deletions after a restart (simulated by failing all deletions and creating a
+     * new instance), including the case when a SegmentChunk has been deleted ahead of schedule and then re-created.
+     */
+    @Test
+    public void testRecovery() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+        val recreatedChunk = chunkNames.get(0);
+
+        // Fail all background deletions, but allow deleting the first chunk from this thread.
+        val testThread = Thread.currentThread();
+        baseStorage.deleteFailure = names -> Thread.currentThread() != testThread;
+        val gc1 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc1.initialize();
+        gc1.enqueue(chunkNames);
+        Assert.assertTrue("Expected SegmentChunk to be pending deletion.", gc1.isPending(recreatedChunk));
+        gc1.deleteIfPending(recreatedChunk);
+        Assert.assertFalse("Expected SegmentChunk to not be pending deletion.", gc1.isPending(recreatedChunk));
+        Assert.assertFalse("Expected SegmentChunk to be deleted.", baseStorage.exists(recreatedChunk));
+        createChunks(baseStorage, Collections.singletonList(recreatedChunk));
+        Assert.assertEquals("Unexpected number of pending deletions.", CHUNK_COUNT - 1, gc1.getPendingCount());
+        gc1.close();
+
+        // Write an incomplete journal into the other slot (the first instance used slot 0); this should be ignored.
+        String otherJournal = StreamSegmentNameUtils.getChunkDeletionJournalName(CONTAINER_ID) + ".1";
+        createChunks(baseStorage, Collections.singletonList(otherJournal));
+
+        // Recover, and allow the deletions to proceed.
+        @Cleanup
+        val gc2 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc2.initialize();
+        Assert.assertEquals("Unexpected number of recovered deletions.", CHUNK_COUNT - 1, gc2.getPendingCount());
+        Assert.assertFalse("Not expecting a re-created SegmentChunk to be pending deletion.", gc2.isPending(recreatedChunk));
+        baseStorage.deleteFailure = null;
+        awaitDeletions(gc2);
+        for (String chunkName : chunkNames) {
+            boolean expectedExists = chunkName.equals(recreatedChunk);
+            Assert.assertEquals("Unexpected existence for SegmentChunk " + chunkName, expectedExists, baseStorage.exists(chunkName));
+        }
+    }
+
+    /**
+     * Tests the ability to compact the journal.
+     */
+    @Test
+    public void testJournalRollover() throws Exception {
+        val config = ChunkGarbageCollectorConfig
+                .builder()
+                .with(ChunkGarbageCollectorConfig.MAX_DELETES_PER_SECOND, 10000)
+                .with(ChunkGarbageCollectorConfig.JOURNAL_ROLLOVER_SIZE_BYTES, 100)
+                .build();
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+        val gc1 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, config, executorService());
+        gc1.initialize();
+        for (String chunkName : chunkNames) {
+            gc1.enqueue(Collections.singletonList(chunkName));
+            awaitDeletions(gc1);
+        }
+
+        gc1.close();
+
+        // There should only be one journal, and it should not have grown beyond the rollover size (plus one batch).
+        String journalName = StreamSegmentNameUtils.getChunkDeletionJournalName(CONTAINER_ID);
+        int journalCount = 0;
+        for (int i = 0; i < 2; i++) {
+            String name = journalName + "." + i;
+            if (baseStorage.exists(name)) {
+                journalCount++;
+                Assert.assertTrue("Journal was not compacted.",
+                        baseStorage.getStreamSegmentInfo(name).getLength() < config.getJournalRolloverSizeBytes() * 2);
+            }
+        }
+
+        Assert.assertEquals("Unexpected number of journals.", 1, journalCount);
+
+        // Verify a new instance has nothing to do.
+        @Cleanup
+        val gc2 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, config, executorService());
+        gc2.initialize();
+        Assert.assertEquals("Not expecting any recovered deletions.", 0, gc2.getPendingCount());
+    }
+
+    /**
+     * Tests that deleteIfPending() does not wait for background deletions that are merely scheduled on the executor, by
+     * invoking it from the only thread of the executor that the ChunkGarbageCollector runs on.
+     */
+    @Test
+    public void testDeleteIfPendingOnSameExecutor() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+        @Cleanup("shutdown")
+        val executor = ExecutorServiceHelpers.newScheduledThreadPool(1, "gc");
+
+        @Cleanup
+        val gc = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executor);
+        gc.initialize();
+        val deleted = CompletableFuture.runAsync(() -> {
+            try {
+                gc.enqueue(chunkNames);
+                for (String chunkName : chunkNames) {
+                    gc.deleteIfPending(chunkName);
+                    Assert.assertFalse("SegmentChunk was not deleted: " + chunkName, baseStorage.exists(chunkName));
+                }
+            } catch (StreamSegmentException ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+
+        deleted.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Not expecting any pending deletions.", 0, gc.getPendingCount());
+    }
+
+    /**
+     * Tests that a ChunkGarbageCollector stops deleting anything once a new owner has taken over its journal, and that
+     * the new owner picks up all the pending deletions.
+     */
+    @Test
+    public void testFencing() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+
+        // Fail all deletions, so that everything remains pending.
+        baseStorage.deleteFailure = names -> true;
+        @Cleanup
+        val gc1 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc1.initialize();
+        gc1.enqueue(chunkNames);
+
+        // A new owner takes over. The old one should notice the next time it attempts to delete anything.
+        val gc2 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc2.initialize();
+        Assert.assertEquals("Unexpected number of pending deletions for new owner.", CHUNK_COUNT, gc2.getPendingCount());
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!gc1.isFenced()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Old owner was not fenced out in time.");
+            }
+
+            Thread.sleep(10);
+        }
+
+        AssertExtensions.assertThrows(
+                "enqueue() worked after being fenced out.",
+                () -> gc1.enqueue(chunkNames),
+                ex -> ex instanceof StorageNotPrimaryException);
+        AssertExtensions.assertThrows(
+                "deleteIfPending() worked after being fenced out.",
+                () -> gc1.deleteIfPending(chunkNames.get(0)),
+                ex -> ex instanceof StorageNotPrimaryException);
+        gc2.close();
+
+        // Yet another owner must be able to complete the deletions.
+        baseStorage.deleteFailure = null;
+        @Cleanup
+        val gc3 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc3.initialize();
+        awaitDeletions(gc3);
+        for (String chunkName : chunkNames) {
+            Assert.assertFalse("SegmentChunk was not deleted: " + chunkName, baseStorage.exists(chunkName));
+        }
+    }
+
+    /**
+     * Tests that a ChunkGarbageCollector does not delete anything if a new owner takes over after it has picked (and
+     * claimed) a batch, but before it got to delete it. The new owner deletes one of the SegmentChunks in that batch
+     * ahead of schedule and re-creates it; the old owner must not delete the re-created one.
+     */
+    @Test
+    public void testFencingMidBatch() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        baseStorage.initialize(1);
+        val chunkNames = createChunks(baseStorage, "Segment", CHUNK_COUNT);
+        val recreatedChunk = chunkNames.get(0);
+
+        @Cleanup
+        val gc1 = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+        gc1.initialize();
+
+        // The first batch includes the first SegmentChunk. Take over right before the old owner verifies its ownership
+        // for that batch (this is the last thing it does before deleting).
+        val gc2 = new AtomicReference<ChunkGarbageCollector>();
+        baseStorage.beforeJournalInfo.set(() -> {
+            try {
+                val newOwner = new ChunkGarbageCollector(CONTAINER_ID, baseStorage, CONFIG, executorService());
+                gc2.set(newOwner);
+                newOwner.initialize();
+                newOwner.deleteIfPending(recreatedChunk);
+                createChunks(baseStorage, Collections.singletonList(recreatedChunk));
+            } catch (StreamSegmentException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        gc1.enqueue(chunkNames);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!gc1.isFenced()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Old owner was not fenced out in time.");
+            }
+
+            Thread.sleep(10);
+        }
+
+        @Cleanup
+        val newOwner = gc2.get();
+        Assert.assertNotNull("New owner did not take over.", newOwner);
+        awaitDeletions(newOwner);
+        for (String chunkName : chunkNames) {
+            boolean expectedExists = chunkName.equals(recreatedChunk);
+            Assert.assertEquals("Unexpected existence for SegmentChunk " + chunkName, expectedExists, baseStorage.exists(chunkName));
+        }
+    }
+
+    //region Helpers
+
+    /**
+     * Waits for the given ChunkGarbageCollector to delete all pending SegmentChunks.
+     */
+    static void awaitDeletions(ChunkGarbageCollector gc) throws TimeoutException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (gc.getPendingCount() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("SegmentChunks were not deleted in time.");
+            }
+
+            Exceptions.handleInterrupted(() -> Thread.sleep(10));
+        }
+    }
+
+    private List<String> createChunks(InMemoryStorage storage, String segmentName, int count) throws StreamSegmentException {
+        val chunkNames = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            chunkNames.add(StreamSegmentNameUtils.getSegmentChunkName(segmentName, i));
+        }
+
+        createChunks(storage, chunkNames);
+        return chunkNames;
+    }
+
+    private void createChunks(InMemoryStorage storage, List<String> chunkNames) throws StreamSegmentException {
+        for (String chunkName : chunkNames) {
+            storage.create(chunkName);
+            storage.write(storage.openWrite(chunkName), 0, new ByteArrayInputStream(new byte[1]), 1);
+        }
+    }
+
+    //endregion
+
+    //region TestStorage
+
+    private static class TestStorage extends InMemoryStorage {
+        private static final String JOURNAL_PREFIX = StreamSegmentNameUtils.getChunkDeletionJournalName(CONTAINER_ID);
+        private volatile Predicate<Collection<String>> deleteFailure;
+        /**
+         * If set, invoked (once) before the next lookup of a journal Segment's info.
+         */
+        private final AtomicReference<Runnable> beforeJournalInfo = new AtomicReference<>();
+
+        @Override
+        public SegmentProperties getStreamSegmentInfo(String streamSegmentName) throws StreamSegmentNotExistsException {
+            if (streamSegmentName.startsWith(JOURNAL_PREFIX)) {
+                val callback = this.beforeJournalInfo.getAndSet(null);
+                if (callback != null) {
+                    callback.run();
+                }
+            }
+
+            return super.getStreamSegmentInfo(streamSegmentName);
+        }
+
+        @Override
+        public void deleteAll(Collection<String> streamSegmentNames) throws StreamSegmentException {
+            val failure = this.deleteFailure;
+            if (failure != null && failure.test(streamSegmentNames)) {
+                throw new IntentionalException();
+            }
+
+            super.deleteAll(streamSegmentNames);
+        }
+    }
+
+    //endregion
+}
@@ -25,6 +25,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.Cleanup;
 import lombok.val;
 import org.junit.Assert;
@@ -212,6 +213,64 @@ public class RollingStorageTests extends RollingStorageTestBase {
         Assert.assertFalse("Expected all SegmentChunks to be marked as deleted.", writeHandle.chunks().stream().anyMatch(SegmentChunk::exists));
     }
 
+    /**
+     * Tests truncate() and delete() when SegmentChunks are deleted in the background by a ChunkGarbageCollector, as well
+     * as re-creating a deleted Segment (which reuses the same SegmentChunk names) before those deletions complete.
+     */
+    @Test
+    public void testBackgroundChunkDeletion() throws Exception {
+        @Cleanup
+        val baseStorage = new TestStorage();
+        val gc = new ChunkGarbageCollector(1, baseStorage, ChunkGarbageCollectorConfig.builder().build(), executorService());
+        @Cleanup
+        val s = new RollingStorage(baseStorage, DEFAULT_ROLLING_POLICY, gc);
+        s.initialize(1);
+        s.create(SEGMENT_NAME);
+        val writeHandle = (RollingSegmentHandle) s.openWrite(SEGMENT_NAME);
+        val readHandle = s.openRead(SEGMENT_NAME);
+        val writeStream = new ByteArrayOutputStream();
+        populate(s, writeHandle, writeStream);
+        byte[] writtenData = writeStream.toByteArray();
+
+        // Prevent the background deletions from making progress; Header deletions must still work.
+        String headerName = StreamSegmentNameUtils.getHeaderSegmentName(SEGMENT_NAME);
+        baseStorage.deleteFailure = sn -> sn.equals(headerName) ? null : new IntentionalException();
+        int truncateOffset = writtenData.length / 2;
+        s.truncate(writeHandle, truncateOffset);
+        checkWrittenData(writtenData, truncateOffset, readHandle, s);
+        for (SegmentChunk segmentChunk : writeHandle.chunks()) {
+            boolean expectedExists = segmentChunk.getLastOffset() > truncateOffset;
+            Assert.assertEquals("Unexpected SegmentChunk truncation status for " + segmentChunk, expectedExists, segmentChunk.exists());
+            Assert.assertTrue("Not expecting SegmentChunk to be deleted yet: " + segmentChunk, baseStorage.exists(segmentChunk.getName()));
+            if (!expectedExists) {
+                Assert.assertTrue("Expected SegmentChunk to be pending deletion: " + segmentChunk, gc.isPending(segmentChunk.getName()));
+                AssertExtensions.assertThrows(
+                        "Not expecting a read from a truncated SegmentChunk to work.",
+                        () -> s.read(readHandle, segmentChunk.getLastOffset() - 1, new byte[1], 0, 1),
+                        ex -> ex instanceof StreamSegmentTruncatedException);
+            }
+        }
+
+        // Delete the Segment. The Header is deleted right away, but the SegmentChunks are not.
+        val chunkNames = writeHandle.chunks().stream().map(SegmentChunk::getName).collect(Collectors.toList());
+        s.delete(writeHandle);
+        Assert.assertFalse("Expecting the segment to be deleted.", s.exists(SEGMENT_NAME));
+        Assert.assertTrue("Expected all SegmentChunks to be pending deletion.", chunkNames.stream().allMatch(gc::isPending));
+
+        // Allow deletions to proceed, and immediately re-create the Segment, which must not be affected by them.
+        baseStorage.deleteFailure = null;
+        s.create(SEGMENT_NAME);
+        val newWriteHandle = (RollingSegmentHandle) s.openWrite(SEGMENT_NAME);
+        val newWriteStream = new ByteArrayOutputStream();
+        populate(s, newWriteHandle, newWriteStream);
+        ChunkGarbageCollectorTests.awaitDeletions(gc);
+        for (SegmentChunk segmentChunk : newWriteHandle.chunks()) {
+            Assert.assertTrue("Expected re-created SegmentChunk to exist: " + segmentChunk, baseStorage.exists(segmentChunk.getName()));
+        }
+
+        checkWrittenData(newWriteStream.toByteArray(), s.openRead(SEGMENT_NAME), s);
+    }
+
     /**
      * Tests the ability to use native concat for those cases when it's appropriate.
      */
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.striped;
+
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogTestBase;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.mocks.InMemoryDurableDataLogFactory;
+import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the StripedDurableDataLog class, using InMemoryDurableDataLogs as stripes.
+ */
+public class StripedDurableDataLogTests extends DurableDataLogTestBase {
+    private static final int WRITE_COUNT = 500;
+    private static final int STRIPE_COUNT = 3;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+    private final AtomicInteger nextLogId = new AtomicInteger();
+    private InMemoryDurableDataLogFactory factory;
+
+    @Before
+    public void setUp() {
+        this.factory = new InMemoryDurableDataLogFactory(executorService());
+    }
+
+    @After
+    public void tearDown() {
+        if (this.factory != null) {
+            this.factory.close();
+            this.factory = null;
+        }
+    }
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog() {
+        return createDurableDataLog(createSharedContext());
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog(Object sharedContext) {
+        return createDurableDataLog((int) sharedContext, STRIPE_COUNT);
+    }
+
+    @Override
+    protected Object createSharedContext() {
+        return this.nextLogId.incrementAndGet();
+    }
+
+    @Override
+    protected LogAddress createLogAddress(long seqNo) {
+        return new StripedLogAddress(seqNo, new LogAddress[STRIPE_COUNT]);
+    }
+
+    @Override
+    protected int getWriteCount() {
+        return WRITE_COUNT;
+    }
+
+    /**
+     * Tests that entries that were not truncated from the stripes (which may happen since stripes are truncated
+     * independently of each other) are not returned by the reader.
+     */
+    @Test
+    public void testPartialStripeTruncation() throws Exception {
+        final int logId = (int) createSharedContext();
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+
+            // Truncate in the middle, but do not let the stripes truncate anything.
+            val truncationAddress = new StripedLogAddress(new ArrayList<>(writeData.keySet()).get(getWriteCount() / 2).getSequence(),
+                    new LogAddress[STRIPE_COUNT]);
+            log.truncate(truncationAddress, TIMEOUT).join();
+            writeData.headMap(truncationAddress, true).clear();
+            verifyReads(log, writeData);
+        }
+
+        // Verify the truncation point was persisted.
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    /**
+     * Tests that entries which were written to some stripes, but never acknowledged (because an entry before them was
+     * not written to its stripe), are not returned by the reader.
+     */
+    @Test
+    public void testUnacknowledgedEntries() throws Exception {
+        final int logId = (int) createSharedContext();
+        TreeMap<LogAddress, byte[]> writeData;
+        long epoch;
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            epoch = log.getEpoch();
+            writeData = populate(log, getWriteCount());
+        }
+
+        // Simulate an entry that was written to its stripe after an entry before it failed to be written to another stripe.
+        long orphanIndex = getWriteCount() + 1;
+        try (DurableDataLog stripe = this.factory.createDurableDataLog(getStripeLogId(logId, (int) (orphanIndex % STRIPE_COUNT)))) {
+            stripe.initialize(TIMEOUT);
+            byte[] entry = new byte[StripedDurableDataLog.ENTRY_HEADER_LENGTH + 1];
+            BitConverter.writeLong(entry, 0, StripedLogAddress.calculateSequence(epoch, orphanIndex));
+            stripe.append(new ByteArraySegment(entry), TIMEOUT).join();
+        }
+
+        // The orphan entry must not be returned, and it must not prevent subsequent entries from being read.
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            writeData.putAll(populate(log, getWriteCount()));
+        }
+
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    /**
+     * Tests the ability to change the number of stripes in between instances.
+     */
+    @Test
+    public void testChangeStripeCount() throws Exception {
+        final int logId = (int) createSharedContext();
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+        }
+
+        // Decreasing the number of stripes is not allowed, since we would lose data.
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT - 1)) {
+            AssertExtensions.assertThrows(
+                    "initialize() worked with fewer stripes.",
+                    () -> log.initialize(TIMEOUT),
+                    ex -> ex instanceof DataLogInitializationException);
+        }
+
+        // Increasing the number of stripes is allowed.
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT + 1)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            writeData.putAll(populate(log, getWriteCount()));
+        }
+
+        // ... but once increased, it cannot go back.
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT)) {
+            AssertExtensions.assertThrows(
+                    "initialize() worked with fewer stripes after the number of stripes was increased.",
+                    () -> log.initialize(TIMEOUT),
+                    ex -> ex instanceof DataLogInitializationException);
+        }
+
+        try (DurableDataLog log = createDurableDataLog(logId, STRIPE_COUNT + 1)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            Assert.assertEquals("Unexpected max append length.", this.factory.createDurableDataLog(0).getMaxAppendLength()
+                    - StripedDurableDataLog.ENTRY_HEADER_LENGTH, log.getMaxAppendLength());
+        }
+    }
+
+    private DurableDataLog createDurableDataLog(int logId, int stripeCount) {
+        val stripes = new ArrayList<DurableDataLog>();
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(this.factory.createDurableDataLog(getStripeLogId(logId, i)));
+        }
+
+        return new StripedDurableDataLog(logId, this.factory.createDurableDataLog(getStripeLogId(logId, -1)), stripes);
+    }
+
+    private int getStripeLogId(int logId, int stripeId) {
+        // Stripe -1 is the metadata log.
+        return logId * 100 + stripeId + 1;
+    }
+}
@@ -24,6 +24,9 @@ public final class MetricsNames {
     public static final String STORAGE_WRITE_LATENCY = "tier2_write_latency_ms"; // Timer
     public static final String STORAGE_READ_BYTES = "tier2_read_bytes";          // Counter
     public static final String STORAGE_WRITE_BYTES = "tier2_write_bytes";        // Counter
+    public static final String STORAGE_GC_QUEUE_SIZE = "tier2_gc_queue_size";   // Per Container; SegmentChunks pending deletion.
+    public static final String STORAGE_GC_DELETE_LATENCY = "tier2_gc_delete_latency_ms"; // Per Container; one batch.
+    public static final String STORAGE_GC_DELETED_CHUNKS = "tier2_gc_deleted_chunks"; // Per Container.
 
     //Cache (RocksDB) stats
     public static final String CACHE_INSERT_LATENCY = "cache_insert_latency";
@@ -36,6 +39,8 @@ public final class MetricsNames {
     public static final String BK_WRITE_QUEUE_SIZE = "bookkeeper_write_queue_size";
     public static final String BK_WRITE_QUEUE_FILL_RATE = "bookkeeper_write_queue_fill";
     public static final String BK_LEDGER_COUNT = "bookkeeper_ledger_count";
+    public static final String BK_ROLLOVER_LATENCY = "bookkeeper_rollover_latency";
+    public static final String BK_WRITE_STALL_LATENCY = "bookkeeper_write_stall_latency"; // Writes blocked by a rollover.
 
     //Container-specific metrics
     public static final String CONTAINER_APPEND_COUNT = "container_append_count";
@@ -43,6 +48,7 @@ public final class MetricsNames {
     public static final String CONTAINER_UPDATE_ATTRIBUTES_COUNT = "container_update_attributes_count";
     public static final String CONTAINER_READ_COUNT = "container_read_count";
     public static final String CONTAINER_GET_INFO_COUNT = "container_get_info_count";
+    public static final String CONTAINER_GET_ATTRIBUTES_COUNT = "container_get_attributes_count";
     public static final String CONTAINER_CREATE_SEGMENT_COUNT = "container_create_segment_count";
     public static final String CONTAINER_DELETE_SEGMENT_COUNT = "container_delete_segment_count";
     public static final String CONTAINER_CREATE_TXN_COUNT = "container_create_txn_count";
@@ -55,17 +61,30 @@ public final class MetricsNames {
     public static final String OPERATION_PROCESSOR_IN_FLIGHT = "operation_processor_in_flight";
     public static final String OPERATION_QUEUE_WAIT_TIME = "operation_queue_wait_time";
     public static final String OPERATION_PROCESSOR_DELAY_MILLIS = "operation_processor_delay_ms";
+    public static final String OPERATION_PROCESSOR_THROTTLER_DELAY_MILLIS = "operation_processor_throttler_delay_ms"; // Total, per throttler.
     public static final String OPERATION_COMMIT_LATENCY = "operation_commit_latency_ms";
     public static final String OPERATION_LATENCY = "operation_latency_ms";
     public static final String OPERATION_COMMIT_METADATA_TXN_COUNT = "operation_commit_metadata_txn_count";
     public static final String OPERATION_COMMIT_MEMORY_LATENCY = "operation_commit_memory_latency_ms";
     public static final String OPERATION_LOG_SIZE = "operation_log_size";
+    public static final String DATA_FRAME_COMPRESSION_RATIO = "data_frame_compression_ratio"; // Percentage (uncompressed/compressed).
+    public static final String DATA_FRAME_COMPRESSION_LATENCY = "data_frame_compression_latency";
     public static final String ACTIVE_SEGMENT_COUNT = "active_segments";
+    public static final String RECOVERY_REPLAYED_BYTES = "recovery_replayed_bytes";
+    public static final String STORAGE_WRITER_FLUSH_LATENCY = "storage_writer_flush_latency_ms";
+    public static final String STORAGE_WRITER_FLUSHES_IN_FLIGHT = "storage_writer_flushes_in_flight";
+    public static final String STORAGE_WRITER_FLUSH_LAG_BYTES = "storage_writer_flush_lag_bytes"; // Per Segment; not yet flushed to Storage.
 
     // General metrics
     public static final String CACHE_TOTAL_SIZE_BYTES = "cache_size_bytes";
     public static final String CACHE_GENERATION_SPREAD = "cache_gen";
+    public static final String CACHE_HIT_RATIO = "cache_hit_ratio";
+    public static final String CACHE_HITS = "cache_hits";
+    public static final String CACHE_MISSES = "cache_misses";
     public static final String THREAD_POOL_QUEUE_SIZE = "thread_pool_queue_size";
+    public static final String RECOVERY_PENDING_COUNT = "recovery_pending_count"; // Recoveries waiting to start.
+    public static final String RECOVERY_ACTIVE_COUNT = "recovery_active_count";
+    public static final String RECOVERY_WAIT_TIME = "recovery_wait_time_ms";
     public static final String THREAD_POOL_ACTIVE_THREADS = "thread_pool_active_threads";
 
     // Metrics in Controller
@@ -108,4 +127,9 @@ public final class MetricsNames {
         String name = metric + "." + containerId;
         return escapeSpecialChar(name);
     }
+
+    public static String nameFromCachePolicy(String metric, String evictionPolicy) {
+        String name = metric + "." + evictionPolicy;
+        return escapeSpecialChar(name);
+    }
 }
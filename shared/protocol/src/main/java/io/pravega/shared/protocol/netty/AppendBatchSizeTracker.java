@@ -11,6 +11,26 @@ package io.pravega.shared.protocol.netty;
 
 public interface AppendBatchSizeTracker {
 
+    /**
+     * The reason an append block was closed.
+     */
+    enum BlockCloseReason {
+        /**
+         * The block was filled up to the size returned by {@link #getAppendBlockSize()}.
+         */
+        FULL,
+
+        /**
+         * The batch timeout elapsed before the block was filled.
+         */
+        TIMEOUT,
+
+        /**
+         * Another command (a different segment, a conditional append, etc.) had to be sent before the block was filled.
+         */
+        INTERRUPTED
+    }
+
     /**
      * Records that an append has been sent.
      * 
@@ -40,4 +60,13 @@ public interface AppendBatchSizeTracker {
      */
     int getBatchTimeout();
 
+    /**
+     * Records that an append block has been closed and handed to the transport.
+     *
+     * @param bytesInBlock the number of event bytes that were written into the block
+     * @param reason       the reason the block was closed
+     */
+    default void recordBlockClosed(int bytesInBlock, BlockCloseReason reason) {
+    }
+
 }
\ No newline at end of file
@@ -9,31 +9,33 @@
  */
 package io.pravega.shared.protocol.netty;
 
-import io.pravega.shared.protocol.netty.WireCommands.AppendBlock;
-import io.pravega.shared.protocol.netty.WireCommands.AppendBlockEnd;
-import io.pravega.shared.protocol.netty.WireCommands.ConditionalAppend;
-import io.pravega.shared.protocol.netty.WireCommands.Event;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker.BlockCloseReason;
 import io.pravega.shared.protocol.netty.WireCommands.Flush;
-import io.pravega.shared.protocol.netty.WireCommands.Padding;
-import io.pravega.shared.protocol.netty.WireCommands.PartialEvent;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import com.google.common.base.Preconditions;
-import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.NotThreadSafe;
 
+import static io.pravega.shared.protocol.netty.WireCommandType.APPEND_BLOCK;
+import static io.pravega.shared.protocol.netty.WireCommandType.APPEND_BLOCK_END;
+import static io.pravega.shared.protocol.netty.WireCommandType.CONDITIONAL_APPEND;
+import static io.pravega.shared.protocol.netty.WireCommandType.EVENT;
+import static io.pravega.shared.protocol.netty.WireCommandType.PADDING;
+import static io.pravega.shared.protocol.netty.WireCommandType.PARTIAL_EVENT;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -63,15 +65,24 @@ import lombok.extern.slf4j.Slf4j;
  * need to be parsed out of individual messages. Notably this includes the event number of the last
  * event in the block, so that it can be acknowledged.
  *
+ * SegmentReads are also special cased: their data is not copied into the output buffer. Instead a composite buffer made
+ * up of the serialized header and the data buffer of the reply is written out, and the data buffer is released by Netty
+ * once it has been written to the socket.
+ *
  */
 @NotThreadSafe
 @RequiredArgsConstructor
 @Slf4j
 public class CommandEncoder extends MessageToByteEncoder<Object> {
-    private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
+    private static final int UUID_SIZE = 2 * Long.BYTES;
+    // WriterId, sizeOfWholeEvents, data length, numEvents, lastEventNumber and the unused field.
+    private static final int APPEND_BLOCK_END_FIXED_SIZE = UUID_SIZE + 3 * Integer.BYTES + 2 * Long.BYTES;
+    // WriterId, eventNumber, expectedOffset and data length.
+    private static final int CONDITIONAL_APPEND_FIXED_SIZE = UUID_SIZE + 2 * Long.BYTES + Integer.BYTES;
 
     private final AppendBatchSizeTracker blockSizeSupplier;
     private final HashMap<String, Session> setupSegments = new HashMap<>();
+    private final ByteBufDataOutput output = new ByteBufDataOutput();
     private String segmentBeingAppendedTo;
     private int currentBlockSize;
     private int bytesLeftInBlock;
@@ -83,6 +94,28 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         private int eventCount;
     }
 
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof SegmentRead) {
+            log.trace("Encoding message to send over the wire {}", msg);
+            SegmentRead segmentRead = (SegmentRead) msg;
+            ByteBuf data = segmentRead.getData();
+            ByteBuf header = ctx.alloc().buffer();
+            try {
+                breakFromAppend(BlockCloseReason.INTERRUPTED, header);
+                writeMessageHeader(segmentRead, data.readableBytes(), header);
+            } catch (Throwable e) {
+                header.release();
+                data.release();
+                throw e;
+            }
+            // The composite buffer takes ownership of both components and releases them when it is itself released.
+            ctx.write(wrappedBuffer(header, data), promise);
+        } else {
+            super.write(ctx, msg, promise);
+        }
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
         log.trace("Encoding message to send over the wire {}", msg);
@@ -97,23 +130,19 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 + " following: " + session.lastEventNumber);
             }
             if (append.isConditional()) {
-                breakFromAppend(out);
-                ConditionalAppend ca = new ConditionalAppend(append.writerId,
-                        append.eventNumber,
-                        append.getExpectedLength(),
-                        wrappedBuffer(serializeMessage(new Event(append.getData()))));
-                writeMessage(ca, out);
+                breakFromAppend(BlockCloseReason.INTERRUPTED, out);
+                writeConditionalAppend(append, out);
             } else {
                 Preconditions.checkState(bytesLeftInBlock == 0 || bytesLeftInBlock > TYPE_PLUS_LENGTH_SIZE,
                         "Bug in CommandEncoder.encode, block is too small.");
                 if (append.segment != segmentBeingAppendedTo) {
-                    breakFromAppend(out);
+                    breakFromAppend(BlockCloseReason.INTERRUPTED, out);
                 }
                 if (bytesLeftInBlock == 0) {
                     currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, blockSizeSupplier.getAppendBlockSize());
                     bytesLeftInBlock = currentBlockSize;
                     segmentBeingAppendedTo = append.segment;
-                    writeMessage(new AppendBlock(session.id), out);
+                    writeAppendBlock(session.id, out);
                     if (ctx != null) {
                         ctx.executor().schedule(new Flusher(ctx.channel(), currentBlockSize),
                                                 blockSizeSupplier.getBatchTimeout(),
@@ -127,52 +156,46 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 int msgSize = TYPE_PLUS_LENGTH_SIZE + data.readableBytes();
                 // Is there enough space for a subsequent message after this one?
                 if (bytesLeftInBlock - msgSize > TYPE_PLUS_LENGTH_SIZE) {
-                    bytesLeftInBlock -= writeMessage(new Event(data), out);
+                    writeEventPart(data, 0, msgSize, out);
+                    bytesLeftInBlock -= msgSize;
                 } else {
-                    byte[] serializedMessage = serializeMessage(new Event(data));
+                    // Split the serialized Event in two: the part that fits in this block goes into a PartialEvent,
+                    // and the remainder goes into the AppendBlockEnd.
                     int bytesInBlock = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
-                    ByteBuf dataInsideBlock = wrappedBuffer(serializedMessage, 0, bytesInBlock);
-                    ByteBuf dataRemainging = wrappedBuffer(serializedMessage,
-                                                           bytesInBlock,
-                                                           serializedMessage.length - bytesInBlock);
-                    writeMessage(new PartialEvent(dataInsideBlock), out);
-                    writeMessage(new AppendBlockEnd(session.id,
-                                                    currentBlockSize - bytesLeftInBlock,
-                                                    dataRemainging,
-                                                    session.eventCount,
-                                                    session.lastEventNumber,
-                                                    0L), out);
+                    writeHeader(PARTIAL_EVENT, bytesInBlock, out);
+                    writeEventPart(data, 0, bytesInBlock, out);
+                    writeAppendBlockEnd(session, currentBlockSize - bytesLeftInBlock, data, bytesInBlock, out);
+                    blockSizeSupplier.recordBlockClosed(currentBlockSize, BlockCloseReason.FULL);
                     bytesLeftInBlock = 0;
                     session.eventCount = 0;
                 }
             }
         } else if (msg instanceof SetupAppend) {
-            breakFromAppend(out);
+            breakFromAppend(BlockCloseReason.INTERRUPTED, out);
             writeMessage((SetupAppend) msg, out);
             SetupAppend setup = (SetupAppend) msg;
             setupSegments.put(setup.getSegment(), new Session(setup.getWriterId()));
         } else if (msg instanceof Flush) {
             Flush flush = (Flush) msg;
             if (currentBlockSize == flush.getBlockSize()) {
-                breakFromAppend(out);
+                breakFromAppend(BlockCloseReason.TIMEOUT, out);
             }
         } else if (msg instanceof WireCommand) {
-            breakFromAppend(out);
+            breakFromAppend(BlockCloseReason.INTERRUPTED, out);
             writeMessage((WireCommand) msg, out);
         } else {
             throw new IllegalArgumentException("Expected a wire command and found: "+ msg);
         }
     }
 
-    private void breakFromAppend(ByteBuf out) {
+    private void breakFromAppend(BlockCloseReason reason, ByteBuf out) {
         if (bytesLeftInBlock != 0) {
-            writeMessage(new Padding(bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE), out);
+            blockSizeSupplier.recordBlockClosed(currentBlockSize - bytesLeftInBlock, reason);
+            int paddingSize = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
+            writeHeader(PADDING, paddingSize, out);
+            out.writeZero(paddingSize);
             Session session = setupSegments.get(segmentBeingAppendedTo);
-            writeMessage(new AppendBlockEnd(session.id,
-                    currentBlockSize - bytesLeftInBlock,
-                    null,
-                    session.eventCount,
-                    session.lastEventNumber, 0L), out);
+            writeAppendBlockEnd(session, currentBlockSize - bytesLeftInBlock, null, 0, out);
             bytesLeftInBlock = 0;
             currentBlockSize = 0;
             session.eventCount = 0;
@@ -180,48 +203,204 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         segmentBeingAppendedTo = null;
     }
 
-    @SneakyThrows(IOException.class)
-    private byte[] serializeMessage(WireCommand msg) {
-        ByteArrayOutputStream bout = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(bout);
-        out.writeInt(msg.getType().getCode());
-        out.write(LENGTH_PLACEHOLDER);
-        msg.writeFields(out);
-        out.flush();
-        out.close();
-        byte[] result = bout.toByteArray();
-        ByteBuffer asBuffer = ByteBuffer.wrap(result);
-        asBuffer.putInt(TYPE_SIZE, result.length - TYPE_PLUS_LENGTH_SIZE);
-        return result;
+    //region Append Serialization
+
+    // These write the append related commands directly into the outbound buffer. They must produce exactly the same
+    // bytes as the writeFields() methods of the corresponding WireCommands, but without any intermediate copies.
+
+    private static void writeHeader(WireCommandType type, int length, ByteBuf out) {
+        out.writeInt(type.getCode());
+        out.writeInt(length);
     }
 
+    private void writeAppendBlock(UUID writerId, ByteBuf out) {
+        // The length of an AppendBlock includes the data of the block, which follows it.
+        writeHeader(APPEND_BLOCK, UUID_SIZE + currentBlockSize, out);
+        out.writeLong(writerId.getMostSignificantBits());
+        out.writeLong(writerId.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes an AppendBlockEnd.
+     *
+     * @param session           The Session of the writer whose block is ending.
+     * @param sizeOfWholeEvents The number of bytes in the block taken up by whole Events.
+     * @param event             (Optional) The data of the Event that straddles the block boundary.
+     * @param eventBytesWritten The number of bytes of the serialized Event that were written inside the block.
+     * @param out               The ByteBuf to write to.
+     */
+    private static void writeAppendBlockEnd(Session session, int sizeOfWholeEvents, ByteBuf event, int eventBytesWritten, ByteBuf out) {
+        int remaining = event == null ? 0 : TYPE_PLUS_LENGTH_SIZE + event.readableBytes() - eventBytesWritten;
+        writeHeader(APPEND_BLOCK_END, APPEND_BLOCK_END_FIXED_SIZE + remaining, out);
+        out.writeLong(session.id.getMostSignificantBits());
+        out.writeLong(session.id.getLeastSignificantBits());
+        out.writeInt(sizeOfWholeEvents);
+        out.writeInt(remaining);
+        if (remaining > 0) {
+            writeEventPart(event, eventBytesWritten, remaining, out);
+        }
+        out.writeInt(session.eventCount);
+        out.writeLong(session.lastEventNumber);
+        out.writeLong(0L);
+    }
+
+    private static void writeConditionalAppend(Append append, ByteBuf out) {
+        int eventSize = TYPE_PLUS_LENGTH_SIZE + append.getData().readableBytes();
+        writeHeader(CONDITIONAL_APPEND, CONDITIONAL_APPEND_FIXED_SIZE + eventSize, out);
+        out.writeLong(append.getWriterId().getMostSignificantBits());
+        out.writeLong(append.getWriterId().getLeastSignificantBits());
+        out.writeLong(append.getEventNumber());
+        out.writeLong(append.getExpectedLength());
+        out.writeInt(eventSize);
+        writeEventPart(append.getData(), 0, eventSize, out);
+    }
+
+    /**
+     * Writes a range of the serialized form of an Event (its header followed by its data), without materializing it.
+     *
+     * @param data   The data of the Event.
+     * @param from   The offset within the serialized Event to begin at.
+     * @param length The number of bytes to write.
+     * @param out    The ByteBuf to write to.
+     */
+    private static void writeEventPart(ByteBuf data, int from, int length, ByteBuf out) {
+        int end = from + length;
+        if (from == 0 && end >= TYPE_PLUS_LENGTH_SIZE) {
+            writeHeader(EVENT, data.readableBytes(), out);
+        } else if (from < TYPE_PLUS_LENGTH_SIZE) {
+            // The Event's header is split across the block boundary; only write the requested part of it.
+            long header = ((long) EVENT.getCode() << Integer.SIZE) | (data.readableBytes() & 0xFFFFFFFFL);
+            for (int i = from; i < Math.min(end, TYPE_PLUS_LENGTH_SIZE); i++) {
+                out.writeByte((int) (header >>> (Long.SIZE - Byte.SIZE * (i + 1))));
+            }
+        }
+        if (end > TYPE_PLUS_LENGTH_SIZE) {
+            int dataFrom = Math.max(from - TYPE_PLUS_LENGTH_SIZE, 0);
+            out.writeBytes(data, data.readerIndex() + dataFrom, end - TYPE_PLUS_LENGTH_SIZE - dataFrom);
+        }
+    }
+
+    //endregion
+
     @SneakyThrows(IOException.class)
-    private void writeMessage(AppendBlock block, ByteBuf out) {
+    private int writeMessage(WireCommand msg, ByteBuf out) {
         int startIdx = out.writerIndex();
-        ByteBufOutputStream bout = new ByteBufOutputStream(out);
-        bout.writeInt(block.getType().getCode());
-        bout.write(LENGTH_PLACEHOLDER);
-        block.writeFields(bout);
-        bout.flush();
-        bout.close();
+        out.writeInt(msg.getType().getCode());
+        out.writeInt(0); // Length placeholder.
+        try {
+            msg.writeFields(this.output.wrap(out));
+        } finally {
+            this.output.wrap(null);
+        }
         int endIdx = out.writerIndex();
         int fieldsSize = endIdx - startIdx - TYPE_PLUS_LENGTH_SIZE;
-        out.setInt(startIdx + TYPE_SIZE, fieldsSize + currentBlockSize);
+        out.setInt(startIdx + TYPE_SIZE, fieldsSize);
+        return endIdx - startIdx;
     }
 
     @SneakyThrows(IOException.class)
-    private int writeMessage(WireCommand msg, ByteBuf out) {
+    private void writeMessageHeader(SegmentRead msg, int dataLength, ByteBuf out) {
         int startIdx = out.writerIndex();
-        ByteBufOutputStream bout = new ByteBufOutputStream(out);
-        bout.writeInt(msg.getType().getCode());
-        bout.write(LENGTH_PLACEHOLDER);
-        msg.writeFields(bout);
-        bout.flush();
-        bout.close();
+        out.writeInt(msg.getType().getCode());
+        out.writeInt(0); // Length placeholder.
+        try {
+            msg.writeFieldsWithoutData(this.output.wrap(out));
+        } finally {
+            this.output.wrap(null);
+        }
         int endIdx = out.writerIndex();
         int fieldsSize = endIdx - startIdx - TYPE_PLUS_LENGTH_SIZE;
-        out.setInt(startIdx + TYPE_SIZE, fieldsSize);
-        return endIdx - startIdx;
+        out.setInt(startIdx + TYPE_SIZE, fieldsSize + dataLength);
+    }
+
+    /**
+     * A DataOutput that writes into a ByteBuf. Unlike ByteBufOutputStream, it can be pointed at a different ByteBuf
+     * every time, so a single instance is reused for all the commands written by a CommandEncoder.
+     */
+    @NotThreadSafe
+    private static final class ByteBufDataOutput extends OutputStream implements DataOutput {
+        private final DataOutputStream utfOutput = new DataOutputStream(this);
+        private ByteBuf buffer;
+
+        ByteBufDataOutput wrap(ByteBuf buffer) {
+            this.buffer = buffer;
+            return this;
+        }
+
+        @Override
+        public void write(int b) {
+            this.buffer.writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] b) {
+            this.buffer.writeBytes(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.buffer.writeBytes(b, off, len);
+        }
+
+        @Override
+        public void writeBoolean(boolean v) {
+            this.buffer.writeBoolean(v);
+        }
+
+        @Override
+        public void writeByte(int v) {
+            this.buffer.writeByte(v);
+        }
+
+        @Override
+        public void writeShort(int v) {
+            this.buffer.writeShort(v);
+        }
+
+        @Override
+        public void writeChar(int v) {
+            this.buffer.writeChar(v);
+        }
+
+        @Override
+        public void writeInt(int v) {
+            this.buffer.writeInt(v);
+        }
+
+        @Override
+        public void writeLong(long v) {
+            this.buffer.writeLong(v);
+        }
+
+        @Override
+        public void writeFloat(float v) {
+            this.buffer.writeFloat(v);
+        }
+
+        @Override
+        public void writeDouble(double v) {
+            this.buffer.writeDouble(v);
+        }
+
+        @Override
+        public void writeBytes(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                this.buffer.writeByte((byte) s.charAt(i));
+            }
+        }
+
+        @Override
+        public void writeChars(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                this.buffer.writeChar(s.charAt(i));
+            }
+        }
+
+        @Override
+        public void writeUTF(String s) throws IOException {
+            // DataOutputStream writes the modified UTF-8 encoding back into this (through write(byte[], int, int)).
+            this.utfOutput.writeUTF(s);
+        }
     }
 
     @RequiredArgsConstructor
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * A {@link ByteBufInputStream} that allows its consumers to take slices of the underlying buffer instead of copying
+ * the bytes out of it. This is used by the {@link CommandDecoder} so that large payloads (such as the data in a
+ * {@link WireCommands.SegmentRead}) can be handed off without being copied.
+ */
+class EnhancedByteBufInputStream extends ByteBufInputStream {
+    private final ByteBuf buffer;
+
+    EnhancedByteBufInputStream(ByteBuf buffer) {
+        super(buffer);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns a retained slice of the next length bytes in the underlying buffer and advances past them. The caller
+     * is responsible for releasing the returned buffer.
+     *
+     * @param length The number of bytes to slice.
+     * @return A retained slice of the underlying buffer.
+     * @throws EOFException If there are fewer than length bytes available.
+     */
+    ByteBuf readRetainedSlice(int length) throws IOException {
+        if (available() < length) {
+            throw new EOFException();
+        }
+        return this.buffer.readRetainedSlice(length);
+    }
+}
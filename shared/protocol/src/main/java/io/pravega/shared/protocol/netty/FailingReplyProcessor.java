@@ -110,6 +110,8 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
 
     @Override
     public void segmentRead(SegmentRead data) {
+        // Nobody else is going to release this.
+        data.release();
         throw new IllegalStateException("Unexpected operation: " + data);
     }
     
@@ -42,6 +42,12 @@ public interface ReplyProcessor {
     
     void conditionalCheckFailed(WireCommands.ConditionalCheckFailed dataNotAppended);
 
+    /**
+     * Processes a SegmentRead. The data of the SegmentRead may be a slice of a pooled buffer: the implementation takes
+     * ownership of it and must either hand it off or release it (see SegmentRead.release()), including when it fails.
+     *
+     * @param segmentRead The SegmentRead to process.
+     */
     void segmentRead(WireCommands.SegmentRead segmentRead);
     
     void segmentAttributeUpdated(WireCommands.SegmentAttributeUpdated segmentAttributeUpdated);
@@ -18,8 +18,8 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.BufferOverflowException;
-import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -730,7 +730,7 @@ public final class WireCommands {
         final long offset;
         final boolean atTail; //TODO: Is sometimes false when actual state is unknown.
         final boolean endOfSegment;
-        final ByteBuffer data;
+        final ByteBuf data;
 
         @Override
         public void process(ReplyProcessor cp) {
@@ -739,13 +739,30 @@ public final class WireCommands {
 
         @Override
         public void writeFields(DataOutput out) throws IOException {
+            writeFieldsWithoutData(out);
+            int dataLength = data.readableBytes();
+            if (out instanceof OutputStream) {
+                data.getBytes(data.readerIndex(), (OutputStream) out, dataLength);
+            } else {
+                byte[] bytes = new byte[dataLength];
+                data.getBytes(data.readerIndex(), bytes);
+                out.write(bytes);
+            }
+        }
+
+        /**
+         * Writes all the fields of this command, including the length of the data but not the data itself. This allows
+         * the data to be sent as-is, following the output of this method, without having to copy it.
+         *
+         * @param out The DataOutput to write to.
+         * @throws IOException If an exception occurred.
+         */
+        void writeFieldsWithoutData(DataOutput out) throws IOException {
             out.writeUTF(segment);
             out.writeLong(offset);
             out.writeBoolean(atTail);
             out.writeBoolean(endOfSegment);
-            int dataLength = data.remaining();
-            out.writeInt(dataLength);
-            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            out.writeInt(data.readableBytes());
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
@@ -757,9 +774,23 @@ public final class WireCommands {
             if (dataLength > length) {
                 throw new BufferOverflowException();
             }
-            byte[] data = new byte[dataLength];
-            in.readFully(data);
-            return new SegmentRead(segment, offset, atTail, endOfSegment, ByteBuffer.wrap(data));
+            ByteBuf data;
+            if (in instanceof EnhancedByteBufInputStream) {
+                // Slice the data out of the inbound buffer rather than copying it.
+                data = ((EnhancedByteBufInputStream) in).readRetainedSlice(dataLength);
+            } else {
+                byte[] bytes = new byte[dataLength];
+                in.readFully(bytes);
+                data = wrappedBuffer(bytes);
+            }
+            return new SegmentRead(segment, offset, atTail, endOfSegment, data);
+        }
+
+        /**
+         * Releases the data held by this command. This should be invoked once the data is no longer needed.
+         */
+        public void release() {
+            data.release();
         }
 
         @Override
@@ -1330,7 +1361,6 @@ public final class WireCommands {
         }
     }
 
-
     @Data
     public static final class SealSegment implements Request, WireCommand {
         final WireCommandType type = WireCommandType.SEAL_SEGMENT;
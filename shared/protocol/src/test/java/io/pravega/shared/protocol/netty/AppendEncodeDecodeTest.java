@@ -11,12 +11,16 @@ package io.pravega.shared.protocol.netty;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker.BlockCloseReason;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,6 +35,7 @@ import org.junit.Test;
 import static io.pravega.shared.protocol.netty.WireCommandType.EVENT;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class AppendEncodeDecodeTest {
@@ -57,6 +62,7 @@ public class AppendEncodeDecodeTest {
     @RequiredArgsConstructor
     private static final class FixedBatchSizeTracker implements AppendBatchSizeTracker {
         private final int appendBlockSize;  
+        private final List<BlockCloseReason> closeReasons = new ArrayList<>();
 
         @Override
         public int getAppendBlockSize() {
@@ -76,7 +82,11 @@ public class AppendEncodeDecodeTest {
         public int getBatchTimeout() {
             return 10;
         }
-        
+
+        @Override
+        public void recordBlockClosed(int bytesInBlock, BlockCloseReason reason) {
+            closeReasons.add(reason);
+        }
     }
     
     private static final class FakeLengthDecoder extends LengthFieldBasedFrameDecoder {
@@ -119,6 +129,73 @@ public class AppendEncodeDecodeTest {
         assertEquals(msg.data.readableBytes() + TYPE_PLUS_LENGTH_SIZE, readAppend.data.readableBytes());
     }
 
+    @Test
+    public void testBlockCloseReasons() throws Exception {
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        int blockSize = 100;
+        FixedBatchSizeTracker tracker = new FixedBatchSizeTracker(blockSize);
+        CommandEncoder commandEncoder = new CommandEncoder(tracker);
+        commandEncoder.encode(null, new SetupAppend(1, writerId, "segment", ""), fakeNetwork);
+
+        commandEncoder.encode(null, new Append("segment", writerId, 1, Unpooled.wrappedBuffer(new byte[10]), null), fakeNetwork);
+        commandEncoder.encode(null, new WireCommands.Flush(blockSize), fakeNetwork);
+        commandEncoder.encode(null, new Append("segment", writerId, 2, Unpooled.wrappedBuffer(new byte[10]), null), fakeNetwork);
+        commandEncoder.encode(null, new KeepAlive(), fakeNetwork);
+        commandEncoder.encode(null, new Append("segment", writerId, 3, Unpooled.wrappedBuffer(new byte[blockSize]), null), fakeNetwork);
+        // A Flush for an older block must not close the current one.
+        commandEncoder.encode(null, new Append("segment", writerId, 4, Unpooled.wrappedBuffer(new byte[10]), null), fakeNetwork);
+        commandEncoder.encode(null, new WireCommands.Flush(blockSize + 1), fakeNetwork);
+
+        assertEquals(Arrays.asList(BlockCloseReason.TIMEOUT, BlockCloseReason.INTERRUPTED, BlockCloseReason.FULL),
+                tracker.closeReasons);
+    }
+
+    @Test
+    public void testEventSplitAtEveryOffset() throws Exception {
+        int eventSize = 20;
+        byte[] content = new byte[eventSize];
+        // Covers splitting the Event's header, its data, and not splitting it at all.
+        for (int blockSize = TYPE_PLUS_LENGTH_SIZE; blockSize <= eventSize + 3 * TYPE_PLUS_LENGTH_SIZE; blockSize++) {
+            @Cleanup("release")
+            ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+            CommandEncoder commandEncoder = new CommandEncoder(new FixedBatchSizeTracker(blockSize));
+            AppendDecoder decoder = new AppendDecoder();
+            SetupAppend setupAppend = new SetupAppend(1, writerId, streamName, "");
+            commandEncoder.encode(null, setupAppend, fakeNetwork);
+            decoder.processCommand(CommandDecoder.parseCommand(fakeNetwork));
+
+            commandEncoder.encode(null, new Append(streamName, writerId, 0, Unpooled.wrappedBuffer(content), null), fakeNetwork);
+            commandEncoder.encode(null, new KeepAlive(), fakeNetwork);
+            ArrayList<Object> received = new ArrayList<>();
+            while (fakeNetwork.isReadable()) {
+                WireCommand command = CommandDecoder.parseCommand(fakeNetwork);
+                Object result = decoder.acceptInboundMessage(command) ? decoder.processCommand(command) : command;
+                if (result != null) {
+                    received.add(result);
+                }
+            }
+            assertEquals("Unexpected commands for block size " + blockSize, 2, received.size());
+            verify(received.subList(0, 1), 1, eventSize);
+            assertEquals(new KeepAlive(), received.get(1));
+        }
+    }
+
+    @Test
+    public void testConditionalAppend() throws Exception {
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        ArrayList<Object> received = setupAppend(streamName, writerId, fakeNetwork);
+        byte[] content = new byte[100];
+        Append append = new Append(streamName, writerId, 0, Unpooled.wrappedBuffer(content), 123L);
+        encoder.encode(null, append, fakeNetwork);
+        read(fakeNetwork, received);
+        assertEquals(1, received.size());
+        Append readAppend = (Append) received.get(0);
+        assertEquals(123L, (long) readAppend.getExpectedLength());
+        verify(received, 1, content.length);
+    }
+
     @Test
     public void testSwitchingStream() throws Exception {
         int size = appendBlockSize;
@@ -259,6 +336,27 @@ public class AppendEncodeDecodeTest {
         sendAndVerifyEvents(streamName, writerId, 2, size, 2);
     }
 
+    @Test
+    public void testSegmentReadIsNotCopied() throws Exception {
+        byte[] content = new byte[100];
+        Arrays.fill(content, (byte) 1);
+        ByteBuf data = Unpooled.wrappedBuffer(content);
+        SegmentRead segmentRead = new SegmentRead(streamName, 0, true, false, data);
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder(new FixedBatchSizeTracker(appendBlockSize)));
+        channel.writeOutbound(segmentRead);
+        ByteBuf written = channel.readOutbound();
+
+        // The data buffer must have been written out as-is, as part of a composite buffer.
+        assertTrue(written instanceof CompositeByteBuf);
+        assertEquals(data, ((CompositeByteBuf) written).component(1));
+        SegmentRead decoded = (SegmentRead) CommandDecoder.parseCommand(written);
+        assertEquals(segmentRead, decoded);
+        decoded.release();
+        written.release();
+        assertEquals(0, data.refCnt());
+        assertFalse(channel.finish());
+    }
+
     private ArrayList<Object> setupAppend(String testStream, UUID writerId, ByteBuf fakeNetwork) throws Exception {
         SetupAppend setupAppend = new SetupAppend(1, writerId, testStream, "");
         encoder.encode(null, setupAppend, fakeNetwork);
@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class WireCommandsTest {
 
@@ -141,7 +142,50 @@ public class WireCommandsTest {
 
     @Test
     public void testSegmentRead() throws IOException {
-        testCommand(new WireCommands.SegmentRead(testString1, l, true, false, buffer));
+        testCommand(new WireCommands.SegmentRead(testString1, l, true, false, buf));
+    }
+
+    @Test
+    public void testSegmentReadSlicesData() throws IOException {
+        WireCommands.SegmentRead command = new WireCommands.SegmentRead(testString1, l, true, false, buf);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        command.writeFields(new DataOutputStream(bout));
+        ByteBuf serialized = Unpooled.wrappedBuffer(bout.toByteArray());
+        WireCommands.SegmentRead read = (WireCommands.SegmentRead) WireCommands.SegmentRead.readFrom(
+                new EnhancedByteBufInputStream(serialized), serialized.readableBytes());
+        assertEquals(command, read);
+
+        // The data must be a retained slice of the input, not a copy.
+        assertEquals(2, serialized.refCnt());
+        assertEquals(0, serialized.readableBytes());
+        read.release();
+        assertEquals(1, serialized.refCnt());
+        serialized.release();
+    }
+
+    @Test
+    public void testUnexpectedSegmentReadIsReleased() {
+        ByteBuf data = Unpooled.wrappedBuffer(new byte[] { 1, 2, 3 });
+        ReplyProcessor processor = new FailingReplyProcessor() {
+            @Override
+            public void connectionDropped() {
+            }
+
+            @Override
+            public void processingFailure(Exception error) {
+            }
+
+            @Override
+            public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+            }
+        };
+        try {
+            processor.process(new WireCommands.SegmentRead(testString1, l, true, false, data));
+            fail("FailingReplyProcessor did not reject a SegmentRead.");
+        } catch (IllegalStateException ex) {
+            // Expected.
+        }
+        assertEquals(0, data.refCnt());
     }
     
     @Test
@@ -23,6 +23,11 @@ public final class StreamSegmentNameUtils {
      */
     private static final String STATE_SUFFIX = "$state";
 
+    /**
+     * This is appended to the end of the Segment/Transaction name to indicate it stores its Attribute Index.
+     */
+    private static final String ATTRIBUTE_SUFFIX = "$attributes";
+
     /**
      * This is appended to the end of the Segment/Transaction name to indicate it stores its Rolling Storage Header.
      */
@@ -33,6 +38,11 @@ public final class StreamSegmentNameUtils {
      */
     private static final String OFFSET_SUFFIX = "$offset.";
 
+    /**
+     * Prefix for the names of the meta-Segments that hold the SegmentChunk deletion journal of each Container.
+     */
+    private static final String CHUNK_DELETION_JOURNAL_PREFIX = "_system/containers/chunk_deletion_journal_";
+
     /**
      * This is appended to the end of the Parent Segment Name, then we append a unique identifier.
      */
@@ -99,6 +109,18 @@ public final class StreamSegmentNameUtils {
         return segmentName + STATE_SUFFIX;
     }
 
+    /**
+     * Gets the name of the meta-Segment mapped to the given Segment Name that is responsible with storing its Attribute
+     * Index (the dynamic Attributes that are not kept in memory).
+     *
+     * @param segmentName The name of the Segment to get the Attribute segment name for.
+     * @return The result.
+     */
+    public static String getAttributeSegmentName(String segmentName) {
+        Preconditions.checkArgument(!segmentName.contains(ATTRIBUTE_SUFFIX), "segmentName is already an attribute segment name");
+        return segmentName + ATTRIBUTE_SUFFIX;
+    }
+
     /**
      * Gets the name of the meta-Segment mapped to the given Segment Name that is responsible with storing its Rollover
      * information.
@@ -134,4 +156,15 @@ public final class StreamSegmentNameUtils {
         Preconditions.checkArgument(!segmentName.contains(OFFSET_SUFFIX), "segmentName is already a SegmentChunk name");
         return segmentName + OFFSET_SUFFIX + Long.toString(offset);
     }
+
+    /**
+     * Gets the name of the meta-Segment that holds the SegmentChunk deletion journal for the given Container. The journal
+     * may be made up of multiple Segments, whose names begin with this value.
+     *
+     * @param containerId The Id of the Container.
+     * @return The journal name.
+     */
+    public static String getChunkDeletionJournalName(int containerId) {
+        return CHUNK_DELETION_JOURNAL_PREFIX + containerId;
+    }
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import io.pravega.client.segment.impl.Segment;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast the Client can route an Event to a Segment ({@link StreamSegments#getSegmentForKey}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamSegmentsBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    /**
+     * The number of Segments in the Stream.
+     */
+    @Param({"1", "16", "256"})
+    private int segmentCount;
+
+    private StreamSegments streamSegments;
+    private String[] routingKeys;
+    private double[] hashedKeys;
+    private int nextKey;
+
+    @Setup
+    public void setup() {
+        TreeMap<Double, Segment> segments = new TreeMap<>();
+        for (int i = 1; i <= this.segmentCount; i++) {
+            segments.put(i == this.segmentCount ? 1.0 : (double) i / this.segmentCount, new Segment("scope", "stream", i));
+        }
+
+        this.streamSegments = new StreamSegments(segments, "");
+        Random random = new Random(0);
+        this.routingKeys = new String[KEY_COUNT];
+        this.hashedKeys = new double[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            this.routingKeys[i] = "RoutingKey" + random.nextInt();
+            this.hashedKeys[i] = random.nextDouble();
+        }
+
+        this.nextKey = 0;
+    }
+
+    @Benchmark
+    public Segment getSegmentForRoutingKey() {
+        this.nextKey = (this.nextKey + 1) % KEY_COUNT;
+        return this.streamSegments.getSegmentForKey(this.routingKeys[this.nextKey]);
+    }
+
+    @Benchmark
+    public Segment getSegmentForHashedKey() {
+        this.nextKey = (this.nextKey + 1) % KEY_COUNT;
+        return this.streamSegments.getSegmentForKey(this.hashedKeys[this.nextKey]);
+    }
+}
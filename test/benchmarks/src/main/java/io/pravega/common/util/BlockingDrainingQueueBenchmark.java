@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures contention in the {@link BlockingDrainingQueue} when many threads add to it while a single thread drains it,
+ * which is how the OperationProcessor uses it. A queue guarded by a single lock (which is how BlockingDrainingQueue
+ * used to be implemented) is included as a baseline.
+ * <p>
+ * The number of producer threads can be changed using the "-tg" JMH option (i.e., "-tg 32,1").
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingDrainingQueueBenchmark {
+    private static final int PRODUCER_COUNT = 16;
+    private static final int MAX_READ_AT_ONCE = 1000; // Same as OperationProcessor.MAX_READ_AT_ONCE.
+    private static final int MAX_QUEUE_SIZE = 1000 * 1000; // Producers are faster than the consumer; keep memory bounded.
+    private static final Object ITEM = new Object();
+
+    private BlockingDrainingQueue<Object> queue;
+    private ArrayDeque<Object> lockedQueue;
+
+    @Setup
+    public void setup() {
+        this.queue = new BlockingDrainingQueue<>();
+        this.lockedQueue = new ArrayDeque<>();
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(PRODUCER_COUNT)
+    public void lockFreeAdd() {
+        if (this.queue.size() < MAX_QUEUE_SIZE) {
+            this.queue.add(ITEM);
+        }
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public int lockFreeDrain() {
+        return this.queue.poll(MAX_READ_AT_ONCE).size();
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(PRODUCER_COUNT)
+    public void lockedAdd() {
+        synchronized (this.lockedQueue) {
+            if (this.lockedQueue.size() < MAX_QUEUE_SIZE) {
+                this.lockedQueue.addLast(ITEM);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public int lockedDrain() {
+        synchronized (this.lockedQueue) {
+            int count = Math.min(MAX_READ_AT_ONCE, this.lockedQueue.size());
+            Queue<Object> result = new ArrayDeque<>(count);
+            while (result.size() < count) {
+                result.add(this.lockedQueue.pollFirst());
+            }
+
+            return result.size();
+        }
+    }
+}
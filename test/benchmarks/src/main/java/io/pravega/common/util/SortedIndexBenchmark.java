@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link SortedIndex} implementations ({@link AvlTreeIndex} and {@link RedBlackTreeIndex}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedIndexBenchmark {
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"avl", "redblack"})
+    private String indexType;
+
+    /**
+     * The number of entries in the index.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    private SortedIndex<Entry> index;
+    private long[] lookupKeys;
+    private int nextLookup;
+    private long nextKey;
+
+    @Setup
+    public void setup() {
+        this.index = "avl".equals(this.indexType) ? new AvlTreeIndex<>() : new RedBlackTreeIndex<>();
+
+        // Only even keys are inserted, so that half of the lookups are exact hits and half are not.
+        for (int i = 0; i < this.size; i++) {
+            this.index.put(new Entry(2L * i));
+        }
+
+        Random random = new Random(0);
+        this.lookupKeys = new long[LOOKUP_COUNT];
+        for (int i = 0; i < this.lookupKeys.length; i++) {
+            this.lookupKeys[i] = random.nextInt(2 * this.size);
+        }
+
+        this.nextLookup = 0;
+        this.nextKey = 2L * this.size;
+    }
+
+    @Benchmark
+    public Entry get() {
+        return this.index.get(nextLookupKey());
+    }
+
+    @Benchmark
+    public Entry getCeiling() {
+        return this.index.getCeiling(nextLookupKey());
+    }
+
+    @Benchmark
+    public Entry getFloor() {
+        return this.index.getFloor(nextLookupKey());
+    }
+
+    @Benchmark
+    public Entry putAndRemove() {
+        // Append at the end and remove from the beginning, which is how the ReadIndex uses it. This keeps the size constant.
+        this.index.put(new Entry(this.nextKey));
+        this.nextKey += 2;
+        return this.index.remove(this.index.getFirst().key());
+    }
+
+    private long nextLookupKey() {
+        this.nextLookup = (this.nextLookup + 1) % this.lookupKeys.length;
+        return this.lookupKeys[this.nextLookup];
+    }
+
+    private static class Entry implements SortedIndex.IndexEntry {
+        private final long key;
+
+        Entry(long key) {
+            this.key = key;
+        }
+
+        @Override
+        public long key() {
+            return this.key;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.segmentstore.server.logs.operations.Operation;
+import io.pravega.segmentstore.server.logs.operations.OperationSerializer;
+import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.mocks.InMemoryDurableDataLogFactory;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast Operations can be serialized into DataFrames by the {@link DataFrameBuilder}. The frames are
+ * written to an in-memory DurableDataLog, which is truncated as soon as each frame is committed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFrameBuilderBenchmark {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final long SEGMENT_ID = 1;
+
+    /**
+     * The size of each append.
+     */
+    @Param({"100", "1024", "10240"})
+    private int appendSize;
+
+    private ScheduledExecutorService executor;
+    private InMemoryDurableDataLogFactory dataLogFactory;
+    private DurableDataLog dataLog;
+    private DataFrameBuilder<Operation> builder;
+    private byte[] appendData;
+    private long sequenceNumber;
+    private long segmentOffset;
+
+    @Setup
+    public void setup() throws Exception {
+        this.executor = ExecutorServiceHelpers.newScheduledThreadPool(2, "dataframe-benchmark");
+        this.dataLogFactory = new InMemoryDurableDataLogFactory(this.executor);
+        this.dataLog = this.dataLogFactory.createDurableDataLog(0);
+        this.dataLog.initialize(TIMEOUT);
+        val args = new DataFrameBuilder.Args(
+                commitArgs -> { },
+                commitArgs -> this.dataLog.truncate(commitArgs.getLogAddress(), TIMEOUT),
+                (ex, commitArgs) -> { },
+                this.executor);
+        this.builder = new DataFrameBuilder<>(this.dataLog, OperationSerializer.DEFAULT, args);
+        this.appendData = new byte[this.appendSize];
+        this.sequenceNumber = 0;
+        this.segmentOffset = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.builder.close();
+        this.dataLog.close();
+        this.dataLogFactory.close();
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public void append() throws Exception {
+        StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(SEGMENT_ID, this.segmentOffset, this.appendData, null);
+        operation.setSequenceNumber(this.sequenceNumber++);
+        this.segmentOffset += this.appendSize;
+        this.builder.append(operation);
+    }
+}
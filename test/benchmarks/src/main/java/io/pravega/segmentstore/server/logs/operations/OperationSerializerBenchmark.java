@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs.operations;
+
+import io.pravega.common.util.ByteArraySegment;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link io.pravega.common.io.serialization.VersionedSerializer} round-trips, using the most frequently
+ * serialized object in the Segment Store: {@link StreamSegmentAppendOperation} (via {@link OperationSerializer}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationSerializerBenchmark {
+    /**
+     * The size of the appended data.
+     */
+    @Param({"100", "1024", "10240"})
+    private int appendSize;
+
+    private StreamSegmentAppendOperation operation;
+    private ByteArraySegment serialized;
+
+    @Setup
+    public void setup() throws Exception {
+        this.operation = new StreamSegmentAppendOperation(1, 0, new byte[this.appendSize], null);
+        this.operation.setSequenceNumber(1);
+        this.serialized = OperationSerializer.DEFAULT.serialize(this.operation);
+    }
+
+    @Benchmark
+    public ByteArraySegment serialize() throws Exception {
+        return OperationSerializer.DEFAULT.serialize(this.operation);
+    }
+
+    @Benchmark
+    public Operation deserialize() throws Exception {
+        return OperationSerializer.DEFAULT.deserialize(this.serialized.getReader());
+    }
+
+    @Benchmark
+    public Operation roundTrip() throws Exception {
+        return OperationSerializer.DEFAULT.deserialize(OperationSerializer.DEFAULT.serialize(this.operation).getReader());
+    }
+}
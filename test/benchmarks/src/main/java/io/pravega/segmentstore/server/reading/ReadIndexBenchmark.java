@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.io.StreamHelpers;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.contracts.ReadResult;
+import io.pravega.segmentstore.contracts.ReadResultEntry;
+import io.pravega.segmentstore.contracts.ReadResultEntryContents;
+import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
+import io.pravega.segmentstore.server.containers.StreamSegmentContainerMetadata;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryCacheFactory;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures tail reads served from the cache by the ReadIndex. The Segment is pre-populated with appends of a fixed
+ * size and then read sequentially (wrapping around at the end), which exercises the entry lookup in the
+ * StreamSegmentReadIndex and the cache-backed ReadResultEntries it returns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadIndexBenchmark {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int CONTAINER_ID = 0;
+    private static final long SEGMENT_ID = 1;
+    private static final String SEGMENT_NAME = "Segment";
+    private static final int SEGMENT_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * The size of each append that was added to the ReadIndex. This determines how many index entries a read spans.
+     */
+    @Param({"100", "1024"})
+    private int appendSize;
+
+    /**
+     * The length of each read.
+     */
+    @Param({"1024", "65536"})
+    private int readLength;
+
+    private ScheduledExecutorService executor;
+    private InMemoryCacheFactory cacheFactory;
+    private Storage storage;
+    private CacheManager cacheManager;
+    private ContainerReadIndex readIndex;
+    private byte[] readBuffer;
+    private long segmentLength;
+    private long readOffset;
+
+    @Setup
+    public void setup() throws Exception {
+        this.executor = ExecutorServiceHelpers.newScheduledThreadPool(2, "readindex-benchmark");
+        StreamSegmentContainerMetadata metadata = new StreamSegmentContainerMetadata(CONTAINER_ID, 1000);
+        UpdateableSegmentMetadata segmentMetadata = metadata.mapStreamSegmentId(SEGMENT_NAME, SEGMENT_ID);
+        segmentMetadata.setLength(0);
+        segmentMetadata.setStorageLength(0);
+
+        ReadIndexConfig config = ReadIndexConfig.builder().with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0).build();
+        this.cacheFactory = new InMemoryCacheFactory();
+        this.storage = InMemoryStorageFactory.newStorage(this.executor);
+        this.storage.initialize(1);
+
+        // The CacheManager is not started, so nothing will be evicted from the cache while we run.
+        this.cacheManager = new CacheManager(config.getCachePolicy(), this.executor);
+        this.readIndex = new ContainerReadIndex(config, metadata, this.cacheFactory, this.storage, this.cacheManager, this.executor);
+
+        byte[] appendData = new byte[this.appendSize];
+        long offset = 0;
+        while (offset + this.appendSize <= SEGMENT_LENGTH) {
+            segmentMetadata.setLength(offset + this.appendSize);
+            this.readIndex.append(SEGMENT_ID, offset, new ByteArraySegment(appendData));
+            offset += this.appendSize;
+        }
+
+        this.segmentLength = offset;
+        this.readBuffer = new byte[this.readLength];
+        this.readOffset = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.readIndex.close();
+        this.cacheManager.close();
+        this.storage.close();
+        this.cacheFactory.close();
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public int read() throws Exception {
+        if (this.readOffset + this.readLength > this.segmentLength) {
+            this.readOffset = 0;
+        }
+
+        int bytesRead = 0;
+        try (ReadResult readResult = this.readIndex.read(SEGMENT_ID, this.readOffset, this.readLength, TIMEOUT)) {
+            while (readResult.hasNext()) {
+                ReadResultEntry entry = readResult.next();
+                ReadResultEntryContents contents = entry.getContent().join();
+                bytesRead += StreamHelpers.readAll(contents.getData(), this.readBuffer, bytesRead, contents.getLength());
+            }
+        }
+
+        this.readOffset += bytesRead;
+        return bytesRead;
+    }
+}
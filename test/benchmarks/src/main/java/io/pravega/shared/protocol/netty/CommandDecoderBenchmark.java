@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of {@link CommandDecoder} and {@link AppendDecoder} when decoding append blocks (as the
+ * Segment Store does) and of {@link CommandDecoder} when decoding SegmentRead replies (as the Client does).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDecoderBenchmark {
+    private static final String SEGMENT = "scope/stream/0";
+    private static final UUID WRITER_ID = new UUID(1, 2);
+    private static final int EVENTS_PER_BLOCK = 100;
+
+    /**
+     * The size of each Event (for appends) and of the data in each SegmentRead.
+     */
+    @Param({"100", "1024", "10240"})
+    private int dataSize;
+
+    private WireCommands.SetupAppend setupAppend;
+    private ByteBuf appendBlock;
+    private ByteBuf segmentRead;
+
+    @Setup
+    public void setup() throws Exception {
+        CommandEncoder encoder = new CommandEncoder(new FixedBatchSizeTracker(1024 * 1024));
+        this.setupAppend = new WireCommands.SetupAppend(0, WRITER_ID, SEGMENT, "");
+        ByteBuf setupBuffer = Unpooled.buffer();
+        encoder.encode(null, this.setupAppend, setupBuffer);
+        setupBuffer.release();
+
+        // Encode a number of Events, followed by a KeepAlive which closes the last append block.
+        this.appendBlock = Unpooled.directBuffer();
+        ByteBuf event = Unpooled.wrappedBuffer(new byte[this.dataSize]);
+        for (int i = 0; i < EVENTS_PER_BLOCK; i++) {
+            encoder.encode(null, new Append(SEGMENT, WRITER_ID, i, event, null), this.appendBlock);
+        }
+        encoder.encode(null, new WireCommands.KeepAlive(), this.appendBlock);
+
+        this.segmentRead = Unpooled.directBuffer();
+        encoder.encode(null, new WireCommands.SegmentRead(SEGMENT, 0, false, false, Unpooled.wrappedBuffer(new byte[this.dataSize])), this.segmentRead);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.appendBlock.release();
+        this.segmentRead.release();
+    }
+
+    @Benchmark
+    public void decodeAppends(Blackhole blackhole) throws Exception {
+        AppendDecoder decoder = new AppendDecoder();
+        decoder.processCommand(this.setupAppend);
+        ByteBuf in = this.appendBlock.duplicate();
+        while (in.isReadable()) {
+            WireCommand command = CommandDecoder.parseCommand(in);
+            if (decoder.acceptInboundMessage(command)) {
+                blackhole.consume(decoder.processCommand(command));
+            } else {
+                blackhole.consume(command);
+            }
+        }
+    }
+
+    @Benchmark
+    public void decodeSegmentRead(Blackhole blackhole) throws Exception {
+        WireCommands.SegmentRead read = (WireCommands.SegmentRead) CommandDecoder.parseCommand(this.segmentRead.duplicate());
+        blackhole.consume(read);
+        read.release();
+    }
+}
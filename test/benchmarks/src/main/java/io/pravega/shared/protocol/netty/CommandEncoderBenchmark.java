@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput (Events/sec) of {@link CommandEncoder} when encoding Appends. Run with "-prof gc" to also
+ * get the number of bytes allocated per Event.
+ * <p>
+ * Each benchmark has a "Baseline" counterpart which encodes the same Events using {@link LegacyAppendEncoder}, the
+ * encoding used before Appends were written directly into the outbound buffer, so that both show up side by side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandEncoderBenchmark {
+    private static final String SEGMENT = "scope/stream/0";
+    private static final UUID WRITER_ID = new UUID(1, 2);
+
+    /**
+     * The size of each Event.
+     */
+    @Param({"100", "1024", "10240"})
+    private int eventSize;
+
+    /**
+     * The size of the append blocks. Smaller blocks cause more Events to be split across block boundaries.
+     */
+    @Param({"1024", "262144"})
+    private int blockSize;
+
+    private CommandEncoder encoder;
+    private LegacyAppendEncoder baselineEncoder;
+    private ByteBuf event;
+    private ByteBuf out;
+    private long eventNumber;
+
+    @Setup
+    public void setup() throws Exception {
+        this.encoder = new CommandEncoder(new FixedBatchSizeTracker(this.blockSize));
+        this.event = Unpooled.wrappedBuffer(new byte[this.eventSize]);
+        this.out = Unpooled.directBuffer(2 * (this.eventSize + this.blockSize));
+        this.baselineEncoder = new LegacyAppendEncoder(new FixedBatchSizeTracker(this.blockSize));
+        WireCommands.SetupAppend setup = new WireCommands.SetupAppend(0, WRITER_ID, SEGMENT, "");
+        this.encoder.encode(null, setup, this.out);
+        this.baselineEncoder.encode(setup, this.out);
+        this.eventNumber = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.out.release();
+    }
+
+    @Benchmark
+    public ByteBuf encodeEvent() throws Exception {
+        // Nobody reads the output, so we can overwrite it every time.
+        this.out.clear();
+        this.encoder.encode(null, new Append(SEGMENT, WRITER_ID, this.eventNumber++, this.event, null), this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    public ByteBuf encodeConditionalEvent() throws Exception {
+        this.out.clear();
+        this.encoder.encode(null, new Append(SEGMENT, WRITER_ID, this.eventNumber++, this.event, 0L), this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    public ByteBuf encodeEventBaseline() {
+        this.out.clear();
+        this.baselineEncoder.encode(new Append(SEGMENT, WRITER_ID, this.eventNumber++, this.event, null), this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    public ByteBuf encodeConditionalEventBaseline() {
+        this.out.clear();
+        this.baselineEncoder.encode(new Append(SEGMENT, WRITER_ID, this.eventNumber++, this.event, 0L), this.out);
+        return this.out;
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * AppendBatchSizeTracker that always returns the same block size, so that benchmark results do not depend on timing.
+ */
+@RequiredArgsConstructor
+class FixedBatchSizeTracker implements AppendBatchSizeTracker {
+    private final int appendBlockSize;
+
+    @Override
+    public void recordAppend(long eventNumber, int size) {
+    }
+
+    @Override
+    public void recordAck(long eventNumber) {
+    }
+
+    @Override
+    public int getAppendBlockSize() {
+        return this.appendBlockSize;
+    }
+
+    @Override
+    public int getBatchTimeout() {
+        return 10;
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBlock;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBlockEnd;
+import io.pravega.shared.protocol.netty.WireCommands.ConditionalAppend;
+import io.pravega.shared.protocol.netty.WireCommands.Event;
+import io.pravega.shared.protocol.netty.WireCommands.PartialEvent;
+import io.pravega.shared.protocol.netty.WireCommands.Padding;
+import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
+import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
+
+/**
+ * The Append encoding of {@link CommandEncoder} as it was before Appends were written directly into the outbound buffer:
+ * every command goes through a new ByteBufOutputStream, and Events that are split across a block boundary (as well as
+ * all conditional Events) are first serialized into a temporary byte array. It produces the same bytes as CommandEncoder
+ * and is only used as a baseline for {@link CommandEncoderBenchmark}.
+ */
+@RequiredArgsConstructor
+class LegacyAppendEncoder {
+    private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
+    private final AppendBatchSizeTracker blockSizeSupplier;
+    private final HashMap<String, Session> setupSegments = new HashMap<>();
+    private String segmentBeingAppendedTo;
+    private int currentBlockSize;
+    private int bytesLeftInBlock;
+
+    @RequiredArgsConstructor
+    private static final class Session {
+        private final UUID id;
+        private long lastEventNumber = -1L;
+        private int eventCount;
+    }
+
+    void encode(SetupAppend setup, ByteBuf out) {
+        breakFromAppend(out);
+        writeMessage(setup, out);
+        setupSegments.put(setup.getSegment(), new Session(setup.getWriterId()));
+    }
+
+    void encode(Append append, ByteBuf out) {
+        Session session = setupSegments.get(append.segment);
+        if (append.isConditional()) {
+            breakFromAppend(out);
+            ConditionalAppend ca = new ConditionalAppend(append.writerId,
+                    append.eventNumber,
+                    append.getExpectedLength(),
+                    wrappedBuffer(serializeMessage(new Event(append.getData()))));
+            writeMessage(ca, out);
+        } else {
+            if (append.segment != segmentBeingAppendedTo) {
+                breakFromAppend(out);
+            }
+            if (bytesLeftInBlock == 0) {
+                currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, blockSizeSupplier.getAppendBlockSize());
+                bytesLeftInBlock = currentBlockSize;
+                segmentBeingAppendedTo = append.segment;
+                writeMessage(new AppendBlock(session.id), out);
+            }
+
+            session.lastEventNumber = append.getEventNumber();
+            session.eventCount++;
+            ByteBuf data = append.getData();
+            int msgSize = TYPE_PLUS_LENGTH_SIZE + data.readableBytes();
+            if (bytesLeftInBlock - msgSize > TYPE_PLUS_LENGTH_SIZE) {
+                bytesLeftInBlock -= writeMessage(new Event(data), out);
+            } else {
+                byte[] serializedMessage = serializeMessage(new Event(data));
+                int bytesInBlock = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
+                ByteBuf dataInsideBlock = wrappedBuffer(serializedMessage, 0, bytesInBlock);
+                ByteBuf dataRemaining = wrappedBuffer(serializedMessage, bytesInBlock, serializedMessage.length - bytesInBlock);
+                writeMessage(new PartialEvent(dataInsideBlock), out);
+                writeMessage(new AppendBlockEnd(session.id, currentBlockSize - bytesLeftInBlock, dataRemaining,
+                        session.eventCount, session.lastEventNumber, 0L), out);
+                bytesLeftInBlock = 0;
+                session.eventCount = 0;
+            }
+        }
+    }
+
+    private void breakFromAppend(ByteBuf out) {
+        if (bytesLeftInBlock != 0) {
+            writeMessage(new Padding(bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE), out);
+            Session session = setupSegments.get(segmentBeingAppendedTo);
+            writeMessage(new AppendBlockEnd(session.id, currentBlockSize - bytesLeftInBlock, null,
+                    session.eventCount, session.lastEventNumber, 0L), out);
+            bytesLeftInBlock = 0;
+            currentBlockSize = 0;
+            session.eventCount = 0;
+        }
+        segmentBeingAppendedTo = null;
+    }
+
+    @SneakyThrows(IOException.class)
+    private byte[] serializeMessage(WireCommand msg) {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bout);
+        out.writeInt(msg.getType().getCode());
+        out.write(LENGTH_PLACEHOLDER);
+        msg.writeFields(out);
+        out.flush();
+        out.close();
+        byte[] result = bout.toByteArray();
+        ByteBuffer asBuffer = ByteBuffer.wrap(result);
+        asBuffer.putInt(TYPE_SIZE, result.length - TYPE_PLUS_LENGTH_SIZE);
+        return result;
+    }
+
+    @SneakyThrows(IOException.class)
+    private void writeMessage(AppendBlock block, ByteBuf out) {
+        int startIdx = out.writerIndex();
+        ByteBufOutputStream bout = new ByteBufOutputStream(out);
+        bout.writeInt(block.getType().getCode());
+        bout.write(LENGTH_PLACEHOLDER);
+        block.writeFields(bout);
+        bout.flush();
+        bout.close();
+        int endIdx = out.writerIndex();
+        int fieldsSize = endIdx - startIdx - TYPE_PLUS_LENGTH_SIZE;
+        out.setInt(startIdx + TYPE_SIZE, fieldsSize + currentBlockSize);
+    }
+
+    @SneakyThrows(IOException.class)
+    private int writeMessage(WireCommand msg, ByteBuf out) {
+        int startIdx = out.writerIndex();
+        ByteBufOutputStream bout = new ByteBufOutputStream(out);
+        bout.writeInt(msg.getType().getCode());
+        bout.write(LENGTH_PLACEHOLDER);
+        msg.writeFields(bout);
+        bout.flush();
+        bout.close();
+        int endIdx = out.writerIndex();
+        int fieldsSize = endIdx - startIdx - TYPE_PLUS_LENGTH_SIZE;
+        out.setInt(startIdx + TYPE_SIZE, fieldsSize);
+        return endIdx - startIdx;
+    }
+}
@@ -16,6 +16,7 @@ import io.pravega.common.util.ArrayView;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.SequenceInputStream;
 import java.io.UncheckedIOException;
 import java.util.ArrayDeque;
@@ -138,6 +139,11 @@ public class TruncateableArray implements ArrayView {
         throw new UnsupportedOperationException("getCopy() not supported.");
     }
 
+    @Override
+    public void copyTo(OutputStream target) {
+        throw new UnsupportedOperationException("copyTo() not supported.");
+    }
+
     //endregion
 
     //region Operations